@@ -1,4 +1,4 @@
-import React, { useState, useContext } from "react";
+import React, { useState, useContext, useRef, useEffect } from "react";
 import { Button, Loading, Grid, Column, Section, Heading } from "@carbon/react";
 import { FormattedMessage, useIntl, injectIntl } from "react-intl";
 import { getFromOpenElisServer } from "../../utils/Utils";
@@ -9,12 +9,41 @@ import {
   NotificationKinds,
 } from "../../common/CustomNotification";
 
+const STATUS_POLL_INTERVAL_MS = 3000;
+
 function SearchIndexManagement() {
   const [loading, setLoading] = useState(false);
+  const [progress, setProgress] = useState(null);
+  const pollTimer = useRef(null);
   const { notificationVisible, setNotificationVisible, addNotification } =
     useContext(NotificationContext);
   const intl = useIntl();
-  const rebuildIndex = async (res) => {
+
+  useEffect(() => {
+    return () => clearTimeout(pollTimer.current);
+  }, []);
+
+  const pollStatus = () => {
+    getFromOpenElisServer("/rest/reindex/status", (status) => {
+      if (status && status.state === "RUNNING") {
+        setProgress(status);
+        pollTimer.current = setTimeout(pollStatus, STATUS_POLL_INTERVAL_MS);
+      } else {
+        setProgress(null);
+        reindexFinished(status && status.state === "COMPLETED");
+      }
+    });
+  };
+
+  const reindexStarted = (res) => {
+    if (res) {
+      pollStatus();
+    } else {
+      reindexFinished(false);
+    }
+  };
+
+  const reindexFinished = (res) => {
     setNotificationVisible(true);
     if (res) {
       addNotification({
@@ -37,7 +66,7 @@ function SearchIndexManagement() {
   };
   const handleReindexClick = async () => {
     setLoading(true);
-    getFromOpenElisServer("/rest/reindex", rebuildIndex);
+    getFromOpenElisServer("/rest/reindex", reindexStarted);
   };
 
   const breadcrumbs = [
@@ -85,6 +114,19 @@ function SearchIndexManagement() {
               <Button onClick={handleReindexClick} disabled={loading}>
                 <FormattedMessage id="searchindexmanagement.reindex" />
               </Button>
+              {progress && (
+                <Section>
+                  <br />
+                  <FormattedMessage
+                    id="searchindexmanagement.reindex.progress"
+                    values={{
+                      added: progress.documentsAdded,
+                      total: progress.totalCount,
+                      rate: Math.round(progress.documentsPerSecond),
+                    }}
+                  />
+                </Section>
+              )}
             </Column>
           </Grid>
         </div>
@@ -612,17 +612,30 @@ function CytologyCaseView() {
                       />
                     </Column>
                     <Column lg={2} md={1} sm={2}>
-                      {pathologySampleInfo.slides[index].image && (
+                      {pathologySampleInfo.slides[index].imageHash && (
                         <>
+                          {slide.thumbnailHash && (
+                            <img
+                              src={
+                                config.serverBaseUrl +
+                                "/rest/program/image/cytology-slide/" +
+                                slide.id +
+                                "?thumbnail=true"
+                              }
+                              alt={slide.slideNumber}
+                              style={{
+                                maxHeight: "4rem",
+                                marginRight: "0.5rem",
+                              }}
+                            />
+                          )}
                           <Button
                             onClick={() => {
-                              var win = window.open();
-                              win.document.write(
-                                '<iframe src="' +
-                                  slide.fileType +
-                                  ";base64," +
-                                  slide.image +
-                                  '" frameborder="0" style="border:0; top:0px; left:0px; bottom:0px; right:0px; width:100%; height:100%;" allowfullscreen></iframe>',
+                              window.open(
+                                config.serverBaseUrl +
+                                  "/rest/program/image/cytology-slide/" +
+                                  slide.id,
+                                "_blank",
                               );
                             }}
                           >
@@ -809,19 +822,17 @@ function CytologyCaseView() {
                       </h6>
                     </Column>
 
-                    {pathologySampleInfo.reports[index].image && (
+                    {pathologySampleInfo.reports[index].imageHash && (
                       <>
                         {!reportParams[index]?.submited && (
                           <Column lg={2} md={1} sm={2}>
                             <Button
                               onClick={() => {
-                                var win = window.open();
-                                win.document.write(
-                                  '<iframe src="' +
-                                    report.fileType +
-                                    ";base64," +
-                                    report.image +
-                                    '" frameborder="0" style="border:0; top:0px; left:0px; bottom:0px; right:0px; width:100%; height:100%;" allowfullscreen></iframe>',
+                                window.open(
+                                  config.serverBaseUrl +
+                                    "/rest/program/image/cytology-report/" +
+                                    report.id,
+                                  "_blank",
                                 );
                               }}
                             >
@@ -1,4 +1,4 @@
-import React, { useState } from "react";
+import React, { useEffect, useRef, useState } from "react";
 import {
   Grid,
   Column,
@@ -62,6 +62,12 @@ export default function GenericSampleOrderImport({
   const [validationResult, setValidationResult] = useState(null);
   const [importResult, setImportResult] = useState(null);
   const [error, setError] = useState(null);
+  const [importProgress, setImportProgress] = useState(null);
+  const importPollTimer = useRef(null);
+
+  useEffect(() => {
+    return () => clearTimeout(importPollTimer.current);
+  }, []);
 
   /**
    * Handle printing barcode for a single sample.
@@ -161,6 +167,50 @@ export default function GenericSampleOrderImport({
     const formData = new FormData();
     formData.append("file", file);
 
+    const failImport = (errorMsg) => {
+      setImporting(false);
+      setImportProgress(null);
+      setError(errorMsg);
+      if (onImportError) {
+        onImportError(errorMsg);
+      }
+    };
+
+    // the server imports the file in the background, poll the job until it is
+    // done
+    const pollImportJob = (jobId) => {
+      fetch(config.serverBaseUrl + importEndpoint + "/" + jobId, {
+        credentials: "include",
+        method: "GET",
+      })
+        .then((response) => response.json())
+        .then((job) => {
+          if (!job || !job.status) {
+            failImport(job?.error || "Import failed");
+          } else if (job.done) {
+            setImporting(false);
+            setImportProgress(null);
+            setImportResult(job);
+            if (job.success) {
+              if (onImportSuccess) {
+                onImportSuccess(job);
+              }
+            } else if (onImportError) {
+              onImportError(job.error || "Import failed");
+            }
+          } else {
+            setImportProgress(job);
+            importPollTimer.current = setTimeout(
+              () => pollImportJob(jobId),
+              1000,
+            );
+          }
+        })
+        .catch((error) => {
+          failImport(error?.message || "Failed to import file");
+        });
+    };
+
     fetch(config.serverBaseUrl + importEndpoint, {
       credentials: "include",
       method: "POST",
@@ -171,27 +221,15 @@ export default function GenericSampleOrderImport({
     })
       .then((response) => response.json())
       .then((data) => {
-        setImporting(false);
-        if (data && data.success) {
-          setImportResult(data);
-          if (onImportSuccess) {
-            onImportSuccess(data);
-          }
+        if (data && data.jobId) {
+          setImportProgress(data);
+          pollImportJob(data.jobId);
         } else {
-          const errorMsg = data?.error || "Import failed";
-          setError(errorMsg);
-          if (onImportError) {
-            onImportError(errorMsg);
-          }
+          failImport(data?.error || "Import failed");
         }
       })
       .catch((error) => {
-        setImporting(false);
-        const errorMsg = error?.message || "Failed to import file";
-        setError(errorMsg);
-        if (onImportError) {
-          onImportError(errorMsg);
-        }
+        failImport(error?.message || "Failed to import file");
       });
   };
 
@@ -277,7 +315,13 @@ export default function GenericSampleOrderImport({
                 style={{ marginLeft: "1rem" }}
               >
                 {importing ? (
-                  <InlineLoading description="Importing..." />
+                  <InlineLoading
+                    description={
+                      importProgress && importProgress.status === "RUNNING"
+                        ? `Importing... created ${importProgress.totalCreated} of ${importProgress.samplesToCreate}`
+                        : "Importing..."
+                    }
+                  />
                 ) : (
                   <FormattedMessage id="label.button.import" />
                 )}
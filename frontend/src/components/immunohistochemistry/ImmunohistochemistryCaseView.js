@@ -1254,19 +1254,18 @@ function ImmunohistochemistryCaseView() {
                         </h6>
                       </Column>
 
-                      {immunohistochemistrySampleInfo.reports[index].image && (
+                      {immunohistochemistrySampleInfo.reports[index]
+                        .imageHash && (
                         <>
                           {!reportParams[index]?.submited && (
                             <Column lg={2} md={2} sm={2}>
                               <Button
                                 onClick={() => {
-                                  var win = window.open();
-                                  win.document.write(
-                                    '<iframe src="' +
-                                      report.fileType +
-                                      ";base64," +
-                                      report.image +
-                                      '" frameborder="0" style="border:0; top:0px; left:0px; bottom:0px; right:0px; width:100%; height:100%;" allowfullscreen></iframe>',
+                                  window.open(
+                                    config.serverBaseUrl +
+                                      "/rest/program/image/immunohistochemistry-report/" +
+                                      report.id,
+                                    "_blank",
                                   );
                                 }}
                               >
@@ -1482,17 +1481,30 @@ function ImmunohistochemistryCaseView() {
                             </Column>
                             <Column lg={2} md={1} sm={2}>
                               {immunohistochemistrySampleInfo.slides[index]
-                                .image && (
+                                .imageHash && (
                                 <>
+                                  {slide.thumbnailHash && (
+                                    <img
+                                      src={
+                                        config.serverBaseUrl +
+                                        "/rest/program/image/pathology-slide/" +
+                                        slide.id +
+                                        "?thumbnail=true"
+                                      }
+                                      alt={slide.slideNumber}
+                                      style={{
+                                        maxHeight: "4rem",
+                                        marginRight: "0.5rem",
+                                      }}
+                                    />
+                                  )}
                                   <Button
                                     onClick={() => {
-                                      var win = window.open();
-                                      win.document.write(
-                                        '<iframe src="' +
-                                          slide.fileType +
-                                          ";base64," +
-                                          slide.image +
-                                          '" frameborder="0" style="border:0; top:0px; left:0px; bottom:0px; right:0px; width:100%; height:100%;" allowfullscreen></iframe>',
+                                      window.open(
+                                        config.serverBaseUrl +
+                                          "/rest/program/image/pathology-slide/" +
+                                          slide.id,
+                                        "_blank",
                                       );
                                     }}
                                   >
@@ -534,19 +534,17 @@ function PathologyCaseView() {
                         <FormattedMessage id="pathology.label.report" />
                       </h6>
                     </Column>
-                    {pathologySampleInfo.reports[index].image && (
+                    {pathologySampleInfo.reports[index].imageHash && (
                       <>
                         {!reportParams[index]?.submited && (
                           <Column lg={2} md={1} sm={2}>
                             <Button
                               onClick={() => {
-                                var win = window.open();
-                                win.document.write(
-                                  '<iframe src="' +
-                                    report.fileType +
-                                    ";base64," +
-                                    report.image +
-                                    '" frameborder="0" style="border:0; top:0px; left:0px; bottom:0px; right:0px; width:100%; height:100%;" allowfullscreen></iframe>',
+                                window.open(
+                                  config.serverBaseUrl +
+                                    "/rest/program/image/pathology-report/" +
+                                    report.id,
+                                  "_blank",
                                 );
                               }}
                             >
@@ -866,17 +864,30 @@ function PathologyCaseView() {
                       />
                     </Column>
                     <Column lg={3} md={1} sm={2}>
-                      {pathologySampleInfo.slides[index].image && (
+                      {pathologySampleInfo.slides[index].imageHash && (
                         <>
+                          {slide.thumbnailHash && (
+                            <img
+                              src={
+                                config.serverBaseUrl +
+                                "/rest/program/image/pathology-slide/" +
+                                slide.id +
+                                "?thumbnail=true"
+                              }
+                              alt={slide.slideNumber}
+                              style={{
+                                maxHeight: "4rem",
+                                marginRight: "0.5rem",
+                              }}
+                            />
+                          )}
                           <Button
                             onClick={() => {
-                              var win = window.open();
-                              win.document.write(
-                                '<iframe src="' +
-                                  slide.fileType +
-                                  ";base64," +
-                                  slide.image +
-                                  '" frameborder="0" style="border:0; top:0px; left:0px; bottom:0px; right:0px; width:100%; height:100%;" allowfullscreen></iframe>',
+                              window.open(
+                                config.serverBaseUrl +
+                                  "/rest/program/image/pathology-slide/" +
+                                  slide.id,
+                                "_blank",
                               );
                             }}
                           >
@@ -187,6 +187,11 @@ const ReportByDate = (props) => {
                   <h5>
                     <FormattedMessage id="label.select.dateRange" />
                   </h5>
+                  {props.descriptionId && (
+                    <h6>
+                      <FormattedMessage id={props.descriptionId} />
+                    </h6>
+                  )}
                 </Section>
               </Column>
               <Column lg={4} md={8} sm={4}>
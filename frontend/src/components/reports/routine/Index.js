@@ -60,6 +60,7 @@ export const RoutineReports = (props) => {
         <ReportByDate
           report={"indicatorHaitiLNSPAllTests"}
           id={"openreports.all.test.summary.title"}
+          descriptionId={"report.allTests.countingDay.description"}
         />
       )}
 
@@ -67,6 +68,7 @@ export const RoutineReports = (props) => {
         <ReportByDate
           report={"indicatorHaitiLNSPAllTests"}
           id={"openreports.all.test.summary.title"}
+          descriptionId={"report.allTests.countingDay.description"}
         />
       )}
 
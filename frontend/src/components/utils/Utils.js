@@ -251,6 +251,33 @@ export const postToOpenElisServerForPDF = (endPoint, payLoad, callback) => {
     });
 };
 
+export const getFromOpenElisServerForPDF = (endPoint, callback) => {
+  fetch(config.serverBaseUrl + endPoint, {
+    //includes the browser sessionId in the Header for Authentication on the backend server
+    credentials: "include",
+    method: "GET",
+  })
+    .then((response) => {
+      if (!response.ok) {
+        throw new Error(`HTTP error! status: ${response.status}`);
+      }
+      return response.blob();
+    })
+    .then((blob) => {
+      callback(true, blob);
+      let link = document.createElement("a");
+      link.href = window.URL.createObjectURL(blob, { type: "application/pdf" });
+      link.target = "_blank";
+      document.body.appendChild(link);
+      link.click();
+      document.body.removeChild(link);
+    })
+    .catch((error) => {
+      callback(false);
+      console.error(error);
+    });
+};
+
 export const putToOpenElisServer = (endPoint, payLoad, callback) => {
   // Build the request options
   let options = {
@@ -19,6 +19,7 @@ import "./wpStyle.css";
 import { FormattedMessage, useIntl } from "react-intl";
 import WorkplanSearchForm from "./WorkplanSearchForm";
 import {
+  getFromOpenElisServerForPDF,
   postToOpenElisServerForPDF,
   convertAlphaNumLabNumForDisplay,
 } from "../utils/Utils";
@@ -115,7 +116,30 @@ export default function Workplan(props) {
     }
   };
 
+  // the server reads the whole workplan itself, only rows removed by the user
+  // or a priority workplan need the rows to be posted
+  const serverWorkplanPaths = {
+    test: "test",
+    panel: "panel",
+    unit: "testSection",
+  };
+
   const printWorkplan = () => {
+    const serverWorkplanPath = serverWorkplanPaths[type];
+    if (
+      serverWorkplanPath &&
+      selectedValue &&
+      !testsList.some((test) => test.notIncludedInWorkplan)
+    ) {
+      getFromOpenElisServerForPDF(
+        "/rest/PrintWorkplanReport/" +
+          serverWorkplanPath +
+          "/" +
+          encodeURIComponent(selectedValue),
+        reportStatus,
+      );
+      return;
+    }
     let form = {
       type: type,
       testTypeID: "",
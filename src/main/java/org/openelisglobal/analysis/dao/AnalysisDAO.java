@@ -20,6 +20,7 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.common.dao.BaseDAO;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
@@ -154,6 +155,9 @@ public interface AnalysisDAO extends BaseDAO<Analysis, String> {
 
     List<Analysis> getAnalysisStartedOrCompletedInDateRange(Date lowDate, Date highDate) throws LIMSRuntimeException;
 
+    Stream<Analysis> streamAnalysisStartedOrCompletedInDateRange(Date lowDate, Date highDate)
+            throws LIMSRuntimeException;
+
     List<Analysis> getAnalysisByTestIdAndTestSectionIdsAndStartedInDateRange(Date lowDate, Date highDate, String testId,
             List<Integer> testSectionIds) throws LIMSRuntimeException;
 
@@ -189,6 +193,12 @@ public interface AnalysisDAO extends BaseDAO<Analysis, String> {
     @Override
     List<Analysis> get(List<String> value);
 
+    /**
+     * @return the analyses with their sample item, sample, test and test section
+     *         loaded in the same query, in no particular order
+     */
+    List<Analysis> getAnalysesWithSampleAndTest(List<String> ids);
+
     List<Analysis> getAllAnalysisByTestsAndStatusAndCompletedDateRange(List<Integer> testIdList,
             List<Integer> analysisStatusList, List<Integer> sampleStatusList, Date lowDate, Date highDate);
 
@@ -22,6 +22,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.validator.GenericValidator;
@@ -44,6 +45,7 @@ import org.openelisglobal.sampleitem.valueholder.SampleItem;
 import org.openelisglobal.spring.util.SpringContext;
 import org.openelisglobal.test.valueholder.Test;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -1143,15 +1145,8 @@ public class AnalysisDAOImpl extends BaseDAOImpl<Analysis, String> implements An
     @Transactional(readOnly = true)
     public List<Analysis> getAnalysisStartedOrCompletedInDateRange(Date lowDate, Date highDate)
             throws LIMSRuntimeException {
-        String sql = "From Analysis a where a.startedDate BETWEEN :lowDate AND :highDate or a.completedDate"
-                + " BETWEEN :lowDate AND :highDate";
-
         try {
-            Query<Analysis> query = entityManager.unwrap(Session.class).createQuery(sql, Analysis.class);
-            query.setParameter("lowDate", lowDate);
-            query.setParameter("highDate", highDate);
-
-            List<Analysis> list = query.list();
+            List<Analysis> list = createStartedOrCompletedInDateRangeQuery(lowDate, highDate).list();
             return list;
         } catch (HibernateException e) {
             handleException(e, "getAnalysisStartedOrCompletedInDateRange");
@@ -1160,6 +1155,29 @@ public class AnalysisDAOImpl extends BaseDAOImpl<Analysis, String> implements An
         return null;
     }
 
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Analysis> streamAnalysisStartedOrCompletedInDateRange(Date lowDate, Date highDate)
+            throws LIMSRuntimeException {
+        try {
+            return stream(createStartedOrCompletedInDateRangeQuery(lowDate, highDate));
+        } catch (HibernateException e) {
+            handleException(e, "streamAnalysisStartedOrCompletedInDateRange");
+        }
+
+        return null;
+    }
+
+    private Query<Analysis> createStartedOrCompletedInDateRangeQuery(Date lowDate, Date highDate) {
+        String sql = "From Analysis a where a.startedDate BETWEEN :lowDate AND :highDate or a.completedDate"
+                + " BETWEEN :lowDate AND :highDate";
+
+        Query<Analysis> query = entityManager.unwrap(Session.class).createQuery(sql, Analysis.class);
+        query.setParameter("lowDate", lowDate);
+        query.setParameter("highDate", highDate);
+        return query;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Analysis> getAnalysisByTestIdAndTestSectionIdsAndStartedInDateRange(Date lowDate, Date highDate,
@@ -1518,6 +1536,21 @@ public class AnalysisDAOImpl extends BaseDAOImpl<Analysis, String> implements An
         return null;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Analysis> getAnalysesWithSampleAndTest(List<String> ids) {
+        String hql = "select a from Analysis a join fetch a.sampleItem si join fetch si.sample join fetch a.test"
+                + " left join fetch a.testSection where a.id in (:ids)";
+        try {
+            Query<Analysis> query = entityManager.unwrap(Session.class).createQuery(hql, Analysis.class);
+            query.setParameterList("ids", ids.stream().map(Integer::parseInt).collect(Collectors.toList()));
+            return query.list();
+        } catch (HibernateException e) {
+            handleException(e, "getAnalysesWithSampleAndTest");
+        }
+        return null;
+    }
+
     @Override
     public int getCountAnalysisByTestSectionAndStatus(String testSectionId, List<Integer> analysisStatusList,
             List<Integer> sampleStatusList) {
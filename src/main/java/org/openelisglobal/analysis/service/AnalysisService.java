@@ -5,6 +5,7 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.common.service.BaseObjectService;
 import org.openelisglobal.panel.valueholder.Panel;
@@ -34,6 +35,12 @@ public interface AnalysisService extends BaseObjectService<Analysis, String> {
 
     List<Analysis> getAnalysisStartedOrCompletedInDateRange(Date lowDate, Date highDate);
 
+    /**
+     * Passes the analyses to the action one at a time as they are read, for
+     * callers going through more analyses than should be held in memory at once
+     */
+    void forEachAnalysisStartedOrCompletedInDateRange(Date lowDate, Date highDate, Consumer<Analysis> action);
+
     List<Analysis> getAnalysisByTestIdAndTestSectionIdsAndStartedInDateRange(Date lowDate, Date highDate, String testId,
             List<Integer> testScectionIds);
 
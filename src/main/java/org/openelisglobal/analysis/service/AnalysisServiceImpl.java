@@ -8,6 +8,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.analysis.dao.AnalysisDAO;
 import org.openelisglobal.analysis.valueholder.Analysis;
@@ -26,6 +28,7 @@ import org.openelisglobal.referencetables.service.ReferenceTablesService;
 import org.openelisglobal.result.service.ResultService;
 import org.openelisglobal.result.service.ResultServiceImpl;
 import org.openelisglobal.result.valueholder.Result;
+import org.openelisglobal.resultvalidation.service.ValidationQueueService;
 import org.openelisglobal.sample.valueholder.OrderPriority;
 import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.sampleitem.valueholder.SampleItem;
@@ -57,6 +60,8 @@ public class AnalysisServiceImpl extends AuditableBaseObjectServiceImpl<Analysis
     private ReferenceTablesService referenceTablesService;
     @Autowired
     private NoteService noteService;
+    @Autowired
+    private ValidationQueueService validationQueueService;
 
     private static String TABLE_REFERENCE_ID;
     private final String DEFAULT_ANALYSIS_TYPE = "MANUAL";
@@ -78,11 +83,50 @@ public class AnalysisServiceImpl extends AuditableBaseObjectServiceImpl<Analysis
     }
 
     @Override
+    @Transactional
     public String insert(Analysis analysis) {
         if (analysis.getFhirUuid() == null) {
             analysis.setFhirUuid(UUID.randomUUID());
         }
-        return super.insert(analysis);
+        String id = super.insert(analysis);
+        validationQueueService.refresh(analysis);
+        return id;
+    }
+
+    // persisted together and flushed once, so the analysis inserts go out in JDBC
+    // batches rather than one round trip each
+    @Override
+    @Transactional
+    public List<String> insertAll(List<Analysis> analyses) {
+        for (Analysis analysis : analyses) {
+            if (analysis.getFhirUuid() == null) {
+                analysis.setFhirUuid(UUID.randomUUID());
+            }
+        }
+        List<String> ids = getBaseObjectDAO().insertAll(analyses);
+        for (Analysis analysis : analyses) {
+            if (auditTrailLog) {
+                auditTrailService.saveNewHistory(analysis, analysis.getSysUserId(), getBaseObjectDAO().getTableName());
+            }
+            validationQueueService.refresh(analysis);
+        }
+        return ids;
+    }
+
+    // every update, save and status change of an analysis passes through here, so
+    // the validation queue follows the analysis status
+    @Override
+    protected Analysis update(Analysis analysis, String auditTrailType) {
+        Analysis updatedAnalysis = super.update(analysis, auditTrailType);
+        validationQueueService.refresh(updatedAnalysis);
+        return updatedAnalysis;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Analysis analysis) {
+        validationQueueService.remove(analysis.getId());
+        super.delete(analysis);
     }
 
     @Override
@@ -240,6 +284,16 @@ public class AnalysisServiceImpl extends AuditableBaseObjectServiceImpl<Analysis
         return baseObjectDAO.getAnalysisStartedOrCompletedInDateRange(lowDate, highDate);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachAnalysisStartedOrCompletedInDateRange(Date lowDate, Date highDate,
+            Consumer<Analysis> action) {
+        try (Stream<Analysis> analyses = baseObjectDAO.streamAnalysisStartedOrCompletedInDateRange(lowDate,
+                highDate)) {
+            analyses.forEach(action);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Analysis> getAnalysisByTestIdAndTestSectionIdsAndStartedInDateRange(Date lowDate, Date highDate,
@@ -455,6 +509,7 @@ public class AnalysisServiceImpl extends AuditableBaseObjectServiceImpl<Analysis
     @Override
     public void updateNoAuditTrail(Analysis analysis) {
         getBaseObjectDAO().update(analysis);
+        validationQueueService.refresh(analysis);
     }
 
     @Override
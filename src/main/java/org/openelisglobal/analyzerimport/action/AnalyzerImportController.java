@@ -13,11 +13,15 @@
  */
 package org.openelisglobal.analyzerimport.action;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.analyzer.service.BidirectionalAnalyzer;
 import org.openelisglobal.analyzerimport.analyzerreaders.ASTMAnalyzerReader;
@@ -41,16 +45,33 @@ import org.springframework.web.multipart.MultipartFile;
 @Controller
 public class AnalyzerImportController implements IActionConstants {
 
+    private static final String SOURCE_FILE = "file";
+    private static final String SOURCE_ASTM = "astm";
+
     @Autowired
     protected LoginUserService loginService;
     @Autowired
     protected SystemUserService systemUserService;
     @Autowired
     private PluginAnalyzerService pluginAnalyzerService;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @PostMapping("/importAnalyzer")
     protected void doPost(@RequestParam("file") MultipartFile file, HttpServletRequest request,
             HttpServletResponse response) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            importFile(file, request, response);
+            completed = true;
+        } finally {
+            recordImport(SOURCE_FILE, completed, response, file.getSize(), start);
+        }
+    }
+
+    private void importFile(MultipartFile file, HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
 
         AnalyzerReader reader = null;
         boolean fileRead = false;
@@ -86,6 +107,18 @@ public class AnalyzerImportController implements IActionConstants {
 
     @PostMapping("/analyzer/astm")
     public void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            importAstm(request, response);
+            completed = true;
+        } finally {
+            recordImport(SOURCE_ASTM, completed, response, request.getContentLengthLong(), start);
+        }
+    }
+
+    private void importAstm(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
 
         ASTMAnalyzerReader reader = null;
         boolean read = false;
@@ -118,6 +151,31 @@ public class AnalyzerImportController implements IActionConstants {
         }
     }
 
+    /**
+     * Counts an upload as rejected when it could not be read, and as failed when
+     * it was read but not saved or an exception ended it
+     */
+    private void recordImport(String source, boolean completed, HttpServletResponse response, long bytes,
+            long start) {
+        String outcome;
+        if (!completed || response.getStatus() == HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            outcome = "failed";
+        } else if (response.getStatus() == HttpServletResponse.SC_OK) {
+            outcome = "success";
+        } else {
+            outcome = "rejected";
+        }
+        Timer.builder("openelis.analyzer.import.duration")
+                .description("Time to read and save an analyzer result upload").tag("source", source)
+                .register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Counter.builder("openelis.analyzer.imports").description("Analyzer result uploads by outcome")
+                .tag("source", source).tag("outcome", outcome).register(meterRegistry).increment();
+        if (bytes > 0) {
+            Counter.builder("openelis.analyzer.import.bytes").description("Bytes of analyzer result uploads")
+                    .tag("source", source).register(meterRegistry).increment(bytes);
+        }
+    }
+
     @PostMapping("/analyzer/runAction")
     public ResponseEntity<String> runAnalyzerAction(@RequestParam String analyzerType,
             @RequestParam String actionName) {
@@ -20,7 +20,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.services.PluginAnalyzerService;
 import org.openelisglobal.plugin.AnalyzerImporterPlugin;
@@ -97,17 +99,29 @@ public class ASTMAnalyzerReader extends AnalyzerReader {
     }
 
     private void setInserterResponder() {
-        for (AnalyzerImporterPlugin plugin : SpringContext.getBean(PluginAnalyzerService.class).getAnalyzerPlugins()) {
-            if (plugin.isTargetAnalyzer(lines)) {
+        PluginAnalyzerService pluginAnalyzerService = SpringContext.getBean(PluginAnalyzerService.class);
+        // a plugin that cannot give an inserter is skipped for the next one that
+        // recognizes the message
+        Set<AnalyzerImporterPlugin> failedPlugins = new HashSet<>();
+        AnalyzerImporterPlugin candidate = pluginAnalyzerService.findTargetPlugin(lines, failedPlugins);
+        while (candidate != null) {
+            try {
+                inserter = candidate.getAnalyzerLineInserter();
+            } catch (RuntimeException e) {
+                LogEvent.logError(e);
+                inserter = null;
+            }
+            if (inserter != null) {
+                plugin = candidate;
                 try {
-                    this.plugin = plugin;
-                    inserter = plugin.getAnalyzerLineInserter();
-                    responder = plugin.getAnalyzerResponder();
-                    return;
+                    responder = candidate.getAnalyzerResponder();
                 } catch (RuntimeException e) {
                     LogEvent.logError(e);
                 }
+                return;
             }
+            failedPlugins.add(candidate);
+            candidate = pluginAnalyzerService.findTargetPlugin(lines, failedPlugins);
         }
     }
 
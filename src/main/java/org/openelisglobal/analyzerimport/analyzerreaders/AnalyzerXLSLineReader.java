@@ -76,12 +76,10 @@ public class AnalyzerXLSLineReader extends AnalyzerReader {
     }
 
     private void setInserter() {
-        for (AnalyzerImporterPlugin plugin : SpringContext.getBean(PluginAnalyzerService.class).getAnalyzerPlugins()) {
+        AnalyzerImporterPlugin plugin = SpringContext.getBean(PluginAnalyzerService.class).findTargetPlugin(lines);
+        if (plugin != null) {
             try {
-                if (plugin.isTargetAnalyzer(lines)) {
-                    inserter = plugin.getAnalyzerLineInserter();
-                    return;
-                }
+                inserter = plugin.getAnalyzerLineInserter();
             } catch (RuntimeException e) {
                 LogEvent.logError(e);
             }
@@ -20,8 +20,12 @@ import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.text.pdf.draw.LineSeparator;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +37,8 @@ import org.openelisglobal.barcode.labeltype.Label;
 import org.openelisglobal.barcode.labeltype.OrderLabel;
 import org.openelisglobal.barcode.labeltype.SlideLabel;
 import org.openelisglobal.barcode.labeltype.SpecimenLabel;
+import org.openelisglobal.barcode.printerlanguage.PrinterLanguage;
+import org.openelisglobal.barcode.printerlanguage.PrinterLanguageLabelWriter;
 import org.openelisglobal.barcode.service.BarcodeLabelInfoService;
 import org.openelisglobal.common.exception.LIMSInvalidConfigurationException;
 import org.openelisglobal.common.log.LogEvent;
@@ -406,6 +412,54 @@ public class BarcodeLabelMaker {
         return stream;
     }
 
+    /**
+     * Writes all the stored labels as printer commands, each label once with
+     * the number of copies to print. Labels are written as they are produced so
+     * large print runs can be streamed to the client.
+     *
+     * @param stream           The stream to write the commands to
+     * @param language         The printer language to write
+     * @param dpi              The resolution of the printer
+     * @param maximumPrints    Whether to stop at the maximum number of prints of
+     *                         each label and record the prints
+     * @throws IOException
+     */
+    public void writeLabels(OutputStream stream, PrinterLanguage language, int dpi, boolean maximumPrints)
+            throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(stream, language.getRenderer().getCharset()));
+        PrinterLanguageLabelWriter labelWriter = new PrinterLanguageLabelWriter(language, barcodeType, dpi);
+        for (Label label : labels) {
+            int copies = label.getNumLabels();
+            if (maximumPrints) {
+                copies = 0;
+                for (int i = 0; i < label.getNumLabels(); ++i) {
+                    if (label.checkIfPrintable() || "true".equals(override)) {
+                        label.incrementNumPrinted();
+                        ++copies;
+                    }
+                }
+                getBarcodeLabelService().save(label.getLabelInfo());
+            }
+            if (copies > 0) {
+                labelWriter.write(out, label, copies);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * @return whether at least one label can still be printed, because it is
+     *         below its maximum number of prints or the maximum is overridden
+     */
+    public boolean hasPrintableLabels() {
+        for (Label label : labels) {
+            if (label.getNumLabels() > 0 && (label.checkIfPrintable() || "true".equals(override))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // parse label info to draw label and add to document
     /**
      * Draws a label as a PDF page and adds the page to the document
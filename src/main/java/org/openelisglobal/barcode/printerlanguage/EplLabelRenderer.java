@@ -0,0 +1,87 @@
+package org.openelisglobal.barcode.printerlanguage;
+
+import java.nio.charset.Charset;
+
+/**
+ * Eltron Programming Language 2. Text is sent in the Windows Cyrillic code page
+ * ({@code I8,C}), so characters outside it print as "?". EPL2 has no QR code,
+ * so labels are always laid out with a Code 128 bar code.
+ */
+public class EplLabelRenderer implements LabelRenderer {
+
+    // heights in dots of the resident fonts 1 to 5
+    private static final int[] FONT_HEIGHTS = { 12, 16, 20, 24, 48 };
+    private static final int LABEL_GAP = 24;
+    // modules of a version 2 QR code and its quiet zone
+    private static final int QR_CODE_MODULES = 29;
+
+    @Override
+    public Charset getCharset() {
+        return Charset.forName("windows-1251");
+    }
+
+    @Override
+    public boolean supportsQRCode() {
+        return false;
+    }
+
+    @Override
+    public String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\").replace("\"", "\\\"").replaceAll("[\\r\\n]", " ");
+    }
+
+    @Override
+    public void start(LabelTemplate.Builder template, int width, int height) {
+        template.literal("\nN\nI8,C,001\nq").literal(width).literal("\nQ").literal(height).literal(",")
+                .literal(LABEL_GAP).literal("\n");
+    }
+
+    @Override
+    public void text(LabelTemplate.Builder template, int x, int y, int fontHeight, int maxWidth, boolean centered,
+            String prefix, int slot) {
+        template.literal("A").literal(x).literal(",").literal(y).literal(",0,").literal(getFont(fontHeight))
+                .literal(",1,1,N,\"").literal(escape(prefix));
+        if (slot >= 0) {
+            template.value(slot);
+        }
+        template.literal("\"\n");
+    }
+
+    /** @return the largest resident font that is not higher than the height */
+    private static int getFont(int fontHeight) {
+        int font = 1;
+        for (int i = 0; i < FONT_HEIGHTS.length; i++) {
+            if (FONT_HEIGHTS[i] <= fontHeight) {
+                font = i + 1;
+            }
+        }
+        return font;
+    }
+
+    @Override
+    public void line(LabelTemplate.Builder template, int x, int y, int width, int thickness) {
+        template.literal("LO").literal(x).literal(",").literal(y).literal(",").literal(width).literal(",")
+                .literal(thickness).literal("\n");
+    }
+
+    @Override
+    public void code128(LabelTemplate.Builder template, int x, int y, int height, int moduleWidth, int slot) {
+        template.literal("B").literal(x).literal(",").literal(y).literal(",0,1,").literal(moduleWidth).literal(",")
+                .literal(moduleWidth * 2).literal(",").literal(height).literal(",N,\"").value(slot)
+                .literal("\"\n");
+    }
+
+    /** EPL2 has no QR code, a Code 128 bar code of the same height is printed */
+    @Override
+    public void qrCode(LabelTemplate.Builder template, int x, int y, int magnification, int slot) {
+        code128(template, x, y, magnification * QR_CODE_MODULES, Math.max(1, magnification / 2), slot);
+    }
+
+    @Override
+    public void end(LabelTemplate.Builder template, int copiesSlot) {
+        template.literal("P").value(copiesSlot).literal("\n");
+    }
+}
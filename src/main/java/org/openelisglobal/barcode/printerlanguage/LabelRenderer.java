@@ -0,0 +1,35 @@
+package org.openelisglobal.barcode.printerlanguage;
+
+import java.nio.charset.Charset;
+
+/**
+ * Writes the commands of a printer language into a label template. Positions
+ * and sizes are in printer dots.
+ */
+public interface LabelRenderer {
+
+    Charset getCharset();
+
+    boolean supportsQRCode();
+
+    /** @return the text as it can be placed in a field of this language */
+    String escape(String text);
+
+    void start(LabelTemplate.Builder template, int width, int height);
+
+    /**
+     * Adds a single line of text made of a fixed prefix and, unless the slot is
+     * negative, the value of a slot
+     */
+    void text(LabelTemplate.Builder template, int x, int y, int fontHeight, int maxWidth, boolean centered,
+            String prefix, int slot);
+
+    void line(LabelTemplate.Builder template, int x, int y, int width, int thickness);
+
+    void code128(LabelTemplate.Builder template, int x, int y, int height, int moduleWidth, int slot);
+
+    void qrCode(LabelTemplate.Builder template, int x, int y, int magnification, int slot);
+
+    /** Ends the label, printing it the number of times held by a slot */
+    void end(LabelTemplate.Builder template, int copiesSlot);
+}
@@ -0,0 +1,60 @@
+package org.openelisglobal.barcode.printerlanguage;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The printer commands for one label layout with numbered slots for the values
+ * that change from label to label, so printing a label only writes the fixed
+ * commands and the already escaped values.
+ */
+public class LabelTemplate {
+
+    private final String[] literals;
+    private final int[] slots;
+
+    private LabelTemplate(List<String> literals, List<Integer> slots) {
+        this.literals = literals.toArray(new String[0]);
+        this.slots = slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public void write(Writer out, String[] values) throws IOException {
+        for (int i = 0; i < slots.length; i++) {
+            out.write(literals[i]);
+            out.write(values[slots[i]]);
+        }
+        out.write(literals[slots.length]);
+    }
+
+    public static class Builder {
+
+        private final List<String> literals = new ArrayList<>();
+        private final List<Integer> slots = new ArrayList<>();
+        private final StringBuilder literal = new StringBuilder();
+
+        public Builder literal(String text) {
+            literal.append(text);
+            return this;
+        }
+
+        public Builder literal(int number) {
+            literal.append(number);
+            return this;
+        }
+
+        public Builder value(int slot) {
+            literals.add(literal.toString());
+            literal.setLength(0);
+            slots.add(slot);
+            return this;
+        }
+
+        public LabelTemplate build() {
+            List<String> allLiterals = new ArrayList<>(literals);
+            allLiterals.add(literal.toString());
+            return new LabelTemplate(allLiterals, slots);
+        }
+    }
+}
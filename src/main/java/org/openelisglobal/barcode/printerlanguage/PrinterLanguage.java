@@ -0,0 +1,30 @@
+package org.openelisglobal.barcode.printerlanguage;
+
+/** Label printer languages that labels can be written in instead of a PDF */
+public enum PrinterLanguage {
+    ZPL(new ZplLabelRenderer()), EPL(new EplLabelRenderer());
+
+    private final LabelRenderer renderer;
+
+    PrinterLanguage(LabelRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    public LabelRenderer getRenderer() {
+        return renderer;
+    }
+
+    public String getFileExtension() {
+        return name().toLowerCase();
+    }
+
+    /** @return the language with the name, or null for any other value */
+    public static PrinterLanguage fromString(String value) {
+        for (PrinterLanguage language : values()) {
+            if (language.name().equalsIgnoreCase(value)) {
+                return language;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,247 @@
+package org.openelisglobal.barcode.printerlanguage;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openelisglobal.barcode.BarcodeLabelMaker.BarcodeType;
+import org.openelisglobal.barcode.LabelField;
+import org.openelisglobal.barcode.labeltype.Label;
+
+/**
+ * Writes labels as printer commands, laid out like the PDF labels of
+ * BarcodeLabelMaker: rows of fields on a 20 column grid above and below a Code
+ * 128 bar code, or the fields beside a QR code.
+ *
+ * <p>
+ * The commands for a layout (label type, dimensions, field names and
+ * positions) are built once into a template and cached, so a label only costs
+ * escaping its values: the copies, the code, the code text and the field
+ * values, in that order.
+ */
+public class PrinterLanguageLabelWriter {
+
+    public static final int DEFAULT_DPI = 203;
+
+    private static final int NUM_COLUMNS = 20;
+    // the PDF labels are 350 points wide
+    private static final float PDF_WIDTH = 350;
+    private static final int ROWS_PER_LABEL = 10;
+    private static final float MM_PER_INCH = 25.4f;
+    private static final int MAX_CACHED_TEMPLATES = 200;
+
+    private static final int COPIES_SLOT = 0;
+    private static final int CODE_SLOT = 1;
+    private static final int CODE_LABEL_SLOT = 2;
+    private static final int FIRST_FIELD_SLOT = 3;
+
+    private static final Map<String, LabelTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private final PrinterLanguage language;
+    private final LabelRenderer renderer;
+    private final BarcodeType barcodeType;
+    private final int dpi;
+
+    public PrinterLanguageLabelWriter(PrinterLanguage language, BarcodeType barcodeType, int dpi) {
+        this.language = language;
+        this.renderer = language.getRenderer();
+        this.barcodeType = renderer.supportsQRCode() ? barcodeType : BarcodeType.BARCODE;
+        this.dpi = dpi;
+    }
+
+    public void write(Writer out, Label label, int copies) throws IOException {
+        getTemplate(label).write(out, getValues(label, copies));
+    }
+
+    LabelTemplate getTemplate(Label label) {
+        String key = getTemplateKey(label);
+        LabelTemplate template = TEMPLATES.get(key);
+        if (template == null) {
+            if (TEMPLATES.size() >= MAX_CACHED_TEMPLATES) {
+                // layouts only change with the configuration, so this is rarely reached
+                TEMPLATES.clear();
+            }
+            template = TEMPLATES.computeIfAbsent(key, k -> buildTemplate(label));
+        }
+        return template;
+    }
+
+    private String[] getValues(Label label, int copies) {
+        List<String> values = new ArrayList<>();
+        values.add(String.valueOf(copies));
+        values.add(renderer.escape(label.getCode()));
+        values.add(renderer.escape(label.getCodeLabel()));
+        for (LabelField field : getFields(label)) {
+            values.add(renderer.escape(field.getValue()));
+        }
+        return values.toArray(new String[0]);
+    }
+
+    private String getTemplateKey(Label label) {
+        StringBuilder key = new StringBuilder();
+        key.append(language).append('|').append(barcodeType).append('|').append(dpi).append('|')
+                .append(label.getClass().getName()).append('|').append(label.getWidth()).append('x')
+                .append(label.getHeight()).append('|').append(label.getMargin()).append('|')
+                .append(label.getScaledBarcodeSpace());
+        appendFieldsKey(key, label.getAboveFields());
+        key.append("|below");
+        appendFieldsKey(key, label.getBelowFields());
+        return key.toString();
+    }
+
+    private void appendFieldsKey(StringBuilder key, Iterable<LabelField> fields) {
+        if (fields == null) {
+            return;
+        }
+        for (LabelField field : fields) {
+            key.append('|').append(field.isDisplayFieldName() ? field.getName() : "").append(',')
+                    .append(field.getColspan()).append(',').append(field.isStartNewline()).append(',')
+                    .append(field.isUnderline());
+        }
+    }
+
+    private static List<LabelField> getFields(Label label) {
+        List<LabelField> fields = new ArrayList<>();
+        if (label.getAboveFields() != null) {
+            label.getAboveFields().forEach(fields::add);
+        }
+        if (label.getBelowFields() != null) {
+            label.getBelowFields().forEach(fields::add);
+        }
+        return fields;
+    }
+
+    private LabelTemplate buildTemplate(Label label) {
+        int width = toDots(label.getWidth());
+        int height = toDots(label.getHeight());
+        int margin = Math.round(width * label.getMargin() / PDF_WIDTH);
+        LabelTemplate.Builder template = new LabelTemplate.Builder();
+        renderer.start(template, width, height);
+        if (barcodeType == BarcodeType.QR) {
+            addQRCodeLayout(template, label, width, height, margin);
+        } else {
+            addBarcodeLayout(template, label, width, height, margin);
+        }
+        renderer.end(template, COPIES_SLOT);
+        return template.build();
+    }
+
+    private void addBarcodeLayout(LabelTemplate.Builder template, Label label, int width, int height, int margin) {
+        int contentWidth = width - 2 * margin;
+        int contentHeight = height - 2 * margin;
+        int columnWidth = contentWidth / NUM_COLUMNS;
+        int lineHeight = contentHeight / ROWS_PER_LABEL;
+        int fontHeight = Math.max(1, lineHeight * 4 / 5);
+
+        List<PlacedField> aboveFields = placeInRows(label.getAboveFields(), FIRST_FIELD_SLOT);
+        int belowFieldsSlot = FIRST_FIELD_SLOT + aboveFields.size();
+        List<PlacedField> belowFields = placeInRows(label.getBelowFields(), belowFieldsSlot);
+        int aboveRows = getRowCount(aboveFields);
+        int belowRows = getRowCount(belowFields);
+
+        for (PlacedField placed : aboveFields) {
+            addField(template, placed, margin, margin, columnWidth, lineHeight, fontHeight);
+        }
+
+        // the bar code shrinks as there are more rows of text, as on the PDF labels
+        int barcodeY = margin + aboveRows * lineHeight;
+        int barcodeHeight = lineHeight * Math.max(2, ROWS_PER_LABEL - aboveRows - belowRows - 1);
+        int barcodeColumns = Math.min(NUM_COLUMNS, label.getScaledBarcodeSpace());
+        int barcodeX = margin + (NUM_COLUMNS - barcodeColumns) / 2 * columnWidth;
+        renderer.code128(template, barcodeX, barcodeY, barcodeHeight - lineHeight / 4, getModuleWidth(), CODE_SLOT);
+        renderer.text(template, barcodeX, barcodeY + barcodeHeight, fontHeight, barcodeColumns * columnWidth, true,
+                "", CODE_LABEL_SLOT);
+
+        int belowY = barcodeY + barcodeHeight + lineHeight;
+        for (PlacedField placed : belowFields) {
+            addField(template, placed, margin, belowY, columnWidth, lineHeight, fontHeight);
+        }
+    }
+
+    private void addField(LabelTemplate.Builder template, PlacedField placed, int x, int y, int columnWidth,
+            int lineHeight, int fontHeight) {
+        LabelField field = placed.field;
+        int fieldX = x + placed.column * columnWidth;
+        int fieldY = y + placed.row * lineHeight;
+        int fieldWidth = field.getColspan() * columnWidth;
+        String prefix = field.isDisplayFieldName() ? field.getName() + ": " : "";
+        renderer.text(template, fieldX, fieldY, fontHeight, fieldWidth, false, prefix, placed.slot);
+        if (field.isUnderline()) {
+            renderer.line(template, fieldX, fieldY + fontHeight, fieldWidth, Math.max(1, dpi / 200));
+        }
+    }
+
+    private void addQRCodeLayout(LabelTemplate.Builder template, Label label, int width, int height, int margin) {
+        int contentWidth = width - 2 * margin;
+        int contentHeight = height - 2 * margin;
+        // QR code in the left 40%, the code and the fields one per line in the rest
+        int qrSize = Math.min(contentHeight, contentWidth * 2 / 5);
+        // a short code fits in a version 2 QR code of 25 modules and its quiet zone
+        int magnification = Math.max(1, Math.min(10, qrSize / 29));
+        renderer.qrCode(template, margin, margin, magnification, CODE_SLOT);
+
+        List<LabelField> fields = getFields(label);
+        int lineHeight = contentHeight / Math.max(fields.size() + 2, 6);
+        int fontHeight = Math.max(1, lineHeight * 4 / 5);
+        int fieldsX = margin + contentWidth * 2 / 5;
+        int fieldsWidth = contentWidth - contentWidth * 2 / 5;
+        renderer.text(template, fieldsX, margin, lineHeight * 3 / 2, fieldsWidth, true, "", CODE_LABEL_SLOT);
+        int y = margin + lineHeight * 2;
+        for (int i = 0; i < fields.size(); i++) {
+            LabelField field = fields.get(i);
+            String prefix = field.isDisplayFieldName() ? field.getName() + ": " : "";
+            renderer.text(template, fieldsX, y, fontHeight, fieldsWidth, false, prefix, FIRST_FIELD_SLOT + i);
+            y += lineHeight;
+        }
+    }
+
+    /** Places fields into rows of the grid as the PDF table does */
+    private static List<PlacedField> placeInRows(Iterable<LabelField> fields, int firstSlot) {
+        List<PlacedField> placedFields = new ArrayList<>();
+        if (fields == null) {
+            return placedFields;
+        }
+        int row = 0;
+        int column = 0;
+        int slot = firstSlot;
+        for (LabelField field : fields) {
+            if (column > 0 && (field.isStartNewline() || column + field.getColspan() > NUM_COLUMNS)) {
+                ++row;
+                column = 0;
+            }
+            placedFields.add(new PlacedField(field, row, column, slot++));
+            column += field.getColspan();
+        }
+        return placedFields;
+    }
+
+    private static int getRowCount(List<PlacedField> placedFields) {
+        return placedFields.isEmpty() ? 0 : placedFields.get(placedFields.size() - 1).row + 1;
+    }
+
+    private int toDots(float millimeters) {
+        return Math.round(millimeters / MM_PER_INCH * dpi);
+    }
+
+    /** @return the narrow bar width, 2 dots at 203 dpi */
+    private int getModuleWidth() {
+        return Math.max(1, dpi / 100);
+    }
+
+    private static class PlacedField {
+
+        private final LabelField field;
+        private final int row;
+        private final int column;
+        private final int slot;
+
+        private PlacedField(LabelField field, int row, int column, int slot) {
+            this.field = field;
+            this.row = row;
+            this.column = column;
+            this.slot = slot;
+        }
+    }
+}
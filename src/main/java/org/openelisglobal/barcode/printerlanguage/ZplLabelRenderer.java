@@ -0,0 +1,81 @@
+package org.openelisglobal.barcode.printerlanguage;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zebra Programming Language. Field data is sent in UTF-8 ({@code ^CI28}) with
+ * the characters that have a meaning in ZPL written as hexadecimal escapes
+ * ({@code ^FH}).
+ */
+public class ZplLabelRenderer implements LabelRenderer {
+
+    private static final char HEX_ESCAPE = '_';
+
+    @Override
+    public Charset getCharset() {
+        return StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public boolean supportsQRCode() {
+        return true;
+    }
+
+    @Override
+    public String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '^' || c == '~' || c == HEX_ESCAPE || c < ' ') {
+                escaped.append(HEX_ESCAPE).append(String.format("%02X", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    @Override
+    public void start(LabelTemplate.Builder template, int width, int height) {
+        template.literal("^XA^CI28^LH0,0^PW").literal(width).literal("^LL").literal(height).literal("\n");
+    }
+
+    @Override
+    public void text(LabelTemplate.Builder template, int x, int y, int fontHeight, int maxWidth, boolean centered,
+            String prefix, int slot) {
+        template.literal("^FO").literal(x).literal(",").literal(y).literal("^A0N,").literal(fontHeight).literal(",")
+                .literal(fontHeight).literal("^FB").literal(maxWidth).literal(centered ? ",1,0,C" : ",1,0,L")
+                .literal("^FH^FD").literal(escape(prefix));
+        if (slot >= 0) {
+            template.value(slot);
+        }
+        template.literal("^FS\n");
+    }
+
+    @Override
+    public void line(LabelTemplate.Builder template, int x, int y, int width, int thickness) {
+        template.literal("^FO").literal(x).literal(",").literal(y).literal("^GB").literal(width).literal(",")
+                .literal(thickness).literal(",").literal(thickness).literal("^FS\n");
+    }
+
+    @Override
+    public void code128(LabelTemplate.Builder template, int x, int y, int height, int moduleWidth, int slot) {
+        template.literal("^FO").literal(x).literal(",").literal(y).literal("^BY").literal(moduleWidth)
+                .literal("^BCN,").literal(height).literal(",N,N,N^FH^FD").value(slot).literal("^FS\n");
+    }
+
+    @Override
+    public void qrCode(LabelTemplate.Builder template, int x, int y, int magnification, int slot) {
+        template.literal("^FO").literal(x).literal(",").literal(y).literal("^BQN,2,").literal(magnification)
+                .literal("^FH^FDQA,").value(slot).literal("^FS\n");
+    }
+
+    @Override
+    public void end(LabelTemplate.Builder template, int copiesSlot) {
+        template.literal("^PQ").value(copiesSlot).literal("^XZ\n");
+    }
+}
@@ -0,0 +1,30 @@
+package org.openelisglobal.blobstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.Resource;
+
+/**
+ * Stores binary content outside of the database, keyed by the hex SHA-256 hash
+ * of the content. Storing the same content twice keeps a single copy.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the content, closing the stream
+     *
+     * @return the hash the content is stored under
+     */
+    String put(InputStream content) throws IOException;
+
+    String put(byte[] content) throws IOException;
+
+    boolean exists(String hash);
+
+    /**
+     * @return the content stored under the hash, or null if there is none. The
+     *         resource supports reading a range of the content without reading
+     *         what comes before it
+     */
+    Resource get(String hash);
+}
@@ -0,0 +1,120 @@
+package org.openelisglobal.blobstore;
+
+import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps blobs as files named by their hash under
+ * {@code <directory>/<first 2 hex digits>/<next 2 hex digits>/}, so no
+ * directory gets too many entries. Content is written to a temporary file
+ * while it is hashed and then moved into place, so a blob file is always
+ * complete.
+ */
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final String TEMP_DIRECTORY = "tmp";
+
+    @Value("${org.openelisglobal.blobstore.dir:/var/lib/openelis-global/blobs}")
+    private String directory;
+
+    private Path root;
+
+    public FileSystemBlobStore() {
+    }
+
+    public FileSystemBlobStore(String directory) {
+        this.directory = directory;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        root = Paths.get(directory);
+    }
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        Path tempDirectory = Files.createDirectories(root.resolve(TEMP_DIRECTORY));
+        Path tempFile = Files.createTempFile(tempDirectory, "blob", null);
+        try {
+            MessageDigest digest = newDigest();
+            try (InputStream in = new DigestInputStream(content, digest);
+                    OutputStream out = Files.newOutputStream(tempFile)) {
+                in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path blobFile = getPath(hash);
+            if (!Files.exists(blobFile)) {
+                Files.createDirectories(blobFile.getParent());
+                moveIntoPlace(tempFile, blobFile);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public String put(byte[] content) throws IOException {
+        return put(new ByteArrayInputStream(content));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return isHash(hash) && Files.isRegularFile(getPath(hash));
+    }
+
+    @Override
+    public Resource get(String hash) {
+        return exists(hash) ? new FileSystemResource(getPath(hash)) : null;
+    }
+
+    private Path getPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private void moveIntoPlace(Path tempFile, Path blobFile) throws IOException {
+        try {
+            Files.move(tempFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(tempFile, blobFile);
+            } catch (FileAlreadyExistsException alreadyStored) {
+                // the same content was stored concurrently
+            }
+        }
+    }
+
+    private static boolean isHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new LIMSRuntimeException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -33,7 +33,7 @@ public class FreezerReading extends BaseObject<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "freezer_reading_generator")
-    @SequenceGenerator(name = "freezer_reading_generator", sequenceName = "freezer_reading_seq", allocationSize = 1)
+    @SequenceGenerator(name = "freezer_reading_generator", sequenceName = "freezer_reading_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
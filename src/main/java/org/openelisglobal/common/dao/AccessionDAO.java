@@ -10,6 +10,21 @@ public interface AccessionDAO {
 
     long getNextNumberIncrement(String prefix, AccessionFormat accessionFormat);
 
+    /**
+     * Adds count to the current value in one atomic update, reserving the
+     * numbers in between for the caller
+     *
+     * @return the new current value, the last number reserved
+     */
+    long incrementBy(String prefix, AccessionFormat accessionFormat, long count);
+
+    /**
+     * Creates the counter unless another transaction or node already has
+     *
+     * @return true if the counter was created
+     */
+    boolean insertIfAbsent(String prefix, AccessionFormat accessionFormat, long curVal);
+
     AccessionNumberInfo save(AccessionNumberInfo info);
 
     AccessionNumberInfo get(AccessionIdentity accessionIdentity);
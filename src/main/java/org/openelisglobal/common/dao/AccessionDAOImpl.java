@@ -41,6 +41,45 @@ public class AccessionDAOImpl implements AccessionDAO {
         }
     }
 
+    @Override
+    public long incrementBy(String prefix, AccessionFormat accessionFormat, long count) {
+        try {
+            String sql = "UPDATE accession_number_info" //
+                    + " SET cur_val = cur_val + :count " //
+                    + " WHERE prefix = :prefix" //
+                    + " AND type = :type" //
+                    + " RETURNING cur_val";
+            Query query = entityManager.createNativeQuery(sql);
+            query.setParameter("count", count);
+            query.setParameter("prefix", prefix);
+            query.setParameter("type", accessionFormat.name());
+
+            return ((Number) query.getSingleResult()).longValue();
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in " + this.getClass().getSimpleName() + " " + "incrementBy", e);
+        }
+    }
+
+    @Override
+    public boolean insertIfAbsent(String prefix, AccessionFormat accessionFormat, long curVal) {
+        try {
+            String sql = "INSERT INTO accession_number_info (prefix, type, cur_val)" //
+                    + " VALUES (:prefix, :type, :curVal)" //
+                    + " ON CONFLICT (prefix, type) DO NOTHING";
+            Query query = entityManager.createNativeQuery(sql);
+            query.setParameter("prefix", prefix);
+            query.setParameter("type", accessionFormat.name());
+            query.setParameter("curVal", curVal);
+
+            return query.executeUpdate() > 0;
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in " + this.getClass().getSimpleName() + " " + "insertIfAbsent",
+                    e);
+        }
+    }
+
     @Override
     public long getNextNumberNoIncrement(String prefix, AccessionFormat accessionFormat) {
         try {
@@ -17,6 +17,7 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.openelisglobal.common.valueholder.BaseObject;
 
 /**
@@ -52,6 +53,34 @@ public interface BaseDAO<T extends BaseObject<PK>, PK extends Serializable> {
      */
     List<T> getAllMatching(Map<String, Object> propertyValues);
 
+    /**
+     * The stream methods read the entries a fetch size at a time instead of all at
+     * once. They must be called within a transaction, preferably a read only one,
+     * and the stream must be closed before the transaction ends.
+     *
+     * @return Stream of all entries
+     */
+    Stream<T> streamAll();
+
+    /**
+     * @param propertyValues Key Value pairs where key is the property name and
+     *                       value is the value it must match
+     * @return Stream of all matching entries
+     */
+    Stream<T> streamAllMatching(Map<String, Object> propertyValues);
+
+    /**
+     * @param propertyValues  Key Value pairs where key is the property name and
+     *                        value is the value it must match
+     * @param orderProperties the properties to order by, starting with the first
+     *                        entry
+     * @param descending      Set to true to order by descending, false for order by
+     *                        ascending
+     * @return Stream of all ordered matching entries
+     */
+    Stream<T> streamAllMatchingOrdered(Map<String, Object> propertyValues, List<String> orderProperties,
+            boolean descending);
+
     List<T> getAllLike(Map<String, String> propertyValues);
 
     List<T> getAllLike(String propertyName, String propertyValue);
@@ -265,6 +294,15 @@ public interface BaseDAO<T extends BaseObject<PK>, PK extends Serializable> {
      */
     PK insert(T object);
 
+    /**
+     * Inserts the objects with a single flush, so the inserts can be sent in JDBC
+     * batches
+     *
+     * @param objects the data to insert
+     * @return the ids of the inserted objects, in the same order
+     */
+    List<PK> insertAll(List<T> objects);
+
     /**
      * @param object the new data to update the database with.
      * @return the object as it was saved to the database
@@ -0,0 +1,34 @@
+package org.openelisglobal.common.dao;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.common.valueholder.OutboxEntry;
+
+public interface OutboxDAO<T extends BaseObject<Long> & OutboxEntry<S>, S extends Enum<S>> extends BaseDAO<T, Long> {
+
+    /**
+     * Moves up to batchSize queued entries that are due, oldest first, to the
+     * claimed status and stamps them with the claim time. Rows claimed by another
+     * node are skipped
+     */
+    List<T> claimDue(int batchSize, Timestamp now) throws LIMSRuntimeException;
+
+    /**
+     * Puts entries claimed before the given time that are still in the claimed
+     * status back on the queue, as the node that claimed them is assumed to be
+     * gone
+     */
+    int requeueClaimedBefore(Timestamp claimedBefore) throws LIMSRuntimeException;
+
+    /** @return the number of entries in each status, 0 for statuses with none */
+    Map<S, Long> getCountsByStatus() throws LIMSRuntimeException;
+
+    /**
+     * @return when the oldest entry in the status was queued, null if there is
+     *         none
+     */
+    Timestamp getOldestQueuedTime(S status) throws LIMSRuntimeException;
+}
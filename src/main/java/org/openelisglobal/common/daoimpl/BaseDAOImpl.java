@@ -29,13 +29,22 @@ import jakarta.persistence.criteria.Root;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.Query;
 import org.openelisglobal.common.action.IActionConstants;
 import org.openelisglobal.common.dao.BaseDAO;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
@@ -43,8 +52,10 @@ import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.valueholder.BaseObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -66,6 +77,12 @@ public abstract class BaseDAOImpl<T extends BaseObject<PK>, PK extends Serializa
     @PersistenceContext
     protected EntityManager entityManager;
 
+    @Value("${org.openelisglobal.dao.stream.fetchSize:500}")
+    private int streamFetchSize;
+
+    @Value("${org.openelisglobal.dao.stream.clearInterval:1000}")
+    private int streamClearInterval;
+
     @Autowired
     public BaseDAOImpl(Class<T> clazz) {
         classType = clazz;
@@ -184,24 +201,7 @@ public abstract class BaseDAOImpl<T extends BaseObject<PK>, PK extends Serializa
     public List<T> getAllMatchingOrdered(Map<String, Object> propertyValues, List<String> orderProperties,
             boolean descending) {
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(this.classType);
-            Root<T> root = criteriaQuery.from(this.classType);
-            criteriaQuery.select(root);
-            List<PropertyValueComparison> whereComparisonOperations = new ArrayList<>();
-            for (Entry<String, Object> entrySet : propertyValues.entrySet()) {
-                whereComparisonOperations
-                        .add(new PropertyValueComparison(entrySet.getKey(), entrySet.getValue(), DBComparison.EQ));
-            }
-            this.addWhere(criteriaBuilder, criteriaQuery, root, whereComparisonOperations);
-
-            Map<String, Boolean> orderByMap = new HashMap<>();
-            for (String orderProperty : orderProperties) {
-                orderByMap.put(orderProperty, descending);
-            }
-            this.addOrder(criteriaBuilder, criteriaQuery, root, orderByMap);
-
-            return entityManager.createQuery(criteriaQuery).getResultList();
+            return createMatchingOrderedQuery(propertyValues, orderProperties, descending).getResultList();
 
             // Map<String, String> aliases = new HashMap<>();
             // Session session = entityManager.unwrap(Session.class);
@@ -220,6 +220,99 @@ public abstract class BaseDAOImpl<T extends BaseObject<PK>, PK extends Serializa
         }
     }
 
+    private TypedQuery<T> createMatchingOrderedQuery(Map<String, Object> propertyValues,
+            List<String> orderProperties, boolean descending) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(this.classType);
+        Root<T> root = criteriaQuery.from(this.classType);
+        criteriaQuery.select(root);
+        List<PropertyValueComparison> whereComparisonOperations = new ArrayList<>();
+        for (Entry<String, Object> entrySet : propertyValues.entrySet()) {
+            whereComparisonOperations
+                    .add(new PropertyValueComparison(entrySet.getKey(), entrySet.getValue(), DBComparison.EQ));
+        }
+        this.addWhere(criteriaBuilder, criteriaQuery, root, whereComparisonOperations);
+
+        Map<String, Boolean> orderByMap = new HashMap<>();
+        for (String orderProperty : orderProperties) {
+            orderByMap.put(orderProperty, descending);
+        }
+        this.addOrder(criteriaBuilder, criteriaQuery, root, orderByMap);
+
+        return entityManager.createQuery(criteriaQuery);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<T> streamAll() {
+        return streamAllMatchingOrdered(new HashMap<>(), new ArrayList<>(), false);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<T> streamAllMatching(Map<String, Object> propertyValues) {
+        return streamAllMatchingOrdered(propertyValues, new ArrayList<>(), false);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    @SuppressWarnings("unchecked")
+    public Stream<T> streamAllMatchingOrdered(Map<String, Object> propertyValues, List<String> orderProperties,
+            boolean descending) {
+        try {
+            return stream(createMatchingOrderedQuery(propertyValues, orderProperties, descending).unwrap(Query.class));
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException(
+                    "Error in " + this.getClass().getSimpleName() + " " + "streamAllMatchingOrdered", e);
+        }
+    }
+
+    /**
+     * Scrolls through the results of the query instead of listing them, reading
+     * them from the database a fetch size at a time. In a read only transaction the
+     * session is cleared every clear interval rows, so the entities already passed
+     * along can be garbage collected. The stream must be consumed and closed
+     * within the transaction it was opened in, and an entity should not be used
+     * after the next one has been taken from the stream.
+     */
+    protected <R> Stream<R> stream(Query<R> query) {
+        Session session = entityManager.unwrap(Session.class);
+        if (streamFetchSize > 0) {
+            query.setFetchSize(streamFetchSize);
+        }
+        ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        boolean clearSession = streamClearInterval > 0 && session.isDefaultReadOnly();
+        Iterator<R> iterator = new Iterator<>() {
+            private int rowCount = 0;
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    if (clearSession && rowCount > 0 && rowCount % streamClearInterval == 0) {
+                        session.clear();
+                    }
+                    hasNext = results.next();
+                }
+                return hasNext;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public R next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                rowCount++;
+                return (R) results.get(0);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(results::close);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<T> getAllLikeOrdered(String propertyName, String propertyValue, String orderProperty,
@@ -522,6 +615,22 @@ public abstract class BaseDAOImpl<T extends BaseObject<PK>, PK extends Serializa
         }
     }
 
+    @Override
+    public List<PK> insertAll(List<T> objects) {
+        try {
+            List<PK> ids = new ArrayList<>();
+            for (T object : objects) {
+                entityManager.persist(object);
+                ids.add(object.getId());
+            }
+            entityManager.flush();
+            return ids;
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in " + this.getClass().getSimpleName() + " " + "insertAll", e);
+        }
+    }
+
     @Override
     public T update(T object) {
         try {
@@ -0,0 +1,126 @@
+package org.openelisglobal.common.daoimpl;
+
+import java.sql.Timestamp;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.HibernateException;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.openelisglobal.common.dao.OutboxDAO;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.common.valueholder.OutboxEntry;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Claiming, requeueing and counting for tables used as work queues. The
+ * entries are claimed with FOR UPDATE SKIP LOCKED so several nodes can work
+ * the same queue without handing out a row twice.
+ */
+@Transactional
+public abstract class OutboxDAOImpl<T extends BaseObject<Long> & OutboxEntry<S>, S extends Enum<S>>
+        extends BaseDAOImpl<T, Long> implements OutboxDAO<T, S> {
+
+    private final Class<T> entityType;
+    private final Class<S> statusType;
+    private final S queuedStatus;
+    private final S claimedStatus;
+    private final String queuedTimeProperty;
+    private final String dueTimeProperty;
+
+    /**
+     * @param queuedStatus       the status of entries waiting to be claimed
+     * @param claimedStatus      the status of entries a node is working on
+     * @param queuedTimeProperty the property holding when the entry was queued
+     * @param dueTimeProperty    the property holding when the entry may next be
+     *                           claimed, null if queued entries are always due
+     */
+    protected OutboxDAOImpl(Class<T> entityType, Class<S> statusType, S queuedStatus, S claimedStatus,
+            String queuedTimeProperty, String dueTimeProperty) {
+        super(entityType);
+        this.entityType = entityType;
+        this.statusType = statusType;
+        this.queuedStatus = queuedStatus;
+        this.claimedStatus = claimedStatus;
+        this.queuedTimeProperty = queuedTimeProperty;
+        this.dueTimeProperty = dueTimeProperty;
+    }
+
+    @Override
+    public List<T> claimDue(int batchSize, Timestamp now) throws LIMSRuntimeException {
+        String hql = "from " + entityType.getSimpleName() + " e where e.status = :status"
+                + (dueTimeProperty == null ? "" : " and e." + dueTimeProperty + " <= :now") + " order by e.id";
+        try {
+            Query<T> query = entityManager.unwrap(Session.class).createQuery(hql, entityType);
+            query.setParameter("status", queuedStatus);
+            if (dueTimeProperty != null) {
+                query.setParameter("now", now);
+            }
+            query.setMaxResults(batchSize);
+            query.setLockOptions(new LockOptions(LockMode.PESSIMISTIC_WRITE).setTimeOut(LockOptions.SKIP_LOCKED));
+            List<T> entries = query.list();
+            for (T entry : entries) {
+                entry.setStatus(claimedStatus);
+                entry.setClaimedAt(now);
+                entry.setAttempts(entry.getAttempts() + 1);
+            }
+            return entries;
+        } catch (HibernateException e) {
+            handleException(e, "claimDue");
+        }
+        return null;
+    }
+
+    @Override
+    public int requeueClaimedBefore(Timestamp claimedBefore) throws LIMSRuntimeException {
+        String hql = "update " + entityType.getSimpleName() + " e set e.status = :queued, e.claimedAt = null"
+                + " where e.status = :claimed and (e.claimedAt is null or e.claimedAt < :claimedBefore)";
+        try {
+            Query<?> query = entityManager.unwrap(Session.class).createQuery(hql);
+            query.setParameter("queued", queuedStatus);
+            query.setParameter("claimed", claimedStatus);
+            query.setParameter("claimedBefore", claimedBefore);
+            return query.executeUpdate();
+        } catch (HibernateException e) {
+            handleException(e, "requeueClaimedBefore");
+        }
+        return 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<S, Long> getCountsByStatus() throws LIMSRuntimeException {
+        String hql = "select e.status, count(e) from " + entityType.getSimpleName() + " e group by e.status";
+        Map<S, Long> counts = new EnumMap<>(statusType);
+        for (S status : statusType.getEnumConstants()) {
+            counts.put(status, 0L);
+        }
+        try {
+            Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(hql, Object[].class);
+            for (Object[] row : query.list()) {
+                counts.put(statusType.cast(row[0]), ((Number) row[1]).longValue());
+            }
+        } catch (HibernateException e) {
+            handleException(e, "getCountsByStatus");
+        }
+        return counts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Timestamp getOldestQueuedTime(S status) throws LIMSRuntimeException {
+        String hql = "select min(e." + queuedTimeProperty + ") from " + entityType.getSimpleName()
+                + " e where e.status = :status";
+        try {
+            Query<Timestamp> query = entityManager.unwrap(Session.class).createQuery(hql, Timestamp.class);
+            query.setParameter("status", status);
+            return query.uniqueResult();
+        } catch (HibernateException e) {
+            handleException(e, "getOldestQueuedTime");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package org.openelisglobal.common.exception;
+
+/**
+ * Thrown when a search asks for results past the number of matches the search
+ * ranks, such as a page beyond the configured cap of patient search results.
+ */
+public class LIMSSearchLimitExceededException extends LIMSRuntimeException {
+    public LIMSSearchLimitExceededException(String message) {
+        super(message);
+    }
+}
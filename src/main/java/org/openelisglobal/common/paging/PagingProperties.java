@@ -8,12 +8,18 @@ public class PagingProperties {
     @Value("${org.openelisglobal.paging.patients.pageSize:99}")
     private Integer patientsPageSize;
 
+    @Value("${org.openelisglobal.paging.patients.maxSearchResults:500}")
+    private Integer patientSearchMaxResults;
+
     @Value("${org.openelisglobal.paging.results.pageSize:99}")
     private Integer resultsPageSize;
 
     @Value("${org.openelisglobal.paging.validation.pageSize:99}")
     private Integer validationPageSize;
 
+    @Value("${org.openelisglobal.paging.validation.maxAnalyses:1000}")
+    private Integer validationMaxAnalyses;
+
     @Value("${org.openelisglobal.paging.displaylist.pageSize:99}")
     private Integer displayListPageSize;
 
@@ -28,6 +34,14 @@ public class PagingProperties {
         this.patientsPageSize = patientsPageSize;
     }
 
+    public Integer getPatientSearchMaxResults() {
+        return patientSearchMaxResults;
+    }
+
+    public void setPatientSearchMaxResults(Integer patientSearchMaxResults) {
+        this.patientSearchMaxResults = patientSearchMaxResults;
+    }
+
     public Integer getResultsPageSize() {
         return resultsPageSize;
     }
@@ -44,6 +58,14 @@ public class PagingProperties {
         this.validationPageSize = validationPageSize;
     }
 
+    public Integer getValidationMaxAnalyses() {
+        return validationMaxAnalyses;
+    }
+
+    public void setValidationMaxAnalyses(Integer validationMaxAnalyses) {
+        this.validationMaxAnalyses = validationMaxAnalyses;
+    }
+
     public Integer getDisplayListPageSize() {
         return displayListPageSize;
     }
@@ -0,0 +1,90 @@
+package org.openelisglobal.common.provider.query;
+
+import java.util.Comparator;
+import java.util.Locale;
+import org.apache.commons.validator.GenericValidator;
+
+/**
+ * Orders patient search results by how well they match the search terms.
+ *
+ * <p>
+ * Each supplied term contributes a rank of 0 (exact, case insensitive), 1
+ * (prefix), 2 (contains) or 3 (no match) and results are ordered by the sum of
+ * those ranks, then by last name, first name and id. The database search
+ * computes the same ranking in SQL (see DBSearchResultsDAOImpl) so that both
+ * search backends return results in the same order.
+ */
+public class PatientSearchRelevanceComparator implements Comparator<PatientSearchResults> {
+
+    public static final int EXACT_MATCH = 0;
+    public static final int PREFIX_MATCH = 1;
+    public static final int CONTAINS_MATCH = 2;
+    public static final int NO_MATCH = 3;
+
+    private final String lastName;
+    private final String firstName;
+    private final String nationalId;
+
+    public PatientSearchRelevanceComparator(String lastName, String firstName, String nationalId) {
+        this.lastName = lastName;
+        this.firstName = firstName;
+        this.nationalId = nationalId;
+    }
+
+    public static int matchRank(String value, String term) {
+        if (GenericValidator.isBlankOrNull(term)) {
+            return EXACT_MATCH;
+        }
+        if (value == null) {
+            return NO_MATCH;
+        }
+        String lowerValue = value.toLowerCase(Locale.ROOT);
+        String lowerTerm = term.toLowerCase(Locale.ROOT);
+        if (lowerValue.equals(lowerTerm)) {
+            return EXACT_MATCH;
+        } else if (lowerValue.startsWith(lowerTerm)) {
+            return PREFIX_MATCH;
+        } else if (lowerValue.contains(lowerTerm)) {
+            return CONTAINS_MATCH;
+        }
+        return NO_MATCH;
+    }
+
+    public int rank(PatientSearchResults result) {
+        return matchRank(result.getLastName(), lastName) + matchRank(result.getFirstName(), firstName)
+                + matchRank(result.getNationalId(), nationalId);
+    }
+
+    @Override
+    public int compare(PatientSearchResults o1, PatientSearchResults o2) {
+        int rankResult = Integer.compare(rank(o1), rank(o2));
+        if (rankResult != 0) {
+            return rankResult;
+        }
+        int lastNameResult = compareNullsLast(o1.getLastName(), o2.getLastName());
+        if (lastNameResult != 0) {
+            return lastNameResult;
+        }
+        int firstNameResult = compareNullsLast(o1.getFirstName(), o2.getFirstName());
+        if (firstNameResult != 0) {
+            return firstNameResult;
+        }
+        return compareIds(o1.getPatientID(), o2.getPatientID());
+    }
+
+    private static int compareNullsLast(String one, String two) {
+        if (one == null) {
+            return two == null ? 0 : 1;
+        } else if (two == null) {
+            return -1;
+        }
+        return one.compareToIgnoreCase(two);
+    }
+
+    private static int compareIds(String one, String two) {
+        if (GenericValidator.isLong(one) && GenericValidator.isLong(two)) {
+            return Long.compare(Long.parseLong(one), Long.parseLong(two));
+        }
+        return compareNullsLast(one, two);
+    }
+}
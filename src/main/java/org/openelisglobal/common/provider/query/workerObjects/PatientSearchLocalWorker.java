@@ -60,7 +60,7 @@ public class PatientSearchLocalWorker extends PatientSearchWorker {
             List<PatientSearchResults> observationResults = getObservationsByReferringPatientId(nationalID);
             results.addAll(observationResults);
         }
-        sortPatients(results);
+        sortPatientsByRelevance(results, lastName, firstName, nationalID);
 
         if (!results.isEmpty()) {
             for (PatientSearchResults singleResult : results) {
@@ -97,7 +97,7 @@ public class PatientSearchLocalWorker extends PatientSearchWorker {
             List<PatientSearchResults> observationResults = getObservationsByReferringPatientId(nationalID);
             results.addAll(observationResults);
         }
-        sortPatients(results);
+        sortPatientsByRelevance(results, lastName, firstName, nationalID);
 
         if (!results.isEmpty()) {
             for (PatientSearchResults singleResult : results) {
@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import org.apache.commons.validator.GenericValidator;
+import org.openelisglobal.common.provider.query.PatientSearchRelevanceComparator;
 import org.openelisglobal.common.provider.query.PatientSearchResults;
 import org.openelisglobal.common.util.XMLUtil;
 import org.openelisglobal.patient.util.PatientUtil;
@@ -84,6 +85,11 @@ public abstract class PatientSearchWorker {
         Collections.sort(foundList, new FoundListComparator());
     }
 
+    protected void sortPatientsByRelevance(List<PatientSearchResults> foundList, String lastName, String firstName,
+            String nationalID) {
+        Collections.sort(foundList, new PatientSearchRelevanceComparator(lastName, firstName, nationalID));
+    }
+
     class FoundListComparator implements Comparator<PatientSearchResults> {
 
         @Override
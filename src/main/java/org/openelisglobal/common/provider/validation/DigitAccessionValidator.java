@@ -15,8 +15,8 @@
  */
 package org.openelisglobal.common.provider.validation;
 
-import java.util.HashSet;
-import java.util.Set;
+import org.openelisglobal.common.provider.validation.AccessionNumberValidatorFactory.AccessionFormat;
+import org.openelisglobal.common.service.AccessionNumberBlockAllocator;
 import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.sample.service.SampleService;
 import org.openelisglobal.spring.util.SpringContext;
@@ -24,12 +24,14 @@ import org.openelisglobal.spring.util.SpringContext;
 public class DigitAccessionValidator implements IAccessionNumberGenerator {
 
     protected SampleService sampleService = SpringContext.getBean(SampleService.class);
+    protected AccessionNumberBlockAllocator numberAllocator = SpringContext
+            .getBean(AccessionNumberBlockAllocator.class);
 
     private String incrementStartingValue = "0000001";
     private int upperIncRange = 9999999;
     private int maxLength = 7;
     private static final boolean NEED_PROGRAM_CODE = false;
-    private static Set<String> REQUESTED_NUMBERS = new HashSet<>();
+    private static final String COUNTER_PREFIX = "";
     private String format;
 
     public DigitAccessionValidator(int length) {
@@ -110,23 +112,33 @@ public class DigitAccessionValidator implements IAccessionNumberGenerator {
     @Override
     public String getNextAvailableAccessionNumber(String prefix, boolean reserve) throws IllegalStateException {
         String nextAccessionNumber;
-        String curLargestAccessionNumber = sampleService.getLargestAccessionNumber();
-
-        if (curLargestAccessionNumber == null) {
-            nextAccessionNumber = incrementStartingValue;
-        } else {
-            nextAccessionNumber = incrementAccessionNumber(curLargestAccessionNumber);
-
-            while (REQUESTED_NUMBERS.contains(nextAccessionNumber)) {
-                nextAccessionNumber = incrementAccessionNumber(nextAccessionNumber);
+        do {
+            long increment = reserve
+                    ? numberAllocator.nextNumber(COUNTER_PREFIX, AccessionFormat.DIGIT, this::getHighestNumberInUse)
+                    : numberAllocator.peekNextNumber(COUNTER_PREFIX, AccessionFormat.DIGIT,
+                            this::getHighestNumberInUse);
+            if (increment > upperIncRange) {
+                throw new IllegalStateException("AccessionNumber has no next value");
             }
-
-            REQUESTED_NUMBERS.add(nextAccessionNumber);
-        }
+            nextAccessionNumber = String.format(format, increment);
+        } while (reserve && accessionNumberIsUsed(nextAccessionNumber, null));
 
         return nextAccessionNumber;
     }
 
+    // only used to start the counter, e.g. on upgrade
+    private long getHighestNumberInUse() {
+        String curLargestAccessionNumber = sampleService.getLargestAccessionNumber();
+        if (curLargestAccessionNumber == null || curLargestAccessionNumber.length() != maxLength) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(curLargestAccessionNumber);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     @Override
     public int getMaxAccessionLength() {
         return maxLength;
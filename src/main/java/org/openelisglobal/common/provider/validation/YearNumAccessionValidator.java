@@ -15,8 +15,8 @@
  */
 package org.openelisglobal.common.provider.validation;
 
-import java.util.HashSet;
-import java.util.Set;
+import org.openelisglobal.common.provider.validation.AccessionNumberValidatorFactory.AccessionFormat;
+import org.openelisglobal.common.service.AccessionNumberBlockAllocator;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.common.util.DateUtil;
@@ -28,6 +28,8 @@ import org.openelisglobal.spring.util.SpringContext;
 public class YearNumAccessionValidator implements IAccessionNumberGenerator {
 
     protected SampleService sampleService = SpringContext.getBean(SampleService.class);
+    protected AccessionNumberBlockAllocator numberAllocator = SpringContext
+            .getBean(AccessionNumberBlockAllocator.class);
 
     private String incrementStartingValue = "000001";
     private static int upperIncrementValue = 999999;
@@ -36,13 +38,14 @@ public class YearNumAccessionValidator implements IAccessionNumberGenerator {
     private static final int YEAR_END = 2;
     private int acccessionLength = 8;
     private static final boolean NEED_PROGRAM_CODE = false;
-    private static Set<String> REQUESTED_NUMBERS = new HashSet<>();
     private final boolean useSeparator;
     private final String separator;
     private final int separatorLength;
     private String incrementFormat;
+    private final AccessionFormat accessionFormat;
 
-    public YearNumAccessionValidator(int length, Character separator) {
+    public YearNumAccessionValidator(int length, Character separator, AccessionFormat accessionFormat) {
+        this.accessionFormat = accessionFormat;
         useSeparator = separator != null;
         this.separator = useSeparator ? separator.toString() : "";
         separatorLength = useSeparator ? 1 : 0;
@@ -126,27 +129,32 @@ public class YearNumAccessionValidator implements IAccessionNumberGenerator {
 
     @Override
     public String getNextAvailableAccessionNumber(String prefix, boolean reserve) {
+        String year = DateUtil.getTwoDigitYear();
         String nextAccessionNumber;
+        do {
+            long increment = reserve
+                    ? numberAllocator.nextNumber(year, accessionFormat, () -> getHighestIncrementInUse(year))
+                    : numberAllocator.peekNextNumber(year, accessionFormat, () -> getHighestIncrementInUse(year));
+            if (increment > upperIncrementValue) {
+                throw new IllegalArgumentException("AccessionNumber has no next value");
+            }
+            nextAccessionNumber = year + separator + String.format(incrementFormat, increment);
+        } while (reserve && accessionNumberIsUsed(nextAccessionNumber, null));
 
-        String curLargestAccessionNumber = sampleService.getLargestAccessionNumberWithPrefix(prefix);
+        return nextAccessionNumber;
+    }
 
-        if (curLargestAccessionNumber == null) {
-            if (REQUESTED_NUMBERS.isEmpty()) {
-                nextAccessionNumber = createFirstAccessionNumber(prefix);
-            } else {
-                nextAccessionNumber = REQUESTED_NUMBERS.iterator().next();
-            }
-        } else {
-            nextAccessionNumber = incrementAccessionNumber(curLargestAccessionNumber);
+    // only used to start the counter for a year, e.g. on upgrade
+    private long getHighestIncrementInUse(String year) {
+        String curLargestAccessionNumber = sampleService.getLargestAccessionNumberWithPrefix(year + separator);
+        if (curLargestAccessionNumber == null || curLargestAccessionNumber.length() != acccessionLength) {
+            return 0;
         }
-
-        while (REQUESTED_NUMBERS.contains(nextAccessionNumber)) {
-            nextAccessionNumber = incrementAccessionNumber(nextAccessionNumber);
+        try {
+            return Long.parseLong(curLargestAccessionNumber.substring(INCREMENT_START + separatorLength));
+        } catch (NumberFormatException e) {
+            return 0;
         }
-
-        REQUESTED_NUMBERS.add(nextAccessionNumber);
-
-        return nextAccessionNumber;
     }
 
     @Override
@@ -13,7 +13,9 @@ import java.util.*;
 import org.apache.commons.validator.GenericValidator;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.r4.model.*;
+import org.openelisglobal.common.exception.LIMSSearchLimitExceededException;
 import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.common.paging.PagingProperties;
 import org.openelisglobal.common.provider.query.PatientSearchResults;
 import org.openelisglobal.common.provider.query.PatientSearchResultsForm;
 import org.openelisglobal.common.provider.query.workerObjects.PatientSearchLocalAndExternalWorker;
@@ -38,8 +40,11 @@ import org.openelisglobal.samplehuman.service.SampleHumanService;
 import org.openelisglobal.search.service.SearchResultsService;
 import org.openelisglobal.spring.util.SpringContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -65,6 +70,8 @@ public class PatientSearchRestController extends BaseRestController {
     SampleHumanService sampleHumanService;
     @Autowired
     SearchResultsService searchResultsService;
+    @Autowired
+    PagingProperties pagingProperties;
 
     StringOrListParam targetSystemsParam;
 
@@ -163,9 +170,26 @@ public class PatientSearchRestController extends BaseRestController {
             @RequestParam(required = false) String subjectNumber, @RequestParam(required = false) String nationalID,
             @RequestParam(required = false) String externalID, @RequestParam(required = false) String patientID,
             @RequestParam(required = false) String guid, @RequestParam(required = false) String dateOfBirth,
-            @RequestParam(required = false) String gender) {
+            @RequestParam(required = false) String gender, @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer pageSize) {
+        if (page == null) {
+            return searchResultsService.getSearchResults(lastName, firstName, STNumber, subjectNumber, nationalID,
+                    externalID, patientID, guid, dateOfBirth, gender);
+        }
+        int size = pageSize == null || pageSize <= 0 ? pagingProperties.getPatientsPageSize() : pageSize;
+        int firstResult = (Math.max(page, 1) - 1) * size;
         return searchResultsService.getSearchResults(lastName, firstName, STNumber, subjectNumber, nationalID,
-                externalID, patientID, guid, dateOfBirth, gender);
+                externalID, patientID, guid, dateOfBirth, gender, firstResult, size);
+    }
+
+    /**
+     * A page past the ranked results gets a 400 with the reason instead of an empty
+     * page
+     */
+    @ExceptionHandler(LIMSSearchLimitExceededException.class)
+    public ResponseEntity<String> handleSearchLimitExceeded(LIMSSearchLimitExceededException e) {
+        LogEvent.logWarn(this.getClass().getSimpleName(), "handleSearchLimitExceeded", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
 
     private List<PatientSearchResults> searchPatientInClientRegistry(String lastName, String firstName, String STNumber,
@@ -0,0 +1,76 @@
+package org.openelisglobal.common.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.openelisglobal.common.provider.validation.AccessionNumberValidatorFactory.AccessionFormat;
+import org.openelisglobal.common.valueholder.AccessionNumberInfo.AccessionIdentity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out accession number increments from blocks reserved in the
+ * accession_number_info counters.
+ *
+ * <p>
+ * Each instance reserves blockSize numbers at a time with one atomic update of
+ * the counter, so instances sharing the database never hand out the same
+ * number and the database is only hit once per block. Numbers left in a block
+ * when the application stops are not reused, which leaves gaps in the
+ * sequence.
+ */
+@Component
+public class AccessionNumberBlockAllocator {
+
+    @Autowired
+    private AccessionService accessionService;
+
+    @Value("${org.openelisglobal.accession.reserveBlockSize:10}")
+    private int blockSize;
+
+    private final Map<AccessionIdentity, NumberBlock> blocks = new HashMap<>();
+
+    /**
+     * @param currentHighest the highest increment already in use, only called
+     *                       when the counter for the prefix is created
+     * @return the next increment, reserved for the caller
+     */
+    public synchronized long nextNumber(String prefix, AccessionFormat accessionFormat, LongSupplier currentHighest) {
+        AccessionIdentity identity = new AccessionIdentity(prefix, accessionFormat);
+        NumberBlock block = blocks.get(identity);
+        if (block == null || block.isExhausted()) {
+            int size = Math.max(blockSize, 1);
+            long last = accessionService.reserveNumberBlock(prefix, accessionFormat, size, currentHighest);
+            block = new NumberBlock(last - size + 1, last);
+            blocks.put(identity, block);
+        }
+        return block.next++;
+    }
+
+    /**
+     * @return the increment nextNumber would return, without reserving it
+     */
+    public synchronized long peekNextNumber(String prefix, AccessionFormat accessionFormat,
+            LongSupplier currentHighest) {
+        NumberBlock block = blocks.get(new AccessionIdentity(prefix, accessionFormat));
+        if (block != null && !block.isExhausted()) {
+            return block.next;
+        }
+        return accessionService.getNextNumberNoIncrement(prefix, accessionFormat, currentHighest);
+    }
+
+    private static class NumberBlock {
+        private long next;
+        private final long last;
+
+        private NumberBlock(long first, long last) {
+            this.next = first;
+            this.last = last;
+        }
+
+        private boolean isExhausted() {
+            return next > last;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.openelisglobal.common.service;
 
+import java.util.function.LongSupplier;
 import org.openelisglobal.common.exception.LIMSInvalidConfigurationException;
 import org.openelisglobal.common.provider.validation.AccessionNumberValidatorFactory.AccessionFormat;
 import org.openelisglobal.common.valueholder.AccessionNumberInfo.AccessionIdentity;
@@ -15,4 +16,19 @@ public interface AccessionService {
     long getNextNumberNoIncrement(AccessionIdentity accessionIdentity) throws LIMSInvalidConfigurationException;
 
     void setCurVal(String prefix, AccessionFormat accessionFormat, long curVal);
+
+    /**
+     * Reserves the next blockSize numbers in a transaction of its own, so the
+     * reservation holds even if the caller's transaction rolls back. A counter
+     * that does not exist yet starts after the value given by currentHighest.
+     *
+     * @return the last number of the reserved block
+     */
+    long reserveNumberBlock(String prefix, AccessionFormat accessionFormat, int blockSize, LongSupplier currentHighest);
+
+    /**
+     * @return the number the next reservation will start at, creating the
+     *         counter from currentHighest if it does not exist yet
+     */
+    long getNextNumberNoIncrement(String prefix, AccessionFormat accessionFormat, LongSupplier currentHighest);
 }
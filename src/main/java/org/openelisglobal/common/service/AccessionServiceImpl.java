@@ -1,11 +1,13 @@
 package org.openelisglobal.common.service;
 
+import java.util.function.LongSupplier;
 import org.openelisglobal.common.dao.AccessionDAO;
 import org.openelisglobal.common.provider.validation.AccessionNumberValidatorFactory.AccessionFormat;
 import org.openelisglobal.common.valueholder.AccessionNumberInfo;
 import org.openelisglobal.common.valueholder.AccessionNumberInfo.AccessionIdentity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -59,6 +61,29 @@ public class AccessionServiceImpl implements AccessionService {
         return value;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveNumberBlock(String prefix, AccessionFormat accessionFormat, int blockSize,
+            LongSupplier currentHighest) {
+        createIfAbsent(prefix, accessionFormat, currentHighest);
+        return accessionDAO.incrementBy(prefix, accessionFormat, blockSize);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long getNextNumberNoIncrement(String prefix, AccessionFormat accessionFormat, LongSupplier currentHighest) {
+        createIfAbsent(prefix, accessionFormat, currentHighest);
+        return accessionDAO.getNextNumberNoIncrement(prefix, accessionFormat);
+    }
+
+    private void createIfAbsent(String prefix, AccessionFormat accessionFormat, LongSupplier currentHighest) {
+        // the scan for the current highest number is only done the first time a
+        // prefix is used
+        if (!accessionDAO.exists(new AccessionIdentity(prefix, accessionFormat))) {
+            accessionDAO.insertIfAbsent(prefix, accessionFormat, currentHighest.getAsLong());
+        }
+    }
+
     private AccessionNumberInfo createAccessionInfo(String prefix, AccessionFormat accessionFormat, long value) {
         AccessionNumberInfo info = new AccessionNumberInfo();
         info.setAccessionIdentity(new AccessionIdentity(prefix, accessionFormat));
@@ -16,18 +16,30 @@
 
 package org.openelisglobal.common.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.analyzer.service.AnalyzerService;
 import org.openelisglobal.analyzer.valueholder.Analyzer;
 import org.openelisglobal.analyzerimport.service.AnalyzerTestMappingService;
@@ -49,6 +61,13 @@ public class PluginAnalyzerService {
     protected static final String CSV_TEST_MAP_COULMN_ANALYSER_TEST_NAME = "ANALYZER_TEST_NAME";
     protected static final String CSV_TEST_MAP_COULMN_LOINC = "LOINC_CODE";
     protected static final String CSV_TEST_MAP_COULMN_ACTUAL_TEST_NAME = "ACTUAL_TEST_NAME";
+    // an ASTM header record, possibly behind the STX and frame number of a frame
+    private static final Pattern ASTM_HEADER = Pattern.compile("^\\x02?[0-7]?H(\\p{Punct})");
+    // dispatch is a map lookup or a few isTargetAnalyzer calls, well under the
+    // default buckets
+    private static final Duration[] DISPATCH_BUCKETS = { Duration.ofNanos(100_000), Duration.ofNanos(500_000),
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1) };
 
     @Autowired
     private AnalyzerTestMappingService analyzerMappingService;
@@ -56,25 +75,162 @@ public class PluginAnalyzerService {
     private AnalyzerService analyzerService;
     @Autowired
     private TestService testService;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     private List<AnalyzerTestMapping> existingMappings;
     private Map<String, AnalyzerImporterPlugin> pluginByAnalyzerId = new HashMap<>();
 
-    private List<AnalyzerImporterPlugin> analyzerPlugins = new ArrayList<>();
+    // plugins are registered while messages may already be arriving
+    private List<AnalyzerImporterPlugin> analyzerPlugins = new CopyOnWriteArrayList<>();
+    private Map<String, List<AnalyzerImporterPlugin>> pluginsBySignature = new ConcurrentHashMap<>();
+    // the candidates of a shared signature that rejected a message with it, asked
+    // after the others. Only declared signatures are keys, so this stays small
+    private Map<String, Set<AnalyzerImporterPlugin>> rejectedBySignature = new ConcurrentHashMap<>();
 
     public void registerAnalyzerPlugin(AnalyzerImporterPlugin plugin) {
         analyzerPlugins.add(plugin);
+        List<String> signatures = plugin.getHeaderSignatures();
+        if (signatures != null) {
+            for (String signature : signatures) {
+                if (!GenericValidator.isBlankOrNull(signature)) {
+                    pluginsBySignature.computeIfAbsent(signature.trim(), k -> new CopyOnWriteArrayList<>())
+                            .add(plugin);
+                }
+            }
+        }
     }
 
     public List<AnalyzerImporterPlugin> getAnalyzerPlugins() {
         return analyzerPlugins;
     }
 
+    /**
+     * Finds the plugin for the analyzer that sent the message. The header
+     * signature of the message is looked up in the signatures the plugins declared;
+     * the plugins are only asked isTargetAnalyzer one by one when none or several
+     * of them declared it.
+     *
+     * @return the plugin, null if no plugin recognizes the message
+     */
+    public AnalyzerImporterPlugin findTargetPlugin(List<String> lines) {
+        return findTargetPlugin(lines, Collections.emptySet());
+    }
+
+    /**
+     * Finds the plugin for the analyzer that sent the message among the plugins
+     * that are not excluded, e.g. because they already failed to handle it
+     *
+     * @return the plugin, null if no remaining plugin recognizes the message
+     */
+    public AnalyzerImporterPlugin findTargetPlugin(List<String> lines, Set<AnalyzerImporterPlugin> excluded) {
+        long start = System.nanoTime();
+        String route = "signature";
+        AnalyzerImporterPlugin target = null;
+        String signature = getHeaderSignature(lines);
+        List<AnalyzerImporterPlugin> candidates = signature == null ? null : pluginsBySignature.get(signature);
+        if (candidates != null && candidates.size() == 1) {
+            target = excluded.contains(candidates.get(0)) ? null : candidates.get(0);
+        } else if (candidates != null) {
+            target = probeCandidates(signature, candidates, lines, excluded);
+        }
+        if (target == null) {
+            route = "probe";
+            target = probe(analyzerPlugins, lines, excluded);
+        }
+        if (target == null) {
+            recordDispatch("none", "miss", start);
+        } else {
+            recordDispatch(target.getClass().getSimpleName(), route, start);
+        }
+        return target;
+    }
+
+    /**
+     * Asks the candidates of a shared signature, leaving the ones that rejected
+     * an earlier message with it until the others have rejected this one
+     */
+    private AnalyzerImporterPlugin probeCandidates(String signature, List<AnalyzerImporterPlugin> candidates,
+            List<String> lines, Set<AnalyzerImporterPlugin> excluded) {
+        Set<AnalyzerImporterPlugin> rejected = rejectedBySignature.computeIfAbsent(signature,
+                k -> ConcurrentHashMap.newKeySet());
+        Set<AnalyzerImporterPlugin> rejectedBefore = new HashSet<>(rejected);
+        for (AnalyzerImporterPlugin plugin : candidates) {
+            if (excluded.contains(plugin) || rejectedBefore.contains(plugin)) {
+                continue;
+            }
+            if (isTargetAnalyzer(plugin, lines)) {
+                return plugin;
+            }
+            rejected.add(plugin);
+        }
+        for (AnalyzerImporterPlugin plugin : candidates) {
+            if (!excluded.contains(plugin) && rejectedBefore.contains(plugin) && isTargetAnalyzer(plugin, lines)) {
+                rejected.remove(plugin);
+                return plugin;
+            }
+        }
+        return null;
+    }
+
+    private AnalyzerImporterPlugin probe(List<AnalyzerImporterPlugin> plugins, List<String> lines,
+            Set<AnalyzerImporterPlugin> excluded) {
+        for (AnalyzerImporterPlugin plugin : plugins) {
+            if (!excluded.contains(plugin) && isTargetAnalyzer(plugin, lines)) {
+                return plugin;
+            }
+        }
+        return null;
+    }
+
+    private boolean isTargetAnalyzer(AnalyzerImporterPlugin plugin, List<String> lines) {
+        try {
+            return plugin.isTargetAnalyzer(lines);
+        } catch (RuntimeException e) {
+            LogEvent.logError(e);
+            return false;
+        }
+    }
+
+    /**
+     * @return the sender name of the ASTM header record if the message starts
+     *         with one, otherwise the first non-blank line. Null for an empty
+     *         message or a header without a sender.
+     */
+    static String getHeaderSignature(List<String> lines) {
+        for (String line : lines) {
+            if (GenericValidator.isBlankOrNull(line)) {
+                continue;
+            }
+            Matcher header = ASTM_HEADER.matcher(line);
+            if (!header.find()) {
+                return line.trim();
+            }
+            String[] fields = line.substring(header.start(1) - 1).split(Pattern.quote(header.group(1)), -1);
+            if (fields.length < 5) {
+                return null;
+            }
+            // the second field holds the repeat, component and escape delimiters
+            char componentDelimiter = fields[1].length() > 1 ? fields[1].charAt(1) : '^';
+            int componentEnd = fields[4].indexOf(componentDelimiter);
+            String sender = (componentEnd < 0 ? fields[4] : fields[4].substring(0, componentEnd)).trim();
+            return sender.isEmpty() ? null : sender;
+        }
+        return null;
+    }
+
     @PostConstruct
     private void registerInstance() {
         INSTANCE = this;
     }
 
+    private void recordDispatch(String analyzer, String route, long startNanos) {
+        Timer.builder("openelis.analyzer.dispatch.duration")
+                .description("Time to find the plugin for an analyzer message")
+                .serviceLevelObjectives(DISPATCH_BUCKETS).tag("analyzer", analyzer).tag("route", route)
+                .register(meterRegistry).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
     public static PluginAnalyzerService getInstance() {
         return INSTANCE;
     }
@@ -13,6 +13,8 @@ import org.openelisglobal.barcode.BarcodeLabelMaker;
 import org.openelisglobal.barcode.labeltype.Label;
 import org.openelisglobal.barcode.labeltype.OrderLabel;
 import org.openelisglobal.barcode.labeltype.SpecimenLabel;
+import org.openelisglobal.barcode.printerlanguage.PrinterLanguage;
+import org.openelisglobal.barcode.printerlanguage.PrinterLanguageLabelWriter;
 import org.openelisglobal.common.action.IActionConstants;
 import org.openelisglobal.common.exception.LIMSInvalidConfigurationException;
 import org.openelisglobal.common.log.LogEvent;
@@ -37,7 +39,8 @@ import org.springframework.validation.Errors;
 import org.springframework.validation.ObjectError;
 
 /**
- * Servlet for pages to send bar code label requests. Returns as pdf unless...
+ * Servlet for pages to send bar code label requests. Returns as pdf, or as ZPL
+ * or EPL printer commands if requested with format=zpl or format=epl, unless...
  * User unauthenticated - gives error response Invalid request parameters -
  * gives error response Maximum printing has been reached (pdf length 0) -
  * returns override page
@@ -48,6 +51,9 @@ public class LabelMakerServlet extends HttpServlet implements IActionConstants {
 
     private static final long serialVersionUID = 4756240897909804141L;
 
+    private static final int MIN_DPI = 100;
+    private static final int MAX_DPI = 600;
+
     @Override
     public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
         boolean unauthorized = false;
@@ -91,6 +97,11 @@ public class LabelMakerServlet extends HttpServlet implements IActionConstants {
         labelMaker.setSysUserId(String.valueOf(usd.getSystemUserId()));
 
         labelMaker.generateGenericBarcodeLabel(request.getParameter("code"), request.getParameter("labelType"));
+        PrinterLanguage printerLanguage = getPrinterLanguage(request);
+        if (printerLanguage != null) {
+            writePrinterLanguageLabels(request, response, labelMaker, printerLanguage, false);
+            return;
+        }
         ByteArrayOutputStream labelAsOutputStream = labelMaker.createLabelsAsStream();
 
         response.setContentType("application/pdf");
@@ -160,6 +171,11 @@ public class LabelMakerServlet extends HttpServlet implements IActionConstants {
         UserSessionData usd = (UserSessionData) request.getSession().getAttribute(USER_SESSION_DATA);
         labelMaker.setSysUserId(String.valueOf(usd.getSystemUserId()));
 
+        PrinterLanguage printerLanguage = getPrinterLanguage(request);
+        if (printerLanguage != null) {
+            writePrinterLanguageLabels(request, response, labelMaker, printerLanguage, false);
+            return;
+        }
         ByteArrayOutputStream labelAsOutputStream = labelMaker.createLabelsAsStream();
 
         response.setContentType("application/pdf");
@@ -195,6 +211,12 @@ public class LabelMakerServlet extends HttpServlet implements IActionConstants {
                 Integer.parseInt(request.getParameter("numOrderLabelsPerSet")),
                 Integer.parseInt(request.getParameter("numSpecimenLabelsPerSet")), request.getParameter("facilityName"),
                 tests, startingAt);
+        PrinterLanguage printerLanguage = getPrinterLanguage(request);
+        if (printerLanguage != null) {
+            // thousands of labels are written as they are made rather than held as a pdf
+            writePrinterLanguageLabels(request, response, labelMaker, printerLanguage, false);
+            return;
+        }
         ByteArrayOutputStream labelAsOutputStream = labelMaker.createLabelsAsStream();
 
         // if empty stream, assume at max printing
@@ -264,7 +286,16 @@ public class LabelMakerServlet extends HttpServlet implements IActionConstants {
         labelMaker.setOverride(override);
         labelMaker.setSysUserId(String.valueOf(usd.getSystemUserId()));
         labelMaker.generateLabels(labNo, type, quantity, override);
-        ByteArrayOutputStream labelAsOutputStream = labelMaker.createLabelsAsStreamWithMaximumPrints();
+        PrinterLanguage printerLanguage = getPrinterLanguage(request);
+        // labels all at their maximum prints get the override page below rather
+        // than an empty file of printer commands
+        if (printerLanguage != null && labelMaker.hasPrintableLabels()) {
+            writePrinterLanguageLabels(request, response, labelMaker, printerLanguage, true);
+            return;
+        }
+        ByteArrayOutputStream labelAsOutputStream = printerLanguage == null
+                ? labelMaker.createLabelsAsStreamWithMaximumPrints()
+                : new ByteArrayOutputStream();
 
         // if empty stream, assume at max printing
         if (labelAsOutputStream.size() == 0) {
@@ -293,6 +324,44 @@ public class LabelMakerServlet extends HttpServlet implements IActionConstants {
         }
     }
 
+    /**
+     * Get the printer language requested with the format parameter
+     *
+     * @param request The request for labels
+     * @return The printer language, or null when a pdf is requested
+     */
+    private PrinterLanguage getPrinterLanguage(HttpServletRequest request) {
+        return PrinterLanguage.fromString(request.getParameter("format"));
+    }
+
+    /**
+     * Write the labels as printer commands for the printer language. The dpi
+     * parameter gives the resolution of the printer, 203 dpi if not given.
+     *
+     * @param request         The request for labels
+     * @param response        The response to stream the commands to
+     * @param labelMaker      Holds the generated labels
+     * @param printerLanguage The printer language to write
+     * @param maximumPrints   Whether to stop at the maximum number of prints
+     * @throws IOException
+     */
+    private void writePrinterLanguageLabels(HttpServletRequest request, HttpServletResponse response,
+            BarcodeLabelMaker labelMaker, PrinterLanguage printerLanguage, boolean maximumPrints)
+            throws IOException {
+        int dpi = PrinterLanguageLabelWriter.DEFAULT_DPI;
+        String dpiParameter = request.getParameter("dpi");
+        if (GenericValidator.isInt(dpiParameter)
+                && GenericValidator.isInRange(Integer.parseInt(dpiParameter), MIN_DPI, MAX_DPI)) {
+            dpi = Integer.parseInt(dpiParameter);
+        }
+        response.setContentType("text/plain; charset=" + printerLanguage.getRenderer().getCharset().name());
+        response.addHeader("Content-Disposition",
+                "attachment; filename=" + "labels." + printerLanguage.getFileExtension());
+        labelMaker.writeLabels(response.getOutputStream(), printerLanguage, dpi, maximumPrints);
+        response.getOutputStream().flush();
+        response.getOutputStream().close();
+    }
+
     /**
      * Validate the given parameters
      *
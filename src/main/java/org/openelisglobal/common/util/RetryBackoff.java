@@ -0,0 +1,21 @@
+package org.openelisglobal.common.util;
+
+import java.sql.Timestamp;
+
+/** Exponential backoff between attempts to deliver queued work */
+public class RetryBackoff {
+
+    /**
+     * @return the delay before the next attempt: the base delay doubled for every
+     *         attempt after the first, up to the maximum
+     */
+    public static long getDelayMillis(int attempts, long baseMillis, long maxMillis) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(baseMillis << doublings, maxMillis);
+    }
+
+    /** @return when the next attempt is due after the given number of attempts */
+    public static Timestamp getNextAttemptTime(int attempts, long baseMillis, long maxMillis) {
+        return new Timestamp(System.currentTimeMillis() + getDelayMillis(attempts, baseMillis, maxMillis));
+    }
+}
@@ -0,0 +1,25 @@
+package org.openelisglobal.common.valueholder;
+
+import java.sql.Timestamp;
+
+/**
+ * A row of a table used as a work queue: it is claimed by one node at a time,
+ * which stamps the claim time so the row can be given back to the queue if the
+ * node goes away before finishing it.
+ *
+ * @param <S> the statuses the row moves through
+ */
+public interface OutboxEntry<S extends Enum<S>> {
+
+    S getStatus();
+
+    void setStatus(S status);
+
+    int getAttempts();
+
+    void setAttempts(int attempts);
+
+    Timestamp getClaimedAt();
+
+    void setClaimedAt(Timestamp claimedAt);
+}
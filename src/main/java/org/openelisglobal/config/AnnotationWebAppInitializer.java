@@ -11,7 +11,6 @@ import org.openelisglobal.common.servlet.validation.AjaxXMLServlet;
 import org.openelisglobal.dataexchange.aggregatereporting.IndicatorAggregationReportingServlet;
 import org.openelisglobal.dataexchange.order.action.OrderRawServlet;
 import org.openelisglobal.dataexchange.order.action.OrderServlet;
-import org.openelisglobal.metricservice.action.MetricServicesServlet;
 import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.context.ContextLoaderListener;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
@@ -90,11 +89,6 @@ public class AnnotationWebAppInitializer implements WebApplicationInitializer {
         // importAnalyzerServlet.setLoadOnStartup(++startupOrder);
         // importAnalyzerServlet.addMapping("/importAnalyzer");
 
-        ServletRegistration.Dynamic metricServicesServlet = servletContext.addServlet("MetricServicesServlet",
-                MetricServicesServlet.class);
-        metricServicesServlet.setLoadOnStartup(++startupOrder);
-        metricServicesServlet.addMapping("/MetricServices");
-
         ServletRegistration.Dynamic indicatorAggregationServlet = servletContext
                 .addServlet("IndicatorAggregationServlet", IndicatorAggregationReportingServlet.class);
         indicatorAggregationServlet.setLoadOnStartup(++startupOrder);
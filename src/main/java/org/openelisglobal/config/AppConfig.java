@@ -21,6 +21,7 @@ import org.openelisglobal.fhir.springserialization.QuestionnaireResponseDeserial
 import org.openelisglobal.fhir.springserialization.QuestionnaireResponseSerializer;
 import org.openelisglobal.fhir.springserialization.QuestionnaireSerializer;
 import org.openelisglobal.interceptor.CommonPageAttributesInterceptor;
+import org.openelisglobal.interceptor.RequestTimingInterceptor;
 import org.openelisglobal.interceptor.UrlErrorsInterceptor;
 import org.openelisglobal.internationalization.GlobalLocaleResolver;
 import org.openelisglobal.security.SecurityConfig;
@@ -66,6 +67,8 @@ public class AppConfig implements WebMvcConfigurer {
     @Qualifier(value = "ModuleAuthenticationInterceptor")
     HandlerInterceptor moduleAuthenticationInterceptor;
 
+    @Autowired
+    RequestTimingInterceptor requestTimingInterceptor;
     @Autowired
     UrlErrorsInterceptor urlLocatedErrorsInterceptor;
     @Autowired
@@ -93,6 +96,7 @@ public class AppConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestTimingInterceptor).addPathPatterns("/**");
         registry.addInterceptor(localeChangeInterceptor).addPathPatterns("/**");
         registry.addInterceptor(moduleAuthenticationInterceptor).addPathPatterns("/**")
                 .excludePathPatterns(SecurityConfig.OPEN_PAGES) //
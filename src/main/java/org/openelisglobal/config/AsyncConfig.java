@@ -2,7 +2,9 @@ package org.openelisglobal.config;
 
 import jakarta.annotation.Nullable;
 import java.util.concurrent.Executor;
+import org.openelisglobal.metricservice.AsyncTaskMetrics;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurerSupport;
@@ -11,9 +13,15 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @Configuration
 @EnableAsync
 public class AsyncConfig extends AsyncConfigurerSupport {
+
+    @Autowired
+    private AsyncTaskMetrics asyncTaskMetrics;
+
     @Override
     public Executor getAsyncExecutor() {
-        return new SimpleAsyncTaskExecutor();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+        executor.setTaskDecorator(asyncTaskMetrics);
+        return executor;
     }
 
     @Override
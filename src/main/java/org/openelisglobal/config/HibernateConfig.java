@@ -2,7 +2,9 @@ package org.openelisglobal.config;
 
 import jakarta.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
@@ -22,6 +24,9 @@ public class HibernateConfig {
     @Autowired
     private DataSource dataSource;
 
+    @Value("${org.openelisglobal.metrics.hibernate:false}")
+    private boolean hibernateStatistics;
+
     @Bean
     @DependsOn("liquibase")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
@@ -29,6 +34,9 @@ public class HibernateConfig {
             emf = new LocalContainerEntityManagerFactoryBean();
             emf.setDataSource(dataSource);
             emf.setPersistenceXmlLocation("classpath:persistence/persistence.xml");
+            // read by the metrics endpoint, without logging the metrics of every session
+            emf.getJpaPropertyMap().put(AvailableSettings.GENERATE_STATISTICS, String.valueOf(hibernateStatistics));
+            emf.getJpaPropertyMap().put(AvailableSettings.LOG_SESSION_METRICS, "false");
             // activate this once we migrate away from hbm.xmls and persistence.xml
             // emf.setPackagesToScan("org.openelisglobal");
         }
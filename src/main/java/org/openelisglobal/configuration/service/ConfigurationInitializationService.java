@@ -1,5 +1,6 @@
 package org.openelisglobal.configuration.service;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
@@ -10,9 +11,20 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.openelisglobal.common.log.LogEvent;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +44,9 @@ public class ConfigurationInitializationService implements ApplicationListener<C
     @Value("${org.openelisglobal.configuration.autocreate:true}")
     private boolean autocreateOn;
 
+    @Value("${org.openelisglobal.configuration.threads:4}")
+    private int loadThreads;
+
     @Autowired(required = false)
     private List<DomainConfigurationHandler> domainHandlers;
 
@@ -53,7 +68,8 @@ public class ConfigurationInitializationService implements ApplicationListener<C
                 "Starting configuration initialization from " + configurationBaseDir + "...");
 
         try {
-            // Sort handlers by load order to ensure dependencies are loaded first
+            // Sort handlers by load order, which orders handlers without declared
+            // dependencies
             List<DomainConfigurationHandler> sortedHandlers = domainHandlers.stream()
                     .sorted(Comparator.comparingInt(DomainConfigurationHandler::getLoadOrder))
                     .collect(Collectors.toList());
@@ -63,26 +79,100 @@ public class ConfigurationInitializationService implements ApplicationListener<C
                             + sortedHandlers.stream().map(h -> h.getDomainName() + "(" + h.getLoadOrder() + ")")
                                     .collect(Collectors.joining(", ")));
 
-            for (DomainConfigurationHandler handler : sortedHandlers) {
-                try {
-                    loadDomainConfiguration(handler);
-                } catch (Exception e) {
-                    LogEvent.logError("Failed to load configuration for domain: " + handler.getDomainName(), e);
-                }
-            }
+            loadDomainConfigurations(sortedHandlers);
         } catch (Exception e) {
             LogEvent.logError(e);
         }
     }
 
+    /**
+     * Loads the handlers in parallel, each one once the handlers it depends on
+     * have finished, and waits for all of them.
+     */
+    private void loadDomainConfigurations(List<DomainConfigurationHandler> sortedHandlers) {
+        long start = System.nanoTime();
+        Map<String, Long> durations = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<Void>> loads = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, loadThreads));
+        try {
+            List<DomainConfigurationHandler> pending = new ArrayList<>(sortedHandlers);
+            while (!pending.isEmpty()) {
+                boolean scheduled = false;
+                for (Iterator<DomainConfigurationHandler> iterator = pending.iterator(); iterator.hasNext();) {
+                    DomainConfigurationHandler handler = iterator.next();
+                    Collection<String> dependencies = getDependencies(handler, sortedHandlers);
+                    if (loads.keySet().containsAll(dependencies)) {
+                        loads.put(handler.getDomainName(),
+                                scheduleLoad(handler, dependencies, loads, durations, executor));
+                        iterator.remove();
+                        scheduled = true;
+                    }
+                }
+                if (!scheduled) {
+                    // the remaining handlers wait on each other, so start the first of them
+                    // with whatever it depends on that has been scheduled
+                    DomainConfigurationHandler handler = pending.remove(0);
+                    Collection<String> dependencies = getDependencies(handler, sortedHandlers);
+                    LogEvent.logError(this.getClass().getSimpleName(), "loadDomainConfigurations",
+                            "Circular configuration dependencies, loading " + handler.getDomainName()
+                                    + " before all of " + dependencies + " are loaded");
+                    dependencies.retainAll(loads.keySet());
+                    loads.put(handler.getDomainName(), scheduleLoad(handler, dependencies, loads, durations, executor));
+                }
+            }
+            CompletableFuture.allOf(loads.values().toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        LogEvent.logInfo(this.getClass().getSimpleName(), "loadDomainConfigurations",
+                "Configuration initialization finished in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                        + " ms: " + sortedHandlers.stream()
+                                .map(h -> h.getDomainName() + " " + durations.get(h.getDomainName()) + " ms")
+                                .collect(Collectors.joining(", ")));
+    }
+
+    private CompletableFuture<Void> scheduleLoad(DomainConfigurationHandler handler, Collection<String> dependencies,
+            Map<String, CompletableFuture<Void>> loads, Map<String, Long> durations, ExecutorService executor) {
+        CompletableFuture<?>[] prerequisites = dependencies.stream().map(loads::get)
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(prerequisites).thenRunAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                loadDomainConfiguration(handler);
+            } catch (Exception e) {
+                LogEvent.logError("Failed to load configuration for domain: " + handler.getDomainName(), e);
+            }
+            durations.put(handler.getDomainName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }, executor);
+    }
+
+    /**
+     * @return the domains of the loaded handlers that the handler has to wait for
+     */
+    private Collection<String> getDependencies(DomainConfigurationHandler handler,
+            List<DomainConfigurationHandler> handlers) {
+        Set<String> declared = handler.getDependencies();
+        List<String> dependencies = new ArrayList<>();
+        for (DomainConfigurationHandler other : handlers) {
+            if (other == handler) {
+                continue;
+            }
+            if (declared == null ? other.getLoadOrder() < handler.getLoadOrder()
+                    : declared.contains(other.getDomainName())) {
+                dependencies.add(other.getDomainName());
+            }
+        }
+        return dependencies;
+    }
+
     private void loadDomainConfiguration(DomainConfigurationHandler handler) throws Exception {
         String domainName = handler.getDomainName();
-        String checksumsFile = configurationBaseDir + "/" + domainName + "-checksums.properties";
+        String checksumsFile = getChecksumsFile(handler);
         String classpathPattern = "classpath*:configuration/" + domainName + "/*." + handler.getFileExtension();
         String filesystemDir = configurationBaseDir + "/" + domainName;
 
         Properties checksums = loadChecksums(checksumsFile);
-        boolean checksumsUpdated = false;
 
         // Load from classpath
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
@@ -95,9 +185,10 @@ public class ConfigurationInitializationService implements ApplicationListener<C
                     continue;
                 }
 
-                InputStream inputStream = resource.getInputStream();
-                String currentChecksum = calculateChecksum(inputStream);
-                inputStream.close();
+                String currentChecksum;
+                try (InputStream inputStream = resource.getInputStream()) {
+                    currentChecksum = calculateChecksum(inputStream);
+                }
 
                 // Check if this file has been loaded with the same checksum
                 String storedChecksum = checksums.getProperty(fileName);
@@ -108,13 +199,14 @@ public class ConfigurationInitializationService implements ApplicationListener<C
                 }
 
                 // Load and process the configuration
-                inputStream = resource.getInputStream();
-                handler.processConfiguration(inputStream, fileName);
-                inputStream.close();
+                try (InputStream inputStream = new BufferedInputStream(resource.getInputStream())) {
+                    handler.processConfiguration(inputStream, fileName);
+                }
 
-                // Update checksum
+                // Update checksum, saved right away so an interrupted startup does not
+                // load this file again
                 checksums.setProperty(fileName, currentChecksum);
-                checksumsUpdated = true;
+                saveChecksums(checksums, checksumsFile);
 
                 LogEvent.logInfo(this.getClass().getSimpleName(), "loadDomainConfiguration",
                         "Successfully loaded " + domainName + " configuration: " + fileName);
@@ -134,7 +226,10 @@ public class ConfigurationInitializationService implements ApplicationListener<C
                 for (File file : files) {
                     try {
                         String fileName = file.getName();
-                        String currentChecksum = calculateChecksum(new FileInputStream(file));
+                        String currentChecksum;
+                        try (InputStream inputStream = new FileInputStream(file)) {
+                            currentChecksum = calculateChecksum(inputStream);
+                        }
 
                         // Check if this file has been loaded with the same checksum
                         String storedChecksum = checksums.getProperty(fileName);
@@ -145,11 +240,13 @@ public class ConfigurationInitializationService implements ApplicationListener<C
                         }
 
                         // Load and process the configuration
-                        handler.processConfiguration(new FileInputStream(file), fileName);
+                        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+                            handler.processConfiguration(inputStream, fileName);
+                        }
 
                         // Update checksum
                         checksums.setProperty(fileName, currentChecksum);
-                        checksumsUpdated = true;
+                        saveChecksums(checksums, checksumsFile);
 
                         LogEvent.logInfo(this.getClass().getSimpleName(), "loadDomainConfiguration",
                                 "Successfully loaded " + domainName + " configuration: " + fileName);
@@ -161,11 +258,36 @@ public class ConfigurationInitializationService implements ApplicationListener<C
                 }
             }
         }
+    }
+
+    /**
+     * @return true if the file has already been loaded for the handler's domain
+     *         and has not changed since
+     */
+    public boolean isConfigurationUnchanged(DomainConfigurationHandler handler, File file)
+            throws IOException, NoSuchAlgorithmException {
+        Properties checksums = loadChecksums(getChecksumsFile(handler));
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return calculateChecksum(inputStream).equals(checksums.getProperty(file.getName()));
+        }
+    }
 
-        // Save updated checksums if any were updated
-        if (checksumsUpdated) {
-            saveChecksums(checksums, checksumsFile);
+    /**
+     * Records the file as loaded for the handler's domain so it is skipped until
+     * it changes
+     */
+    public void markConfigurationLoaded(DomainConfigurationHandler handler, File file)
+            throws IOException, NoSuchAlgorithmException {
+        String checksumsFile = getChecksumsFile(handler);
+        Properties checksums = loadChecksums(checksumsFile);
+        try (InputStream inputStream = new FileInputStream(file)) {
+            checksums.setProperty(file.getName(), calculateChecksum(inputStream));
         }
+        saveChecksums(checksums, checksumsFile);
+    }
+
+    private String getChecksumsFile(DomainConfigurationHandler handler) {
+        return configurationBaseDir + "/" + handler.getDomainName() + "-checksums.properties";
     }
 
     private String calculateChecksum(InputStream inputStream) throws IOException, NoSuchAlgorithmException {
@@ -1,6 +1,7 @@
 package org.openelisglobal.configuration.service;
 
 import java.io.InputStream;
+import java.util.Set;
 
 /**
  * Interface for domain-specific configuration handlers. Each domain (e.g.,
@@ -38,6 +39,18 @@ public interface DomainConfigurationHandler {
         return 500; // Default to a middle value for handlers that don't specify
     }
 
+    /**
+     * Returns the domains whose configuration must be loaded before this one.
+     * Handlers are loaded in parallel, each as soon as its dependencies are done,
+     * so a handler that declares none is loaded right away.
+     *
+     * @return domain names (see {@link #getDomainName()}), or null to wait for
+     *         every handler with a lower load order
+     */
+    default Set<String> getDependencies() {
+        return null;
+    }
+
     /**
      * Processes a configuration file from the given input stream.
      *
@@ -0,0 +1,53 @@
+package org.openelisglobal.dataexchange.aggregatereporting;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.TreeSet;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.common.util.DateUtil;
+import org.openelisglobal.dataexchange.service.aggregatereporting.TestCountSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the daily test count summaries up to date. Each run recomputes only the
+ * days with analyses changed since the last one.
+ */
+@Component
+public class TestCountSummaryJob {
+
+    @Autowired
+    private TestCountSummaryService testCountSummaryService;
+
+    // days that could not be refreshed are retried even if nothing changed on
+    // them since
+    private final Set<Date> failedDays = new TreeSet<>();
+
+    @Scheduled(initialDelay = 60 * 1000,
+            fixedDelayString = "${org.openelisglobal.testcount.summary.refreshInterval:3600000}")
+    public void run() {
+        refreshSummaries();
+    }
+
+    /** Brings the summaries up to date with the analyses */
+    public synchronized void refreshSummaries() {
+        Timestamp computedTime = DateUtil.getNowAsTimestamp();
+        Set<Date> days = new TreeSet<>(failedDays);
+        days.addAll(testCountSummaryService.getDaysToRefresh());
+        failedDays.clear();
+        for (Date day : days) {
+            try {
+                testCountSummaryService.refreshDay(day, computedTime);
+            } catch (RuntimeException e) {
+                LogEvent.logError("Could not refresh the test count summaries of " + day, e);
+                failedDays.add(day);
+            }
+        }
+        if (!days.isEmpty()) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "refreshSummaries", "Refreshed the test count summaries"
+                    + " of " + (days.size() - failedDays.size()) + " days, " + failedDays.size() + " failed");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.openelisglobal.dataexchange.aggregatereporting.dao;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import org.openelisglobal.common.dao.BaseDAO;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.SummarizedAnalysis;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+
+public interface TestCountSummaryDAO extends BaseDAO<TestCountSummary, Long> {
+
+    /** @return when the summaries were last computed, null if there are none */
+    Timestamp getLatestComputedTime() throws LIMSRuntimeException;
+
+    /**
+     * @return the days of the analyses changed since the time and of the other
+     *         analyses of their panels, the days they were last counted on, and
+     *         the days deleted analyses were counted on
+     */
+    List<Date> getAnalysisDaysUpdatedSince(Timestamp since) throws LIMSRuntimeException;
+
+    /** @return the days from the first day on that have analyses */
+    List<Date> getAnalysisDaysFrom(Date firstDay) throws LIMSRuntimeException;
+
+    /**
+     * @return the analyses completed on the day, those started on the day that
+     *         have not been completed, and the other analyses of their panels
+     */
+    List<SummarizedAnalysis> getAnalysesOfDay(Date day) throws LIMSRuntimeException;
+
+    int deleteDay(Date day) throws LIMSRuntimeException;
+
+    /**
+     * Records the analyses as counted on the day, in place of those previously
+     * counted on it and of the days the analyses were previously counted on
+     */
+    void recordCountedDay(Date day, List<String> analysisIds) throws LIMSRuntimeException;
+
+    /**
+     * @return the rows of the days in the range, both included, summed by test,
+     *         panel, test section and status. Analyses counted as their panel are
+     *         left out
+     */
+    List<TestCountSummary> getCountsByTestAndStatus(Date lowDate, Date highDate) throws LIMSRuntimeException;
+
+    /** @return the number of analyses of each test completed on the day */
+    Map<String, Integer> getCompletedCountsByTest(Date day) throws LIMSRuntimeException;
+}
@@ -0,0 +1,222 @@
+package org.openelisglobal.dataexchange.aggregatereporting.daoimpl;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.openelisglobal.common.daoimpl.BaseDAOImpl;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.dataexchange.aggregatereporting.dao.TestCountSummaryDAO;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.SummarizedAnalysis;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary.Status;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+public class TestCountSummaryDAOImpl extends BaseDAOImpl<TestCountSummary, Long> implements TestCountSummaryDAO {
+
+    private static final String ANALYSIS_DAY = "coalesce(a.completed_date, a.started_date)";
+    private static final int IDS_PER_STATEMENT = 1000;
+
+    public TestCountSummaryDAOImpl() {
+        super(TestCountSummary.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Timestamp getLatestComputedTime() throws LIMSRuntimeException {
+        String hql = "select max(s.computedTime) from TestCountSummary s";
+        try {
+            Query<Timestamp> query = entityManager.unwrap(Session.class).createQuery(hql, Timestamp.class);
+            return query.uniqueResult();
+        } catch (HibernateException e) {
+            handleException(e, "getLatestComputedTime");
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Date> getAnalysisDaysUpdatedSince(Timestamp since) throws LIMSRuntimeException {
+        // an analysis that moved to another day, or that moved its panel to another
+        // day, has to be taken off the day it was counted on. So does a deleted
+        // analysis, which leaves no lastupdated behind, only its counted day row;
+        // refreshing the day replaces that row
+        String sql = "select coalesce(p.completed_date, p.started_date) from analysis a join analysis p"
+                + " on p.id = a.id or (p.sampitem_id = a.sampitem_id and p.panel_id = a.panel_id)"
+                + " where a.lastupdated >= :since and coalesce(p.completed_date, p.started_date) is not null"
+                + " union select d.summary_date from test_count_analysis_day d"
+                + " join analysis a on a.id = d.analysis_id where a.lastupdated >= :since"
+                + " union select d.summary_date from test_count_analysis_day d"
+                + " where not exists (select 1 from analysis a where a.id = d.analysis_id) order by 1";
+        try {
+            NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            query.setParameter("since", since);
+            return toDates(query.list());
+        } catch (HibernateException e) {
+            handleException(e, "getAnalysisDaysUpdatedSince");
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Date> getAnalysisDaysFrom(Date firstDay) throws LIMSRuntimeException {
+        String sql = "select distinct " + ANALYSIS_DAY + " from analysis a where " + ANALYSIS_DAY
+                + " >= :firstDay order by 1";
+        try {
+            NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            query.setParameter("firstDay", firstDay);
+            return toDates(query.list());
+        } catch (HibernateException e) {
+            handleException(e, "getAnalysisDaysFrom");
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SummarizedAnalysis> getAnalysesOfDay(Date day) throws LIMSRuntimeException {
+        String dayAnalyses = " where c.completed_date = :day or (c.completed_date is null and c.started_date = :day)";
+        String sql = "select a.sampitem_id, a.test_id, a.panel_id, a.test_sect_id, a.status_id,"
+                + " (select min(sr.requester_id) from sample_requester sr where sr.sample_id = s.id"
+                + " and sr.requester_type_id = (select rt.id from requester_type rt"
+                + " where rt.requester_type = 'organization')),"
+                + " cast(pat.birth_date as date), cast(s.collection_date as date), a.completed_date is not null,"
+                + " a.id, " + ANALYSIS_DAY
+                + " from analysis a join sample_item si on si.id = a.sampitem_id"
+                + " join sample s on s.id = si.samp_id left join sample_human sh on sh.samp_id = s.id"
+                + " left join patient pat on pat.id = sh.patient_id"
+                + " where a.id in (select c.id from analysis c" + dayAnalyses
+                + " union select p.id from analysis c join analysis p on p.sampitem_id = c.sampitem_id"
+                + " and p.panel_id = c.panel_id" + dayAnalyses + ")";
+        List<SummarizedAnalysis> analyses = new ArrayList<>();
+        try {
+            NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            query.setParameter("day", day);
+            for (Object row : query.list()) {
+                Object[] columns = (Object[]) row;
+                SummarizedAnalysis analysis = new SummarizedAnalysis();
+                analysis.setSampleItemId(toId(columns[0]));
+                analysis.setTestId(toId(columns[1]));
+                analysis.setPanelId(toId(columns[2]));
+                analysis.setTestSectionId(toId(columns[3]));
+                analysis.setStatusId(toId(columns[4]));
+                analysis.setSiteId(toId(columns[5]));
+                analysis.setBirthDate(toDate(columns[6]));
+                analysis.setCollectionDate(toDate(columns[7]));
+                analysis.setCompleted(Boolean.TRUE.equals(columns[8]));
+                analysis.setAnalysisId(toId(columns[9]));
+                analysis.setAnalysisDay(toDate(columns[10]));
+                analyses.add(analysis);
+            }
+        } catch (HibernateException e) {
+            handleException(e, "getAnalysesOfDay");
+        }
+        return analyses;
+    }
+
+    @Override
+    public int deleteDay(Date day) throws LIMSRuntimeException {
+        String hql = "delete from TestCountSummary s where s.summaryDate = :day";
+        try {
+            Query<?> query = entityManager.unwrap(Session.class).createQuery(hql);
+            query.setParameter("day", day);
+            return query.executeUpdate();
+        } catch (HibernateException e) {
+            handleException(e, "deleteDay");
+        }
+        return 0;
+    }
+
+    @Override
+    public void recordCountedDay(Date day, List<String> analysisIds) throws LIMSRuntimeException {
+        try {
+            Session session = entityManager.unwrap(Session.class);
+            session.createNativeQuery("delete from test_count_analysis_day where summary_date = :day")
+                    .setParameter("day", day).executeUpdate();
+            for (int i = 0; i < analysisIds.size(); i += IDS_PER_STATEMENT) {
+                List<Long> ids = new ArrayList<>();
+                for (String analysisId : analysisIds.subList(i, Math.min(i + IDS_PER_STATEMENT, analysisIds.size()))) {
+                    ids.add(Long.valueOf(analysisId));
+                }
+                session.createNativeQuery("delete from test_count_analysis_day where analysis_id in (:ids)")
+                        .setParameterList("ids", ids).executeUpdate();
+                session.createNativeQuery("insert into test_count_analysis_day (analysis_id, summary_date)"
+                        + " select a.id, :day from analysis a where a.id in (:ids)").setParameter("day", day)
+                        .setParameterList("ids", ids).executeUpdate();
+            }
+        } catch (HibernateException e) {
+            handleException(e, "recordCountedDay");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TestCountSummary> getCountsByTestAndStatus(Date lowDate, Date highDate)
+            throws LIMSRuntimeException {
+        String hql = "select s.testId, s.panelId, s.testSectionId, s.status, sum(s.analysisCount)"
+                + " from TestCountSummary s where s.summaryDate between :lowDate and :highDate"
+                + " and s.countedInPanel = false group by s.testId, s.panelId, s.testSectionId, s.status";
+        List<TestCountSummary> counts = new ArrayList<>();
+        try {
+            Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(hql, Object[].class);
+            query.setParameter("lowDate", lowDate);
+            query.setParameter("highDate", highDate);
+            for (Object[] row : query.list()) {
+                TestCountSummary count = new TestCountSummary();
+                count.setTestId((String) row[0]);
+                count.setPanelId((String) row[1]);
+                count.setTestSectionId((String) row[2]);
+                count.setStatus((Status) row[3]);
+                count.setAnalysisCount(((Number) row[4]).intValue());
+                counts.add(count);
+            }
+        } catch (HibernateException e) {
+            handleException(e, "getCountsByTestAndStatus");
+        }
+        return counts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getCompletedCountsByTest(Date day) throws LIMSRuntimeException {
+        String hql = "select s.testId, sum(s.analysisCount) from TestCountSummary s where s.summaryDate = :day"
+                + " and s.completed = true and s.testId is not null group by s.testId";
+        Map<String, Integer> counts = new HashMap<>();
+        try {
+            Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(hql, Object[].class);
+            query.setParameter("day", day);
+            for (Object[] row : query.list()) {
+                counts.put((String) row[0], ((Number) row[1]).intValue());
+            }
+        } catch (HibernateException e) {
+            handleException(e, "getCompletedCountsByTest");
+        }
+        return counts;
+    }
+
+    private static List<Date> toDates(List<?> values) {
+        List<Date> dates = new ArrayList<>();
+        for (Object value : values) {
+            dates.add(toDate(value));
+        }
+        return dates;
+    }
+
+    private static Date toDate(Object value) {
+        return value == null ? null : new Date(((java.util.Date) value).getTime());
+    }
+
+    private static String toId(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package org.openelisglobal.dataexchange.aggregatereporting.valueholder;
+
+import java.sql.Date;
+
+/** The columns of an analysis, its sample and its patient that are summarized */
+public class SummarizedAnalysis {
+
+    private String analysisId;
+    private Date analysisDay;
+    private String sampleItemId;
+    private String testId;
+    private String panelId;
+    private String testSectionId;
+    private String statusId;
+    private String siteId;
+    private Date birthDate;
+    private Date collectionDate;
+    private boolean completed;
+
+    public String getAnalysisId() {
+        return analysisId;
+    }
+
+    public void setAnalysisId(String analysisId) {
+        this.analysisId = analysisId;
+    }
+
+    /** @return the day the analysis was completed, or started if it is not */
+    public Date getAnalysisDay() {
+        return analysisDay;
+    }
+
+    public void setAnalysisDay(Date analysisDay) {
+        this.analysisDay = analysisDay;
+    }
+
+    public String getSampleItemId() {
+        return sampleItemId;
+    }
+
+    public void setSampleItemId(String sampleItemId) {
+        this.sampleItemId = sampleItemId;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public void setTestId(String testId) {
+        this.testId = testId;
+    }
+
+    public String getPanelId() {
+        return panelId;
+    }
+
+    public void setPanelId(String panelId) {
+        this.panelId = panelId;
+    }
+
+    public String getTestSectionId() {
+        return testSectionId;
+    }
+
+    public void setTestSectionId(String testSectionId) {
+        this.testSectionId = testSectionId;
+    }
+
+    public String getStatusId() {
+        return statusId;
+    }
+
+    public void setStatusId(String statusId) {
+        this.statusId = statusId;
+    }
+
+    public String getSiteId() {
+        return siteId;
+    }
+
+    public void setSiteId(String siteId) {
+        this.siteId = siteId;
+    }
+
+    public Date getBirthDate() {
+        return birthDate;
+    }
+
+    public void setBirthDate(Date birthDate) {
+        this.birthDate = birthDate;
+    }
+
+    public Date getCollectionDate() {
+        return collectionDate;
+    }
+
+    public void setCollectionDate(Date collectionDate) {
+        this.collectionDate = collectionDate;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,180 @@
+package org.openelisglobal.dataexchange.aggregatereporting.valueholder;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.sql.Date;
+import java.sql.Timestamp;
+import org.openelisglobal.common.valueholder.BaseObject;
+
+/**
+ * The number of analyses of one day with the same test, panel, test section,
+ * requesting site, status and patient age band. Read by the indicator reports
+ * and the test usage transmissions instead of the analyses themselves.
+ *
+ * <p>
+ * An analysis is counted on the day it was completed, or the day it was started
+ * if it has not been completed. Analyses of a panel that was not canceled are
+ * also counted once per sample item as a row of the panel, without a test, with
+ * the status of the panel as a whole.
+ */
+@Entity
+@Table(name = "test_count_summary")
+public class TestCountSummary extends BaseObject<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        NOT_STARTED, IN_PROGRESS, FINALIZED, CANCELED, OTHER
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "summary_date", nullable = false)
+    private Date summaryDate;
+
+    @Column(name = "test_id")
+    private String testId;
+
+    @Column(name = "panel_id")
+    private String panelId;
+
+    @Column(name = "test_section_id")
+    private String testSectionId;
+
+    @Column(name = "site_id")
+    private String siteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "age_band", nullable = false)
+    private String ageBand;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "counted_in_panel", nullable = false)
+    private boolean countedInPanel;
+
+    @Column(name = "analysis_count", nullable = false)
+    private int analysisCount;
+
+    @Column(name = "computed_time", nullable = false)
+    private Timestamp computedTime;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Date getSummaryDate() {
+        return summaryDate;
+    }
+
+    public void setSummaryDate(Date summaryDate) {
+        this.summaryDate = summaryDate;
+    }
+
+    /** @return the test of the analyses, null for the row of a panel */
+    public String getTestId() {
+        return testId;
+    }
+
+    public void setTestId(String testId) {
+        this.testId = testId;
+    }
+
+    public String getPanelId() {
+        return panelId;
+    }
+
+    public void setPanelId(String panelId) {
+        this.panelId = panelId;
+    }
+
+    public String getTestSectionId() {
+        return testSectionId;
+    }
+
+    public void setTestSectionId(String testSectionId) {
+        this.testSectionId = testSectionId;
+    }
+
+    /** @return the organization requesting the analyses, null if none was given */
+    public String getSiteId() {
+        return siteId;
+    }
+
+    public void setSiteId(String siteId) {
+        this.siteId = siteId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getAgeBand() {
+        return ageBand;
+    }
+
+    public void setAgeBand(String ageBand) {
+        this.ageBand = ageBand;
+    }
+
+    /** @return true if the analyses are counted on the day they were completed */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * @return true if the analyses belong to a panel that is counted as a whole by
+     *         a row of the panel
+     */
+    public boolean isCountedInPanel() {
+        return countedInPanel;
+    }
+
+    public void setCountedInPanel(boolean countedInPanel) {
+        this.countedInPanel = countedInPanel;
+    }
+
+    public int getAnalysisCount() {
+        return analysisCount;
+    }
+
+    public void setAnalysisCount(int analysisCount) {
+        this.analysisCount = analysisCount;
+    }
+
+    /** @return when the rows of the day were last computed */
+    public Timestamp getComputedTime() {
+        return computedTime;
+    }
+
+    public void setComputedTime(Timestamp computedTime) {
+        this.computedTime = computedTime;
+    }
+}
@@ -24,9 +24,12 @@ import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.openelisglobal.common.log.LogEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+// holds the message and url of one send, so each send gets its own
 @Component
+@Scope("prototype")
 public class HttpPostSender extends HttpSender {
 
     @Autowired
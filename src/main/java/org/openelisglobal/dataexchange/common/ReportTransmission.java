@@ -42,10 +42,16 @@ public class ReportTransmission {
     }
 
     public void sendHL7Report(ResultReportXmit resultReport, String url, ITransmissionResponseHandler responseHandler) {
+        sendHL7Report(resultReport, url, true, responseHandler);
+    }
+
+    public void sendHL7Report(ResultReportXmit resultReport, String url, boolean sendAsychronously,
+            ITransmissionResponseHandler responseHandler) {
         OrderResponseWorker orWorker = SpringContext.getBean(OrderResponseWorker.class);
         try {
             orWorker.createReport(resultReport);
-            sendRawReport(orWorker.getHl7Message().encode(), url, true, responseHandler, HTTP_TYPE.POST);
+            sendRawReport(orWorker.getHl7Message().encode(), url, sendAsychronously, responseHandler,
+                    HTTP_TYPE.POST);
         } catch (HL7Exception e) {
             LogEvent.logError(e);
         } catch (IOException e) {
@@ -0,0 +1,82 @@
+package org.openelisglobal.dataexchange.fhir;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openelisglobal.dataexchange.fhir.service.FhirOutboxService;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * How far the local FHIR store is behind the saved results: the time from
+ * queueing a change to sending it, and the entries still waiting in the FHIR
+ * outbox.
+ */
+@Component
+public class FhirOutboxMetrics {
+
+    private static final Duration[] LAG_BUCKETS = { Duration.ofMillis(100), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(30),
+            Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15), Duration.ofHours(1) };
+
+    private final MeterRegistry meterRegistry;
+    private final FhirOutboxService outboxService;
+    private final Timer lag;
+    private final Counter sent;
+    private final Counter failed;
+
+    public FhirOutboxMetrics(MeterRegistry meterRegistry, FhirOutboxService outboxService) {
+        this.meterRegistry = meterRegistry;
+        this.outboxService = outboxService;
+        lag = Timer.builder("openelis.fhir.outbox.lag")
+                .description("Time from queueing result changes to writing them to the local FHIR store")
+                .serviceLevelObjectives(LAG_BUCKETS).register(meterRegistry);
+        sent = sends("sent");
+        failed = sends("failed");
+    }
+
+    private Counter sends(String outcome) {
+        return Counter.builder("openelis.fhir.outbox.sends")
+                .description("Attempts to write a FHIR outbox entry to the local FHIR store").tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        if (!outboxService.isOutboxEnabled()) {
+            return;
+        }
+        for (Status status : Status.values()) {
+            Gauge.builder("openelis.fhir.outbox.entries", outboxService,
+                    service -> service.getCountsByStatus().getOrDefault(status, 0L))
+                    .description("Entries in the FHIR outbox").tag("status", status.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        TimeGauge.builder("openelis.fhir.outbox.oldest.pending.age", outboxService, TimeUnit.MILLISECONDS,
+                FhirOutboxMetrics::getOldestPendingAgeMillis)
+                .description("Time the oldest change waiting in the FHIR outbox has been queued")
+                .register(meterRegistry);
+    }
+
+    private static double getOldestPendingAgeMillis(FhirOutboxService outboxService) {
+        Timestamp oldestPending = outboxService.getOldestPendingTime();
+        return oldestPending == null ? 0 : Math.max(System.currentTimeMillis() - oldestPending.getTime(), 0);
+    }
+
+    public void recordSent(FhirOutboxEntry entry) {
+        sent.increment();
+        lag.record(Math.max(System.currentTimeMillis() - entry.getCreatedTime().getTime(), 0),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void recordFailed() {
+        failed.increment();
+    }
+}
@@ -0,0 +1,53 @@
+package org.openelisglobal.dataexchange.fhir;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timing of the polls of the remote FHIR stores, and how far behind each
+ * store the local copy is: the time since the last poll that completed
+ * without errors.
+ */
+@Component
+public class FhirSyncMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> lastSuccessMillis = new ConcurrentHashMap<>();
+
+    public FhirSyncMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordSync(String remoteStorePath, boolean successful, long startNanos) {
+        Timer.builder("openelis.fhir.remote.sync.duration").description("Duration of a poll of a remote FHIR store")
+                .tag("remote", remoteStorePath).register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (successful) {
+            lastSuccessMillis.computeIfAbsent(remoteStorePath, this::registerGauges)
+                    .set(System.currentTimeMillis());
+        } else {
+            Counter.builder("openelis.fhir.remote.sync.failures")
+                    .description("Polls of a remote FHIR store that did not complete").tag("remote", remoteStorePath)
+                    .register(meterRegistry).increment();
+        }
+    }
+
+    private AtomicLong registerGauges(String remoteStorePath) {
+        AtomicLong lastSuccess = new AtomicLong();
+        TimeGauge.builder("openelis.fhir.remote.sync.last.success.timestamp", lastSuccess, TimeUnit.MILLISECONDS,
+                AtomicLong::get).description("Time of the last poll of a remote FHIR store that completed")
+                .tag("remote", remoteStorePath).register(meterRegistry);
+        TimeGauge.builder("openelis.fhir.remote.sync.lag", lastSuccess, TimeUnit.MILLISECONDS,
+                last -> System.currentTimeMillis() - last.get())
+                .description("Time since the last poll of a remote FHIR store that completed")
+                .tag("remote", remoteStorePath).register(meterRegistry);
+        return lastSuccess;
+    }
+}
@@ -10,6 +10,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.validator.GenericValidator;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
@@ -17,12 +25,17 @@ import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.EntityUtils;
 import org.itech.fhir.dataexport.core.service.FhirClientFetcher;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class FhirUtil implements FhirClientFetcher {
 
+    private static final String BASIC = "basic";
+    private static final String BEARER = "bearer";
+
     @Autowired
     private FhirConfig fhirConfig;
     @Autowired
@@ -30,26 +43,34 @@ public class FhirUtil implements FhirClientFetcher {
     @Autowired
     private CloseableHttpClient closeableHttpClient;
 
+    @Value("${org.openelisglobal.fhir.clientCache.size:50}")
+    private int clientCacheSize;
+
+    // clients are thread safe, so one is kept per store and credentials instead of
+    // creating and configuring one per call. Keyed on a hash of the credentials so
+    // they are not kept in the key. Access ordered, so the least recently used is
+    // evicted first, e.g. the clients of expired tokens
+    private final Map<List<String>, IGenericClient> fhirClients = Collections
+            .synchronizedMap(new LinkedHashMap<List<String>, IGenericClient>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<String>, IGenericClient> eldest) {
+                    return size() > clientCacheSize;
+                }
+            });
+
     @Override
     public IGenericClient getFhirClient(String fhirStorePath) {
-        IGenericClient fhirClient = fhirContext.newRestfulGenericClient(fhirStorePath);
         if (!GenericValidator.isBlankOrNull(fhirConfig.getUsername())) {
-            IClientInterceptor authInterceptor = new BasicAuthInterceptor(fhirConfig.getUsername(),
-                    fhirConfig.getPassword());
-            fhirClient.registerInterceptor(authInterceptor);
+            return getFhirClient(fhirStorePath, fhirConfig.getUsername(), fhirConfig.getPassword());
         }
-
-        return fhirClient;
+        return fhirClients.computeIfAbsent(Arrays.asList(fhirStorePath),
+                k -> fhirContext.newRestfulGenericClient(fhirStorePath));
     }
 
     public IGenericClient getLocalFhirClient() {
-        IGenericClient fhirClient = fhirContext.newRestfulGenericClient(fhirConfig.getLocalFhirStorePath());
-        if (!GenericValidator.isBlankOrNull(fhirConfig.getUsername())) {
-            IClientInterceptor authInterceptor = new BasicAuthInterceptor(fhirConfig.getUsername(),
-                    fhirConfig.getPassword());
-            fhirClient.registerInterceptor(authInterceptor);
-        }
-        return fhirClient;
+        return getFhirClient(fhirConfig.getLocalFhirStorePath());
     }
 
     public IParser getFhirParser() {
@@ -57,15 +78,31 @@ public class FhirUtil implements FhirClientFetcher {
     }
 
     public IGenericClient getFhirClient(String fhirStorePath, String token) {
-        IGenericClient fhirClient = fhirContext.newRestfulGenericClient(fhirStorePath);
-        BearerTokenAuthInterceptor authInterceptor = new BearerTokenAuthInterceptor(token);
-        fhirClient.registerInterceptor(authInterceptor);
-        return fhirClient;
+        return fhirClients.computeIfAbsent(Arrays.asList(fhirStorePath, BEARER, hashCredentials(token)),
+                k -> newFhirClient(fhirStorePath, new BearerTokenAuthInterceptor(token)));
     }
 
     public IGenericClient getFhirClient(String fhirStorePath, String username, String password) {
+        return fhirClients.computeIfAbsent(Arrays.asList(fhirStorePath, BASIC, hashCredentials(username, password)),
+                k -> newFhirClient(fhirStorePath, new BasicAuthInterceptor(username, password)));
+    }
+
+    private static String hashCredentials(String... credentials) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String credential : credentials) {
+                // separated so that moving characters between credentials changes the hash
+                digest.update(String.valueOf(credential).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new LIMSRuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    private IGenericClient newFhirClient(String fhirStorePath, IClientInterceptor authInterceptor) {
         IGenericClient fhirClient = fhirContext.newRestfulGenericClient(fhirStorePath);
-        BasicAuthInterceptor authInterceptor = new BasicAuthInterceptor(username, password);
         fhirClient.registerInterceptor(authInterceptor);
         return fhirClient;
     }
@@ -0,0 +1,15 @@
+package org.openelisglobal.dataexchange.fhir.dao;
+
+import org.openelisglobal.common.dao.OutboxDAO;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry.Status;
+
+public interface FhirOutboxDAO extends OutboxDAO<FhirOutboxEntry, Status> {
+
+    /**
+     * @return the pending, never attempted entry of the sample, locked for
+     *         update, or null if there is none
+     */
+    FhirOutboxEntry getCoalescable(String sampleId) throws LIMSRuntimeException;
+}
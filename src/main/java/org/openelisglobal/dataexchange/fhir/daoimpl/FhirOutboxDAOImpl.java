@@ -0,0 +1,41 @@
+package org.openelisglobal.dataexchange.fhir.daoimpl;
+
+import org.hibernate.HibernateException;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.openelisglobal.common.daoimpl.OutboxDAOImpl;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.dataexchange.fhir.dao.FhirOutboxDAO;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry.Status;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+public class FhirOutboxDAOImpl extends OutboxDAOImpl<FhirOutboxEntry, Status> implements FhirOutboxDAO {
+
+    public FhirOutboxDAOImpl() {
+        super(FhirOutboxEntry.class, Status.class, Status.PENDING, Status.SENDING, "createdTime", "nextAttemptTime");
+    }
+
+    @Override
+    public FhirOutboxEntry getCoalescable(String sampleId) throws LIMSRuntimeException {
+        String hql = "from FhirOutboxEntry f where f.sampleId = :sampleId and f.status = :status"
+                + " and f.attempts = 0 order by f.id";
+        try {
+            Query<FhirOutboxEntry> query = entityManager.unwrap(Session.class).createQuery(hql,
+                    FhirOutboxEntry.class);
+            query.setParameter("sampleId", sampleId);
+            query.setParameter("status", Status.PENDING);
+            query.setMaxResults(1);
+            query.setLockOptions(new LockOptions(LockMode.PESSIMISTIC_WRITE));
+            return query.uniqueResult();
+        } catch (HibernateException e) {
+            handleException(e, "getCoalescable");
+        }
+        return null;
+    }
+}
@@ -38,6 +38,7 @@ import org.openelisglobal.common.action.IActionConstants;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.services.TableIdService;
 import org.openelisglobal.dataexchange.fhir.FhirConfig;
+import org.openelisglobal.dataexchange.fhir.FhirSyncMetrics;
 import org.openelisglobal.dataexchange.fhir.FhirUtil;
 import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
 import org.openelisglobal.dataexchange.fhir.service.FhirPersistanceServiceImpl.FhirOperations;
@@ -78,6 +79,8 @@ public class FhirApiWorkFlowServiceImpl implements FhirApiWorkflowService {
     private OrganizationService organizationService;
     @Autowired
     private ProviderService providerService;
+    @Autowired
+    private FhirSyncMetrics fhirSyncMetrics;
 
     @Value("${org.openelisglobal.fhirstore.uri}")
     private String localFhirStorePath;
@@ -95,11 +98,14 @@ public class FhirApiWorkFlowServiceImpl implements FhirApiWorkflowService {
     @Async
     public void processWorkflow(ResourceType resourceType) {
         for (String remoteStorePath : fhirConfig.getRemoteStorePaths()) {
+            long start = System.nanoTime();
+            boolean synced = true;
             switch (resourceType) {
             case Task:
                 try {
                     beginTaskImportOrderPath(remoteStorePath);
                 } catch (RuntimeException e) {
+                    synced = false;
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow",
                             "could not process Task import workflow using remote address: " + remoteStorePath);
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow", e.getMessage());
@@ -107,10 +113,12 @@ public class FhirApiWorkFlowServiceImpl implements FhirApiWorkflowService {
                 try {
                     beginTaskCheckIfAcceptedPath(remoteStorePath);
                 } catch (RuntimeException e) {
+                    synced = false;
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow",
                             "could not process Task accepted workflow using remote address: " + remoteStorePath);
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow", e.getMessage());
                 } catch (FhirLocalPersistingException e) {
+                    synced = false;
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow",
                             "could not process Task result import workflow using remote address: " + remoteStorePath);
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow", e.getMessage());
@@ -118,10 +126,12 @@ public class FhirApiWorkFlowServiceImpl implements FhirApiWorkflowService {
                 try {
                     beginTaskImportResultsPath(remoteStorePath);
                 } catch (RuntimeException e) {
+                    synced = false;
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow",
                             "could not process Task workflow using remote address: " + remoteStorePath);
                     LogEvent.logError(this.getClass().getSimpleName(), "processWorkflow", e.getMessage());
                 }
+                fhirSyncMetrics.recordSync(remoteStorePath, synced, start);
             default:
             }
         }
@@ -484,6 +494,7 @@ public class FhirApiWorkFlowServiceImpl implements FhirApiWorkflowService {
             }
             IGenericClient localFhirClient = fhirUtil.getFhirClient(localFhirStorePath);
             localFhirClient.update().resource(localObjects.task).execute();
+            fhirPersistanceService.evictFromLookupCache(localObjects.task);
             // taskBasedOnRemoteTask.setStatus(taskStatus);
             // localFhirClient.update().resource(taskBasedOnRemoteTask).execute();
         }
@@ -517,6 +528,7 @@ public class FhirApiWorkFlowServiceImpl implements FhirApiWorkflowService {
 
         MethodOutcome outcome = fhirUtil.getFhirClient(localFhirStorePath).update().resource(taskBasedOnRemoteTask)
                 .execute();
+        fhirPersistanceService.evictFromLookupCache(taskBasedOnRemoteTask);
 
         return (Task) outcome.getResource();
     }
@@ -1,8 +1,6 @@
 package org.openelisglobal.dataexchange.fhir.service;
 
-import ca.uhn.fhir.rest.client.api.IClientInterceptor;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
-import ca.uhn.fhir.rest.client.interceptor.BasicAuthInterceptor;
 import java.util.Optional;
 import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
@@ -38,6 +36,9 @@ public class FhirFacilityOrganizationServiceImpl implements FhirFacilityOrganiza
     @Autowired
     private FhirUtil fhirUtil;
 
+    @Autowired
+    private FhirPersistanceService fhirPersistanceService;
+
     @Autowired
     private LocalizationService localizationService;
 
@@ -275,6 +276,7 @@ public class FhirFacilityOrganizationServiceImpl implements FhirFacilityOrganiza
         try {
             IGenericClient localFhirClient = fhirUtil.getFhirClient(localFhirPath);
             localFhirClient.update().resource(facilityOrganization).execute();
+            fhirPersistanceService.evictFromLookupCache(facilityOrganization);
             LogEvent.logInfo(this.getClass().getSimpleName(), "syncToLocalFhirServer",
                     "Successfully synced facility Organization to local FHIR server: " + facilityUuid);
         } catch (Exception e) {
@@ -305,16 +307,8 @@ public class FhirFacilityOrganizationServiceImpl implements FhirFacilityOrganiza
             }
 
             try {
+                // authenticated with the configured credentials, if there are any
                 IGenericClient remoteFhirClient = fhirUtil.getFhirClient(remotePath);
-
-                // Add authentication if configured and not the local server
-                String localPath = fhirConfig.getLocalFhirStorePath();
-                if (StringUtils.isNotBlank(fhirConfig.getUsername()) && !remotePath.equals(localPath)) {
-                    IClientInterceptor authInterceptor = new BasicAuthInterceptor(fhirConfig.getUsername(),
-                            fhirConfig.getPassword());
-                    remoteFhirClient.registerInterceptor(authInterceptor);
-                }
-
                 remoteFhirClient.update().resource(facilityOrganization).execute();
                 LogEvent.logInfo(this.getClass().getSimpleName(), "syncToRemoteFhirServers",
                         "Successfully synced facility Organization to remote FHIR server: " + remotePath);
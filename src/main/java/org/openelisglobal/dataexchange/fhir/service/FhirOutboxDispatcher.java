@@ -0,0 +1,106 @@
+package org.openelisglobal.dataexchange.fhir.service;
+
+import java.util.List;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.dataexchange.fhir.FhirOutboxMetrics;
+import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the result changes captured in the FHIR outbox to the local FHIR
+ * store.
+ *
+ * <p>
+ * Due entries are claimed in batches and the resources of several entries are
+ * written with one transaction bundle. When a bundle is rejected its entries
+ * are sent one by one, so one bad entry does not hold back the others. A failed
+ * entry is retried with exponential backoff.
+ */
+@Component
+public class FhirOutboxDispatcher {
+
+    @Autowired
+    private FhirOutboxService outboxService;
+    @Autowired
+    private FhirTransformService fhirTransformService;
+    @Autowired
+    private FhirOutboxMetrics outboxMetrics;
+
+    @Value("${org.openelisglobal.fhirstore.outbox.batchSize:100}")
+    private int batchSize;
+
+    @Value("${org.openelisglobal.fhirstore.outbox.bundleSize:20}")
+    private int bundleSize;
+
+    @Scheduled(initialDelay = 60 * 1000, fixedDelayString = "${org.openelisglobal.fhirstore.outbox.pollInterval:5000}")
+    public void dispatchPendingEntries() {
+        if (!outboxService.isOutboxEnabled()) {
+            return;
+        }
+        requeueExpiredClaims();
+        List<FhirOutboxEntry> batch;
+        do {
+            batch = outboxService.claimDue(batchSize);
+            for (int i = 0; i < batch.size(); i += bundleSize) {
+                sendBundle(batch.subList(i, Math.min(i + bundleSize, batch.size())));
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Entries claimed by a node that went away while sending, or whose outcome
+     * could not be recorded, are picked up again once their claim times out
+     */
+    private void requeueExpiredClaims() {
+        int requeued = outboxService.requeueExpiredClaims();
+        if (requeued > 0) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "requeueExpiredClaims",
+                    "Requeued " + requeued + " FHIR outbox entries whose sending claim expired");
+        }
+    }
+
+    void sendBundle(List<FhirOutboxEntry> entries) {
+        try {
+            fhirTransformService.transformPersistResultChanges(entries);
+        } catch (FhirLocalPersistingException | RuntimeException e) {
+            if (entries.size() > 1) {
+                LogEvent.logWarn(this.getClass().getSimpleName(), "sendBundle", "Bundle of " + entries.size()
+                        + " FHIR outbox entries was rejected, sending them one by one: " + e.getMessage());
+                for (FhirOutboxEntry entry : entries) {
+                    sendBundle(List.of(entry));
+                }
+            } else {
+                LogEvent.logError("Error writing the FHIR outbox entry for sample " + entries.get(0).getSampleId()
+                        + " to the local FHIR store", e);
+                recordFailure(entries.get(0), e);
+            }
+            return;
+        }
+        markSent(entries);
+    }
+
+    private void markSent(List<FhirOutboxEntry> entries) {
+        try {
+            outboxService.markSent(entries);
+        } catch (RuntimeException e) {
+            LogEvent.logError("Could not mark " + entries.size() + " FHIR outbox entries as sent", e);
+            return;
+        }
+        for (FhirOutboxEntry entry : entries) {
+            outboxMetrics.recordSent(entry);
+        }
+    }
+
+    private void recordFailure(FhirOutboxEntry entry, Exception e) {
+        outboxMetrics.recordFailed();
+        try {
+            outboxService.recordFailure(entry, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (RuntimeException e2) {
+            LogEvent.logError("Could not record failure of FHIR outbox entry for sample " + entry.getSampleId(), e2);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.openelisglobal.dataexchange.fhir.service;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.service.BaseObjectService;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry.Status;
+import org.openelisglobal.result.valueholder.Result;
+import org.openelisglobal.sample.valueholder.Sample;
+
+public interface FhirOutboxService extends BaseObjectService<FhirOutboxEntry, Long> {
+
+    /** @return true if result changes are mirrored into a local FHIR store */
+    boolean isOutboxEnabled();
+
+    /**
+     * Queues the changed results, analyses and sample Tasks for the local FHIR
+     * store, merged per sample into the entries that have not been sent yet. Must
+     * be called in the transaction that saves the changes so they are queued with
+     * them
+     *
+     * @param deletedResults results being deleted, sent as cancelled Observations
+     */
+    void enqueueResultChanges(Collection<Result> results, Collection<Result> deletedResults,
+            Collection<Analysis> analyses, Collection<Sample> samples);
+
+    List<FhirOutboxEntry> claimDue(int batchSize);
+
+    void markSent(List<FhirOutboxEntry> entries);
+
+    /**
+     * Schedules another attempt with exponential backoff, or marks the entry
+     * FAILED once it has used all its attempts
+     */
+    void recordFailure(FhirOutboxEntry entry, String errorDetail);
+
+    /**
+     * Returns entries left in SENDING longer than the claim timeout, e.g. by a node
+     * that shut down while sending, to PENDING. Entries other nodes are still
+     * sending are left alone
+     */
+    int requeueExpiredClaims();
+
+    Map<Status, Long> getCountsByStatus();
+
+    /** @return when the oldest change still waiting to be sent was queued, null if none is */
+    Timestamp getOldestPendingTime();
+}
@@ -0,0 +1,172 @@
+package org.openelisglobal.dataexchange.fhir.service;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.commons.lang3.StringUtils;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.service.BaseObjectServiceImpl;
+import org.openelisglobal.common.util.DateUtil;
+import org.openelisglobal.common.util.RetryBackoff;
+import org.openelisglobal.dataexchange.fhir.FhirConfig;
+import org.openelisglobal.dataexchange.fhir.dao.FhirOutboxDAO;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry.Status;
+import org.openelisglobal.result.valueholder.Result;
+import org.openelisglobal.sample.valueholder.Sample;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class FhirOutboxServiceImpl extends BaseObjectServiceImpl<FhirOutboxEntry, Long> implements FhirOutboxService {
+
+    @Autowired
+    protected FhirOutboxDAO baseObjectDAO;
+    @Autowired
+    private FhirConfig fhirConfig;
+
+    @Value("${org.openelisglobal.fhirstore.outbox.maxAttempts:10}")
+    private int maxAttempts;
+
+    @Value("${org.openelisglobal.fhirstore.outbox.retryBackoff:30000}")
+    private long retryBackoffMillis;
+
+    @Value("${org.openelisglobal.fhirstore.outbox.maxRetryBackoff:3600000}")
+    private long maxRetryBackoffMillis;
+
+    @Value("${org.openelisglobal.fhirstore.outbox.claimTimeout:600000}")
+    private long claimTimeoutMillis;
+
+    FhirOutboxServiceImpl() {
+        super(FhirOutboxEntry.class);
+    }
+
+    @Override
+    protected FhirOutboxDAO getBaseObjectDAO() {
+        return baseObjectDAO;
+    }
+
+    @Override
+    public boolean isOutboxEnabled() {
+        return StringUtils.isNotBlank(fhirConfig.getLocalFhirStorePath());
+    }
+
+    @Override
+    @Transactional
+    public void enqueueResultChanges(Collection<Result> results, Collection<Result> deletedResults,
+            Collection<Analysis> analyses, Collection<Sample> samples) {
+        if (!isOutboxEnabled()) {
+            return;
+        }
+        // sorted so concurrent saves lock the entries of their samples in the same order
+        Map<String, SampleChanges> changesBySample = new TreeMap<>();
+        for (Result result : results) {
+            if (result.getId() != null) {
+                getChanges(changesBySample, result.getAnalysis()).resultIds.add(result.getId());
+            }
+        }
+        for (Result result : deletedResults) {
+            getChanges(changesBySample, result.getAnalysis()).cancelledObservationIds
+                    .add(result.getFhirUuidAsString());
+        }
+        for (Analysis analysis : analyses) {
+            getChanges(changesBySample, analysis).analysisIds.add(analysis.getId());
+        }
+        for (Sample sample : samples) {
+            changesBySample.computeIfAbsent(sample.getId(), k -> new SampleChanges()).updateTask = true;
+        }
+
+        Timestamp now = DateUtil.getNowAsTimestamp();
+        for (Map.Entry<String, SampleChanges> sampleChanges : changesBySample.entrySet()) {
+            SampleChanges changes = sampleChanges.getValue();
+            FhirOutboxEntry entry = getBaseObjectDAO().getCoalescable(sampleChanges.getKey());
+            boolean isNew = entry == null;
+            if (isNew) {
+                entry = new FhirOutboxEntry();
+                entry.setSampleId(sampleChanges.getKey());
+                entry.setStatus(Status.PENDING);
+                entry.setCreatedTime(now);
+                entry.setNextAttemptTime(now);
+            }
+            entry.addResultIds(changes.resultIds);
+            entry.addCancelledObservationIds(changes.cancelledObservationIds);
+            entry.addAnalysisIds(changes.analysisIds);
+            entry.setUpdateTask(entry.isUpdateTask() || changes.updateTask);
+            if (isNew) {
+                insert(entry);
+            } else {
+                update(entry);
+            }
+        }
+    }
+
+    private SampleChanges getChanges(Map<String, SampleChanges> changesBySample, Analysis analysis) {
+        String sampleId = analysis.getSampleItem().getSample().getId();
+        return changesBySample.computeIfAbsent(sampleId, k -> new SampleChanges());
+    }
+
+    @Override
+    @Transactional
+    public List<FhirOutboxEntry> claimDue(int batchSize) {
+        return getBaseObjectDAO().claimDue(batchSize, DateUtil.getNowAsTimestamp());
+    }
+
+    @Override
+    @Transactional
+    public void markSent(List<FhirOutboxEntry> entries) {
+        Timestamp now = DateUtil.getNowAsTimestamp();
+        for (FhirOutboxEntry entry : entries) {
+            entry.setStatus(Status.SENT);
+            entry.setErrorDetail(null);
+            entry.setSentTime(now);
+            update(entry);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(FhirOutboxEntry entry, String errorDetail) {
+        entry.setErrorDetail(errorDetail);
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(Status.FAILED);
+        } else {
+            entry.setStatus(Status.PENDING);
+            entry.setClaimedAt(null);
+            entry.setNextAttemptTime(
+                    RetryBackoff.getNextAttemptTime(entry.getAttempts(), retryBackoffMillis, maxRetryBackoffMillis));
+        }
+        update(entry);
+    }
+
+    @Override
+    @Transactional
+    public int requeueExpiredClaims() {
+        return getBaseObjectDAO()
+                .requeueClaimedBefore(new Timestamp(System.currentTimeMillis() - claimTimeoutMillis));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Status, Long> getCountsByStatus() {
+        return getBaseObjectDAO().getCountsByStatus();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Timestamp getOldestPendingTime() {
+        return getBaseObjectDAO().getOldestQueuedTime(Status.PENDING);
+    }
+
+    private static class SampleChanges {
+        private final Set<String> resultIds = new HashSet<>();
+        private final Set<String> cancelledObservationIds = new HashSet<>();
+        private final Set<String> analysisIds = new HashSet<>();
+        private boolean updateTask;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.DiagnosticReport;
+import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Organization;
 import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.Resource;
@@ -25,6 +26,12 @@ public interface FhirPersistanceService {
     Bundle createUpdateFhirResourcesInFhirStore(List<FhirOperations> fhirOperationsList)
             throws FhirLocalPersistingException;
 
+    /**
+     * Drops the cached lookups of a resource that was written to the local FHIR
+     * store with a client of its own instead of through this service
+     */
+    void evictFromLookupCache(Resource resource);
+
     List<ServiceRequest> getAllServiceRequestByAccessionNumber(String accessionNumber);
 
     Optional<Organization> getFhirOrganizationByName(String orgName);
@@ -37,6 +44,8 @@ public interface FhirPersistanceService {
 
     Optional<DiagnosticReport> getDiagnosticReportByAnalysisUuid(String uuid);
 
+    Optional<Observation> getObservationByResultUuid(String uuid);
+
     Optional<Task> getTaskBasedOnServiceRequest(String referringId);
 
     Optional<ServiceRequest> getServiceRequestByReferingId(String referringId);
@@ -17,6 +17,7 @@ import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
 import org.hl7.fhir.r4.model.Bundle.BundleType;
 import org.hl7.fhir.r4.model.DiagnosticReport;
 import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Organization;
 import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.Resource;
@@ -29,6 +30,7 @@ import org.openelisglobal.dataexchange.fhir.FhirConfig;
 import org.openelisglobal.dataexchange.fhir.FhirUtil;
 import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -63,13 +65,34 @@ public class FhirPersistanceServiceImpl implements FhirPersistanceService {
     @Autowired
     private FhirContext fhirContext;
 
+    @Value("${org.openelisglobal.fhirstore.lookupCache.size:1000}")
+    private int lookupCacheSize;
+
+    @Value("${org.openelisglobal.fhirstore.lookupCache.ttl:30000}")
+    private long lookupCacheTtlMillis;
+
     IGenericClient localFhirClient;
+    private FhirResourceCache lookupCache;
 
     @PostConstruct
     public void init() {
         if (StringUtils.isNotBlank(fhirConfig.getLocalFhirStorePath())) {
             localFhirClient = fhirUtil.getFhirClient(fhirConfig.getLocalFhirStorePath());
         }
+        lookupCache = new FhirResourceCache(lookupCacheSize, lookupCacheTtlMillis);
+    }
+
+    private Bundle executeTransaction(Bundle transactionBundle) {
+        try {
+            return localFhirClient.transaction().withBundle(transactionBundle).execute();
+        } finally {
+            lookupCache.evict(transactionBundle);
+        }
+    }
+
+    @Override
+    public void evictFromLookupCache(Resource resource) {
+        lookupCache.evictResource(resource);
     }
 
     @Override
@@ -88,7 +111,7 @@ public class FhirPersistanceServiceImpl implements FhirPersistanceService {
         Bundle transactionBundle = makeTransactionBundleForCreate(resources);
         Bundle transactionResponseBundle = new Bundle();
         try {
-            transactionResponseBundle = localFhirClient.transaction().withBundle(transactionBundle).execute();
+            transactionResponseBundle = executeTransaction(transactionBundle);
         } catch (Exception e) {
             LogEvent.logError(e);
             throw new FhirLocalPersistingException(e);
@@ -101,7 +124,7 @@ public class FhirPersistanceServiceImpl implements FhirPersistanceService {
         Bundle transactionBundle = makeTransactionBundleForUpdate(resources);
         Bundle transactionResponseBundle = new Bundle();
         try {
-            transactionResponseBundle = localFhirClient.transaction().withBundle(transactionBundle).execute();
+            transactionResponseBundle = executeTransaction(transactionBundle);
         } catch (Exception e) {
             LogEvent.logError(e);
             throw new FhirLocalPersistingException(e);
@@ -120,7 +143,7 @@ public class FhirPersistanceServiceImpl implements FhirPersistanceService {
         try {
             LogEvent.logTrace(this.getClass().getSimpleName(), "",
                     "creating resources: " + fhirContext.newJsonParser().encodeResourceToString(transactionBundle));
-            transactionResponseBundle = localFhirClient.transaction().withBundle(transactionBundle).execute();
+            transactionResponseBundle = executeTransaction(transactionBundle);
             LogEvent.logTrace(this.getClass().getSimpleName(), "", "created resources: "
                     + fhirContext.newJsonParser().encodeResourceToString(transactionResponseBundle));
         } catch (Exception e) {
@@ -150,7 +173,7 @@ public class FhirPersistanceServiceImpl implements FhirPersistanceService {
         try {
             LogEvent.logTrace(this.getClass().getSimpleName(), "",
                     "creating resources: " + fhirContext.newJsonParser().encodeResourceToString(transactionBundle));
-            transactionResponseBundle = localFhirClient.transaction().withBundle(transactionBundle).execute();
+            transactionResponseBundle = executeTransaction(transactionBundle);
             LogEvent.logTrace(this.getClass().getSimpleName(), "", "created resources: "
                     + fhirContext.newJsonParser().encodeResourceToString(transactionResponseBundle));
         } catch (Exception e) {
@@ -195,56 +218,76 @@ public class FhirPersistanceServiceImpl implements FhirPersistanceService {
 
     @Override
     public Optional<Patient> getPatientByUuid(String uuid) {
-        Bundle bundle = localFhirClient.search() //
-                .forResource(Patient.class) //
-                .returnBundle(Bundle.class) //
-                .where(Patient.IDENTIFIER.exactly().systemAndIdentifier(fhirConfig.getOeFhirSystem() + "/pat_uuid",
-                        uuid)) //
-                .execute();
-        if (bundle.hasEntry()) {
-            return Optional.of((Patient) bundle.getEntryFirstRep().getResource());
-        }
-        return Optional.empty();
+        String system = fhirConfig.getOeFhirSystem() + "/pat_uuid";
+        return lookupCache.get(Patient.class, system, uuid, () -> {
+            Bundle bundle = localFhirClient.search() //
+                    .forResource(Patient.class) //
+                    .returnBundle(Bundle.class) //
+                    .where(Patient.IDENTIFIER.exactly().systemAndIdentifier(system, uuid)) //
+                    .execute();
+            if (bundle.hasEntry()) {
+                return Optional.of((Patient) bundle.getEntryFirstRep().getResource());
+            }
+            return Optional.empty();
+        });
     }
 
     @Override
     public Optional<ServiceRequest> getServiceRequestByAnalysisUuid(String uuid) {
-        Bundle bundle = localFhirClient.search() //
-                .forResource(ServiceRequest.class) //
-                .returnBundle(Bundle.class) //
-                .where(ServiceRequest.IDENTIFIER.exactly()
-                        .systemAndIdentifier(fhirConfig.getOeFhirSystem() + "/analysis_uuid", uuid)) //
-                .execute();
-        if (bundle.hasEntry()) {
-            return Optional.of((ServiceRequest) bundle.getEntryFirstRep().getResource());
-        }
-        return Optional.empty();
+        String system = fhirConfig.getOeFhirSystem() + "/analysis_uuid";
+        return lookupCache.get(ServiceRequest.class, system, uuid, () -> {
+            Bundle bundle = localFhirClient.search() //
+                    .forResource(ServiceRequest.class) //
+                    .returnBundle(Bundle.class) //
+                    .where(ServiceRequest.IDENTIFIER.exactly().systemAndIdentifier(system, uuid)) //
+                    .execute();
+            if (bundle.hasEntry()) {
+                return Optional.of((ServiceRequest) bundle.getEntryFirstRep().getResource());
+            }
+            return Optional.empty();
+        });
     }
 
     @Override
     public Optional<Specimen> getSpecimenBySampleItemUuid(String uuid) {
+        String system = fhirConfig.getOeFhirSystem() + "/sampleItem_uuid";
+        return lookupCache.get(Specimen.class, system, uuid, () -> {
+            Bundle bundle = localFhirClient.search() //
+                    .forResource(Specimen.class) //
+                    .returnBundle(Bundle.class) //
+                    .where(Specimen.IDENTIFIER.exactly().systemAndIdentifier(system, uuid)) //
+                    .execute();
+            if (bundle.hasEntry()) {
+                return Optional.of((Specimen) bundle.getEntryFirstRep().getResource());
+            }
+            return Optional.empty();
+        });
+    }
+
+    @Override
+    public Optional<DiagnosticReport> getDiagnosticReportByAnalysisUuid(String uuid) {
         Bundle bundle = localFhirClient.search() //
-                .forResource(Specimen.class) //
+                .forResource(DiagnosticReport.class) //
                 .returnBundle(Bundle.class) //
-                .where(Specimen.IDENTIFIER.exactly()
-                        .systemAndIdentifier(fhirConfig.getOeFhirSystem() + "/sampleItem_uuid", uuid)) //
+                .where(DiagnosticReport.IDENTIFIER.exactly()
+                        .systemAndIdentifier(fhirConfig.getOeFhirSystem() + "/analysisResult_uuid", uuid)) //
                 .execute();
         if (bundle.hasEntry()) {
-            return Optional.of((Specimen) bundle.getEntryFirstRep().getResource());
+            return Optional.of((DiagnosticReport) bundle.getEntryFirstRep().getResource());
         }
         return Optional.empty();
     }
 
     @Override
-    public Optional<DiagnosticReport> getDiagnosticReportByAnalysisUuid(String uuid) {
+    public Optional<Observation> getObservationByResultUuid(String uuid) {
         Bundle bundle = localFhirClient.search() //
-                .forResource(DiagnosticReport.class) //
+                .forResource(Observation.class) //
                 .returnBundle(Bundle.class) //
-                .where(DiagnosticReport.IDENTIFIER.exactly()
-                        .systemAndIdentifier(fhirConfig.getOeFhirSystem() + "/analysisResult_uuid", uuid)) //
+                .where(Observation.IDENTIFIER.exactly()
+                        .systemAndIdentifier(fhirConfig.getOeFhirSystem() + "/result_uuid", uuid)) //
                 .execute();
         if (bundle.hasEntry()) {
-            return Optional.of((DiagnosticReport) bundle.getEntryFirstRep().getResource());
+            return Optional.of((Observation) bundle.getEntryFirstRep().getResource());
         }
         return Optional.empty();
     }
@@ -0,0 +1,125 @@
+package org.openelisglobal.dataexchange.fhir.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Property;
+import org.hl7.fhir.r4.model.Resource;
+
+/**
+ * Resources of the local FHIR store found by one of their identifiers, kept for
+ * a short time so workflows that look up the same resource several times only
+ * search for it once.
+ *
+ * <p>
+ * Only resources that were found are kept. Resources written through
+ * {@link FhirPersistanceService}, or reported to it after being written
+ * directly, are evicted when they are written; resources written to the store
+ * by anyone else are seen once their entry expires.
+ * Callers get a copy, so changing a resource does not change the cached one.
+ */
+class FhirResourceCache {
+
+    private final long ttlMillis;
+    // bumped on every eviction, so a search that ran while a resource was written
+    // does not put the old version back
+    private final AtomicLong evictions = new AtomicLong();
+    // access ordered, so the least recently used resource is evicted first
+    private final Map<String, CachedResource> resources;
+
+    FhirResourceCache(int maxSize, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        resources = Collections.synchronizedMap(new LinkedHashMap<String, CachedResource>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResource> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @return a copy of the cached resource with the identifier, or the result of
+     *         the search if there is none
+     */
+    <T extends Resource> Optional<T> get(Class<T> type, String system, String value, Supplier<Optional<T>> search) {
+        if (ttlMillis <= 0) {
+            return search.get();
+        }
+        String key = getKey(type.getSimpleName(), system, value);
+        CachedResource cached = resources.get(key);
+        if (cached != null && cached.expiryMillis > System.currentTimeMillis()) {
+            return Optional.of(type.cast(cached.resource.copy()));
+        }
+        long evictionsBeforeSearch = evictions.get();
+        Optional<T> resource = search.get();
+        if (resource.isPresent()) {
+            synchronized (resources) {
+                if (evictions.get() == evictionsBeforeSearch) {
+                    resources.put(key, new CachedResource(resource.get().copy(),
+                            System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return resource;
+    }
+
+    /** Evicts the resources written by the transaction bundle */
+    void evict(Bundle transactionBundle) {
+        synchronized (resources) {
+            evictions.incrementAndGet();
+            for (BundleEntryComponent entry : transactionBundle.getEntry()) {
+                removeResource(entry.getResource());
+            }
+        }
+    }
+
+    /** Evicts a resource written to the store outside of a transaction bundle */
+    void evictResource(Resource resource) {
+        synchronized (resources) {
+            evictions.incrementAndGet();
+            removeResource(resource);
+        }
+    }
+
+    private void removeResource(Resource resource) {
+        if (resource == null) {
+            return;
+        }
+        Property identifiers = resource.getNamedProperty("identifier");
+        if (identifiers == null) {
+            return;
+        }
+        for (Object identifier : identifiers.getValues()) {
+            if (identifier instanceof Identifier) {
+                resources.remove(getKey(resource.fhirType(), ((Identifier) identifier).getSystem(),
+                        ((Identifier) identifier).getValue()));
+            }
+        }
+    }
+
+    int size() {
+        return resources.size();
+    }
+
+    private static String getKey(String resourceType, String system, String value) {
+        return resourceType + "|" + system + "|" + value;
+    }
+
+    private static class CachedResource {
+        private final Resource resource;
+        private final long expiryMillis;
+
+        private CachedResource(Resource resource, long expiryMillis) {
+            this.resource = resource;
+            this.expiryMillis = expiryMillis;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package org.openelisglobal.dataexchange.fhir.service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
 import org.hl7.fhir.r4.model.Bundle;
@@ -9,21 +8,16 @@ import org.hl7.fhir.r4.model.Practitioner;
 import org.hl7.fhir.r4.model.Reference;
 import org.hl7.fhir.r4.model.Resource;
 import org.hl7.fhir.r4.model.ResourceType;
-import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.common.provider.query.PatientSearchResults;
 import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
 import org.openelisglobal.dataexchange.fhir.exception.FhirPersistanceException;
 import org.openelisglobal.dataexchange.fhir.exception.FhirTransformationException;
-import org.openelisglobal.note.valueholder.Note;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
 import org.openelisglobal.organization.valueholder.Organization;
 import org.openelisglobal.patient.action.bean.PatientManagementInfo;
 import org.openelisglobal.provider.valueholder.Provider;
 import org.openelisglobal.referral.action.beanitems.ReferralItem;
-import org.openelisglobal.result.action.util.ResultsUpdateDataSet;
-import org.openelisglobal.result.valueholder.Result;
-import org.openelisglobal.resultvalidation.bean.AnalysisItem;
 import org.openelisglobal.sample.action.util.SamplePatientUpdateData;
-import org.openelisglobal.sample.valueholder.Sample;
 
 public interface FhirTransformService {
 
@@ -37,9 +31,6 @@ public interface FhirTransformService {
             boolean useReferral, List<ReferralItem> referralItems)
             throws FhirTransformationException, FhirPersistanceException;
 
-    void transformPersistResultsEntryFhirObjects(ResultsUpdateDataSet actionDataSet)
-            throws FhirTransformationException, FhirPersistanceException;
-
     Organization transformToOrganization(org.hl7.fhir.r4.model.Organization fhirOrganization)
             throws FhirTransformationException;
 
@@ -50,9 +41,12 @@ public interface FhirTransformService {
 
     Reference createReferenceFor(Resource resource);
 
-    void transformPersistResultValidationFhirObjects(List<Result> deletableList, List<Analysis> analysisUpdateList,
-            ArrayList<Result> resultUpdateList, List<AnalysisItem> resultItemList, ArrayList<Sample> sampleUpdateList,
-            ArrayList<Note> noteUpdateList) throws FhirLocalPersistingException;
+    /**
+     * Builds the resources for result changes queued in the FHIR outbox from the
+     * current state of the results, analyses and samples, and writes them to the
+     * local FHIR store in one transaction bundle
+     */
+    Bundle transformPersistResultChanges(List<FhirOutboxEntry> entries) throws FhirLocalPersistingException;
 
     org.hl7.fhir.r4.model.Patient transformToFhirPatient(String patientId) throws FhirTransformationException;
 
@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ObjectUtils;
@@ -77,6 +78,7 @@ import org.openelisglobal.dataexchange.fhir.FhirConfig;
 import org.openelisglobal.dataexchange.fhir.FhirUtil;
 import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
 import org.openelisglobal.dataexchange.fhir.service.FhirPersistanceServiceImpl.FhirOperations;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrderType;
 import org.openelisglobal.dataexchange.service.order.ElectronicOrderService;
@@ -101,11 +103,8 @@ import org.openelisglobal.provider.service.ProviderService;
 import org.openelisglobal.provider.valueholder.Provider;
 import org.openelisglobal.referral.action.beanitems.ReferralItem;
 import org.openelisglobal.referral.service.ReferralSetService;
-import org.openelisglobal.result.action.util.ResultSet;
-import org.openelisglobal.result.action.util.ResultsUpdateDataSet;
 import org.openelisglobal.result.service.ResultService;
 import org.openelisglobal.result.valueholder.Result;
-import org.openelisglobal.resultvalidation.bean.AnalysisItem;
 import org.openelisglobal.sample.action.util.SamplePatientUpdateData;
 import org.openelisglobal.sample.service.SampleService;
 import org.openelisglobal.sample.valueholder.Sample;
@@ -1094,71 +1093,57 @@ public class FhirTransformServiceImpl implements FhirTransformService {
     }
 
     @Override
-    @Async
     @Transactional(readOnly = true)
-    public void transformPersistResultsEntryFhirObjects(ResultsUpdateDataSet actionDataSet)
-            throws FhirLocalPersistingException {
-        LogEvent.logTrace(this.getClass().getSimpleName(), "transformPersistResultsEntryFhirObjects",
-                "transformPersistResultsEntryFhirObjects called");
-
-        CountingTempIdGenerator tempIdGenerator = new CountingTempIdGenerator();
-        FhirOperations fhirOperations = new FhirOperations();
-        for (ResultSet resultSet : actionDataSet.getNewResults()) {
-            Observation observation = transformResultToObservation(resultSet.result.getId());
-            this.addToOperations(fhirOperations, tempIdGenerator, observation);
-        }
-        for (ResultSet resultSet : actionDataSet.getModifiedResults()) {
-            Observation observation = this.transformResultToObservation(resultSet.result.getId());
-            this.addToOperations(fhirOperations, tempIdGenerator, observation);
-        }
-
-        for (Analysis analysis : actionDataSet.getModifiedAnalysis()) {
-            ServiceRequest serviceRequest = this.transformToServiceRequest(analysis.getId());
-            this.addToOperations(fhirOperations, tempIdGenerator, serviceRequest);
-            if (statusService.matches(analysis.getStatusId(), AnalysisStatus.Finalized)) {
-                DiagnosticReport diagnosticReport = this.transformResultToDiagnosticReport(analysis.getId());
-                this.addToOperations(fhirOperations, tempIdGenerator, diagnosticReport);
+    public Bundle transformPersistResultChanges(List<FhirOutboxEntry> entries) throws FhirLocalPersistingException {
+        LogEvent.logTrace(this.getClass().getSimpleName(), "transformPersistResultChanges",
+                "transformPersistResultChanges called");
+
+        Set<String> resultIds = new TreeSet<>();
+        Set<String> cancelledObservationIds = new TreeSet<>();
+        Set<String> analysisIds = new TreeSet<>();
+        Set<String> taskSampleIds = new TreeSet<>();
+        for (FhirOutboxEntry entry : entries) {
+            resultIds.addAll(entry.getResultIdSet());
+            cancelledObservationIds.addAll(entry.getCancelledObservationIdSet());
+            analysisIds.addAll(entry.getAnalysisIdSet());
+            if (entry.isUpdateTask()) {
+                taskSampleIds.add(entry.getSampleId());
             }
         }
 
-        Bundle responseBundle = fhirPersistanceService.createUpdateFhirResourcesInFhirStore(fhirOperations);
-    }
-
-    @Async
-    @Override
-    @Transactional(readOnly = true)
-    public void transformPersistResultValidationFhirObjects(List<Result> deletableList,
-            List<Analysis> analysisUpdateList, ArrayList<Result> resultUpdateList, List<AnalysisItem> resultItemList,
-            ArrayList<Sample> sampleUpdateList, ArrayList<Note> noteUpdateList) throws FhirLocalPersistingException {
-        LogEvent.logTrace(this.getClass().getSimpleName(), "transformPersistResultValidationFhirObjects",
-                "transformPersistResultValidationFhirObjects called");
-
         CountingTempIdGenerator tempIdGenerator = new CountingTempIdGenerator();
         FhirOperations fhirOperations = new FhirOperations();
 
-        for (Result result : deletableList) {
-            Observation observation = transformResultToObservation(result.getId());
-            observation.setStatus(ObservationStatus.CANCELLED);
-            this.addToOperations(fhirOperations, tempIdGenerator, observation);
+        for (String observationId : cancelledObservationIds) {
+            Optional<Observation> observation = fhirPersistanceService.getObservationByResultUuid(observationId);
+            if (observation.isPresent()) {
+                observation.get().setStatus(ObservationStatus.CANCELLED);
+                this.addToOperations(fhirOperations, tempIdGenerator, observation.get());
+            }
         }
 
-        for (Result result : resultUpdateList) {
-            Observation observation = this.transformResultToObservation(result.getId());
-            this.addToOperations(fhirOperations, tempIdGenerator, observation);
+        for (String resultId : resultIds) {
+            Result result = resultService.get(resultId);
+            // deleted since it was queued, its cancellation is queued separately
+            if (result != null) {
+                this.addToOperations(fhirOperations, tempIdGenerator, transformResultToObservation(result));
+            }
         }
 
-        for (Analysis analysis : analysisUpdateList) {
-            ServiceRequest serviceRequest = this.transformToServiceRequest(analysis.getId());
+        for (String analysisId : analysisIds) {
+            Analysis analysis = analysisService.get(analysisId);
+            ServiceRequest serviceRequest = this.transformToServiceRequest(analysisId);
             this.addToOperations(fhirOperations, tempIdGenerator, serviceRequest);
             if (statusService.matches(analysis.getStatusId(), AnalysisStatus.Finalized)) {
-                DiagnosticReport diagnosticReport = this.transformResultToDiagnosticReport(analysis.getId());
+                DiagnosticReport diagnosticReport = this.transformResultToDiagnosticReport(analysis);
                 this.addToOperations(fhirOperations, tempIdGenerator, diagnosticReport);
             }
         }
 
         Map<String, Task> referingTaskMap = new HashMap<>();
         Map<String, ServiceRequest> referingServiceRequestMap = new HashMap<>();
-        for (Sample sample : sampleUpdateList) {
+        for (String sampleId : taskSampleIds) {
+            Sample sample = sampleService.get(sampleId);
             Task task = this.transformToTask(sample.getId());
             Optional<Task> referringTask = getReferringTaskForSample(sample);
             if (referringTask.isPresent()) {
@@ -1192,7 +1177,7 @@ public class FhirTransformServiceImpl implements FhirTransformService {
             this.addToOperations(fhirOperations, tempIdGenerator, task);
         }
 
-        Bundle responseBundle = fhirPersistanceService.createUpdateFhirResourcesInFhirStore(fhirOperations);
+        return fhirPersistanceService.createUpdateFhirResourcesInFhirStore(fhirOperations);
     }
 
     private void addToOperations(FhirOperations fhirOperations, TempIdGenerator tempIdGenerator, Resource resource) {
@@ -0,0 +1,211 @@
+package org.openelisglobal.dataexchange.fhir.valueholder;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.commons.validator.GenericValidator;
+import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.common.valueholder.OutboxEntry;
+
+/**
+ * Result changes of a sample waiting to be, or already, mirrored into the local
+ * FHIR store. Only the ids of what changed are kept; the FHIR resources are
+ * built from the current rows when the entry is sent, so changes queued for a
+ * sample before it is sent are merged into one entry.
+ */
+@Entity
+@Table(name = "fhir_outbox")
+public class FhirOutboxEntry extends BaseObject<Long> implements OutboxEntry<FhirOutboxEntry.Status> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String ID_SEPARATOR = ",";
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "sample_id", nullable = false)
+    private String sampleId;
+
+    @Column(name = "result_ids", columnDefinition = "TEXT")
+    private String resultIds;
+
+    @Column(name = "cancelled_observation_ids", columnDefinition = "TEXT")
+    private String cancelledObservationIds;
+
+    @Column(name = "analysis_ids", columnDefinition = "TEXT")
+    private String analysisIds;
+
+    @Column(name = "update_task", nullable = false)
+    private boolean updateTask;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "created_time", nullable = false)
+    private Timestamp createdTime;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private Timestamp nextAttemptTime;
+
+    @Column(name = "claimed_at")
+    private Timestamp claimedAt;
+
+    @Column(name = "sent_time")
+    private Timestamp sentTime;
+
+    @Column(name = "error_detail", columnDefinition = "TEXT")
+    private String errorDetail;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSampleId() {
+        return sampleId;
+    }
+
+    public void setSampleId(String sampleId) {
+        this.sampleId = sampleId;
+    }
+
+    public Set<String> getResultIdSet() {
+        return toSet(resultIds);
+    }
+
+    public void addResultIds(Collection<String> ids) {
+        resultIds = merge(resultIds, ids);
+    }
+
+    /** The ids of the Observations of deleted results, to be sent as cancelled */
+    public Set<String> getCancelledObservationIdSet() {
+        return toSet(cancelledObservationIds);
+    }
+
+    public void addCancelledObservationIds(Collection<String> ids) {
+        cancelledObservationIds = merge(cancelledObservationIds, ids);
+    }
+
+    public Set<String> getAnalysisIdSet() {
+        return toSet(analysisIds);
+    }
+
+    public void addAnalysisIds(Collection<String> ids) {
+        analysisIds = merge(analysisIds, ids);
+    }
+
+    /** @return true if the Task of the sample has to be updated */
+    public boolean isUpdateTask() {
+        return updateTask;
+    }
+
+    public void setUpdateTask(boolean updateTask) {
+        this.updateTask = updateTask;
+    }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Timestamp getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(Timestamp createdTime) {
+        this.createdTime = createdTime;
+    }
+
+    public Timestamp getNextAttemptTime() {
+        return nextAttemptTime;
+    }
+
+    public void setNextAttemptTime(Timestamp nextAttemptTime) {
+        this.nextAttemptTime = nextAttemptTime;
+    }
+
+    @Override
+    public Timestamp getClaimedAt() {
+        return claimedAt;
+    }
+
+    @Override
+    public void setClaimedAt(Timestamp claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Timestamp getSentTime() {
+        return sentTime;
+    }
+
+    public void setSentTime(Timestamp sentTime) {
+        this.sentTime = sentTime;
+    }
+
+    public String getErrorDetail() {
+        return errorDetail;
+    }
+
+    public void setErrorDetail(String errorDetail) {
+        this.errorDetail = errorDetail;
+    }
+
+    private static Set<String> toSet(String ids) {
+        Set<String> idSet = new TreeSet<>();
+        if (!GenericValidator.isBlankOrNull(ids)) {
+            idSet.addAll(Arrays.asList(ids.split(ID_SEPARATOR)));
+        }
+        return idSet;
+    }
+
+    private static String merge(String ids, Collection<String> newIds) {
+        Set<String> idSet = toSet(ids);
+        for (String id : newIds) {
+            if (!GenericValidator.isBlankOrNull(id)) {
+                idSet.add(id);
+            }
+        }
+        return idSet.isEmpty() ? null : String.join(ID_SEPARATOR, idSet);
+    }
+}
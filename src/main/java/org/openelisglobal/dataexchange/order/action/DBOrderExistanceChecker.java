@@ -13,7 +13,11 @@
  */
 package org.openelisglobal.dataexchange.order.action;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.services.IStatusService;
@@ -37,7 +41,37 @@ public class DBOrderExistanceChecker implements IOrderExistanceChecker {
             return CheckResult.NOT_FOUND;
         }
 
-        List<ElectronicOrder> eOrders = eOrderService.getElectronicOrdersByExternalId(orderId);
+        return checkOrders(orderId, eOrderService.getElectronicOrdersByExternalId(orderId));
+    }
+
+    /**
+     * Checks several orders with a single query.
+     *
+     * @return the result for each non blank order id
+     */
+    public Map<String, CheckResult> checkAll(Collection<String> orderIds) {
+        Map<String, List<ElectronicOrder>> eOrdersByExternalId = new HashMap<>();
+        for (String orderId : orderIds) {
+            if (!GenericValidator.isBlankOrNull(orderId)) {
+                eOrdersByExternalId.put(orderId, new ArrayList<>());
+            }
+        }
+        if (eOrdersByExternalId.isEmpty()) {
+            return new HashMap<>();
+        }
+        // ordered by id so the last order for each external id is the latest
+        for (ElectronicOrder eOrder : eOrderService.getElectronicOrdersByExternalIds(eOrdersByExternalId.keySet())) {
+            eOrdersByExternalId.get(eOrder.getExternalId()).add(eOrder);
+        }
+
+        Map<String, CheckResult> results = new HashMap<>();
+        for (Map.Entry<String, List<ElectronicOrder>> entry : eOrdersByExternalId.entrySet()) {
+            results.put(entry.getKey(), checkOrders(entry.getKey(), entry.getValue()));
+        }
+        return results;
+    }
+
+    private CheckResult checkOrders(String orderId, List<ElectronicOrder> eOrders) {
         if (eOrders == null || eOrders.isEmpty()) {
             LogEvent.logDebug(this.getClass().getSimpleName(), "check", "order not found: " + orderId);
             return CheckResult.NOT_FOUND;
@@ -0,0 +1,153 @@
+package org.openelisglobal.dataexchange.order.action;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.validator.GenericValidator;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Task;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.dataexchange.fhir.FhirUtil;
+import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
+import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrderType;
+import org.openelisglobal.patient.valueholder.Patient;
+import org.openelisglobal.patientidentity.service.PatientIdentityService;
+import org.openelisglobal.patientidentity.valueholder.PatientIdentity;
+import org.openelisglobal.person.valueholder.Person;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extracts the searchable fields of an electronic order from its FHIR Task or
+ * HL7 payload and its patient, so order searches can use indexed columns
+ * instead of scanning the raw payload.
+ *
+ * <p>
+ * The search text is the lower case values separated and surrounded by single
+ * spaces, so "like '% value %'" matches a whole value and "like '%value%'" any
+ * part of one. The liquibase backfill of existing orders builds the same
+ * format.
+ */
+@Component
+public class ElectronicOrderSearchFieldExtractor {
+
+    private static final String ACCESSION_IDENTIFIER_SYSTEM_SUFFIX = "/order_accessionNumber";
+    private static final Pattern REFERRING_ACCESSION_PATTERN = Pattern.compile("referring accession number (\\S+)");
+    private static final int ACCESSION_NUMBER_LENGTH = 60;
+    private static final int REQUESTER_LENGTH = 255;
+
+    @Autowired
+    private FhirUtil fhirUtil;
+    @Autowired
+    private PatientIdentityService patientIdentityService;
+
+    public void populateSearchFields(ElectronicOrder eOrder) {
+        eOrder.setAccessionNumber(null);
+        eOrder.setRequester(null);
+        try {
+            if (eOrder.getType() == ElectronicOrderType.FHIR) {
+                populateFromTask(eOrder);
+            } else if (eOrder.getType() == ElectronicOrderType.HL7_V2) {
+                populateFromHL7Message(eOrder);
+            }
+        } catch (RuntimeException e) {
+            LogEvent.logWarn(this.getClass().getSimpleName(), "populateSearchFields",
+                    "could not read search fields from the payload of order " + eOrder.getExternalId() + ": "
+                            + e.getMessage());
+        }
+
+        List<String> values = new ArrayList<>(
+                Arrays.asList(eOrder.getExternalId(), eOrder.getAccessionNumber(), eOrder.getRequester()));
+        Patient patient = eOrder.getPatient();
+        Person person = patient == null ? null : patient.getPerson();
+        eOrder.setPatientFirstName(person == null ? null : person.getFirstName());
+        eOrder.setPatientLastName(person == null ? null : person.getLastName());
+        if (patient != null) {
+            values.add(eOrder.getPatientFirstName());
+            values.add(eOrder.getPatientLastName());
+            values.add(patient.getNationalId());
+            values.add(patient.getExternalId());
+            if (!GenericValidator.isBlankOrNull(patient.getId())) {
+                for (PatientIdentity identity : patientIdentityService.getPatientIdentitiesForPatient(patient.getId())) {
+                    values.add(identity.getIdentityData());
+                }
+            }
+        }
+        eOrder.setSearchText(buildSearchText(values));
+    }
+
+    private void populateFromTask(ElectronicOrder eOrder) {
+        Task task = fhirUtil.getFhirParser().parseResource(Task.class, eOrder.getData());
+        String accessionNumber = null;
+        for (Identifier identifier : task.getIdentifier()) {
+            if (identifier.hasSystem() && identifier.getSystem().endsWith(ACCESSION_IDENTIFIER_SYSTEM_SUFFIX)) {
+                accessionNumber = identifier.getValue();
+                break;
+            }
+        }
+        if (accessionNumber == null && task.hasDescription()) {
+            // referral tasks only carry the referring accession number in the description
+            Matcher matcher = REFERRING_ACCESSION_PATTERN.matcher(task.getDescription());
+            if (matcher.find()) {
+                accessionNumber = matcher.group(1);
+            }
+        }
+        eOrder.setAccessionNumber(truncate(accessionNumber, ACCESSION_NUMBER_LENGTH));
+        if (task.hasRequester()) {
+            String requester = task.getRequester().hasDisplay() ? task.getRequester().getDisplay()
+                    : task.getRequester().getReference();
+            eOrder.setRequester(truncate(requester, REQUESTER_LENGTH));
+        }
+    }
+
+    private void populateFromHL7Message(ElectronicOrder eOrder) {
+        // ORC-12, or OBR-16 if absent, is the ordering provider as id^family name^given name
+        String orderingProvider = null;
+        for (String segment : eOrder.getData().split("[\r\n]+")) {
+            String[] fields = segment.split("\\|", -1);
+            if (orderingProvider == null && "ORC".equals(fields[0]) && fields.length > 12) {
+                orderingProvider = getProviderName(fields[12]);
+            } else if (orderingProvider == null && "OBR".equals(fields[0]) && fields.length > 16) {
+                orderingProvider = getProviderName(fields[16]);
+            }
+        }
+        eOrder.setRequester(truncate(orderingProvider, REQUESTER_LENGTH));
+    }
+
+    private String getProviderName(String xcn) {
+        String[] components = xcn.split("\\^", -1);
+        StringBuilder name = new StringBuilder();
+        for (int i = 1; i < Math.min(components.length, 3); i++) {
+            if (!GenericValidator.isBlankOrNull(components[i])) {
+                name.append(name.length() == 0 ? "" : " ").append(components[i].trim());
+            }
+        }
+        if (name.length() == 0 && !GenericValidator.isBlankOrNull(components[0])) {
+            name.append(components[0].trim());
+        }
+        return name.length() == 0 ? null : name.toString();
+    }
+
+    static String buildSearchText(Collection<String> values) {
+        StringBuilder searchText = new StringBuilder(" ");
+        for (String value : values) {
+            if (!GenericValidator.isBlankOrNull(value)) {
+                searchText.append(normalize(value)).append(' ');
+            }
+        }
+        return searchText.toString();
+    }
+
+    /** @return the value as it is matched against the search text */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+}
@@ -24,6 +24,7 @@ import ca.uhn.hl7v2.model.v251.segment.ORC;
 import ca.uhn.hl7v2.model.v251.segment.PID;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.services.ITestIdentityService;
@@ -93,6 +94,7 @@ public class HL7OrderInterpreter implements IOrderInterpreter {
     private List<String> unsupportedTests = new ArrayList<>();
     private List<String> unsupportedPanels = new ArrayList<>();
     private ITestIdentityService testIdentityService;
+    private Map<String, List<Test>> testsByLoincCache;
 
     @Override
     public List<InterpreterResults> interpret(Message orderMessage) {
@@ -119,12 +121,7 @@ public class HL7OrderInterpreter implements IOrderInterpreter {
     private void extractOrderInformation() throws HL7Exception {
         ORC orcSegment = orderMessage.getORDER().getORC();
         // labOrderNumber = orcSegment.getPlacerOrderNumber().encode();
-        labOrderNumber = orderMessage.getORDER().getOBSERVATION_REQUEST().getOBR().getObr4_UniversalServiceIdentifier()
-                .getCe1_Identifier().getValue();
-        // strip encounter type (if exists) from field for just encounter uuid
-        if (labOrderNumber.contains(";")) {
-            labOrderNumber = labOrderNumber.substring(labOrderNumber.indexOf(";") + 1);
-        }
+        labOrderNumber = extractReferringOrderNumber(orderMessage);
 
         if (OrderType.REQUEST.getIdentifier().equals(orcSegment.getOrderControl().getValue())) {
             orderType = OrderType.REQUEST;
@@ -135,10 +132,25 @@ public class HL7OrderInterpreter implements IOrderInterpreter {
         }
     }
 
+    /**
+     * The referring order number of an order message, the same value
+     * getReferringOrderNumber() returns after interpret()
+     */
+    public static String extractReferringOrderNumber(OML_O21 orderMessage) throws HL7Exception {
+        String labOrderNumber = orderMessage.getORDER().getOBSERVATION_REQUEST().getOBR()
+                .getObr4_UniversalServiceIdentifier().getCe1_Identifier().getValue();
+        // strip encounter type (if exists) from field for just encounter uuid
+        if (labOrderNumber != null && labOrderNumber.contains(";")) {
+            labOrderNumber = labOrderNumber.substring(labOrderNumber.indexOf(";") + 1);
+        }
+        return labOrderNumber;
+    }
+
     private Test createTestFromHl7() throws HL7Exception {
         ORC orcSegment = orderMessage.getORDER().getORC();
         String loincCode = orcSegment.getOrderType().getIdentifier().encode();
-        List<Test> tests = testService.getTestsByLoincCode(loincCode);
+        List<Test> tests = testsByLoincCache == null ? testService.getTestsByLoincCode(loincCode)
+                : testsByLoincCache.computeIfAbsent(loincCode, testService::getTestsByLoincCode);
         if (tests.size() == 0) {
             return null;
         }
@@ -359,6 +371,14 @@ public class HL7OrderInterpreter implements IOrderInterpreter {
         this.testIdentityService = testIdentityService;
     }
 
+    /**
+     * Shares test lookups between the interpreters of a batch of messages, the
+     * map must be safe for concurrent use if the batch is processed in parallel
+     */
+    public void setTestsByLoincCache(Map<String, List<Test>> testsByLoincCache) {
+        this.testsByLoincCache = testsByLoincCache;
+    }
+
     @Override
     public Test getTest() {
         return test;
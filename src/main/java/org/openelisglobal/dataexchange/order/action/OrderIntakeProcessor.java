@@ -0,0 +1,181 @@
+package org.openelisglobal.dataexchange.order.action;
+
+import ca.uhn.hl7v2.DefaultHapiContext;
+import ca.uhn.hl7v2.HL7Exception;
+import ca.uhn.hl7v2.HapiContext;
+import ca.uhn.hl7v2.model.v251.message.OML_O21;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.dataexchange.order.action.IOrderExistanceChecker.CheckResult;
+import org.openelisglobal.dataexchange.order.action.OrderWorker.OrderResult;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage;
+import org.openelisglobal.dataexchange.service.order.OrderIntakeService;
+import org.openelisglobal.spring.util.SpringContext;
+import org.openelisglobal.test.valueholder.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processes the orders queued by the asynchronous HL7 order intake.
+ *
+ * <p>
+ * Queued messages are claimed in batches and handed to a fixed size worker
+ * pool. The existence checks for all orders in a batch are done with one query
+ * and test lookups are shared between the messages of a batch. Messages for the
+ * same order are processed one after the other, in the order received, so a
+ * cancel is never applied before the request it cancels.
+ */
+@Component
+public class OrderIntakeProcessor {
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+    @Autowired
+    private DBOrderExistanceChecker dbOrderExistanceChecker;
+
+    @Value("${org.openelisglobal.hl7.order.intake.threads:4}")
+    private int threads;
+
+    @Value("${org.openelisglobal.hl7.order.intake.batchSize:50}")
+    private int batchSize;
+
+    @Value("${org.openelisglobal.hl7.order.intake.maxAttempts:3}")
+    private int maxAttempts;
+
+    private final OrderResponseBuilder responseBuilder = new OrderResponseBuilder();
+    private HapiContext hapiContext;
+    private ExecutorService executor;
+
+    @PostConstruct
+    private void init() {
+        hapiContext = new DefaultHapiContext();
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @PreDestroy
+    private void shutdown() throws IOException {
+        executor.shutdown();
+        hapiContext.close();
+    }
+
+    @Scheduled(initialDelay = 30 * 1000, fixedDelayString = "${org.openelisglobal.hl7.order.intake.pollInterval:2000}")
+    public void processQueuedOrders() {
+        if (!orderIntakeService.isAsyncIntakeEnabled()) {
+            return;
+        }
+        requeueExpiredClaims();
+        List<OrderIntakeMessage> batch;
+        do {
+            batch = orderIntakeService.claimQueued(batchSize);
+            if (!batch.isEmpty()) {
+                processBatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Orders claimed by a node that went away during processing are picked up
+     * again once their claim times out, by whichever node polls first
+     */
+    private void requeueExpiredClaims() {
+        int requeued = orderIntakeService.requeueExpiredClaims();
+        if (requeued > 0) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "requeueExpiredClaims",
+                    "requeued " + requeued + " orders whose processing claim expired");
+        }
+    }
+
+    private void processBatch(List<OrderIntakeMessage> batch) {
+        Map<String, List<OrderIntakeMessage>> messagesByOrder = new LinkedHashMap<>();
+        List<List<OrderIntakeMessage>> groups = new ArrayList<>();
+        batch.sort((o1, o2) -> o1.getId().compareTo(o2.getId()));
+        for (OrderIntakeMessage intakeMessage : batch) {
+            if (intakeMessage.getExternalOrderId() == null) {
+                List<OrderIntakeMessage> group = new ArrayList<>();
+                group.add(intakeMessage);
+                groups.add(group);
+            } else {
+                messagesByOrder.computeIfAbsent(intakeMessage.getExternalOrderId(), k -> new ArrayList<>())
+                        .add(intakeMessage);
+            }
+        }
+        groups.addAll(messagesByOrder.values());
+
+        IOrderExistanceChecker existanceChecker;
+        try {
+            Map<String, CheckResult> checkResults = dbOrderExistanceChecker.checkAll(messagesByOrder.keySet());
+            existanceChecker = new PreloadedOrderExistanceChecker(checkResults, dbOrderExistanceChecker);
+        } catch (RuntimeException e) {
+            LogEvent.logError("could not preload order existence, checking orders individually", e);
+            existanceChecker = dbOrderExistanceChecker;
+        }
+        Map<String, List<Test>> testsByLoinc = new ConcurrentHashMap<>();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (List<OrderIntakeMessage> group : groups) {
+            IOrderExistanceChecker checker = existanceChecker;
+            tasks.add(() -> {
+                for (OrderIntakeMessage intakeMessage : group) {
+                    processMessage(intakeMessage, checker, testsByLoinc);
+                }
+                return null;
+            });
+        }
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processMessage(OrderIntakeMessage intakeMessage, IOrderExistanceChecker existanceChecker,
+            Map<String, List<Test>> testsByLoinc) {
+        OML_O21 omlMessage = null;
+        try {
+            omlMessage = (OML_O21) hapiContext.getPipeParser().parse(intakeMessage.getMessage());
+
+            HL7OrderInterpreter interpreter = SpringContext.getBean(HL7OrderInterpreter.class);
+            interpreter.setTestsByLoincCache(testsByLoinc);
+
+            OrderWorker worker = new OrderWorker(omlMessage);
+            worker.setInterpreter(interpreter);
+            worker.setExistanceChecker(existanceChecker);
+            worker.setPersister(SpringContext.getBean(IOrderPersister.class));
+
+            OrderResult orderResult = worker.handleOrderRequest();
+            String applicationAck = responseBuilder.buildResponse(omlMessage, orderResult, worker).encode();
+            orderIntakeService.markProcessed(intakeMessage, orderResult.name(), applicationAck);
+        } catch (HL7Exception | IOException | RuntimeException e) {
+            LogEvent.logError("failed to process queued order " + intakeMessage.getMessageControlId(), e);
+            handleFailure(intakeMessage, omlMessage, e);
+        }
+    }
+
+    private void handleFailure(OrderIntakeMessage intakeMessage, OML_O21 omlMessage, Exception e) {
+        String errorDetail = e.getClass().getSimpleName() + ": " + e.getMessage();
+        try {
+            if (intakeMessage.getAttempts() < maxAttempts && !(e instanceof HL7Exception)) {
+                orderIntakeService.requeue(intakeMessage, errorDetail);
+            } else {
+                String applicationAck = omlMessage == null ? null
+                        : responseBuilder.buildErrorResponse(omlMessage, "Unexpected internal error").encode();
+                orderIntakeService.markFailed(intakeMessage, errorDetail, applicationAck);
+            }
+        } catch (HL7Exception | IOException | RuntimeException e2) {
+            // left in PROCESSING, requeued once the claim times out
+            LogEvent.logError("could not record failure of queued order " + intakeMessage.getMessageControlId(), e2);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * The contents of this file are subject to the Mozilla Public License Version 1.1 (the "License");
+ * you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.mozilla.org/MPL/
+ *
+ * <p>Software distributed under the License is distributed on an "AS IS" basis, WITHOUT WARRANTY OF
+ * ANY KIND, either express or implied. See the License for the specific language governing rights
+ * and limitations under the License.
+ *
+ * <p>The Original Code is OpenELIS code.
+ *
+ * <p>Copyright (C) ITECH, University of Washington, Seattle WA. All Rights Reserved.
+ */
+package org.openelisglobal.dataexchange.order.action;
+
+import ca.uhn.hl7v2.AcknowledgmentCode;
+import ca.uhn.hl7v2.HL7Exception;
+import ca.uhn.hl7v2.model.DataTypeException;
+import ca.uhn.hl7v2.model.v251.datatype.CWE;
+import ca.uhn.hl7v2.model.v251.message.ACK;
+import ca.uhn.hl7v2.model.v251.message.OML_O21;
+import ca.uhn.hl7v2.model.v251.message.ORL_O22;
+import ca.uhn.hl7v2.model.v251.segment.ERR;
+import java.io.IOException;
+import java.util.List;
+import org.openelisglobal.dataexchange.order.action.IOrderInterpreter.InterpreterResults;
+import org.openelisglobal.dataexchange.order.action.OrderWorker.OrderResult;
+
+/**
+ * Builds the ORL^O22 responses to an OML^O21 order message, both the
+ * application acknowledgement describing the outcome of an OrderWorker and the
+ * accept acknowledgement returned by the asynchronous intake.
+ */
+public class OrderResponseBuilder {
+
+    /** Application acknowledgement for the result of processing the order */
+    public ORL_O22 buildResponse(OML_O21 omlMessage, OrderResult orderResult, OrderWorker worker)
+            throws HL7Exception, IOException {
+        ORL_O22 response = null;
+        if (orderResult == OrderResult.OK) {
+
+            response = ackToOrlO22((ACK) omlMessage.generateACK());
+
+        } else if (orderResult == OrderResult.NON_CANCELABLE_ORDER || orderResult == OrderResult.DUPLICATE_ORDER) {
+            response = ackToOrlO22((ACK) omlMessage.generateACK(AcknowledgmentCode.CR, null));
+            ERR err = createNewERRSegment("207", "Application internal error",
+                    orderResult.toString() + " : " + worker.getExistanceCheckResult().toString(), response);
+            response.insertERR(err, 0);
+        } else if (orderResult == OrderResult.MESSAGE_ERROR) {
+            response = ackToOrlO22((ACK) omlMessage.generateACK(AcknowledgmentCode.CR, null));
+
+            List<InterpreterResults> interpreterResults = worker.getMessageErrors();
+            int errorCnt = response.getERRReps();
+            ERR err = null;
+            for (InterpreterResults result : interpreterResults) {
+                switch (result) {
+                case MISSING_ORDER_NUMBER:
+                case MISSING_PATIENT_GUID:
+                case MISSING_PATIENT_DOB:
+                case MISSING_PATIENT_GENDER:
+                case MISSING_PATIENT_IDENTIFIER:
+                case MISSING_TESTS:
+                    err = createNewERRSegment("101", "Required field missing", result.toString(), response);
+                    response.insertERR(err, errorCnt++);
+                    break;
+                case UNSUPPORTED_TESTS:
+                    err = createNewERRSegment("207", "Application internal error",
+                            appendCodes(result, worker.getUnsupportedTests()), response);
+                    response.insertERR(err, errorCnt++);
+                    break;
+                case UNSUPPORTED_PANELS:
+                    err = createNewERRSegment("207", "Application internal error",
+                            appendCodes(result, worker.getUnsupportedPanels()), response);
+                    response.insertERR(err, errorCnt++);
+                    break;
+                case UNKNOWN_REQUEST_TYPE:
+                case OTHER_THAN_PANEL_OR_TEST_REQUESTED:
+                    err = createNewERRSegment("103", "Table value not found", result.toString(), response);
+                    response.insertERR(err, errorCnt++);
+                    break;
+                case INTERPRET_ERROR:
+                    err = createNewERRSegment("207", "Application internal error", "Unexpected internal error",
+                            response);
+                    response.insertERR(err, errorCnt++);
+                }
+            }
+        } else {
+            response = ackToOrlO22(
+                    (ACK) omlMessage.generateACK(AcknowledgmentCode.AE, new HL7Exception("Unknown result thrown")));
+        }
+
+        addOrderInfo(response, omlMessage);
+        return response;
+    }
+
+    /**
+     * Application acknowledgement for an order that could not be processed
+     * because of an internal error
+     */
+    public ORL_O22 buildErrorResponse(OML_O21 omlMessage, String detail) throws HL7Exception, IOException {
+        ORL_O22 response = ackToOrlO22((ACK) omlMessage.generateACK(AcknowledgmentCode.AE, null));
+        response.insertERR(createNewERRSegment("207", "Application internal error", detail, response),
+                response.getERRReps());
+        addOrderInfo(response, omlMessage);
+        return response;
+    }
+
+    /** Accept acknowledgement, the order was stored and will be processed */
+    public ORL_O22 buildAcceptResponse(OML_O21 omlMessage) throws HL7Exception, IOException {
+        ORL_O22 response = ackToOrlO22((ACK) omlMessage.generateACK(AcknowledgmentCode.CA, null));
+        addOrderInfo(response, omlMessage);
+        return response;
+    }
+
+    /** Accept acknowledgement, the order was not stored and will not be processed */
+    public ORL_O22 buildRejectResponse(OML_O21 omlMessage, String HL70357Identifier, String HL70357Msg,
+            String detail) throws HL7Exception, IOException {
+        ORL_O22 response = ackToOrlO22((ACK) omlMessage.generateACK(AcknowledgmentCode.CR, null));
+        response.insertERR(createNewERRSegment(HL70357Identifier, HL70357Msg, detail, response),
+                response.getERRReps());
+        return response;
+    }
+
+    private String appendCodes(InterpreterResults result, List<String> codes) {
+        StringBuilder responseBuilder = new StringBuilder(result.toString());
+        if (!codes.isEmpty()) {
+            responseBuilder.append("[");
+            responseBuilder.append(codes.get(0));
+            for (int i = 1; i < codes.size(); i++) {
+                responseBuilder.append(",");
+                responseBuilder.append(codes.get(i));
+            }
+
+            responseBuilder.append("]");
+        }
+        return responseBuilder.toString();
+    }
+
+    // add the order info from the original request into the response message
+    private void addOrderInfo(ORL_O22 response, OML_O21 request) throws HL7Exception {
+        response.getRESPONSE().getPATIENT().getPID().parse((request.getPATIENT().getPID().encode()));
+        response.getRESPONSE().getPATIENT().getORDER().getORC().parse(request.getORDER().getORC().encode());
+        response.getRESPONSE().getPATIENT().getORDER().getOBSERVATION_REQUEST().getOBR()
+                .parse(request.getORDER().getOBSERVATION_REQUEST().getOBR().encode());
+    }
+
+    // convert an ACK message to orl_o22 message
+    private ORL_O22 ackToOrlO22(ACK ack) throws HL7Exception, IOException {
+        ORL_O22 orl = new ORL_O22();
+        orl.initQuickstart("ORL", "O22", "P");
+        orl.getMSA().parse(ack.getMSA().encode());
+        int errorCnt = 0;
+        for (ERR err : ack.getERRAll()) {
+            orl.insertERR(err, errorCnt++);
+        }
+
+        return orl;
+    }
+
+    private ERR createNewERRSegment(String HL70357Identifier, String HL70357Msg, String detail, ORL_O22 response)
+            throws DataTypeException {
+        ERR err = new ERR(response.getParent(), response.getModelClassFactory());
+        CWE cwe = err.getHL7ErrorCode();
+        cwe.getIdentifier().setValue(HL70357Identifier);
+        cwe.getText().setValue(HL70357Msg);
+        cwe.getOriginalText().setValue(detail);
+        err.getSeverity().setValue("E");
+        return err;
+    }
+}
@@ -0,0 +1,28 @@
+package org.openelisglobal.dataexchange.order.action;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers existence checks from results loaded up front for a batch of orders.
+ * Each preloaded result is only used once, a later check for the same order
+ * (e.g. a cancel following the request in the same batch) goes to the
+ * delegate so it sees what the earlier message persisted.
+ */
+public class PreloadedOrderExistanceChecker implements IOrderExistanceChecker {
+
+    private final Map<String, CheckResult> preloadedResults;
+    private final IOrderExistanceChecker delegate;
+
+    public PreloadedOrderExistanceChecker(Map<String, CheckResult> preloadedResults,
+            IOrderExistanceChecker delegate) {
+        this.preloadedResults = new ConcurrentHashMap<>(preloadedResults);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CheckResult check(String orderId) {
+        CheckResult result = orderId == null ? null : preloadedResults.remove(orderId);
+        return result == null ? delegate.check(orderId) : result;
+    }
+}
@@ -0,0 +1,48 @@
+package org.openelisglobal.dataexchange.order.controller;
+
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage.Status;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeQueueMetrics;
+import org.openelisglobal.dataexchange.service.order.OrderIntakeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/rest/hl7/order-intake")
+public class OrderIntakeRestController {
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    /**
+     * The application acknowledgement (ORL^O22) for an order received by the
+     * asynchronous intake.
+     *
+     * @return 200 with the acknowledgement once the order has been processed, 202
+     *         while it is still queued and 404 if the message was never received
+     */
+    @GetMapping(value = "/ack", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getApplicationAck(@RequestParam String messageControlId,
+            @RequestParam(defaultValue = "") String sendingApplication) {
+        OrderIntakeMessage intakeMessage = orderIntakeService.getByMessageKey(sendingApplication, messageControlId);
+        if (intakeMessage == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (intakeMessage.getStatus() == Status.QUEUED || intakeMessage.getStatus() == Status.PROCESSING
+                || intakeMessage.getApplicationAck() == null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(intakeMessage.getStatus().name());
+        }
+        return ResponseEntity.ok(intakeMessage.getApplicationAck());
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<OrderIntakeQueueMetrics> getQueueMetrics() {
+        return ResponseEntity.ok(orderIntakeService.getQueueMetrics());
+    }
+}
@@ -4,8 +4,6 @@ import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,6 +14,7 @@ import org.hl7.fhir.r4.model.ServiceRequest;
 import org.hl7.fhir.r4.model.Task;
 import org.openelisglobal.common.controller.BaseController;
 import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.common.paging.PagingProperties;
 import org.openelisglobal.common.services.DisplayListService;
 import org.openelisglobal.common.services.DisplayListService.ListType;
 import org.openelisglobal.common.util.DateUtil;
@@ -23,6 +22,7 @@ import org.openelisglobal.dataexchange.fhir.FhirConfig;
 import org.openelisglobal.dataexchange.fhir.FhirUtil;
 import org.openelisglobal.dataexchange.order.ElectronicOrderSortOrderCategoryConvertor;
 import org.openelisglobal.dataexchange.order.form.ElectronicOrderPaging;
+import org.openelisglobal.dataexchange.order.form.ElectronicOrderSearchPage;
 import org.openelisglobal.dataexchange.order.form.ElectronicOrderViewForm;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrderDisplayItem;
@@ -67,6 +67,8 @@ public class RestElectronicOrdersController extends BaseController {
     private FhirUtil fhirUtil;
     @Autowired
     private FhirConfig fhirConfig;
+    @Autowired
+    private PagingProperties pagingProperties;
 
     @InitBinder
     public void initBinder(final WebDataBinder webdataBinder) {
@@ -77,32 +79,37 @@ public class RestElectronicOrdersController extends BaseController {
 
     @RequestMapping(value = "/rest/ElectronicOrders", method = RequestMethod.GET)
     public ElectronicOrderViewForm showElectronicOrders(HttpServletRequest request,
-            @ModelAttribute("form") @Valid ElectronicOrderViewForm form, BindingResult result)
-            throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+            @ModelAttribute("form") @Valid ElectronicOrderViewForm form, BindingResult result) {
         form.setReferralFacilitySelectionList(
                 DisplayListService.getInstance().getList(ListType.REFERRAL_ORGANIZATIONS));
         form.setTestSelectionList(DisplayListService.getInstance().getList(ListType.ORDERABLE_TESTS));
         form.setStatusSelectionList(DisplayListService.getInstance().getList(ListType.ELECTRONIC_ORDER_STATUSES));
 
-        List<ElectronicOrder> electronicOrders;
-        List<ElectronicOrderDisplayItem> eOrderDisplayItems = new ArrayList<>();
         ElectronicOrderPaging paging = new ElectronicOrderPaging();
         String requestedPage = request.getParameter("page");
         if (GenericValidator.isBlankOrNull(requestedPage)) {
             if (form.getSearchType() != null) {
-                electronicOrders = electronicOrderService.searchForElectronicOrders(form);
-                eOrderDisplayItems = convertToDisplayItem(electronicOrders, form.getUseAllInfo());
-                paging.setDatabaseResults(request, form, eOrderDisplayItems);
+                paging.setSearchCriteria(request, form);
+                showPage(paging, form, form, 1);
             }
         } else {
-            int requestedPageNumber = Integer.parseInt(requestedPage);
-            // Sets the requested page in the response.
-            paging.page(request, form, requestedPageNumber);
+            ElectronicOrderViewForm searchCriteria = paging.getSearchCriteria(request);
+            if (searchCriteria != null) {
+                showPage(paging, form, searchCriteria, Integer.parseInt(requestedPage));
+            }
         }
         form.setSearchFinished(true);
         return form;
     }
 
+    private void showPage(ElectronicOrderPaging paging, ElectronicOrderViewForm form,
+            ElectronicOrderViewForm searchCriteria, int requestedPage) {
+        ElectronicOrderSearchPage page = electronicOrderService.searchForElectronicOrders(searchCriteria,
+                requestedPage, pagingProperties.getResultsPageSize());
+        paging.setPage(form, convertToDisplayItem(page.getOrders(), searchCriteria.getUseAllInfo()),
+                page.getCurrentPage(), page.getTotalPages());
+    }
+
     private List<ElectronicOrderDisplayItem> convertToDisplayItem(List<ElectronicOrder> electronicOrders,
             boolean useAllInfo) {
         return electronicOrders.stream().map(e -> convertToDisplayItem(e, useAllInfo)).collect(Collectors.toList());
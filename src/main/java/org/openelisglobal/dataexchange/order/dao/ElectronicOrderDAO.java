@@ -15,6 +15,7 @@ package org.openelisglobal.dataexchange.order.dao;
 
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import org.openelisglobal.common.dao.BaseDAO;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
@@ -25,6 +26,8 @@ public interface ElectronicOrderDAO extends BaseDAO<ElectronicOrder, String> {
 
     public List<ElectronicOrder> getElectronicOrdersByExternalId(String id) throws LIMSRuntimeException;
 
+    public List<ElectronicOrder> getElectronicOrdersByExternalIds(Collection<String> ids) throws LIMSRuntimeException;
+
     // public List<ElectronicOrder> getElectronicOrdersByPatientId(String id) throws
     // LIMSRuntimeException;
 
@@ -48,12 +51,20 @@ public interface ElectronicOrderDAO extends BaseDAO<ElectronicOrder, String> {
     List<ElectronicOrder> getAllElectronicOrdersByTimestampAndStatus(Timestamp startTimestamp, Timestamp endTimestamp,
             String statusId, SortOrder sortOrder);
 
+    List<ElectronicOrder> getElectronicOrdersByTimestampAndStatus(Timestamp startTimestamp, Timestamp endTimestamp,
+            String statusId, SortOrder sortOrder, int firstResult, int maxResults);
+
     int getCountOfElectronicOrdersByTimestampAndStatus(Timestamp startTimestamp, Timestamp endTimestamp,
             String statusId);
 
     public List<ElectronicOrder> getAllElectronicOrdersMatchingAnyValue(List<String> identifierValues,
             String patientValue, SortOrder order);
 
+    List<ElectronicOrder> getElectronicOrdersMatchingAnyValue(List<String> identifierValues, String patientValue,
+            SortOrder order, int firstResult, int maxResults);
+
+    int getCountOfElectronicOrdersMatchingAnyValue(List<String> identifierValues, String patientValue);
+
     int getCountOfAllElectronicOrdersByDateAndStatus(Date startDate, Date endDate, String statusId);
 
     int getCountOfElectronicOrdersByStatusList(List<Integer> statusIds);
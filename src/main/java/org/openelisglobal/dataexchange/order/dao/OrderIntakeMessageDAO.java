@@ -0,0 +1,30 @@
+package org.openelisglobal.dataexchange.order.dao;
+
+import java.sql.Timestamp;
+import org.openelisglobal.common.dao.OutboxDAO;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage.Status;
+
+public interface OrderIntakeMessageDAO extends OutboxDAO<OrderIntakeMessage, Status> {
+
+    OrderIntakeMessage getByMessageKey(String sendingApplication, String messageControlId)
+            throws LIMSRuntimeException;
+
+    /**
+     * Inserts a queued message unless one with the same sending application and
+     * message control id already exists
+     *
+     * @return true if the message was inserted
+     */
+    boolean insertIfAbsent(String sendingApplication, String messageControlId, String externalOrderId,
+            String message) throws LIMSRuntimeException;
+
+    long getProcessedCount(Timestamp since) throws LIMSRuntimeException;
+
+    /**
+     * @return the average time in milliseconds from receipt to processing of the
+     *         messages processed since the given time, null if there are none
+     */
+    Double getAverageProcessingMillis(Timestamp since) throws LIMSRuntimeException;
+}
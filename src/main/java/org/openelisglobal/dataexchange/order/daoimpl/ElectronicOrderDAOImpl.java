@@ -15,6 +15,7 @@ package org.openelisglobal.dataexchange.order.daoimpl;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Vector;
 import org.apache.commons.validator.GenericValidator;
@@ -23,6 +24,7 @@ import org.hibernate.Session;
 import org.hibernate.query.Query;
 import org.openelisglobal.common.daoimpl.BaseDAOImpl;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.dataexchange.order.action.ElectronicOrderSearchFieldExtractor;
 import org.openelisglobal.dataexchange.order.dao.ElectronicOrderDAO;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder.SortOrder;
@@ -33,6 +35,10 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String> implements ElectronicOrderDAO {
 
+    // whole value matches of the search text, see ElectronicOrderSearchFieldExtractor
+    private static final String MATCHING_ANY_VALUE_CONDITION = "lower(eo.externalId) in (:identifierValues)"
+            + " or eo.searchText like concat('% ', :patientValue, ' %')";
+
     public ElectronicOrderDAOImpl() {
         super(ElectronicOrder.class);
     }
@@ -57,6 +63,24 @@ public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String>
         return null;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ElectronicOrder> getElectronicOrdersByExternalIds(Collection<String> ids) throws LIMSRuntimeException {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "from ElectronicOrder eo where eo.externalId in (:externalids) order by id";
+
+        try {
+            Query<ElectronicOrder> query = entityManager.unwrap(Session.class).createQuery(sql, ElectronicOrder.class);
+            query.setParameterList("externalids", ids);
+            return query.list();
+        } catch (HibernateException e) {
+            handleException(e, "getElectronicOrdersByExternalIds");
+        }
+        return null;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ElectronicOrder> getAllElectronicOrdersOrderedBy(SortOrder order) {
@@ -84,46 +108,12 @@ public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String>
 
     @Override
     public List<ElectronicOrder> getAllElectronicOrdersContainingValueOrderedBy(String searchValue, SortOrder order) {
-
-        String sql = "from ElectronicOrder eo join eo.patient patient join patient.person person  where"
-                + " lower(eo.data) like concat('%', lower(:searchValue), '%') or"
-                + " lower(person.firstName) like concat('%', lower(:searchValue), '%') or"
-                + " lower(person.lastName) like concat('%', lower(:searchValue), '%') or patient.id in"
-                + " (SELECT identity.patientId FROM PatientIdentity identity WHERE"
-                + " identity.identityData like concat('%', :searchValue, '%')) or patient.nationalId"
-                + " like concat('%', :searchValue, '%') or lower(concat(person.firstName, ' ',"
-                + " person.lastName)) like concat('%', lower(:searchValue), '%') order by ";
-
-        switch (order.getValue()) {
-        case "statusId":
-            sql = sql + "eo.statusId asc";
-            break;
-        case "lastupdatedasc":
-            sql = sql + "eo.statusId asc, eo.lastupdated asc";
-            break;
-        case "lastupdateddesc":
-            sql = sql + "eo.statusId asc, eo.lastupdated desc";
-            break;
-        case "externalId":
-            sql = sql + "eo.externalId asc";
-            break;
-        default:
-            //
-            break;
-        }
+        String hql = "from ElectronicOrder eo where eo.searchText like concat('%', :searchValue, '%') order by "
+                + getSearchOrderByClause(order);
         try {
-
-            Query query = entityManager.unwrap(Session.class).createQuery(sql);
-            query.setParameter("searchValue", searchValue);
-            // query.setParameter("order", order.getValue());
-            List records = query.list();
-            List<ElectronicOrder> eOrders = new ArrayList<>();
-            for (int i = 0; i < records.size(); i++) {
-                Object[] oArray = (Object[]) records.get(i);
-                ElectronicOrder eo = (ElectronicOrder) oArray[0];
-                eOrders.add(eo);
-            }
-            return eOrders;
+            Query<ElectronicOrder> query = entityManager.unwrap(Session.class).createQuery(hql, ElectronicOrder.class);
+            query.setParameter("searchValue", ElectronicOrderSearchFieldExtractor.normalize(searchValue));
+            return query.list();
         } catch (HibernateException e) {
             handleException(e, "getAllElectronicOrdersContainingValue");
         }
@@ -133,97 +123,61 @@ public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String>
     @Override
     public List<ElectronicOrder> getAllElectronicOrdersMatchingAnyValue(List<String> identifierValues,
             String patientValue, SortOrder order) {
+        return getElectronicOrdersMatchingAnyValue(identifierValues, patientValue, order, 0, 0);
+    }
 
-        String hql = "from ElectronicOrder eo join eo.patient patient join patient.person person where"
-                + " lower(eo.externalId) in (:identifierValues) or lower(person.firstName) ="
-                + " lower(:patientValue) or lower(person.lastName) = lower(:patientValue) or patient.id"
-                + " in (SELECT identity.patientId FROM PatientIdentity identity WHERE"
-                + " lower(identity.identityData) = lower(:patientValue)) or lower(patient.nationalId) ="
-                + " lower(:patientValue) or lower(concat(person.firstName, ' ', person.lastName)) ="
-                + " lower(:patientValue) order by ";
-
-        switch (order.getValue()) {
-        case "statusId":
-            hql = hql + "eo.statusId asc";
-            break;
-        case "lastupdatedasc":
-            hql = hql + "eo.statusId asc, eo.lastupdated asc";
-            break;
-        case "lastupdateddesc":
-            hql = hql + "eo.statusId asc, eo.lastupdated desc";
-            break;
-        case "externalId":
-            hql = hql + "eo.externalId asc";
-            break;
-        default:
-            //
-            break;
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<ElectronicOrder> getElectronicOrdersMatchingAnyValue(List<String> identifierValues,
+            String patientValue, SortOrder order, int firstResult, int maxResults) {
+        String hql = "from ElectronicOrder eo where " + MATCHING_ANY_VALUE_CONDITION + " order by "
+                + getSearchOrderByClause(order);
         try {
-
-            Query<?> query = entityManager.unwrap(Session.class).createQuery(hql);
-            query.setParameterList("identifierValues", identifierValues);
-            query.setParameter("patientValue", patientValue);
-            // query.setParameter("order", order.getValue());
-            List<?> records = query.list();
-            List<ElectronicOrder> eOrders = new ArrayList<>();
-            for (int i = 0; i < records.size(); i++) {
-                Object[] oArray = (Object[]) records.get(i);
-                ElectronicOrder eo = (ElectronicOrder) oArray[0];
-                eOrders.add(eo);
-            }
-            return eOrders;
+            Query<ElectronicOrder> query = entityManager.unwrap(Session.class).createQuery(hql, ElectronicOrder.class);
+            setMatchingAnyValueParameters(query, identifierValues, patientValue);
+            setPage(query, firstResult, maxResults);
+            return query.list();
         } catch (HibernateException e) {
-            handleException(e, "getAllElectronicOrdersMatchingAnyValue");
+            handleException(e, "getElectronicOrdersMatchingAnyValue");
         }
         return null;
     }
 
     @Override
-    public List<ElectronicOrder> getElectronicOrdersContainingValueExludedByOrderedBy(String searchValue,
-            List<Integer> excludedStatuses, SortOrder sortOrder) {
+    @Transactional(readOnly = true)
+    public int getCountOfElectronicOrdersMatchingAnyValue(List<String> identifierValues, String patientValue) {
+        String hql = "select count(*) from ElectronicOrder eo where " + MATCHING_ANY_VALUE_CONDITION;
+        try {
+            Query<Long> query = entityManager.unwrap(Session.class).createQuery(hql, Long.class);
+            setMatchingAnyValueParameters(query, identifierValues, patientValue);
+            return query.uniqueResult().intValue();
+        } catch (HibernateException e) {
+            handleException(e, "getCountOfElectronicOrdersMatchingAnyValue");
+        }
+        return 0;
+    }
 
-        String sql = "from ElectronicOrder eo join eo.patient patient join patient.person person  where"
-                + " lower(eo.data) like concat('%', lower(:searchValue), '%') or"
-                + " lower(person.firstName) like concat('%', lower(:searchValue), '%') or"
-                + " lower(person.lastName) like concat('%', lower(:searchValue), '%') or"
-                + " lower(concat(person.firstName, ' ', person.lastName)) like concat('%',"
-                + " lower(:searchValue), '%')or patient.id in (SELECT identity.patientId FROM"
-                + " PatientIdentity identity WHERE identity.identityData like concat('%', :searchValue,"
-                + " '%')) or patient.nationalId like concat('%', :searchValue, '%') and eo.statusId not"
-                + " in (:excludedStatuses) order by ";
+    private void setMatchingAnyValueParameters(Query<?> query, List<String> identifierValues, String patientValue) {
+        query.setParameterList("identifierValues",
+                identifierValues.stream().map(ElectronicOrderSearchFieldExtractor::normalize).toList());
+        query.setParameter("patientValue", ElectronicOrderSearchFieldExtractor.normalize(patientValue));
+    }
 
-        switch (sortOrder) {
-        case STATUS_ID:
-            sql = sql + "eo.statusId asc";
-            break;
-        case LAST_UPDATED_ASC:
-            sql = sql + "eo.statusId asc, eo.lastupdated asc";
-            break;
-        case LAST_UPDATED_DESC:
-            sql = sql + "eo.statusId asc, eo.lastupdated desc";
-            break;
-        case EXTERNAL_ID:
-            sql = sql + "eo.externalId asc";
-            break;
-        default:
-            //
-            break;
+    @Override
+    public List<ElectronicOrder> getElectronicOrdersContainingValueExludedByOrderedBy(String searchValue,
+            List<Integer> excludedStatuses, SortOrder sortOrder) {
+        String hql = "from ElectronicOrder eo where eo.searchText like concat('%', :searchValue, '%')";
+        if (excludedStatuses != null && !excludedStatuses.isEmpty()) {
+            hql += " and eo.statusId not in (:excludedStatuses)";
         }
+        hql += " order by " + getSearchOrderByClause(sortOrder);
         try {
-
-            Query<?> query = entityManager.unwrap(Session.class).createQuery(sql);
-            query.setParameter("searchValue", searchValue);
-            query.setParameter("excludedStatuses", excludedStatuses);
-            // query.setParameter("order", order.getValue());
-            List<?> records = query.list();
-            List<ElectronicOrder> eOrders = new ArrayList<>();
-            for (int i = 0; i < records.size(); i++) {
-                Object[] oArray = (Object[]) records.get(i);
-                ElectronicOrder eo = (ElectronicOrder) oArray[0];
-                eOrders.add(eo);
+            Query<ElectronicOrder> query = entityManager.unwrap(Session.class).createQuery(hql, ElectronicOrder.class);
+            query.setParameter("searchValue", ElectronicOrderSearchFieldExtractor.normalize(searchValue));
+            if (excludedStatuses != null && !excludedStatuses.isEmpty()) {
+                query.setParameterList("excludedStatuses", excludedStatuses);
             }
-            return eOrders;
+            return query.list();
         } catch (HibernateException e) {
             handleException(e, "getAllElectronicOrdersContainingValue");
         }
@@ -233,79 +187,44 @@ public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String>
     @Override
     public List<ElectronicOrder> getAllElectronicOrdersContainingValuesOrderedBy(String accessionNumber,
             String patientLastName, String patientFirstName, String gender, SortOrder order) {
-        String sql = "from ElectronicOrder eo " + "join eo.patient patient " + "join patient.person person  ";
+        String hql = "from ElectronicOrder eo ";
         boolean whereClauseStarted = false;
         if (!GenericValidator.isBlankOrNull(accessionNumber)) {
-            sql += getWherePrefix(whereClauseStarted)
-                    + " lower(eo.data) like concat('%', lower(:accessionNumber), '%') ";
+            // the accession number is only extracted from FHIR orders, the search text
+            // also holds the external id every order has
+            hql += getWherePrefix(whereClauseStarted) + " eo.searchText like concat('%', :accessionNumber, '%') ";
             whereClauseStarted = true;
         }
-        // if (!GenericValidator.isBlankOrNull(patientId)) {
-        // sql += getWherePrefix(whereClauseStarted) + "and lower(eo.data) like
-        // concat('%',
-        // lower(:patientId), '%') ";
-        // }
         if (!GenericValidator.isBlankOrNull(patientLastName)) {
-            sql += getWherePrefix(whereClauseStarted)
-                    + " lower(person.lastName) like concat('%', lower(:patientLastName), '%') ";
+            hql += getWherePrefix(whereClauseStarted)
+                    + " lower(eo.patientLastName) like concat('%', lower(:patientLastName), '%') ";
             whereClauseStarted = true;
         }
         if (!GenericValidator.isBlankOrNull(patientFirstName)) {
-            sql += getWherePrefix(whereClauseStarted)
-                    + " lower(person.firstName) like concat('%', lower(:patientFirstName), '%') ";
+            hql += getWherePrefix(whereClauseStarted)
+                    + " lower(eo.patientFirstName) like concat('%', lower(:patientFirstName), '%') ";
             whereClauseStarted = true;
         }
-        // if (!GenericValidator.isBlankOrNull(dateOfBirth)) {
-        // sql += getWherePrefix(whereClauseStarted) + "lower(patient.birthDate) like
-        // concat('%', lower(:dateOfBirth), '%') ";
-        // }
         if (!GenericValidator.isBlankOrNull(gender)) {
-            sql += getWherePrefix(whereClauseStarted) + " lower(patient.gender) = lower(:gender) ";
+            hql += getWherePrefix(whereClauseStarted) + " lower(eo.patient.gender) = lower(:gender) ";
             whereClauseStarted = true;
         }
-        sql += " order by ";
-
-        switch (order.getValue()) {
-        case "statusId":
-            sql = sql + "eo.statusId asc";
-            break;
-        case "lastupdatedasc":
-            sql = sql + "eo.statusId asc, eo.lastupdated asc";
-            break;
-        case "lastupdateddesc":
-            sql = sql + "eo.statusId asc, eo.lastupdated desc";
-            break;
-        case "externalId":
-            sql = sql + "eo.externalId asc";
-            break;
-        default:
-            //
-            break;
-        }
+        hql += " order by " + getSearchOrderByClause(order);
         try {
-
-            Query<?> query = entityManager.unwrap(Session.class).createQuery(sql);
+            Query<ElectronicOrder> query = entityManager.unwrap(Session.class).createQuery(hql, ElectronicOrder.class);
             if (!GenericValidator.isBlankOrNull(accessionNumber)) {
-                query.setParameter("accessionNumber", accessionNumber);
+                query.setParameter("accessionNumber", ElectronicOrderSearchFieldExtractor.normalize(accessionNumber));
             }
             if (!GenericValidator.isBlankOrNull(patientLastName)) {
-                query.setParameter("patientLastName", patientLastName);
+                query.setParameter("patientLastName", patientLastName.trim());
             }
             if (!GenericValidator.isBlankOrNull(patientFirstName)) {
-                query.setParameter("patientFirstName", patientFirstName);
+                query.setParameter("patientFirstName", patientFirstName.trim());
             }
             if (!GenericValidator.isBlankOrNull(gender)) {
                 query.setParameter("gender", gender);
             }
-            // query.setParameter("order", order.getValue());
-            List<?> records = query.list();
-            List<ElectronicOrder> eOrders = new ArrayList<>();
-            for (int i = 0; i < records.size(); i++) {
-                Object[] oArray = (Object[]) records.get(i);
-                ElectronicOrder eo = (ElectronicOrder) oArray[0];
-                eOrders.add(eo);
-            }
-            return eOrders;
+            return query.list();
         } catch (HibernateException e) {
             handleException(e, "getAllElectronicOrdersContainingValue");
         }
@@ -320,6 +239,27 @@ public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String>
         }
     }
 
+    private String getSearchOrderByClause(SortOrder order) {
+        switch (order) {
+        case LAST_UPDATED_ASC:
+            return "eo.statusId asc, eo.lastupdated asc";
+        case LAST_UPDATED_DESC:
+            return "eo.statusId asc, eo.lastupdated desc";
+        case EXTERNAL_ID:
+            return "eo.externalId asc";
+        case STATUS_ID:
+        default:
+            return "eo.statusId asc";
+        }
+    }
+
+    private void setPage(Query<?> query, int firstResult, int maxResults) {
+        if (maxResults > 0) {
+            query.setFirstResult(firstResult);
+            query.setMaxResults(maxResults);
+        }
+    }
+
     @Override
     public List<ElectronicOrder> getAllElectronicOrdersByDateAndStatus(Date startDate, Date endDate, String statusId,
             SortOrder sortOrder) {
@@ -368,6 +308,13 @@ public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String>
     @Override
     public List<ElectronicOrder> getAllElectronicOrdersByTimestampAndStatus(java.sql.Timestamp startTimestamp,
             java.sql.Timestamp endTimestamp, String statusId, SortOrder sortOrder) {
+        return getElectronicOrdersByTimestampAndStatus(startTimestamp, endTimestamp, statusId, sortOrder, 0, 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ElectronicOrder> getElectronicOrdersByTimestampAndStatus(java.sql.Timestamp startTimestamp,
+            java.sql.Timestamp endTimestamp, String statusId, SortOrder sortOrder, int firstResult, int maxResults) {
         String hql = "From ElectronicOrder eo WHERE 1 = 1 ";
         if (startTimestamp != null) {
             hql += "AND eo.orderTimestamp BETWEEN :startDate AND :endDate ";
@@ -403,9 +350,10 @@ public class ElectronicOrderDAOImpl extends BaseDAOImpl<ElectronicOrder, String>
             if (!GenericValidator.isBlankOrNull(statusId)) {
                 query.setParameter("statusId", Integer.parseInt(statusId));
             }
+            setPage(query, firstResult, maxResults);
             return query.list();
         } catch (HibernateException e) {
-            handleException(e, "getAllElectronicOrdersByDateAndStatus");
+            handleException(e, "getElectronicOrdersByTimestampAndStatus");
         }
         return null;
     }
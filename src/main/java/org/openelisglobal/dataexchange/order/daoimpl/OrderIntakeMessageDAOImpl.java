@@ -0,0 +1,94 @@
+package org.openelisglobal.dataexchange.order.daoimpl;
+
+import java.sql.Timestamp;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.openelisglobal.common.daoimpl.OutboxDAOImpl;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.dataexchange.order.dao.OrderIntakeMessageDAO;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage.Status;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+public class OrderIntakeMessageDAOImpl extends OutboxDAOImpl<OrderIntakeMessage, Status>
+        implements OrderIntakeMessageDAO {
+
+    public OrderIntakeMessageDAOImpl() {
+        super(OrderIntakeMessage.class, Status.class, Status.QUEUED, Status.PROCESSING, "receivedTime", null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderIntakeMessage getByMessageKey(String sendingApplication, String messageControlId)
+            throws LIMSRuntimeException {
+        String hql = "from OrderIntakeMessage m where m.sendingApplication = :sendingApplication"
+                + " and m.messageControlId = :messageControlId";
+        try {
+            Query<OrderIntakeMessage> query = entityManager.unwrap(Session.class).createQuery(hql,
+                    OrderIntakeMessage.class);
+            query.setParameter("sendingApplication", sendingApplication);
+            query.setParameter("messageControlId", messageControlId);
+            return query.uniqueResult();
+        } catch (HibernateException e) {
+            handleException(e, "getByMessageKey");
+        }
+        return null;
+    }
+
+    @Override
+    public boolean insertIfAbsent(String sendingApplication, String messageControlId, String externalOrderId,
+            String message) throws LIMSRuntimeException {
+        String sql = "insert into hl7_order_intake (sending_application, message_control_id, external_order_id,"
+                + " message, status, attempts, received_time, last_updated)"
+                + " values (:sendingApplication, :messageControlId, :externalOrderId, :message, :status, 0, now(),"
+                + " now()) on conflict (sending_application, message_control_id) do nothing";
+        try {
+            NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            query.setParameter("sendingApplication", sendingApplication);
+            query.setParameter("messageControlId", messageControlId);
+            query.setParameter("externalOrderId", externalOrderId);
+            query.setParameter("message", message);
+            query.setParameter("status", Status.QUEUED.name());
+            return query.executeUpdate() > 0;
+        } catch (HibernateException e) {
+            handleException(e, "insertIfAbsent");
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getProcessedCount(Timestamp since) throws LIMSRuntimeException {
+        String hql = "select count(m) from OrderIntakeMessage m where m.processedTime >= :since";
+        try {
+            Query<Long> query = entityManager.unwrap(Session.class).createQuery(hql, Long.class);
+            query.setParameter("since", since);
+            Long count = query.uniqueResult();
+            return count == null ? 0L : count;
+        } catch (HibernateException e) {
+            handleException(e, "getProcessedCount");
+        }
+        return 0L;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getAverageProcessingMillis(Timestamp since) throws LIMSRuntimeException {
+        String sql = "select avg(extract(epoch from (processed_time - received_time)) * 1000) from hl7_order_intake"
+                + " where processed_time >= :since";
+        try {
+            NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            query.setParameter("since", since);
+            Number average = (Number) query.uniqueResult();
+            return average == null ? null : average.doubleValue();
+        } catch (HibernateException e) {
+            handleException(e, "getAverageProcessingMillis");
+        }
+        return null;
+    }
+}
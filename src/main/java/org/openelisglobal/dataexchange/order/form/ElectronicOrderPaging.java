@@ -14,137 +14,41 @@ package org.openelisglobal.dataexchange.order.form;
  * <p>Copyright (C) CIRG, University of Washington, Seattle WA. All Rights Reserved.
  */
 import jakarta.servlet.http.HttpServletRequest;
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.List;
-import org.openelisglobal.common.action.IActionConstants;
-import org.openelisglobal.common.paging.IPageDivider;
-import org.openelisglobal.common.paging.IPageFlattener;
-import org.openelisglobal.common.paging.IPageUpdater;
-import org.openelisglobal.common.paging.PagingProperties;
-import org.openelisglobal.common.paging.PagingUtility;
-import org.openelisglobal.common.util.IdValuePair;
+import org.openelisglobal.common.paging.PagingBean;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrderDisplayItem;
-import org.openelisglobal.spring.util.SpringContext;
 
 /**
- * Responsible for building a page by accepting all display and paging
- * information. Based on the page size and the page number, it will return the
- * appropriate page.
+ * Paging for the electronic order search. Pages are read from the database as
+ * they are requested, so only the search criteria are kept in the session
+ * rather than all the matching orders.
  */
 public class ElectronicOrderPaging {
 
-    private final PagingUtility<List<ElectronicOrderDisplayItem>> paging = new PagingUtility<>(); // Adjust type based
-                                                                                                  // on your
-    // data
-    private static final ElectronicOrderPageHelper pagingHelper = new ElectronicOrderPageHelper(); // Implement helper
-                                                                                                   // class
-
-    public void setDatabaseResults(HttpServletRequest request, ElectronicOrderViewForm form,
-            List<ElectronicOrderDisplayItem> orders)
-            throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
-
-        paging.setDatabaseResults(request.getSession(), orders, pagingHelper);
-
-        List<ElectronicOrderDisplayItem> resultPage = paging.getPage(1, request.getSession());
-        if (resultPage != null) {
-            form.seteOrders(resultPage);
-            form.setPaging(paging.getPagingBeanWithSearchMapping(1, request.getSession()));
-        }
+    private static final String SEARCH_CRITERIA_ATTRIBUTE = "electronicOrderSearchCriteria";
+
+    public void setSearchCriteria(HttpServletRequest request, ElectronicOrderViewForm form) {
+        ElectronicOrderViewForm searchCriteria = new ElectronicOrderViewForm();
+        searchCriteria.setSearchType(form.getSearchType());
+        searchCriteria.setSearchValue(form.getSearchValue());
+        searchCriteria.setStartDate(form.getStartDate());
+        searchCriteria.setEndDate(form.getEndDate());
+        searchCriteria.setStatusId(form.getStatusId());
+        searchCriteria.setUseAllInfo(form.getUseAllInfo());
+        request.getSession().setAttribute(SEARCH_CRITERIA_ATTRIBUTE, searchCriteria);
     }
 
-    public void page(HttpServletRequest request, ElectronicOrderViewForm form, int newPage)
-            throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
-
-        request.getSession().setAttribute(IActionConstants.SAVE_DISABLED, IActionConstants.FALSE);
-
-        if (newPage < 0) {
-            newPage = 0;
-        }
-        List<ElectronicOrderDisplayItem> resultPage = paging.getPage(newPage, request.getSession());
-        if (resultPage != null) {
-            form.seteOrders(resultPage);
-
-            form.setPaging(paging.getPagingBeanWithSearchMapping(newPage, request.getSession()));
-        }
+    /** @return the criteria of the last search in this session, or null */
+    public ElectronicOrderViewForm getSearchCriteria(HttpServletRequest request) {
+        return (ElectronicOrderViewForm) request.getSession().getAttribute(SEARCH_CRITERIA_ATTRIBUTE);
     }
 
-    public List<ElectronicOrderDisplayItem> getResults(HttpServletRequest request) {
-        return paging.getAllResults(request.getSession(), pagingHelper);
-    }
-
-    private static class ElectronicOrderPageHelper implements IPageDivider<List<ElectronicOrderDisplayItem>>,
-            IPageUpdater<List<ElectronicOrderDisplayItem>>, IPageFlattener<List<ElectronicOrderDisplayItem>> {
-
-        @Override
-        public void createPages(List<ElectronicOrderDisplayItem> orders,
-                List<List<ElectronicOrderDisplayItem>> pagedResults) {
-            List<ElectronicOrderDisplayItem> page = new ArrayList<>();
-
-            Boolean createNewPage = false;
-            int resultCount = 0;
-
-            for (ElectronicOrderDisplayItem item : orders) {
-                if (createNewPage) {
-                    resultCount = 0;
-                    createNewPage = false;
-                    pagedResults.add(page);
-                    page = new ArrayList<>();
-                }
-                if (resultCount >= SpringContext.getBean(PagingProperties.class).getResultsPageSize()) {
-                    createNewPage = true;
-                }
-
-                page.add(item);
-                resultCount++;
-            }
-
-            if (!page.isEmpty() || pagedResults.isEmpty()) {
-                pagedResults.add(page);
-            }
-        }
-
-        @Override
-        public void updateCache(List<ElectronicOrderDisplayItem> cacheItems,
-                List<ElectronicOrderDisplayItem> clientItems) {
-            for (int i = 0; i < clientItems.size(); i++) {
-                cacheItems.set(i, clientItems.get(i));
-            }
-        }
-
-        @Override
-        public List<ElectronicOrderDisplayItem> flattenPages(List<List<ElectronicOrderDisplayItem>> pages) {
-
-            List<ElectronicOrderDisplayItem> allResults = new ArrayList<>();
-
-            for (List<ElectronicOrderDisplayItem> page : pages) {
-                for (ElectronicOrderDisplayItem item : page) {
-                    allResults.add(item);
-                }
-            }
-
-            return allResults;
-        }
-
-        @Override
-        public List<IdValuePair> createSearchToPageMapping(List<List<ElectronicOrderDisplayItem>> allPages) {
-            List<IdValuePair> mappingList = new ArrayList<>();
-
-            int page = 0;
-            for (List<ElectronicOrderDisplayItem> resultList : allPages) {
-                page++;
-                String pageString = String.valueOf(page);
-
-                String orderID = null;
-
-                for (ElectronicOrderDisplayItem resultItem : resultList) {
-                    if (!resultItem.getElectronicOrderId().equals(orderID)) {
-                        orderID = resultItem.getElectronicOrderId();
-                        mappingList.add(new IdValuePair(orderID, pageString));
-                    }
-                }
-            }
-            return mappingList;
-        }
+    public void setPage(ElectronicOrderViewForm form, List<ElectronicOrderDisplayItem> orders, int currentPage,
+            int totalPages) {
+        PagingBean paging = new PagingBean();
+        paging.setCurrentPage(String.valueOf(currentPage));
+        paging.setTotalPages(String.valueOf(totalPages));
+        form.seteOrders(orders);
+        form.setPaging(paging);
     }
 }
@@ -0,0 +1,37 @@
+package org.openelisglobal.dataexchange.order.form;
+
+import java.util.List;
+import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
+
+/** One page of the orders matching an electronic order search. */
+public class ElectronicOrderSearchPage {
+
+    private final List<ElectronicOrder> orders;
+    private final int orderCount;
+    private final int currentPage;
+    private final int totalPages;
+
+    public ElectronicOrderSearchPage(List<ElectronicOrder> orders, int orderCount, int currentPage, int totalPages) {
+        this.orders = orders;
+        this.orderCount = orderCount;
+        this.currentPage = currentPage;
+        this.totalPages = totalPages;
+    }
+
+    public List<ElectronicOrder> getOrders() {
+        return orders;
+    }
+
+    /** @return the number of orders matching the search on all pages */
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+}
@@ -67,6 +67,12 @@ public class ElectronicOrder extends BaseObject<String> {
     private String qaAuthorizer;
     private String rejectReasonId;
     private String rejectComment;
+    // search fields extracted from the order when it is received
+    private String accessionNumber;
+    private String requester;
+    private String patientLastName;
+    private String patientFirstName;
+    private String searchText;
 
     public ElectronicOrder() {
         patient = new ValueHolder();
@@ -169,4 +175,44 @@ public class ElectronicOrder extends BaseObject<String> {
     public void setQaAuthorizer(String qaAuthorizer) {
         this.qaAuthorizer = qaAuthorizer;
     }
+
+    public String getAccessionNumber() {
+        return accessionNumber;
+    }
+
+    public void setAccessionNumber(String accessionNumber) {
+        this.accessionNumber = accessionNumber;
+    }
+
+    public String getRequester() {
+        return requester;
+    }
+
+    public void setRequester(String requester) {
+        this.requester = requester;
+    }
+
+    public String getPatientLastName() {
+        return patientLastName;
+    }
+
+    public void setPatientLastName(String patientLastName) {
+        this.patientLastName = patientLastName;
+    }
+
+    public String getPatientFirstName() {
+        return patientFirstName;
+    }
+
+    public void setPatientFirstName(String patientFirstName) {
+        this.patientFirstName = patientFirstName;
+    }
+
+    public String getSearchText() {
+        return searchText;
+    }
+
+    public void setSearchText(String searchText) {
+        this.searchText = searchText;
+    }
 }
@@ -0,0 +1,183 @@
+package org.openelisglobal.dataexchange.order.valueholder;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.sql.Timestamp;
+import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.common.valueholder.OutboxEntry;
+
+/**
+ * An HL7 order message accepted by the asynchronous order intake and waiting
+ * for, or done with, processing. Once processed the application
+ * acknowledgement is kept on the row so the sender can retrieve it.
+ */
+@Entity
+@Table(name = "hl7_order_intake")
+public class OrderIntakeMessage extends BaseObject<Long> implements OutboxEntry<OrderIntakeMessage.Status> {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        QUEUED, PROCESSING, PROCESSED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "sending_application", nullable = false)
+    private String sendingApplication;
+
+    @Column(name = "message_control_id", nullable = false)
+    private String messageControlId;
+
+    @Column(name = "external_order_id")
+    private String externalOrderId;
+
+    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "received_time", nullable = false)
+    private Timestamp receivedTime;
+
+    @Column(name = "claimed_at")
+    private Timestamp claimedAt;
+
+    @Column(name = "processed_time")
+    private Timestamp processedTime;
+
+    @Column(name = "result_code")
+    private String resultCode;
+
+    @Column(name = "error_detail", columnDefinition = "TEXT")
+    private String errorDetail;
+
+    @Column(name = "application_ack", columnDefinition = "TEXT")
+    private String applicationAck;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSendingApplication() {
+        return sendingApplication;
+    }
+
+    public void setSendingApplication(String sendingApplication) {
+        this.sendingApplication = sendingApplication;
+    }
+
+    public String getMessageControlId() {
+        return messageControlId;
+    }
+
+    public void setMessageControlId(String messageControlId) {
+        this.messageControlId = messageControlId;
+    }
+
+    public String getExternalOrderId() {
+        return externalOrderId;
+    }
+
+    public void setExternalOrderId(String externalOrderId) {
+        this.externalOrderId = externalOrderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Timestamp getReceivedTime() {
+        return receivedTime;
+    }
+
+    public void setReceivedTime(Timestamp receivedTime) {
+        this.receivedTime = receivedTime;
+    }
+
+    @Override
+    public Timestamp getClaimedAt() {
+        return claimedAt;
+    }
+
+    @Override
+    public void setClaimedAt(Timestamp claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Timestamp getProcessedTime() {
+        return processedTime;
+    }
+
+    public void setProcessedTime(Timestamp processedTime) {
+        this.processedTime = processedTime;
+    }
+
+    public String getResultCode() {
+        return resultCode;
+    }
+
+    public void setResultCode(String resultCode) {
+        this.resultCode = resultCode;
+    }
+
+    public String getErrorDetail() {
+        return errorDetail;
+    }
+
+    public void setErrorDetail(String errorDetail) {
+        this.errorDetail = errorDetail;
+    }
+
+    public String getApplicationAck() {
+        return applicationAck;
+    }
+
+    public void setApplicationAck(String applicationAck) {
+        this.applicationAck = applicationAck;
+    }
+}
@@ -0,0 +1,45 @@
+package org.openelisglobal.dataexchange.order.valueholder;
+
+import java.util.Map;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage.Status;
+
+/** Snapshot of the asynchronous HL7 order intake queue */
+public class OrderIntakeQueueMetrics {
+
+    private Map<Status, Long> countsByStatus;
+    private Long oldestQueuedAgeMillis;
+    private long processedLastHour;
+    private Double averageProcessingMillisLastHour;
+
+    public Map<Status, Long> getCountsByStatus() {
+        return countsByStatus;
+    }
+
+    public void setCountsByStatus(Map<Status, Long> countsByStatus) {
+        this.countsByStatus = countsByStatus;
+    }
+
+    public Long getOldestQueuedAgeMillis() {
+        return oldestQueuedAgeMillis;
+    }
+
+    public void setOldestQueuedAgeMillis(Long oldestQueuedAgeMillis) {
+        this.oldestQueuedAgeMillis = oldestQueuedAgeMillis;
+    }
+
+    public long getProcessedLastHour() {
+        return processedLastHour;
+    }
+
+    public void setProcessedLastHour(long processedLastHour) {
+        this.processedLastHour = processedLastHour;
+    }
+
+    public Double getAverageProcessingMillisLastHour() {
+        return averageProcessingMillisLastHour;
+    }
+
+    public void setAverageProcessingMillisLastHour(Double averageProcessingMillisLastHour) {
+        this.averageProcessingMillisLastHour = averageProcessingMillisLastHour;
+    }
+}
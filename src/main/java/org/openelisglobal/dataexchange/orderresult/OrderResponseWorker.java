@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
 import org.openelisglobal.dataexchange.resultreporting.beans.ResultReportXmit;
 import org.openelisglobal.dataexchange.resultreporting.beans.ResultXmit;
@@ -36,7 +37,8 @@ public class OrderResponseWorker {
     private ElectronicOrder eOrder;
     private OML_O21 originalMessage = new OML_O21();
 
-    private static int sequenceNum = 0;
+    // shared by the workers sending on the result transmission pool
+    private static final AtomicLong sequenceNum = new AtomicLong();
 
     private ORU_R01 hl7Message;
 
@@ -153,9 +155,7 @@ public class OrderResponseWorker {
 
     private String generateMessageId() {
         String timestamp = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
-        if (sequenceNum != 0) {
-            sequenceNum = ((sequenceNum - 1) % 99999) + 1;
-        }
-        return timestamp + String.format("%05d", sequenceNum);
+        long sequence = (sequenceNum.incrementAndGet() - 1) % 99999 + 1;
+        return timestamp + String.format("%05d", sequence);
     }
 }
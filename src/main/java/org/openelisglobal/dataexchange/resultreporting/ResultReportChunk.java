@@ -0,0 +1,28 @@
+package org.openelisglobal.dataexchange.resultreporting;
+
+import java.util.List;
+import org.openelisglobal.dataexchange.resultreporting.beans.ResultReportXmit;
+import org.openelisglobal.result.valueholder.Result;
+
+/**
+ * One message of a result transmission and the results it carries, which are
+ * acknowledged, or buffered for resending, together.
+ */
+public class ResultReportChunk {
+
+    private final ResultReportXmit report;
+    private final List<Result> results;
+
+    public ResultReportChunk(ResultReportXmit report, List<Result> results) {
+        this.report = report;
+        this.results = results;
+    }
+
+    public ResultReportXmit getReport() {
+        return report;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+}
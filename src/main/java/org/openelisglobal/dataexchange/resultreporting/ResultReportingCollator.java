@@ -18,6 +18,8 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.validator.GenericValidator;
@@ -47,6 +49,7 @@ import org.openelisglobal.result.service.ResultService;
 import org.openelisglobal.result.valueholder.Result;
 import org.openelisglobal.resultlimit.service.ResultLimitService;
 import org.openelisglobal.resultlimits.valueholder.ResultLimit;
+import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.samplehuman.service.SampleHumanService;
 import org.openelisglobal.sampleitem.valueholder.SampleItem;
 import org.openelisglobal.spring.util.SpringContext;
@@ -63,6 +66,8 @@ public class ResultReportingCollator {
     private TypeOfTestResultService typeOfTestResultService = SpringContext.getBean(TypeOfTestResultService.class);
     private SampleHumanService sampleHumanService = SpringContext.getBean(SampleHumanService.class);
     private NoteService noteService = SpringContext.getBean(NoteService.class);
+    private ResultService resultService = SpringContext.getBean(ResultService.class);
+    private ResultLimitService resultLimitService = SpringContext.getBean(ResultLimitService.class);
 
     private String VALIDATED_RESULT_STATUS_ID;
 
@@ -73,6 +78,15 @@ public class ResultReportingCollator {
     private Map<String, List<ResultXmit>> analysisIdToResultBeanMap = new HashMap<>();
     private Collection<String> noGUIDPatients = new HashSet<>();
     private Map<String, String> resultTypeToHL7TypeMap;
+    // the result each wrapper was built from, to acknowledge the results of a
+    // message together
+    private Map<TestResultsXmit, Result> wrapperToResultMap = new IdentityHashMap<>();
+
+    // looked up once per run rather than for each result
+    private Map<String, String> testIdToLoincMap = new HashMap<>();
+    private Map<String, Patient> sampleIdToPatientMap = new HashMap<>();
+    private Map<String, ResultLimit> testAndPatientToValidLimitMap = new HashMap<>();
+    private Map<String, String> analysisIdToNoteMap = new HashMap<>();
 
     public ResultReportingCollator() {
         GUID_IDENTITY_TYPE = patientIdentityTypeService.getNamedIdentityType("GUID").getId();
@@ -92,6 +106,7 @@ public class ResultReportingCollator {
         patientIDToResultsMap.clear();
         analysisIdToResultBeanMap.clear();
         noGUIDPatients.clear();
+        wrapperToResultMap.clear();
     }
 
     public boolean addResult(Result result, Patient patient, boolean isUpdate, boolean forMalaria) {
@@ -130,8 +145,8 @@ public class ResultReportingCollator {
         }
         resultBean.setTypeResult(hl7type);
         resultBean.setUpdateStatus(isUpdate ? "update" : "new");
-        ResultService resultResultService = SpringContext.getBean(ResultService.class);
-        resultBean.setLoinc(resultResultService.getLOINCCode(result));
+        String loinc = getLoinc(result);
+        resultBean.setLoinc(loinc);
         results.add(resultBean);
 
         SampleItem sampleItemForResult = result.getAnalysis().getSampleItem();
@@ -151,8 +166,7 @@ public class ResultReportingCollator {
 
         CodedValueXmit codedTest = new CodedValueXmit();
         /* if (forMalaria) { */
-        codedTest.setCode(
-                resultResultService.getLOINCCode(result) == null ? "34" : resultResultService.getLOINCCode(result));
+        codedTest.setCode(loinc == null ? "34" : loinc);
         /*
          * } else { codedTest.setCode("34"); }
          */
@@ -206,9 +220,7 @@ public class ResultReportingCollator {
         }
 
         // For valid range min/max
-        ResultLimit validLimit = SpringContext.getBean(ResultLimitService.class).getResultLimitForTestAndPatient(
-                result.getAnalysis().getTest(),
-                sampleHumanService.getPatientForSample(result.getAnalysis().getSampleItem().getSample()));
+        ResultLimit validLimit = getValidLimit(result);
         if (validLimit != null && (validLimit.getLowValid() != validLimit.getHighValid())) {
             TestRangeXmit validRange = new TestRangeXmit();
             validRange.setLow(String.valueOf(validLimit.getLowValid()));
@@ -242,10 +254,33 @@ public class ResultReportingCollator {
         }
 
         testResult.setResultsEvent(result.getResultEvent());
+        wrapperToResultMap.put(testResult, result);
 
         return true;
     }
 
+    private String getLoinc(Result result) {
+        String testId = result.getAnalysis().getTest().getId();
+        if (!testIdToLoincMap.containsKey(testId)) {
+            testIdToLoincMap.put(testId, resultService.getLOINCCode(result));
+        }
+        return testIdToLoincMap.get(testId);
+    }
+
+    private ResultLimit getValidLimit(Result result) {
+        Sample sample = result.getAnalysis().getSampleItem().getSample();
+        if (!sampleIdToPatientMap.containsKey(sample.getId())) {
+            sampleIdToPatientMap.put(sample.getId(), sampleHumanService.getPatientForSample(sample));
+        }
+        Patient patient = sampleIdToPatientMap.get(sample.getId());
+        String key = result.getAnalysis().getTest().getId() + "|" + (patient == null ? null : patient.getId());
+        if (!testAndPatientToValidLimitMap.containsKey(key)) {
+            testAndPatientToValidLimitMap.put(key,
+                    resultLimitService.getResultLimitForTestAndPatient(result.getAnalysis().getTest(), patient));
+        }
+        return testAndPatientToValidLimitMap.get(key);
+    }
+
     // is this a result update (ie Final_Result) as opposed to a non-result update
     // (Cancelled)
     @SuppressWarnings("unused")
@@ -265,9 +300,14 @@ public class ResultReportingCollator {
 
     protected String getResultNote(Result result) {
         if (result != null) {
-            Analysis analysis = new Analysis();
-            analysis.setId(result.getAnalysis().getId());
-            return noteService.getNotesAsString(analysis, false, false, "<br/>", false);
+            String analysisId = result.getAnalysis().getId();
+            if (!analysisIdToNoteMap.containsKey(analysisId)) {
+                Analysis analysis = new Analysis();
+                analysis.setId(analysisId);
+                analysisIdToNoteMap.put(analysisId,
+                        noteService.getNotesAsString(analysis, false, false, "<br/>", false));
+            }
+            return analysisIdToNoteMap.get(analysisId);
         }
         return null;
     }
@@ -295,21 +335,61 @@ public class ResultReportingCollator {
             wrapperList.addAll(patientIDToResultsMap.get(key));
         }
 
-        ResultReportXmit resultReport = new ResultReportXmit();
-        resultReport.setTestResults(wrapperList);
-        resultReport.setTransmissionDate(new Date());
-        resultReport.setSendingSiteId(ConfigurationProperties.getInstance().getPropertyValue(Property.SiteCode));
-        resultReport.setSendingSiteName(ConfigurationProperties.getInstance().getPropertyValue(Property.SiteName));
-        LabIdentificationService labService = new LabIdentificationService();
-        resultReport.setSendingSiteLanguage(labService.getLanguageLocale().toString());
-
-        return resultReport;
+        return createResultReport(wrapperList);
     }
 
     public ResultReportXmit getResultReport(String patientId) {
         List<TestResultsXmit> wrapperList = new ArrayList<>();
 
         wrapperList.addAll(patientIDToResultsMap.get(patientId));
+        return createResultReport(wrapperList);
+    }
+
+    /**
+     * @return a report for each referring order, of at most maxResultsPerReport
+     *         results, and the results in it. Results without a referring order
+     *         are left out
+     */
+    public List<ResultReportChunk> getReferringOrderReports(int maxResultsPerReport) {
+        List<TestResultsXmit> wrapperList = new ArrayList<>();
+        for (List<TestResultsXmit> patientWrappers : patientIDToResultsMap.values()) {
+            wrapperList.addAll(patientWrappers);
+        }
+
+        List<ResultReportChunk> chunks = new ArrayList<>();
+        for (List<TestResultsXmit> group : groupByReferringOrder(wrapperList, maxResultsPerReport)) {
+            List<Result> results = new ArrayList<>();
+            for (TestResultsXmit wrapper : group) {
+                results.add(wrapperToResultMap.get(wrapper));
+            }
+            chunks.add(new ResultReportChunk(createResultReport(group), results));
+        }
+        return chunks;
+    }
+
+    // an HL7 result message carries the patient and order of a single referring
+    // order
+    static List<List<TestResultsXmit>> groupByReferringOrder(List<TestResultsXmit> wrapperList,
+            int maxResultsPerGroup) {
+        Map<String, List<TestResultsXmit>> wrappersByOrder = new LinkedHashMap<>();
+        for (TestResultsXmit wrapper : wrapperList) {
+            if (!GenericValidator.isBlankOrNull(wrapper.getReferringOrderNumber())) {
+                wrappersByOrder.computeIfAbsent(wrapper.getReferringOrderNumber(), k -> new ArrayList<>())
+                        .add(wrapper);
+            }
+        }
+
+        List<List<TestResultsXmit>> groups = new ArrayList<>();
+        int groupSize = Math.max(1, maxResultsPerGroup);
+        for (List<TestResultsXmit> orderWrappers : wrappersByOrder.values()) {
+            for (int i = 0; i < orderWrappers.size(); i += groupSize) {
+                groups.add(new ArrayList<>(orderWrappers.subList(i, Math.min(i + groupSize, orderWrappers.size()))));
+            }
+        }
+        return groups;
+    }
+
+    private ResultReportXmit createResultReport(List<TestResultsXmit> wrapperList) {
         ResultReportXmit resultReport = new ResultReportXmit();
         resultReport.setTestResults(wrapperList);
         resultReport.setTransmissionDate(new Date());
@@ -0,0 +1,50 @@
+package org.openelisglobal.dataexchange.resultreporting;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.openelisglobal.common.log.LogEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the messages of result transmissions a few at a time, so a large batch
+ * of results neither waits on one message after the other nor opens a
+ * connection for each of them at once.
+ */
+@Component
+public class ResultReportingSender {
+
+    @Value("${org.openelisglobal.resultreporting.sendThreads:4}")
+    private int sendThreads;
+
+    @Value("${org.openelisglobal.resultreporting.maxResultsPerMessage:50}")
+    private int maxResultsPerMessage;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    private void init() {
+        executor = Executors.newFixedThreadPool(Math.max(1, sendThreads));
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    public int getMaxResultsPerMessage() {
+        return maxResultsPerMessage;
+    }
+
+    public void submit(Runnable send) {
+        executor.execute(() -> {
+            try {
+                send.run();
+            } catch (RuntimeException e) {
+                LogEvent.logError("Error sending a result transmission message", e);
+            }
+        });
+    }
+}
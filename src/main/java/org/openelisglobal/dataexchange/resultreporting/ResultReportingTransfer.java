@@ -17,7 +17,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
-import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.util.DateUtil;
@@ -27,8 +26,6 @@ import org.openelisglobal.dataexchange.common.ITransmissionResponseHandler;
 import org.openelisglobal.dataexchange.common.ReportTransmission;
 import org.openelisglobal.dataexchange.orderresult.OrderResponseWorker.Event;
 import org.openelisglobal.dataexchange.orderresult.valueholder.HL7MessageOut;
-import org.openelisglobal.dataexchange.resultreporting.beans.ResultReportXmit;
-import org.openelisglobal.dataexchange.resultreporting.beans.TestResultsXmit;
 import org.openelisglobal.dataexchange.service.aggregatereporting.ReportExternalExportService;
 import org.openelisglobal.dataexchange.service.aggregatereporting.ReportQueueTypeService;
 import org.openelisglobal.dataexchange.service.orderresult.HL7MessageOutService;
@@ -64,43 +61,16 @@ public class ResultReportingTransfer {
         }
     }
 
-    public void sendResults(ResultReportXmit resultReport, List<Result> reportingResult, String url) {
-        for (TestResultsXmit result : resultReport.getTestResults()) {
-
-            // TODO delete if successfully moved to other area
-            // if (result.getReferringOrderNumber() == null) { // walk-in create FHIR
-            // String patientGuid = result.getPatientGUID();
-            // String accessionNumber = result.getAccessionNumber();
-            // accessionNumber = accessionNumber.substring(0,accessionNumber.indexOf('-'));
-            // // disregard test number within set
-            // org.openelisglobal.patient.valueholder.Patient patient =
-            // patientService.getPatientForGuid(patientGuid);
-            // fhirTransformService.createObservationAndDiagnosticReportFromResult(result,
-            // patient);
-            //// String fhirJson = fhirTransformService.CreateFhirFromOESample(result,
-            // patient);
-            //// LogEvent.logDebug(this.getClass().getSimpleName(), "sendResults", "" +
-            // fhirJson);
-            // continue;
-            // }
-            // if (!result.getReferringOrderNumber().isEmpty()) { // eOrder create FHIR
-            //
-            // String orderNumber = result.getReferringOrderNumber();
-            // List<ElectronicOrder> eOrders =
-            // electronicOrderService.getElectronicOrdersByExternalId(orderNumber);
-            // ElectronicOrder eOrder = eOrders.get(eOrders.size() - 1);
-            // ExternalOrderStatus eOrderStatus =
-            // SpringContext.getBean(IStatusService.class)
-            // .getExternalOrderStatusForID(eOrder.getStatusId());
-            //
-            // fhirTransformService.CreateFhirFromOESample(eOrder, result);
-            // continue;
-            // }
-            if (!GenericValidator.isBlankOrNull(result.getReferringOrderNumber())) { // HL7
-                ITransmissionResponseHandler responseHandler = new ResultFailHandler(reportingResult);
-                new ReportTransmission().sendHL7Report(resultReport, url, responseHandler);
-                continue;
-            }
+    /**
+     * Sends each chunk as its own HL7 message, several at a time. The results of a
+     * chunk are marked as sent, or buffered for resending, by the response to that
+     * chunk only
+     */
+    public void sendResults(List<ResultReportChunk> chunks, String url) {
+        ResultReportingSender sender = SpringContext.getBean(ResultReportingSender.class);
+        for (ResultReportChunk chunk : chunks) {
+            ITransmissionResponseHandler responseHandler = new ResultFailHandler(chunk.getResults());
+            sender.submit(() -> new ReportTransmission().sendHL7Report(chunk.getReport(), url, false, responseHandler));
         }
     }
 
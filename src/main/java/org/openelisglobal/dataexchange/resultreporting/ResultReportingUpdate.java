@@ -13,15 +13,13 @@
  */
 package org.openelisglobal.dataexchange.resultreporting;
 
-import java.util.ArrayList;
-import java.util.List;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.openelisglobal.common.services.IResultSaveService;
 import org.openelisglobal.common.services.registration.interfaces.IResultUpdate;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.result.action.util.ResultSet;
-import org.openelisglobal.result.valueholder.Result;
+import org.openelisglobal.spring.util.SpringContext;
 
 public class ResultReportingUpdate implements IResultUpdate {
 
@@ -33,23 +31,17 @@ public class ResultReportingUpdate implements IResultUpdate {
     @Override
     public void postTransactionalCommitUpdate(IResultSaveService resultService) {
         ResultReportingCollator collator = new ResultReportingCollator();
-        List<Result> updatedResults = new ArrayList<Result>();
 
         for (ResultSet resultSet : resultService.getNewResults()) {
-            boolean success = collator.addResult(resultSet.result, resultSet.patient, false, false);
-            if (success) {
-                updatedResults.add(resultSet.result);
-            }
+            collator.addResult(resultSet.result, resultSet.patient, false, false);
         }
         for (ResultSet resultSet : resultService.getModifiedResults()) {
-            boolean success = collator.addResult(resultSet.result, resultSet.patient, true, false);
-            if (success) {
-                updatedResults.add(resultSet.result);
-            }
+            collator.addResult(resultSet.result, resultSet.patient, true, false);
         }
 
+        int maxResultsPerMessage = SpringContext.getBean(ResultReportingSender.class).getMaxResultsPerMessage();
         ResultReportingTransfer transfer = new ResultReportingTransfer();
-        transfer.sendResults(collator.getResultReport(), updatedResults,
+        transfer.sendResults(collator.getReferringOrderReports(maxResultsPerMessage),
                 ConfigurationProperties.getInstance().getPropertyValue(Property.resultReportingURL));
     }
 }
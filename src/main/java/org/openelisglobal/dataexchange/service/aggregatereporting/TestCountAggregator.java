@@ -0,0 +1,156 @@
+package org.openelisglobal.dataexchange.service.aggregatereporting;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.SummarizedAnalysis;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary.Status;
+
+/**
+ * Counts the analyses of one day into {@link TestCountSummary} rows. The
+ * analyses of a panel on a sample item are counted once more as the panel, the
+ * way the all tests indicator report has always counted them, unless one of
+ * them was canceled. All the analyses of a panel are counted on the latest of
+ * their days, so a panel is never split over several days.
+ */
+class TestCountAggregator {
+
+    static final String UNKNOWN_AGE_BAND = "unknown";
+
+    private static final int[] AGE_BAND_LOWER_YEARS = { 50, 25, 15, 5, 1, 0 };
+    private static final String[] AGE_BANDS = { "50+", "25-49", "15-24", "5-14", "1-4", "<1" };
+
+    private final Function<String, Status> statusOfStatusId;
+
+    TestCountAggregator(Function<String, Status> statusOfStatusId) {
+        this.statusOfStatusId = statusOfStatusId;
+    }
+
+    /**
+     * @return the analyses counted on the day: those of the day that are not part
+     *         of a panel, and those of the panels whose latest day it is
+     */
+    static List<SummarizedAnalysis> getCountedOn(Date day, List<SummarizedAnalysis> analyses) {
+        List<SummarizedAnalysis> counted = new ArrayList<>();
+        Map<List<String>, List<SummarizedAnalysis>> panelAnalyses = new LinkedHashMap<>();
+        for (SummarizedAnalysis analysis : analyses) {
+            if (analysis.getPanelId() == null) {
+                if (day.equals(analysis.getAnalysisDay())) {
+                    counted.add(analysis);
+                }
+            } else {
+                panelAnalyses.computeIfAbsent(Arrays.asList(analysis.getSampleItemId(), analysis.getPanelId()),
+                        k -> new ArrayList<>()).add(analysis);
+            }
+        }
+        for (List<SummarizedAnalysis> panel : panelAnalyses.values()) {
+            Date panelDay = panel.stream().map(SummarizedAnalysis::getAnalysisDay).filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder()).orElse(null);
+            if (day.equals(panelDay)) {
+                counted.addAll(panel);
+            }
+        }
+        return counted;
+    }
+
+    List<TestCountSummary> aggregate(Date day, List<SummarizedAnalysis> analyses, Timestamp computedTime) {
+        Map<List<Object>, TestCountSummary> rows = new LinkedHashMap<>();
+        Map<List<String>, List<SummarizedAnalysis>> panelAnalyses = new LinkedHashMap<>();
+        for (SummarizedAnalysis analysis : analyses) {
+            if (analysis.getPanelId() == null) {
+                count(rows, day, computedTime, analysis, analysis.getTestId(), statusOf(analysis), false);
+            } else {
+                panelAnalyses.computeIfAbsent(Arrays.asList(analysis.getSampleItemId(), analysis.getPanelId()),
+                        k -> new ArrayList<>()).add(analysis);
+            }
+        }
+        for (List<SummarizedAnalysis> panel : panelAnalyses.values()) {
+            boolean canceled = panel.stream().anyMatch(analysis -> statusOf(analysis) == Status.CANCELED);
+            for (SummarizedAnalysis analysis : panel) {
+                count(rows, day, computedTime, analysis, analysis.getTestId(), statusOf(analysis), !canceled);
+            }
+            if (!canceled) {
+                // completed only once all of the panel is
+                count(rows, day, computedTime, panel.get(0), null, panelStatus(panel), false,
+                        panel.stream().allMatch(SummarizedAnalysis::isCompleted));
+            }
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    static String getAgeBand(Date birthDate, Date at) {
+        if (birthDate == null || at == null || birthDate.after(at)) {
+            return UNKNOWN_AGE_BAND;
+        }
+        int years = Period.between(birthDate.toLocalDate(), at.toLocalDate()).getYears();
+        for (int i = 0; i < AGE_BAND_LOWER_YEARS.length; i++) {
+            if (years >= AGE_BAND_LOWER_YEARS[i]) {
+                return AGE_BANDS[i];
+            }
+        }
+        return UNKNOWN_AGE_BAND;
+    }
+
+    // in progress if any analysis is, or if some are finished and others not
+    // started
+    private Status panelStatus(List<SummarizedAnalysis> panel) {
+        boolean notStarted = false;
+        boolean finished = false;
+        for (SummarizedAnalysis analysis : panel) {
+            Status status = statusOf(analysis);
+            if (status == Status.NOT_STARTED) {
+                notStarted = true;
+            } else if (status == Status.FINALIZED) {
+                finished = true;
+            } else {
+                return Status.IN_PROGRESS;
+            }
+        }
+        if (notStarted && finished) {
+            return Status.IN_PROGRESS;
+        }
+        return notStarted ? Status.NOT_STARTED : Status.FINALIZED;
+    }
+
+    private Status statusOf(SummarizedAnalysis analysis) {
+        return statusOfStatusId.apply(analysis.getStatusId());
+    }
+
+    private void count(Map<List<Object>, TestCountSummary> rows, Date day, Timestamp computedTime,
+            SummarizedAnalysis analysis, String testId, Status status, boolean countedInPanel) {
+        count(rows, day, computedTime, analysis, testId, status, countedInPanel, analysis.isCompleted());
+    }
+
+    private void count(Map<List<Object>, TestCountSummary> rows, Date day, Timestamp computedTime,
+            SummarizedAnalysis analysis, String testId, Status status, boolean countedInPanel, boolean completed) {
+        String ageBand = getAgeBand(analysis.getBirthDate(),
+                analysis.getCollectionDate() == null ? day : analysis.getCollectionDate());
+        List<Object> key = Arrays.asList(testId, analysis.getPanelId(), analysis.getTestSectionId(),
+                analysis.getSiteId(), status, ageBand, completed, countedInPanel);
+        TestCountSummary row = rows.get(key);
+        if (row == null) {
+            row = new TestCountSummary();
+            row.setSummaryDate(day);
+            row.setTestId(testId);
+            row.setPanelId(analysis.getPanelId());
+            row.setTestSectionId(analysis.getTestSectionId());
+            row.setSiteId(analysis.getSiteId());
+            row.setStatus(status);
+            row.setAgeBand(ageBand);
+            row.setCompleted(completed);
+            row.setCountedInPanel(countedInPanel);
+            row.setComputedTime(computedTime);
+            rows.put(key, row);
+        }
+        row.setAnalysisCount(row.getAnalysisCount() + 1);
+    }
+}
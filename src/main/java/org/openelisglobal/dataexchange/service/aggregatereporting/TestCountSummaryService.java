@@ -0,0 +1,31 @@
+package org.openelisglobal.dataexchange.service.aggregatereporting;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import org.openelisglobal.common.service.BaseObjectService;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+
+public interface TestCountSummaryService extends BaseObjectService<TestCountSummary, Long> {
+
+    /**
+     * @return the days with analyses changed since the summaries were last
+     *         computed, or every day of the backfill period if there are no
+     *         summaries yet
+     */
+    List<Date> getDaysToRefresh();
+
+    /** Replaces the summaries of the day with counts of its current analyses */
+    void refreshDay(Date day, Timestamp computedTime);
+
+    /**
+     * @return the counts of the days in the range, both included, summed by test,
+     *         panel, test section and status. Analyses counted as their panel are
+     *         left out
+     */
+    List<TestCountSummary> getCountsByTestAndStatus(Date lowDate, Date highDate);
+
+    /** @return the number of analyses of each test id completed on the day */
+    Map<String, Integer> getCompletedCountsByTest(Date day);
+}
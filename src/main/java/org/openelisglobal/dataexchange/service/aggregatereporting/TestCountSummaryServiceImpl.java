@@ -0,0 +1,102 @@
+package org.openelisglobal.dataexchange.service.aggregatereporting;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.openelisglobal.common.service.BaseObjectServiceImpl;
+import org.openelisglobal.common.services.IStatusService;
+import org.openelisglobal.common.services.StatusService.AnalysisStatus;
+import org.openelisglobal.dataexchange.aggregatereporting.dao.TestCountSummaryDAO;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.SummarizedAnalysis;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class TestCountSummaryServiceImpl extends BaseObjectServiceImpl<TestCountSummary, Long>
+        implements TestCountSummaryService {
+
+    @Autowired
+    protected TestCountSummaryDAO baseObjectDAO;
+    @Autowired
+    private IStatusService statusService;
+
+    @Value("${org.openelisglobal.testcount.summary.backfillDays:730}")
+    private int backfillDays;
+
+    // changes are looked for from a little before the last run, so analyses saved
+    // by transactions still open during it are not missed
+    @Value("${org.openelisglobal.testcount.summary.refreshOverlap:3600000}")
+    private long refreshOverlapMillis;
+
+    TestCountSummaryServiceImpl() {
+        super(TestCountSummary.class);
+    }
+
+    @Override
+    protected TestCountSummaryDAO getBaseObjectDAO() {
+        return baseObjectDAO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Date> getDaysToRefresh() {
+        Timestamp latestComputedTime = getBaseObjectDAO().getLatestComputedTime();
+        if (latestComputedTime == null) {
+            return getBaseObjectDAO().getAnalysisDaysFrom(Date.valueOf(LocalDate.now().minusDays(backfillDays)));
+        }
+        return getBaseObjectDAO()
+                .getAnalysisDaysUpdatedSince(new Timestamp(latestComputedTime.getTime() - refreshOverlapMillis));
+    }
+
+    @Override
+    @Transactional
+    public void refreshDay(Date day, Timestamp computedTime) {
+        getBaseObjectDAO().deleteDay(day);
+        List<SummarizedAnalysis> analyses = TestCountAggregator.getCountedOn(day,
+                getBaseObjectDAO().getAnalysesOfDay(day));
+        TestCountAggregator aggregator = new TestCountAggregator(this::getStatus);
+        for (TestCountSummary summary : aggregator.aggregate(day, analyses, computedTime)) {
+            getBaseObjectDAO().insert(summary);
+        }
+        List<String> analysisIds = new ArrayList<>();
+        for (SummarizedAnalysis analysis : analyses) {
+            analysisIds.add(analysis.getAnalysisId());
+        }
+        getBaseObjectDAO().recordCountedDay(day, analysisIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TestCountSummary> getCountsByTestAndStatus(Date lowDate, Date highDate) {
+        return getBaseObjectDAO().getCountsByTestAndStatus(lowDate, highDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getCompletedCountsByTest(Date day) {
+        return getBaseObjectDAO().getCompletedCountsByTest(day);
+    }
+
+    // in progress as the indicator reports have always counted it
+    private Status getStatus(String statusId) {
+        if (statusService.matches(statusId, AnalysisStatus.NotStarted)) {
+            return Status.NOT_STARTED;
+        } else if (statusService.matches(statusId, AnalysisStatus.Finalized)) {
+            return Status.FINALIZED;
+        } else if (statusService.matches(statusId, AnalysisStatus.Canceled)) {
+            return Status.CANCELED;
+        } else if (statusService.matches(statusId, AnalysisStatus.TechnicalAcceptance)
+                || statusService.matches(statusId, AnalysisStatus.TechnicalRejected)
+                || statusService.matches(statusId, AnalysisStatus.BiologistRejected)) {
+            return Status.IN_PROGRESS;
+        }
+        return Status.OTHER;
+    }
+}
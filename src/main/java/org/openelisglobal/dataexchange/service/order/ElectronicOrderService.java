@@ -2,9 +2,11 @@ package org.openelisglobal.dataexchange.service.order;
 
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import org.openelisglobal.common.service.BaseObjectService;
 import org.openelisglobal.common.services.StatusService.ExternalOrderStatus;
+import org.openelisglobal.dataexchange.order.form.ElectronicOrderSearchPage;
 import org.openelisglobal.dataexchange.order.form.ElectronicOrderViewForm;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder.SortOrder;
@@ -15,6 +17,8 @@ public interface ElectronicOrderService extends BaseObjectService<ElectronicOrde
 
     List<ElectronicOrder> getElectronicOrdersByExternalId(String id);
 
+    List<ElectronicOrder> getElectronicOrdersByExternalIds(Collection<String> ids);
+
     List<ElectronicOrder> getAllElectronicOrdersContainingValueOrderedBy(String searchValue, SortOrder sortOrder);
 
     List<ElectronicOrder> getAllElectronicOrdersContainingValuesOrderedBy(String accessionNumber,
@@ -41,4 +45,13 @@ public interface ElectronicOrderService extends BaseObjectService<ElectronicOrde
     List<ElectronicOrder> searchForElectronicOrders(ElectronicOrderViewForm form);
 
     List<ElectronicOrder> searchForStudyElectronicOrders(ElectronicOrderViewForm form);
+
+    /**
+     * Reads one page of the orders matching the search. The orders are counted and
+     * read with the same lookup of the searched identifier in the FHIR store.
+     *
+     * @param requestedPage the page, starting at 1, moved into the existing pages
+     */
+    ElectronicOrderSearchPage searchForElectronicOrders(ElectronicOrderViewForm form, int requestedPage,
+            int pageSize);
 }
@@ -4,6 +4,7 @@ import ca.uhn.fhir.rest.client.api.IGenericClient;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.apache.commons.validator.GenericValidator;
 import org.hl7.fhir.r4.model.Bundle;
@@ -16,7 +17,9 @@ import org.openelisglobal.common.services.StatusService.ExternalOrderStatus;
 import org.openelisglobal.common.util.DateUtil;
 import org.openelisglobal.dataexchange.fhir.FhirConfig;
 import org.openelisglobal.dataexchange.fhir.FhirUtil;
+import org.openelisglobal.dataexchange.order.action.ElectronicOrderSearchFieldExtractor;
 import org.openelisglobal.dataexchange.order.dao.ElectronicOrderDAO;
+import org.openelisglobal.dataexchange.order.form.ElectronicOrderSearchPage;
 import org.openelisglobal.dataexchange.order.form.ElectronicOrderViewForm;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder.SortOrder;
@@ -41,6 +44,8 @@ public class ElectronicOrderServiceImpl extends AuditableBaseObjectServiceImpl<E
     protected FhirUtil fhirUtil;
     @Autowired
     private FhirConfig fhirConfig;
+    @Autowired
+    private ElectronicOrderSearchFieldExtractor searchFieldExtractor;
 
     ElectronicOrderServiceImpl() {
         super(ElectronicOrder.class);
@@ -51,6 +56,20 @@ public class ElectronicOrderServiceImpl extends AuditableBaseObjectServiceImpl<E
         return baseObjectDAO;
     }
 
+    @Override
+    @Transactional
+    public String insert(ElectronicOrder eOrder) {
+        searchFieldExtractor.populateSearchFields(eOrder);
+        return super.insert(eOrder);
+    }
+
+    @Override
+    @Transactional
+    public ElectronicOrder update(ElectronicOrder eOrder) {
+        searchFieldExtractor.populateSearchFields(eOrder);
+        return super.update(eOrder);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ElectronicOrder> getAllElectronicOrdersOrderedBy(SortOrder order) {
@@ -63,6 +82,12 @@ public class ElectronicOrderServiceImpl extends AuditableBaseObjectServiceImpl<E
         return getBaseObjectDAO().getElectronicOrdersByExternalId(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ElectronicOrder> getElectronicOrdersByExternalIds(Collection<String> ids) {
+        return getBaseObjectDAO().getElectronicOrdersByExternalIds(ids);
+    }
+
     @Override
     public List<ElectronicOrder> getAllElectronicOrdersContainingValueOrderedBy(String searchValue, SortOrder order) {
 
@@ -125,89 +150,98 @@ public class ElectronicOrderServiceImpl extends AuditableBaseObjectServiceImpl<E
     @Override
     @Transactional(readOnly = true)
     public List<ElectronicOrder> searchForElectronicOrders(ElectronicOrderViewForm form) {
-        switch (form.getSearchType()) {
-        case IDENTIFIER:
-            IGenericClient fhirClient = fhirUtil.getFhirClient(fhirConfig.getLocalFhirStorePath());
-            Bundle searchBundle = fhirClient.search().forResource(ServiceRequest.class)
-                    .where(ServiceRequest.IDENTIFIER.exactly().code(form.getSearchValue())).returnBundle(Bundle.class)
-                    .execute();
-
-            List<String> identifierValues = new ArrayList<>(searchBundle.getEntry().size() + 1);
-            identifierValues.add(form.getSearchValue());
-            for (BundleEntryComponent bundleEntry : searchBundle.getEntry()) {
-                if (bundleEntry.hasResource()
-                        && ResourceType.ServiceRequest.equals(bundleEntry.getResource().getResourceType())) {
-                    identifierValues.add(bundleEntry.getResource().getIdElement().getIdPart());
-                }
-            }
-            String nameValue = form.getSearchValue();
+        return searchForElectronicOrders(form, getIdentifierSearchValues(form), 0, 0);
+    }
 
-            List<ElectronicOrder> eOrders = baseObjectDAO.getAllElectronicOrdersMatchingAnyValue(identifierValues,
-                    nameValue, SortOrder.LAST_UPDATED_ASC);
+    @Override
+    @Transactional(readOnly = true)
+    public List<ElectronicOrder> searchForStudyElectronicOrders(ElectronicOrderViewForm form) {
+        return searchForElectronicOrders(form, getIdentifierSearchValues(form), 0, 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ElectronicOrderSearchPage searchForElectronicOrders(ElectronicOrderViewForm form, int requestedPage,
+            int pageSize) {
+        List<String> identifierValues = getIdentifierSearchValues(form);
+        int orderCount = getCountOfElectronicOrdersForSearch(form, identifierValues);
+        int totalPages = Math.max(1, (orderCount + pageSize - 1) / pageSize);
+        int currentPage = Math.min(Math.max(requestedPage, 1), totalPages);
+        List<ElectronicOrder> orders = searchForElectronicOrders(form, identifierValues,
+                (currentPage - 1) * pageSize, pageSize);
+        return new ElectronicOrderSearchPage(orders, orderCount, currentPage, totalPages);
+    }
 
-            return eOrders;
+    /**
+     * @param maxResults the page size, or 0 for all matching orders
+     */
+    private List<ElectronicOrder> searchForElectronicOrders(ElectronicOrderViewForm form,
+            List<String> identifierValues, int firstResult, int maxResults) {
+        switch (form.getSearchType()) {
+        case IDENTIFIER:
+            return baseObjectDAO.getElectronicOrdersMatchingAnyValue(identifierValues, form.getSearchValue(),
+                    SortOrder.LAST_UPDATED_ASC, firstResult, maxResults);
         case DATE_STATUS:
-            String startDate = form.getStartDate();
-            String endDate = form.getEndDate();
-            if (GenericValidator.isBlankOrNull(startDate) && !GenericValidator.isBlankOrNull(endDate)) {
-                startDate = endDate;
-            }
-            if (GenericValidator.isBlankOrNull(endDate) && !GenericValidator.isBlankOrNull(startDate)) {
-                endDate = startDate;
-            }
-            java.sql.Timestamp startTimestamp = GenericValidator.isBlankOrNull(startDate) ? null
-                    : DateUtil.convertStringDateStringTimeToTimestamp(startDate, "00:00:00.0");
-            java.sql.Timestamp endTimestamp = GenericValidator.isBlankOrNull(endDate) ? null
-                    : DateUtil.convertStringDateStringTimeToTimestamp(endDate, "23:59:59");
-            return getAllElectronicOrdersByTimestampAndStatus(startTimestamp, endTimestamp, form.getStatusId(),
-                    SortOrder.STATUS_ID);
+            Timestamp[] timestampRange = getSearchTimestampRange(form);
+            return baseObjectDAO.getElectronicOrdersByTimestampAndStatus(timestampRange[0], timestampRange[1],
+                    form.getStatusId(), SortOrder.STATUS_ID, firstResult, maxResults);
         default:
             return null;
         }
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<ElectronicOrder> searchForStudyElectronicOrders(ElectronicOrderViewForm form) {
+    private int getCountOfElectronicOrdersForSearch(ElectronicOrderViewForm form, List<String> identifierValues) {
         switch (form.getSearchType()) {
         case IDENTIFIER:
-            IGenericClient fhirClient = fhirUtil.getFhirClient(fhirConfig.getLocalFhirStorePath());
-            Bundle searchBundle = fhirClient.search().forResource(ServiceRequest.class)
-                    .where(ServiceRequest.IDENTIFIER.exactly().code(form.getSearchValue())).returnBundle(Bundle.class)
-                    .execute();
-
-            List<String> identifierValues = new ArrayList<>(searchBundle.getEntry().size() + 1);
-            identifierValues.add(form.getSearchValue());
-            for (BundleEntryComponent bundleEntry : searchBundle.getEntry()) {
-                if (bundleEntry.hasResource()
-                        && ResourceType.ServiceRequest.equals(bundleEntry.getResource().getResourceType())) {
-                    identifierValues.add(bundleEntry.getResource().getIdElement().getIdPart());
-                }
-            }
-            String nameValue = form.getSearchValue();
-
-            List<ElectronicOrder> eOrders = baseObjectDAO.getAllElectronicOrdersMatchingAnyValue(identifierValues,
-                    nameValue, SortOrder.LAST_UPDATED_ASC);
-
-            return eOrders;
+            return baseObjectDAO.getCountOfElectronicOrdersMatchingAnyValue(identifierValues, form.getSearchValue());
         case DATE_STATUS:
-            String startDate = form.getStartDate();
-            String endDate = form.getEndDate();
-            if (GenericValidator.isBlankOrNull(startDate) && !GenericValidator.isBlankOrNull(endDate)) {
-                startDate = endDate;
-            }
-            if (GenericValidator.isBlankOrNull(endDate) && !GenericValidator.isBlankOrNull(startDate)) {
-                endDate = startDate;
-            }
-            java.sql.Timestamp startTimestamp = GenericValidator.isBlankOrNull(startDate) ? null
-                    : DateUtil.convertStringDateStringTimeToTimestamp(startDate, "00:00:00.0");
-            java.sql.Timestamp endTimestamp = GenericValidator.isBlankOrNull(endDate) ? null
-                    : DateUtil.convertStringDateStringTimeToTimestamp(endDate, "23:59:59");
-            return getAllElectronicOrdersByTimestampAndStatus(startTimestamp, endTimestamp, form.getStatusId(),
-                    SortOrder.STATUS_ID);
+            Timestamp[] timestampRange = getSearchTimestampRange(form);
+            return baseObjectDAO.getCountOfElectronicOrdersByTimestampAndStatus(timestampRange[0],
+                    timestampRange[1], form.getStatusId());
         default:
+            return 0;
+        }
+    }
+
+    /**
+     * @return the searched value and the ids of the ServiceRequests in the FHIR
+     *         store with it as identifier, null for searches that are not by
+     *         identifier
+     */
+    private List<String> getIdentifierSearchValues(ElectronicOrderViewForm form) {
+        if (form.getSearchType() != ElectronicOrderViewForm.SearchType.IDENTIFIER) {
             return null;
         }
+        IGenericClient fhirClient = fhirUtil.getFhirClient(fhirConfig.getLocalFhirStorePath());
+        Bundle searchBundle = fhirClient.search().forResource(ServiceRequest.class)
+                .where(ServiceRequest.IDENTIFIER.exactly().code(form.getSearchValue())).returnBundle(Bundle.class)
+                .execute();
+
+        List<String> identifierValues = new ArrayList<>(searchBundle.getEntry().size() + 1);
+        identifierValues.add(form.getSearchValue());
+        for (BundleEntryComponent bundleEntry : searchBundle.getEntry()) {
+            if (bundleEntry.hasResource()
+                    && ResourceType.ServiceRequest.equals(bundleEntry.getResource().getResourceType())) {
+                identifierValues.add(bundleEntry.getResource().getIdElement().getIdPart());
+            }
+        }
+        return identifierValues;
+    }
+
+    private Timestamp[] getSearchTimestampRange(ElectronicOrderViewForm form) {
+        String startDate = form.getStartDate();
+        String endDate = form.getEndDate();
+        if (GenericValidator.isBlankOrNull(startDate) && !GenericValidator.isBlankOrNull(endDate)) {
+            startDate = endDate;
+        }
+        if (GenericValidator.isBlankOrNull(endDate) && !GenericValidator.isBlankOrNull(startDate)) {
+            endDate = startDate;
+        }
+        Timestamp startTimestamp = GenericValidator.isBlankOrNull(startDate) ? null
+                : DateUtil.convertStringDateStringTimeToTimestamp(startDate, "00:00:00.0");
+        Timestamp endTimestamp = GenericValidator.isBlankOrNull(endDate) ? null
+                : DateUtil.convertStringDateStringTimeToTimestamp(endDate, "23:59:59");
+        return new Timestamp[] { startTimestamp, endTimestamp };
     }
 
     @Override
@@ -0,0 +1,44 @@
+package org.openelisglobal.dataexchange.service.order;
+
+import java.util.List;
+import org.openelisglobal.common.service.BaseObjectService;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeQueueMetrics;
+
+public interface OrderIntakeService extends BaseObjectService<OrderIntakeMessage, Long> {
+
+    /**
+     * @return true if received orders are queued and processed in the background
+     *         instead of on the request thread
+     */
+    boolean isAsyncIntakeEnabled();
+
+    /**
+     * Queues a message for processing. A retransmission of a message that was
+     * already received is not queued again
+     *
+     * @return the queued message, or the earlier copy for a retransmission
+     */
+    OrderIntakeMessage enqueue(String sendingApplication, String messageControlId, String externalOrderId,
+            String message);
+
+    OrderIntakeMessage getByMessageKey(String sendingApplication, String messageControlId);
+
+    List<OrderIntakeMessage> claimQueued(int batchSize);
+
+    void markProcessed(OrderIntakeMessage intakeMessage, String resultCode, String applicationAck);
+
+    void markFailed(OrderIntakeMessage intakeMessage, String errorDetail, String applicationAck);
+
+    /** Puts a message back on the queue after a failed attempt */
+    void requeue(OrderIntakeMessage intakeMessage, String errorDetail);
+
+    /**
+     * Requeues messages left in PROCESSING longer than the claim timeout, e.g. by a
+     * node that shut down during processing. Messages other nodes are still
+     * working on are left alone
+     */
+    int requeueExpiredClaims();
+
+    OrderIntakeQueueMetrics getQueueMetrics();
+}
@@ -0,0 +1,115 @@
+package org.openelisglobal.dataexchange.service.order;
+
+import java.sql.Timestamp;
+import java.util.List;
+import org.openelisglobal.common.service.BaseObjectServiceImpl;
+import org.openelisglobal.common.util.DateUtil;
+import org.openelisglobal.dataexchange.order.dao.OrderIntakeMessageDAO;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeMessage.Status;
+import org.openelisglobal.dataexchange.order.valueholder.OrderIntakeQueueMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OrderIntakeServiceImpl extends BaseObjectServiceImpl<OrderIntakeMessage, Long>
+        implements OrderIntakeService {
+
+    private static final long ONE_HOUR_MILLIS = 60L * 60L * 1000L;
+
+    @Autowired
+    protected OrderIntakeMessageDAO baseObjectDAO;
+
+    @Value("${org.openelisglobal.hl7.order.intake.async:false}")
+    private boolean asyncIntake;
+
+    @Value("${org.openelisglobal.hl7.order.intake.claimTimeout:600000}")
+    private long claimTimeout;
+
+    OrderIntakeServiceImpl() {
+        super(OrderIntakeMessage.class);
+    }
+
+    @Override
+    protected OrderIntakeMessageDAO getBaseObjectDAO() {
+        return baseObjectDAO;
+    }
+
+    @Override
+    public boolean isAsyncIntakeEnabled() {
+        return asyncIntake;
+    }
+
+    @Override
+    @Transactional
+    public OrderIntakeMessage enqueue(String sendingApplication, String messageControlId, String externalOrderId,
+            String message) {
+        getBaseObjectDAO().insertIfAbsent(sendingApplication, messageControlId, externalOrderId, message);
+        return getBaseObjectDAO().getByMessageKey(sendingApplication, messageControlId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderIntakeMessage getByMessageKey(String sendingApplication, String messageControlId) {
+        return getBaseObjectDAO().getByMessageKey(sendingApplication, messageControlId);
+    }
+
+    @Override
+    @Transactional
+    public List<OrderIntakeMessage> claimQueued(int batchSize) {
+        return getBaseObjectDAO().claimDue(batchSize, DateUtil.getNowAsTimestamp());
+    }
+
+    @Override
+    @Transactional
+    public void markProcessed(OrderIntakeMessage intakeMessage, String resultCode, String applicationAck) {
+        intakeMessage.setStatus(Status.PROCESSED);
+        intakeMessage.setResultCode(resultCode);
+        intakeMessage.setApplicationAck(applicationAck);
+        intakeMessage.setErrorDetail(null);
+        intakeMessage.setProcessedTime(DateUtil.getNowAsTimestamp());
+        update(intakeMessage);
+    }
+
+    @Override
+    @Transactional
+    public void markFailed(OrderIntakeMessage intakeMessage, String errorDetail, String applicationAck) {
+        intakeMessage.setStatus(Status.FAILED);
+        intakeMessage.setErrorDetail(errorDetail);
+        intakeMessage.setApplicationAck(applicationAck);
+        intakeMessage.setProcessedTime(DateUtil.getNowAsTimestamp());
+        update(intakeMessage);
+    }
+
+    @Override
+    @Transactional
+    public void requeue(OrderIntakeMessage intakeMessage, String errorDetail) {
+        intakeMessage.setStatus(Status.QUEUED);
+        intakeMessage.setClaimedAt(null);
+        intakeMessage.setErrorDetail(errorDetail);
+        update(intakeMessage);
+    }
+
+    @Override
+    @Transactional
+    public int requeueExpiredClaims() {
+        return getBaseObjectDAO().requeueClaimedBefore(new Timestamp(System.currentTimeMillis() - claimTimeout));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderIntakeQueueMetrics getQueueMetrics() {
+        long now = System.currentTimeMillis();
+        Timestamp oneHourAgo = new Timestamp(now - ONE_HOUR_MILLIS);
+
+        OrderIntakeQueueMetrics metrics = new OrderIntakeQueueMetrics();
+        metrics.setCountsByStatus(getBaseObjectDAO().getCountsByStatus());
+        Timestamp oldestQueued = getBaseObjectDAO().getOldestQueuedTime(Status.QUEUED);
+        metrics.setOldestQueuedAgeMillis(oldestQueued == null ? null : now - oldestQueued.getTime());
+        metrics.setProcessedLastHour(getBaseObjectDAO().getProcessedCount(oneHourAgo));
+        metrics.setAverageProcessingMillisLastHour(getBaseObjectDAO().getAverageProcessingMillis(oneHourAgo));
+        return metrics;
+    }
+}
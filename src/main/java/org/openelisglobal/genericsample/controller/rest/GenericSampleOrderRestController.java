@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.Map;
 import org.openelisglobal.common.controller.BaseController;
 import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.genericsample.form.GenericSampleImportJob;
 import org.openelisglobal.genericsample.form.GenericSampleImportResult;
 import org.openelisglobal.genericsample.form.GenericSampleOrderForm;
 import org.openelisglobal.genericsample.service.GenericSampleOrderService;
@@ -134,10 +135,10 @@ public class GenericSampleOrderRestController extends BaseController {
 
             String sysUserId = getSysUserId(request);
             InputStream inputStream = file.getInputStream();
-            Map<String, Object> result = genericSampleOrderService.importSamplesFromFile(inputStream,
+            GenericSampleImportJob job = genericSampleOrderService.submitImport(inputStream,
                     file.getOriginalFilename(), file.getContentType(), sysUserId);
 
-            return ResponseEntity.ok(result);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (Exception e) {
             LogEvent.logError(e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -145,4 +146,16 @@ public class GenericSampleOrderRestController extends BaseController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    @GetMapping(value = "/GenericSampleOrder/import/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getImportJob(HttpServletRequest request, @PathVariable String jobId) {
+        GenericSampleImportJob job = genericSampleOrderService.getImportJob(jobId);
+        // only the user who submitted the job may follow it
+        if (job == null || !job.getSysUserId().equals(getSysUserId(request))) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Import job not found: " + jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+        return ResponseEntity.ok(job);
+    }
 }
@@ -0,0 +1,167 @@
+package org.openelisglobal.genericsample.form;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and outcome of a sample import running in the background. Rows are
+ * read and samples are created by different threads, so the counters and lists
+ * may be updated while the job is being reported.
+ */
+public class GenericSampleImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String jobId;
+    private final String fileName;
+    private final String sysUserId;
+    private final Timestamp submitted;
+    private volatile Timestamp started;
+    private volatile Timestamp finished;
+    private volatile Status status = Status.QUEUED;
+    private volatile String error;
+
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicInteger samplesToCreate = new AtomicInteger();
+    private final AtomicInteger totalCreated = new AtomicInteger();
+    private final AtomicInteger totalFailed = new AtomicInteger();
+    private final List<String> createdAccessionNumbers = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+
+    public GenericSampleImportJob(String jobId, String fileName, String sysUserId) {
+        this.jobId = jobId;
+        this.fileName = fileName;
+        this.sysUserId = sysUserId;
+        this.submitted = new Timestamp(System.currentTimeMillis());
+    }
+
+    public void start() {
+        started = new Timestamp(System.currentTimeMillis());
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finished = new Timestamp(System.currentTimeMillis());
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finished = new Timestamp(System.currentTimeMillis());
+        status = Status.FAILED;
+    }
+
+    public void rowRead(int samples) {
+        rowsRead.incrementAndGet();
+        samplesToCreate.addAndGet(samples);
+    }
+
+    public void rowRejected(int rowNumber, List<String> rowErrors) {
+        rowsRead.incrementAndGet();
+        totalFailed.incrementAndGet();
+        addError("Row " + rowNumber + ": " + String.join(", ", rowErrors));
+    }
+
+    public void sampleCreated(String accessionNumber) {
+        totalCreated.incrementAndGet();
+        synchronized (createdAccessionNumbers) {
+            createdAccessionNumbers.add(accessionNumber);
+        }
+    }
+
+    public void sampleFailed(String error) {
+        totalFailed.incrementAndGet();
+        addError(error);
+    }
+
+    private void addError(String error) {
+        synchronized (errors) {
+            errors.add(error);
+        }
+    }
+
+    public boolean isDone() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.COMPLETED;
+    }
+
+    public String getMessage() {
+        switch (status) {
+        case COMPLETED:
+            return "Imported " + totalCreated.get() + " samples successfully";
+        case FAILED:
+            return "Import failed after creating " + totalCreated.get() + " samples";
+        default:
+            return "Created " + totalCreated.get() + " of " + samplesToCreate.get() + " samples read so far";
+        }
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    @JsonIgnore
+    public String getSysUserId() {
+        return sysUserId;
+    }
+
+    public Timestamp getSubmitted() {
+        return submitted;
+    }
+
+    public Timestamp getStarted() {
+        return started;
+    }
+
+    public Timestamp getFinished() {
+        return finished;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public int getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public int getSamplesToCreate() {
+        return samplesToCreate.get();
+    }
+
+    public int getTotalCreated() {
+        return totalCreated.get();
+    }
+
+    public int getTotalFailed() {
+        return totalFailed.get();
+    }
+
+    public List<String> getCreatedAccessionNumbers() {
+        synchronized (createdAccessionNumbers) {
+            return new ArrayList<>(createdAccessionNumbers);
+        }
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.openelisglobal.genericsample.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvException;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.validator.GenericValidator;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Reads the rows of a sample import file one at a time, keyed by the
+ * normalized header names. CSV files are read as they are streamed; .xls
+ * workbooks have to be loaded whole by POI, but their rows are still only
+ * turned into maps as they are asked for.
+ */
+abstract class GenericSampleImportReader implements Closeable {
+
+    private final List<String> headers = new ArrayList<>();
+
+    static GenericSampleImportReader open(InputStream inputStream, String fileName, String contentType)
+            throws IOException, CsvException {
+        if (fileName.toLowerCase().endsWith(".csv") || (contentType != null && contentType.contains("text/csv"))) {
+            return new CsvReader(inputStream);
+        } else if (fileName.toLowerCase().endsWith(".xls")
+                || (contentType != null && (contentType.contains("spreadsheet") || contentType.contains("excel")))) {
+            return new ExcelReader(inputStream);
+        } else {
+            throw new IOException("Unsupported file type. Please use CSV or Excel (.xls) files.");
+        }
+    }
+
+    /**
+     * @return the normalized header names, empty if the file has no header row
+     */
+    List<String> getHeaders() {
+        return Collections.unmodifiableList(headers);
+    }
+
+    /**
+     * @return the next data row, null when there are no more
+     */
+    abstract Map<String, String> nextRow() throws IOException, CsvException;
+
+    protected void setHeaders(String[] headerArray) {
+        normalizeHeaders(headerArray);
+        for (String header : headerArray) {
+            headers.add(header);
+        }
+    }
+
+    static void normalizeHeaders(String[] headers) {
+        for (int i = 0; i < headers.length; i++) {
+            String headerValue = headers[i];
+            if (headerValue == null) {
+                headers[i] = "column" + (i + 1);
+                continue;
+            }
+
+            String trimmed = headerValue.trim();
+            if (GenericValidator.isBlankOrNull(trimmed)) {
+                headers[i] = "column" + (i + 1);
+                continue;
+            }
+
+            String lower = trimmed.toLowerCase();
+            if ("#".equals(trimmed) || "#".equals(lower) || "no.".equals(lower) || "no".equals(lower)) {
+                headers[i] = "number";
+                continue;
+            }
+
+            String normalized = lower.replaceAll("\\s+", "").replaceAll("[^a-z0-9]", "");
+            if (GenericValidator.isBlankOrNull(normalized)) {
+                normalized = "column" + (i + 1);
+            }
+            headers[i] = normalized;
+        }
+    }
+
+    private static class CsvReader extends GenericSampleImportReader {
+        private final CSVReader csvReader;
+
+        private CsvReader(InputStream inputStream) throws IOException, CsvException {
+            csvReader = new CSVReader(
+                    new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+            String[] headerArray = csvReader.readNext();
+            if (headerArray != null) {
+                setHeaders(headerArray);
+            }
+        }
+
+        @Override
+        Map<String, String> nextRow() throws IOException, CsvException {
+            String[] values = csvReader.readNext();
+            if (values == null) {
+                return null;
+            }
+            List<String> headers = getHeaders();
+            Map<String, String> row = new HashMap<>();
+            for (int j = 0; j < headers.size() && j < values.length; j++) {
+                row.put(headers.get(j), values[j] != null ? values[j].trim() : "");
+            }
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            csvReader.close();
+        }
+    }
+
+    private static class ExcelReader extends GenericSampleImportReader {
+        private final Workbook workbook;
+        private final Sheet sheet;
+        private int nextRowIndex = 1;
+
+        private ExcelReader(InputStream inputStream) throws IOException {
+            workbook = new HSSFWorkbook(inputStream);
+            sheet = workbook.getSheetAt(0);
+
+            Row headerRow = sheet.getRow(0);
+            if (headerRow != null) {
+                List<String> headerValues = new ArrayList<>();
+                for (Cell cell : headerRow) {
+                    headerValues.add(getCellValueAsString(cell).trim());
+                }
+                setHeaders(headerValues.toArray(new String[0]));
+            } else {
+                // no header row, so no data rows either
+                nextRowIndex = Integer.MAX_VALUE;
+            }
+        }
+
+        @Override
+        Map<String, String> nextRow() {
+            List<String> headers = getHeaders();
+            while (nextRowIndex <= sheet.getLastRowNum()) {
+                Row row = sheet.getRow(nextRowIndex++);
+                if (row == null) {
+                    continue;
+                }
+
+                Map<String, String> rowData = new HashMap<>();
+                for (int j = 0; j < headers.size(); j++) {
+                    String value = getCellValueAsString(row.getCell(j));
+                    rowData.put(headers.get(j), value != null ? value.trim() : "");
+                }
+                return rowData;
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            workbook.close();
+        }
+
+        private static String getCellValueAsString(Cell cell) {
+            if (cell == null) {
+                return "";
+            }
+
+            switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getDateCellValue().toString();
+                } else {
+                    // Format as integer if it's a whole number, otherwise as decimal
+                    double numValue = cell.getNumericCellValue();
+                    if (numValue == Math.floor(numValue)) {
+                        return String.valueOf((long) numValue);
+                    } else {
+                        return String.valueOf(numValue);
+                    }
+                }
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            case FORMULA:
+                return cell.getCellFormula();
+            default:
+                return "";
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package org.openelisglobal.genericsample.service;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
+import org.openelisglobal.genericsample.form.GenericSampleImportJob;
 import org.openelisglobal.genericsample.form.GenericSampleImportResult;
 import org.openelisglobal.genericsample.form.GenericSampleOrderForm;
 
@@ -13,12 +16,30 @@ public interface GenericSampleOrderService {
     Map<String, Object> saveGenericSampleOrderInternal(GenericSampleOrderForm form, String sysUserId)
             throws FhirLocalPersistingException;
 
+    /**
+     * Saves the samples in one transaction, used for a chunk of an import.
+     */
+    List<Map<String, Object>> saveGenericSampleOrdersInternal(List<GenericSampleOrderForm> forms, String sysUserId)
+            throws FhirLocalPersistingException;
+
     GenericSampleOrderForm getGenericSampleOrderByAccessionNumber(String accessionNumber);
 
     Map<String, Object> updateGenericSampleOrder(String accessionNumber, GenericSampleOrderForm form, String sysUserId);
 
     GenericSampleImportResult validateImportFile(InputStream inputStream, String fileName, String contentType);
 
-    Map<String, Object> importSamplesFromFile(InputStream inputStream, String fileName, String contentType,
-            String sysUserId);
+    /**
+     * Queues the file to be imported in the background. The stream is copied
+     * before this returns.
+     *
+     * @return the job to follow the import's progress by
+     */
+    GenericSampleImportJob submitImport(InputStream inputStream, String fileName, String contentType,
+            String sysUserId) throws IOException;
+
+    /**
+     * @return the import job, null if unknown or finished long enough ago to have
+     *         been dropped
+     */
+    GenericSampleImportJob getImportJob(String jobId);
 }
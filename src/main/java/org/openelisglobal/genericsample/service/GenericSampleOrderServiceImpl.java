@@ -1,25 +1,33 @@
 package org.openelisglobal.genericsample.service;
 
 import ca.uhn.fhir.rest.client.api.IGenericClient;
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvException;
-import java.io.BufferedReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.validator.GenericValidator;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.*;
 import org.hl7.fhir.r4.model.BooleanType;
 import org.hl7.fhir.r4.model.Coding;
 import org.hl7.fhir.r4.model.DateType;
@@ -32,6 +40,7 @@ import org.hl7.fhir.r4.model.QuestionnaireResponse;
 import org.hl7.fhir.r4.model.QuestionnaireResponse.QuestionnaireResponseItemAnswerComponent;
 import org.hl7.fhir.r4.model.QuestionnaireResponse.QuestionnaireResponseItemComponent;
 import org.hl7.fhir.r4.model.QuestionnaireResponse.QuestionnaireResponseStatus;
+import org.hl7.fhir.r4.model.Resource;
 import org.hl7.fhir.r4.model.StringType;
 import org.hl7.fhir.r4.model.TimeType;
 import org.hl7.fhir.r4.model.Type;
@@ -45,6 +54,7 @@ import org.openelisglobal.dataexchange.fhir.FhirConfig;
 import org.openelisglobal.dataexchange.fhir.FhirUtil;
 import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
 import org.openelisglobal.dataexchange.fhir.service.FhirPersistanceService;
+import org.openelisglobal.genericsample.form.GenericSampleImportJob;
 import org.openelisglobal.genericsample.form.GenericSampleImportResult;
 import org.openelisglobal.genericsample.form.GenericSampleImportResult.ImportRow;
 import org.openelisglobal.genericsample.form.GenericSampleOrderForm;
@@ -69,8 +79,11 @@ import org.openelisglobal.typeofsample.valueholder.TypeOfSample;
 import org.openelisglobal.unitofmeasure.service.UnitOfMeasureService;
 import org.openelisglobal.unitofmeasure.valueholder.UnitOfMeasure;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class GenericSampleOrderServiceImpl implements GenericSampleOrderService {
@@ -81,6 +94,23 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
     @Autowired
     private GenericSampleOrderService self;
 
+    @Value("${org.openelisglobal.genericsample.import.threads:4}")
+    private int importThreads;
+
+    @Value("${org.openelisglobal.genericsample.import.chunkSize:50}")
+    private int importChunkSize;
+
+    @Value("${org.openelisglobal.genericsample.import.concurrentJobs:2}")
+    private int concurrentImportJobs;
+
+    @Value("${org.openelisglobal.genericsample.import.retentionMinutes:60}")
+    private int importJobRetentionMinutes;
+
+    // files are read one per job thread, their samples are saved by the workers
+    private ExecutorService importJobExecutor;
+    private ExecutorService importWorkerExecutor;
+    private final Map<String, GenericSampleImportJob> importJobs = new ConcurrentHashMap<>();
+
     @Autowired
     private SampleService sampleService;
 
@@ -122,6 +152,18 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
     @Autowired
     private FhirConfig fhirConfig;
 
+    @PostConstruct
+    private void initImportExecutors() {
+        importJobExecutor = Executors.newFixedThreadPool(concurrentImportJobs);
+        importWorkerExecutor = Executors.newFixedThreadPool(importThreads);
+    }
+
+    @PreDestroy
+    private void shutdownImportExecutors() {
+        importJobExecutor.shutdownNow();
+        importWorkerExecutor.shutdownNow();
+    }
+
     @Override
     public Map<String, Object> saveGenericSampleOrder(GenericSampleOrderForm form, String sysUserId)
             throws FhirLocalPersistingException {
@@ -433,7 +475,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
                     form.getFhirResponses(), questionnaireResponseUuid);
             LogEvent.logInfo(this.getClass().getSimpleName(), "saveProgramSample",
                     "Saving QuestionnaireResponse to FHIR store for sample: " + sample.getAccessionNumber());
-            fhirPersistanceService.updateFhirResourceInFhirStore(questionnaireResponse);
+            updateFhirResourceAfterCommit(questionnaireResponse);
             LogEvent.logInfo(this.getClass().getSimpleName(), "saveProgramSample",
                     "QuestionnaireResponse saved successfully to FHIR store");
         }
@@ -495,7 +537,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
                     form.getFhirResponses(), questionnaireResponseUuid);
             LogEvent.logInfo(this.getClass().getSimpleName(), "saveNotebookSample",
                     "Saving QuestionnaireResponse to FHIR store for sample: " + sample.getAccessionNumber());
-            fhirPersistanceService.updateFhirResourceInFhirStore(questionnaireResponse);
+            updateFhirResourceAfterCommit(questionnaireResponse);
             LogEvent.logInfo(this.getClass().getSimpleName(), "saveNotebookSample",
                     "QuestionnaireResponse saved successfully to FHIR store");
         }
@@ -954,6 +996,44 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
         return result;
     }
 
+    /**
+     * Writes the resource to the FHIR store once the transaction saving its sample
+     * commits, so a rolled back import chunk leaves nothing behind in the store.
+     * The resources of one transaction are written in one bundle.
+     */
+    private void updateFhirResourceAfterCommit(Resource resource) throws FhirLocalPersistingException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            fhirPersistanceService.updateFhirResourceInFhirStore(resource);
+            return;
+        }
+        FhirResourcesAfterCommit pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof FhirResourcesAfterCommit) {
+                pending = (FhirResourcesAfterCommit) synchronization;
+            }
+        }
+        if (pending == null) {
+            pending = new FhirResourcesAfterCommit();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.resources.put(resource.getIdElement().getIdPart(), resource);
+    }
+
+    private class FhirResourcesAfterCommit implements TransactionSynchronization {
+
+        private final Map<String, Resource> resources = new LinkedHashMap<>();
+
+        @Override
+        public void afterCommit() {
+            try {
+                fhirPersistanceService.updateFhirResourcesInFhirStore(resources);
+            } catch (FhirLocalPersistingException | RuntimeException e) {
+                LogEvent.logError("Could not write " + resources.size()
+                        + " questionnaire responses to the FHIR store after saving their samples", e);
+            }
+        }
+    }
+
     private QuestionnaireResponse getQuestionnaireResponseFromFhir(String uuid) {
         try {
             if (StringUtils.isBlank(fhirConfig.getLocalFhirStorePath())) {
@@ -1096,7 +1176,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
                 try {
                     QuestionnaireResponse questionnaireResponse = createQuestionnaireResponse(
                             form.getFhirQuestionnaire(), form.getFhirResponses(), questionnaireResponseUuid);
-                    fhirPersistanceService.updateFhirResourceInFhirStore(questionnaireResponse);
+                    updateFhirResourceAfterCommit(questionnaireResponse);
                 } catch (FhirLocalPersistingException e) {
                     LogEvent.logError("Failed to update QuestionnaireResponse to FHIR store", e);
                 }
@@ -1148,7 +1228,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
                 try {
                     QuestionnaireResponse questionnaireResponse = createQuestionnaireResponse(
                             form.getFhirQuestionnaire(), form.getFhirResponses(), questionnaireResponseUuid);
-                    fhirPersistanceService.updateFhirResourceInFhirStore(questionnaireResponse);
+                    updateFhirResourceAfterCommit(questionnaireResponse);
                 } catch (FhirLocalPersistingException e) {
                     LogEvent.logError("Failed to update QuestionnaireResponse to FHIR store", e);
                 }
@@ -1164,12 +1244,8 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
     public GenericSampleImportResult validateImportFile(InputStream inputStream, String fileName, String contentType) {
         GenericSampleImportResult result = new GenericSampleImportResult();
 
-        try {
-            ParseResult parseResult = parseFile(inputStream, fileName, contentType);
-            List<String> headers = parseResult.getHeaders();
-            List<Map<String, String>> dataRows = parseResult.getDataRows();
-
-            result.setTotalRows(dataRows.size());
+        try (GenericSampleImportReader reader = GenericSampleImportReader.open(inputStream, fileName, contentType)) {
+            List<String> headers = reader.getHeaders();
 
             // Validate headers
             if (headers.isEmpty()) {
@@ -1190,21 +1266,23 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
             }
 
             // Validate each data row
+            ImportLookups lookups = new ImportLookups();
             int validCount = 0;
             int invalidCount = 0;
             int totalSamples = 0;
+            int rowNumber = 1; // 1-based for user display, row 1 is the header
 
-            for (int i = 0; i < dataRows.size(); i++) {
-                Map<String, String> row = dataRows.get(i);
-                int rowNumber = i + 2; // 1-based for user display (row 1 is header, row 2 is first data)
+            Map<String, String> row;
+            while ((row = reader.nextRow()) != null) {
+                rowNumber++;
 
                 GenericSampleOrderForm.DefaultFields defaultFields = new GenericSampleOrderForm.DefaultFields();
-                List<String> rowErrors = validateAndPopulateRow(row, defaultFields, rowNumber);
+                List<String> rowErrors = validateAndPopulateRow(row, defaultFields, rowNumber, lookups);
 
                 // Validate notebook if specified
                 String notebookValue = findValue(row, "notebook", "notebookid", "notebook_id");
                 if (!GenericValidator.isBlankOrNull(notebookValue)) {
-                    NoteBook notebook = findNotebookByTitleOrId(notebookValue);
+                    NoteBook notebook = lookups.getNotebook(notebookValue);
                     if (notebook == null) {
                         rowErrors.add("notebook: Notebook not found: '" + notebookValue
                                 + "'. Please use a valid notebook title or ID.");
@@ -1232,6 +1310,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
                 }
             }
 
+            result.setTotalRows(rowNumber - 1);
             result.setValidRows(validCount);
             result.setInvalidRows(invalidCount);
             result.setTotalSamplesToCreate(totalSamples);
@@ -1247,385 +1326,326 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
     }
 
     @Override
-    public synchronized Map<String, Object> importSamplesFromFile(InputStream inputStream, String fileName,
-            String contentType, String sysUserId) {
-        Map<String, Object> result = new HashMap<>();
-        List<String> createdAccessionNumbers = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
-        int totalCreated = 0;
-        int totalFailed = 0;
+    public GenericSampleImportJob submitImport(InputStream inputStream, String fileName, String contentType,
+            String sysUserId) throws IOException {
+        removeFinishedImportJobs();
 
+        // the upload can only be read while the request lasts
+        Path file = Files.createTempFile("generic-sample-import-", null);
         try {
-            ParseResult parseResult = parseFile(inputStream, fileName, contentType);
-            List<Map<String, String>> dataRows = parseResult.getDataRows();
-
-            if (dataRows.isEmpty()) {
-                result.put("success", false);
-                result.put("error", "File has no data rows");
-                return result;
-            }
-
-            // Note: Questionnaire will be loaded per row based on notebook column if
-            // present
-            // If no notebook is specified, no questionnaire will be loaded
-
-            // Process each data row
-            for (int i = 0; i < dataRows.size(); i++) {
-                Map<String, String> row = dataRows.get(i);
-                int rowNumber = i + 2; // 1-based for user display (row 1 is header)
-
-                GenericSampleOrderForm.DefaultFields defaultFields = new GenericSampleOrderForm.DefaultFields();
-                List<String> validationErrors = validateAndPopulateRow(row, defaultFields, rowNumber);
-
-                if (!validationErrors.isEmpty()) {
-                    totalFailed++;
-                    errors.add("Row " + rowNumber + ": " + String.join(", ", validationErrors));
-                    continue;
-                }
-
-                // Get sample quantity (look for column with sample quantity)
-                int sampleQuantity = parseSampleQuantity(findValue(row, "samplequantity", "numberofsamples", "qty"));
-
-                // Create samples based on quantity
-                // Each sample will auto-generate its own accession number in its own
-                // transaction
-                for (int j = 0; j < sampleQuantity; j++) {
-                    try {
-                        GenericSampleOrderForm form = new GenericSampleOrderForm();
-                        GenericSampleOrderForm.DefaultFields fieldsForSample = new GenericSampleOrderForm.DefaultFields();
-
-                        // Copy all fields - but leave labNo empty so it auto-generates
-                        // (CSV doesn't have labNo column, so defaultFields.getLabNo() will be empty)
-                        fieldsForSample.setLabNo(""); // Force empty to trigger auto-generation
-                        fieldsForSample.setSampleTypeId(defaultFields.getSampleTypeId());
-                        fieldsForSample.setQuantity(defaultFields.getQuantity());
-                        fieldsForSample.setSampleUnitOfMeasure(defaultFields.getSampleUnitOfMeasure());
-                        fieldsForSample.setFrom(defaultFields.getFrom());
-                        fieldsForSample.setCollector(defaultFields.getCollector());
-                        fieldsForSample.setCollectionDate(defaultFields.getCollectionDate());
-                        fieldsForSample.setCollectionTime(defaultFields.getCollectionTime());
-
-                        form.setDefaultFields(fieldsForSample);
-
-                        // Check if CSV has notebook column and load notebook-specific questionnaire
-                        String notebookValue = findValue(row, "notebook", "notebookid", "notebook_id");
-                        Questionnaire questionnaireToUse = null;
-
-                        if (!GenericValidator.isBlankOrNull(notebookValue)) {
-                            // Try to find notebook by title or ID
-                            NoteBook notebook = findNotebookByTitleOrId(notebookValue);
-                            if (notebook != null) {
-                                form.setNotebookId(notebook.getId());
-
-                                // Load questionnaire from notebook
-                                if (notebook.getQuestionnaireFhirUuid() != null) {
-                                    try {
-                                        IGenericClient fhirClient = fhirUtil.getLocalFhirClient();
-                                        questionnaireToUse = fhirClient.read().resource(Questionnaire.class)
-                                                .withId(notebook.getQuestionnaireFhirUuid().toString()).execute();
-                                    } catch (Exception e) {
-                                        LogEvent.logError("Could not load questionnaire for notebook: " + notebookValue,
-                                                e);
-                                        // Add error and skip this row
-                                        totalFailed++;
-                                        errors.add("Row " + rowNumber + ", Sample " + (j + 1)
-                                                + ": Invalid notebook - could not load questionnaire for notebook '"
-                                                + notebookValue + "'");
-                                        continue;
-                                    }
-                                }
-                            } else {
-                                // Notebook not found - add error and skip this row
-                                totalFailed++;
-                                errors.add("Row " + rowNumber + ", Sample " + (j + 1) + ": Notebook not found: '"
-                                        + notebookValue + "'. Please use a valid notebook title or ID.");
-                                LogEvent.logWarn(this.getClass().getSimpleName(), "importSamplesFromFile",
-                                        "Notebook not found: " + notebookValue + " for row " + rowNumber);
-                                continue;
-                            }
-                        }
-
-                        // Dynamically map CSV columns to questionnaire responses
-                        if (questionnaireToUse != null) {
-                            form.setFhirQuestionnaire(questionnaireToUse);
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
 
-                            // Build questionnaire responses by matching CSV columns to questionnaire fields
-                            Map<String, Object> fhirResponses = mapCsvToQuestionnaireResponses(row, questionnaireToUse);
+        GenericSampleImportJob job = new GenericSampleImportJob(UUID.randomUUID().toString(), fileName, sysUserId);
+        importJobs.put(job.getJobId(), job);
+        importJobExecutor.execute(() -> runImport(job, file, contentType));
+        LogEvent.logInfo(this.getClass().getSimpleName(), "submitImport",
+                "Queued import job " + job.getJobId() + " for file " + fileName);
+        return job;
+    }
 
-                            // Only set responses if we have at least one
-                            if (!fhirResponses.isEmpty()) {
-                                form.setFhirResponses(fhirResponses);
-                                LogEvent.logInfo(this.getClass().getSimpleName(), "importSamplesFromFile", "Mapped "
-                                        + fhirResponses.size() + " questionnaire responses for row " + rowNumber);
-                            }
-                        }
+    @Override
+    public GenericSampleImportJob getImportJob(String jobId) {
+        return importJobs.get(jobId);
+    }
 
-                        Map<String, Object> saveResult = self.saveGenericSampleOrderInternal(form, sysUserId);
-                        if (saveResult.get("success") != null && Boolean.TRUE.equals(saveResult.get("success"))) {
-                            totalCreated++;
-                            String accessionNumber = (String) saveResult.get("accessionNumber");
-                            if (accessionNumber != null) {
-                                createdAccessionNumbers.add(accessionNumber);
-                            }
-                        } else {
-                            // This shouldn't happen if saveGenericSampleOrder throws on error
-                            String errorMsg = "Row " + rowNumber + ", Sample " + (j + 1) + ": "
-                                    + saveResult.get("error");
-                            errors.add(errorMsg);
-                            LogEvent.logError(errorMsg, null);
-                            throw new RuntimeException(errorMsg);
-                        }
-                    } catch (Exception e) {
-                        // Log the error with full context and root cause
-                        String errorMsg = "Row " + rowNumber + ", Sample " + (j + 1) + ": " + e.getMessage();
-                        errors.add(errorMsg);
-
-                        // Log with detailed information
-                        String logMsg = "Error creating sample from import row " + rowNumber + ", sample " + (j + 1);
-                        if (e.getCause() != null) {
-                            logMsg += ". Root cause: " + e.getCause().getClass().getSimpleName() + " - "
-                                    + e.getCause().getMessage();
-                        }
-                        LogEvent.logError(logMsg, e);
-                        // Also log the exception directly to ensure full stack trace
-                        LogEvent.logError(e);
-
-                        // Log root cause separately if it exists
-                        if (e.getCause() != null) {
-                            LogEvent.logError(
-                                    "Root cause exception for import row " + rowNumber + ", sample " + (j + 1),
-                                    e.getCause());
-                            LogEvent.logError(e.getCause());
-                        }
+    @Override
+    @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
+    public List<Map<String, Object>> saveGenericSampleOrdersInternal(List<GenericSampleOrderForm> forms,
+            String sysUserId) throws FhirLocalPersistingException {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (GenericSampleOrderForm form : forms) {
+            // called directly so every sample joins this transaction
+            results.add(saveGenericSampleOrderInternal(form, sysUserId));
+        }
+        return results;
+    }
 
-                        // Rethrow to rollback entire transaction
-                        throw new RuntimeException(
-                                "Import failed at row " + rowNumber + ", sample " + (j + 1) + ": " + e.getMessage(), e);
+    /*
+     * Reads the file on the import job thread and hands the samples to the worker
+     * pool in chunks, each saved in one transaction. At most twice as many chunks
+     * as there are workers are waiting at any time, so a large file is never held
+     * in memory as samples.
+     */
+    private void runImport(GenericSampleImportJob job, Path file, String contentType) {
+        job.start();
+        LogEvent.logInfo(this.getClass().getSimpleName(), "runImport",
+                "Starting import job " + job.getJobId() + " for file " + job.getFileName());
+
+        Semaphore chunksInFlight = new Semaphore(importThreads * 2);
+        List<Future<?>> chunks = new ArrayList<>();
+        String failure = null;
+        int rowNumber = 1; // 1-based for user display, row 1 is the header
+
+        try (InputStream inputStream = Files.newInputStream(file);
+                GenericSampleImportReader reader = GenericSampleImportReader.open(inputStream, job.getFileName(),
+                        contentType)) {
+            ImportLookups lookups = new ImportLookups();
+            List<ImportSample> chunk = new ArrayList<>();
+
+            Map<String, String> row;
+            while ((row = reader.nextRow()) != null) {
+                rowNumber++;
+                for (ImportSample sample : createImportSamples(row, rowNumber, lookups, job)) {
+                    chunk.add(sample);
+                    if (chunk.size() >= importChunkSize) {
+                        chunks.add(submitImportChunk(job, chunk, chunksInFlight));
+                        chunk = new ArrayList<>();
                     }
                 }
             }
-
-            result.put("success", true);
-            result.put("totalCreated", totalCreated);
-            result.put("totalFailed", totalFailed);
-            result.put("createdAccessionNumbers", createdAccessionNumbers);
-            result.put("errors", errors);
-            result.put("message", "Imported " + totalCreated + " samples successfully");
-
-            LogEvent.logInfo(this.getClass().getSimpleName(), "importSamplesFromFile",
-                    "Import completed successfully. Total created: " + totalCreated + ". About to commit transaction.");
-
-        } catch (Exception e) {
-            // Log the error with full details - transaction will rollback automatically
-            String logMsg = "Error importing samples from file - transaction rolled back";
-            if (e.getCause() != null) {
-                logMsg += ". Root cause: " + e.getCause().getClass().getSimpleName() + " - "
-                        + e.getCause().getMessage();
-            } else {
-                logMsg += ". Error: " + e.getClass().getSimpleName() + " - " + e.getMessage();
-            }
-            LogEvent.logError(logMsg, e);
-            // Also log the exception directly to ensure full stack trace
-            LogEvent.logError(e);
-
-            // Log root cause separately if it exists
-            if (e.getCause() != null) {
-                LogEvent.logError("Root cause exception for import file", e.getCause());
-                LogEvent.logError(e.getCause());
+            if (!chunk.isEmpty()) {
+                chunks.add(submitImportChunk(job, chunk, chunksInFlight));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Import was interrupted";
+        } catch (Exception e) {
+            LogEvent.logError("Error reading import file " + job.getFileName() + " at row " + rowNumber, e);
+            failure = "Error reading file at row " + rowNumber + ": " + e.getMessage();
+        }
 
-            // Build comprehensive error message
-            StringBuilder errorMsg = new StringBuilder("Import failed and transaction rolled back. ");
-            if (!errors.isEmpty()) {
-                errorMsg.append("Errors encountered: ");
-                errorMsg.append(String.join("; ", errors));
-                errorMsg.append(". ");
-            }
-            errorMsg.append("Root cause: ").append(e.getMessage());
-            if (e.getCause() != null) {
-                errorMsg.append(" (Caused by: ").append(e.getCause().getClass().getSimpleName()).append(" - ")
-                        .append(e.getCause().getMessage()).append(")");
+        // the chunks already handed to the workers are finished either way
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = "Import was interrupted";
+                break;
+            } catch (ExecutionException e) {
+                LogEvent.logError("Error saving samples for import job " + job.getJobId(), e.getCause());
+                failure = "Error saving samples: " + e.getCause().getMessage();
             }
-
-            result.put("success", false);
-            result.put("error", errorMsg.toString());
-            result.put("errors", errors);
-            result.put("totalCreated", 0);
-            result.put("totalFailed", totalFailed);
-
-            // Rethrow to ensure transaction rollback
-            throw new RuntimeException(errorMsg.toString(), e);
         }
 
-        return result;
-    }
-
-    private static class ParseResult {
-        private List<String> headers;
-        private List<Map<String, String>> dataRows;
-
-        public ParseResult(List<String> headers, List<Map<String, String>> dataRows) {
-            this.headers = headers;
-            this.dataRows = dataRows;
+        if (failure == null && rowNumber == 1) {
+            failure = "File has no data rows";
         }
-
-        public List<String> getHeaders() {
-            return headers;
+        if (failure == null) {
+            job.complete();
+        } else {
+            job.fail(failure);
         }
+        LogEvent.logInfo(this.getClass().getSimpleName(), "runImport",
+                "Import job " + job.getJobId() + " " + job.getStatus() + ". Created: " + job.getTotalCreated()
+                        + ", failed: " + job.getTotalFailed());
 
-        public List<Map<String, String>> getDataRows() {
-            return dataRows;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LogEvent.logError("Could not delete import file " + file, e);
         }
     }
 
-    private ParseResult parseFile(InputStream inputStream, String fileName, String contentType)
-            throws IOException, CsvException {
-        if (fileName.toLowerCase().endsWith(".csv") || (contentType != null && contentType.contains("text/csv"))) {
-            return parseCSV(inputStream);
-        } else if (fileName.toLowerCase().endsWith(".xls")
-                || (contentType != null && (contentType.contains("spreadsheet") || contentType.contains("excel")))) {
-            return parseExcel(inputStream, fileName);
-        } else {
-            throw new IOException("Unsupported file type. Please use CSV or Excel (.xls) files.");
+    private List<ImportSample> createImportSamples(Map<String, String> row, int rowNumber, ImportLookups lookups,
+            GenericSampleImportJob job) {
+        List<ImportSample> samples = new ArrayList<>();
+
+        GenericSampleOrderForm.DefaultFields defaultFields = new GenericSampleOrderForm.DefaultFields();
+        List<String> validationErrors = validateAndPopulateRow(row, defaultFields, rowNumber, lookups);
+        if (!validationErrors.isEmpty()) {
+            job.rowRejected(rowNumber, validationErrors);
+            return samples;
+        }
+
+        // Check if the row names a notebook and load the notebook's questionnaire
+        String notebookValue = findValue(row, "notebook", "notebookid", "notebook_id");
+        NoteBook notebook = null;
+        Questionnaire questionnaire = null;
+        if (!GenericValidator.isBlankOrNull(notebookValue)) {
+            notebook = lookups.getNotebook(notebookValue);
+            if (notebook == null) {
+                job.rowRejected(rowNumber, List.of(
+                        "Notebook not found: '" + notebookValue + "'. Please use a valid notebook title or ID."));
+                return samples;
+            }
+            if (notebook.getQuestionnaireFhirUuid() != null) {
+                questionnaire = lookups.getQuestionnaire(notebook);
+                if (questionnaire == null) {
+                    job.rowRejected(rowNumber, List.of("Invalid notebook - could not load questionnaire for notebook '"
+                            + notebookValue + "'"));
+                    return samples;
+                }
+            }
         }
-    }
 
-    private ParseResult parseCSV(InputStream inputStream) throws IOException, CsvException {
-        List<String> headers = new ArrayList<>();
-        List<Map<String, String>> dataRows = new ArrayList<>();
+        // Dynamically map the row's columns to questionnaire responses, the same for
+        // every sample of the row
+        Map<String, Object> fhirResponses = questionnaire == null ? new HashMap<>()
+                : mapCsvToQuestionnaireResponses(row, questionnaire);
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"))) {
-            CSVReader csvReader = new CSVReader(reader);
-            List<String[]> allRows = csvReader.readAll();
+        int sampleQuantity = parseSampleQuantity(findValue(row, "samplequantity", "numberofsamples", "qty"));
+        job.rowRead(sampleQuantity);
+        for (int j = 0; j < sampleQuantity; j++) {
+            GenericSampleOrderForm form = new GenericSampleOrderForm();
+            GenericSampleOrderForm.DefaultFields fieldsForSample = new GenericSampleOrderForm.DefaultFields();
 
-            if (allRows.isEmpty()) {
-                return new ParseResult(headers, dataRows);
-            }
+            // labNo is left empty, an accession number is reserved for every sample
+            // when its chunk is saved
+            fieldsForSample.setLabNo("");
+            fieldsForSample.setSampleTypeId(defaultFields.getSampleTypeId());
+            fieldsForSample.setQuantity(defaultFields.getQuantity());
+            fieldsForSample.setSampleUnitOfMeasure(defaultFields.getSampleUnitOfMeasure());
+            fieldsForSample.setFrom(defaultFields.getFrom());
+            fieldsForSample.setCollector(defaultFields.getCollector());
+            fieldsForSample.setCollectionDate(defaultFields.getCollectionDate());
+            fieldsForSample.setCollectionTime(defaultFields.getCollectionTime());
+            form.setDefaultFields(fieldsForSample);
 
-            // First row is header
-            String[] headerArray = allRows.get(0);
-            normalizeHeaders(headerArray);
-            for (String header : headerArray) {
-                headers.add(header);
+            if (notebook != null) {
+                form.setNotebookId(notebook.getId());
             }
-
-            // Process data rows
-            for (int i = 1; i < allRows.size(); i++) {
-                String[] values = allRows.get(i);
-                Map<String, String> row = new HashMap<>();
-
-                for (int j = 0; j < headers.size() && j < values.length; j++) {
-                    row.put(headers.get(j), values[j] != null ? values[j].trim() : "");
+            if (questionnaire != null) {
+                form.setFhirQuestionnaire(questionnaire);
+                // Only set responses if we have at least one
+                if (!fhirResponses.isEmpty()) {
+                    form.setFhirResponses(fhirResponses);
                 }
-
-                dataRows.add(row);
             }
+            samples.add(new ImportSample(rowNumber, j + 1, form));
         }
-
-        return new ParseResult(headers, dataRows);
+        return samples;
     }
 
-    private ParseResult parseExcel(InputStream inputStream, String fileName) throws IOException {
-        List<String> headers = new ArrayList<>();
-        List<Map<String, String>> dataRows = new ArrayList<>();
-
-        Workbook workbook = new HSSFWorkbook(inputStream);
-
-        Sheet sheet = workbook.getSheetAt(0);
-
-        // Get header row
-        Row headerRow = sheet.getRow(0);
-        if (headerRow == null) {
-            workbook.close();
-            return new ParseResult(headers, dataRows);
+    private Future<?> submitImportChunk(GenericSampleImportJob job, List<ImportSample> chunk, Semaphore chunksInFlight)
+            throws InterruptedException {
+        chunksInFlight.acquire();
+        try {
+            return importWorkerExecutor.submit(() -> {
+                try {
+                    saveImportChunk(job, chunk);
+                } finally {
+                    chunksInFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            chunksInFlight.release();
+            throw e;
         }
+    }
 
-        for (Cell cell : headerRow) {
-            String headerValue = getCellValueAsString(cell).trim();
-            headers.add(headerValue);
-        }
-        String[] headerArray = headers.toArray(new String[0]);
-        normalizeHeaders(headerArray);
-        headers.clear();
-        for (String header : headerArray) {
-            headers.add(header);
+    /*
+     * Saves the chunk in one transaction. If any sample in it fails the chunk is
+     * rolled back and its samples are saved one at a time, so only the failing ones
+     * are reported.
+     */
+    private void saveImportChunk(GenericSampleImportJob job, List<ImportSample> chunk) {
+        try {
+            reserveAccessionNumbers(chunk);
+            List<GenericSampleOrderForm> forms = new ArrayList<>();
+            for (ImportSample sample : chunk) {
+                forms.add(sample.form);
+            }
+            for (Map<String, Object> saveResult : self.saveGenericSampleOrdersInternal(forms, job.getSysUserId())) {
+                job.sampleCreated((String) saveResult.get("accessionNumber"));
+            }
+            return;
+        } catch (Exception e) {
+            LogEvent.logWarn(this.getClass().getSimpleName(), "saveImportChunk",
+                    "Saving the " + chunk.size() + " samples from row " + chunk.get(0).rowNumber
+                            + " failed, saving them one at a time. " + e.getMessage());
         }
 
-        // Process data rows
-        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-            Row row = sheet.getRow(i);
-            if (row == null) {
-                continue;
+        for (ImportSample sample : chunk) {
+            try {
+                Map<String, Object> saveResult = self.saveGenericSampleOrderInternal(sample.form,
+                        job.getSysUserId());
+                job.sampleCreated((String) saveResult.get("accessionNumber"));
+            } catch (Exception e) {
+                LogEvent.logError("Error creating sample from import row " + sample.rowNumber + ", sample "
+                        + sample.sampleNumber, e);
+                job.sampleFailed("Row " + sample.rowNumber + ", Sample " + sample.sampleNumber + ": " + e.getMessage());
             }
+        }
+    }
 
-            Map<String, String> rowData = new HashMap<>();
-            for (int j = 0; j < headers.size(); j++) {
-                Cell cell = row.getCell(j);
-                String value = getCellValueAsString(cell);
-                rowData.put(headers.get(j), value != null ? value.trim() : "");
+    /*
+     * Reserves the accession numbers for a whole chunk under ACCESSION_NUMBER_LOCK
+     * so the chunk's samples can then be inserted without holding it. The generator
+     * reserves each number as it is handed out, so a number already in the
+     * database only means the counter is out of sync.
+     */
+    private void reserveAccessionNumbers(List<ImportSample> chunk) {
+        List<String> accessionNumbers = new ArrayList<>();
+        synchronized (ACCESSION_NUMBER_LOCK) {
+            for (int i = 0; i < chunk.size(); i++) {
+                accessionNumbers.add(getNextAccessionNumber());
+            }
+        }
+
+        int maxAttempts = 100; // Prevent infinite loop
+        for (int i = 0; i < chunk.size(); i++) {
+            String accessionNumber = accessionNumbers.get(i);
+            int attempts = 0;
+            while (sampleService.getSampleByAccessionNumber(accessionNumber) != null) {
+                if (++attempts >= maxAttempts) {
+                    throw new RuntimeException(
+                            "Failed to generate unique accession number after " + maxAttempts + " attempts");
+                }
+                LogEvent.logWarn(this.getClass().getSimpleName(), "reserveAccessionNumbers",
+                        "Generated accession number " + accessionNumber
+                                + " already exists in database. This indicates the accession_number_info counter is"
+                                + " out of sync. Retrying... (attempt " + attempts + ")");
+                synchronized (ACCESSION_NUMBER_LOCK) {
+                    accessionNumber = getNextAccessionNumber();
+                }
             }
-
-            dataRows.add(rowData);
+            chunk.get(i).form.getDefaultFields().setLabNo(accessionNumber);
         }
+    }
 
-        workbook.close();
-        return new ParseResult(headers, dataRows);
+    private void removeFinishedImportJobs() {
+        long cutoff = System.currentTimeMillis() - importJobRetentionMinutes * 60 * 1000L;
+        importJobs.values().removeIf(job -> job.isDone() && job.getFinished().getTime() < cutoff);
     }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
+    private static class ImportSample {
+        private final int rowNumber;
+        private final int sampleNumber;
+        private final GenericSampleOrderForm form;
 
-        switch (cell.getCellType()) {
-        case STRING:
-            return cell.getStringCellValue();
-        case NUMERIC:
-            if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
-                return cell.getDateCellValue().toString();
-            } else {
-                // Format as integer if it's a whole number, otherwise as decimal
-                double numValue = cell.getNumericCellValue();
-                if (numValue == Math.floor(numValue)) {
-                    return String.valueOf((long) numValue);
-                } else {
-                    return String.valueOf(numValue);
-                }
-            }
-        case BOOLEAN:
-            return String.valueOf(cell.getBooleanCellValue());
-        case FORMULA:
-            return cell.getCellFormula();
-        default:
-            return "";
+        private ImportSample(int rowNumber, int sampleNumber, GenericSampleOrderForm form) {
+            this.rowNumber = rowNumber;
+            this.sampleNumber = sampleNumber;
+            this.form = form;
         }
     }
 
-    private void normalizeHeaders(String[] headers) {
-        for (int i = 0; i < headers.length; i++) {
-            String headerValue = headers[i];
-            if (headerValue == null) {
-                headers[i] = "column" + (i + 1);
-                continue;
-            }
+    /*
+     * Lookups made while reading one import file. The rows of a file name the same
+     * few notebooks, sample types and units over and over, so each is resolved once
+     * per file, and a notebook's questionnaire is read from the FHIR server once
+     * rather than once per sample. A questionnaire that could not be read is not
+     * retried for the rest of the file.
+     */
+    private class ImportLookups {
+        private final Map<String, Optional<TypeOfSample>> typesOfSample = new HashMap<>();
+        private final Map<String, Optional<UnitOfMeasure>> unitsOfMeasure = new HashMap<>();
+        private final Map<String, Optional<NoteBook>> notebooks = new HashMap<>();
+        private final Map<UUID, Optional<Questionnaire>> questionnaires = new HashMap<>();
 
-            String trimmed = headerValue.trim();
-            if (GenericValidator.isBlankOrNull(trimmed)) {
-                headers[i] = "column" + (i + 1);
-                continue;
-            }
+        private TypeOfSample getTypeOfSample(String identifier) {
+            return typesOfSample.computeIfAbsent(identifier, key -> Optional.ofNullable(findTypeOfSample(key)))
+                    .orElse(null);
+        }
 
-            String lower = trimmed.toLowerCase();
-            if ("#".equals(trimmed) || "#".equals(lower) || "no.".equals(lower) || "no".equals(lower)) {
-                headers[i] = "number";
-                continue;
-            }
+        private UnitOfMeasure getUnitOfMeasure(String identifier) {
+            return unitsOfMeasure.computeIfAbsent(identifier, key -> Optional.ofNullable(findUnitOfMeasure(key)))
+                    .orElse(null);
+        }
 
-            String normalized = lower.replaceAll("\\s+", "").replaceAll("[^a-z0-9]", "");
-            if (GenericValidator.isBlankOrNull(normalized)) {
-                normalized = "column" + (i + 1);
-            }
-            headers[i] = normalized;
+        private NoteBook getNotebook(String identifier) {
+            return notebooks.computeIfAbsent(identifier, key -> Optional.ofNullable(findNotebookByTitleOrId(key)))
+                    .orElse(null);
+        }
+
+        private Questionnaire getQuestionnaire(NoteBook notebook) {
+            return questionnaires.computeIfAbsent(notebook.getQuestionnaireFhirUuid(),
+                    uuid -> Optional.ofNullable(loadQuestionnaire(uuid.toString()))).orElse(null);
         }
     }
 
@@ -1649,7 +1669,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
     }
 
     private List<String> validateAndPopulateRow(Map<String, String> row,
-            GenericSampleOrderForm.DefaultFields defaultFields, int rowNumber) {
+            GenericSampleOrderForm.DefaultFields defaultFields, int rowNumber, ImportLookups lookups) {
         List<String> errors = new ArrayList<>();
 
         // Find lab number (try multiple column names)
@@ -1665,7 +1685,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
         String sampleTypeId = findValue(row, "sampletypeid", "sampletype", "type");
         if (!GenericValidator.isBlankOrNull(sampleTypeId)) {
             // Try to find by ID or description
-            TypeOfSample typeOfSample = findTypeOfSample(sampleTypeId);
+            TypeOfSample typeOfSample = lookups.getTypeOfSample(sampleTypeId);
             if (typeOfSample != null) {
                 defaultFields.setSampleTypeId(typeOfSample.getId());
                 LogEvent.logInfo(this.getClass().getSimpleName(), "validateAndPopulateRow",
@@ -1696,7 +1716,7 @@ public class GenericSampleOrderServiceImpl implements GenericSampleOrderService
         // Unit of measure
         String uom = findValue(row, "sampleunitofmeasure", "uom", "unit");
         if (!GenericValidator.isBlankOrNull(uom)) {
-            UnitOfMeasure unitOfMeasure = findUnitOfMeasure(uom);
+            UnitOfMeasure unitOfMeasure = lookups.getUnitOfMeasure(uom);
             if (unitOfMeasure != null) {
                 defaultFields.setSampleUnitOfMeasure(unitOfMeasure.getId());
             } else {
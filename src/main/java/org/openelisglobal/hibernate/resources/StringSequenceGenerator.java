@@ -10,6 +10,12 @@ import org.hibernate.service.ServiceRegistry;
 import org.hibernate.type.LongType;
 import org.hibernate.type.Type;
 
+/**
+ * Sequence generator for the String ids of the hbm mapped entities. Mappings
+ * that set an increment_size above 1 get the optimizer configured by
+ * hibernate.id.optimizer.pooled.preferred (pooled-lo) and take that many ids
+ * per nextval; the database sequence must be altered to the same increment.
+ */
 public class StringSequenceGenerator extends SequenceStyleGenerator {
     private String numberFormat = "%d";
 
@@ -1,10 +1,13 @@
 package org.openelisglobal.hibernate.search.massindexer;
 
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.hibernate.search.massindexer.ReindexStatus.Mode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -14,13 +17,27 @@ public class MassIndexerRestController {
     @Autowired
     MassIndexerService massIndexerService;
 
+    /**
+     * Starts a reindex in the background and returns immediately. Progress is
+     * available from /rest/reindex/status.
+     *
+     * @return true if the run was started, false if a run is already in progress
+     */
     @GetMapping("/reindex")
-    public ResponseEntity<Boolean> reindex() {
+    public ResponseEntity<Boolean> reindex(@RequestParam(defaultValue = "false") boolean incremental,
+            @RequestParam(defaultValue = "false") boolean purge) {
         try {
-            massIndexerService.reindex();
-            return ResponseEntity.ok(true);
-        } catch (Exception e) {
+            boolean started = massIndexerService.startReindex(incremental ? Mode.INCREMENTAL : Mode.FULL, purge);
+            return started ? ResponseEntity.status(HttpStatus.ACCEPTED).body(true)
+                    : ResponseEntity.status(HttpStatus.CONFLICT).body(false);
+        } catch (RuntimeException e) {
+            LogEvent.logError(e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(false);
         }
     }
+
+    @GetMapping("/reindex/status")
+    public ResponseEntity<ReindexStatus> reindexStatus() {
+        return ResponseEntity.ok(massIndexerService.getStatus());
+    }
 }
@@ -1,31 +1,229 @@
 package org.openelisglobal.hibernate.search.massindexer;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.commons.validator.GenericValidator;
 import org.hibernate.search.mapper.orm.Search;
 import org.hibernate.search.mapper.orm.massindexing.MassIndexer;
-import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.hibernate.search.massindexer.ReindexStatus.Mode;
+import org.openelisglobal.patient.valueholder.Patient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+/**
+ * Rebuilds the Lucene indexes in the background.
+ *
+ * <p>
+ * Runs do not purge the index by default, documents are replaced in place so
+ * searches keep working against the existing index while the rebuild is in
+ * progress. Incremental runs only reindex patients whose patient or person row
+ * changed since the start of the last completed run. The watermark and any run
+ * in progress are recorded next to the index so an interrupted run can be
+ * resumed after a restart.
+ */
 @Service
 public class MassIndexerService {
+
+    private static final String INDEX_ROOT_PROPERTY = "hibernate.search.backend.directory.root";
+    private static final String DEFAULT_INDEX_ROOT = "/var/lib/lucene_index";
+    private static final String STATE_FILE_NAME = "reindex-state.properties";
+    private static final String LAST_COMPLETED_WATERMARK = "lastCompletedWatermark";
+    private static final String RUNNING_MODE = "runningMode";
+    private static final String RUNNING_SINCE = "runningSince";
+
     @PersistenceContext
     EntityManager entityManager;
 
+    @Autowired
+    private PatientReindexer patientReindexer;
+
     // parameters to allow tuning the MassIndexer for optimal performance
 
-    private int idFetchSize = 100;
+    @Value("${org.openelisglobal.search.reindex.idFetchSize:100}")
+    private int idFetchSize;
+
+    @Value("${org.openelisglobal.search.reindex.batchSize:25}")
+    private int batchSizeToLoadObjects;
+
+    @Value("${org.openelisglobal.search.reindex.threads:6}")
+    private int threadsToLoadObjects;
+
+    @Value("${org.openelisglobal.search.reindex.logInterval:10000}")
+    private long logInterval;
+
+    @Value("${org.openelisglobal.search.reindex.resumeOnStartup:true}")
+    private boolean resumeOnStartup;
+
+    private volatile ReindexStatus status = ReindexStatus.idle();
+
+    private final ExecutorService incrementalExecutor = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    private void shutdown() {
+        incrementalExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts a reindex in the background.
+     *
+     * @param mode  FULL reindexes every patient, INCREMENTAL only those changed
+     *              since the last completed run (falls back to FULL if there is
+     *              none)
+     * @param purge empty the index before a FULL run. Searches return incomplete
+     *              results until the run finishes
+     * @return false if a run is already in progress
+     */
+    public synchronized boolean startReindex(Mode mode, boolean purge) {
+        if (status.isRunning()) {
+            return false;
+        }
+        Long since = mode == Mode.INCREMENTAL ? readLastCompletedWatermark() : null;
+        return start(since == null ? Mode.FULL : Mode.INCREMENTAL, since, purge);
+    }
+
+    public ReindexStatus getStatus() {
+        return status;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void resumeInterruptedReindex() {
+        if (!resumeOnStartup || status.isRunning()) {
+            return;
+        }
+        Properties state = loadStateProperties();
+        String runningMode = state.getProperty(RUNNING_MODE);
+        if (GenericValidator.isBlankOrNull(runningMode)) {
+            return;
+        }
+        String runningSince = state.getProperty(RUNNING_SINCE);
+        Long since = GenericValidator.isLong(runningSince) ? Long.valueOf(runningSince) : null;
+        LogEvent.logInfo(this.getClass().getSimpleName(), "resumeInterruptedReindex",
+                "resuming interrupted " + runningMode + " reindex");
+        start(since == null ? Mode.FULL : Mode.INCREMENTAL, since, false);
+    }
+
+    private boolean start(Mode mode, Long since, boolean purge) {
+        // taken before any rows are read so changes made during the run are picked
+        // up by the next incremental run
+        long watermark = System.currentTimeMillis();
+        ReindexStatus runStatus = new ReindexStatus(mode, since, watermark);
+        ReindexProgressMonitor monitor = new ReindexProgressMonitor(runStatus, logInterval);
+
+        writeState(null, mode, since);
+        status = runStatus;
+        LogEvent.logInfo(this.getClass().getSimpleName(), "start",
+                "starting " + mode + " reindex" + (since == null ? "" : " of changes since " + new Timestamp(since)));
+        CompletableFuture<?> run = since == null ? startMassIndexer(purge, monitor)
+                : CompletableFuture.runAsync(() -> reindexChangedSince(new Timestamp(since), monitor),
+                        incrementalExecutor);
+        run.whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                runStatus.completed(System.currentTimeMillis());
+                writeState(watermark, null, null);
+            } else {
+                runStatus.failed(System.currentTimeMillis(), throwable.getMessage());
+                LogEvent.logError("reindex failed", throwable);
+            }
+        });
+        return true;
+    }
+
+    private CompletableFuture<?> startMassIndexer(boolean purge, ReindexProgressMonitor monitor) {
+        MassIndexer indexer = Search.mapping(entityManager.getEntityManagerFactory()).scope(Patient.class)
+                .massIndexer().idFetchSize(idFetchSize).batchSizeToLoadObjects(batchSizeToLoadObjects)
+                .threadsToLoadObjects(threadsToLoadObjects).purgeAllOnStart(purge).mergeSegmentsOnFinish(true)
+                .monitor(monitor);
+        return indexer.start().toCompletableFuture();
+    }
+
+    /**
+     * The mass indexer in this Hibernate Search version can only go through every
+     * entity of a type, so incremental runs look up the changed patient ids and
+     * reindex them a batch at a time through the indexing plan
+     */
+    private void reindexChangedSince(Timestamp since, ReindexProgressMonitor monitor) {
+        List<String> patientIds = patientReindexer.getPatientIdsChangedSince(since);
+        monitor.addToTotalCount(patientIds.size());
+        int chunkSize = Math.max(1, batchSizeToLoadObjects);
+        for (int i = 0; i < patientIds.size(); i += chunkSize) {
+            List<String> chunk = patientIds.subList(i, Math.min(i + chunkSize, patientIds.size()));
+            patientReindexer.reindex(chunk);
+            monitor.entitiesLoaded(chunk.size());
+            monitor.documentsBuilt(chunk.size());
+            monitor.documentsAdded(chunk.size());
+        }
+        monitor.indexingCompleted();
+    }
 
-    private int batchSizeToLoadObjects = 10;
+    private Long readLastCompletedWatermark() {
+        String watermark = loadStateProperties().getProperty(LAST_COMPLETED_WATERMARK);
+        return GenericValidator.isLong(watermark) ? Long.valueOf(watermark) : null;
+    }
 
-    private int threadsToLoadObjects = 6;
+    private Properties loadStateProperties() {
+        Properties state = new Properties();
+        Path stateFile = getStateFile();
+        if (Files.exists(stateFile)) {
+            try (InputStream in = Files.newInputStream(stateFile)) {
+                state.load(in);
+            } catch (IOException e) {
+                LogEvent.logError(e);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @param completedWatermark replaces the last completed watermark when not
+     *                           null
+     * @param runningMode        marks a run in progress, null clears the marker
+     */
+    private synchronized void writeState(Long completedWatermark, Mode runningMode, Long runningSince) {
+        Properties state = loadStateProperties();
+        if (completedWatermark != null) {
+            state.setProperty(LAST_COMPLETED_WATERMARK, completedWatermark.toString());
+        }
+        state.remove(RUNNING_MODE);
+        state.remove(RUNNING_SINCE);
+        if (runningMode != null) {
+            state.setProperty(RUNNING_MODE, runningMode.name());
+            if (runningSince != null) {
+                state.setProperty(RUNNING_SINCE, runningSince.toString());
+            }
+        }
+        Path stateFile = getStateFile();
+        try {
+            Files.createDirectories(stateFile.getParent());
+            Path tempFile = stateFile.resolveSibling(STATE_FILE_NAME + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                state.store(out, "OpenELIS search reindex state");
+            }
+            Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LogEvent.logError(e);
+        }
+    }
 
-    @Transactional
-    public void reindex() throws Exception {
-        SearchSession searchSession = Search.session(entityManager);
-        MassIndexer indexer = searchSession.massIndexer();
-        indexer.idFetchSize(idFetchSize).batchSizeToLoadObjects(batchSizeToLoadObjects)
-                .threadsToLoadObjects(threadsToLoadObjects).startAndWait();
+    private Path getStateFile() {
+        Object indexRoot = entityManager.getEntityManagerFactory().getProperties().get(INDEX_ROOT_PROPERTY);
+        return Paths.get(indexRoot == null ? DEFAULT_INDEX_ROOT : indexRoot.toString(), STATE_FILE_NAME);
     }
 }
@@ -0,0 +1,44 @@
+package org.openelisglobal.hibernate.search.massindexer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.List;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.openelisglobal.patient.valueholder.Patient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reindexes the patients changed since a point in time through the indexing
+ * plan, one chunk of ids per transaction, for incremental runs where the mass
+ * indexer would go through every patient.
+ */
+@Component
+public class PatientReindexer {
+
+    private static final String CHANGED_SINCE_CONDITION = "e.lastupdated > :since or e.person.lastupdated > :since";
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public List<String> getPatientIdsChangedSince(Timestamp since) {
+        return entityManager
+                .createQuery("select e.id from Patient e where " + CHANGED_SINCE_CONDITION + " order by e.id",
+                        String.class)
+                .setParameter("since", since).getResultList();
+    }
+
+    @Transactional
+    public void reindex(List<String> patientIds) {
+        SearchIndexingPlan indexingPlan = Search.session(entityManager).indexingPlan();
+        List<Patient> patients = entityManager.createQuery("from Patient e where e.id in (:ids)", Patient.class)
+                .setParameter("ids", patientIds).getResultList();
+        for (Patient patient : patients) {
+            indexingPlan.addOrUpdate(patient);
+        }
+        indexingPlan.execute();
+    }
+}
@@ -0,0 +1,52 @@
+package org.openelisglobal.hibernate.search.massindexer;
+
+import org.hibernate.search.mapper.pojo.massindexing.MassIndexingMonitor;
+import org.openelisglobal.common.log.LogEvent;
+
+/**
+ * Feeds mass indexer progress into a {@link ReindexStatus} and logs throughput
+ * every {@code logInterval} documents.
+ */
+public class ReindexProgressMonitor implements MassIndexingMonitor {
+
+    private final ReindexStatus status;
+    private final long logInterval;
+
+    public ReindexProgressMonitor(ReindexStatus status, long logInterval) {
+        this.status = status;
+        this.logInterval = logInterval;
+    }
+
+    @Override
+    public void documentsAdded(long increment) {
+        long before = status.getDocumentsAdded();
+        status.addDocumentsAdded(increment);
+        if (logInterval > 0 && (before + increment) / logInterval > before / logInterval) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "documentsAdded",
+                    String.format("reindexed %d of %d documents (%.1f docs/s)", status.getDocumentsAdded(),
+                            status.getTotalCount(), status.getDocumentsPerSecond()));
+        }
+    }
+
+    @Override
+    public void documentsBuilt(long increment) {
+        status.addDocumentsBuilt(increment);
+    }
+
+    @Override
+    public void entitiesLoaded(long increment) {
+        status.addEntitiesLoaded(increment);
+    }
+
+    @Override
+    public void addToTotalCount(long count) {
+        status.addToTotalCount(count);
+    }
+
+    @Override
+    public void indexingCompleted() {
+        LogEvent.logInfo(this.getClass().getSimpleName(), "indexingCompleted",
+                String.format("reindexed %d documents in %d ms", status.getDocumentsAdded(),
+                        status.getElapsedMillis()));
+    }
+}
@@ -0,0 +1,145 @@
+package org.openelisglobal.hibernate.search.massindexer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a single mass indexing run. Counters are updated concurrently by
+ * the mass indexer threads through {@link ReindexProgressMonitor} and read by
+ * the status endpoint.
+ */
+public class ReindexStatus {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    public enum Mode {
+        FULL, INCREMENTAL
+    }
+
+    private final Mode mode;
+    private final Long since;
+    private final long startedAt;
+    private volatile Long finishedAt;
+    private volatile State state;
+    private volatile String errorMessage;
+
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong entitiesLoaded = new AtomicLong();
+    private final AtomicLong documentsBuilt = new AtomicLong();
+    private final AtomicLong documentsAdded = new AtomicLong();
+
+    public ReindexStatus(Mode mode, Long since, long startedAt) {
+        this.mode = mode;
+        this.since = since;
+        this.startedAt = startedAt;
+        this.state = State.RUNNING;
+    }
+
+    private ReindexStatus() {
+        this.mode = null;
+        this.since = null;
+        this.startedAt = 0;
+        this.state = State.IDLE;
+    }
+
+    public static ReindexStatus idle() {
+        return new ReindexStatus();
+    }
+
+    public void completed(long time) {
+        finishedAt = time;
+        state = State.COMPLETED;
+    }
+
+    public void failed(long time, String message) {
+        finishedAt = time;
+        errorMessage = message;
+        state = State.FAILED;
+    }
+
+    void addToTotalCount(long count) {
+        totalCount.addAndGet(count);
+    }
+
+    void addEntitiesLoaded(long increment) {
+        entitiesLoaded.addAndGet(increment);
+    }
+
+    void addDocumentsBuilt(long increment) {
+        documentsBuilt.addAndGet(increment);
+    }
+
+    void addDocumentsAdded(long increment) {
+        documentsAdded.addAndGet(increment);
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the lastupdated watermark (epoch millis) an incremental run started
+     *         from, null for a full run
+     */
+    public Long getSince() {
+        return since;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.get();
+    }
+
+    public long getDocumentsBuilt() {
+        return documentsBuilt.get();
+    }
+
+    public long getDocumentsAdded() {
+        return documentsAdded.get();
+    }
+
+    public long getElapsedMillis() {
+        if (state == State.IDLE) {
+            return 0;
+        }
+        long end = finishedAt == null ? System.currentTimeMillis() : finishedAt;
+        return Math.max(end - startedAt, 0);
+    }
+
+    public double getDocumentsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getDocumentsAdded() * 1000.0 / elapsed;
+    }
+
+    public double getPercentComplete() {
+        if (state == State.COMPLETED) {
+            return 100;
+        }
+        long total = getTotalCount();
+        return total == 0 ? 0 : Math.min(getDocumentsAdded() * 100.0 / total, 100);
+    }
+}
@@ -1,11 +1,12 @@
 package org.openelisglobal.image.controller;
 
-import java.util.Base64;
 import java.util.Optional;
 import org.openelisglobal.common.util.IdValuePair;
 import org.openelisglobal.image.service.ImageService;
-import org.openelisglobal.image.valueholder.Image;
+import org.openelisglobal.image.valueholder.SiteImage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,13 +17,18 @@ public class DBImageController {
     @Autowired
     private ImageService imageService;
 
+    /**
+     * Site images are served from the image cache with the hash of the content as
+     * ETag. Browsers revalidate on each use and get a 304 without the image while
+     * it has not changed.
+     */
     @GetMapping(value = "/dbImage/siteInformation/{imageName}")
-    public IdValuePair getImage(@PathVariable String imageName) {
-        Optional<Image> image = imageService.getImageBySiteInfoName(imageName);
+    public ResponseEntity<IdValuePair> getImage(@PathVariable String imageName) {
+        Optional<SiteImage> image = imageService.getSiteImage(imageName);
         if (image.isEmpty()) {
-            return new IdValuePair(imageName, "");
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new IdValuePair(imageName, ""));
         }
-        String imageData = "data:image/jpg;base64," + Base64.getEncoder().encodeToString(image.get().getImage());
-        return new IdValuePair(imageName, imageData);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(image.get().getContentHash())
+                .body(new IdValuePair(imageName, image.get().getDataUrl()));
     }
 }
@@ -3,6 +3,7 @@ package org.openelisglobal.image.service;
 import java.util.Optional;
 import org.openelisglobal.common.service.BaseObjectService;
 import org.openelisglobal.image.valueholder.Image;
+import org.openelisglobal.image.valueholder.SiteImage;
 
 public interface ImageService extends BaseObjectService<Image, String> {
 
@@ -13,4 +14,14 @@ public interface ImageService extends BaseObjectService<Image, String> {
     Image getImageByDescription(String imageDescription);
 
     Optional<Image> getImageBySiteInfoName(String imageName);
+
+    /**
+     * The site image from an in memory cache. The cache is invalidated when an
+     * image is changed through this service, so callers such as reports and the
+     * image controller do not read the image from the database each time.
+     */
+    Optional<SiteImage> getSiteImage(String imageName);
+
+    /** Drops the cached site images, for when images are changed outside of this service */
+    void invalidateSiteImages();
 }
@@ -3,16 +3,23 @@ package org.openelisglobal.image.service;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.ServletContext;
 import java.io.File;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.service.AuditableBaseObjectServiceImpl;
 import org.openelisglobal.image.dao.ImageDAO;
 import org.openelisglobal.image.valueholder.Image;
+import org.openelisglobal.image.valueholder.SiteImage;
 import org.openelisglobal.siteinformation.service.SiteInformationService;
 import org.openelisglobal.siteinformation.valueholder.SiteInformation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class ImageServiceImpl extends AuditableBaseObjectServiceImpl<Image, String> implements ImageService {
@@ -27,6 +34,11 @@ public class ImageServiceImpl extends AuditableBaseObjectServiceImpl<Image, Stri
             + File.separator;
     public String FULL_PREVIEW_FILE_PATH;
 
+    // cached images are used while their version is the current one, a change
+    // moves to a new version once it is committed
+    private final Map<String, SiteImage> siteImageCache = new ConcurrentHashMap<>();
+    private final AtomicLong siteImageVersion = new AtomicLong();
+
     ImageServiceImpl() {
         super(Image.class);
         disableLogging();
@@ -79,4 +91,56 @@ public class ImageServiceImpl extends AuditableBaseObjectServiceImpl<Image, Stri
             return Optional.empty();
         }
     }
+
+    @Override
+    public Optional<SiteImage> getSiteImage(String imageName) {
+        long version = siteImageVersion.get();
+        SiteImage siteImage = siteImageCache.get(imageName);
+        if (siteImage == null || siteImage.getVersion() != version) {
+            siteImage = new SiteImage(imageName, version,
+                    getImageBySiteInfoName(imageName).map(Image::getImage).orElse(null));
+            siteImageCache.put(imageName, siteImage);
+        }
+        return siteImage.isPresent() ? Optional.of(siteImage) : Optional.empty();
+    }
+
+    @Override
+    public void invalidateSiteImages() {
+        siteImageVersion.incrementAndGet();
+        siteImageCache.clear();
+    }
+
+    private void invalidateSiteImagesAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateSiteImages();
+                }
+            });
+        } else {
+            invalidateSiteImages();
+        }
+    }
+
+    // the other changes go through these
+    @Override
+    @Transactional
+    public String insert(Image image) {
+        invalidateSiteImagesAfterCommit();
+        return super.insert(image);
+    }
+
+    @Override
+    protected Image update(Image image, String auditTrailType) {
+        invalidateSiteImagesAfterCommit();
+        return super.update(image, auditTrailType);
+    }
+
+    @Override
+    @Transactional
+    public void delete(Image image) {
+        invalidateSiteImagesAfterCommit();
+        super.delete(image);
+    }
 }
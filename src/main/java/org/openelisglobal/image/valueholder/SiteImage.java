@@ -0,0 +1,72 @@
+package org.openelisglobal.image.valueholder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+
+/**
+ * A site image (logo or signature) as it is handed out from the image cache.
+ * The content is shared, so it must not be modified.
+ */
+public class SiteImage {
+
+    private static final String DATA_URL_PREFIX = "data:image/jpg;base64,";
+
+    private final String name;
+    private final long version;
+    private final byte[] content;
+    private final String contentHash;
+    private final String dataUrl;
+
+    public SiteImage(String name, long version, byte[] content) {
+        this.name = name;
+        this.version = version;
+        this.content = content;
+        this.contentHash = content == null ? null : hash(content);
+        this.dataUrl = content == null ? "" : DATA_URL_PREFIX + Base64.getEncoder().encodeToString(content);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** @return the version of the site images this was loaded at */
+    public long getVersion() {
+        return version;
+    }
+
+    /** @return false if the site has no image under the name */
+    public boolean isPresent() {
+        return content != null;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /** @return the hex SHA-256 of the content, usable as a strong ETag */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getDataUrl() {
+        return dataUrl;
+    }
+
+    /** @return a new stream over the content, for report parameters */
+    public InputStream newInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new LIMSRuntimeException("SHA-256 is not available", e);
+        }
+    }
+}
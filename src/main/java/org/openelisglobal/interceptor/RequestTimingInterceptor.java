@@ -0,0 +1,52 @@
+package org.openelisglobal.interceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Times the requests handled by controller methods. It is the first
+ * interceptor, so the time includes the other interceptors and requests they
+ * reject, and is labelled by controller and method rather than by url so path
+ * variables do not create new series.
+ */
+@Component
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestTimingInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // async requests come through again when they are dispatched back
+        if (handler instanceof HandlerMethod && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long) || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String status = ex != null ? "5xx" : (response.getStatus() / 100) + "xx";
+        Timer.builder("openelis.http.request.duration").description("Duration of requests handled by controllers")
+                .tag("controller", handlerMethod.getBeanType().getSimpleName())
+                .tag("handler", handlerMethod.getMethod().getName()).tag("status", status).register(meterRegistry)
+                .record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+    }
+}
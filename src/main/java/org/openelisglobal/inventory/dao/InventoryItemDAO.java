@@ -1,5 +1,6 @@
 package org.openelisglobal.inventory.dao;
 
+import java.util.Collection;
 import java.util.List;
 import org.openelisglobal.common.dao.BaseDAO;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
@@ -34,10 +35,36 @@ public interface InventoryItemDAO extends BaseDAO<InventoryItem, Long> {
     InventoryItem getByFhirUuid(String fhirUuid) throws LIMSRuntimeException;
 
     /**
-     * Get items with low stock (total quantity < threshold) This requires joining
-     * with InventoryLot to calculate total stock
+     * Get items with low stock (available quantity < threshold)
      */
     List<InventoryItem> getLowStockItems() throws LIMSRuntimeException;
 
+    /**
+     * Get the consumable quantity of an item from its stock counter, 0 if the item
+     * does not exist
+     */
+    Double getAvailableQuantity(Long itemId) throws LIMSRuntimeException;
+
+    /**
+     * Takes the quantity off the item's stock counter if at least that much is
+     * available. The item row stays locked until the transaction ends, so
+     * concurrent consumers of the item are serialized here.
+     *
+     * @return false if less than the quantity is available
+     */
+    boolean reserveAvailableQuantity(Long itemId, Double quantity) throws LIMSRuntimeException;
+
+    /**
+     * Locks the item rows, in id order, before their lots are written, so lot writers
+     * take the locks in the same order as FEFO consumption
+     */
+    void lockForStockUpdate(Collection<Long> itemIds) throws LIMSRuntimeException;
+
+    /**
+     * Recomputes the stock counter of a locked item from its lots, after flushing
+     * the pending lot changes
+     */
+    void refreshAvailableQuantity(Long itemId) throws LIMSRuntimeException;
+
     List<ItemType> getAllItemTypes();
 }
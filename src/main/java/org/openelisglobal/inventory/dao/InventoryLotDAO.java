@@ -20,6 +20,18 @@ public interface InventoryLotDAO extends BaseDAO<InventoryLot, Long> {
      */
     List<InventoryLot> getAvailableLotsByItemFEFO(Long itemId) throws LIMSRuntimeException;
 
+    /**
+     * Same lots as getAvailableLotsByItemFEFO, locked for update until the
+     * transaction ends
+     */
+    List<InventoryLot> getAvailableLotsByItemFEFOForUpdate(Long itemId) throws LIMSRuntimeException;
+
+    /**
+     * Get the id of the item the lot belongs to in the database, ignoring changes
+     * to the lot not yet flushed. Null if the lot does not exist.
+     */
+    Long getInventoryItemId(Long lotId) throws LIMSRuntimeException;
+
     /**
      * Get lots expiring within specified days
      */
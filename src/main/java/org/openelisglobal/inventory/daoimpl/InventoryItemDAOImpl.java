@@ -3,7 +3,9 @@ package org.openelisglobal.inventory.daoimpl;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import java.util.Collection;
 import java.util.List;
+import org.hibernate.Session;
 import org.openelisglobal.common.daoimpl.BaseDAOImpl;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.openelisglobal.inventory.dao.InventoryItemDAO;
@@ -115,20 +117,70 @@ public class InventoryItemDAOImpl extends BaseDAOImpl<InventoryItem, Long> imple
     @Transactional(readOnly = true)
     public List<InventoryItem> getLowStockItems() throws LIMSRuntimeException {
         try {
-            // For this complex query with aggregations, we'll keep using native SQL
-            // or use a more complex Criteria API with subqueries
-            // For now, using a simpler approach with native query
-            String sql = "SELECT DISTINCT i.* FROM clinlims.inventory_item i "
-                    + "LEFT JOIN clinlims.inventory_lot l ON l.inventory_item_id = i.id "
-                    + "WHERE i.is_active = 'Y' AND i.low_stock_threshold IS NOT NULL " + "GROUP BY i.id "
-                    + "HAVING COALESCE(SUM(l.current_quantity), 0) < i.low_stock_threshold " + "ORDER BY i.name";
-
-            @SuppressWarnings("unchecked")
-            List<InventoryItem> results = entityManager.createNativeQuery(sql, InventoryItem.class).getResultList();
-
-            return results;
+            String hql = "FROM InventoryItem i WHERE i.isActive = 'Y' AND i.lowStockThreshold IS NOT NULL "
+                    + "AND i.availableQuantity < i.lowStockThreshold ORDER BY i.name";
+            return entityManager.createQuery(hql, InventoryItem.class).getResultList();
         } catch (Exception e) {
             throw new LIMSRuntimeException("Error getting low stock items", e);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getAvailableQuantity(Long itemId) throws LIMSRuntimeException {
+        try {
+            String sql = "SELECT available_quantity FROM clinlims.inventory_item WHERE id = :itemId";
+            List<?> results = entityManager.unwrap(Session.class).createNativeQuery(sql)
+                    .addSynchronizedEntityClass(InventoryItem.class).setParameter("itemId", itemId).getResultList();
+            return results.isEmpty() || results.get(0) == null ? 0.0 : ((Number) results.get(0)).doubleValue();
+        } catch (Exception e) {
+            throw new LIMSRuntimeException("Error getting available quantity", e);
+        }
+    }
+
+    @Override
+    public boolean reserveAvailableQuantity(Long itemId, Double quantity) throws LIMSRuntimeException {
+        try {
+            String sql = "UPDATE clinlims.inventory_item SET available_quantity = available_quantity - :quantity "
+                    + "WHERE id = :itemId AND available_quantity >= :quantity";
+            int updated = entityManager.unwrap(Session.class).createNativeQuery(sql)
+                    .addSynchronizedEntityClass(InventoryItem.class).setParameter("itemId", itemId)
+                    .setParameter("quantity", quantity).executeUpdate();
+            return updated > 0;
+        } catch (Exception e) {
+            throw new LIMSRuntimeException("Error reserving available quantity", e);
+        }
+    }
+
+    @Override
+    public void lockForStockUpdate(Collection<Long> itemIds) throws LIMSRuntimeException {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        try {
+            // synchronized on the item only, so the pending lot changes are not flushed
+            // before the item lock is held
+            String sql = "SELECT id FROM clinlims.inventory_item WHERE id IN (:itemIds) ORDER BY id FOR UPDATE";
+            entityManager.unwrap(Session.class).createNativeQuery(sql)
+                    .addSynchronizedEntityClass(InventoryItem.class).setParameterList("itemIds", itemIds)
+                    .getResultList();
+        } catch (Exception e) {
+            throw new LIMSRuntimeException("Error locking inventory items", e);
+        }
+    }
+
+    @Override
+    public void refreshAvailableQuantity(Long itemId) throws LIMSRuntimeException {
+        try {
+            entityManager.flush();
+            String sql = "UPDATE clinlims.inventory_item SET available_quantity = COALESCE("
+                    + "(SELECT SUM(l.current_quantity) FROM clinlims.inventory_lot l "
+                    + "WHERE l.inventory_item_id = :itemId AND l.status IN ('ACTIVE', 'IN_USE') "
+                    + "AND l.qc_status = 'PASSED'), 0) WHERE id = :itemId";
+            entityManager.unwrap(Session.class).createNativeQuery(sql)
+                    .addSynchronizedEntityClass(InventoryItem.class).setParameter("itemId", itemId).executeUpdate();
+        } catch (Exception e) {
+            throw new LIMSRuntimeException("Error refreshing available quantity", e);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.openelisglobal.inventory.daoimpl;
 
+import jakarta.persistence.LockModeType;
 import java.sql.Timestamp;
 import java.util.List;
 import org.hibernate.Session;
@@ -9,6 +10,7 @@ import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.openelisglobal.inventory.dao.InventoryLotDAO;
 import org.openelisglobal.inventory.valueholder.InventoryEnums.LotStatus;
 import org.openelisglobal.inventory.valueholder.InventoryEnums.QCStatus;
+import org.openelisglobal.inventory.valueholder.InventoryItem;
 import org.openelisglobal.inventory.valueholder.InventoryLot;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -60,6 +62,39 @@ public class InventoryLotDAOImpl extends BaseDAOImpl<InventoryLot, Long> impleme
         }
     }
 
+    @Override
+    public List<InventoryLot> getAvailableLotsByItemFEFOForUpdate(Long itemId) throws LIMSRuntimeException {
+        try {
+            String hql = "FROM InventoryLot l WHERE l.inventoryItem.id = :itemId "
+                    + "AND (l.status = :activeStatus OR l.status = :inUseStatus) AND l.qcStatus = :passedStatus "
+                    + "AND l.currentQuantity > 0 "
+                    + "ORDER BY l.expirationDate ASC NULLS LAST, l.calculatedExpiryAfterOpening ASC NULLS LAST, l.id";
+
+            Query<InventoryLot> query = entityManager.unwrap(Session.class).createQuery(hql, InventoryLot.class);
+            query.setParameter("itemId", itemId);
+            query.setParameter("activeStatus", LotStatus.ACTIVE.name());
+            query.setParameter("inUseStatus", LotStatus.IN_USE.name());
+            query.setParameter("passedStatus", QCStatus.PASSED.name());
+            query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+            return query.list();
+        } catch (Exception e) {
+            throw new LIMSRuntimeException("Error locking available lots by item (FEFO)", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getInventoryItemId(Long lotId) throws LIMSRuntimeException {
+        try {
+            String sql = "SELECT inventory_item_id FROM clinlims.inventory_lot WHERE id = :lotId";
+            List<?> results = entityManager.unwrap(Session.class).createNativeQuery(sql)
+                    .addSynchronizedEntityClass(InventoryItem.class).setParameter("lotId", lotId).getResultList();
+            return results.isEmpty() ? null : ((Number) results.get(0)).longValue();
+        } catch (Exception e) {
+            throw new LIMSRuntimeException("Error getting inventory item ID of lot", e);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InventoryLot> getExpiringLots(int daysAhead) throws LIMSRuntimeException {
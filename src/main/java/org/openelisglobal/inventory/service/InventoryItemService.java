@@ -30,8 +30,8 @@ public interface InventoryItemService extends BaseObjectService<InventoryItem, L
     List<InventoryItem> searchByName(String searchTerm);
 
     /**
-     * Get items with low stock levels Returns items where total current quantity
-     * across all lots is below minimum stock level
+     * Get items with low stock levels Returns items whose available quantity is
+     * below the low stock threshold
      */
     List<InventoryItem> getLowStockItems();
 
@@ -45,6 +45,20 @@ public interface InventoryItemService extends BaseObjectService<InventoryItem, L
      */
     Double getTotalCurrentStock(Long itemId);
 
+    /**
+     * Get the quantity of an item that can be consumed, from the item's stock
+     * counter: the sum over its ACTIVE and IN_USE lots that passed QC
+     */
+    Double getAvailableQuantity(Long itemId);
+
+    /**
+     * Take the quantity off the item's stock counter if that much is available,
+     * locking the item until the transaction ends
+     *
+     * @return false if less than the quantity is available
+     */
+    boolean reserveAvailableQuantity(Long itemId, Double quantity);
+
     /**
      * Check if an item is currently in stock (has available lots)
      */
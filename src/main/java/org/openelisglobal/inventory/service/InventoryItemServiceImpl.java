@@ -79,6 +79,18 @@ public class InventoryItemServiceImpl extends AuditableBaseObjectServiceImpl<Inv
         return total != null ? total.doubleValue() : 0.0;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Double getAvailableQuantity(Long itemId) {
+        return inventoryItemDAO.getAvailableQuantity(itemId);
+    }
+
+    @Override
+    @Transactional
+    public boolean reserveAvailableQuantity(Long itemId, Double quantity) {
+        return inventoryItemDAO.reserveAvailableQuantity(itemId, quantity);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean isInStock(Long itemId) {
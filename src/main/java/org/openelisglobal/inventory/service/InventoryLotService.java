@@ -16,6 +16,12 @@ public interface InventoryLotService extends BaseObjectService<InventoryLot, Lon
      */
     List<InventoryLot> getAvailableLotsByItemFEFO(Long itemId);
 
+    /**
+     * Get the available lots for an item in FEFO order, locked until the
+     * transaction ends. Used when consuming from them.
+     */
+    List<InventoryLot> getAvailableLotsByItemFEFOForUpdate(Long itemId);
+
     /**
      * Get lots by inventory item ID
      */
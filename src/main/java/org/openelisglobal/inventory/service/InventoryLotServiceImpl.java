@@ -3,7 +3,10 @@ package org.openelisglobal.inventory.service;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import org.openelisglobal.common.service.AuditableBaseObjectServiceImpl;
+import org.openelisglobal.inventory.dao.InventoryItemDAO;
 import org.openelisglobal.inventory.dao.InventoryLotDAO;
 import org.openelisglobal.inventory.valueholder.InventoryEnums.LotStatus;
 import org.openelisglobal.inventory.valueholder.InventoryEnums.QCStatus;
@@ -21,6 +24,9 @@ public class InventoryLotServiceImpl extends AuditableBaseObjectServiceImpl<Inve
     @Autowired
     private InventoryLotDAO inventoryLotDAO;
 
+    @Autowired
+    private InventoryItemDAO inventoryItemDAO;
+
     @Autowired
     private InventoryTransactionService transactionService;
 
@@ -39,6 +45,12 @@ public class InventoryLotServiceImpl extends AuditableBaseObjectServiceImpl<Inve
         return inventoryLotDAO.getAvailableLotsByItemFEFO(itemId);
     }
 
+    @Override
+    @Transactional
+    public List<InventoryLot> getAvailableLotsByItemFEFOForUpdate(Long itemId) {
+        return inventoryLotDAO.getAvailableLotsByItemFEFOForUpdate(itemId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InventoryLot> getByInventoryItemId(Long itemId) {
@@ -82,6 +94,62 @@ public class InventoryLotServiceImpl extends AuditableBaseObjectServiceImpl<Inve
         return total != null ? total.doubleValue() : 0.0;
     }
 
+    /*
+     * Every write of a lot refreshes the stock counter of its item. The item is
+     * locked before the lot is flushed, the same order FEFO consumption takes the
+     * locks in, and the counter is recomputed after, so it includes every lot
+     * change committed before the lock was granted.
+     */
+    @Override
+    @Transactional
+    public Long insert(InventoryLot lot) {
+        Long itemId = getItemId(lot);
+        inventoryItemDAO.lockForStockUpdate(itemIds(itemId));
+        Long id = super.insert(lot);
+        refreshAvailableQuantity(itemIds(itemId));
+        return id;
+    }
+
+    @Override
+    @Transactional
+    public InventoryLot update(InventoryLot lot) {
+        // the lot may have been moved to another item
+        Set<Long> itemIds = itemIds(inventoryLotDAO.getInventoryItemId(lot.getId()), getItemId(lot));
+        inventoryItemDAO.lockForStockUpdate(itemIds);
+        InventoryLot updatedLot = super.update(lot);
+        refreshAvailableQuantity(itemIds);
+        return updatedLot;
+    }
+
+    @Override
+    @Transactional
+    public void delete(InventoryLot lot) {
+        Set<Long> itemIds = itemIds(inventoryLotDAO.getInventoryItemId(lot.getId()));
+        inventoryItemDAO.lockForStockUpdate(itemIds);
+        super.delete(lot);
+        refreshAvailableQuantity(itemIds);
+    }
+
+    private Long getItemId(InventoryLot lot) {
+        return lot.getInventoryItem() == null ? null : lot.getInventoryItem().getId();
+    }
+
+    private Set<Long> itemIds(Long... itemIds) {
+        Set<Long> ids = new TreeSet<>();
+        for (Long itemId : itemIds) {
+            if (itemId != null) {
+                ids.add(itemId);
+            }
+        }
+        return ids;
+    }
+
+    private void refreshAvailableQuantity(Set<Long> itemIds) {
+        for (Long itemId : itemIds) {
+            inventoryItemDAO.refreshAvailableQuantity(itemId);
+        }
+    }
+
     @Override
     @Transactional
     public InventoryLot openLot(Long lotId, Timestamp openedDate, String sysUserId) {
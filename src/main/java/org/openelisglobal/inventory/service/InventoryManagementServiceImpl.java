@@ -3,12 +3,15 @@ package org.openelisglobal.inventory.service;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.inventory.valueholder.InventoryEnums.LotStatus;
 import org.openelisglobal.inventory.valueholder.InventoryEnums.ReferenceType;
 import org.openelisglobal.inventory.valueholder.InventoryEnums.TransactionType;
 import org.openelisglobal.inventory.valueholder.InventoryItem;
 import org.openelisglobal.inventory.valueholder.InventoryLot;
 import org.openelisglobal.inventory.valueholder.InventoryStorageLocation;
+import org.openelisglobal.inventory.valueholder.InventoryTransaction;
+import org.openelisglobal.inventory.valueholder.InventoryUsage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,6 +34,13 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
     @Autowired
     private InventoryUsageService usageService;
 
+    /*
+     * The quantity is first taken off the item's stock counter with a conditional
+     * decrement. That fails when too little is available and otherwise locks the
+     * item, so concurrent consumers of the same item wait for each other instead of
+     * consuming the same lots. The lots are then locked in FEFO order and written
+     * with their transaction and usage rows in one flush.
+     */
     @Override
     @Transactional
     public List<ConsumptionRecord> consumeInventoryFEFO(Long itemId, Double quantityNeeded, Long testResultId,
@@ -40,26 +50,25 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
             throw new IllegalArgumentException("Quantity needed must be greater than 0");
         }
 
-        // Get available lots sorted by FEFO
-        List<InventoryLot> availableLots = inventoryLotService.getAvailableLotsByItemFEFO(itemId);
-
-        if (availableLots == null || availableLots.isEmpty()) {
-            throw new IllegalStateException("No available lots for item: " + itemId);
-        }
-
-        // Check if sufficient inventory is available
-        Double totalAvailable = 0.0;
-        for (InventoryLot lot : availableLots) {
-            totalAvailable += lot.getCurrentQuantity();
-        }
-
-        if (totalAvailable < quantityNeeded) {
+        if (!inventoryItemService.reserveAvailableQuantity(itemId, quantityNeeded)) {
+            Double totalAvailable = inventoryItemService.getAvailableQuantity(itemId);
+            if (totalAvailable <= 0) {
+                throw new IllegalStateException("No available lots for item: " + itemId);
+            }
             throw new IllegalStateException(String.format("Insufficient inventory. Needed: %.2f, Available: %.2f",
                     quantityNeeded, totalAvailable));
         }
 
+        // Get available lots sorted by FEFO, locked until the consumption commits
+        List<InventoryLot> availableLots = inventoryLotService.getAvailableLotsByItemFEFOForUpdate(itemId);
+
         // Consume from lots using FEFO
         List<ConsumptionRecord> consumptionRecords = new ArrayList<>();
+        List<InventoryTransaction> transactions = new ArrayList<>();
+        List<InventoryUsage> usages = new ArrayList<>();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        ReferenceType referenceType = testResultId != null ? ReferenceType.TEST_RESULT : ReferenceType.MANUAL;
+        String notes = testResultId != null ? "Consumed for test result" : "Manual consumption";
         Double remainingToConsume = quantityNeeded;
 
         for (InventoryLot lot : availableLots) {
@@ -70,28 +79,23 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
             Double lotQuantity = lot.getCurrentQuantity();
             Double quantityFromThisLot = Math.min(lotQuantity, remainingToConsume);
 
-            // Update lot quantity
+            // Update lot quantity, written by the flush after the loop
             Double newQuantity = lotQuantity - quantityFromThisLot;
             lot.setCurrentQuantity(newQuantity);
             lot.setSysUserId(sysUserId);
-            lot.setLastupdated(new Timestamp(System.currentTimeMillis()));
+            lot.setLastupdated(now);
 
             // Update status if consumed
             if (newQuantity == 0) {
                 lot.setStatus(LotStatus.CONSUMED);
             }
 
-            inventoryLotService.update(lot);
-
             // Record transaction
-            String referenceTypeStr = testResultId != null ? ReferenceType.TEST_RESULT.name()
-                    : ReferenceType.MANUAL.name();
-            String notes = testResultId != null ? "Consumed for test result" : "Manual consumption";
-            transactionService.recordTransaction(lot.getId(), TransactionType.CONSUMPTION, -quantityFromThisLot,
-                    newQuantity, testResultId, referenceTypeStr, notes, sysUserId);
+            transactions.add(createTransaction(lot, -quantityFromThisLot, newQuantity, testResultId, referenceType,
+                    notes, now, sysUserId));
 
             // Record usage (always, even if no test result)
-            usageService.recordUsage(lot.getId(), itemId, quantityFromThisLot, testResultId, analysisId, sysUserId);
+            usages.add(createUsage(lot, quantityFromThisLot, testResultId, analysisId, now, sysUserId));
 
             // Add to consumption records
             consumptionRecords
@@ -100,9 +104,52 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
             remainingToConsume -= quantityFromThisLot;
         }
 
+        if (remainingToConsume > 0) {
+            // the counter said there was enough, so it is out of step with the lots;
+            // this rolls back the decrement as well
+            LogEvent.logWarn(this.getClass().getSimpleName(), "consumeInventoryFEFO",
+                    "available quantity of inventory item " + itemId + " does not match its lots");
+            throw new IllegalStateException(String.format("Insufficient inventory. Needed: %.2f, Available: %.2f",
+                    quantityNeeded, quantityNeeded - remainingToConsume));
+        }
+
+        transactionService.insertAll(transactions);
+        usageService.insertAll(usages);
+
         return consumptionRecords;
     }
 
+    private InventoryTransaction createTransaction(InventoryLot lot, Double quantityChange, Double quantityAfter,
+            Long referenceId, ReferenceType referenceType, String notes, Timestamp transactionDate,
+            String sysUserId) {
+        InventoryTransaction transaction = new InventoryTransaction();
+        transaction.setLot(lot);
+        transaction.setTransactionType(TransactionType.CONSUMPTION);
+        transaction.setQuantityChange(quantityChange);
+        transaction.setQuantityAfter(quantityAfter);
+        transaction.setReferenceId(referenceId);
+        transaction.setReferenceType(referenceType);
+        transaction.setNotes(notes);
+        transaction.setTransactionDate(transactionDate);
+        transaction.setSysUserId(sysUserId);
+        transaction.setPerformedByUser(Integer.valueOf(sysUserId));
+        return transaction;
+    }
+
+    private InventoryUsage createUsage(InventoryLot lot, Double quantityUsed, Long testResultId, Long analysisId,
+            Timestamp usageDate, String sysUserId) {
+        InventoryUsage usage = new InventoryUsage();
+        usage.setLot(lot);
+        usage.setInventoryItem(lot.getInventoryItem());
+        usage.setQuantityUsed(quantityUsed);
+        usage.setTestResultId(testResultId);
+        usage.setAnalysisId(analysisId);
+        usage.setUsageDate(usageDate);
+        usage.setSysUserId(sysUserId);
+        usage.setPerformedByUser(Integer.valueOf(sysUserId));
+        return usage;
+    }
+
     @Override
     @Transactional
     public InventoryLot receiveInventory(InventoryLot lotData, String sysUserId) {
@@ -158,7 +205,7 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
             return true;
         }
 
-        Double totalAvailable = inventoryLotService.getTotalCurrentQuantity(itemId);
+        Double totalAvailable = inventoryItemService.getAvailableQuantity(itemId);
         return totalAvailable != null && totalAvailable >= quantityNeeded;
     }
 
@@ -32,6 +32,13 @@ public class InventoryTransactionServiceImpl extends AuditableBaseObjectServiceI
         return inventoryTransactionDAO;
     }
 
+    // persisted together and flushed once, so the inserts go out in JDBC batches
+    @Override
+    @Transactional
+    public List<Long> insertAll(List<InventoryTransaction> transactions) {
+        return getBaseObjectDAO().insertAll(transactions);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InventoryTransaction> getByLotId(Long lotId) {
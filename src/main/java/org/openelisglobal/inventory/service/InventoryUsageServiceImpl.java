@@ -35,6 +35,13 @@ public class InventoryUsageServiceImpl extends AuditableBaseObjectServiceImpl<In
         return inventoryUsageDAO;
     }
 
+    // persisted together and flushed once, so the inserts go out in JDBC batches
+    @Override
+    @Transactional
+    public List<Long> insertAll(List<InventoryUsage> usages) {
+        return getBaseObjectDAO().insertAll(usages);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InventoryUsage> getByTestResultId(Long testResultId) {
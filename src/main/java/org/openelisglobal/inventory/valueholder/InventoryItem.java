@@ -115,6 +115,11 @@ public class InventoryItem extends BaseObject<Long> {
     @Column(name = "is_active", length = 1, nullable = false)
     private String isActive = "Y";
 
+    // Consumable quantity across the ACTIVE and IN_USE lots that passed QC. Written
+    // only by the InventoryItemDAO stock statements, never by saving the item.
+    @Column(name = "available_quantity", insertable = false, updatable = false)
+    private Double availableQuantity;
+
     // Business logic helper methods
     @JsonIgnore
     public boolean isReagent() {
@@ -32,7 +32,7 @@ public class InventoryTransaction extends BaseObject<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_transaction_generator")
-    @SequenceGenerator(name = "inventory_transaction_generator", sequenceName = "inventory_transaction_seq", allocationSize = 1)
+    @SequenceGenerator(name = "inventory_transaction_generator", sequenceName = "inventory_transaction_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -29,7 +29,7 @@ public class InventoryUsage extends BaseObject<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_usage_generator")
-    @SequenceGenerator(name = "inventory_usage_generator", sequenceName = "inventory_usage_seq", allocationSize = 1)
+    @SequenceGenerator(name = "inventory_usage_generator", sequenceName = "inventory_usage_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
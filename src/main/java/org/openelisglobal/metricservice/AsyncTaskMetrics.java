@@ -0,0 +1,54 @@
+package org.openelisglobal.metricservice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the {@code @Async} tasks of the application executor. That executor
+ * starts a thread per task rather than queueing, so the tasks waiting are the
+ * ones submitted whose thread has not started running them yet.
+ */
+@Component
+public class AsyncTaskMetrics implements TaskDecorator {
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer durations;
+    private final Counter failures;
+
+    public AsyncTaskMetrics(MeterRegistry meterRegistry) {
+        durations = Timer.builder("openelis.async.task.duration").description("Duration of @Async tasks")
+                .register(meterRegistry);
+        failures = Counter.builder("openelis.async.task.failures")
+                .description("@Async tasks that ended with an exception").register(meterRegistry);
+        Gauge.builder("openelis.async.tasks.pending", pending, AtomicInteger::get)
+                .description("@Async tasks submitted but not yet started").register(meterRegistry);
+        Gauge.builder("openelis.async.tasks.active", active, AtomicInteger::get).description("@Async tasks running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        pending.incrementAndGet();
+        return () -> {
+            pending.decrementAndGet();
+            active.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                failures.increment();
+                throw e;
+            } finally {
+                active.decrementAndGet();
+                durations.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package org.openelisglobal.metricservice;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The registry the application metrics are recorded in and scraped from, with
+ * the JVM memory, garbage collection, thread and process metrics bound to it.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** From 5 ms for fast requests up to 5 min for scheduled jobs */
+    private static final double[] DEFAULT_TIMER_BUCKETS_SECONDS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1,
+            2.5, 5, 10, 30, 60, 300 };
+
+    @Bean(destroyMethod = "close")
+    public PrometheusMeterRegistry meterRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(defaultTimerBuckets());
+        new ClassLoaderMetrics().bindTo(registry);
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        new UptimeMetrics().bindTo(registry);
+        return registry;
+    }
+
+    // listens to the garbage collector notifications, so it is closed with the
+    // context to remove the listeners
+    @Bean(destroyMethod = "close")
+    public JvmGcMetrics jvmGcMetrics(PrometheusMeterRegistry meterRegistry) {
+        JvmGcMetrics jvmGcMetrics = new JvmGcMetrics();
+        jvmGcMetrics.bindTo(meterRegistry);
+        return jvmGcMetrics;
+    }
+
+    /**
+     * Publishes timers as histograms with the default buckets, unless the timer
+     * is built with buckets of its own.
+     */
+    private static MeterFilter defaultTimerBuckets() {
+        double[] bucketNanos = new double[DEFAULT_TIMER_BUCKETS_SECONDS.length];
+        for (int i = 0; i < bucketNanos.length; i++) {
+            bucketNanos[i] = DEFAULT_TIMER_BUCKETS_SECONDS[i] * Duration.ofSeconds(1).toNanos();
+        }
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || config.getServiceLevelObjectiveBoundaries() != null) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder().serviceLevelObjectives(bucketNanos).build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package org.openelisglobal.metricservice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the runs of scheduled jobs. It decorates the Spring {@code @Scheduled}
+ * tasks and listens to the reloadable quartz jobs, so both are reported under
+ * the same metrics.
+ */
+@Component
+public class ScheduledJobMetrics implements TaskDecorator, JobListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public ScheduledJobMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        // tasks are decorated once when they are scheduled, so look up the meters
+        // here rather than on every run
+        String job = getJobName(task);
+        Timer jobDurations = durations(job);
+        Counter jobFailures = failures(job);
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                jobFailures.increment();
+                throw e;
+            } finally {
+                jobDurations.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private Timer durations(String job) {
+        return Timer.builder("openelis.scheduled.job.duration").description("Duration of scheduled job runs")
+                .tag("job", job).register(meterRegistry);
+    }
+
+    private Counter failures(String job) {
+        return Counter.builder("openelis.scheduled.job.failures")
+                .description("Scheduled job runs that ended with an exception").tag("job", job)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the simple class and method name of a {@code @Scheduled} method,
+     *         which the wrappers Spring puts around it describe themselves by
+     */
+    static String getJobName(Runnable task) {
+        String description = String.valueOf(task);
+        description = description.substring(description.lastIndexOf(' ') + 1);
+        int methodStart = description.lastIndexOf('.');
+        int classStart = methodStart < 0 ? -1 : description.lastIndexOf('.', methodStart - 1);
+        return description.substring(classStart + 1);
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        String job = context.getJobDetail().getKey().getName();
+        durations(job).record(context.getJobRunTime(), TimeUnit.MILLISECONDS);
+        if (jobException != null) {
+            failures(job).increment();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.openelisglobal.metricservice.collector;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import javax.sql.DataSource;
+import org.openelisglobal.common.log.LogEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection pool usage of the application data source. The pool is
+ * configured in the servlet container and looked up through JNDI, so its
+ * counts are read through the getters the container pools have in common
+ * (DBCP and Tomcat JDBC) rather than a pool specific API.
+ */
+@Component
+public class DataSourceMetricCollector {
+
+    private static final String[] ACTIVE_GETTERS = { "getNumActive", "getActive" };
+    private static final String[] IDLE_GETTERS = { "getNumIdle", "getIdle" };
+    private static final String[] MAX_GETTERS = { "getMaxTotal", "getMaxActive" };
+    private static final String[] WAITING_GETTERS = { "getNumWaiters", "getWaitCount" };
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerGauges() {
+        Class<?> poolClass = dataSource.getClass();
+        Method activeGetter = findGetter(poolClass, ACTIVE_GETTERS);
+        if (activeGetter == null) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "registerGauges",
+                    "connection pool metrics are not available for " + poolClass.getName());
+            return;
+        }
+        registerGauge(activeGetter, "openelis.db.pool.connections.active", "Connections in use");
+        registerGauge(findGetter(poolClass, IDLE_GETTERS), "openelis.db.pool.connections.idle",
+                "Idle connections in the pool");
+        registerGauge(findGetter(poolClass, MAX_GETTERS), "openelis.db.pool.connections.max",
+                "Maximum connections of the pool");
+        registerGauge(findGetter(poolClass, WAITING_GETTERS), "openelis.db.pool.connections.waiting",
+                "Threads waiting for a connection");
+    }
+
+    private static Method findGetter(Class<?> poolClass, String[] names) {
+        for (String name : names) {
+            try {
+                Method getter = poolClass.getMethod(name);
+                if (getter.getParameterCount() == 0 && Number.class.isAssignableFrom(box(getter.getReturnType()))) {
+                    return getter;
+                }
+            } catch (NoSuchMethodException e) {
+                // try the name used by the next pool
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        return type;
+    }
+
+    private void registerGauge(Method getter, String name, String description) {
+        if (getter == null) {
+            return;
+        }
+        Gauge.builder(name, dataSource, pool -> read(pool, getter)).description(description)
+                .register(meterRegistry);
+    }
+
+    private double read(DataSource pool, Method getter) {
+        try {
+            return ((Number) getter.invoke(pool)).doubleValue();
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LogEvent.logWarn(this.getClass().getSimpleName(), "read",
+                    "could not read " + getter.getName() + " of the connection pool: " + e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
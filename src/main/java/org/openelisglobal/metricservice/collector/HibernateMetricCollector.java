@@ -0,0 +1,77 @@
+package org.openelisglobal.metricservice.collector;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * The Hibernate session factory statistics. Nothing is registered unless
+ * statistics are enabled with {@code org.openelisglobal.metrics.hibernate}.
+ */
+@Component
+public class HibernateMetricCollector {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerMeters() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        counter(statistics, "openelis.hibernate.sessions.opened", "Sessions opened",
+                Statistics::getSessionOpenCount);
+        counter(statistics, "openelis.hibernate.transactions", "Transactions completed",
+                Statistics::getTransactionCount);
+        counter(statistics, "openelis.hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+        counter(statistics, "openelis.hibernate.statements.prepared", "JDBC statements prepared",
+                Statistics::getPrepareStatementCount);
+        counter(statistics, "openelis.hibernate.connections.obtained", "JDBC connections obtained",
+                Statistics::getConnectCount);
+        counter(statistics, "openelis.hibernate.optimistic.failures", "Optimistic lock failures",
+                Statistics::getOptimisticFailureCount);
+
+        counter(statistics, "openelis.hibernate.queries.executed", "HQL, criteria and native queries executed",
+                Statistics::getQueryExecutionCount);
+        TimeGauge.builder("openelis.hibernate.query.execution.max", statistics, TimeUnit.MILLISECONDS,
+                Statistics::getQueryExecutionMaxTime).description("Time of the slowest query executed")
+                .register(meterRegistry);
+
+        counter(statistics, "openelis.hibernate.entities.loaded", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(statistics, "openelis.hibernate.entities.fetched", "Entities fetched by a separate select",
+                Statistics::getEntityFetchCount);
+        counter(statistics, "openelis.hibernate.entities.inserted", "Entities inserted",
+                Statistics::getEntityInsertCount);
+        counter(statistics, "openelis.hibernate.entities.updated", "Entities updated",
+                Statistics::getEntityUpdateCount);
+        counter(statistics, "openelis.hibernate.entities.deleted", "Entities deleted",
+                Statistics::getEntityDeleteCount);
+        counter(statistics, "openelis.hibernate.collections.fetched", "Collections fetched by a separate select",
+                Statistics::getCollectionFetchCount);
+
+        counter(statistics, "openelis.hibernate.second.level.cache.hits", "Second level cache hits",
+                Statistics::getSecondLevelCacheHitCount);
+        counter(statistics, "openelis.hibernate.second.level.cache.misses", "Second level cache misses",
+                Statistics::getSecondLevelCacheMissCount);
+        counter(statistics, "openelis.hibernate.query.cache.hits", "Query cache hits",
+                Statistics::getQueryCacheHitCount);
+        counter(statistics, "openelis.hibernate.query.cache.misses", "Query cache misses",
+                Statistics::getQueryCacheMissCount);
+    }
+
+    private void counter(Statistics statistics, String name, String description,
+            ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).description(description).register(meterRegistry);
+    }
+}
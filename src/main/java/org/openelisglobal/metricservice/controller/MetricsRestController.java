@@ -0,0 +1,28 @@
+package org.openelisglobal.metricservice.controller;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Metrics in the Prometheus text format for scraping. Like the other rest
+ * endpoints it needs an authenticated user, which a scraper can send with
+ * basic authentication.
+ */
+@RestController
+public class MetricsRestController {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Autowired
+    private PrometheusMeterRegistry meterRegistry;
+
+    @GetMapping("/rest/metrics")
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok().header(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE)
+                .body(meterRegistry.scrape());
+    }
+}
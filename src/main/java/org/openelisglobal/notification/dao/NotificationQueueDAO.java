@@ -0,0 +1,17 @@
+package org.openelisglobal.notification.dao;
+
+import java.sql.Timestamp;
+import org.openelisglobal.common.dao.OutboxDAO;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry.Status;
+
+public interface NotificationQueueDAO extends OutboxDAO<NotificationQueueEntry, Status> {
+
+    /**
+     * @return the pending, never attempted notification with the coalesce key
+     *         that is still waiting out its coalesce window, locked for update,
+     *         or null if there is none
+     */
+    NotificationQueueEntry getCoalescable(String coalesceKey, Timestamp now) throws LIMSRuntimeException;
+}
@@ -0,0 +1,44 @@
+package org.openelisglobal.notification.dao;
+
+import java.sql.Timestamp;
+import org.hibernate.HibernateException;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.openelisglobal.common.daoimpl.OutboxDAOImpl;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry.Status;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+public class NotificationQueueDAOImpl extends OutboxDAOImpl<NotificationQueueEntry, Status>
+        implements NotificationQueueDAO {
+
+    public NotificationQueueDAOImpl() {
+        super(NotificationQueueEntry.class, Status.class, Status.PENDING, Status.SENDING, "createdTime",
+                "nextAttemptTime");
+    }
+
+    @Override
+    public NotificationQueueEntry getCoalescable(String coalesceKey, Timestamp now) throws LIMSRuntimeException {
+        String hql = "from NotificationQueueEntry n where n.coalesceKey = :coalesceKey and n.status = :status"
+                + " and n.attempts = 0 and n.nextAttemptTime > :now order by n.id";
+        try {
+            Query<NotificationQueueEntry> query = entityManager.unwrap(Session.class).createQuery(hql,
+                    NotificationQueueEntry.class);
+            query.setParameter("coalesceKey", coalesceKey);
+            query.setParameter("status", Status.PENDING);
+            query.setParameter("now", now);
+            query.setMaxResults(1);
+            query.setLockOptions(new LockOptions(LockMode.PESSIMISTIC_WRITE));
+            return query.uniqueResult();
+        } catch (HibernateException e) {
+            handleException(e, "getCoalescable");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,202 @@
+package org.openelisglobal.notification.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.notification.service.sender.ClientNotificationSender;
+import org.openelisglobal.notification.valueholder.EmailNotification;
+import org.openelisglobal.notification.valueholder.NotificationConfigOption.NotificationMethod;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry;
+import org.openelisglobal.notification.valueholder.RemoteNotification;
+import org.openelisglobal.notification.valueholder.RenderedNotificationPayload;
+import org.openelisglobal.notification.valueholder.SMSNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the notifications waiting in the notification queue.
+ *
+ * <p>
+ * Due notifications are claimed in batches and handed to one worker per
+ * notification method, so a slow SMS gateway does not hold up email. Each
+ * worker sends its notifications one after the other, no faster than the rate
+ * configured for its method. A failed send is retried with exponential backoff.
+ */
+@Component
+public class NotificationDispatcher {
+
+    @Autowired
+    private NotificationQueueService queueService;
+
+    @SuppressWarnings("rawtypes")
+    @Autowired
+    private List<ClientNotificationSender> notificationSenders;
+
+    @Value("${org.openelisglobal.notification.queue.batchSize:100}")
+    private int batchSize;
+
+    @Value("${org.openelisglobal.notification.email.maxPerSecond:5}")
+    private double emailMaxPerSecond;
+
+    @Value("${org.openelisglobal.notification.sms.maxPerSecond:1}")
+    private double smsMaxPerSecond;
+
+    private final Map<NotificationMethod, ExecutorService> channelWorkers = new EnumMap<>(NotificationMethod.class);
+    private final Map<NotificationMethod, ChannelRateLimiter> rateLimiters = new EnumMap<>(
+            NotificationMethod.class);
+
+    @PostConstruct
+    void init() {
+        for (NotificationMethod method : NotificationMethod.values()) {
+            channelWorkers.put(method, Executors.newSingleThreadExecutor());
+        }
+        rateLimiters.put(NotificationMethod.EMAIL, new ChannelRateLimiter(emailMaxPerSecond));
+        rateLimiters.put(NotificationMethod.SMS, new ChannelRateLimiter(smsMaxPerSecond));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ExecutorService worker : channelWorkers.values()) {
+            worker.shutdown();
+        }
+    }
+
+    @Scheduled(initialDelay = 60 * 1000, fixedDelayString = "${org.openelisglobal.notification.queue.pollInterval:10000}")
+    public void dispatchPendingNotifications() {
+        requeueExpiredClaims();
+        List<NotificationQueueEntry> batch;
+        do {
+            batch = queueService.claimDue(batchSize);
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Notifications claimed by a node that went away while sending are picked up
+     * again once their claim times out, by whichever node polls first
+     */
+    private void requeueExpiredClaims() {
+        int requeued = queueService.requeueExpiredClaims();
+        if (requeued > 0) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "requeueExpiredClaims",
+                    "requeued " + requeued + " notifications whose sending claim expired");
+        }
+    }
+
+    void sendBatch(List<NotificationQueueEntry> batch) {
+        Map<NotificationMethod, List<NotificationQueueEntry>> entriesByMethod = new EnumMap<>(
+                NotificationMethod.class);
+        for (NotificationQueueEntry entry : batch) {
+            entriesByMethod.computeIfAbsent(entry.getNotificationMethod(), k -> new ArrayList<>()).add(entry);
+        }
+        List<Future<?>> channelSends = new ArrayList<>();
+        for (Map.Entry<NotificationMethod, List<NotificationQueueEntry>> channel : entriesByMethod.entrySet()) {
+            ChannelRateLimiter rateLimiter = rateLimiters.get(channel.getKey());
+            channelSends.add(channelWorkers.get(channel.getKey())
+                    .submit(() -> sendChannel(channel.getValue(), rateLimiter)));
+        }
+        for (Future<?> channelSend : channelSends) {
+            try {
+                channelSend.get();
+            } catch (InterruptedException e) {
+                // unsent notifications are left in SENDING and requeued by the next poll
+                // once their claim times out
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LogEvent.logError(e);
+            }
+        }
+    }
+
+    private void sendChannel(List<NotificationQueueEntry> entries, ChannelRateLimiter rateLimiter) {
+        for (NotificationQueueEntry entry : entries) {
+            try {
+                rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                send(entry);
+                queueService.markSent(entry);
+            } catch (RuntimeException e) {
+                LogEvent.logError(this.getClass().getSimpleName(), "sendChannel", "could not send "
+                        + entry.getNotificationMethod() + " notification " + entry.getId() + ": " + e.getMessage());
+                recordFailure(entry, e);
+            }
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void send(NotificationQueueEntry entry) {
+        RemoteNotification notification = toRemoteNotification(entry);
+        for (ClientNotificationSender notificationSender : notificationSenders) {
+            if (notification.getClass().isAssignableFrom(notificationSender.forClass())) {
+                notificationSender.send(notification);
+                return;
+            }
+        }
+        throw new IllegalStateException("no sender for " + entry.getNotificationMethod() + " notifications");
+    }
+
+    private RemoteNotification toRemoteNotification(NotificationQueueEntry entry) {
+        RenderedNotificationPayload payload = new RenderedNotificationPayload(entry.getSubject(), entry.getMessage());
+        switch (entry.getNotificationMethod()) {
+        case EMAIL:
+            EmailNotification emailNotification = new EmailNotification();
+            emailNotification.setRecipientEmailAddress(entry.getRecipient());
+            emailNotification.setBccs(entry.getBccList());
+            emailNotification.setPayload(payload);
+            return emailNotification;
+        case SMS:
+        default:
+            SMSNotification smsNotification = new SMSNotification();
+            smsNotification.setReceiverPhoneNumber(entry.getRecipient());
+            smsNotification.setPayload(payload);
+            return smsNotification;
+        }
+    }
+
+    private void recordFailure(NotificationQueueEntry entry, Exception e) {
+        try {
+            queueService.recordFailure(entry, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (RuntimeException e2) {
+            // left in SENDING, requeued by the next poll once the claim times out
+            LogEvent.logError(e2);
+        }
+    }
+
+    /** Spaces the sends of one channel so it sends no more than maxPerSecond */
+    static class ChannelRateLimiter {
+
+        private final long intervalNanos;
+        private long nextSendNanos = System.nanoTime();
+
+        ChannelRateLimiter(double maxPerSecond) {
+            intervalNanos = maxPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond);
+        }
+
+        synchronized void acquire() throws InterruptedException {
+            long now = System.nanoTime();
+            if (nextSendNanos > now) {
+                TimeUnit.NANOSECONDS.sleep(nextSendNanos - now);
+                now = nextSendNanos;
+            }
+            nextSendNanos = now + intervalNanos;
+        }
+    }
+}
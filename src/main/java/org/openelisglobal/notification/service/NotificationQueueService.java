@@ -0,0 +1,34 @@
+package org.openelisglobal.notification.service;
+
+import java.util.List;
+import org.openelisglobal.common.service.BaseObjectService;
+import org.openelisglobal.notification.valueholder.NotificationConfigOption.NotificationMethod;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry;
+
+public interface NotificationQueueService extends BaseObjectService<NotificationQueueEntry, Long> {
+
+    /**
+     * Queues a rendered notification. If a notification with the same coalesce
+     * key is still waiting out its coalesce window the message is appended to it
+     * instead of being queued on its own
+     */
+    void enqueue(NotificationMethod method, String recipient, List<String> bccs, String coalesceKey, String subject,
+            String message);
+
+    List<NotificationQueueEntry> claimDue(int batchSize);
+
+    void markSent(NotificationQueueEntry entry);
+
+    /**
+     * Schedules another attempt with exponential backoff, or marks the
+     * notification FAILED once it has used all its attempts
+     */
+    void recordFailure(NotificationQueueEntry entry, String errorDetail);
+
+    /**
+     * Returns notifications left in SENDING longer than the claim timeout, e.g. by
+     * a node that shut down while sending, to PENDING. Notifications other nodes
+     * are still sending are left alone
+     */
+    int requeueExpiredClaims();
+}
@@ -0,0 +1,109 @@
+package org.openelisglobal.notification.service;
+
+import java.sql.Timestamp;
+import java.util.List;
+import org.openelisglobal.common.service.BaseObjectServiceImpl;
+import org.openelisglobal.common.util.DateUtil;
+import org.openelisglobal.common.util.RetryBackoff;
+import org.openelisglobal.notification.dao.NotificationQueueDAO;
+import org.openelisglobal.notification.valueholder.NotificationConfigOption.NotificationMethod;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class NotificationQueueServiceImpl extends BaseObjectServiceImpl<NotificationQueueEntry, Long>
+        implements NotificationQueueService {
+
+    @Autowired
+    protected NotificationQueueDAO baseObjectDAO;
+
+    @Value("${org.openelisglobal.notification.queue.coalesceWindow:60000}")
+    private long coalesceWindowMillis;
+
+    @Value("${org.openelisglobal.notification.queue.maxAttempts:8}")
+    private int maxAttempts;
+
+    @Value("${org.openelisglobal.notification.queue.retryBackoff:60000}")
+    private long retryBackoffMillis;
+
+    @Value("${org.openelisglobal.notification.queue.maxRetryBackoff:3600000}")
+    private long maxRetryBackoffMillis;
+
+    @Value("${org.openelisglobal.notification.queue.claimTimeout:600000}")
+    private long claimTimeoutMillis;
+
+    NotificationQueueServiceImpl() {
+        super(NotificationQueueEntry.class);
+    }
+
+    @Override
+    protected NotificationQueueDAO getBaseObjectDAO() {
+        return baseObjectDAO;
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(NotificationMethod method, String recipient, List<String> bccs, String coalesceKey,
+            String subject, String message) {
+        Timestamp now = DateUtil.getNowAsTimestamp();
+        NotificationQueueEntry entry = getBaseObjectDAO().getCoalescable(coalesceKey, now);
+        if (entry != null) {
+            entry.append(message);
+            update(entry);
+            return;
+        }
+        entry = new NotificationQueueEntry();
+        entry.setNotificationMethod(method);
+        entry.setRecipient(recipient);
+        entry.setBccList(bccs);
+        entry.setCoalesceKey(coalesceKey);
+        entry.setSubject(subject);
+        entry.setMessage(message);
+        entry.setMessageCount(1);
+        entry.setStatus(Status.PENDING);
+        entry.setCreatedTime(now);
+        entry.setNextAttemptTime(new Timestamp(now.getTime() + coalesceWindowMillis));
+        insert(entry);
+    }
+
+    @Override
+    @Transactional
+    public List<NotificationQueueEntry> claimDue(int batchSize) {
+        return getBaseObjectDAO().claimDue(batchSize, DateUtil.getNowAsTimestamp());
+    }
+
+    @Override
+    @Transactional
+    public void markSent(NotificationQueueEntry entry) {
+        entry.setStatus(Status.SENT);
+        entry.setErrorDetail(null);
+        entry.setSentTime(DateUtil.getNowAsTimestamp());
+        update(entry);
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(NotificationQueueEntry entry, String errorDetail) {
+        entry.setErrorDetail(errorDetail);
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(Status.FAILED);
+        } else {
+            entry.setStatus(Status.PENDING);
+            entry.setClaimedAt(null);
+            entry.setNextAttemptTime(
+                    RetryBackoff.getNextAttemptTime(entry.getAttempts(), retryBackoffMillis, maxRetryBackoffMillis));
+        }
+        update(entry);
+    }
+
+    @Override
+    @Transactional
+    public int requeueExpiredClaims() {
+        return getBaseObjectDAO()
+                .requeueClaimedBefore(new Timestamp(System.currentTimeMillis() - claimTimeoutMillis));
+    }
+}
@@ -1,9 +1,17 @@
 package org.openelisglobal.notification.service;
 
+import java.util.List;
 import org.openelisglobal.notification.valueholder.NotificationConfigOption.NotificationNature;
 import org.openelisglobal.result.valueholder.Result;
 
 public interface TestNotificationService {
 
     void createAndSendNotificationsToConfiguredSources(NotificationNature nature, Result result);
+
+    /**
+     * Queues the notifications for a batch of results. Configurations, templates
+     * and people are looked up once for the batch, and notifications of the same
+     * order to the same recipient are sent as one message
+     */
+    void createAndSendNotificationsToConfiguredSources(NotificationNature nature, List<Result> results);
 }
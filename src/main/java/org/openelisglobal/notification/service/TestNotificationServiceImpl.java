@@ -1,17 +1,19 @@
 package org.openelisglobal.notification.service;
 
 import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.dictionary.service.DictionaryService;
 import org.openelisglobal.dictionary.valueholder.Dictionary;
-import org.openelisglobal.notification.service.sender.ClientNotificationSender;
 import org.openelisglobal.notification.valueholder.AnalysisNotificationConfig;
-import org.openelisglobal.notification.valueholder.EmailNotification;
 import org.openelisglobal.notification.valueholder.NotificationConfig;
 import org.openelisglobal.notification.valueholder.NotificationConfigOption;
 import org.openelisglobal.notification.valueholder.NotificationConfigOption.NotificationMethod;
@@ -20,11 +22,11 @@ import org.openelisglobal.notification.valueholder.NotificationConfigOption.Noti
 import org.openelisglobal.notification.valueholder.NotificationPayloadTemplate;
 import org.openelisglobal.notification.valueholder.NotificationPayloadTemplate.NotificationPayloadType;
 import org.openelisglobal.notification.valueholder.PatientResultsViewNotificationPayload;
-import org.openelisglobal.notification.valueholder.RemoteNotification;
-import org.openelisglobal.notification.valueholder.SMSNotification;
 import org.openelisglobal.notification.valueholder.TestNotificationConfig;
 import org.openelisglobal.person.valueholder.Person;
+import org.openelisglobal.provider.valueholder.Provider;
 import org.openelisglobal.result.valueholder.Result;
+import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.samplehuman.service.SampleHumanService;
 import org.openelisglobal.testresultsview.service.ClientResultsViewInfoService;
 import org.openelisglobal.testresultsview.valueholder.ClientResultsViewBean;
@@ -54,9 +56,8 @@ public class TestNotificationServiceImpl implements TestNotificationService {
     @Value("${org.openelisglobal.ozeki.active:false}")
     private Boolean ozekiActive;
 
-    @SuppressWarnings("rawtypes")
     @Autowired
-    private List<ClientNotificationSender> notificationSenders;
+    private NotificationQueueService notificationQueueService;
 
     @PostConstruct
     public void init() {
@@ -82,46 +83,71 @@ public class TestNotificationServiceImpl implements TestNotificationService {
         return template;
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    public void sendNotification(RemoteNotification clientNotification) {
-        for (ClientNotificationSender notificationSender : notificationSenders) {
-            if (clientNotification.getClass().isAssignableFrom(notificationSender.forClass())) {
-                notificationSender.send(clientNotification);
-            }
-        }
+    @Override
+    @Async
+    @Transactional
+    public void createAndSendNotificationsToConfiguredSources(NotificationNature nature, Result result) {
+        queueNotifications(nature, List.of(result));
     }
 
     @Override
     @Async
-    @Transactional(readOnly = true)
-    public void createAndSendNotificationsToConfiguredSources(NotificationNature nature, Result result) {
-        Optional<? extends NotificationConfig<?>> notificationConfig = analysisNotificationConfigService
-                .getAnalysisNotificationConfigForAnalysisId(result.getAnalysis().getId());
-        if (notificationConfig.isEmpty()) {
-            // analysis hasn't been configured to return results
-            notificationConfig = testNotificationConfigService
-                    .getTestNotificationConfigForTestId(result.getAnalysis().getTest().getId());
-            if (notificationConfig.isEmpty()) {
-                // test hasn't been configured to send notifications
-                return;
+    @Transactional
+    public void createAndSendNotificationsToConfiguredSources(NotificationNature nature, List<Result> results) {
+        queueNotifications(nature, results);
+    }
+
+    private void queueNotifications(NotificationNature nature, List<Result> results) {
+        if (!NotificationNature.RESULT_VALIDATION.equals(nature) || results.isEmpty()) {
+            return;
+        }
+        List<NotificationMethod> methodTypes = new ArrayList<>();
+        for (NotificationMethod methodType : NotificationMethod.values()) {
+            if (systemEnabledForMethod(methodType)) {
+                methodTypes.add(methodType);
             }
         }
+        if (methodTypes.isEmpty()) {
+            return;
+        }
 
-        switch (nature) {
-        case RESULT_VALIDATION:
-            createAndSendResultsNotificationsToConfiguredSources(nature, result, notificationConfig);
-        default:
+        NotificationBatch batch = new NotificationBatch(results);
+        for (Result result : results) {
+            NotificationConfig<?> notificationConfig = batch.getConfigFor(result);
+            if (notificationConfig == null) {
+                // neither the analysis nor the test has been configured to send notifications
+                continue;
+            }
+            try {
+                queueResultsNotifications(nature, result, notificationConfig, methodTypes, batch);
+            } catch (RuntimeException e) {
+                LogEvent.logError(this.getClass().getSimpleName(), "queueNotifications",
+                        "could not queue notifications for result " + result.getId());
+                LogEvent.logError(e);
+            }
         }
     }
 
-    private void createAndSendResultsNotificationsToConfiguredSources(NotificationNature nature, Result result,
-            Optional<? extends NotificationConfig<?>> notificationConfig) {
+    private void queueResultsNotifications(NotificationNature nature, Result result,
+            NotificationConfig<?> notificationConfig, List<NotificationMethod> methodTypes, NotificationBatch batch) {
         ClientResultsViewBean resultsViewInfo = new ClientResultsViewBean(result);
         resultsViewInfo.setSysUserId("1");
         resultsViewInfo = clientResultsViewInfoService.save(resultsViewInfo);
 
-        String resultForDisplay = "";
+        String resultForDisplay = getResultForDisplay(result);
+        for (NotificationMethod methodType : methodTypes) {
+            for (NotificationPersonType personType : NotificationPersonType.values()) {
+                NotificationConfigOption option = notificationConfig.getOptionFor(nature, methodType, personType);
+                if (option.getActive()) {
+                    queueNotificationToPerson(methodType, personType, option, notificationConfig, resultForDisplay,
+                            resultsViewInfo, batch);
+                }
+            }
+        }
+    }
 
+    private String getResultForDisplay(Result result) {
+        String resultForDisplay = "";
         if (TypeOfTestResultServiceImpl.ResultType.isMultiSelectVariant(result.getResultType())) {
             // TODO
         } else if (TypeOfTestResultServiceImpl.ResultType.isDictionaryVariant(result.getResultType())) {
@@ -133,128 +159,49 @@ public class TestNotificationServiceImpl implements TestNotificationService {
                         ? dictionary.getDictEntry()
                         : dictionary.getLocalAbbreviation();
             }
-            // resultForDisplay =
-            // dictionaryService.getDataForId(result.getValue()).getDictEntry();
         } else if (TypeOfTestResultServiceImpl.ResultType.isNumeric(result.getResultType())) {
             resultForDisplay = result.getValue();
         } else if (TypeOfTestResultServiceImpl.ResultType.isTextOnlyVariant(result.getResultType())) {
             resultForDisplay = result.getValue();
         }
-        for (NotificationMethod methodType : NotificationMethod.values()) {
-            if (systemEnabledForMethod(methodType)) {
-                createAndSendNotificationsConfiguredForTest(nature, methodType, notificationConfig.get(),
-                        resultForDisplay, resultsViewInfo);
-            }
-        }
+        return resultForDisplay;
     }
 
-    private void createAndSendNotificationsConfiguredForTest(NotificationNature nature, NotificationMethod methodType,
-            NotificationConfig<?> notificationConfig, String resultForDisplay, ClientResultsViewBean resultsViewInfo) {
-        for (NotificationPersonType personType : NotificationPersonType.values()) {
-            NotificationConfigOption option = notificationConfig.getOptionFor(nature, methodType, personType);
-            if (option.getActive()) {
-                createAndSendNotificationToPerson(nature, methodType, personType, option, resultForDisplay,
-                        resultsViewInfo);
-            }
-        }
-    }
+    private void queueNotificationToPerson(NotificationMethod methodType, NotificationPersonType personType,
+            NotificationConfigOption option, NotificationConfig<?> notificationConfig, String resultForDisplay,
+            ClientResultsViewBean resultsViewInfo, NotificationBatch batch) {
+        Sample sample = resultsViewInfo.getResult().getAnalysis().getSampleItem().getSample();
+        Person testPerson = batch.getPatientPerson(sample);
+        Person receiverPerson = NotificationPersonType.PATIENT.equals(personType) ? testPerson
+                : batch.getProviderPerson(sample);
 
-    private void createAndSendNotificationToPerson(NotificationNature nature, NotificationMethod methodType,
-            NotificationPersonType personType, NotificationConfigOption option, String resultForDisplay,
-            ClientResultsViewBean resultsViewInfo) {
-        Person testPerson = sampleHumanService
-                .getPatientForSample(resultsViewInfo.getResult().getAnalysis().getSampleItem().getSample()).getPerson();
-        Person receiverPerson = null;
-        if (NotificationPersonType.PATIENT.equals(personType)) {
-            receiverPerson = testPerson;
-        } else if (NotificationPersonType.PROVIDER.equals(personType)) {
-            receiverPerson = sampleHumanService
-                    .getProviderForSample(resultsViewInfo.getResult().getAnalysis().getSampleItem().getSample())
-                    .getPerson();
-        }
+        String recipient;
+        List<String> bccs = null;
         if (NotificationMethod.EMAIL.equals(methodType) && canSendEmail(receiverPerson)) {
-            createAndSendResultsNotificationEmail(testPerson, receiverPerson, option, resultForDisplay,
-                    resultsViewInfo);
+            recipient = receiverPerson.getEmail();
+            bccs = option.getAdditionalContacts();
         } else if (NotificationMethod.SMS.equals(methodType) && canSendSMS(receiverPerson)) {
-            createAndSendResultsNotificationSMS(testPerson, receiverPerson, option, resultForDisplay, resultsViewInfo);
-        }
-    }
-
-    private void createAndSendResultsNotificationSMS(Person testPerson, Person receiverPerson,
-            NotificationConfigOption option, String resultForDisplay, ClientResultsViewBean resultsViewInfo) {
-        try {
-            SMSNotification smsNotification = new SMSNotification();
-            String phoneNumber = "";
-            for (char ch : receiverPerson.getPrimaryPhone().toCharArray()) {
-                // 5
-                if (Character.isDigit(ch)) {
-                    phoneNumber = phoneNumber + ch;
-                }
-            }
-            smsNotification.setReceiverPhoneNumber(phoneNumber);
-
-            NotificationPayloadTemplate template = findTemplate(option);
-            // TODO figure out where to store address and how to retrieve
-            smsNotification.setPayload(new PatientResultsViewNotificationPayload(resultsViewInfo.getPassword(),
-                    "someAddress", resultsViewInfo.getResult().getAnalysis().getTest().getName(), resultForDisplay,
-                    testPerson.getFirstName(), testPerson.getLastName().substring(0, 1), template));
-
-            sendNotification(smsNotification);
-            // getSenderForNotification(smsNotification).send(smsNotification);
-        } catch (RuntimeException e) {
-            LogEvent.logError(this.getClass().getSimpleName(), "createAndSendResultsNotificationSMS",
-                    "could not send sms notification");
-            LogEvent.logError(e);
+            recipient = receiverPerson.getPrimaryPhone().replaceAll("\\D", "");
+        } else {
+            return;
         }
-    }
 
-    private void createAndSendResultsNotificationEmail(Person testPerson, Person receiverPerson,
-            NotificationConfigOption option, String resultForDisplay, ClientResultsViewBean resultsViewInfo) {
-        try {
-            EmailNotification emailNotification = new EmailNotification();
-            emailNotification.setRecipientEmailAddress(receiverPerson.getEmail());
-            emailNotification.setBccs(option.getAdditionalContacts());
-
-            NotificationPayloadTemplate template = findTemplate(option);
-            // TODO figure out where to store address and how to retrieve
-            emailNotification.setPayload(new PatientResultsViewNotificationPayload(resultsViewInfo.getPassword(),
-                    "someAddress", resultsViewInfo.getResult().getAnalysis().getTest().getName(), resultForDisplay,
-                    testPerson.getFirstName(), testPerson.getLastName().substring(0, 1), template));
-
-            sendNotification(emailNotification);
-        } catch (RuntimeException e) {
-            // TODO add redundancy mechanism in case can't reach SMTP server
-            LogEvent.logError(this.getClass().getSimpleName(), "createAndSendResultsNotificationEmail",
-                    "could not send email notification");
-            LogEvent.logError(e);
-        }
+        // TODO figure out where to store address and how to retrieve
+        PatientResultsViewNotificationPayload payload = new PatientResultsViewNotificationPayload(
+                resultsViewInfo.getPassword(), "someAddress",
+                resultsViewInfo.getResult().getAnalysis().getTest().getName(), resultForDisplay,
+                testPerson.getFirstName(), testPerson.getLastName().substring(0, 1),
+                batch.getTemplate(option, notificationConfig));
+        notificationQueueService.enqueue(methodType, recipient, bccs,
+                getCoalesceKey(sample, methodType, recipient), payload.getSubject(), payload.getMessage());
     }
 
-    private NotificationPayloadTemplate findTemplate(NotificationConfigOption option) {
-        NotificationPayloadTemplate template;
-        TestNotificationConfig testNotificationConfig = testNotificationConfigService
-                .getForConfigOption(option.getId());
-        AnalysisNotificationConfig analyzerNotificationConfig = analysisNotificationConfigService
-                .getForConfigOption(option.getId());
-        // default to system default for type
-        if (option.getPayloadTemplate() == null
-                && (testNotificationConfig == null || testNotificationConfig.getDefaultPayloadTemplate() == null)
-                && (analyzerNotificationConfig == null
-                        || analyzerNotificationConfig.getDefaultPayloadTemplate() == null)) {
-            template = notificationPayloadTemplateService
-                    .getSystemDefaultPayloadTemplateForType(NotificationPayloadType.TEST_RESULT);
-            // ... unless this option is for a test and it has a test default
-        } else if (option.getPayloadTemplate() == null && (analyzerNotificationConfig == null
-                || analyzerNotificationConfig.getDefaultPayloadTemplate() == null)) {
-            template = testNotificationConfig.getDefaultPayloadTemplate();
-            // ... unless this option is for an analysis and it has an analysis default
-        } else if (option.getPayloadTemplate() == null) {
-            template = analyzerNotificationConfig.getDefaultPayloadTemplate();
-            // ...unless there is one configured for this option
-        } else {
-            template = option.getPayloadTemplate();
-        }
-        return template;
+    /**
+     * Notifications of the results of one order to one recipient are sent as one
+     * message when they are validated within the coalesce window
+     */
+    static String getCoalesceKey(Sample sample, NotificationMethod methodType, String recipient) {
+        return "sample:" + sample.getId() + ":" + methodType + ":" + recipient;
     }
 
     private boolean systemEnabledForMethod(NotificationMethod methodType) {
@@ -298,4 +245,74 @@ public class TestNotificationServiceImpl implements TestNotificationService {
         }
         return canSend;
     }
+
+    /**
+     * The configurations, templates and people needed to render the
+     * notifications of a batch of results. Each is looked up once for the batch
+     * rather than once for every result.
+     */
+    private class NotificationBatch {
+
+        private final Map<String, AnalysisNotificationConfig> analysisConfigs = new HashMap<>();
+        private final Map<String, TestNotificationConfig> testConfigs = new HashMap<>();
+        private final Map<String, Person> patientPersons = new HashMap<>();
+        private final Map<String, Person> providerPersons = new HashMap<>();
+        private NotificationPayloadTemplate systemDefaultTemplate;
+
+        NotificationBatch(List<Result> results) {
+            Set<String> analysisIds = new HashSet<>();
+            Set<String> testIds = new HashSet<>();
+            for (Result result : results) {
+                analysisIds.add(result.getAnalysis().getId());
+                testIds.add(result.getAnalysis().getTest().getId());
+            }
+            for (AnalysisNotificationConfig config : analysisNotificationConfigService
+                    .getAnalysisNotificationConfigForAnalysisId(new ArrayList<>(analysisIds))) {
+                analysisConfigs.put(config.getAnalysisId(), config);
+            }
+            for (TestNotificationConfig config : testNotificationConfigService
+                    .getTestNotificationConfigsForTestId(new ArrayList<>(testIds))) {
+                testConfigs.put(config.getTestId(), config);
+            }
+        }
+
+        /** @return the analysis configuration, else the test one, else null */
+        NotificationConfig<?> getConfigFor(Result result) {
+            NotificationConfig<?> config = analysisConfigs.get(result.getAnalysis().getId());
+            return config == null ? testConfigs.get(result.getAnalysis().getTest().getId()) : config;
+        }
+
+        /**
+         * @return the template of the option, else the default of the configuration
+         *         it belongs to, else the system default
+         */
+        NotificationPayloadTemplate getTemplate(NotificationConfigOption option,
+                NotificationConfig<?> notificationConfig) {
+            if (option.getPayloadTemplate() != null) {
+                return option.getPayloadTemplate();
+            }
+            if (notificationConfig.getDefaultPayloadTemplate() != null) {
+                return notificationConfig.getDefaultPayloadTemplate();
+            }
+            if (systemDefaultTemplate == null) {
+                systemDefaultTemplate = notificationPayloadTemplateService
+                        .getSystemDefaultPayloadTemplateForType(NotificationPayloadType.TEST_RESULT);
+            }
+            return systemDefaultTemplate;
+        }
+
+        Person getPatientPerson(Sample sample) {
+            return patientPersons.computeIfAbsent(sample.getId(),
+                    k -> sampleHumanService.getPatientForSample(sample).getPerson());
+        }
+
+        /** @return the person of the provider of the sample, or null if it has none */
+        Person getProviderPerson(Sample sample) {
+            if (!providerPersons.containsKey(sample.getId())) {
+                Provider provider = sampleHumanService.getProviderForSample(sample);
+                providerPersons.put(sample.getId(), provider == null ? null : provider.getPerson());
+            }
+            return providerPersons.get(sample.getId());
+        }
+    }
 }
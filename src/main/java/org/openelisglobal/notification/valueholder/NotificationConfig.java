@@ -24,4 +24,6 @@ public abstract class NotificationConfig<T> extends BaseObject<Integer> {
     public abstract NotificationConfigOption getProviderEmail();
 
     public abstract NotificationConfigOption getProviderSMS();
+
+    public abstract NotificationPayloadTemplate getDefaultPayloadTemplate();
 }
@@ -0,0 +1,221 @@
+package org.openelisglobal.notification.valueholder;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.validator.GenericValidator;
+import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.common.valueholder.OutboxEntry;
+import org.openelisglobal.notification.valueholder.NotificationConfigOption.NotificationMethod;
+
+/**
+ * A rendered notification waiting to be, or already, sent. Notifications for
+ * the same order and recipient share a coalesce key, and one that is queued
+ * while an earlier one is still waiting out the coalesce window is appended to
+ * it, so the recipient gets one message per order rather than one per result.
+ */
+@Entity
+@Table(name = "notification_queue")
+public class NotificationQueueEntry extends BaseObject<Long> implements OutboxEntry<NotificationQueueEntry.Status> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String BCC_SEPARATOR = "\n";
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_method", nullable = false)
+    private NotificationMethod notificationMethod;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "bccs", columnDefinition = "TEXT")
+    private String bccs;
+
+    @Column(name = "coalesce_key", nullable = false)
+    private String coalesceKey;
+
+    @Column(name = "subject", columnDefinition = "TEXT")
+    private String subject;
+
+    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "created_time", nullable = false)
+    private Timestamp createdTime;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private Timestamp nextAttemptTime;
+
+    @Column(name = "claimed_at")
+    private Timestamp claimedAt;
+
+    @Column(name = "sent_time")
+    private Timestamp sentTime;
+
+    @Column(name = "error_detail", columnDefinition = "TEXT")
+    private String errorDetail;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public NotificationMethod getNotificationMethod() {
+        return notificationMethod;
+    }
+
+    public void setNotificationMethod(NotificationMethod notificationMethod) {
+        this.notificationMethod = notificationMethod;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public List<String> getBccList() {
+        return GenericValidator.isBlankOrNull(bccs) ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(bccs.split(BCC_SEPARATOR)));
+    }
+
+    public void setBccList(List<String> bccList) {
+        bccs = bccList == null || bccList.isEmpty() ? null : String.join(BCC_SEPARATOR, bccList);
+    }
+
+    public String getCoalesceKey() {
+        return coalesceKey;
+    }
+
+    public void setCoalesceKey(String coalesceKey) {
+        this.coalesceKey = coalesceKey;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(int messageCount) {
+        this.messageCount = messageCount;
+    }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Timestamp getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(Timestamp createdTime) {
+        this.createdTime = createdTime;
+    }
+
+    public Timestamp getNextAttemptTime() {
+        return nextAttemptTime;
+    }
+
+    public void setNextAttemptTime(Timestamp nextAttemptTime) {
+        this.nextAttemptTime = nextAttemptTime;
+    }
+
+    @Override
+    public Timestamp getClaimedAt() {
+        return claimedAt;
+    }
+
+    @Override
+    public void setClaimedAt(Timestamp claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Timestamp getSentTime() {
+        return sentTime;
+    }
+
+    public void setSentTime(Timestamp sentTime) {
+        this.sentTime = sentTime;
+    }
+
+    public String getErrorDetail() {
+        return errorDetail;
+    }
+
+    public void setErrorDetail(String errorDetail) {
+        this.errorDetail = errorDetail;
+    }
+
+    /** Adds the message of another notification for the same order and recipient */
+    public void append(String otherMessage) {
+        message = message + "\n\n" + otherMessage;
+        messageCount++;
+    }
+}
@@ -0,0 +1,24 @@
+package org.openelisglobal.notification.valueholder;
+
+/** The payload of a notification whose templates have already been filled in */
+public class RenderedNotificationPayload implements NotificationPayload {
+
+    private final String subject;
+
+    private final String message;
+
+    public RenderedNotificationPayload(String subject, String message) {
+        this.subject = subject;
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String getSubject() {
+        return subject;
+    }
+}
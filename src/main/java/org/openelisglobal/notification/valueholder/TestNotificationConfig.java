@@ -103,6 +103,7 @@ public class TestNotificationConfig extends NotificationConfig<Test> {
         this.test = test;
     }
 
+    @Override
     public NotificationPayloadTemplate getDefaultPayloadTemplate() {
         return defaultPayloadTemplate;
     }
@@ -3,6 +3,7 @@ package org.openelisglobal.ocl;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,6 +19,7 @@ import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.services.DisplayListService;
 import org.openelisglobal.configuration.service.DomainConfigurationHandler;
 import org.openelisglobal.localization.valueholder.Localization;
+import org.openelisglobal.ocl.OclZipImporter.OclConceptBatchHandler;
 import org.openelisglobal.panel.service.PanelService;
 import org.openelisglobal.panel.valueholder.Panel;
 import org.openelisglobal.panelitem.service.PanelItemService;
@@ -55,6 +57,9 @@ public class OclConfigurationHandler implements DomainConfigurationHandler {
     @Value("${org.openelisglobal.ocl.import.default.sampletype:Whole Blood}")
     private String defaultSampleType;
 
+    @Value("${org.openelisglobal.ocl.import.batchSize:100}")
+    private int batchSize;
+
     @Autowired
     private OclZipImporter oclZipImporter;
 
@@ -115,9 +120,7 @@ public class OclConfigurationHandler implements DomainConfigurationHandler {
             }
 
             // Process the ZIP file
-            List<JsonNode> oclNodes = new ArrayList<>();
-            oclZipImporter.importOclZip(tempFile.getAbsolutePath(), oclNodes);
-            performImport(oclNodes);
+            performStreamingImport(tempFile.getAbsolutePath());
         } finally {
             // Clean up temp file
             if (tempFile != null && tempFile.exists()) {
@@ -126,6 +129,47 @@ public class OclConfigurationHandler implements DomainConfigurationHandler {
         }
     }
 
+    /**
+     * Imports an OCL package without reading it into memory. Concepts are mapped
+     * and persisted batchSize at a time.
+     */
+    public void performStreamingImport(String zipPath) throws IOException {
+        ImportCounts counts = new ImportCounts();
+        OclToOpenElisMapper mapper = new OclToOpenElisMapper(defaultTestSection, defaultSampleType);
+        oclZipImporter.streamOclPackage(zipPath, batchSize, new OclConceptBatchHandler() {
+
+            @Override
+            public boolean startCollection(OclPackageIndex index) {
+                log.info("OCL Import: Collection {} has {} concepts.", index.getFullName(), index.getConceptCount());
+                return mapper.startCollection(index);
+            }
+
+            @Override
+            public void handleBatch(List<JsonNode> concepts) {
+                List<TestAddForm> testForms = new ArrayList<>();
+                for (JsonNode concept : concepts) {
+                    TestAddForm form = mapper.mapConcept(concept);
+                    if (form != null) {
+                        testForms.add(form);
+                    }
+                }
+                createTests(testForms, counts);
+            }
+
+            @Override
+            public void endCollection() {
+                try {
+                    mapLabsetPannels(mapper);
+                } catch (Exception ex) {
+                    log.error("Error while Handling Lab sets", ex);
+                }
+            }
+        });
+        refreshDisplayLists();
+        log.info("OCL Import: Finished processing. Total concepts processed: {}, Tests created: {}, Tests skipped: {}",
+                counts.conceptCount, counts.testsCreated, counts.testsSkipped);
+    }
+
     /**
      * Internal method that contains the actual import logic. Made public for use by
      * OclImportInitializer for manual imports.
@@ -133,9 +177,7 @@ public class OclConfigurationHandler implements DomainConfigurationHandler {
     public void performImport(List<JsonNode> oclNodes) {
         log.info("OCL Import: Found {} nodes to process.", oclNodes.size());
 
-        int conceptCount = 0;
-        int testsCreated = 0;
-        int testsSkipped = 0;
+        ImportCounts counts = new ImportCounts();
         OclToOpenElisMapper mapper = new OclToOpenElisMapper(defaultTestSection, defaultSampleType);
         for (JsonNode node : oclNodes) {
             // If the node is a Collection Version, get its concepts array
@@ -143,20 +185,7 @@ public class OclConfigurationHandler implements DomainConfigurationHandler {
                 log.info("OCL Import: Node has a concepts array of size {}.", node.get("concepts").size());
 
                 // Map all concepts in this node to TestAddForms
-                List<TestAddForm> testForms = mapper.mapConceptsToTestAddForms(node);
-
-                for (TestAddForm form : testForms) {
-                    conceptCount++;
-
-                    try {
-                        log.info("OCL Import: Processing concept #{} - attempting to create test", conceptCount);
-                        handlenNewTests(form);
-                        testsCreated++;
-                    } catch (Exception ex) {
-                        testsSkipped++;
-                        log.error("OCL Import: Failed to create test for concept #{}", conceptCount, ex);
-                    }
-                }
+                createTests(mapper.mapConceptsToTestAddForms(node), counts);
                 try {
                     mapLabsetPannels(mapper);
                 } catch (Exception ex) {
@@ -166,7 +195,22 @@ public class OclConfigurationHandler implements DomainConfigurationHandler {
         }
         refreshDisplayLists();
         log.info("OCL Import: Finished processing. Total concepts processed: {}, Tests created: {}, Tests skipped: {}",
-                conceptCount, testsCreated, testsSkipped);
+                counts.conceptCount, counts.testsCreated, counts.testsSkipped);
+    }
+
+    private void createTests(List<TestAddForm> testForms, ImportCounts counts) {
+        for (TestAddForm form : testForms) {
+            counts.conceptCount++;
+
+            try {
+                log.info("OCL Import: Processing concept #{} - attempting to create test", counts.conceptCount);
+                handlenNewTests(form);
+                counts.testsCreated++;
+            } catch (Exception ex) {
+                counts.testsSkipped++;
+                log.error("OCL Import: Failed to create test for concept #{}", counts.conceptCount, ex);
+            }
+        }
     }
 
     private void refreshDisplayLists() {
@@ -236,4 +280,10 @@ public class OclConfigurationHandler implements DomainConfigurationHandler {
         }
         return form;
     }
+
+    private static class ImportCounts {
+        private int conceptCount;
+        private int testsCreated;
+        private int testsSkipped;
+    }
 }
@@ -1,14 +1,13 @@
 // File: OclImportInitializer.java
 package org.openelisglobal.ocl;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
+import java.security.NoSuchAlgorithmException;
+import org.openelisglobal.configuration.service.ConfigurationInitializationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,10 +25,10 @@ public class OclImportInitializer {
     private static final Logger log = LoggerFactory.getLogger(OclImportInitializer.class);
 
     @Autowired
-    private OclZipImporter oclZipImporter;
+    private OclConfigurationHandler oclConfigurationHandler;
 
     @Autowired
-    private OclConfigurationHandler oclConfigurationHandler;
+    private ConfigurationInitializationService configurationInitializationService;
 
     /**
      * Public method to trigger OCL import manually. This can be called from REST
@@ -39,9 +38,21 @@ public class OclImportInitializer {
      * ConfigurationInitializationService, OCL ZIP files should be placed in
      * /var/lib/openelis-global/configuration/backend/ocl/
      * 
+     * Imported packages are recorded in the OCL configuration checksums so the
+     * automatic loading does not import them again on the next startup.
+     * 
      * @param fileDir Directory containing OCL ZIP files
      */
     public void performOclImport(String fileDir) {
+        performOclImport(fileDir, false);
+    }
+
+    /**
+     * @param fileDir       Directory containing OCL ZIP files
+     * @param skipUnchanged skip packages that were already imported, manually or
+     *                      automatically, and have not changed since
+     */
+    public void performOclImport(String fileDir, boolean skipUnchanged) {
         log.info("OCL Import: Manual import triggered from directory: {}", fileDir);
         Path configDir = Paths.get(fileDir);
         if (!Files.exists(configDir)) {
@@ -53,18 +64,22 @@ public class OclImportInitializer {
             log.info("OCL Import: No ZIP files found in directory: {}", fileDir);
             return;
         }
-        List<JsonNode> oclNodes = new ArrayList<>();
         for (File file : zipFiles) {
             try {
+                if (skipUnchanged && isUnchanged(file)) {
+                    log.info("OCL Import: ZIP file {} unchanged since last import. Skipping.", file.getName());
+                    continue;
+                }
                 log.info("OCL Import: Processing ZIP file: {}", file.getName());
-                oclZipImporter.importOclZip(file.getAbsolutePath(), oclNodes);
-            } catch (IOException e) {
+                oclConfigurationHandler.performStreamingImport(file.getAbsolutePath());
+                configurationInitializationService.markConfigurationLoaded(oclConfigurationHandler, file);
+            } catch (IOException | NoSuchAlgorithmException e) {
                 log.error("OCL Import: Failed to import ZIP file: {}", file.getName(), e);
             }
         }
-        if (!oclNodes.isEmpty()) {
-            // Use the handler's performImport method
-            oclConfigurationHandler.performImport(oclNodes);
-        }
+    }
+
+    private boolean isUnchanged(File file) throws IOException, NoSuchAlgorithmException {
+        return configurationInitializationService.isConfigurationUnchanged(oclConfigurationHandler, file);
     }
 }
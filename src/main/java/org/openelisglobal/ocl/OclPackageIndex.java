@@ -0,0 +1,107 @@
+package org.openelisglobal.ocl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lookups into an OCL collection export that concepts need while being mapped:
+ * the mappings from a concept (LOINC codes, answers, set members) and the names
+ * of the concepts those mappings point to.
+ *
+ * <p>
+ * Only the fields needed for those lookups are kept, so a streaming import can
+ * hold the index for a large collection without holding the full concept
+ * trees.
+ */
+public class OclPackageIndex {
+
+    private static final String[] CONCEPT_LOOKUP_FIELDS = { "id", "display_name", "names", "descriptions" };
+
+    private final Map<String, List<JsonNode>> mappingsByFromConcept = new HashMap<>();
+    private final Map<String, JsonNode> conceptsById = new HashMap<>();
+    private String type;
+    private String fullName;
+
+    /** Builds the index for an export that has been read into memory */
+    public static OclPackageIndex fromRootNode(JsonNode rootNode) {
+        OclPackageIndex index = new OclPackageIndex();
+        index.setType(textOf(rootNode, "type"));
+        index.setFullName(textOf(rootNode, "full_name"));
+        JsonNode concepts = rootNode.get("concepts");
+        if (concepts != null && concepts.isArray()) {
+            for (JsonNode concept : concepts) {
+                index.addConcept(concept);
+            }
+        }
+        JsonNode mappings = rootNode.get("mappings");
+        if (mappings != null && mappings.isArray()) {
+            for (JsonNode mapping : mappings) {
+                index.addMapping(mapping);
+            }
+        }
+        return index;
+    }
+
+    public void addConcept(JsonNode concept) {
+        String id = textOf(concept, "id");
+        if (id == null || !concept.isObject()) {
+            return;
+        }
+        ObjectNode lookupFields = ((ObjectNode) concept).objectNode();
+        for (String field : CONCEPT_LOOKUP_FIELDS) {
+            if (concept.has(field)) {
+                lookupFields.set(field, concept.get(field));
+            }
+        }
+        // the first concept with an id wins, as in a linear search of the export
+        conceptsById.putIfAbsent(id, lookupFields);
+    }
+
+    public void addMapping(JsonNode mapping) {
+        String fromConceptCode = textOf(mapping, "from_concept_code");
+        if (fromConceptCode != null) {
+            mappingsByFromConcept.computeIfAbsent(fromConceptCode, k -> new ArrayList<>()).add(mapping);
+        }
+    }
+
+    /** @return the mappings from the concept, in export order */
+    public List<JsonNode> getMappingsFrom(String conceptId) {
+        List<JsonNode> mappings = conceptId == null ? null : mappingsByFromConcept.get(conceptId);
+        return mappings == null ? Collections.emptyList() : mappings;
+    }
+
+    /** @return the lookup fields of the concept, or null if it is not in the export */
+    public JsonNode getConcept(String conceptId) {
+        return conceptId == null ? null : conceptsById.get(conceptId);
+    }
+
+    public int getConceptCount() {
+        return conceptsById.size();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    private static String textOf(JsonNode node, String field) {
+        JsonNode value = node == null ? null : node.get(field);
+        return value == null || value.isNull() ? null : value.asText().trim();
+    }
+}
@@ -46,7 +46,7 @@ public class OclToOpenElisMapper {
 
     private String defaultTestSection;
     private String defaultSampleType;
-    private JsonNode rootNode;
+    private OclPackageIndex packageIndex;
     private String systemUserId = "1";
     private Set<JsonNode> labSetPanelNodes;
 
@@ -99,12 +99,7 @@ public class OclToOpenElisMapper {
     public List<TestAddForm> mapConceptsToTestAddForms(JsonNode rootNode) {
         try {
             List<TestAddForm> forms = new ArrayList<>();
-            labSetPanelNodes = new HashSet<>();
-            this.rootNode = rootNode;
-
-            // Validate root node structure
-            if (!rootNode.has("type") || !"Collection Version".equals(getText(rootNode, "type"))) {
-                log.error("Invalid OCL export format. Expected Collection Version type.");
+            if (!startCollection(OclPackageIndex.fromRootNode(rootNode))) {
                 return forms;
             }
 
@@ -115,11 +110,7 @@ public class OclToOpenElisMapper {
                         + getText(rootNode, "full_name"));
 
                 for (JsonNode conceptNode : concepts) {
-                    String conceptId = getText(conceptNode, "id");
-                    String displayName = getText(conceptNode, "display_name");
-                    log.info("Processing concept: " + displayName + " (ID: " + conceptId + ")");
-
-                    TestAddForm form = mapSingleConceptToForm(conceptNode);
+                    TestAddForm form = mapConcept(conceptNode);
                     if (form != null) {
                         forms.add(form);
                     }
@@ -135,6 +126,39 @@ public class OclToOpenElisMapper {
         }
     }
 
+    /**
+     * Prepares the mapper for the concepts of a collection that are then passed
+     * one at a time to mapConcept, so a streaming import never needs the whole
+     * collection in memory.
+     *
+     * @param packageIndex lookups into the collection being imported
+     * @return false if the collection is not an OCL Collection Version export
+     */
+    public boolean startCollection(OclPackageIndex packageIndex) {
+        labSetPanelNodes = new HashSet<>();
+        this.packageIndex = packageIndex;
+
+        // Validate root node structure
+        if (!"Collection Version".equals(packageIndex.getType())) {
+            log.error("Invalid OCL export format. Expected Collection Version type.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Maps one concept of the collection passed to startCollection.
+     *
+     * @return the TestAddForm if the concept is a new test, otherwise null
+     */
+    public TestAddForm mapConcept(JsonNode conceptNode) {
+        String conceptId = getText(conceptNode, "id");
+        String displayName = getText(conceptNode, "display_name");
+        log.info("Processing concept: " + displayName + " (ID: " + conceptId + ")");
+
+        return mapSingleConceptToForm(conceptNode);
+    }
+
     /**
      * Maps a single OCL concept to a TestAddForm, applying filters and specific
      * mappings.
@@ -369,15 +393,11 @@ public class OclToOpenElisMapper {
     private String getLoinc(String id) {
         String loinc = null;
 
-        JsonNode mappings = this.rootNode.get("mappings");
-        if (mappings != null && mappings.isArray()) {
+        List<JsonNode> mappings = packageIndex.getMappingsFrom(id);
+        if (!mappings.isEmpty()) {
             String fallbackLoinc = null;
 
             for (JsonNode mapping : mappings) {
-                if (!id.equals(getText(mapping, "from_concept_code"))) {
-                    continue;
-                }
-
                 String mapType = getText(mapping, "map_type").toUpperCase();
                 String toSourceName = getText(mapping, "to_source_name").toUpperCase();
                 String candidateLoinc = getText(mapping, "to_concept_code");
@@ -579,49 +599,44 @@ public class OclToOpenElisMapper {
             String id = getText(concept, "id");
 
             // Try mappings array first (OCL standard format for LOINC)
-            JsonNode mappings = this.rootNode.get("mappings");
-            if (mappings != null && mappings.isArray()) {
-                for (JsonNode mapping : mappings) {
-                    String fromConceptCode = getText(mapping, "from_concept_code");
-                    String mapType = getText(mapping, "map_type").toUpperCase();
-                    if (!fromConceptCode.equals(id) || !mapType.equals("Q-AND-A")) {
-                        continue;
-                    }
-                    String toCoceptCode = getText(mapping, "to_concept_code");
-                    JsonNode mapConcept = getConceptById(toCoceptCode);
-                    Map<String, String> names = extractNames(mapConcept);
-                    String englishName = names.get("englishName");
-                    String frenchName = names.get("frenchName");
-                    String loinc = getLoinc(toCoceptCode);
-
-                    Dictionary dictionary = new Dictionary();
-                    dictionary.setSortOrder(1);
-                    dictionary.setIsActive("Y");
-                    dictionary.setDictEntry(englishName);
-                    dictionary.setLocalAbbreviation(toCoceptCode);
-                    dictionary.setSysUserId(systemUserId);
-                    dictionary.setLoincCode(loinc);
-                    dictionary.setDictionaryCategory(
-                            dictionaryCategoryService.getDictionaryCategoryByName("Test Result"));
-                    if (dictionaryService.duplicateDictionaryExists(dictionary)) {
-                        if (StringUtils.isNotBlank(loinc)) {
-                            dictionary = dictionaryService.getDictionaryByDictEntry(englishName);
-                            dictionary.setLoincCode(loinc);
-                            dictionary = dictionaryService.update(dictionary);
-                        }
-                    } else {
-                        Localization localization = createLocalization(frenchName, englishName, "create Dictionary",
-                                systemUserId);
-                        localization = localizationService.save(localization);
-                        dictionary.setLocalizedDictionaryName(localization);
-                        dictionary = dictionaryService.save(dictionary);
+            for (JsonNode mapping : packageIndex.getMappingsFrom(id)) {
+                String mapType = getText(mapping, "map_type").toUpperCase();
+                if (!mapType.equals("Q-AND-A")) {
+                    continue;
+                }
+                String toCoceptCode = getText(mapping, "to_concept_code");
+                JsonNode mapConcept = getConceptById(toCoceptCode);
+                Map<String, String> names = extractNames(mapConcept);
+                String englishName = names.get("englishName");
+                String frenchName = names.get("frenchName");
+                String loinc = getLoinc(toCoceptCode);
+
+                Dictionary dictionary = new Dictionary();
+                dictionary.setSortOrder(1);
+                dictionary.setIsActive("Y");
+                dictionary.setDictEntry(englishName);
+                dictionary.setLocalAbbreviation(toCoceptCode);
+                dictionary.setSysUserId(systemUserId);
+                dictionary.setLoincCode(loinc);
+                dictionary.setDictionaryCategory(dictionaryCategoryService.getDictionaryCategoryByName("Test Result"));
+                if (dictionaryService.duplicateDictionaryExists(dictionary)) {
+                    if (StringUtils.isNotBlank(loinc)) {
+                        dictionary = dictionaryService.getDictionaryByDictEntry(englishName);
+                        dictionary.setLoincCode(loinc);
+                        dictionary = dictionaryService.update(dictionary);
                     }
-                    ObjectNode dictEntry = objectMapper.createObjectNode();
-                    dictEntry.put("id", String.valueOf(dictionary.getId()));
-                    dictEntry.put("qualified", "N");
-                    dictionaryArray.add(dictEntry);
-
+                } else {
+                    Localization localization = createLocalization(frenchName, englishName, "create Dictionary",
+                            systemUserId);
+                    localization = localizationService.save(localization);
+                    dictionary.setLocalizedDictionaryName(localization);
+                    dictionary = dictionaryService.save(dictionary);
                 }
+                ObjectNode dictEntry = objectMapper.createObjectNode();
+                dictEntry.put("id", String.valueOf(dictionary.getId()));
+                dictEntry.put("qualified", "N");
+                dictionaryArray.add(dictEntry);
+
             }
         }
         jsonWad.put("dictionary", dictionaryArray);
@@ -631,17 +646,7 @@ public class OclToOpenElisMapper {
     }
 
     public JsonNode getConceptById(String id) {
-        JsonNode concepts = this.rootNode.get("concepts");
-        if (concepts != null && concepts.isArray()) {
-            for (JsonNode conceptNode : concepts) {
-                String conceptId = getText(conceptNode, "id");
-                if (conceptId.equals(id)) {
-                    return conceptNode;
-                }
-
-            }
-        }
-        return null;
+        return packageIndex.getConcept(id);
     }
 
     /**
@@ -782,18 +787,14 @@ public class OclToOpenElisMapper {
             String id = getText(concept, "id");
 
             // Try mappings array first (OCL standard format for LOINC)
-            JsonNode mappings = this.rootNode.get("mappings");
-            if (mappings != null && mappings.isArray()) {
-                for (JsonNode mapping : mappings) {
-                    String fromConceptCode = getText(mapping, "from_concept_code");
-                    String toConceptCode = getText(mapping, "to_concept_code");
-                    String mapType = getText(mapping, "map_type").toUpperCase();
-                    if (fromConceptCode.equals(id) && mapType.equals("CONCEPT-SET")) {
-                        JsonNode mapConcept = getConceptById(toConceptCode);
-                        Map<String, String> names = extractNames(mapConcept);
-                        String englishName = names.get("englishName");
-                        mappedTests.add(englishName);
-                    }
+            for (JsonNode mapping : packageIndex.getMappingsFrom(id)) {
+                String toConceptCode = getText(mapping, "to_concept_code");
+                String mapType = getText(mapping, "map_type").toUpperCase();
+                if (mapType.equals("CONCEPT-SET")) {
+                    JsonNode mapConcept = getConceptById(toConceptCode);
+                    Map<String, String> names = extractNames(mapConcept);
+                    String englishName = names.get("englishName");
+                    mappedTests.add(englishName);
                 }
             }
         }
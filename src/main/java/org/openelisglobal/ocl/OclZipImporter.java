@@ -1,10 +1,15 @@
 package org.openelisglobal.ocl;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import org.slf4j.Logger;
@@ -17,6 +22,24 @@ public class OclZipImporter {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Receives the concepts of each collection in an OCL package a batch at a
+     * time.
+     */
+    public interface OclConceptBatchHandler {
+
+        /**
+         * Called before the concepts of a collection are streamed.
+         *
+         * @return false to skip the collection
+         */
+        boolean startCollection(OclPackageIndex index);
+
+        void handleBatch(List<JsonNode> concepts);
+
+        void endCollection();
+    }
+
     /**
      * Imports and parses the OCL ZIP package from the configurations/ocl directory.
      *
@@ -81,6 +104,110 @@ public class OclZipImporter {
         return jsonNodes;
     }
 
+    /**
+     * Streams the concepts of an OCL package to the handler in batches instead of
+     * reading whole JSON entries into memory. Each JSON entry is read twice: a
+     * first pass builds the lookup index (mappings come after the concepts in an
+     * OCL export) and a second pass hands the concepts to the handler.
+     *
+     * @param zipPath   Path to the ZIP file.
+     * @param batchSize Maximum number of concepts per batch.
+     * @return the number of concepts streamed
+     * @throws IOException if the file doesn't exist.
+     */
+    public int streamOclPackage(String zipPath, int batchSize, OclConceptBatchHandler handler) throws IOException {
+        File file = new File(zipPath);
+        if (!file.exists() || !file.isFile()) {
+            throw new IOException("OCL package not found or invalid at: " + zipPath);
+        }
+
+        int conceptCount = 0;
+        try (ZipFile zipFile = new ZipFile(file)) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (entry.isDirectory() || !entry.getName().endsWith(".json")) {
+                    log.debug("Skipping entry: {}", entry.getName());
+                    continue;
+                }
+                try {
+                    log.info("Indexing ZIP entry: {}", entry.getName());
+                    OclPackageIndex index = indexEntry(zipFile, entry);
+                    if (!handler.startCollection(index)) {
+                        continue;
+                    }
+                    log.info("Streaming {} concepts from ZIP entry: {}", index.getConceptCount(), entry.getName());
+                    conceptCount += streamConcepts(zipFile, entry, batchSize, handler);
+                    handler.endCollection();
+                } catch (IOException | RuntimeException e) {
+                    log.error("Error streaming entry: {}", entry.getName(), e);
+                }
+            }
+        }
+        return conceptCount;
+    }
+
+    private OclPackageIndex indexEntry(ZipFile zipFile, ZipEntry entry) throws IOException {
+        OclPackageIndex index = new OclPackageIndex();
+        try (JsonParser parser = objectMapper.createParser(zipFile.getInputStream(entry))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return index;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("type".equals(field) && value.isScalarValue()) {
+                    index.setType(parser.getText().trim());
+                } else if ("full_name".equals(field) && value.isScalarValue()) {
+                    index.setFullName(parser.getText().trim());
+                } else if ("concepts".equals(field) && value == JsonToken.START_ARRAY) {
+                    readArrayElements(parser, index::addConcept);
+                } else if ("mappings".equals(field) && value == JsonToken.START_ARRAY) {
+                    readArrayElements(parser, index::addMapping);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return index;
+    }
+
+    private int streamConcepts(ZipFile zipFile, ZipEntry entry, int batchSize, OclConceptBatchHandler handler)
+            throws IOException {
+        int conceptCount = 0;
+        List<JsonNode> batch = new ArrayList<>(batchSize);
+        try (JsonParser parser = objectMapper.createParser(zipFile.getInputStream(entry))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return 0;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!"concepts".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    batch.add(parser.readValueAsTree());
+                    conceptCount++;
+                    if (batch.size() >= batchSize) {
+                        handler.handleBatch(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            handler.handleBatch(batch);
+        }
+        return conceptCount;
+    }
+
+    private void readArrayElements(JsonParser parser, Consumer<JsonNode> consumer) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode element = parser.readValueAsTree();
+            consumer.accept(element);
+        }
+    }
+
     private JsonNode parseJsonEntry(ZipFile zipFile, ZipEntry entry) {
         try {
             log.debug("Parsing JSON file: {}", entry.getName());
@@ -1,5 +1,6 @@
 package org.openelisglobal.odoo.client;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,12 @@ public class NoOpOdooClient implements OdooConnection {
         return null;
     }
 
+    @Override
+    public List<Integer> createMultiple(String model, List<Map<String, Object>> records) {
+        log.warn("Odoo is not available. Skipping create of {} records for model: {}", records.size(), model);
+        return Collections.emptyList();
+    }
+
     @Override
     public Object[] searchAndRead(String model, List<Object> criteria, List<String> fields) {
         log.warn("Odoo is not available. Skipping searchAndRead operation for model: {}", model);
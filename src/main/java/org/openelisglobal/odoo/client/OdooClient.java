@@ -112,6 +112,23 @@ public class OdooClient {
         }
     }
 
+    public List<Integer> createMultiple(String model, List<Map<String, Object>> records) {
+        init();
+
+        try {
+            // a list of values as the only argument makes create return a list of ids
+            Object[] ids = (Object[]) client.execute("execute_kw", asList(getDatabase(), uid, getPassword(), model,
+                    Constants.CREATE_METHOD, singletonList(records)));
+            List<Integer> createdIds = new ArrayList<>();
+            for (Object id : ids) {
+                createdIds.add((Integer) id);
+            }
+            return createdIds;
+        } catch (XmlRpcException e) {
+            throw new RuntimeException("Error occurred while creating in odoo server error", e);
+        }
+    }
+
     public Boolean write(String model, List<Object> dataParams) {
         init();
 
@@ -9,6 +9,13 @@ public interface OdooConnection {
 
     Integer create(String model, List<Map<String, Object>> dataParams);
 
+    /**
+     * Creates several records of a model in one call
+     *
+     * @return the ids of the created records, in the order of the records
+     */
+    List<Integer> createMultiple(String model, List<Map<String, Object>> records);
+
     Object[] searchAndRead(String model, List<Object> criteria, List<String> fields);
 
 }
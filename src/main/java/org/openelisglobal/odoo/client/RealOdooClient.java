@@ -35,6 +35,13 @@ public class RealOdooClient implements OdooConnection {
         return odooClient.create(model, dataParams);
     }
 
+    @Override
+    public List<Integer> createMultiple(String model, List<Map<String, Object>> records) {
+        if (!available)
+            throw new IllegalStateException("Odoo is not available");
+        return odooClient.createMultiple(model, records);
+    }
+
     @Override
     public Object[] searchAndRead(String model, List<Object> criteria, List<String> fields) {
         if (!available)
@@ -0,0 +1,25 @@
+package org.openelisglobal.odoo.controller;
+
+import org.openelisglobal.odoo.service.OdooInvoiceOutboxService;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutboxMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/rest/odoo/invoice-outbox")
+public class OdooInvoiceOutboxRestController {
+
+    private final OdooInvoiceOutboxService outboxService;
+
+    public OdooInvoiceOutboxRestController(OdooInvoiceOutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    /** Backlog and latency of the invoices sent to Odoo */
+    @GetMapping("/metrics")
+    public ResponseEntity<OdooInvoiceOutboxMetrics> getMetrics() {
+        return ResponseEntity.ok(outboxService.getMetrics());
+    }
+}
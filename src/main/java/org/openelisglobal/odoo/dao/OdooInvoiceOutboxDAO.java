@@ -0,0 +1,21 @@
+package org.openelisglobal.odoo.dao;
+
+import java.sql.Timestamp;
+import org.openelisglobal.common.dao.OutboxDAO;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox.Status;
+
+public interface OdooInvoiceOutboxDAO extends OutboxDAO<OdooInvoiceOutbox, Status> {
+
+    OdooInvoiceOutbox getByAccessionNumber(String accessionNumber) throws LIMSRuntimeException;
+
+    long getSentCount(Timestamp since) throws LIMSRuntimeException;
+
+    /**
+     * @return the average time in milliseconds from sample entry to invoice
+     *         creation of the invoices sent since the given time, null if there
+     *         are none
+     */
+    Double getAverageSendMillis(Timestamp since) throws LIMSRuntimeException;
+}
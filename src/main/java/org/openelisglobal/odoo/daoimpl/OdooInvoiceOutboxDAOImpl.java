@@ -0,0 +1,71 @@
+package org.openelisglobal.odoo.daoimpl;
+
+import java.sql.Timestamp;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.openelisglobal.common.daoimpl.OutboxDAOImpl;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.odoo.dao.OdooInvoiceOutboxDAO;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox.Status;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+public class OdooInvoiceOutboxDAOImpl extends OutboxDAOImpl<OdooInvoiceOutbox, Status>
+        implements OdooInvoiceOutboxDAO {
+
+    public OdooInvoiceOutboxDAOImpl() {
+        super(OdooInvoiceOutbox.class, Status.class, Status.PENDING, Status.SENDING, "createdTime",
+                "nextAttemptTime");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OdooInvoiceOutbox getByAccessionNumber(String accessionNumber) throws LIMSRuntimeException {
+        String hql = "from OdooInvoiceOutbox o where o.accessionNumber = :accessionNumber";
+        try {
+            Query<OdooInvoiceOutbox> query = entityManager.unwrap(Session.class).createQuery(hql,
+                    OdooInvoiceOutbox.class);
+            query.setParameter("accessionNumber", accessionNumber);
+            return query.uniqueResult();
+        } catch (HibernateException e) {
+            handleException(e, "getByAccessionNumber");
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getSentCount(Timestamp since) throws LIMSRuntimeException {
+        String hql = "select count(o) from OdooInvoiceOutbox o where o.sentTime >= :since";
+        try {
+            Query<Long> query = entityManager.unwrap(Session.class).createQuery(hql, Long.class);
+            query.setParameter("since", since);
+            Long count = query.uniqueResult();
+            return count == null ? 0L : count;
+        } catch (HibernateException e) {
+            handleException(e, "getSentCount");
+        }
+        return 0L;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getAverageSendMillis(Timestamp since) throws LIMSRuntimeException {
+        String sql = "select avg(extract(epoch from (sent_time - created_time)) * 1000) from odoo_invoice_outbox"
+                + " where sent_time >= :since";
+        try {
+            NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            query.setParameter("since", since);
+            Number average = (Number) query.uniqueResult();
+            return average == null ? null : average.doubleValue();
+        } catch (HibernateException e) {
+            handleException(e, "getAverageSendMillis");
+        }
+        return null;
+    }
+}
@@ -1,47 +1,88 @@
 package org.openelisglobal.odoo.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.openelisglobal.common.services.SampleAddService.SampleTestCollection;
+import org.openelisglobal.analysis.service.AnalysisService;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.services.IStatusService;
+import org.openelisglobal.common.services.StatusService.AnalysisStatus;
 import org.openelisglobal.odoo.client.OdooConnection;
 import org.openelisglobal.odoo.config.TestProductMapping;
 import org.openelisglobal.odoo.exception.OdooOperationException;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
 import org.openelisglobal.patient.service.PatientService;
 import org.openelisglobal.patient.valueholder.Patient;
 import org.openelisglobal.person.valueholder.Person;
-import org.openelisglobal.sample.action.util.SamplePatientUpdateData;
+import org.openelisglobal.sample.service.SampleService;
 import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.samplehuman.service.SampleHumanService;
-import org.openelisglobal.spring.util.SpringContext;
 import org.openelisglobal.test.service.TestService;
 import org.openelisglobal.test.valueholder.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service class for integrating OpenELIS with Odoo for billing functionality.
- * This service handles the creation of invoices in Odoo when orders are created
- * in OpenELIS.
+ * The invoice for an order is captured in the invoice outbox when the order is
+ * created in OpenELIS and created in Odoo by the
+ * {@link OdooInvoiceDispatcher}.
  */
 @Service
 public class OdooIntegrationService {
 
     private static final Logger log = LogManager.getLogger(OdooIntegrationService.class);
+    private static final Integer DEFAULT_PARTNER_ID = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Value("${org.openelisglobal.odoo.map.testname.locale:en}")
     private String testMapLocale;
 
+    @Value("${org.openelisglobal.odoo.partnerCache.size:10000}")
+    private int partnerCacheSize;
+
+    // access ordered, so the least recently used partner is evicted first
+    private final Map<String, Integer> partnersByNationalId = Collections
+            .synchronizedMap(new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > partnerCacheSize;
+                }
+            });
+
     @Autowired
     private OdooConnection odooConnection;
 
     @Autowired
     private TestProductMapping testProductMapping;
 
+    @Autowired
+    private SampleService sampleService;
+
+    @Autowired
+    private AnalysisService analysisService;
+
+    @Autowired
+    private TestService testService;
+
+    @Autowired
+    private IStatusService statusService;
+
     @Autowired
     private SampleHumanService sampleHumanService;
 
@@ -49,113 +90,200 @@ public class OdooIntegrationService {
     private PatientService patientService;
 
     /**
-     * Creates an invoice in Odoo for the given sample data.
-     * 
-     * @param updateData The sample data containing order information
-     * @throws OdooOperationException if there's an error creating the invoice
+     * Fills in the partner and invoice values of an invoice queued for a sample.
+     * This is done when the invoice is sent rather than when the sample is saved,
+     * so a test without a product mapping or any other billing error cannot roll
+     * back the sample entry. Only the analyses ordered at entry are billed, less
+     * those canceled since.
+     *
+     * @param invoice the outbox entry queued for the sample
      */
-    public void createInvoice(SamplePatientUpdateData updateData) {
-        // Check if Odoo connection is available
-        if (!odooConnection.isAvailable()) {
-            log.info("Odoo connection is not available. Skipping invoice creation for sample: {}",
-                    updateData.getAccessionNumber());
+    @Transactional(readOnly = true)
+    public void captureInvoiceData(OdooInvoiceOutbox invoice) {
+        Sample sample = sampleService.get(invoice.getSampleId());
+        List<Test> tests = new ArrayList<>();
+        for (Analysis analysis : getOrderedAnalyses(invoice, sample)) {
+            if (statusService.matches(analysis.getStatusId(), AnalysisStatus.Canceled)) {
+                log.info("Not billing canceled test {} of sample {}", analysis.getTest().getId(),
+                        invoice.getAccessionNumber());
+            } else {
+                tests.add(analysis.getTest());
+            }
+        }
+        invoice.setInvoiceData(toJson(createInvoiceData(invoice, tests)));
+
+        Patient patient = sampleHumanService.getPatientForSample(sample);
+        if (patient == null) {
+            log.warn("No patient found for sample {}, the invoice will use default partner ID {}",
+                    invoice.getAccessionNumber(), DEFAULT_PARTNER_ID);
             return;
         }
+        invoice.setPatientId(patient.getId());
+        String nationalId = patientService.getNationalId(patient);
+        if (nationalId != null && !nationalId.trim().isEmpty()) {
+            invoice.setNationalId(nationalId.trim());
+        }
+        Person person = patient.getPerson();
+        if (person == null) {
+            log.warn("No person found for patient {}, the invoice will use default partner ID {}", patient.getId(),
+                    DEFAULT_PARTNER_ID);
+        } else {
+            invoice.setPartnerData(toJson(createPartnerData(patient, person)));
+        }
+    }
 
-        try {
-            Map<String, Object> invoiceData = createInvoiceData(updateData);
-            Integer invoiceId = odooConnection.create("account.move", List.of(invoiceData));
-            if (invoiceId == null) {
-                throw new OdooOperationException(
-                        "Odoo returned null invoice ID for sample: " + updateData.getAccessionNumber());
+    private List<Analysis> getOrderedAnalyses(OdooInvoiceOutbox invoice, Sample sample) {
+        List<Analysis> analyses = new ArrayList<>();
+        if (invoice.getAnalysisIds() == null) {
+            // queued before the ordered analyses were recorded, reflex analyses are the
+            // only ones that can be told apart from those ordered
+            for (Analysis analysis : analysisService.getAnalysesBySampleId(sample.getId())) {
+                if (analysis.getParentAnalysis() == null) {
+                    analyses.add(analysis);
+                }
+            }
+            return analyses;
+        }
+        for (String analysisId : invoice.getAnalysisIds().split(",")) {
+            if (!analysisId.isEmpty()) {
+                analyses.add(analysisService.get(analysisId));
             }
-            log.info("Successfully created invoice in Odoo with ID: {} for sample: {}", invoiceId,
-                    updateData.getAccessionNumber());
-        } catch (Exception e) {
-            log.error("Error creating invoice in Odoo for sample {}: {}", updateData.getAccessionNumber(),
-                    e.getMessage(), e);
-            throw new OdooOperationException("Failed to create invoice in Odoo", e);
         }
+        return analyses;
     }
 
-    private Map<String, Object> createInvoiceData(SamplePatientUpdateData updateData) {
-        Map<String, Object> invoiceData = new HashMap<>();
-        invoiceData.put("move_type", "out_invoice");
+    public boolean isAvailable() {
+        return odooConnection.isAvailable();
+    }
 
-        Integer partnerId = getOrCreatePatientPartner(updateData);
-        invoiceData.put("partner_id", partnerId);
+    public static String getInvoiceRef(String accessionNumber) {
+        return "OE-" + accessionNumber;
+    }
 
-        invoiceData.put("invoice_date", java.time.LocalDate.now().toString());
-        invoiceData.put("ref", "OE-" + updateData.getAccessionNumber());
+    /**
+     * Creates the invoices of one partner in Odoo with a single call.
+     *
+     * @return the Odoo invoice ids, in the order of the invoices
+     * @throws OdooOperationException if Odoo did not create every invoice
+     */
+    public List<Integer> createInvoices(Integer partnerId, List<OdooInvoiceOutbox> invoices) {
+        List<Map<String, Object>> invoiceValues = new ArrayList<>();
+        for (OdooInvoiceOutbox invoice : invoices) {
+            Map<String, Object> invoiceData = fromJson(invoice.getInvoiceData());
+            invoiceData.put("partner_id", partnerId);
+            invoiceValues.add(invoiceData);
+        }
+        List<Integer> invoiceIds = odooConnection.createMultiple("account.move", invoiceValues);
+        if (invoiceIds == null || invoiceIds.size() != invoices.size()) {
+            throw new OdooOperationException("Odoo returned " + (invoiceIds == null ? 0 : invoiceIds.size())
+                    + " invoice IDs for " + invoices.size() + " invoices of partner " + partnerId);
+        }
+        log.info("Created {} invoices in Odoo for partner {}", invoiceIds.size(), partnerId);
+        return invoiceIds;
+    }
 
-        List<Object> formattedInvoiceLines = new ArrayList<>();
-        List<Map<String, Object>> invoiceLines = createInvoiceLines(updateData);
-        for (Map<String, Object> line : invoiceLines) {
-            formattedInvoiceLines.add(List.of(0, 0, line));
+    /**
+     * Finds invoices already created in Odoo, e.g. by an attempt whose response
+     * was lost.
+     *
+     * @return the Odoo invoice id by invoice reference
+     */
+    public Map<String, Integer> findInvoicesByRef(Collection<String> refs) {
+        Map<String, Integer> invoiceIds = new HashMap<>();
+        if (refs.isEmpty()) {
+            return invoiceIds;
         }
-        invoiceData.put("invoice_line_ids", formattedInvoiceLines);
-        return invoiceData;
+        Object[] result = odooConnection.searchAndRead("account.move", List.of("ref", "in", new ArrayList<>(refs)),
+                List.of("id", "ref"));
+        putIdsByField(result, "ref", invoiceIds);
+        return invoiceIds;
     }
 
     /**
-     * Gets or creates a partner in Odoo for the patient associated with the sample.
-     * 
-     * @param updateData The sample data containing patient information
-     * @return The partner ID in Odoo
+     * Looks up the partners for the national IDs that are not cached yet with a
+     * single search and adds them to the cache.
+     *
+     * @return the partner id by national ID for every partner known in Odoo
      */
-    private Integer getOrCreatePatientPartner(SamplePatientUpdateData updateData) {
-        try {
-            Sample sample = updateData.getSample();
-            if (sample == null) {
-                log.warn("No sample found in updateData, using default partner ID 1");
-                return 1;
+    public Map<String, Integer> findPartnersByNationalIds(Collection<String> nationalIds) {
+        Map<String, Integer> partnerIds = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String nationalId : nationalIds) {
+            Integer partnerId = partnersByNationalId.get(nationalId);
+            if (partnerId == null) {
+                uncached.add(nationalId);
+            } else {
+                partnerIds.put(nationalId, partnerId);
             }
+        }
+        if (!uncached.isEmpty()) {
+            log.debug("Searching for {} partners by national ID", uncached.size());
+            Object[] result = odooConnection.searchAndRead("res.partner", List.of("ref", "in", uncached),
+                    List.of("id", "ref"));
+            Map<String, Integer> found = new HashMap<>();
+            putIdsByField(result, "ref", found);
+            partnersByNationalId.putAll(found);
+            partnerIds.putAll(found);
+        }
+        return partnerIds;
+    }
 
-            Patient patient = sampleHumanService.getPatientForSample(sample);
-            if (patient == null) {
-                log.warn("No patient found for sample {}, using default partner ID 1", sample.getAccessionNumber());
-                return 1;
+    /**
+     * Gets or creates the partner in Odoo for the patient of the invoice. Partners
+     * are cached by national ID.
+     *
+     * @return The partner ID in Odoo
+     * @throws OdooOperationException if the partner could not be created
+     */
+    public Integer getOrCreatePartner(OdooInvoiceOutbox invoice) {
+        if (invoice.getPartnerData() == null) {
+            return DEFAULT_PARTNER_ID;
+        }
+        Map<String, Object> partnerData = fromJson(invoice.getPartnerData());
+        String nationalId = invoice.getNationalId();
+        if (nationalId != null) {
+            Integer partnerId = partnersByNationalId.get(nationalId);
+            if (partnerId == null) {
+                partnerId = findPartnerByNationalId(nationalId);
             }
-
-            Person person = patient.getPerson();
-            if (person == null) {
-                log.warn("No person found for patient {}, using default partner ID 1", patient.getId());
-                return 1;
+            if (partnerId == null) {
+                // Try alternative search by name as fallback
+                partnerId = findPartnerByName((String) partnerData.get("name"));
             }
-
-            String nationalId = patientService.getNationalId(patient);
-            if (nationalId != null && !nationalId.trim().isEmpty()) {
-                Integer existingPartnerId = findPartnerByNationalId(nationalId);
-                if (existingPartnerId != null) {
-                    log.info("Found existing partner with national ID {}: {}", nationalId, existingPartnerId);
-                    return existingPartnerId;
-                } else {
-                    // Try alternative search by name as fallback
-                    existingPartnerId = findPartnerByName(person.getFirstName(), person.getLastName());
-                    if (existingPartnerId != null) {
-                        log.info("Found existing partner by name for national ID {}: {}", nationalId,
-                                existingPartnerId);
-                        return existingPartnerId;
-                    }
-                }
+            if (partnerId != null) {
+                partnersByNationalId.put(nationalId, partnerId);
+                return partnerId;
             }
+        }
 
-            Map<String, Object> partnerData = createPartnerData(patient, person);
-            Integer partnerId = odooConnection.create("res.partner", List.of(partnerData));
+        Integer partnerId = odooConnection.create("res.partner", List.of(partnerData));
+        if (partnerId == null) {
+            throw new OdooOperationException("Odoo returned null partner ID for patient " + invoice.getPatientId());
+        }
+        log.info("Created new partner in Odoo with ID: {} for patient: {}", partnerId, invoice.getPatientId());
+        if (nationalId != null) {
+            partnersByNationalId.put(nationalId, partnerId);
+        }
+        return partnerId;
+    }
 
-            if (partnerId == null) {
-                log.warn("Failed to create partner for patient {}, using default partner ID 1", patient.getId());
-                return 1;
-            }
+    public int getCachedPartnerCount() {
+        return partnersByNationalId.size();
+    }
 
-            log.info("Created new partner in Odoo with ID: {} for patient: {} {}", partnerId, person.getFirstName(),
-                    person.getLastName());
-            return partnerId;
+    private Map<String, Object> createInvoiceData(OdooInvoiceOutbox invoice, List<Test> tests) {
+        Map<String, Object> invoiceData = new HashMap<>();
+        invoiceData.put("move_type", "out_invoice");
+        invoiceData.put("invoice_date", invoice.getCreatedTime().toLocalDateTime().toLocalDate().toString());
+        invoiceData.put("ref", getInvoiceRef(invoice.getAccessionNumber()));
 
-        } catch (Exception e) {
-            log.error("Error getting or creating patient partner: {}", e.getMessage(), e);
-            return 1;
+        List<Object> formattedInvoiceLines = new ArrayList<>();
+        List<Map<String, Object>> invoiceLines = createInvoiceLines(tests);
+        for (Map<String, Object> line : invoiceLines) {
+            formattedInvoiceLines.add(List.of(0, 0, line));
         }
+        invoiceData.put("invoice_line_ids", formattedInvoiceLines);
+        return invoiceData;
     }
 
     /**
@@ -165,90 +293,85 @@ public class OdooIntegrationService {
      * @return The partner ID if found, null otherwise
      */
     private Integer findPartnerByNationalId(String nationalId) {
-        try {
-            List<Object> criteria = List.of("ref", "=", nationalId);
-            List<String> fields = List.of("id");
-
-            log.debug("Searching for partner with national ID: {} using criteria: {}", nationalId, criteria);
-
-            Object[] result = odooConnection.searchAndRead("res.partner", criteria, fields);
-
-            log.debug("Search result for national ID {}: {} records found", nationalId,
-                    result != null ? result.length : 0);
-
-            if (result != null && result.length > 0) {
-                Object firstResult = result[0];
-                log.debug("First result type: {}, content: {}", firstResult.getClass().getSimpleName(), firstResult);
-
-                if (firstResult instanceof Map) {
-                    Map<?, ?> partnerData = (Map<?, ?>) firstResult;
-                    Object id = partnerData.get("id");
-                    if (id instanceof Integer) {
-                        log.info("Found existing partner with national ID {}: partner ID {}", nationalId, id);
-                        return (Integer) id;
-                    } else {
-                        log.warn("Partner ID is not an Integer: {} (type: {})", id,
-                                id != null ? id.getClass() : "null");
-                    }
-                } else {
-                    log.warn("First result is not a Map: {} (type: {})", firstResult, firstResult.getClass());
-                }
-            } else {
-                log.debug("No partner found with national ID: {}", nationalId);
-            }
+        List<Object> criteria = List.of("ref", "=", nationalId);
+        List<String> fields = List.of("id");
 
-            return null;
-        } catch (Exception e) {
-            log.error("Error searching for partner by national ID {}: {}", nationalId, e.getMessage(), e);
-            return null;
+        log.debug("Searching for partner with national ID: {} using criteria: {}", nationalId, criteria);
+
+        Object[] result = odooConnection.searchAndRead("res.partner", criteria, fields);
+        Integer partnerId = getFirstId(result);
+        if (partnerId != null) {
+            log.info("Found existing partner with national ID {}: partner ID {}", nationalId, partnerId);
+        } else {
+            log.debug("No partner found with national ID: {}", nationalId);
         }
+        return partnerId;
     }
 
     /**
      * Finds a partner in Odoo by name as a fallback.
      * 
-     * @param firstName The patient's first name
-     * @param lastName  The patient's last name
+     * @param fullName The patient's full name
      * @return The partner ID if found, null otherwise
      */
-    private Integer findPartnerByName(String firstName, String lastName) {
-        if (firstName == null && lastName == null) {
+    private Integer findPartnerByName(String fullName) {
+        if (fullName == null || fullName.trim().isEmpty()) {
             return null;
         }
 
-        try {
-            String fullName = (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
-            fullName = fullName.trim();
-
-            if (fullName.isEmpty()) {
-                return null;
-            }
+        List<Object> criteria = List.of("name", "ilike", fullName.trim());
+        List<String> fields = List.of("id", "name");
 
-            List<Object> criteria = List.of("name", "ilike", fullName);
-            List<String> fields = List.of("id", "name");
+        log.debug("Searching for partner by name: '{}' using criteria: {}", fullName, criteria);
 
-            log.debug("Searching for partner by name: '{}' using criteria: {}", fullName, criteria);
-
-            Object[] result = odooConnection.searchAndRead("res.partner", criteria, fields);
+        Object[] result = odooConnection.searchAndRead("res.partner", criteria, fields);
+        Integer partnerId = getFirstId(result);
+        if (partnerId != null) {
+            log.info("Found existing partner by name '{}': partner ID {}", fullName, partnerId);
+        }
+        return partnerId;
+    }
 
-            log.debug("Search result for name '{}': {} records found", fullName, result != null ? result.length : 0);
+    private Integer getFirstId(Object[] result) {
+        if (result != null && result.length > 0 && result[0] instanceof Map) {
+            Object id = ((Map<?, ?>) result[0]).get("id");
+            if (id instanceof Integer) {
+                return (Integer) id;
+            }
+            log.warn("Partner ID is not an Integer: {} (type: {})", id, id != null ? id.getClass() : "null");
+        }
+        return null;
+    }
 
-            if (result != null && result.length > 0) {
-                Object firstResult = result[0];
-                if (firstResult instanceof Map) {
-                    Map<?, ?> partnerData = (Map<?, ?>) firstResult;
-                    Object id = partnerData.get("id");
-                    if (id instanceof Integer) {
-                        log.info("Found existing partner by name '{}': partner ID {}", fullName, id);
-                        return (Integer) id;
-                    }
+    private void putIdsByField(Object[] result, String field, Map<String, Integer> idsByField) {
+        if (result == null) {
+            return;
+        }
+        for (Object record : result) {
+            if (record instanceof Map) {
+                Object id = ((Map<?, ?>) record).get("id");
+                Object value = ((Map<?, ?>) record).get(field);
+                if (id instanceof Integer && value instanceof String) {
+                    idsByField.putIfAbsent((String) value, (Integer) id);
                 }
             }
+        }
+    }
 
-            return null;
-        } catch (Exception e) {
-            log.error("Error searching for partner by name {}: {}", firstName + " " + lastName, e.getMessage(), e);
-            return null;
+    private String toJson(Map<String, Object> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new OdooOperationException("Could not serialize Odoo values", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new OdooOperationException("Could not read stored Odoo values", e);
         }
     }
 
@@ -311,41 +434,35 @@ public class OdooIntegrationService {
         return partnerData;
     }
 
-    private List<Map<String, Object>> createInvoiceLines(SamplePatientUpdateData updateData) {
+    private List<Map<String, Object>> createInvoiceLines(List<Test> tests) {
         List<Map<String, Object>> invoiceLines = new ArrayList<>();
 
         log.info("Available test mappings: {}", testProductMapping.getAllMappedLoincCodes());
 
-        if (updateData.getSampleItemsTests() != null) {
-            for (SampleTestCollection sampleTest : updateData.getSampleItemsTests()) {
-                for (Test test : sampleTest.tests) {
-                    TestService testService = SpringContext.getBean(TestService.class);
-                    String testName = testService.get(test.getId()).getLocalizedTestName()
-                            .getLocalizedValue(testMapLocale.equalsIgnoreCase("EN") ? Locale.ENGLISH : Locale.FRENCH);
-
-                    log.info("Processing test: Name={}", testName);
-
-                    String mappingKey = null;
-                    if (testProductMapping.hasValidMapping(testName)) {
-                        mappingKey = testName;
-                    }
-
-                    if (mappingKey != null) {
-                        TestProductMapping.TestProductInfo productInfo = testProductMapping.getProductName(mappingKey);
-                        Map<String, Object> invoiceLine = new HashMap<>();
-                        invoiceLine.put("name", productInfo.getProductName());
-                        invoiceLine.put("quantity", productInfo.getQuantity());
-                        invoiceLine.put("price_unit", productInfo.getPriceUnit());
-                        invoiceLine.put("account_id", 1);
-                        invoiceLines.add(invoiceLine);
-                        log.info(
-                                "Added invoice line for test: {} (mapped from: {}) with product: {}, quantity: {}, price: {}",
-                                testName, mappingKey, productInfo.getProductName(), productInfo.getQuantity(),
-                                productInfo.getPriceUnit());
-                    } else {
-                        log.warn("No Odoo product mapping found for test: {}", testName);
-                    }
-                }
+        for (Test test : tests) {
+            String testName = testService.get(test.getId()).getLocalizedTestName()
+                    .getLocalizedValue(testMapLocale.equalsIgnoreCase("EN") ? Locale.ENGLISH : Locale.FRENCH);
+
+            log.info("Processing test: Name={}", testName);
+
+            String mappingKey = null;
+            if (testProductMapping.hasValidMapping(testName)) {
+                mappingKey = testName;
+            }
+
+            if (mappingKey != null) {
+                TestProductMapping.TestProductInfo productInfo = testProductMapping.getProductName(mappingKey);
+                Map<String, Object> invoiceLine = new HashMap<>();
+                invoiceLine.put("name", productInfo.getProductName());
+                invoiceLine.put("quantity", productInfo.getQuantity());
+                invoiceLine.put("price_unit", productInfo.getPriceUnit());
+                invoiceLine.put("account_id", 1);
+                invoiceLines.add(invoiceLine);
+                log.info("Added invoice line for test: {} (mapped from: {}) with product: {}, quantity: {}, price: {}",
+                        testName, mappingKey, productInfo.getProductName(), productInfo.getQuantity(),
+                        productInfo.getPriceUnit());
+            } else {
+                log.warn("No Odoo product mapping found for test: {}", testName);
             }
         }
         return invoiceLines;
@@ -0,0 +1,163 @@
+package org.openelisglobal.odoo.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the invoices captured in the Odoo invoice outbox.
+ *
+ * <p>
+ * Due invoices are claimed in batches. The invoice lines and partner of an
+ * invoice are read from its sample on the first attempt. The partners for all
+ * national IDs in a batch are looked up with one search and the invoices of
+ * each partner are created with one call. Invoices that are retried are first
+ * looked up by reference so an invoice created by an attempt whose response was
+ * lost is not created twice. A failed call is retried with exponential backoff.
+ */
+@Component
+public class OdooInvoiceDispatcher {
+
+    private static final Logger log = LogManager.getLogger(OdooInvoiceDispatcher.class);
+
+    @Autowired
+    private OdooInvoiceOutboxService outboxService;
+    @Autowired
+    private OdooIntegrationService odooIntegrationService;
+
+    @Value("${org.openelisglobal.odoo.outbox.batchSize:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelay = 60 * 1000, fixedDelayString = "${org.openelisglobal.odoo.outbox.pollInterval:10000}")
+    public void dispatchPendingInvoices() {
+        if (!outboxService.isOutboxEnabled() || !odooIntegrationService.isAvailable()) {
+            return;
+        }
+        requeueExpiredClaims();
+        List<OdooInvoiceOutbox> batch;
+        do {
+            batch = outboxService.claimDue(batchSize);
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Invoices claimed by a node that went away while sending are picked up again
+     * once their claim times out. They are looked up by reference before being
+     * created, so an invoice the node did create is not posted twice
+     */
+    private void requeueExpiredClaims() {
+        int requeued = outboxService.requeueExpiredClaims();
+        if (requeued > 0) {
+            log.info("Requeued {} Odoo invoices whose sending claim expired", requeued);
+        }
+    }
+
+    void sendBatch(List<OdooInvoiceOutbox> batch) {
+        batch = captureInvoiceData(batch);
+        Map<String, Integer> existingInvoiceIds;
+        try {
+            existingInvoiceIds = findExistingInvoices(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not look up retried invoices in Odoo: {}", e.getMessage(), e);
+            for (OdooInvoiceOutbox invoice : batch) {
+                recordFailure(invoice, e);
+            }
+            return;
+        }
+
+        Map<String, List<OdooInvoiceOutbox>> invoicesByPartner = new LinkedHashMap<>();
+        Set<String> nationalIds = new TreeSet<>();
+        for (OdooInvoiceOutbox invoice : batch) {
+            Integer existingInvoiceId = existingInvoiceIds
+                    .get(OdooIntegrationService.getInvoiceRef(invoice.getAccessionNumber()));
+            if (existingInvoiceId != null) {
+                outboxService.markSent(invoice, existingInvoiceId);
+                continue;
+            }
+            invoicesByPartner.computeIfAbsent(invoice.getPartnerKey(), k -> new ArrayList<>()).add(invoice);
+            if (invoice.getNationalId() != null && invoice.getPartnerData() != null) {
+                nationalIds.add(invoice.getNationalId());
+            }
+        }
+        try {
+            // warms the partner cache, partners not found are resolved per partner below
+            odooIntegrationService.findPartnersByNationalIds(nationalIds);
+        } catch (RuntimeException e) {
+            log.warn("Could not look up partners by national ID: {}", e.getMessage());
+        }
+
+        for (List<OdooInvoiceOutbox> partnerInvoices : invoicesByPartner.values()) {
+            sendPartnerInvoices(partnerInvoices);
+        }
+    }
+
+    /**
+     * @return the invoices whose values are captured, those that could not be
+     *         captured are recorded as failed
+     */
+    private List<OdooInvoiceOutbox> captureInvoiceData(List<OdooInvoiceOutbox> batch) {
+        List<OdooInvoiceOutbox> captured = new ArrayList<>();
+        for (OdooInvoiceOutbox invoice : batch) {
+            if (invoice.getInvoiceData() == null) {
+                try {
+                    odooIntegrationService.captureInvoiceData(invoice);
+                } catch (RuntimeException e) {
+                    log.error("Could not build the invoice for sample {}: {}", invoice.getAccessionNumber(),
+                            e.getMessage(), e);
+                    recordFailure(invoice, e);
+                    continue;
+                }
+            }
+            captured.add(invoice);
+        }
+        return captured;
+    }
+
+    private Map<String, Integer> findExistingInvoices(List<OdooInvoiceOutbox> batch) {
+        List<String> retriedRefs = new ArrayList<>();
+        for (OdooInvoiceOutbox invoice : batch) {
+            if (invoice.getAttempts() > 1) {
+                retriedRefs.add(OdooIntegrationService.getInvoiceRef(invoice.getAccessionNumber()));
+            }
+        }
+        return odooIntegrationService.findInvoicesByRef(retriedRefs);
+    }
+
+    private void sendPartnerInvoices(List<OdooInvoiceOutbox> partnerInvoices) {
+        try {
+            Integer partnerId = odooIntegrationService.getOrCreatePartner(partnerInvoices.get(0));
+            List<Integer> invoiceIds = odooIntegrationService.createInvoices(partnerId, partnerInvoices);
+            for (int i = 0; i < partnerInvoices.size(); i++) {
+                outboxService.markSent(partnerInvoices.get(i), invoiceIds.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error creating {} invoices in Odoo for {}: {}", partnerInvoices.size(),
+                    partnerInvoices.get(0).getPartnerKey(), e.getMessage(), e);
+            for (OdooInvoiceOutbox invoice : partnerInvoices) {
+                recordFailure(invoice, e);
+            }
+        }
+    }
+
+    private void recordFailure(OdooInvoiceOutbox invoice, Exception e) {
+        try {
+            outboxService.recordFailure(invoice, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (RuntimeException e2) {
+            // left in SENDING, requeued once the claim times out
+            log.error("Could not record failure of invoice for sample {}", invoice.getAccessionNumber(), e2);
+        }
+    }
+}
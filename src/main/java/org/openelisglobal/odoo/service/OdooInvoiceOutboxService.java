@@ -0,0 +1,39 @@
+package org.openelisglobal.odoo.service;
+
+import java.util.List;
+import org.openelisglobal.common.service.BaseObjectService;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutboxMetrics;
+import org.openelisglobal.sample.action.util.SamplePatientUpdateData;
+
+public interface OdooInvoiceOutboxService extends BaseObjectService<OdooInvoiceOutbox, Long> {
+
+    /** @return true if invoices are captured for Odoo when samples are entered */
+    boolean isOutboxEnabled();
+
+    /**
+     * Queues the invoice for a newly entered sample. Must be called in the
+     * transaction that saves the sample so the invoice is saved with it. Only the
+     * sample is recorded, the invoice is built from it when it is sent
+     */
+    void enqueue(SamplePatientUpdateData updateData);
+
+    List<OdooInvoiceOutbox> claimDue(int batchSize);
+
+    void markSent(OdooInvoiceOutbox invoice, Integer odooInvoiceId);
+
+    /**
+     * Schedules another attempt with exponential backoff, or marks the invoice
+     * FAILED once it has used all its attempts
+     */
+    void recordFailure(OdooInvoiceOutbox invoice, String errorDetail);
+
+    /**
+     * Returns invoices left in SENDING longer than the claim timeout, e.g. by a
+     * node that shut down while sending, to PENDING. Invoices other nodes are
+     * still sending are left alone
+     */
+    int requeueExpiredClaims();
+
+    OdooInvoiceOutboxMetrics getMetrics();
+}
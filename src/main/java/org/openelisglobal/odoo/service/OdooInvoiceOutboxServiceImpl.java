@@ -0,0 +1,145 @@
+package org.openelisglobal.odoo.service;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.StringJoiner;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.service.BaseObjectServiceImpl;
+import org.openelisglobal.common.services.SampleAddService.SampleTestCollection;
+import org.openelisglobal.common.util.DateUtil;
+import org.openelisglobal.common.util.RetryBackoff;
+import org.openelisglobal.odoo.dao.OdooInvoiceOutboxDAO;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox.Status;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutboxMetrics;
+import org.openelisglobal.sample.action.util.SamplePatientUpdateData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OdooInvoiceOutboxServiceImpl extends BaseObjectServiceImpl<OdooInvoiceOutbox, Long>
+        implements OdooInvoiceOutboxService {
+
+    private static final long ONE_HOUR_MILLIS = 60L * 60L * 1000L;
+
+    @Autowired
+    protected OdooInvoiceOutboxDAO baseObjectDAO;
+    @Autowired
+    private OdooIntegrationService odooIntegrationService;
+
+    @Value("${org.openelisglobal.odoo.enabled:false}")
+    private boolean odooEnabled;
+
+    @Value("${org.openelisglobal.odoo.outbox.maxAttempts:10}")
+    private int maxAttempts;
+
+    @Value("${org.openelisglobal.odoo.outbox.retryBackoff:30000}")
+    private long retryBackoffMillis;
+
+    @Value("${org.openelisglobal.odoo.outbox.maxRetryBackoff:3600000}")
+    private long maxRetryBackoffMillis;
+
+    @Value("${org.openelisglobal.odoo.outbox.claimTimeout:600000}")
+    private long claimTimeoutMillis;
+
+    OdooInvoiceOutboxServiceImpl() {
+        super(OdooInvoiceOutbox.class);
+    }
+
+    @Override
+    protected OdooInvoiceOutboxDAO getBaseObjectDAO() {
+        return baseObjectDAO;
+    }
+
+    @Override
+    public boolean isOutboxEnabled() {
+        return odooEnabled;
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(SamplePatientUpdateData updateData) {
+        if (!odooEnabled || getBaseObjectDAO().getByAccessionNumber(updateData.getAccessionNumber()) != null) {
+            return;
+        }
+        OdooInvoiceOutbox invoice = new OdooInvoiceOutbox();
+        invoice.setAccessionNumber(updateData.getAccessionNumber());
+        invoice.setSampleId(updateData.getSample().getId());
+        invoice.setAnalysisIds(getOrderedAnalysisIds(updateData));
+        Timestamp now = DateUtil.getNowAsTimestamp();
+        invoice.setStatus(Status.PENDING);
+        invoice.setCreatedTime(now);
+        invoice.setNextAttemptTime(now);
+        insert(invoice);
+    }
+
+    private String getOrderedAnalysisIds(SamplePatientUpdateData updateData) {
+        StringJoiner analysisIds = new StringJoiner(",");
+        if (updateData.getSampleItemsTests() != null) {
+            for (SampleTestCollection sampleTest : updateData.getSampleItemsTests()) {
+                if (sampleTest.analysises != null) {
+                    for (Analysis analysis : sampleTest.analysises) {
+                        analysisIds.add(analysis.getId());
+                    }
+                }
+            }
+        }
+        return analysisIds.toString();
+    }
+
+    @Override
+    @Transactional
+    public List<OdooInvoiceOutbox> claimDue(int batchSize) {
+        return getBaseObjectDAO().claimDue(batchSize, DateUtil.getNowAsTimestamp());
+    }
+
+    @Override
+    @Transactional
+    public void markSent(OdooInvoiceOutbox invoice, Integer odooInvoiceId) {
+        invoice.setStatus(Status.SENT);
+        invoice.setOdooInvoiceId(odooInvoiceId);
+        invoice.setErrorDetail(null);
+        invoice.setSentTime(DateUtil.getNowAsTimestamp());
+        update(invoice);
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(OdooInvoiceOutbox invoice, String errorDetail) {
+        invoice.setErrorDetail(errorDetail);
+        if (invoice.getAttempts() >= maxAttempts) {
+            invoice.setStatus(Status.FAILED);
+        } else {
+            invoice.setStatus(Status.PENDING);
+            invoice.setClaimedAt(null);
+            invoice.setNextAttemptTime(RetryBackoff.getNextAttemptTime(invoice.getAttempts(), retryBackoffMillis,
+                    maxRetryBackoffMillis));
+        }
+        update(invoice);
+    }
+
+    @Override
+    @Transactional
+    public int requeueExpiredClaims() {
+        return getBaseObjectDAO()
+                .requeueClaimedBefore(new Timestamp(System.currentTimeMillis() - claimTimeoutMillis));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OdooInvoiceOutboxMetrics getMetrics() {
+        long now = System.currentTimeMillis();
+        Timestamp oneHourAgo = new Timestamp(now - ONE_HOUR_MILLIS);
+
+        OdooInvoiceOutboxMetrics metrics = new OdooInvoiceOutboxMetrics();
+        metrics.setCountsByStatus(getBaseObjectDAO().getCountsByStatus());
+        Timestamp oldestPending = getBaseObjectDAO().getOldestQueuedTime(Status.PENDING);
+        metrics.setOldestPendingAgeMillis(oldestPending == null ? null : now - oldestPending.getTime());
+        metrics.setSentLastHour(getBaseObjectDAO().getSentCount(oneHourAgo));
+        metrics.setAverageSendMillisLastHour(getBaseObjectDAO().getAverageSendMillis(oneHourAgo));
+        metrics.setCachedPartners(odooIntegrationService.getCachedPartnerCount());
+        return metrics;
+    }
+}
@@ -0,0 +1,230 @@
+package org.openelisglobal.odoo.valueholder;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.sql.Timestamp;
+import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.common.valueholder.OutboxEntry;
+
+/**
+ * An invoice for a sample waiting to be, or already, created in Odoo. Only the
+ * sample and its ordered analyses are recorded when it is saved. The partner and invoice values are
+ * captured as JSON on the first send attempt and reused by later attempts.
+ */
+@Entity
+@Table(name = "odoo_invoice_outbox")
+public class OdooInvoiceOutbox extends BaseObject<Long> implements OutboxEntry<OdooInvoiceOutbox.Status> {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "accession_number", nullable = false)
+    private String accessionNumber;
+
+    @Column(name = "sample_id")
+    private String sampleId;
+
+    @Column(name = "analysis_ids", columnDefinition = "TEXT")
+    private String analysisIds;
+
+    @Column(name = "patient_id")
+    private String patientId;
+
+    @Column(name = "national_id")
+    private String nationalId;
+
+    @Column(name = "partner_data", columnDefinition = "TEXT")
+    private String partnerData;
+
+    @Column(name = "invoice_data", columnDefinition = "TEXT")
+    private String invoiceData;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "created_time", nullable = false)
+    private Timestamp createdTime;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private Timestamp nextAttemptTime;
+
+    @Column(name = "claimed_at")
+    private Timestamp claimedAt;
+
+    @Column(name = "sent_time")
+    private Timestamp sentTime;
+
+    @Column(name = "odoo_invoice_id")
+    private Integer odooInvoiceId;
+
+    @Column(name = "error_detail", columnDefinition = "TEXT")
+    private String errorDetail;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAccessionNumber() {
+        return accessionNumber;
+    }
+
+    public void setAccessionNumber(String accessionNumber) {
+        this.accessionNumber = accessionNumber;
+    }
+
+    public String getSampleId() {
+        return sampleId;
+    }
+
+    public void setSampleId(String sampleId) {
+        this.sampleId = sampleId;
+    }
+
+    /**
+     * @return the comma separated ids of the analyses ordered with the sample
+     */
+    public String getAnalysisIds() {
+        return analysisIds;
+    }
+
+    public void setAnalysisIds(String analysisIds) {
+        this.analysisIds = analysisIds;
+    }
+
+    public String getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+
+    public String getNationalId() {
+        return nationalId;
+    }
+
+    public void setNationalId(String nationalId) {
+        this.nationalId = nationalId;
+    }
+
+    public String getPartnerData() {
+        return partnerData;
+    }
+
+    public void setPartnerData(String partnerData) {
+        this.partnerData = partnerData;
+    }
+
+    public String getInvoiceData() {
+        return invoiceData;
+    }
+
+    public void setInvoiceData(String invoiceData) {
+        this.invoiceData = invoiceData;
+    }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Timestamp getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(Timestamp createdTime) {
+        this.createdTime = createdTime;
+    }
+
+    public Timestamp getNextAttemptTime() {
+        return nextAttemptTime;
+    }
+
+    public void setNextAttemptTime(Timestamp nextAttemptTime) {
+        this.nextAttemptTime = nextAttemptTime;
+    }
+
+    @Override
+    public Timestamp getClaimedAt() {
+        return claimedAt;
+    }
+
+    @Override
+    public void setClaimedAt(Timestamp claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Timestamp getSentTime() {
+        return sentTime;
+    }
+
+    public void setSentTime(Timestamp sentTime) {
+        this.sentTime = sentTime;
+    }
+
+    public Integer getOdooInvoiceId() {
+        return odooInvoiceId;
+    }
+
+    public void setOdooInvoiceId(Integer odooInvoiceId) {
+        this.odooInvoiceId = odooInvoiceId;
+    }
+
+    public String getErrorDetail() {
+        return errorDetail;
+    }
+
+    public void setErrorDetail(String errorDetail) {
+        this.errorDetail = errorDetail;
+    }
+
+    /**
+     * Invoices for the same Odoo partner share this key so they can be sent
+     * together: the national ID when known, else the patient
+     */
+    public String getPartnerKey() {
+        if (nationalId != null) {
+            return "nationalId:" + nationalId;
+        }
+        return patientId == null ? "default" : "patient:" + patientId;
+    }
+}
@@ -0,0 +1,54 @@
+package org.openelisglobal.odoo.valueholder;
+
+import java.util.Map;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox.Status;
+
+/** Snapshot of the Odoo invoice outbox */
+public class OdooInvoiceOutboxMetrics {
+
+    private Map<Status, Long> countsByStatus;
+    private Long oldestPendingAgeMillis;
+    private long sentLastHour;
+    private Double averageSendMillisLastHour;
+    private int cachedPartners;
+
+    public Map<Status, Long> getCountsByStatus() {
+        return countsByStatus;
+    }
+
+    public void setCountsByStatus(Map<Status, Long> countsByStatus) {
+        this.countsByStatus = countsByStatus;
+    }
+
+    public Long getOldestPendingAgeMillis() {
+        return oldestPendingAgeMillis;
+    }
+
+    public void setOldestPendingAgeMillis(Long oldestPendingAgeMillis) {
+        this.oldestPendingAgeMillis = oldestPendingAgeMillis;
+    }
+
+    public long getSentLastHour() {
+        return sentLastHour;
+    }
+
+    public void setSentLastHour(long sentLastHour) {
+        this.sentLastHour = sentLastHour;
+    }
+
+    public Double getAverageSendMillisLastHour() {
+        return averageSendMillisLastHour;
+    }
+
+    public void setAverageSendMillisLastHour(Double averageSendMillisLastHour) {
+        this.averageSendMillisLastHour = averageSendMillisLastHour;
+    }
+
+    public int getCachedPartners() {
+        return cachedPartners;
+    }
+
+    public void setCachedPartners(int cachedPartners) {
+        this.cachedPartners = cachedPartners;
+    }
+}
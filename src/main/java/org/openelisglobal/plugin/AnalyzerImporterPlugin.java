@@ -16,6 +16,7 @@
 
 package org.openelisglobal.plugin;
 
+import java.util.Collections;
 import java.util.List;
 import org.openelisglobal.analyzerimport.analyzerreaders.AnalyzerLineInserter;
 import org.openelisglobal.analyzerimport.analyzerreaders.AnalyzerResponder;
@@ -32,4 +33,16 @@ public interface AnalyzerImporterPlugin extends APlugin {
     default AnalyzerResponder getAnalyzerResponder() {
         return null;
     }
+
+    /**
+     * The header signatures of the messages this analyzer sends: the sender name
+     * of an ASTM header record (the first component of its fifth field) or, for
+     * files, the first non-blank line. Messages with one of these signatures are
+     * handed to this plugin without asking isTargetAnalyzer, unless another plugin
+     * declares the same signature. Plugins without signatures are found by asking
+     * every plugin in turn.
+     */
+    default List<String> getHeaderSignatures() {
+        return Collections.emptyList();
+    }
 }
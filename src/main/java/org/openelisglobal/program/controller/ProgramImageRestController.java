@@ -0,0 +1,63 @@
+package org.openelisglobal.program.controller;
+
+import java.util.concurrent.TimeUnit;
+import org.openelisglobal.program.service.ProgramImageService;
+import org.openelisglobal.program.valueholder.ProgramImage;
+import org.openelisglobal.program.valueholder.ProgramImageType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the slide images and report files of program cases from the blob
+ * store. The content is streamed rather than read into memory, and Range
+ * requests are answered with the requested part only, so large slide scans can
+ * be viewed progressively.
+ */
+@RestController
+@RequestMapping("/rest/program/image")
+public class ProgramImageRestController {
+
+    private static final String DATA_URL_PREFIX = "data:";
+
+    @Autowired
+    private ProgramImageService programImageService;
+
+    @GetMapping("/{type}/{id}")
+    public ResponseEntity<Resource> getImage(@PathVariable String type, @PathVariable Integer id,
+            @RequestParam(defaultValue = "false") boolean thumbnail) {
+        ProgramImageType imageType = ProgramImageType.fromCode(type);
+        ProgramImage image = imageType == null ? null : programImageService.getImage(imageType, id);
+        if (image == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String hash = thumbnail ? image.getThumbnailHash() : image.getImageHash();
+        Resource content = hash == null ? null : programImageService.getContent(hash);
+        if (content == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        // spring answers Range requests for resources with 206 and the requested
+        // range, and If-None-Match with 304
+        return ResponseEntity.ok().contentType(thumbnail ? MediaType.IMAGE_PNG : getMediaType(image.getFileType()))
+                .eTag(hash).cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate()).body(content);
+    }
+
+    private MediaType getMediaType(String fileType) {
+        if (fileType != null && fileType.startsWith(DATA_URL_PREFIX)) {
+            try {
+                return MediaType.parseMediaType(fileType.substring(DATA_URL_PREFIX.length()));
+            } catch (RuntimeException e) {
+                // fall through to a generic type
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+}
@@ -0,0 +1,32 @@
+package org.openelisglobal.program.dao;
+
+import java.util.Collection;
+import java.util.List;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.program.valueholder.ProgramImage;
+import org.openelisglobal.program.valueholder.ProgramImageType;
+
+/**
+ * Access to the images of program cases. The "legacy" image is content that is
+ * still kept in the image column of the table, from before images were moved
+ * to the blob store.
+ */
+public interface ProgramImageDAO {
+
+    ProgramImage get(ProgramImageType type, Integer id) throws LIMSRuntimeException;
+
+    List<Integer> getIdsWithLegacyImage(ProgramImageType type, int maxResults) throws LIMSRuntimeException;
+
+    /** @return those of the ids whose content is still in the database */
+    List<Integer> getIdsWithLegacyImage(ProgramImageType type, Collection<Integer> ids) throws LIMSRuntimeException;
+
+    /** @return the content still in the database, null if there is none */
+    byte[] getLegacyImage(ProgramImageType type, Integer id) throws LIMSRuntimeException;
+
+    /**
+     * Sets the blob store reference of the image and removes its content from the
+     * database
+     */
+    void setImageReference(ProgramImageType type, Integer id, String imageHash, Long imageSize,
+            String thumbnailHash) throws LIMSRuntimeException;
+}
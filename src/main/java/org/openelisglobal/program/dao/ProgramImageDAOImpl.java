@@ -0,0 +1,117 @@
+package org.openelisglobal.program.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.program.valueholder.ProgramImage;
+import org.openelisglobal.program.valueholder.ProgramImageType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+public class ProgramImageDAOImpl implements ProgramImageDAO {
+
+    private static final String LEGACY_IMAGE_CONDITION = " image IS NOT NULL AND image_hash IS NULL";
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProgramImage get(ProgramImageType type, Integer id) {
+        try {
+            return entityManager.find(type.getEntityClass(), id);
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in " + this.getClass().getSimpleName() + " get", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Integer> getIdsWithLegacyImage(ProgramImageType type, int maxResults) {
+        try {
+            // the table name comes from the enum, never from the request
+            Query query = entityManager.createNativeQuery(
+                    "SELECT id FROM " + type.getTableName() + " WHERE" + LEGACY_IMAGE_CONDITION + " ORDER BY id");
+            query.setMaxResults(maxResults);
+            return toIds(query.getResultList());
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException(
+                    "Error in " + this.getClass().getSimpleName() + " getIdsWithLegacyImage", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Integer> getIdsWithLegacyImage(ProgramImageType type, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            Query query = entityManager.createNativeQuery("SELECT id FROM " + type.getTableName()
+                    + " WHERE id IN (:ids) AND" + LEGACY_IMAGE_CONDITION);
+            query.setParameter("ids", ids);
+            return toIds(query.getResultList());
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException(
+                    "Error in " + this.getClass().getSimpleName() + " getIdsWithLegacyImage", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public byte[] getLegacyImage(ProgramImageType type, Integer id) {
+        try {
+            Query query = entityManager.createNativeQuery(
+                    "SELECT image FROM " + type.getTableName() + " WHERE id = :id AND" + LEGACY_IMAGE_CONDITION);
+            query.setParameter("id", id);
+            List<?> results = query.getResultList();
+            return results.isEmpty() ? null : (byte[]) results.get(0);
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in " + this.getClass().getSimpleName() + " getLegacyImage", e);
+        }
+    }
+
+    @Override
+    public void setImageReference(ProgramImageType type, Integer id, String imageHash, Long imageSize,
+            String thumbnailHash) {
+        try {
+            NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery("UPDATE "
+                    + type.getTableName()
+                    + " SET image_hash = :imageHash, image_size = :imageSize, thumbnail_hash = :thumbnailHash,"
+                    + " image = NULL WHERE id = :id");
+            // typed so a null is not bound as binary
+            query.setParameter("imageHash", imageHash, StandardBasicTypes.STRING);
+            query.setParameter("imageSize", imageSize, StandardBasicTypes.LONG);
+            query.setParameter("thumbnailHash", thumbnailHash, StandardBasicTypes.STRING);
+            query.setParameter("id", id);
+            query.executeUpdate();
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in " + this.getClass().getSimpleName() + " setImageReference",
+                    e);
+        }
+    }
+
+    private List<Integer> toIds(List<?> results) {
+        List<Integer> ids = new ArrayList<>();
+        for (Object id : results) {
+            ids.add(((Number) id).intValue());
+        }
+        return ids;
+    }
+}
@@ -14,6 +14,7 @@ import org.openelisglobal.dictionary.service.DictionaryService;
 import org.openelisglobal.organization.service.OrganizationService;
 import org.openelisglobal.organization.valueholder.Organization;
 import org.openelisglobal.patient.valueholder.Patient;
+import org.openelisglobal.program.valueholder.ProgramImageType;
 import org.openelisglobal.program.valueholder.immunohistochemistry.ImmunohistochemistryCaseViewDisplayItem;
 import org.openelisglobal.program.valueholder.immunohistochemistry.ImmunohistochemistryDisplayItem;
 import org.openelisglobal.program.valueholder.immunohistochemistry.ImmunohistochemistrySample;
@@ -40,6 +41,8 @@ public class ImmunohistochemistryDisplayServiceImpl implements Immunohistochemis
     private FhirUtil fhirUtil;
     @Autowired
     private OrganizationService organizationService;
+    @Autowired
+    private ProgramImageService programImageService;
 
     @Override
     @Transactional
@@ -80,6 +83,8 @@ public class ImmunohistochemistryDisplayServiceImpl implements Immunohistochemis
             displayItem.setAssignedTechnicianId(immunohistochemistrySample.getTechnician().getId());
         }
         immunohistochemistrySample.getReports().size();
+        programImageService.migrateLegacyImages(ProgramImageType.IMMUNOHISTOCHEMISTRY_REPORT,
+                immunohistochemistrySample.getReports());
         if (immunohistochemistrySample.getReports() != null) {
             displayItem.setReports(immunohistochemistrySample.getReports());
         }
@@ -112,6 +117,7 @@ public class ImmunohistochemistryDisplayServiceImpl implements Immunohistochemis
         if (pathologySample != null && immunohistochemistrySample.getReffered()) {
             pathologySample.getBlocks().size();
             pathologySample.getSlides().size();
+            programImageService.migrateLegacyImages(ProgramImageType.PATHOLOGY_SLIDE, pathologySample.getSlides());
             displayItem.setBlocks(pathologySample.getBlocks());
             displayItem.setSlides(pathologySample.getSlides());
             displayItem.setGrossExam(pathologySample.getGrossExam());
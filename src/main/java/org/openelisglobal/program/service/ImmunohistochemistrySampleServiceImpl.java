@@ -26,6 +26,7 @@ import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.patient.valueholder.Patient;
 import org.openelisglobal.program.controller.immunohistochemistry.ImmunohistochemistrySampleForm;
 import org.openelisglobal.program.dao.ImmunohistochemistrySampleDAO;
+import org.openelisglobal.program.valueholder.ProgramImageType;
 import org.openelisglobal.program.valueholder.immunohistochemistry.ImmunohistochemistrySample;
 import org.openelisglobal.program.valueholder.immunohistochemistry.ImmunohistochemistrySample.ImmunohistochemistryStatus;
 import org.openelisglobal.result.action.util.ResultSet;
@@ -57,6 +58,8 @@ public class ImmunohistochemistrySampleServiceImpl
     private AnalysisService analysisService;
     @Autowired
     private LogbookResultsPersistService logbookResultsPersistService;
+    @Autowired
+    private ProgramImageService programImageService;
 
     ImmunohistochemistrySampleServiceImpl() {
         super(ImmunohistochemistrySample.class);
@@ -104,6 +107,7 @@ public class ImmunohistochemistrySampleServiceImpl
         }
         immunohistochemistrySample.setStatus(form.getStatus());
 
+        programImageService.storeImages(ProgramImageType.IMMUNOHISTOCHEMISTRY_REPORT, form.getReports());
         immunohistochemistrySample.getReports().removeAll(immunohistochemistrySample.getReports());
         if (form.getReports() != null)
             form.getReports().stream().forEach(e -> e.setId(null));
@@ -14,6 +14,7 @@ import org.openelisglobal.dictionary.service.DictionaryService;
 import org.openelisglobal.organization.service.OrganizationService;
 import org.openelisglobal.organization.valueholder.Organization;
 import org.openelisglobal.patient.valueholder.Patient;
+import org.openelisglobal.program.valueholder.ProgramImageType;
 import org.openelisglobal.program.valueholder.pathology.PathologyCaseViewDisplayItem;
 import org.openelisglobal.program.valueholder.pathology.PathologyCaseViewDisplayItem.RequestDisplayBean;
 import org.openelisglobal.program.valueholder.pathology.PathologyConclusion;
@@ -40,6 +41,8 @@ public class PathologyDisplayServiceImpl implements PathologyDisplayService {
     private FhirUtil fhirUtil;
     @Autowired
     private OrganizationService organizationService;
+    @Autowired
+    private ProgramImageService programImageService;
 
     @Override
     @Transactional
@@ -79,9 +82,11 @@ public class PathologyDisplayServiceImpl implements PathologyDisplayService {
         }
         pathologySample.getBlocks().size();
         pathologySample.getSlides().size();
+        programImageService.migrateLegacyImages(ProgramImageType.PATHOLOGY_SLIDE, pathologySample.getSlides());
         displayItem.setBlocks(pathologySample.getBlocks());
         displayItem.setSlides(pathologySample.getSlides());
         pathologySample.getReports().size();
+        programImageService.migrateLegacyImages(ProgramImageType.PATHOLOGY_REPORT, pathologySample.getReports());
         if (pathologySample.getReports() != null) {
             displayItem.setReports(pathologySample.getReports());
         }
@@ -31,6 +31,7 @@ import org.openelisglobal.note.valueholder.Note;
 import org.openelisglobal.patient.valueholder.Patient;
 import org.openelisglobal.program.controller.pathology.PathologySampleForm;
 import org.openelisglobal.program.dao.PathologySampleDAO;
+import org.openelisglobal.program.valueholder.ProgramImageType;
 import org.openelisglobal.program.valueholder.immunohistochemistry.ImmunohistochemistrySample;
 import org.openelisglobal.program.valueholder.pathology.PathologyConclusion;
 import org.openelisglobal.program.valueholder.pathology.PathologyConclusion.ConclusionType;
@@ -91,6 +92,9 @@ public class PathologySampleServiceImpl extends AuditableBaseObjectServiceImpl<P
     @Autowired
     private TestSectionService testSectionService;
 
+    @Autowired
+    private ProgramImageService programImageService;
+
     PathologySampleServiceImpl() {
         super(PathologySample.class);
         this.auditTrailLog = true;
@@ -167,6 +171,7 @@ public class PathologySampleServiceImpl extends AuditableBaseObjectServiceImpl<P
         if (form.getBlocks() != null)
             form.getBlocks().stream().forEach(e -> e.setId(null));
         pathologySample.getBlocks().addAll(form.getBlocks());
+        programImageService.storeImages(ProgramImageType.PATHOLOGY_SLIDE, form.getSlides());
         pathologySample.getSlides().removeAll(pathologySample.getSlides());
         if (form.getSlides() != null)
             form.getSlides().stream().forEach(e -> e.setId(null));
@@ -189,6 +194,7 @@ public class PathologySampleServiceImpl extends AuditableBaseObjectServiceImpl<P
         if (form.getTechniques() != null)
             pathologySample.getTechniques().addAll(form.getTechniques().stream()
                     .map(e -> createTechnique(e, TechniqueType.DICTIONARY)).collect(Collectors.toList()));
+        programImageService.storeImages(ProgramImageType.PATHOLOGY_REPORT, form.getReports());
         pathologySample.getReports().removeAll(pathologySample.getReports());
         if (form.getReports() != null)
             form.getReports().stream().forEach(e -> e.setId(null));
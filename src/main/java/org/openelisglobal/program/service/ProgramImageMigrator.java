@@ -0,0 +1,64 @@
+package org.openelisglobal.program.service;
+
+import java.util.List;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.program.valueholder.ProgramImageType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves slide images and report files that are still kept in the database to
+ * the blob store in the background, one image per transaction so only one is
+ * held in memory at a time. Images are also moved when their case is opened or
+ * saved, so this only has to catch up with the rest. Once a run finds nothing
+ * left to move the job stops querying, as new images are never written to the
+ * database.
+ */
+@Component
+public class ProgramImageMigrator {
+
+    @Autowired
+    private ProgramImageService programImageService;
+
+    @Value("${org.openelisglobal.program.image.migration.enabled:true}")
+    private boolean enabled;
+    @Value("${org.openelisglobal.program.image.migration.batchSize:20}")
+    private int batchSize;
+
+    private volatile boolean completed;
+
+    @Scheduled(initialDelay = 2 * 60 * 1000, fixedDelayString = "${org.openelisglobal.program.image.migration.pollInterval:600000}")
+    public void migrateLegacyImages() {
+        if (!enabled || completed) {
+            return;
+        }
+        boolean failures = false;
+        int migrated = 0;
+        for (ProgramImageType type : ProgramImageType.values()) {
+            List<Integer> ids;
+            boolean batchFailed;
+            do {
+                ids = programImageService.getIdsWithLegacyImage(type, batchSize);
+                batchFailed = false;
+                for (Integer id : ids) {
+                    try {
+                        programImageService.migrateLegacyImage(type, id);
+                        migrated++;
+                    } catch (RuntimeException e) {
+                        LogEvent.logError(e);
+                        batchFailed = true;
+                    }
+                }
+                // a failed image would be found again, so it is left for the next run
+                failures |= batchFailed;
+            } while (ids.size() == batchSize && !batchFailed);
+        }
+        if (migrated > 0) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "migrateLegacyImages",
+                    "moved " + migrated + " program images from the database to the blob store");
+        }
+        completed = !failures;
+    }
+}
@@ -0,0 +1,31 @@
+package org.openelisglobal.program.service;
+
+import java.util.Collection;
+import java.util.List;
+import org.openelisglobal.program.valueholder.ProgramImage;
+import org.openelisglobal.program.valueholder.ProgramImageType;
+import org.springframework.core.io.Resource;
+
+public interface ProgramImageService {
+
+    /**
+     * Moves the uploaded content of the images to the blob store. Images sent
+     * back unchanged keep their reference, or have their content moved from the
+     * database if it is still there, so this must be called before the ids of
+     * the images are cleared to save them as new rows.
+     */
+    void storeImages(ProgramImageType type, Collection<? extends ProgramImage> images);
+
+    /** Moves the content of the images that is still in the database to the blob store */
+    void migrateLegacyImages(ProgramImageType type, Collection<? extends ProgramImage> images);
+
+    List<Integer> getIdsWithLegacyImage(ProgramImageType type, int maxResults);
+
+    void migrateLegacyImage(ProgramImageType type, Integer id);
+
+    /** @return the image, with its content moved to the blob store if needed */
+    ProgramImage getImage(ProgramImageType type, Integer id);
+
+    /** @return the content stored under the hash, or null */
+    Resource getContent(String hash);
+}
@@ -0,0 +1,255 @@
+package org.openelisglobal.program.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.openelisglobal.blobstore.BlobStore;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.program.dao.ProgramImageDAO;
+import org.openelisglobal.program.valueholder.ProgramImage;
+import org.openelisglobal.program.valueholder.ProgramImageType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ProgramImageServiceImpl implements ProgramImageService {
+
+    @Autowired
+    private ProgramImageDAO programImageDAO;
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${org.openelisglobal.program.image.thumbnailSize:256}")
+    private int thumbnailSize;
+    @Value("${org.openelisglobal.program.image.thumbnailMaxPixels:50000000}")
+    private long thumbnailMaxPixels;
+
+    @Override
+    @Transactional
+    public void storeImages(ProgramImageType type, Collection<? extends ProgramImage> images) {
+        if (images == null) {
+            return;
+        }
+        List<ProgramImage> unchangedImages = new ArrayList<>();
+        for (ProgramImage image : images) {
+            if (image.getImage() != null) {
+                storeContent(image, image.getImage());
+                image.setImage(null);
+            } else if (image.getImageHash() != null && !blobStore.exists(image.getImageHash())) {
+                LogEvent.logWarn(this.getClass().getSimpleName(), "storeImages",
+                        "discarding reference to missing blob " + image.getImageHash());
+                setReference(image, null, null, null);
+            } else if (image.getImageHash() == null) {
+                unchangedImages.add(image);
+            }
+            if (image.getThumbnailHash() != null && !blobStore.exists(image.getThumbnailHash())) {
+                image.setThumbnailHash(null);
+            }
+        }
+        migrateLegacyImages(type, unchangedImages);
+    }
+
+    @Override
+    @Transactional
+    public void migrateLegacyImages(ProgramImageType type, Collection<? extends ProgramImage> images) {
+        if (images == null) {
+            return;
+        }
+        Map<Integer, ProgramImage> imagesById = new HashMap<>();
+        for (ProgramImage image : images) {
+            if (image.getId() != null && image.getImageHash() == null) {
+                imagesById.put(image.getId(), image);
+            }
+        }
+        for (Integer id : programImageDAO.getIdsWithLegacyImage(type, imagesById.keySet())) {
+            migrateLegacyImage(type, imagesById.get(id));
+        }
+    }
+
+    @Override
+    public List<Integer> getIdsWithLegacyImage(ProgramImageType type, int maxResults) {
+        return programImageDAO.getIdsWithLegacyImage(type, maxResults);
+    }
+
+    @Override
+    @Transactional
+    public void migrateLegacyImage(ProgramImageType type, Integer id) {
+        byte[] content = programImageDAO.getLegacyImage(type, id);
+        if (content != null) {
+            // not loaded as an entity so the migration does not change its version
+            ProgramImageReference reference = new ProgramImageReference();
+            storeContent(reference, content);
+            programImageDAO.setImageReference(type, id, reference.getImageHash(), reference.getImageSize(),
+                    reference.getThumbnailHash());
+        }
+    }
+
+    @Override
+    @Transactional
+    public ProgramImage getImage(ProgramImageType type, Integer id) {
+        ProgramImage image = programImageDAO.get(type, id);
+        if (image != null && image.getImageHash() == null) {
+            migrateLegacyImage(type, image);
+        }
+        return image;
+    }
+
+    @Override
+    public Resource getContent(String hash) {
+        return blobStore.get(hash);
+    }
+
+    private void migrateLegacyImage(ProgramImageType type, ProgramImage image) {
+        byte[] content = programImageDAO.getLegacyImage(type, image.getId());
+        if (content != null) {
+            storeContent(image, content);
+            programImageDAO.setImageReference(type, image.getId(), image.getImageHash(), image.getImageSize(),
+                    image.getThumbnailHash());
+        }
+    }
+
+    private void storeContent(ProgramImage image, byte[] content) {
+        try {
+            String imageHash = blobStore.put(content);
+            byte[] thumbnail = createThumbnail(content, thumbnailSize, thumbnailMaxPixels);
+            setReference(image, imageHash, (long) content.length,
+                    thumbnail == null ? null : blobStore.put(thumbnail));
+        } catch (IOException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Could not store image in the blob store", e);
+        }
+    }
+
+    private void setReference(ProgramImage image, String imageHash, Long imageSize, String thumbnailHash) {
+        image.setImageHash(imageHash);
+        image.setImageSize(imageSize);
+        image.setThumbnailHash(thumbnailHash);
+    }
+
+    /**
+     * The dimensions are read from the image header before decoding. Images of more
+     * than maxPixels pixels are not decoded at all, and larger images are decoded
+     * reading only every nth pixel, down to about twice the thumbnail size.
+     *
+     * @return the image scaled to fit in a square of the given size as a png, or
+     *         null if the content is not an image java can read, such as a pdf, or
+     *         has more than maxPixels pixels
+     */
+    static byte[] createThumbnail(byte[] content, int size, long maxPixels) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            BufferedImage image;
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxPixels) {
+                    LogEvent.logWarn(ProgramImageServiceImpl.class.getSimpleName(), "createThumbnail",
+                            "not creating a thumbnail of a " + sourceWidth + "x" + sourceHeight + " image");
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(sourceWidth, sourceHeight) / (2 * size));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+            double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = thumbnail.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(thumbnail, "png", out);
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            LogEvent.logWarn(ProgramImageServiceImpl.class.getSimpleName(), "createThumbnail",
+                    "could not create thumbnail: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static class ProgramImageReference implements ProgramImage {
+        private String imageHash;
+        private Long imageSize;
+        private String thumbnailHash;
+
+        @Override
+        public Integer getId() {
+            return null;
+        }
+
+        @Override
+        public byte[] getImage() {
+            return null;
+        }
+
+        @Override
+        public void setImage(byte[] image) {
+        }
+
+        @Override
+        public String getFileType() {
+            return null;
+        }
+
+        @Override
+        public String getImageHash() {
+            return imageHash;
+        }
+
+        @Override
+        public void setImageHash(String imageHash) {
+            this.imageHash = imageHash;
+        }
+
+        @Override
+        public Long getImageSize() {
+            return imageSize;
+        }
+
+        @Override
+        public void setImageSize(Long imageSize) {
+            this.imageSize = imageSize;
+        }
+
+        @Override
+        public String getThumbnailHash() {
+            return thumbnailHash;
+        }
+
+        @Override
+        public void setThumbnailHash(String thumbnailHash) {
+            this.thumbnailHash = thumbnailHash;
+        }
+    }
+}
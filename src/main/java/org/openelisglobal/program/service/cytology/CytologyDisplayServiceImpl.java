@@ -15,6 +15,8 @@ import org.openelisglobal.dictionary.service.DictionaryService;
 import org.openelisglobal.organization.service.OrganizationService;
 import org.openelisglobal.organization.valueholder.Organization;
 import org.openelisglobal.patient.valueholder.Patient;
+import org.openelisglobal.program.service.ProgramImageService;
+import org.openelisglobal.program.valueholder.ProgramImageType;
 import org.openelisglobal.program.valueholder.cytology.CytologyCaseViewDisplayItem;
 import org.openelisglobal.program.valueholder.cytology.CytologyDiagnosis;
 import org.openelisglobal.program.valueholder.cytology.CytologyDiagnosis.CytologyDiagnosisResultType;
@@ -43,6 +45,9 @@ public class CytologyDisplayServiceImpl implements CytologyDisplayService {
     @Autowired
     private DictionaryService dictionaryService;
 
+    @Autowired
+    private ProgramImageService programImageService;
+
     @Override
     @Transactional
     public CytologyCaseViewDisplayItem convertToCaseDisplayItem(Integer cytologySampleId) {
@@ -71,8 +76,10 @@ public class CytologyDisplayServiceImpl implements CytologyDisplayService {
                         .withId(cytologySample.getQuestionnaireResponseUuid().toString()).execute());
 
         cytologySample.getSlides().size();
+        programImageService.migrateLegacyImages(ProgramImageType.CYTOLOGY_SLIDE, cytologySample.getSlides());
         displayItem.setSlides(cytologySample.getSlides());
         cytologySample.getReports().size();
+        programImageService.migrateLegacyImages(ProgramImageType.CYTOLOGY_REPORT, cytologySample.getReports());
         if (cytologySample.getReports() != null) {
             displayItem.setReports(cytologySample.getReports());
         }
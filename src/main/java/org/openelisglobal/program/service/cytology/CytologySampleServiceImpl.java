@@ -26,6 +26,8 @@ import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.patient.valueholder.Patient;
 import org.openelisglobal.program.controller.cytology.CytologySampleForm;
 import org.openelisglobal.program.dao.cytology.CytologySampleDAO;
+import org.openelisglobal.program.service.ProgramImageService;
+import org.openelisglobal.program.valueholder.ProgramImageType;
 import org.openelisglobal.program.valueholder.cytology.CytologySample;
 import org.openelisglobal.program.valueholder.cytology.CytologySample.CytologyStatus;
 import org.openelisglobal.result.action.util.ResultSet;
@@ -62,6 +64,9 @@ public class CytologySampleServiceImpl extends AuditableBaseObjectServiceImpl<Cy
     @Autowired
     private LogbookResultsPersistService logbookResultsPersistService;
 
+    @Autowired
+    private ProgramImageService programImageService;
+
     CytologySampleServiceImpl() {
         super(CytologySample.class);
         this.auditTrailLog = true;
@@ -138,6 +143,8 @@ public class CytologySampleServiceImpl extends AuditableBaseObjectServiceImpl<Cy
         }
         cytologySample.setStatus(form.getStatus());
 
+        programImageService.storeImages(ProgramImageType.CYTOLOGY_SLIDE, form.getSlides());
+        programImageService.storeImages(ProgramImageType.CYTOLOGY_REPORT, form.getReports());
         cytologySample.getSlides().removeAll(cytologySample.getSlides());
         if (form.getSlides() != null)
             form.getSlides().stream().forEach(e -> e.setId(null));
@@ -0,0 +1,31 @@
+package org.openelisglobal.program.valueholder;
+
+/**
+ * A slide image or report file of a program case. The content is kept in the
+ * blob store under its hash, only the reference is kept in the database.
+ */
+public interface ProgramImage {
+
+    Integer getId();
+
+    /** @return the uploaded content, only set until it is stored */
+    byte[] getImage();
+
+    void setImage(byte[] image);
+
+    /** @return the data url prefix of the content, e.g. "data:image/png" */
+    String getFileType();
+
+    String getImageHash();
+
+    void setImageHash(String imageHash);
+
+    Long getImageSize();
+
+    void setImageSize(Long imageSize);
+
+    /** @return the hash of a scaled down png of the image, null if there is none */
+    String getThumbnailHash();
+
+    void setThumbnailHash(String thumbnailHash);
+}
@@ -0,0 +1,48 @@
+package org.openelisglobal.program.valueholder;
+
+import org.openelisglobal.program.valueholder.cytology.CytologyReport;
+import org.openelisglobal.program.valueholder.cytology.CytologySlide;
+import org.openelisglobal.program.valueholder.immunohistochemistry.ImmunohistochemistrySampleReport;
+import org.openelisglobal.program.valueholder.pathology.PathologyReport;
+import org.openelisglobal.program.valueholder.pathology.PathologySlide;
+
+public enum ProgramImageType {
+    PATHOLOGY_SLIDE("pathology-slide", "pathology_slide", PathologySlide.class),
+    PATHOLOGY_REPORT("pathology-report", "pathology_report", PathologyReport.class),
+    CYTOLOGY_SLIDE("cytology-slide", "cytology_slide", CytologySlide.class),
+    CYTOLOGY_REPORT("cytology-report", "cytology_report", CytologyReport.class),
+    IMMUNOHISTOCHEMISTRY_REPORT("immunohistochemistry-report", "immunohistochemistry_report",
+            ImmunohistochemistrySampleReport.class);
+
+    private final String code;
+    private final String tableName;
+    private final Class<? extends ProgramImage> entityClass;
+
+    ProgramImageType(String code, String tableName, Class<? extends ProgramImage> entityClass) {
+        this.code = code;
+        this.tableName = tableName;
+        this.entityClass = entityClass;
+    }
+
+    /** @return the name of the type in image urls */
+    public String getCode() {
+        return code;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Class<? extends ProgramImage> getEntityClass() {
+        return entityClass;
+    }
+
+    public static ProgramImageType fromCode(String code) {
+        for (ProgramImageType type : values()) {
+            if (type.code.equals(code)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
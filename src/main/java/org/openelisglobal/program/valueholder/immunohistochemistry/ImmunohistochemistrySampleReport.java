@@ -9,25 +9,37 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotNull;
-import org.hibernate.annotations.Type;
 import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.program.valueholder.ProgramImage;
 
 @Entity
 @Table(name = "immunohistochemistry_report")
-public class ImmunohistochemistrySampleReport extends BaseObject<Integer> {
+public class ImmunohistochemistrySampleReport extends BaseObject<Integer> implements ProgramImage {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "immunohistochemistry_report_generator")
     @SequenceGenerator(name = "immunohistochemistry_report_generator", sequenceName = "immunohistochemistry_report_seq", allocationSize = 1)
     private Integer id;
 
-    @Type(type = "org.hibernate.type.BinaryType")
+    // content uploaded with the form, it is kept in the blob store and not in the
+    // database
+    @Transient
     private byte[] image;
 
     @Column(name = "file_type")
     private String fileType;
 
+    @Column(name = "image_hash")
+    private String imageHash;
+
+    @Column(name = "image_size")
+    private Long imageSize;
+
+    @Column(name = "thumbnail_hash")
+    private String thumbnailHash;
+
     @Column(name = "report_type")
     @Enumerated(EnumType.STRING)
     @NotNull
@@ -43,14 +55,17 @@ public class ImmunohistochemistrySampleReport extends BaseObject<Integer> {
         this.id = id;
     }
 
+    @Override
     public byte[] getImage() {
         return image;
     }
 
+    @Override
     public void setImage(byte[] image) {
         this.image = image;
     }
 
+    @Override
     public String getFileType() {
         return fileType;
     }
@@ -59,6 +74,36 @@ public class ImmunohistochemistrySampleReport extends BaseObject<Integer> {
         this.fileType = fileType;
     }
 
+    @Override
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    @Override
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    @Override
+    public Long getImageSize() {
+        return imageSize;
+    }
+
+    @Override
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    @Override
+    public String getThumbnailHash() {
+        return thumbnailHash;
+    }
+
+    @Override
+    public void setThumbnailHash(String thumbnailHash) {
+        this.thumbnailHash = thumbnailHash;
+    }
+
     public ImmunoHistologyReportType getReportType() {
         return reportType;
     }
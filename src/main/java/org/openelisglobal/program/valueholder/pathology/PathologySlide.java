@@ -7,12 +7,13 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import org.hibernate.annotations.Type;
+import jakarta.persistence.Transient;
 import org.openelisglobal.common.valueholder.BaseObject;
+import org.openelisglobal.program.valueholder.ProgramImage;
 
 @Entity
 @Table(name = "pathology_slide")
-public class PathologySlide extends BaseObject<Integer> {
+public class PathologySlide extends BaseObject<Integer> implements ProgramImage {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pathology_slide_generator")
@@ -22,12 +23,23 @@ public class PathologySlide extends BaseObject<Integer> {
     @Column(name = "slide_number")
     private Integer slideNumber;
 
-    @Type(type = "org.hibernate.type.BinaryType")
+    // content uploaded with the form, it is kept in the blob store and not in the
+    // database
+    @Transient
     private byte[] image;
 
     @Column(name = "file_type")
     private String fileType;
 
+    @Column(name = "image_hash")
+    private String imageHash;
+
+    @Column(name = "image_size")
+    private Long imageSize;
+
+    @Column(name = "thumbnail_hash")
+    private String thumbnailHash;
+
     private String location;
 
     @Override
@@ -48,14 +60,17 @@ public class PathologySlide extends BaseObject<Integer> {
         this.slideNumber = slideNumber;
     }
 
+    @Override
     public byte[] getImage() {
         return image;
     }
 
+    @Override
     public void setImage(byte[] image) {
         this.image = image;
     }
 
+    @Override
     public String getFileType() {
         return fileType;
     }
@@ -64,6 +79,36 @@ public class PathologySlide extends BaseObject<Integer> {
         this.fileType = fileType;
     }
 
+    @Override
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    @Override
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    @Override
+    public Long getImageSize() {
+        return imageSize;
+    }
+
+    @Override
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    @Override
+    public String getThumbnailHash() {
+        return thumbnailHash;
+    }
+
+    @Override
+    public void setThumbnailHash(String thumbnailHash) {
+        this.thumbnailHash = thumbnailHash;
+    }
+
     public String getLocation() {
         return location;
     }
@@ -281,7 +281,6 @@ public class FhirReferralServiceImpl implements FhirReferralService {
         ArrayList<Sample> sampleUpdateList = new ArrayList<>();
         ArrayList<Note> noteUpdateList = new ArrayList<>();
         ArrayList<Result> resultUpdateList = new ArrayList<>();
-        List<Result> deletableList = new ArrayList<>();
         List<ReferralSet> referralSets = new ArrayList<>();
 
         AnalysisItem analysisItem = new AnalysisItem();
@@ -316,10 +315,6 @@ public class FhirReferralServiceImpl implements FhirReferralService {
                     "resultValidationService.persistdata");
             resultValidationService.persistdata(new ArrayList<>(), analysisUpdateList, resultUpdateList, resultItemList,
                     sampleUpdateList, noteUpdateList, resultSaveService, new ArrayList<>(), "1");
-            LogEvent.logDebug(this.getClass().getSimpleName(), "setReferralResult",
-                    "fhirTransformService.transformPersistResultValidationFhirObjects");
-            fhirTransformService.transformPersistResultValidationFhirObjects(deletableList, analysisUpdateList,
-                    resultUpdateList, resultItemList, sampleUpdateList, noteUpdateList);
             resultsImport.originalReferralObjects.task.setStatus(TaskStatus.COMPLETED);
             LogEvent.logDebug(this.getClass().getSimpleName(), "setReferralResult",
                     "fhirPersistanceService.updateFhirResourceInFhirStore");
@@ -89,11 +89,7 @@ public class HaitiLNSPExportReport extends CSVExportReport {
 
     private void createReportItems() {
         testExportList = new ArrayList<>();
-        List<Sample> orderList = sampleService.getSamplesReceivedInDateRange(lowDateStr, highDateStr);
-
-        for (Sample order : orderList) {
-            getResultsForOrder(order);
-        }
+        sampleService.forEachSampleReceivedInDateRange(lowDateStr, highDateStr, this::getResultsForOrder);
     }
 
     private void getResultsForOrder(Sample order) {
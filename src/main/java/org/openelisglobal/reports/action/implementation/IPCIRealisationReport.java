@@ -157,35 +157,35 @@ public class IPCIRealisationReport extends Report {
     }
 
     private void setAnalysisForDateRange() {
-        List<Analysis> analysisList = analysisService.getAnalysisStartedOrCompletedInDateRange(lowDate, highDate);
-
-        for (Analysis analysis : analysisList) {
-            Test test = analysis.getTest();
-
-            if (test != null) {
-                TestBucket testBucket = null;
-                if (USER_TEST_SECTION_ID.equals(analysis.getTestSection().getId())) {
-                    String concatedName = analysis.getTestSection().getLocalizedName()
-                            + TestServiceImpl.getUserLocalizedTestName(analysis.getTest());
-                    testBucket = concatSection_TestToBucketMap.get(concatedName);
-                    if (testBucket == null) {
-                        testBucket = new TestBucket();
-                        testBucket.testName = TestServiceImpl.getUserLocalizedReportingTestName(test);
-                        testBucket.testSection = analysis.getTestSection().getLocalizedName();
-                        concatSection_TestToBucketMap.put(concatedName, testBucket);
-                    }
-                } else {
-                    testBucket = testIdToBucketList.get(test.getId());
+        analysisService.forEachAnalysisStartedOrCompletedInDateRange(lowDate, highDate, this::countAnalysis);
+    }
+
+    private void countAnalysis(Analysis analysis) {
+        Test test = analysis.getTest();
+
+        if (test != null) {
+            TestBucket testBucket = null;
+            if (USER_TEST_SECTION_ID.equals(analysis.getTestSection().getId())) {
+                String concatedName = analysis.getTestSection().getLocalizedName()
+                        + TestServiceImpl.getUserLocalizedTestName(analysis.getTest());
+                testBucket = concatSection_TestToBucketMap.get(concatedName);
+                if (testBucket == null) {
+                    testBucket = new TestBucket();
+                    testBucket.testName = TestServiceImpl.getUserLocalizedReportingTestName(test);
+                    testBucket.testSection = analysis.getTestSection().getLocalizedName();
+                    concatSection_TestToBucketMap.put(concatedName, testBucket);
                 }
+            } else {
+                testBucket = testIdToBucketList.get(test.getId());
+            }
 
-                if (testBucket != null) {
-                    if (NOT_STARTED_STATUS_ID.equals(analysis.getStatusId())) {
-                        testBucket.notStartedCount++;
-                    } else if (inProgress(analysis)) {
-                        testBucket.inProgressCount++;
-                    } else if (FINALIZED_STATUS_ID.equals(analysis.getStatusId())) {
-                        testBucket.finishedCount++;
-                    }
+            if (testBucket != null) {
+                if (NOT_STARTED_STATUS_ID.equals(analysis.getStatusId())) {
+                    testBucket.notStartedCount++;
+                } else if (inProgress(analysis)) {
+                    testBucket.inProgressCount++;
+                } else if (FINALIZED_STATUS_ID.equals(analysis.getStatusId())) {
+                    testBucket.finishedCount++;
                 }
             }
         }
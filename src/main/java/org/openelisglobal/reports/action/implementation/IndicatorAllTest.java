@@ -21,11 +21,11 @@ import java.util.List;
 import java.util.Map;
 import net.sf.jasperreports.engine.JRDataSource;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import org.openelisglobal.analysis.service.AnalysisService;
-import org.openelisglobal.analysis.valueholder.Analysis;
-import org.openelisglobal.common.services.IStatusService;
-import org.openelisglobal.common.services.StatusService.AnalysisStatus;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary.Status;
+import org.openelisglobal.dataexchange.service.aggregatereporting.TestCountSummaryService;
 import org.openelisglobal.internationalization.MessageUtil;
+import org.openelisglobal.panel.service.PanelService;
 import org.openelisglobal.reports.action.implementation.reportBeans.HaitiAggregateReportData;
 import org.openelisglobal.reports.form.ReportForm;
 import org.openelisglobal.spring.util.SpringContext;
@@ -114,182 +114,77 @@ public abstract class IndicatorAllTest extends IndicatorReport implements IRepor
         }
     }
 
+    // counted from the daily test count summaries rather than the analyses
     private void setAnalysisForDateRange() {
-        HashMap<String, ArrayList<Analysis>> sampleToPanelAnalysisMap = new HashMap<>();
-        AnalysisService analysisService = SpringContext.getBean(AnalysisService.class);
-        List<Analysis> rawAnalysisList = analysisService.getAnalysisStartedOrCompletedInDateRange(lowDate, highDate);
-        ArrayList<Analysis> analysisList = new ArrayList<>();
-
-        // group analysis w/ panels by samples (sampleItem)
-        for (Analysis analysis : rawAnalysisList) {
-            extractAnalysisInPanels(sampleToPanelAnalysisMap, analysisList, analysis);
-        }
+        TestCountSummaryService testCountSummaryService = SpringContext.getBean(TestCountSummaryService.class);
+        PanelService panelService = SpringContext.getBean(PanelService.class);
 
-        // for each sample we will break it down into panels with list of analysis
-        for (String sampleId : sampleToPanelAnalysisMap.keySet()) {
-            HashMap<String, ArrayList<Analysis>> panelIdToAnalysisMap = new HashMap<>();
-            for (Analysis sampleAnalysis : sampleToPanelAnalysisMap.get(sampleId)) {
-                ArrayList<Analysis> panelAnalysisList = panelIdToAnalysisMap.get(sampleAnalysis.getPanel().getId());
-                if (panelAnalysisList == null) {
-                    panelAnalysisList = new ArrayList<>();
-                    panelIdToAnalysisMap.put(sampleAnalysis.getPanel().getId(), panelAnalysisList);
-                }
-                panelAnalysisList.add(sampleAnalysis);
+        for (TestCountSummary count : testCountSummaryService.getCountsByTestAndStatus(lowDate, highDate)) {
+            TestSection testSection = count.getTestSectionId() == null ? null
+                    : testSectionService.get(count.getTestSectionId());
+            TestBucket testBucket;
+            if (count.getTestId() == null) {
+                // the analyses of a panel counted as a whole
+                testBucket = testSection == null ? null
+                        : getPanelBucket(panelService.get(count.getPanelId()).getLocalizedName(), testSection);
+            } else {
+                testBucket = getTestBucket(testService.get(count.getTestId()), testSection);
             }
 
-            // we will now go through each panel and either throw out all analysis if any
-            // one is canceled
-            // or create the correct analysis thingy
-            for (String panelId : panelIdToAnalysisMap.keySet()) {
-                Analysis templateAnalysis = panelIdToAnalysisMap.get(panelId).get(0);
-                String panelName = templateAnalysis.getPanel().getLocalizedName();
-
-                boolean canceled = false;
-                boolean notStarted = false;
-                boolean finished = false;
-                boolean inProgress = false;
-                for (Analysis panelAnalysis : panelIdToAnalysisMap.get(panelId)) {
-                    if (SpringContext.getBean(IStatusService.class).matches(panelAnalysis.getStatusId(),
-                            AnalysisStatus.Canceled)) {
-                        canceled = true;
-                        break;
-                    } else if (SpringContext.getBean(IStatusService.class).matches(panelAnalysis.getStatusId(),
-                            AnalysisStatus.NotStarted)) {
-                        notStarted = true;
-                    } else if (SpringContext.getBean(IStatusService.class).matches(panelAnalysis.getStatusId(),
-                            AnalysisStatus.Finalized)) {
-                        finished = true;
-                    } else {
-                        inProgress = true;
-                    }
-                }
-
-                if (canceled) {
-                    // all analysis are treated as being out of the panel
-                    for (Analysis analysis : panelIdToAnalysisMap.get(panelId)) {
-                        analysisList.add(analysis);
-                    }
-                } else {
-                    // we will create a fake analysis and add it to the analysisList
-                    // and make sure the panel name is in the bucket list
-
-                    String status;
-                    if (inProgress || (notStarted && finished)) {
-                        status = SpringContext.getBean(IStatusService.class)
-                                .getStatusID(AnalysisStatus.TechnicalAcceptance);
-                    } else if (notStarted) {
-                        status = SpringContext.getBean(IStatusService.class).getStatusID(AnalysisStatus.NotStarted);
-                    } else {
-                        status = SpringContext.getBean(IStatusService.class).getStatusID(AnalysisStatus.Finalized);
-                    }
-
-                    Analysis proxyAnalysis = getProxyAnalysis(templateAnalysis, panelName, status);
-                    analysisList.add(proxyAnalysis);
-
-                    createAndAddBucketIfNeeded(panelName, proxyAnalysis);
+            if (testBucket != null) {
+                if (count.getStatus() == Status.NOT_STARTED) {
+                    testBucket.notStartedCount += count.getAnalysisCount();
+                } else if (count.getStatus() == Status.IN_PROGRESS) {
+                    testBucket.inProgressCount += count.getAnalysisCount();
+                } else if (count.getStatus() == Status.FINALIZED) {
+                    testBucket.finishedCount += count.getAnalysisCount();
                 }
             }
         }
-        // go through map and both classify panels and return sets with any canceled
-        // analysis
-        for (Analysis analysis : analysisList) {
-            addStatusToBuckets(analysis);
-        }
     }
 
-    private void extractAnalysisInPanels(HashMap<String, ArrayList<Analysis>> sampleToPanalAnalysisMap,
-            ArrayList<Analysis> analysisList, Analysis analysis) {
-        if (analysis.getPanel() == null) {
-            analysisList.add(analysis);
-        } else {
-            ArrayList<Analysis> itemAnalysisList = sampleToPanalAnalysisMap.get(analysis.getSampleItem().getId());
-            if (itemAnalysisList == null) {
-                itemAnalysisList = new ArrayList<>();
-                sampleToPanalAnalysisMap.put(analysis.getSampleItem().getId(), itemAnalysisList);
-            }
-            itemAnalysisList.add(analysis);
+    private TestBucket getTestBucket(Test test, TestSection analysisTestSection) {
+        if (test == null) {
+            return null;
         }
-    }
-
-    private void addStatusToBuckets(Analysis analysis) {
-        Test test = analysis.getTest();
-
-        if (test != null) {
-            TestBucket testBucket;
-            // N.B. We need to look at the test->test section because the analysis test
-            // section reflects the user selection for the test section
-            // that entry will not be in the test to test section map
-            if (USER_TEST_SECTION_ID.equals(analysis.getTest().getTestSection().getId())) {
-                String concatedName = analysis.getTestSection().getLocalizedName()
-                        + TestServiceImpl.getUserLocalizedTestName(analysis.getTest());
-                testBucket = concatSection_TestToBucketMap.get(concatedName);
-                if (testBucket == null) {
-                    testBucket = new TestBucket();
-                    testBucket.testName = TestServiceImpl.getUserLocalizedReportingTestName(test);
-                    testBucket.testSort = Integer.parseInt(test.getSortOrder());
-                    testBucket.testSection = analysis.getTestSection().getLocalizedName();
-                    testBucket.sectionSort = analysis.getTestSection().getSortOrderInt();
-                    concatSection_TestToBucketMap.put(concatedName, testBucket);
-                }
-            } else if (test.getLocalizedTestName() == null) {
-                testBucket = testNameToBucketList.get(test.getLocalizedName());
-            } else {
-                testBucket = testNameToBucketList.get(TestServiceImpl.getUserLocalizedReportingTestName(test));
+        // N.B. We need to look at the test->test section because the analysis test
+        // section reflects the user selection for the test section
+        // that entry will not be in the test to test section map
+        if (USER_TEST_SECTION_ID.equals(test.getTestSection().getId())) {
+            if (analysisTestSection == null) {
+                return null;
             }
-
-            if (testBucket != null) {
-                if (SpringContext.getBean(IStatusService.class).matches(analysis.getStatusId(),
-                        AnalysisStatus.NotStarted)) {
-                    testBucket.notStartedCount++;
-                } else if (inProgress(analysis)) {
-                    testBucket.inProgressCount++;
-                } else if (SpringContext.getBean(IStatusService.class).matches(analysis.getStatusId(),
-                        AnalysisStatus.Finalized)) {
-                    testBucket.finishedCount++;
-                }
+            String concatedName = analysisTestSection.getLocalizedName()
+                    + TestServiceImpl.getUserLocalizedTestName(test);
+            TestBucket testBucket = concatSection_TestToBucketMap.get(concatedName);
+            if (testBucket == null) {
+                testBucket = new TestBucket();
+                testBucket.testName = TestServiceImpl.getUserLocalizedReportingTestName(test);
+                testBucket.testSort = Integer.parseInt(test.getSortOrder());
+                testBucket.testSection = analysisTestSection.getLocalizedName();
+                testBucket.sectionSort = analysisTestSection.getSortOrderInt();
+                concatSection_TestToBucketMap.put(concatedName, testBucket);
             }
+            return testBucket;
+        } else if (test.getLocalizedTestName() == null) {
+            return testNameToBucketList.get(test.getLocalizedName());
+        } else {
+            return testNameToBucketList.get(TestServiceImpl.getUserLocalizedReportingTestName(test));
         }
     }
 
-    private void createAndAddBucketIfNeeded(String panelName, Analysis proxyAnalysis) {
+    private TestBucket getPanelBucket(String panelName, TestSection analysisTestSection) {
         TestBucket panelBucket = testNameToBucketList.get(panelName);
         if (panelBucket == null) {
             panelBucket = new TestBucket();
             panelBucket.testName = panelName;
             panelBucket.testSort = -1;
-            panelBucket.testSection = proxyAnalysis.getTestSection().getLocalizedName();
-            panelBucket.sectionSort = proxyAnalysis.getTestSection().getSortOrderInt();
+            panelBucket.testSection = analysisTestSection.getLocalizedName();
+            panelBucket.sectionSort = analysisTestSection.getSortOrderInt();
             testNameToBucketList.put(panelName, panelBucket);
             testBucketList.add(panelBucket);
         }
-    }
-
-    private Analysis getProxyAnalysis(Analysis templateAnalysis, String panelName, String status) {
-        Analysis proxyAnalysis = new Analysis();
-        TestSection proxyTestSection = new TestSection();
-        Test proxyTest = new Test();
-
-        proxyAnalysis.setStatusId(status);
-        proxyAnalysis.setTest(proxyTest);
-        proxyAnalysis.setTestSection(proxyTestSection);
-
-        proxyTestSection.setTestSectionName(templateAnalysis.getTestSection().getLocalizedName());
-        proxyTestSection.setSortOrderInt(templateAnalysis.getTestSection().getSortOrderInt());
-        proxyTestSection.setId(templateAnalysis.getTestSection().getId());
-
-        proxyTest.setTestSection(proxyTestSection);
-        // proxyTest.setTestName(panelName);
-
-        return proxyAnalysis;
-    }
-
-    private boolean inProgress(Analysis analysis) {
-        return SpringContext.getBean(IStatusService.class).matches(analysis.getStatusId(),
-                AnalysisStatus.TechnicalAcceptance)
-                || SpringContext.getBean(IStatusService.class).matches(analysis.getStatusId(),
-                        AnalysisStatus.TechnicalRejected)
-                || SpringContext.getBean(IStatusService.class).matches(analysis.getStatusId(),
-                        AnalysisStatus.BiologistRejected);
+        return panelBucket;
     }
 
     private void mergeLists() {
@@ -101,44 +101,45 @@ public abstract class NonConformityByDate extends Report implements IReportCreat
 
     /** */
     private void createReportItems() {
-        List<Sample> samples = sampleService.getSamplesReceivedInDateRange(lowDateStr, highDateStr);
-        for (Sample sample : samples) {
-            this.sample = sample;
-            patient = ReportUtil.findPatient(sample);
-            project = ReportUtil.findProject(sample);
-            service = findService();
-            sampleQaEvents = findSampleQaEvents();
-            for (SampleQaEvent sampleQaEvent : sampleQaEvents) {
-                QAService qa = new QAService(sampleQaEvent);
-                qaEvent = qa.getQAEvent();
-                String sampleType = ReportUtil.getSampleType(sampleQaEvent);
-                String noteForSampleQaEvent = NonConformityHelper.getNoteForSampleQaEvent(sampleQaEvent);
-                String noteForSample = NonConformityHelper.getNoteForSample(sample);
-
-                NonConformityReportData data = new NonConformityReportData();
-                if (AccessionFormat.ALPHANUM.toString()
-                        .equals(ConfigurationProperties.getInstance().getPropertyValue(Property.AccessionFormat))) {
-                    data.setAccessionNumber(
-                            AlphanumAccessionValidator.convertAlphaNumLabNumForDisplay(sample.getAccessionNumber()));
-                } else {
-                    data.setAccessionNumber(sample.getAccessionNumber());
-                }
-                data.setSubjectNumber(patient.getNationalId());
-                data.setSiteSubjectNumber(patient.getExternalId());
-                data.setStudy((project != null) ? project.getLocalizedName() : "");
-                data.setService(service);
-                data.setReceivedDate(sample.getReceivedDateForDisplay() + " " + sample.getReceivedTimeForDisplay());
-
-                data.setNonConformityDate(DateUtil.convertTimestampToStringDate(qa.getLastupdated()));
-                data.setSection(qa.getObservationForDisplay(QAObservationType.SECTION));
-                data.setNonConformityReason(qaEvent.getLocalizedName());
-                data.setSampleType(sampleType);
-                data.setBiologist(qa.getObservationForDisplay(QAObservationType.AUTHORIZER));
-                data.setQaNote(noteForSampleQaEvent);
-                data.setSampleNote(noteForSample);
-
-                reportItems.add(data);
+        sampleService.forEachSampleReceivedInDateRange(lowDateStr, highDateStr, this::addReportItems);
+    }
+
+    private void addReportItems(Sample sample) {
+        this.sample = sample;
+        patient = ReportUtil.findPatient(sample);
+        project = ReportUtil.findProject(sample);
+        service = findService();
+        sampleQaEvents = findSampleQaEvents();
+        for (SampleQaEvent sampleQaEvent : sampleQaEvents) {
+            QAService qa = new QAService(sampleQaEvent);
+            qaEvent = qa.getQAEvent();
+            String sampleType = ReportUtil.getSampleType(sampleQaEvent);
+            String noteForSampleQaEvent = NonConformityHelper.getNoteForSampleQaEvent(sampleQaEvent);
+            String noteForSample = NonConformityHelper.getNoteForSample(sample);
+
+            NonConformityReportData data = new NonConformityReportData();
+            if (AccessionFormat.ALPHANUM.toString()
+                    .equals(ConfigurationProperties.getInstance().getPropertyValue(Property.AccessionFormat))) {
+                data.setAccessionNumber(
+                        AlphanumAccessionValidator.convertAlphaNumLabNumForDisplay(sample.getAccessionNumber()));
+            } else {
+                data.setAccessionNumber(sample.getAccessionNumber());
             }
+            data.setSubjectNumber(patient.getNationalId());
+            data.setSiteSubjectNumber(patient.getExternalId());
+            data.setStudy((project != null) ? project.getLocalizedName() : "");
+            data.setService(service);
+            data.setReceivedDate(sample.getReceivedDateForDisplay() + " " + sample.getReceivedTimeForDisplay());
+
+            data.setNonConformityDate(DateUtil.convertTimestampToStringDate(qa.getLastupdated()));
+            data.setSection(qa.getObservationForDisplay(QAObservationType.SECTION));
+            data.setNonConformityReason(qaEvent.getLocalizedName());
+            data.setSampleType(sampleType);
+            data.setBiologist(qa.getObservationForDisplay(QAObservationType.AUTHORIZER));
+            data.setQaNote(noteForSampleQaEvent);
+            data.setSampleNote(noteForSample);
+
+            reportItems.add(data);
         }
     }
 
@@ -13,7 +13,6 @@
  */
 package org.openelisglobal.reports.action.implementation;
 
-import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -33,7 +32,7 @@ import org.openelisglobal.common.services.StatusService.AnalysisStatus;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.image.service.ImageService;
-import org.openelisglobal.image.valueholder.Image;
+import org.openelisglobal.image.valueholder.SiteImage;
 import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.localization.service.LocalizationService;
 import org.openelisglobal.note.service.NoteService;
@@ -96,11 +95,10 @@ public class PatientCILNSPClinical_vreduit extends PatientReport implements IRep
                 SpringContext.getBean(LocalizationService.class).getLocalizedValueById(ConfigurationProperties
                         .getInstance().getPropertyValue(Property.BILLING_REFERENCE_NUMBER_LABEL)));
         reportParameters.put("footerName", getFooterName());
-        Optional<Image> labDirectorSignature = imageService.getImageBySiteInfoName("labDirectorSignature");
+        Optional<SiteImage> labDirectorSignature = imageService.getSiteImage("labDirectorSignature");
         reportParameters.put("useLabDirectorSignature", labDirectorSignature.isPresent());
         if (labDirectorSignature.isPresent()) {
-            reportParameters.put("labDirectorSignature",
-                    new ByteArrayInputStream(labDirectorSignature.get().getImage()));
+            reportParameters.put("labDirectorSignature", labDirectorSignature.get().newInputStream());
         }
 
         reportParameters.put("labDirectorName",
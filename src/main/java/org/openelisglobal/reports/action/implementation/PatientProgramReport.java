@@ -1,7 +1,6 @@
 package org.openelisglobal.reports.action.implementation;
 
 import jakarta.annotation.PostConstruct;
-import java.io.ByteArrayInputStream;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -33,7 +32,7 @@ import org.openelisglobal.common.util.DateUtil;
 import org.openelisglobal.dictionary.service.DictionaryService;
 import org.openelisglobal.dictionary.valueholder.Dictionary;
 import org.openelisglobal.image.service.ImageService;
-import org.openelisglobal.image.valueholder.Image;
+import org.openelisglobal.image.valueholder.SiteImage;
 import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.localization.service.LocalizationService;
 import org.openelisglobal.observationhistory.service.ObservationHistoryService;
@@ -229,11 +228,10 @@ public abstract class PatientProgramReport extends Report implements IReportCrea
                 SpringContext.getBean(LocalizationService.class).getLocalizedValueById(ConfigurationProperties
                         .getInstance().getPropertyValue(Property.BILLING_REFERENCE_NUMBER_LABEL)));
         reportParameters.put("footerName", getFooterName());
-        Optional<Image> labDirectorSignature = imageService.getImageBySiteInfoName("labDirectorSignature");
+        Optional<SiteImage> labDirectorSignature = imageService.getSiteImage("labDirectorSignature");
         reportParameters.put("useLabDirectorSignature", labDirectorSignature.isPresent());
         if (labDirectorSignature.isPresent()) {
-            reportParameters.put("labDirectorSignature",
-                    new ByteArrayInputStream(labDirectorSignature.get().getImage()));
+            reportParameters.put("labDirectorSignature", labDirectorSignature.get().newInputStream());
         }
 
         reportParameters.put("labDirectorName",
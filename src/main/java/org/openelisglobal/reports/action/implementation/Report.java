@@ -15,7 +15,6 @@ package org.openelisglobal.reports.action.implementation;
 
 import static org.apache.commons.validator.GenericValidator.isBlankOrNull;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.sql.Date;
@@ -36,7 +35,7 @@ import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.common.util.DateUtil;
 import org.openelisglobal.image.service.ImageService;
-import org.openelisglobal.image.valueholder.Image;
+import org.openelisglobal.image.valueholder.SiteImage;
 import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.organization.service.OrganizationService;
 import org.openelisglobal.organization.valueholder.Organization;
@@ -107,13 +106,13 @@ public abstract class Report implements IReportCreator {
         reportParameters.put("usePageNumbers",
                 ConfigurationProperties.getInstance().getPropertyValue(Property.USE_PAGE_NUMBERS_ON_REPORTS));
         // reportParameters.put("localization", createLocalizationMap());
-        Optional<Image> leftLogo = imageService.getImageBySiteInfoName("headerLeftImage");
-        Optional<Image> rightLogo = imageService.getImageBySiteInfoName("headerRightImage");
+        Optional<SiteImage> leftLogo = imageService.getSiteImage("headerLeftImage");
+        Optional<SiteImage> rightLogo = imageService.getSiteImage("headerRightImage");
         if (leftLogo.isPresent()) {
-            reportParameters.put("leftHeaderImage", new ByteArrayInputStream(leftLogo.get().getImage()));
+            reportParameters.put("leftHeaderImage", leftLogo.get().newInputStream());
         }
         if (rightLogo.isPresent()) {
-            reportParameters.put("rightHeaderImage", new ByteArrayInputStream(rightLogo.get().getImage()));
+            reportParameters.put("rightHeaderImage", rightLogo.get().newInputStream());
         }
         reportParameters.put(JRParameter.REPORT_LOCALE, LocaleContextHolder.getLocale());
         reportParameters.put(JRParameter.REPORT_RESOURCE_BUNDLE, MessageUtil.getMessageSourceAsResourceBundle());
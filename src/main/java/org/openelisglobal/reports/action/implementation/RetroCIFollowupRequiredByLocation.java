@@ -139,32 +139,30 @@ public class RetroCIFollowupRequiredByLocation extends RetroCIReport implements
     /** */
     private void createReportItems() {
         reportItems = new ArrayList<>();
-        List<Sample> sampleList = sampleService.getSamplesReceivedInDateRange(
-                DateUtil.convertSqlDateToStringDate(dateRange.getLowDate()),
-                DateUtil.convertSqlDateToStringDate(dateRange.getHighDate()));
-
-        for (Sample sample : sampleList) {
-            if (QAService.isOrderNonConforming(sample) || isUnderInvestigation(sample)) {
-                FollowupRequiredData item = new FollowupRequiredData();
-
-                item.setCollectiondate(
-                        sample.getCollectionDateForDisplay() + " " + sample.getCollectionTimeForDisplay());
-                item.setReceivedDate(sample.getReceivedDateForDisplay() + " " + sample.getReceivedTimeForDisplay());
-                item.setLabNo(sample.getAccessionNumber());
-                item.setDoctor(getOptionalObservationHistory(sample, OBSERVATION_DOCTOR_ID));
-                item.setNonConformityNotes(getNonConformingNotes(sample));
-                item.setUnderInvestigationNotes(getUnderInvestigationNotes(sample));
-                item.setOrgname(getServiceName(sample));
-                Patient patient = getPatient(sample);
-                item.setSubjectNumber(patient.getNationalId());
-                item.setSiteSubjectNumber(patient.getExternalId());
-                reportItems.add(item);
-            }
-        }
+        sampleService.forEachSampleReceivedInDateRange(DateUtil.convertSqlDateToStringDate(dateRange.getLowDate()),
+                DateUtil.convertSqlDateToStringDate(dateRange.getHighDate()), this::addReportItem);
 
         Collections.sort(reportItems, new FollowupRequiredData.OrderByOrgName());
     }
 
+    private void addReportItem(Sample sample) {
+        if (QAService.isOrderNonConforming(sample) || isUnderInvestigation(sample)) {
+            FollowupRequiredData item = new FollowupRequiredData();
+
+            item.setCollectiondate(sample.getCollectionDateForDisplay() + " " + sample.getCollectionTimeForDisplay());
+            item.setReceivedDate(sample.getReceivedDateForDisplay() + " " + sample.getReceivedTimeForDisplay());
+            item.setLabNo(sample.getAccessionNumber());
+            item.setDoctor(getOptionalObservationHistory(sample, OBSERVATION_DOCTOR_ID));
+            item.setNonConformityNotes(getNonConformingNotes(sample));
+            item.setUnderInvestigationNotes(getUnderInvestigationNotes(sample));
+            item.setOrgname(getServiceName(sample));
+            Patient patient = getPatient(sample);
+            item.setSubjectNumber(patient.getNationalId());
+            item.setSiteSubjectNumber(patient.getExternalId());
+            reportItems.add(item);
+        }
+    }
+
     protected boolean isUnderInvestigation(Sample sample) {
         String entryUnderInvestigationQuestion = getOptionalObservationHistory(sample,
                 OBSERVATION_UNDER_INVESTIGATION_ID);
@@ -19,12 +19,11 @@ import java.util.List;
 import java.util.Map;
 import net.sf.jasperreports.engine.JRDataSource;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import org.openelisglobal.analysis.service.AnalysisService;
-import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.common.services.IStatusService;
 import org.openelisglobal.common.services.StatusService.AnalysisStatus;
 import org.openelisglobal.reports.action.implementation.reportBeans.ValidationBacklogData;
 import org.openelisglobal.reports.form.ReportForm;
+import org.openelisglobal.resultvalidation.service.ValidationQueueService;
 import org.openelisglobal.spring.util.SpringContext;
 import org.openelisglobal.test.service.TestSectionService;
 import org.openelisglobal.test.valueholder.TestSection;
@@ -55,7 +54,7 @@ public class ValidationBacklogReport extends Report {
     private String USER_SELECT_SECTION_ID;
 
     private TestSectionService testSectionService = SpringContext.getBean(TestSectionService.class);
-    private AnalysisService analysisService = SpringContext.getBean(AnalysisService.class);
+    private ValidationQueueService validationQueueService = SpringContext.getBean(ValidationQueueService.class);
 
     public ValidationBacklogReport() {
         TECH_ACCEPT_ID = SpringContext.getBean(IStatusService.class).getStatusID(AnalysisStatus.TechnicalAcceptance);
@@ -102,11 +101,14 @@ public class ValidationBacklogReport extends Report {
     }
 
     private void loadBuckets() {
-        List<Analysis> analysisList = analysisService.getAnalysesForStatusId(TECH_ACCEPT_ID);
+        Map<String, Integer> sectionCounts = validationQueueService
+                .getCountsByTestSection(List.of(Integer.parseInt(TECH_ACCEPT_ID)));
 
-        for (Analysis analysis : analysisList) {
-            TestBucket bucket = sectionIdToBucketList.get(analysis.getTestSection().getId());
-            bucket.count++;
+        for (Map.Entry<String, Integer> sectionCount : sectionCounts.entrySet()) {
+            TestBucket bucket = sectionIdToBucketList.get(sectionCount.getKey());
+            if (bucket != null) {
+                bucket.count = sectionCount.getValue();
+            }
         }
     }
 
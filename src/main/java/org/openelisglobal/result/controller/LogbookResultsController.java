@@ -40,9 +40,6 @@ import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.common.util.DateUtil;
 import org.openelisglobal.common.util.IdValuePair;
-import org.openelisglobal.dataexchange.fhir.exception.FhirPersistanceException;
-import org.openelisglobal.dataexchange.fhir.exception.FhirTransformationException;
-import org.openelisglobal.dataexchange.fhir.service.FhirTransformService;
 import org.openelisglobal.dictionary.service.DictionaryService;
 import org.openelisglobal.dictionary.valueholder.Dictionary;
 import org.openelisglobal.internationalization.MessageUtil;
@@ -143,8 +140,6 @@ public class LogbookResultsController extends LogbookResultsBaseController {
     @Autowired
     private NoteService noteService;
     @Autowired
-    private FhirTransformService fhirTransformService;
-    @Autowired
     private UserService userService;
     @Autowired
     private RoleService roleService;
@@ -424,11 +419,6 @@ public class LogbookResultsController extends LogbookResultsBaseController {
                     getSysUserId(request));
             redirectAttributes.addFlashAttribute(REFLEX_ACCESSIONS, reflexAnalysises.stream()
                     .map(e -> analysisService.getOrderAccessionNumber(e)).collect(Collectors.toList()));
-            try {
-                fhirTransformService.transformPersistResultsEntryFhirObjects(actionDataSet);
-            } catch (FhirTransformationException | FhirPersistanceException e) {
-                LogEvent.logError(e);
-            }
             List<Analysis> newResultAnalyses = actionDataSet.getNewResults().stream().map(a -> a.result.getAnalysis())
                     .collect(Collectors.toList());
             List<String> systemUserIds = userRoleService.getUserIdsForRole(Constants.ROLE_VALIDATION);
@@ -43,9 +43,6 @@ import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.common.util.DateUtil;
 import org.openelisglobal.common.util.IdValuePair;
-import org.openelisglobal.dataexchange.fhir.exception.FhirPersistanceException;
-import org.openelisglobal.dataexchange.fhir.exception.FhirTransformationException;
-import org.openelisglobal.dataexchange.fhir.service.FhirTransformService;
 import org.openelisglobal.dictionary.service.DictionaryService;
 import org.openelisglobal.dictionary.valueholder.Dictionary;
 import org.openelisglobal.internationalization.MessageUtil;
@@ -158,8 +155,6 @@ public class LogbookResultsRestController extends LogbookResultsBaseController {
     @Autowired
     private NoteService noteService;
     @Autowired
-    private FhirTransformService fhirTransformService;
-    @Autowired
     private UserService userService;
     @Autowired
     private RoleService roleService;
@@ -523,11 +518,6 @@ public class LogbookResultsRestController extends LogbookResultsBaseController {
                     .map(e -> analysisService.getOrderAccessionNumber(e)).collect(Collectors.toList()));
             reflexMap.put("calculated", reflexAnalysises.stream().filter(e -> e.getResultCalculated())
                     .map(e -> analysisService.getOrderAccessionNumber(e)).collect(Collectors.toList()));
-            try {
-                fhirTransformService.transformPersistResultsEntryFhirObjects(actionDataSet);
-            } catch (FhirTransformationException | FhirPersistanceException e) {
-                LogEvent.logError(e);
-            }
             List<Analysis> newResultAnalyses = actionDataSet.getNewResults().stream().map(a -> a.result.getAnalysis())
                     .collect(Collectors.toList());
             List<String> systemUserIds = userRoleService.getUserIdsForRole(Constants.ROLE_VALIDATION);
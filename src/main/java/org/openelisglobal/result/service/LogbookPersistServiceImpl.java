@@ -13,6 +13,7 @@ import org.openelisglobal.common.services.IStatusService;
 import org.openelisglobal.common.services.ResultSaveService;
 import org.openelisglobal.common.services.StatusService.OrderStatus;
 import org.openelisglobal.common.services.registration.interfaces.IResultUpdate;
+import org.openelisglobal.dataexchange.fhir.service.FhirOutboxService;
 import org.openelisglobal.dataexchange.orderresult.OrderResponseWorker.Event;
 import org.openelisglobal.note.service.NoteService;
 import org.openelisglobal.note.valueholder.Note;
@@ -54,6 +55,8 @@ public class LogbookPersistServiceImpl implements LogbookResultsPersistService {
     private ReferralResultService referralResultService;
     @Autowired
     private ReferralSetService referralSetService;
+    @Autowired
+    private FhirOutboxService fhirOutboxService;
 
     @Override
     @Transactional
@@ -133,6 +136,16 @@ public class LogbookPersistServiceImpl implements LogbookResultsPersistService {
 
         setSampleStatus(actionDataSet, sysUserId);
 
+        List<org.openelisglobal.result.valueholder.Result> savedResults = new ArrayList<>();
+        for (ResultSet resultSet : actionDataSet.getNewResults()) {
+            savedResults.add(resultSet.result);
+        }
+        for (ResultSet resultSet : actionDataSet.getModifiedResults()) {
+            savedResults.add(resultSet.result);
+        }
+        fhirOutboxService.enqueueResultChanges(savedResults, actionDataSet.getDeletableResults(),
+                actionDataSet.getModifiedAnalysis(), new ArrayList<>());
+
         for (IResultUpdate updater : updaters) {
             updater.transactionalUpdate(actionDataSet);
         }
@@ -32,8 +32,6 @@ import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.IdValuePair;
 import org.openelisglobal.common.util.validator.GenericValidator;
 import org.openelisglobal.common.validator.BaseErrors;
-import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
-import org.openelisglobal.dataexchange.fhir.service.FhirTransformService;
 import org.openelisglobal.dataexchange.orderresult.OrderResponseWorker.Event;
 import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.note.service.NoteService;
@@ -102,7 +100,6 @@ public class AccessionValidationRangeController extends BaseResultValidationCont
     private SystemUserService systemUserService;
     private ResultValidationService resultValidationService;
     private NoteService noteService;
-    private FhirTransformService fhirTransformService;
 
     private final String RESULT_SUBJECT = "Result Note";
     private final String RESULT_TABLE_ID;
@@ -112,8 +109,7 @@ public class AccessionValidationRangeController extends BaseResultValidationCont
             SampleHumanService sampleHumanService, DocumentTrackService documentTrackService,
             TestSectionService testSectionService, SystemUserService systemUserService,
             ReferenceTablesService referenceTablesService, DocumentTypeService documentTypeService,
-            ResultValidationService resultValidationService, NoteService noteService,
-            FhirTransformService fhirTransformService) {
+            ResultValidationService resultValidationService, NoteService noteService) {
 
         this.analysisService = analysisService;
         this.testResultService = testResultService;
@@ -123,7 +119,6 @@ public class AccessionValidationRangeController extends BaseResultValidationCont
         this.systemUserService = systemUserService;
         this.resultValidationService = resultValidationService;
         this.noteService = noteService;
-        this.fhirTransformService = fhirTransformService;
 
         RESULT_TABLE_ID = referenceTablesService.getReferenceTableByName("RESULT").getId();
         RESULT_REPORT_ID = documentTypeService.getDocumentTypeByName("resultExport").getId();
@@ -289,12 +284,6 @@ public class AccessionValidationRangeController extends BaseResultValidationCont
             resultValidationService.persistdata(deletableList, analysisUpdateList, resultUpdateList, resultItemList,
                     sampleUpdateList, noteUpdateList, resultSaveService, updaters, getSysUserId(request));
 
-            try {
-                fhirTransformService.transformPersistResultValidationFhirObjects(deletableList, analysisUpdateList,
-                        resultUpdateList, resultItemList, sampleUpdateList, noteUpdateList);
-            } catch (FhirLocalPersistingException e) {
-                LogEvent.logError(e);
-            }
 
         } catch (LIMSRuntimeException e) {
             LogEvent.logError(e);
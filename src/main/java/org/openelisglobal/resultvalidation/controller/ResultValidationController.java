@@ -32,8 +32,6 @@ import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.IdValuePair;
 import org.openelisglobal.common.util.validator.GenericValidator;
 import org.openelisglobal.common.validator.BaseErrors;
-import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
-import org.openelisglobal.dataexchange.fhir.service.FhirTransformService;
 import org.openelisglobal.dataexchange.orderresult.OrderResponseWorker.Event;
 import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.note.service.NoteService;
@@ -101,7 +99,6 @@ public class ResultValidationController extends BaseResultValidationController {
     private SystemUserService systemUserService;
     private ResultValidationService resultValidationService;
     private NoteService noteService;
-    private FhirTransformService fhirTransformService;
 
     private final String RESULT_SUBJECT = "Result Note";
     private final String RESULT_TABLE_ID;
@@ -111,8 +108,7 @@ public class ResultValidationController extends BaseResultValidationController {
             SampleHumanService sampleHumanService, DocumentTrackService documentTrackService,
             TestSectionService testSectionService, SystemUserService systemUserService,
             ReferenceTablesService referenceTablesService, DocumentTypeService documentTypeService,
-            ResultValidationService resultValidationService, NoteService noteService,
-            FhirTransformService fhirTransformService) {
+            ResultValidationService resultValidationService, NoteService noteService) {
 
         this.analysisService = analysisService;
         this.testResultService = testResultService;
@@ -122,7 +118,6 @@ public class ResultValidationController extends BaseResultValidationController {
         this.systemUserService = systemUserService;
         this.resultValidationService = resultValidationService;
         this.noteService = noteService;
-        this.fhirTransformService = fhirTransformService;
 
         RESULT_TABLE_ID = referenceTablesService.getReferenceTableByName("RESULT").getId();
         RESULT_REPORT_ID = documentTypeService.getDocumentTypeByName("resultExport").getId();
@@ -294,12 +289,6 @@ public class ResultValidationController extends BaseResultValidationController {
         try {
             resultValidationService.persistdata(deletableList, analysisUpdateList, resultUpdateList, resultItemList,
                     sampleUpdateList, noteUpdateList, resultSaveService, updaters, getSysUserId(request));
-            try {
-                fhirTransformService.transformPersistResultValidationFhirObjects(deletableList, analysisUpdateList,
-                        resultUpdateList, resultItemList, sampleUpdateList, noteUpdateList);
-            } catch (FhirLocalPersistingException e) {
-                LogEvent.logError(e);
-            }
         } catch (LIMSRuntimeException e) {
             LogEvent.logError(e);
             throw e;
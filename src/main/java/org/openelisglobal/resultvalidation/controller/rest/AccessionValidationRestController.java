@@ -26,8 +26,6 @@ import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.IdValuePair;
 import org.openelisglobal.common.util.validator.GenericValidator;
 import org.openelisglobal.common.validator.BaseErrors;
-import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
-import org.openelisglobal.dataexchange.fhir.service.FhirTransformService;
 import org.openelisglobal.dataexchange.orderresult.OrderResponseWorker.Event;
 import org.openelisglobal.internationalization.MessageUtil;
 import org.openelisglobal.note.service.NoteService;
@@ -100,7 +98,6 @@ public class AccessionValidationRestController extends BaseResultValidationContr
     private SystemUserService systemUserService;
     private ResultValidationService resultValidationService;
     private NoteService noteService;
-    private FhirTransformService fhirTransformService;
 
     private final String RESULT_SUBJECT = "Result Note";
     private final String RESULT_TABLE_ID;
@@ -110,8 +107,7 @@ public class AccessionValidationRestController extends BaseResultValidationContr
             SampleHumanService sampleHumanService, DocumentTrackService documentTrackService,
             TestSectionService testSectionService, SystemUserService systemUserService,
             ReferenceTablesService referenceTablesService, DocumentTypeService documentTypeService,
-            ResultValidationService resultValidationService, NoteService noteService,
-            FhirTransformService fhirTransformService) {
+            ResultValidationService resultValidationService, NoteService noteService) {
 
         this.analysisService = analysisService;
         this.testResultService = testResultService;
@@ -121,7 +117,6 @@ public class AccessionValidationRestController extends BaseResultValidationContr
         this.systemUserService = systemUserService;
         this.resultValidationService = resultValidationService;
         this.noteService = noteService;
-        this.fhirTransformService = fhirTransformService;
 
         RESULT_TABLE_ID = referenceTablesService.getReferenceTableByName("RESULT").getId();
         RESULT_REPORT_ID = documentTypeService.getDocumentTypeByName("resultExport").getId();
@@ -305,12 +300,6 @@ public class AccessionValidationRestController extends BaseResultValidationContr
             resultValidationService.persistdata(deletableList, analysisUpdateList, resultUpdateList, resultItemList,
                     sampleUpdateList, noteUpdateList, resultSaveService, updaters, getSysUserId(request));
 
-            try {
-                fhirTransformService.transformPersistResultValidationFhirObjects(deletableList, analysisUpdateList,
-                        resultUpdateList, resultItemList, sampleUpdateList, noteUpdateList);
-            } catch (FhirLocalPersistingException e) {
-                LogEvent.logError(e);
-            }
         } catch (LIMSRuntimeException e) {
             LogEvent.logError(e);
         }
@@ -0,0 +1,47 @@
+package org.openelisglobal.resultvalidation.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.openelisglobal.common.dao.BaseDAO;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.resultvalidation.valueholder.ValidationQueueEntry;
+
+public interface ValidationQueueDAO extends BaseDAO<ValidationQueueEntry, Integer> {
+
+    /**
+     * Inserts the entries or brings the rows already there up to date, without
+     * reading them first
+     */
+    void upsert(Collection<ValidationQueueEntry> entries) throws LIMSRuntimeException;
+
+    void deleteByIds(Collection<Integer> analysisIds) throws LIMSRuntimeException;
+
+    /**
+     * @return the ids of up to maxResults analyses of the test section waiting in
+     *         one of the statuses, in validation order: by accession number then
+     *         test sort order
+     */
+    List<String> getAnalysisIdsInTestSection(String testSectionId, List<Integer> statusIds, int maxResults)
+            throws LIMSRuntimeException;
+
+    /**
+     * @return the ids of up to maxResults analyses waiting in one of the statuses
+     *         whose accession number is the given one or after it, in validation
+     *         order
+     */
+    List<String> getAnalysisIdsFromAccessionNumber(String accessionNumber, List<Integer> statusIds, int maxResults)
+            throws LIMSRuntimeException;
+
+    /**
+     * @return the ids of the analyses of the accession number waiting in one of the
+     *         statuses, optionally limited to a test section, in validation order
+     */
+    List<String> getAnalysisIdsAtAccessionNumber(String accessionNumber, String testSectionId,
+            List<Integer> statusIds) throws LIMSRuntimeException;
+
+    int getCountInTestSection(String testSectionId, List<Integer> statusIds) throws LIMSRuntimeException;
+
+    /** @return the number of analyses waiting in one of the statuses, by test section id */
+    Map<String, Integer> getCountsByTestSection(List<Integer> statusIds) throws LIMSRuntimeException;
+}
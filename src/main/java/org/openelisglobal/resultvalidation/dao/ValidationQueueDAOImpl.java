@@ -0,0 +1,190 @@
+package org.openelisglobal.resultvalidation.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.daoimpl.BaseDAOImpl;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.resultvalidation.valueholder.ValidationQueueEntry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+public class ValidationQueueDAOImpl extends BaseDAOImpl<ValidationQueueEntry, Integer> implements ValidationQueueDAO {
+
+    // the accession number and sort order are read from the sample and test the
+    // analysis belongs to now, so editing them reorders the queue at once
+    private static final String QUEUED_ANALYSES = "select v.analysis_id from validation_queue v"
+            + " join analysis a on a.id = v.analysis_id join sample_item si on si.id = a.sampitem_id"
+            + " join sample s on s.id = si.samp_id join test t on t.id = a.test_id"
+            + " where v.status_id in (:statusIds)";
+
+    private static final String VALIDATION_ORDER = " order by s.accession_number, t.sort_order, v.analysis_id";
+
+    /** Rows per insert statement, which keeps the bind parameters well under the driver limit */
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    public ValidationQueueDAOImpl() {
+        super(ValidationQueueEntry.class);
+    }
+
+    @Override
+    public void upsert(Collection<ValidationQueueEntry> entries) throws LIMSRuntimeException {
+        List<ValidationQueueEntry> remaining = new ArrayList<>(entries);
+        try {
+            for (int from = 0; from < remaining.size(); from += UPSERT_CHUNK_SIZE) {
+                List<ValidationQueueEntry> chunk = remaining.subList(from,
+                        Math.min(from + UPSERT_CHUNK_SIZE, remaining.size()));
+                StringBuilder sql = new StringBuilder(
+                        "insert into validation_queue (analysis_id, test_section_id, status_id, last_updated) values ");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :testSectionId").append(i)
+                            .append(", :statusId").append(i).append(", now())");
+                }
+                sql.append(" on conflict (analysis_id) do update set test_section_id = excluded.test_section_id,")
+                        .append(" status_id = excluded.status_id, last_updated = now()")
+                        .append(" where validation_queue.test_section_id <> excluded.test_section_id")
+                        .append(" or validation_queue.status_id <> excluded.status_id");
+                // synchronized on the analysis too, so an analysis inserted earlier in the
+                // transaction is flushed before the foreign key to it is checked
+                NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql.toString())
+                        .addSynchronizedEntityClass(ValidationQueueEntry.class)
+                        .addSynchronizedEntityClass(Analysis.class);
+                for (int i = 0; i < chunk.size(); i++) {
+                    ValidationQueueEntry entry = chunk.get(i);
+                    query.setParameter("id" + i, entry.getId());
+                    query.setParameter("testSectionId" + i, entry.getTestSectionId());
+                    query.setParameter("statusId" + i, entry.getStatusId());
+                }
+                query.executeUpdate();
+            }
+        } catch (HibernateException e) {
+            handleException(e, "upsert");
+        }
+    }
+
+    @Override
+    public void deleteByIds(Collection<Integer> analysisIds) throws LIMSRuntimeException {
+        if (analysisIds.isEmpty()) {
+            return;
+        }
+        String hql = "delete from ValidationQueueEntry v where v.id in (:analysisIds)";
+        try {
+            Query<?> query = entityManager.unwrap(Session.class).createQuery(hql);
+            query.setParameterList("analysisIds", analysisIds);
+            query.executeUpdate();
+        } catch (HibernateException e) {
+            handleException(e, "deleteByIds");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getAnalysisIdsInTestSection(String testSectionId, List<Integer> statusIds, int maxResults)
+            throws LIMSRuntimeException {
+        String sql = QUEUED_ANALYSES + " and v.test_section_id = :testSectionId" + VALIDATION_ORDER;
+        try {
+            NativeQuery<?> query = createQueuedAnalysesQuery(sql, statusIds);
+            query.setParameter("testSectionId", Integer.parseInt(testSectionId));
+            query.setMaxResults(maxResults);
+            return toStrings(query.list());
+        } catch (HibernateException e) {
+            handleException(e, "getAnalysisIdsInTestSection");
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getAnalysisIdsFromAccessionNumber(String accessionNumber, List<Integer> statusIds,
+            int maxResults) throws LIMSRuntimeException {
+        String sql = QUEUED_ANALYSES + " and s.accession_number >= :accessionNumber"
+                + " and length(s.accession_number) = length(:accessionNumber)" + VALIDATION_ORDER;
+        try {
+            NativeQuery<?> query = createQueuedAnalysesQuery(sql, statusIds);
+            query.setParameter("accessionNumber", accessionNumber);
+            query.setMaxResults(maxResults);
+            return toStrings(query.list());
+        } catch (HibernateException e) {
+            handleException(e, "getAnalysisIdsFromAccessionNumber");
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getAnalysisIdsAtAccessionNumber(String accessionNumber, String testSectionId,
+            List<Integer> statusIds) throws LIMSRuntimeException {
+        String sql = QUEUED_ANALYSES + " and s.accession_number = :accessionNumber"
+                + (testSectionId == null ? "" : " and v.test_section_id = :testSectionId") + VALIDATION_ORDER;
+        try {
+            NativeQuery<?> query = createQueuedAnalysesQuery(sql, statusIds);
+            query.setParameter("accessionNumber", accessionNumber);
+            if (testSectionId != null) {
+                query.setParameter("testSectionId", Integer.parseInt(testSectionId));
+            }
+            return toStrings(query.list());
+        } catch (HibernateException e) {
+            handleException(e, "getAnalysisIdsAtAccessionNumber");
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getCountInTestSection(String testSectionId, List<Integer> statusIds) throws LIMSRuntimeException {
+        String hql = "select count(*) from ValidationQueueEntry v where v.testSectionId = :testSectionId"
+                + " and v.statusId in (:statusIds)";
+        try {
+            Query<Long> query = entityManager.unwrap(Session.class).createQuery(hql, Long.class);
+            query.setParameter("testSectionId", Integer.parseInt(testSectionId));
+            query.setParameterList("statusIds", statusIds);
+            return query.uniqueResult().intValue();
+        } catch (HibernateException e) {
+            handleException(e, "getCountInTestSection");
+        }
+        return 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getCountsByTestSection(List<Integer> statusIds) throws LIMSRuntimeException {
+        String hql = "select v.testSectionId, count(*) from ValidationQueueEntry v where v.statusId in (:statusIds)"
+                + " group by v.testSectionId";
+        try {
+            Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(hql, Object[].class);
+            query.setParameterList("statusIds", statusIds);
+            Map<String, Integer> counts = new HashMap<>();
+            for (Object[] row : query.list()) {
+                counts.put(row[0].toString(), ((Long) row[1]).intValue());
+            }
+            return counts;
+        } catch (HibernateException e) {
+            handleException(e, "getCountsByTestSection");
+        }
+        return null;
+    }
+
+    private NativeQuery<?> createQueuedAnalysesQuery(String sql, List<Integer> statusIds) {
+        NativeQuery<?> query = entityManager.unwrap(Session.class).createNativeQuery(sql)
+                .addSynchronizedEntityClass(ValidationQueueEntry.class).addSynchronizedEntityClass(Analysis.class);
+        query.setParameterList("statusIds", statusIds);
+        return query;
+    }
+
+    private List<String> toStrings(List<?> ids) {
+        List<String> strings = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            strings.add(((Number) id).toString());
+        }
+        return strings;
+    }
+}
@@ -11,6 +11,7 @@ import org.openelisglobal.common.services.ResultSaveService;
 import org.openelisglobal.common.services.StatusService.AnalysisStatus;
 import org.openelisglobal.common.services.StatusService.OrderStatus;
 import org.openelisglobal.common.services.registration.interfaces.IResultUpdate;
+import org.openelisglobal.dataexchange.fhir.service.FhirOutboxService;
 import org.openelisglobal.note.service.NoteService;
 import org.openelisglobal.note.valueholder.Note;
 import org.openelisglobal.notification.service.TestNotificationService;
@@ -23,6 +24,8 @@ import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.spring.util.SpringContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class ResultValidationServiceImpl implements ResultValidationService {
@@ -32,14 +35,17 @@ public class ResultValidationServiceImpl implements ResultValidationService {
     private NoteService noteService;
     private SampleService sampleService;
     private TestNotificationService testNotificationService;
+    private FhirOutboxService fhirOutboxService;
 
     public ResultValidationServiceImpl(AnalysisService analysisService, ResultService resultService,
-            NoteService noteService, SampleService sampleService, TestNotificationService testNotificationService) {
+            NoteService noteService, SampleService sampleService, TestNotificationService testNotificationService,
+            FhirOutboxService fhirOutboxService) {
         this.analysisService = analysisService;
         this.resultService = resultService;
         this.noteService = noteService;
         this.sampleService = sampleService;
         this.testNotificationService = testNotificationService;
+        this.fhirOutboxService = fhirOutboxService;
     }
 
     @Override
@@ -49,6 +55,7 @@ public class ResultValidationServiceImpl implements ResultValidationService {
             ArrayList<Note> noteUpdateList, IResultSaveService resultSaveService, List<IResultUpdate> updaters,
             String sysUserId) {
         ResultSaveService.removeDeletedResultsInTransaction(deletableList, sysUserId);
+        List<Result> finalizedResults = new ArrayList<>();
 
         // update analysis
         for (Analysis analysis : analysisUpdateList) {
@@ -66,14 +73,10 @@ public class ResultValidationServiceImpl implements ResultValidationService {
                         "Result with id: " + id + " created while validating");
             }
             if (isResultAnalysisFinalized(resultUpdate, analysisUpdateList)) {
-                try {
-                    testNotificationService.createAndSendNotificationsToConfiguredSources(
-                            NotificationNature.RESULT_VALIDATION, resultUpdate);
-                } catch (RuntimeException e) {
-                    LogEvent.logError(e);
-                }
+                finalizedResults.add(resultUpdate);
             }
         }
+        sendNotificationsAfterCommit(finalizedResults);
 
         checkIfSamplesFinished(resultItemList, sampleUpdateList);
 
@@ -82,6 +85,8 @@ public class ResultValidationServiceImpl implements ResultValidationService {
             sampleService.update(sample);
         }
 
+        fhirOutboxService.enqueueResultChanges(resultUpdateList, deletableList, analysisUpdateList, sampleUpdateList);
+
         // create or update notes
         for (Note note : noteUpdateList) {
             if (note != null) {
@@ -100,6 +105,35 @@ public class ResultValidationServiceImpl implements ResultValidationService {
         }
     }
 
+    /**
+     * Queues the notifications for all the finalized results at once, and only
+     * once the results are committed
+     */
+    private void sendNotificationsAfterCommit(List<Result> finalizedResults) {
+        if (finalizedResults.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendNotifications(finalizedResults);
+                }
+            });
+        } else {
+            sendNotifications(finalizedResults);
+        }
+    }
+
+    private void sendNotifications(List<Result> finalizedResults) {
+        try {
+            testNotificationService.createAndSendNotificationsToConfiguredSources(NotificationNature.RESULT_VALIDATION,
+                    finalizedResults);
+        } catch (RuntimeException e) {
+            LogEvent.logError(e);
+        }
+    }
+
     private boolean isResultAnalysisFinalized(Result result, List<Analysis> analysisUpdateList) {
         String analysisId = result.getAnalysis().getId();
         for (Analysis analysis : analysisUpdateList) {
@@ -0,0 +1,38 @@
+package org.openelisglobal.resultvalidation.service;
+
+import java.util.List;
+import java.util.Map;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.service.BaseObjectService;
+import org.openelisglobal.resultvalidation.valueholder.ValidationQueueEntry;
+
+public interface ValidationQueueService extends BaseObjectService<ValidationQueueEntry, Integer> {
+
+    /**
+     * Adds the analysis to the queue, brings its row up to date or removes it,
+     * according to whether its status is one waiting for validation. Within a
+     * transaction the row is written as the analysis stands when it commits
+     */
+    void refresh(Analysis analysis);
+
+    void remove(String analysisId);
+
+    /**
+     * @return the analyses of the test section waiting in one of the statuses, in
+     *         validation order, up to the configured maximum. The last sample is
+     *         never cut short
+     */
+    List<Analysis> getQueuedAnalysesInTestSection(String testSectionId, List<Integer> statusIds);
+
+    /**
+     * @return the analyses waiting in one of the statuses from the accession number
+     *         on, in validation order, up to the configured maximum. The last
+     *         sample is never cut short
+     */
+    List<Analysis> getQueuedAnalysesFromAccessionNumber(String accessionNumber, List<Integer> statusIds);
+
+    int getCountInTestSection(String testSectionId, List<Integer> statusIds);
+
+    /** @return the number of analyses waiting in one of the statuses, by test section id */
+    Map<String, Integer> getCountsByTestSection(List<Integer> statusIds);
+}
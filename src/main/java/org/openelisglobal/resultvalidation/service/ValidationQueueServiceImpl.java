@@ -0,0 +1,212 @@
+package org.openelisglobal.resultvalidation.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.validator.GenericValidator;
+import org.openelisglobal.analysis.dao.AnalysisDAO;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.paging.PagingProperties;
+import org.openelisglobal.common.service.BaseObjectServiceImpl;
+import org.openelisglobal.common.services.IStatusService;
+import org.openelisglobal.common.services.StatusService.AnalysisStatus;
+import org.openelisglobal.resultvalidation.dao.ValidationQueueDAO;
+import org.openelisglobal.resultvalidation.valueholder.ValidationQueueEntry;
+import org.openelisglobal.sample.valueholder.Sample;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class ValidationQueueServiceImpl extends BaseObjectServiceImpl<ValidationQueueEntry, Integer>
+        implements ValidationQueueService {
+
+    @Autowired
+    protected ValidationQueueDAO baseObjectDAO;
+    @Autowired
+    private AnalysisDAO analysisDAO;
+    @Autowired
+    private IStatusService statusService;
+    @Autowired
+    private PagingProperties pagingProperties;
+
+    private volatile List<Integer> queuedStatusIds;
+
+    ValidationQueueServiceImpl() {
+        super(ValidationQueueEntry.class);
+    }
+
+    @Override
+    protected ValidationQueueDAO getBaseObjectDAO() {
+        return baseObjectDAO;
+    }
+
+    @Override
+    @Transactional
+    public void refresh(Analysis analysis) {
+        if (GenericValidator.isBlankOrNull(analysis.getId())) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(analysis));
+            return;
+        }
+        getPendingQueueWrites().analyses.put(analysis.getId(), analysis);
+    }
+
+    @Override
+    @Transactional
+    public void remove(String analysisId) {
+        if (GenericValidator.isBlankOrNull(analysisId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getPendingQueueWrites().analyses.remove(analysisId);
+        }
+        getBaseObjectDAO().deleteByIds(List.of(Integer.valueOf(analysisId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Analysis> getQueuedAnalysesInTestSection(String testSectionId, List<Integer> statusIds) {
+        List<String> analysisIds = getBaseObjectDAO().getAnalysisIdsInTestSection(testSectionId, statusIds,
+                getMaxAnalyses());
+        List<Analysis> analyses = getAnalysesInOrder(analysisIds);
+        completeLastSample(analyses, analysisIds, testSectionId, statusIds);
+        return analyses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Analysis> getQueuedAnalysesFromAccessionNumber(String accessionNumber, List<Integer> statusIds) {
+        List<String> analysisIds = getBaseObjectDAO().getAnalysisIdsFromAccessionNumber(accessionNumber, statusIds,
+                getMaxAnalyses());
+        List<Analysis> analyses = getAnalysesInOrder(analysisIds);
+        completeLastSample(analyses, analysisIds, null, statusIds);
+        return analyses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getCountInTestSection(String testSectionId, List<Integer> statusIds) {
+        return getBaseObjectDAO().getCountInTestSection(testSectionId, statusIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getCountsByTestSection(List<Integer> statusIds) {
+        return getBaseObjectDAO().getCountsByTestSection(statusIds);
+    }
+
+    // a full page may end part way through a sample, whose remaining analyses
+    // would otherwise only be shown, split from the rest, on the next load
+    private void completeLastSample(List<Analysis> analyses, List<String> analysisIds, String testSectionId,
+            List<Integer> statusIds) {
+        if (analysisIds.size() < getMaxAnalyses() || analyses.isEmpty()) {
+            return;
+        }
+        Sample lastSample = analyses.get(analyses.size() - 1).getSampleItem().getSample();
+        List<String> remainingIds = new ArrayList<>();
+        for (String analysisId : getBaseObjectDAO().getAnalysisIdsAtAccessionNumber(lastSample.getAccessionNumber(),
+                testSectionId, statusIds)) {
+            if (!analysisIds.contains(analysisId)) {
+                remainingIds.add(analysisId);
+            }
+        }
+        analyses.addAll(getAnalysesInOrder(remainingIds));
+    }
+
+    private List<Analysis> getAnalysesInOrder(List<String> analysisIds) {
+        if (analysisIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < analysisIds.size(); i++) {
+            positions.put(analysisIds.get(i), i);
+        }
+        List<Analysis> analyses = new ArrayList<>(analysisDAO.getAnalysesWithSampleAndTest(analysisIds));
+        analyses.sort(Comparator.comparing(analysis -> positions.get(analysis.getId())));
+        return analyses;
+    }
+
+    /**
+     * Writes the queue rows of the analyses as they are now: one upsert for those
+     * waiting for validation and one delete for the others
+     */
+    private void write(Collection<Analysis> analyses) {
+        List<ValidationQueueEntry> queued = new ArrayList<>();
+        List<Integer> notQueued = new ArrayList<>();
+        for (Analysis analysis : analyses) {
+            if (isQueued(analysis)) {
+                queued.add(toEntry(analysis));
+            } else {
+                notQueued.add(Integer.valueOf(analysis.getId()));
+            }
+        }
+        if (!queued.isEmpty()) {
+            getBaseObjectDAO().upsert(queued);
+        }
+        getBaseObjectDAO().deleteByIds(notQueued);
+    }
+
+    private PendingQueueWrites getPendingQueueWrites() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingQueueWrites) {
+                return (PendingQueueWrites) synchronization;
+            }
+        }
+        PendingQueueWrites pending = new PendingQueueWrites();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * The analyses saved in a transaction, written to the queue once just before
+     * it commits, so an analysis saved several times costs one row write and the
+     * queue is brought up to date in as few statements as the transaction allows
+     */
+    private class PendingQueueWrites implements TransactionSynchronization {
+
+        private final Map<String, Analysis> analyses = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!analyses.isEmpty()) {
+                write(analyses.values());
+            }
+        }
+    }
+
+    private boolean isQueued(Analysis analysis) {
+        return analysis.getTestSection() != null && !GenericValidator.isBlankOrNull(analysis.getStatusId())
+                && getQueuedStatusIds().contains(Integer.valueOf(analysis.getStatusId()));
+    }
+
+    private ValidationQueueEntry toEntry(Analysis analysis) {
+        ValidationQueueEntry entry = new ValidationQueueEntry();
+        entry.setId(Integer.valueOf(analysis.getId()));
+        entry.setTestSectionId(Integer.valueOf(analysis.getTestSection().getId()));
+        entry.setStatusId(Integer.valueOf(analysis.getStatusId()));
+        return entry;
+    }
+
+    private List<Integer> getQueuedStatusIds() {
+        if (queuedStatusIds == null) {
+            List<Integer> ids = new ArrayList<>();
+            ids.add(Integer.valueOf(statusService.getStatusID(AnalysisStatus.TechnicalAcceptance)));
+            ids.add(Integer.valueOf(statusService.getStatusID(AnalysisStatus.TechnicalRejected)));
+            queuedStatusIds = ids;
+        }
+        return queuedStatusIds;
+    }
+
+    private int getMaxAnalyses() {
+        return pagingProperties.getValidationMaxAnalyses();
+    }
+}
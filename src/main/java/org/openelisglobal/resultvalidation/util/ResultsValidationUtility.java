@@ -65,6 +65,7 @@ import org.openelisglobal.resultlimit.service.ResultLimitService;
 import org.openelisglobal.resultlimits.valueholder.ResultLimit;
 import org.openelisglobal.resultvalidation.action.util.ResultValidationItem;
 import org.openelisglobal.resultvalidation.bean.AnalysisItem;
+import org.openelisglobal.resultvalidation.service.ValidationQueueService;
 import org.openelisglobal.sample.service.SampleService;
 import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.spring.util.SpringContext;
@@ -106,6 +107,8 @@ public class ResultsValidationUtility {
     protected AnalysisService analysisService;
     @Autowired
     protected ResultLimitService resultLimitService;
+    @Autowired
+    protected ValidationQueueService validationQueueService;
 
     private Patient currentPatient;
     protected String SAMPLE_STATUS_OBSERVATION_HISTORY_TYPE_ID;
@@ -197,12 +200,8 @@ public class ResultsValidationUtility {
     public final List<ResultValidationItem> getPageUnValidatedTestResultItemsInTestSection(String sectionId,
             List<Integer> statusList) {
 
-        // List<Analysis> analysisList =
-        // analysisService.getAllAnalysisByTestSectionAndStatus(sectionId, statusList,
-        // false);
-        // getPage for validation
-        List<Analysis> analysisList = analysisService.getPageAnalysisByTestSectionAndStatus(sectionId, statusList,
-                false);
+        // the backlog is read in validation order from the validation queue
+        List<Analysis> analysisList = validationQueueService.getQueuedAnalysesInTestSection(sectionId, statusList);
         return getGroupedTestsForAnalysisList(analysisList, !StatusRules.useRecordStatusForValidation());
     }
 
@@ -210,12 +209,8 @@ public class ResultsValidationUtility {
     public final List<ResultValidationItem> getPageUnValidatedTestResultItemsAtAccessionNumber(String accessionNumber,
             List<Integer> statusList) {
 
-        // List<Analysis> analysisList =
-        // analysisService.getAllAnalysisByTestSectionAndStatus(sectionId, statusList,
-        // false);
-        // getPage for validation
-        List<Analysis> analysisList = analysisService.getPageAnalysisAtAccessionNumberAndStatus(accessionNumber,
-                statusList, false);
+        List<Analysis> analysisList = validationQueueService.getQueuedAnalysesFromAccessionNumber(accessionNumber,
+                statusList);
         return getGroupedTestsForAnalysisList(analysisList, !StatusRules.useRecordStatusForValidation());
     }
 
@@ -231,7 +226,7 @@ public class ResultsValidationUtility {
 
     @SuppressWarnings("unchecked")
     public final int getCountUnValidatedTestResultItemsInTestSection(String sectionId, List<Integer> statusList) {
-        return analysisService.getCountAnalysisByTestSectionAndStatus(sectionId, statusList);
+        return validationQueueService.getCountInTestSection(sectionId, statusList);
     }
 
     protected final void sortByAccessionNumberAndOrder(List<AnalysisItem> resultItemList) {
@@ -277,31 +272,18 @@ public class ResultsValidationUtility {
             boolean ignoreRecordStatus) throws LIMSRuntimeException {
 
         List<ResultValidationItem> selectedTestList = new ArrayList<>();
-        Dictionary dictionary;
+        AnalysisListLookups lookups = new AnalysisListLookups(getResultsByAnalysisId(filteredAnalysisList));
 
         for (Analysis analysis : filteredAnalysisList) {
 
             if (ignoreRecordStatus || sampleReadyForValidation(analysis.getSampleItem().getSample())) {
-                List<ResultValidationItem> testResultItemList = getResultItemFromAnalysis(analysis);
+                List<ResultValidationItem> testResultItemList = getResultItemFromAnalysis(analysis, lookups);
                 // NB. The resultValue is filled in during getResultItemFromAnalysis as a side
                 // effect of setResult
                 for (ResultValidationItem validationItem : testResultItemList) {
                     if (TypeOfTestResultServiceImpl.ResultType.isDictionaryVariant(validationItem.getResultType())) {
-                        dictionary = new Dictionary();
-                        String resultValue = null;
-                        try {
-                            dictionary.setId(validationItem.getResultValue());
-                            dictionaryService.getData(dictionary);
-                            resultValue = GenericValidator.isBlankOrNull(dictionary.getLocalAbbreviation())
-                                    ? dictionary.getDictEntry()
-                                    : dictionary.getLocalAbbreviation();
-                        } catch (RuntimeException e) {
-                            LogEvent.logInfo(this.getClass().getSimpleName(), "getGroupedTestsForAnalysisList",
-                                    e.getMessage());
-                            // no-op
-                        }
-
-                        validationItem.setResultValue(resultValue);
+                        validationItem
+                                .setResultValue(getDictionaryResultValue(validationItem.getResultValue(), lookups));
                     }
 
                     validationItem.setAnalysis(analysis);
@@ -317,44 +299,53 @@ public class ResultsValidationUtility {
 
     public final int getCountGroupedTestsForAnalysisList(Collection<Analysis> filteredAnalysisList,
             boolean ignoreRecordStatus) throws LIMSRuntimeException {
+        return getGroupedTestsForAnalysisList(filteredAnalysisList, ignoreRecordStatus).size();
+    }
 
-        List<ResultValidationItem> selectedTestList = new ArrayList<>();
-        Dictionary dictionary;
-
-        for (Analysis analysis : filteredAnalysisList) {
-
-            if (ignoreRecordStatus || sampleReadyForValidation(analysis.getSampleItem().getSample())) {
-                List<ResultValidationItem> testResultItemList = getResultItemFromAnalysis(analysis);
-                // NB. The resultValue is filled in during getResultItemFromAnalysis as a side
-                // effect of setResult
-                for (ResultValidationItem validationItem : testResultItemList) {
-                    if (TypeOfTestResultServiceImpl.ResultType.isDictionaryVariant(validationItem.getResultType())) {
-                        dictionary = new Dictionary();
-                        String resultValue = null;
-                        try {
-                            dictionary.setId(validationItem.getResultValue());
-                            dictionaryService.getData(dictionary);
-                            resultValue = GenericValidator.isBlankOrNull(dictionary.getLocalAbbreviation())
-                                    ? dictionary.getDictEntry()
-                                    : dictionary.getLocalAbbreviation();
-                        } catch (RuntimeException e) {
-                            LogEvent.logInfo(this.getClass().getSimpleName(), "getGroupedTestsForAnalysisList",
-                                    e.getMessage());
-                            // no-op
-                        }
-
-                        validationItem.setResultValue(resultValue);
-                    }
+    private String getDictionaryResultValue(String dictionaryId, AnalysisListLookups lookups) {
+        if (lookups.dictionaryResultValues.containsKey(dictionaryId)) {
+            return lookups.dictionaryResultValues.get(dictionaryId);
+        }
+        Dictionary dictionary = new Dictionary();
+        String resultValue = null;
+        try {
+            dictionary.setId(dictionaryId);
+            dictionaryService.getData(dictionary);
+            resultValue = GenericValidator.isBlankOrNull(dictionary.getLocalAbbreviation()) ? dictionary.getDictEntry()
+                    : dictionary.getLocalAbbreviation();
+        } catch (RuntimeException e) {
+            LogEvent.logInfo(this.getClass().getSimpleName(), "getGroupedTestsForAnalysisList", e.getMessage());
+            // no-op
+        }
+        lookups.dictionaryResultValues.put(dictionaryId, resultValue);
+        return resultValue;
+    }
 
-                    validationItem.setAnalysis(analysis);
-                    validationItem.setNonconforming(QAService.isAnalysisParentNonConforming(analysis) || StatusService
-                            .getInstance().matches(analysis.getStatusId(), AnalysisStatus.TechnicalRejected));
-                    selectedTestList.add(validationItem);
-                }
+    /*
+     * The results of all the analyses in one query rather than one per analysis,
+     * each list in id order as getResultsByAnalysis returns it
+     */
+    private Map<String, List<Result>> getResultsByAnalysisId(Collection<Analysis> analyses) {
+        Map<String, List<Result>> resultsByAnalysisId = new HashMap<>();
+        List<Integer> analysisIds = new ArrayList<>();
+        for (Analysis analysis : analyses) {
+            if (resultsByAnalysisId.put(analysis.getId(), new ArrayList<>()) == null) {
+                analysisIds.add(Integer.valueOf(analysis.getId()));
             }
         }
-
-        return selectedTestList.size();
+        if (analysisIds.isEmpty()) {
+            return resultsByAnalysisId;
+        }
+        for (Result result : resultService.getResultsForAnalysisIdList(analysisIds)) {
+            List<Result> results = resultsByAnalysisId.get(result.getAnalysis().getId());
+            if (results != null) {
+                results.add(result);
+            }
+        }
+        for (List<Result> results : resultsByAnalysisId.values()) {
+            results.sort(Comparator.comparing(result -> Long.valueOf(result.getId())));
+        }
+        return resultsByAnalysisId;
     }
 
     protected final boolean sampleReadyForValidation(Sample sample) {
@@ -370,9 +361,13 @@ public class ResultsValidationUtility {
     }
 
     public final List<ResultValidationItem> getResultItemFromAnalysis(Analysis analysis) throws LIMSRuntimeException {
+        return getResultItemFromAnalysis(analysis, new AnalysisListLookups(new HashMap<>()));
+    }
+
+    private List<ResultValidationItem> getResultItemFromAnalysis(Analysis analysis, AnalysisListLookups lookups) {
         List<ResultValidationItem> testResultList = new ArrayList<>();
 
-        List<Result> resultList = resultService.getResultsByAnalysis(analysis);
+        List<Result> resultList = getResults(analysis, lookups);
         NoteType[] noteTypes = { NoteType.EXTERNAL, NoteType.INTERNAL, NoteType.REJECTION_REASON,
                 NoteType.NON_CONFORMITY };
         NoteService noteService = SpringContext.getBean(NoteService.class);
@@ -381,6 +376,7 @@ public class ResultsValidationUtility {
         if (resultList == null) {
             return testResultList;
         }
+        resultList = new ArrayList<>(resultList);
 
         // For historical reasons we add a null member to the collection if it
         // is empty
@@ -404,7 +400,7 @@ public class ResultsValidationUtility {
 
             ResultValidationItem resultItem = createTestResultItem(analysis, analysis.getTest(),
                     analysis.getSampleItem().getSortOrder(), result,
-                    analysis.getSampleItem().getSample().getAccessionNumber(), notes);
+                    analysis.getSampleItem().getSample().getAccessionNumber(), notes, lookups);
 
             notes = null; // we only want it once
             if (resultItem.getQualifiedDictionaryId() != null) {
@@ -419,8 +415,15 @@ public class ResultsValidationUtility {
 
     protected final ResultValidationItem createTestResultItem(Analysis analysis, Test test, String sequenceNumber,
             Result result, String accessionNumber, String notes) {
+        return createTestResultItem(analysis, test, sequenceNumber, result, accessionNumber, notes,
+                new AnalysisListLookups(new HashMap<>()));
+    }
+
+    private ResultValidationItem createTestResultItem(Analysis analysis, Test test, String sequenceNumber,
+            Result result, String accessionNumber, String notes, AnalysisListLookups lookups) {
 
-        List<TestResult> testResults = getPossibleResultsForTest(test);
+        List<TestResult> testResults = lookups.possibleResultsByTestId.computeIfAbsent(test.getId(),
+                testId -> getPossibleResultsForTest(test));
 
         String displayTestName = TestServiceImpl.getLocalizedTestNameWithType(test);
         // displayTestName = augmentTestNameWithRange(displayTestName, result);
@@ -437,11 +440,15 @@ public class ResultsValidationUtility {
         setResultLimitDependencies(resultLimit, testItem, testResults);
         testItem.setAnalysisMethod(analysis.getAnalysisType());
         testItem.setResult(result);
-        testItem.setDictionaryResults(getAnyDictonaryValues(testResults));
+        if (!lookups.dictionaryValuesByTestId.containsKey(test.getId())) {
+            lookups.dictionaryValuesByTestId.put(test.getId(), getAnyDictonaryValues(testResults));
+        }
+        testItem.setDictionaryResults(lookups.dictionaryValuesByTestId.get(test.getId()));
         testItem.setResultType(getTestResultType(testResults));
         testItem.setTestSortNumber(test.getSortOrder());
         testItem.setReflexGroup(analysis.getTriggeredReflex());
-        testItem.setChildReflex(analysis.getTriggeredReflex() && isConclusion(result, analysis));
+        testItem.setChildReflex(
+                analysis.getTriggeredReflex() && isConclusion(result, getResults(analysis, lookups)));
         testItem.setQualifiedDictionaryId(getQualifiedDictionaryId(testResults));
         testItem.setPastNotes(notes);
 
@@ -510,7 +517,10 @@ public class ResultsValidationUtility {
     }
 
     protected final boolean isConclusion(Result testResult, Analysis analysis) {
-        List<Result> results = resultService.getResultsByAnalysis(analysis);
+        return isConclusion(testResult, resultService.getResultsByAnalysis(analysis));
+    }
+
+    private boolean isConclusion(Result testResult, List<Result> results) {
         if (results.size() == 1) {
             return false;
         }
@@ -763,4 +773,29 @@ public class ResultsValidationUtility {
                 : patient.getNationalId());
         form.setSubjectNumber(patientService.getSubjectNumber(patient));
     }
+
+    private List<Result> getResults(Analysis analysis, AnalysisListLookups lookups) {
+        List<Result> results = lookups.resultsByAnalysisId.get(analysis.getId());
+        if (results == null) {
+            results = resultService.getResultsByAnalysis(analysis);
+            lookups.resultsByAnalysisId.put(analysis.getId(), results);
+        }
+        return results;
+    }
+
+    /**
+     * What the items of one list of analyses share, looked up once for the list
+     * instead of once per analysis. This bean is shared by all requests, so these
+     * are kept per call rather than in fields.
+     */
+    private static final class AnalysisListLookups {
+        private final Map<String, List<Result>> resultsByAnalysisId;
+        private final Map<String, List<TestResult>> possibleResultsByTestId = new HashMap<>();
+        private final Map<String, List<IdValuePair>> dictionaryValuesByTestId = new HashMap<>();
+        private final Map<String, String> dictionaryResultValues = new HashMap<>();
+
+        private AnalysisListLookups(Map<String, List<Result>> resultsByAnalysisId) {
+            this.resultsByAnalysisId = resultsByAnalysisId;
+        }
+    }
 }
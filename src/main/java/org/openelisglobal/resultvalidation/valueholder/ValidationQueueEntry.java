@@ -0,0 +1,57 @@
+package org.openelisglobal.resultvalidation.valueholder;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.openelisglobal.common.valueholder.BaseObject;
+
+/**
+ * An analysis waiting for validation, with its test section and status. A row
+ * is written when the analysis moves into a validation status and removed when
+ * it moves out, so the backlog of a test section is one indexed range of this
+ * table. The accession number and test sort order the page is ordered by are
+ * joined from the sample and test, which stay the owners of them.
+ */
+@Entity
+@Table(name = "validation_queue")
+public class ValidationQueueEntry extends BaseObject<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "analysis_id")
+    private Integer id;
+
+    @Column(name = "test_section_id", nullable = false)
+    private Integer testSectionId;
+
+    @Column(name = "status_id", nullable = false)
+    private Integer statusId;
+
+    @Override
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getTestSectionId() {
+        return testSectionId;
+    }
+
+    public void setTestSectionId(Integer testSectionId) {
+        this.testSectionId = testSectionId;
+    }
+
+    public Integer getStatusId() {
+        return statusId;
+    }
+
+    public void setStatusId(Integer statusId) {
+        this.statusId = statusId;
+    }
+}
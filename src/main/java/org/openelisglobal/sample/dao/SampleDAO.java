@@ -16,6 +16,7 @@ package org.openelisglobal.sample.dao;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 import org.openelisglobal.common.dao.BaseDAO;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.openelisglobal.sample.valueholder.OrderPriority;
@@ -53,6 +54,9 @@ public interface SampleDAO extends BaseDAO<Sample, String> {
     List<Sample> getSamplesReceivedInDateRange(String receivedDateStart, String receivedDateEnd)
             throws LIMSRuntimeException;
 
+    Stream<Sample> streamSamplesReceivedInDateRange(String receivedDateStart, String receivedDateEnd)
+            throws LIMSRuntimeException;
+
     List<Sample> getSamplesCollectedOn(String collectionDate) throws LIMSRuntimeException;
 
     List<Sample> getSamplesByProjectAndStatusIDAndAccessionRange(String projectId, List<Integer> inclusiveStatusIdList,
@@ -22,10 +22,23 @@ public interface SearchResultsDAO {
     String ID_TYPE_FOR_SUBJECT_NUMBER = "subjectNumberId";
     String ID_TYPE_FOR_GUID = "guidId";
 
+    String LAST_NAME_RANK_PARAM = "lastNameRank";
+    String FIRST_NAME_RANK_PARAM = "firstNameRank";
+    String NATIONAL_ID_RANK_PARAM = "nationalIDRank";
+
     public List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
             String subjectNumber, String nationalID, String externalID, String patientID, String guid,
             String dateOfBirth, String gender) throws LIMSRuntimeException;
 
+    /**
+     * Returns at most maxResults matches starting at firstResult, ordered by
+     * relevance (see PatientSearchRelevanceComparator). maxResults is clamped to
+     * the configured patient search cap.
+     */
+    List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) throws LIMSRuntimeException;
+
     List<PatientSearchResults> getSearchResultsByGUID(String lastName, String firstName, String STNumber,
             String subjectNumber, String nationalID, String externalID, String patientID, String guid,
             String dateOfBirth, String gender) throws LIMSRuntimeException;
@@ -33,4 +46,8 @@ public interface SearchResultsDAO {
     List<PatientSearchResults> getSearchResultsExact(String lastName, String firstName, String STNumber,
             String subjectNumber, String nationalID, String externalID, String patientID, String guid,
             String dateOfBirth, String gender) throws LIMSRuntimeException;
+
+    List<PatientSearchResults> getSearchResultsExact(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) throws LIMSRuntimeException;
 }
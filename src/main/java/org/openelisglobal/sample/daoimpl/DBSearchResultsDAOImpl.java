@@ -23,13 +23,16 @@ import java.util.List;
 import org.apache.commons.validator.GenericValidator;
 import org.hibernate.Session;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.exception.LIMSSearchLimitExceededException;
 import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.common.paging.PagingProperties;
 import org.openelisglobal.common.provider.query.PatientSearchResults;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.common.util.DateUtil;
 import org.openelisglobal.patientidentitytype.util.PatientIdentityTypeMap;
 import org.openelisglobal.sample.dao.SearchResultsDAO;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +44,9 @@ public class DBSearchResultsDAOImpl implements SearchResultsDAO {
     @PersistenceContext
     EntityManager entityManager;
 
+    @Autowired
+    PagingProperties pagingProperties;
+
     @Override
     @SuppressWarnings("rawtypes")
     @Transactional
@@ -90,13 +96,23 @@ public class DBSearchResultsDAOImpl implements SearchResultsDAO {
     }
 
     @Override
-    @SuppressWarnings("rawtypes")
     @Transactional
     public List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
             String subjectNumber, String nationalID, String externalID, String patientID, String guid,
             String dateOfBirth, String gender) throws LIMSRuntimeException {
+        return getSearchResults(lastName, firstName, STNumber, subjectNumber, nationalID, externalID, patientID, guid,
+                dateOfBirth, gender, 0, pagingProperties.getPatientSearchMaxResults());
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    @Transactional
+    public List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) throws LIMSRuntimeException {
 
         List queryResults;
+        int pageSize = boundPage(firstResult, maxResults);
 
         try {
             boolean queryFirstName = !GenericValidator.isBlankOrNull(firstName);
@@ -113,9 +129,12 @@ public class DBSearchResultsDAOImpl implements SearchResultsDAO {
 
             String sql = buildQueryString(queryLastName, queryFirstName, querySTNumber, querySubjectNumber,
                     queryNationalId, queryExternalId, queryAnyID, queryPatientID, queryGuid, queryDateOfBirth,
-                    queryGender);
+                    queryGender) + buildRelevanceOrderString(queryLastName, queryFirstName, queryNationalId);
 
             org.hibernate.query.Query query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            setRelevanceParameters(query, lastName, firstName, nationalID);
+            query.setFirstResult(Math.max(firstResult, 0));
+            query.setMaxResults(pageSize);
 
             query.setParameter(ID_TYPE_FOR_ST,
                     Integer.valueOf(PatientIdentityTypeMap.getInstance().getIDForType("ST")));
@@ -193,13 +212,23 @@ public class DBSearchResultsDAOImpl implements SearchResultsDAO {
     }
 
     @Override
-    @SuppressWarnings("rawtypes")
     @Transactional
     public List<PatientSearchResults> getSearchResultsExact(String lastName, String firstName, String STNumber,
             String subjectNumber, String nationalID, String externalID, String patientID, String guid,
             String dateOfBirth, String gender) throws LIMSRuntimeException {
+        return getSearchResultsExact(lastName, firstName, STNumber, subjectNumber, nationalID, externalID, patientID,
+                guid, dateOfBirth, gender, 0, pagingProperties.getPatientSearchMaxResults());
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    @Transactional
+    public List<PatientSearchResults> getSearchResultsExact(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) throws LIMSRuntimeException {
 
         List queryResults;
+        int pageSize = boundPage(firstResult, maxResults);
 
         try {
             boolean queryFirstName = !GenericValidator.isBlankOrNull(firstName);
@@ -216,9 +245,12 @@ public class DBSearchResultsDAOImpl implements SearchResultsDAO {
 
             String sql = buildQueryString(queryLastName, queryFirstName, querySTNumber, querySubjectNumber,
                     queryNationalId, queryExternalId, queryAnyID, queryPatientID, queryGuid, queryDateOfBirth,
-                    queryGender);
+                    queryGender) + buildRelevanceOrderString(queryLastName, queryFirstName, queryNationalId);
 
             org.hibernate.query.Query query = entityManager.unwrap(Session.class).createNativeQuery(sql);
+            setRelevanceParameters(query, lastName, firstName, nationalID);
+            query.setFirstResult(Math.max(firstResult, 0));
+            query.setMaxResults(pageSize);
 
             query.setParameter(ID_TYPE_FOR_ST,
                     Integer.valueOf(PatientIdentityTypeMap.getInstance().getIDForType("ST")));
@@ -278,6 +310,66 @@ public class DBSearchResultsDAOImpl implements SearchResultsDAO {
         return results;
     }
 
+    /**
+     * Only the first cap matches are paged through, as in the Lucene search, so
+     * both backends return the same pages. Pages starting past the cap are refused.
+     */
+    private int boundPage(int firstResult, int maxResults) {
+        int cap = pagingProperties.getPatientSearchMaxResults();
+        if (firstResult > 0 && firstResult >= cap) {
+            throw new LIMSSearchLimitExceededException("Patient search only ranks the first " + cap
+                    + " matches, refine the search instead of paging past them");
+        }
+        int pageSize = maxResults <= 0 || maxResults > cap ? cap : maxResults;
+        return Math.min(pageSize, cap - Math.max(firstResult, 0));
+    }
+
+    /**
+     * Mirrors PatientSearchRelevanceComparator: every supplied term scores 0 for an
+     * exact match, 1 for a prefix match, 2 for a substring match and 3 otherwise.
+     * position() is used instead of ilike so the search terms do not need
+     * wildcard escaping.
+     */
+    private String buildRelevanceOrderString(boolean lastName, boolean firstName, boolean nationalID) {
+        StringBuilder orderBuilder = new StringBuilder(" order by ");
+        if (lastName || firstName || nationalID) {
+            List<String> ranks = new ArrayList<>();
+            if (lastName) {
+                ranks.add(buildMatchRank("pr.last_name", LAST_NAME_RANK_PARAM));
+            }
+            if (firstName) {
+                ranks.add(buildMatchRank("pr.first_name", FIRST_NAME_RANK_PARAM));
+            }
+            if (nationalID) {
+                ranks.add(buildMatchRank("p.national_id", NATIONAL_ID_RANK_PARAM));
+            }
+            orderBuilder.append(String.join(" + ", ranks)).append(", ");
+        }
+        orderBuilder.append("lower(pr.last_name), lower(pr.first_name), p.id");
+        return orderBuilder.toString();
+    }
+
+    private String buildMatchRank(String column, String param) {
+        return "(case when lower(" + column + ") = lower(:" + param + ") then 0"
+                + " when position(lower(:" + param + ") in lower(" + column + ")) = 1 then 1"
+                + " when position(lower(:" + param + ") in lower(" + column + ")) > 0 then 2"
+                + " else 3 end)";
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void setRelevanceParameters(org.hibernate.query.Query query, String lastName, String firstName,
+            String nationalID) {
+        if (!GenericValidator.isBlankOrNull(lastName)) {
+            query.setParameter(LAST_NAME_RANK_PARAM, lastName);
+        }
+        if (!GenericValidator.isBlankOrNull(firstName)) {
+            query.setParameter(FIRST_NAME_RANK_PARAM, firstName);
+        }
+        if (!GenericValidator.isBlankOrNull(nationalID)) {
+            query.setParameter(NATIONAL_ID_RANK_PARAM, nationalID);
+        }
+    }
+
     private String getFormatedDOB(String dob) {
         String format1 = "dd/MM/yyyy";
         String format2 = "MM/dd/yyyy";
@@ -13,10 +13,14 @@ import org.hibernate.query.Query;
 import org.hibernate.search.mapper.orm.Search;
 import org.hibernate.search.mapper.orm.session.SearchSession;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.exception.LIMSSearchLimitExceededException;
+import org.openelisglobal.common.paging.PagingProperties;
+import org.openelisglobal.common.provider.query.PatientSearchRelevanceComparator;
 import org.openelisglobal.common.provider.query.PatientSearchResults;
 import org.openelisglobal.patient.valueholder.Patient;
 import org.openelisglobal.patientidentitytype.util.PatientIdentityTypeMap;
 import org.openelisglobal.sample.dao.SearchResultsDAO;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -25,11 +29,23 @@ public class LuceneSearchResultsDAOImpl implements SearchResultsDAO {
     @PersistenceContext
     EntityManager entityManager;
 
+    @Autowired
+    PagingProperties pagingProperties;
+
     @Override
     @Transactional
     public List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
             String subjectNumber, String nationalID, String externalID, String patientID, String guid,
             String dateOfBirth, String gender) throws LIMSRuntimeException {
+        return getSearchResults(lastName, firstName, STNumber, subjectNumber, nationalID, externalID, patientID, guid,
+                dateOfBirth, gender, 0, pagingProperties.getPatientSearchMaxResults());
+    }
+
+    @Override
+    @Transactional
+    public List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) throws LIMSRuntimeException {
 
         SearchSession searchSession = Search.session(entityManager);
 
@@ -55,7 +71,7 @@ public class LuceneSearchResultsDAOImpl implements SearchResultsDAO {
                     b.must(f.match().field("person.lastName").matching(lastName).fuzzy());
                 }
             }
-        })).fetchAllHits();
+        })).fetchHits(pagingProperties.getPatientSearchMaxResults());
 
         List<Long> longHits = hits.stream().map(Long::parseLong).collect(Collectors.toList());
         // 'IN' predicate requires the list to contain at least one value
@@ -98,7 +114,7 @@ public class LuceneSearchResultsDAOImpl implements SearchResultsDAO {
             patientSearchResultsList.add(patientSearchResults);
         }
 
-        return patientSearchResultsList;
+        return rankAndPage(patientSearchResultsList, lastName, firstName, nationalID, firstResult, maxResults);
     }
 
     @Override
@@ -116,6 +132,15 @@ public class LuceneSearchResultsDAOImpl implements SearchResultsDAO {
     public List<PatientSearchResults> getSearchResultsExact(String lastName, String firstName, String STNumber,
             String subjectNumber, String nationalID, String externalID, String patientID, String guid,
             String dateOfBirth, String gender) throws LIMSRuntimeException {
+        return getSearchResultsExact(lastName, firstName, STNumber, subjectNumber, nationalID, externalID, patientID,
+                guid, dateOfBirth, gender, 0, pagingProperties.getPatientSearchMaxResults());
+    }
+
+    @Override
+    @Transactional
+    public List<PatientSearchResults> getSearchResultsExact(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) throws LIMSRuntimeException {
 
         SearchSession searchSession = Search.session(entityManager);
 
@@ -141,7 +166,7 @@ public class LuceneSearchResultsDAOImpl implements SearchResultsDAO {
                     b.must(f.match().field("person.lastName").matching(lastName));
                 }
             }
-        })).fetchAllHits();
+        })).fetchHits(pagingProperties.getPatientSearchMaxResults());
 
         List<Long> longHits = hits.stream().map(Long::parseLong).collect(Collectors.toList());
         // 'IN' predicate requires the list to contain at least one value
@@ -184,7 +209,28 @@ public class LuceneSearchResultsDAOImpl implements SearchResultsDAO {
             patientSearchResultsList.add(patientSearchResults);
         }
 
-        return patientSearchResultsList;
+        return rankAndPage(patientSearchResultsList, lastName, firstName, nationalID, firstResult, maxResults);
+    }
+
+    /**
+     * The index returns at most the configured cap of hits by score, which are then
+     * ordered with the same relevance rules the database search uses so that both
+     * backends agree on ordering and paging. Pages starting past the cap are
+     * refused rather than returned empty, as there is nothing ranked to page into.
+     */
+    private List<PatientSearchResults> rankAndPage(List<PatientSearchResults> results, String lastName,
+            String firstName, String nationalID, int firstResult, int maxResults) {
+        int cap = pagingProperties.getPatientSearchMaxResults();
+        if (firstResult > 0 && firstResult >= cap) {
+            throw new LIMSSearchLimitExceededException("Patient search only ranks the first " + cap
+                    + " matches, refine the search instead of paging past them");
+        }
+        results.sort(new PatientSearchRelevanceComparator(lastName, firstName, nationalID));
+
+        int pageSize = maxResults <= 0 || maxResults > cap ? cap : maxResults;
+        int fromIndex = Math.min(Math.max(firstResult, 0), results.size());
+        int toIndex = Math.min(fromIndex + pageSize, results.size());
+        return new ArrayList<>(results.subList(fromIndex, toIndex));
     }
 
     private String buildQueryString(String nationalID, String externalID, String STNumber, String subjectNumber,
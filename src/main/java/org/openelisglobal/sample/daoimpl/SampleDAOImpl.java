@@ -24,6 +24,7 @@ import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.validator.GenericValidator;
 import org.hibernate.HibernateException;
@@ -40,6 +41,7 @@ import org.openelisglobal.sample.valueholder.OrderPriority;
 import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.sampleproject.valueholder.SampleProject;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -384,6 +386,28 @@ public class SampleDAOImpl extends BaseDAOImpl<Sample, String> implements Sample
             throws LIMSRuntimeException {
         List<Sample> list;
 
+        try {
+            list = createReceivedInDateRangeQuery(receivedDateStart, receivedDateEnd).list();
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in Sample getSamplesReceivedInDateRange()", e);
+        }
+        return list;
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Sample> streamSamplesReceivedInDateRange(String receivedDateStart, String receivedDateEnd)
+            throws LIMSRuntimeException {
+        try {
+            return stream(createReceivedInDateRangeQuery(receivedDateStart, receivedDateEnd));
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in Sample streamSamplesReceivedInDateRange()", e);
+        }
+    }
+
+    private Query<Sample> createReceivedInDateRangeQuery(String receivedDateStart, String receivedDateEnd) {
         Calendar start = getCalendarForDateString(receivedDateStart);
         if (GenericValidator.isBlankOrNull(receivedDateEnd)) {
             receivedDateEnd = receivedDateStart;
@@ -395,17 +419,12 @@ public class SampleDAOImpl extends BaseDAOImpl<Sample, String> implements Sample
         end.set(Calendar.HOUR_OF_DAY, 0);
         end.set(Calendar.MINUTE, 0);
         end.set(Calendar.SECOND, 0);
-        try {
-            String sql = "from Sample as s where s.receivedTimestamp >= :start AND s.receivedTimestamp < :end";
-            Query<Sample> query = entityManager.unwrap(Session.class).createQuery(sql, Sample.class);
-            query.setParameter("start", start.getTime());
-            query.setParameter("end", end.getTime());
-            list = query.list();
-        } catch (HibernateException e) {
-            LogEvent.logError(e);
-            throw new LIMSRuntimeException("Error in Sample getSamplesReceivedInDateRange()", e);
-        }
-        return list;
+
+        String sql = "from Sample as s where s.receivedTimestamp >= :start AND s.receivedTimestamp < :end";
+        Query<Sample> query = entityManager.unwrap(Session.class).createQuery(sql, Sample.class);
+        query.setParameter("start", start.getTime());
+        query.setParameter("end", end.getTime());
+        return query;
     }
 
     @Override
@@ -35,6 +35,7 @@ import org.openelisglobal.notification.valueholder.NotificationConfigOption.Noti
 import org.openelisglobal.notification.valueholder.TestNotificationConfig;
 import org.openelisglobal.observationhistory.service.ObservationHistoryService;
 import org.openelisglobal.observationhistory.valueholder.ObservationHistory;
+import org.openelisglobal.odoo.service.OdooInvoiceOutboxService;
 import org.openelisglobal.organization.service.OrganizationService;
 import org.openelisglobal.organization.valueholder.Organization;
 import org.openelisglobal.organization.valueholder.OrganizationType;
@@ -109,6 +110,8 @@ public class SamplePatientEntryServiceImpl implements SamplePatientEntryService
     private ImmunohistochemistrySampleService immunohistochemistrySampleService;
     @Autowired
     private ProgramSampleService programSampleService;
+    @Autowired
+    private OdooInvoiceOutboxService odooInvoiceOutboxService;
 
     @Transactional
     @Override
@@ -136,6 +139,7 @@ public class SamplePatientEntryServiceImpl implements SamplePatientEntryService
         }
 
         persistObservations(updateData);
+        odooInvoiceOutboxService.enqueue(updateData);
 
         request.getSession().setAttribute("lastAccessionNumber", updateData.getAccessionNumber());
         request.getSession().setAttribute("lastPatientId", updateData.getPatientId());
@@ -4,6 +4,7 @@ import java.sql.Date;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.common.service.BaseObjectService;
 import org.openelisglobal.organization.valueholder.Organization;
@@ -48,6 +49,12 @@ public interface SampleService extends BaseObjectService<Sample, String> {
 
     List<Sample> getSamplesReceivedInDateRange(String receivedDateStart, String receivedDateEnd);
 
+    /**
+     * Passes the samples to the action one at a time as they are read, for
+     * exports going through more samples than should be held in memory at once
+     */
+    void forEachSampleReceivedInDateRange(String receivedDateStart, String receivedDateEnd, Consumer<Sample> action);
+
     List<Sample> getSamplesByAccessionRange(String minAccession, String maxAccession);
 
     boolean insertDataWithAccessionNumber(Sample sample);
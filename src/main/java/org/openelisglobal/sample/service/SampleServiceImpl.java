@@ -7,6 +7,8 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.openelisglobal.analysis.service.AnalysisService;
 import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.common.service.AuditableBaseObjectServiceImpl;
@@ -494,6 +496,16 @@ public class SampleServiceImpl extends AuditableBaseObjectServiceImpl<Sample, St
         return getBaseObjectDAO().getSamplesReceivedInDateRange(receivedDateStart, receivedDateEnd);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachSampleReceivedInDateRange(String receivedDateStart, String receivedDateEnd,
+            Consumer<Sample> action) {
+        try (Stream<Sample> samples = getBaseObjectDAO().streamSamplesReceivedInDateRange(receivedDateStart,
+                receivedDateEnd)) {
+            samples.forEach(action);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Sample> getSamplesByAccessionRange(String minAccession, String maxAccession) {
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.util.ConfigurationProperties;
@@ -17,6 +18,7 @@ import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.common.util.DateUtil;
 import org.openelisglobal.dataexchange.MalariaSurveilance.MalariaSurveilanceJob;
 import org.openelisglobal.dataexchange.aggregatereporting.AggregateReportJob;
+import org.openelisglobal.metricservice.ScheduledJobMetrics;
 import org.openelisglobal.scheduler.service.CronSchedulerService;
 import org.openelisglobal.scheduler.valueholder.CronScheduler;
 import org.openelisglobal.spring.util.SpringContext;
@@ -31,6 +33,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
 @Configuration
@@ -51,6 +54,8 @@ public class SchedulerConfig implements SchedulingConfigurer {
 
     @Autowired
     private CronSchedulerService cronSchedulerService;
+    @Autowired
+    private ScheduledJobMetrics scheduledJobMetrics;
 
     private Scheduler reloadableScheduler;
 
@@ -77,11 +82,14 @@ public class SchedulerConfig implements SchedulingConfigurer {
     @Override
     public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
         // for Spring @Scheduled tasks
-        taskRegistrar.setScheduler(taskExecutor());
+        ConcurrentTaskScheduler taskScheduler = new ConcurrentTaskScheduler((ScheduledExecutorService) taskExecutor());
+        taskScheduler.setTaskDecorator(scheduledJobMetrics);
+        taskRegistrar.setTaskScheduler(taskScheduler);
 
         // for reloadable tasks using quartz scheduler
         try {
             reloadableScheduler = StdSchedulerFactory.getDefaultScheduler();
+            reloadableScheduler.getListenerManager().addJobListener(scheduledJobMetrics);
             addReloadableCronSchedulers(reloadableScheduler);
         } catch (SchedulerException e) {
             LogEvent.logError(e);
@@ -92,6 +100,7 @@ public class SchedulerConfig implements SchedulingConfigurer {
         try {
             reloadableScheduler.shutdown();
             reloadableScheduler = StdSchedulerFactory.getDefaultScheduler();
+            reloadableScheduler.getListenerManager().addJobListener(scheduledJobMetrics);
 
             addReloadableCronSchedulers(reloadableScheduler);
         } catch (SchedulerException e) {
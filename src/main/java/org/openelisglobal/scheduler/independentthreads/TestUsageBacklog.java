@@ -16,27 +16,26 @@ package org.openelisglobal.scheduler.independentthreads;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.sql.Date;
 import java.sql.Timestamp;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.json.simple.JSONObject;
-import org.openelisglobal.analysis.service.AnalysisService;
-import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.common.util.ConfigurationProperties.Property;
 import org.openelisglobal.common.util.DateUtil;
+import org.openelisglobal.dataexchange.aggregatereporting.TestCountSummaryJob;
 import org.openelisglobal.dataexchange.aggregatereporting.valueholder.ReportExternalExport;
 import org.openelisglobal.dataexchange.aggregatereporting.valueholder.ReportQueueType;
 import org.openelisglobal.dataexchange.service.aggregatereporting.ReportExternalExportService;
 import org.openelisglobal.dataexchange.service.aggregatereporting.ReportQueueTypeService;
+import org.openelisglobal.dataexchange.service.aggregatereporting.TestCountSummaryService;
+import org.openelisglobal.test.service.TestService;
 import org.openelisglobal.test.service.TestServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 @Component
 public class TestUsageBacklog {
@@ -44,9 +43,13 @@ public class TestUsageBacklog {
     @Autowired
     private ReportExternalExportService reportExternalExportService;
     @Autowired
-    private AnalysisService analysisService;
-    @Autowired
     private ReportQueueTypeService reportQueueTypeService;
+    @Autowired
+    private TestCountSummaryService testCountSummaryService;
+    @Autowired
+    private TestCountSummaryJob testCountSummaryJob;
+    @Autowired
+    private TestService testService;
 
     private static String TEST_UTALIZATION_ID;
 
@@ -62,9 +65,11 @@ public class TestUsageBacklog {
     // workaround to make this run once on startup.
     // If program is continuously running for 290,0000 millenia it will run again
     @Scheduled(initialDelay = 1000 * 30, fixedDelay = Long.MAX_VALUE)
-    @Transactional
     public void run() {
         if (ConfigurationProperties.getInstance().isPropertyValueEqual(Property.testUsageReporting, "true")) {
+            // the days are counted from the test count summaries, which may not have
+            // been computed yet this soon after startup
+            testCountSummaryJob.refreshSummaries();
             handleBacklog();
         }
     }
@@ -99,27 +104,14 @@ public class TestUsageBacklog {
     @SuppressWarnings("unchecked")
     private void writeReportForDayPeriod(int daysAgo) {
         Timestamp dayOne = DateUtil.getTimestampAtMidnightForDaysAgo(daysAgo);
-        Timestamp dayTwo = DateUtil.getTimestampAtMidnightForDaysAgo(daysAgo - 1);
-
-        List<Analysis> analysisList = analysisService.getAnalysisCompleteInRange(dayOne, dayTwo);
 
-        Map<String, Integer> testBucket = new HashMap<>();
-        for (String key : TestServiceImpl.getMap(TestServiceImpl.Entity.TEST_AUGMENTED_NAME).keySet()) {
-            testBucket.put(key, 0);
-        }
-
-        for (Analysis analysis : analysisList) {
-            if ("Y".equals(analysis.getTest().getIsActive())) {
-                String testId = analysis.getTest().getId();
-                testBucket.put(testId, testBucket.get(testId).intValue() + 1);
-            }
-        }
+        Map<String, Integer> testBucket = testCountSummaryService.getCompletedCountsByTest(new Date(dayOne.getTime()));
 
         JSONObject json = new JSONObject();
         for (String id : testBucket.keySet()) {
-            if (testBucket.get(id).intValue() > 0) {
-                json.put(TestServiceImpl.getMap(TestServiceImpl.Entity.TEST_AUGMENTED_NAME).get(id),
-                        testBucket.get(id));
+            String testName = TestServiceImpl.getMap(TestServiceImpl.Entity.TEST_AUGMENTED_NAME).get(id);
+            if (testName != null && "Y".equals(testService.get(id).getIsActive())) {
+                json.put(testName, testBucket.get(id));
             }
         }
 
@@ -32,6 +32,22 @@ public class DBSearchResultsServiceImpl implements SearchResultsService {
         List<PatientSearchResults> results = searchResultsDAO.getSearchResults(lastName, firstName, STNumber,
                 subjectNumber, nationalID, externalID, patientID, guid, dateOfBirth, gender);
 
+        return redirectIfIdentifierSearch(results, STNumber, subjectNumber, nationalID, externalID);
+    }
+
+    @Override
+    @Transactional
+    public List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) {
+        List<PatientSearchResults> results = searchResultsDAO.getSearchResults(lastName, firstName, STNumber,
+                subjectNumber, nationalID, externalID, patientID, guid, dateOfBirth, gender, firstResult, maxResults);
+
+        return redirectIfIdentifierSearch(results, STNumber, subjectNumber, nationalID, externalID);
+    }
+
+    private List<PatientSearchResults> redirectIfIdentifierSearch(List<PatientSearchResults> results,
+            String STNumber, String subjectNumber, String nationalID, String externalID) {
         // FR-015: Redirect merged patients to primary when searching by identifier
         // Only apply redirect for identifier-based searches, not for name/primary ID
         // searches
@@ -54,16 +70,7 @@ public class DBSearchResultsServiceImpl implements SearchResultsService {
         List<PatientSearchResults> results = searchResultsDAO.getSearchResultsExact(lastName, firstName, STNumber,
                 subjectNumber, nationalID, externalID, patientID, guid, dateOfBirth, gender);
 
-        // FR-015: Redirect merged patients to primary when searching by identifier
-        boolean isIdentifierSearch = !GenericValidator.isBlankOrNull(nationalID)
-                || !GenericValidator.isBlankOrNull(subjectNumber) || !GenericValidator.isBlankOrNull(STNumber)
-                || !GenericValidator.isBlankOrNull(externalID);
-
-        if (isIdentifierSearch) {
-            results = redirectMergedPatientsToPrimary(results);
-        }
-
-        return results;
+        return redirectIfIdentifierSearch(results, STNumber, subjectNumber, nationalID, externalID);
     }
 
     /**
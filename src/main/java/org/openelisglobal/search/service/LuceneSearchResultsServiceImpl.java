@@ -32,4 +32,13 @@ public class LuceneSearchResultsServiceImpl implements SearchResultsService {
         return searchResultsDAO.getSearchResultsExact(lastName, firstName, STNumber, subjectNumber, nationalID,
                 externalID, patientID, guid, dateOfBirth, gender);
     }
+
+    @Override
+    @Transactional
+    public List<PatientSearchResults> getSearchResults(String lastName, String firstName, String STNumber,
+            String subjectNumber, String nationalID, String externalID, String patientID, String guid,
+            String dateOfBirth, String gender, int firstResult, int maxResults) {
+        return searchResultsDAO.getSearchResults(lastName, firstName, STNumber, subjectNumber, nationalID, externalID,
+                patientID, guid, dateOfBirth, gender, firstResult, maxResults);
+    }
 }
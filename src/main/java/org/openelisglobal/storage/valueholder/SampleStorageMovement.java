@@ -26,7 +26,7 @@ public class SampleStorageMovement extends BaseObject<Integer> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sample_storage_movement_seq")
-    @SequenceGenerator(name = "sample_storage_movement_seq", sequenceName = "sample_storage_movement_seq", allocationSize = 1)
+    @SequenceGenerator(name = "sample_storage_movement_seq", sequenceName = "sample_storage_movement_seq", allocationSize = 50)
     @Column(name = "ID")
     private Integer id;
 
@@ -6,6 +6,7 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.services.DisplayListService;
@@ -78,6 +79,11 @@ public class TestConfigurationHandler implements DomainConfigurationHandler {
         return 200; // Depends on test sections and sample types
     }
 
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of("test-sections", "sample-types");
+    }
+
     @Override
     public void processConfiguration(InputStream inputStream, String fileName) throws Exception {
         BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
@@ -17,6 +17,7 @@ package org.openelisglobal.testreflex.action.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import org.openelisglobal.analysis.service.AnalysisService;
 import org.openelisglobal.analysis.valueholder.Analysis;
 import org.openelisglobal.analyte.valueholder.Analyte;
@@ -27,6 +28,7 @@ import org.openelisglobal.result.service.ResultService;
 import org.openelisglobal.result.valueholder.Result;
 import org.openelisglobal.sample.valueholder.Sample;
 import org.openelisglobal.spring.util.SpringContext;
+import org.openelisglobal.testreflex.service.ReflexRuleIndex;
 import org.openelisglobal.testreflex.service.TestReflexService;
 import org.openelisglobal.testreflex.valueholder.TestReflex;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +50,8 @@ public class TestReflexResolver {
     private AnalysisService analysisService;
     @Autowired
     private ResultService resultService;
+    @Autowired
+    private ReflexRuleIndex reflexRuleIndex;
 
     private Analysis lastValidAnalysis = null;
 
@@ -71,20 +75,21 @@ public class TestReflexResolver {
             testId = result.getTestResult().getTest() == null ? null : result.getTestResult().getTest().getId();
         }
 
-        List<TestReflex> reflexes = testReflexService.getTestReflexsByTestResultAnalyteTest(testResultId, analyteId,
-                testId);
+        if (!reflexRuleIndex.hasReflexes(testId)) {
+            return new ArrayList<>();
+        }
+        List<String> reflexIds = new ArrayList<>(reflexRuleIndex.getReflexIds(testId, analyteId, testResultId));
         // try to check if there other analyte macthicng for this result
         List<Analyte> otherMatchingAnalyte = ResultUtil.getOtherAnalyteForResult(result);
         if (otherMatchingAnalyte != null) {
             if (!otherMatchingAnalyte.isEmpty()) {
                 for (Analyte otherAnalyte : otherMatchingAnalyte) {
-                    reflexes.addAll(testReflexService.getTestReflexsByTestResultAnalyteTest(testResultId,
-                            otherAnalyte.getId(), testId));
+                    reflexIds.addAll(reflexRuleIndex.getReflexIds(testId, otherAnalyte.getId(), testResultId));
                 }
             }
         }
 
-        return reflexes != null ? reflexes : new ArrayList<>();
+        return testReflexService.getTestReflexsByIds(reflexIds);
     }
 
     public List<TestReflex> getTestReflexsByAnalyteAndTest(Result result) {
@@ -95,17 +100,20 @@ public class TestReflexResolver {
             testId = result.getTestResult().getTest() == null ? null : result.getTestResult().getTest().getId();
         }
 
-        List<TestReflex> reflexes = testReflexService.getTestReflexsByAnalyteAndTest(analyteId, testId);
+        if (!reflexRuleIndex.hasReflexes(testId)) {
+            return new ArrayList<>();
+        }
+        List<String> reflexIds = new ArrayList<>(reflexRuleIndex.getReflexIds(testId, analyteId));
         // try to check if there other analyte macthicng for this result
         List<Analyte> otherMatchingAnalyte = ResultUtil.getOtherAnalyteForResult(result);
         if (otherMatchingAnalyte != null) {
             if (!otherMatchingAnalyte.isEmpty()) {
                 for (Analyte otherAnalyte : otherMatchingAnalyte) {
-                    reflexes.addAll(testReflexService.getTestReflexsByAnalyteAndTest(otherAnalyte.getId(), testId));
+                    reflexIds.addAll(reflexRuleIndex.getReflexIds(testId, otherAnalyte.getId()));
                 }
             }
         }
-        return reflexes != null ? reflexes : new ArrayList<>();
+        return testReflexService.getTestReflexsByIds(reflexIds);
     }
 
     public ReflexAction getReflexAction() {
@@ -113,13 +121,21 @@ public class TestReflexResolver {
     }
 
     public boolean isSatisfied(TestReflex reflex, Sample sample) {
+        return isSatisfied(reflex, analysisService.getAnalysesBySampleId(sample.getId()),
+                resultService::getResultsByAnalysis);
+    }
 
-        List<Analysis> analysisList = analysisService.getAnalysesBySampleId(sample.getId());
+    /*
+     * As above but against analyses and results the caller has already read, so a
+     * batch of results for the same sample reads them only once
+     */
+    public boolean isSatisfied(TestReflex reflex, List<Analysis> analysisList,
+            Function<Analysis, List<Result>> resultsForAnalysis) {
 
         for (Analysis analysis : analysisList) {
             if (!SpringContext.getBean(IStatusService.class).getStatusID(AnalysisStatus.TechnicalRejected)
                     .equals(analysis.getStatusId())) {
-                List<Result> resultList = resultService.getResultsByAnalysis(analysis);
+                List<Result> resultList = resultsForAnalysis.apply(analysis);
 
                 for (Result result : resultList) {
                     if (result.getTestResult() != null
@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -46,8 +47,7 @@ import org.openelisglobal.test.service.TestService;
 import org.openelisglobal.test.service.TestServiceImpl;
 import org.openelisglobal.test.valueholder.Test;
 import org.openelisglobal.testanalyte.valueholder.TestAnalyte;
-import org.openelisglobal.testreflex.action.bean.ReflexRule;
-import org.openelisglobal.testreflex.action.bean.ReflexRuleOptions;
+import org.openelisglobal.testreflex.service.ReflexRuleIndex;
 import org.openelisglobal.testreflex.service.TestReflexService;
 import org.openelisglobal.testreflex.valueholder.TestReflex;
 import org.openelisglobal.testresult.service.TestResultService;
@@ -80,6 +80,7 @@ public class TestReflexUtil {
     private static TestService testService = SpringContext.getBean(TestService.class);
 
     private TestReflexResolver reflexResolver = SpringContext.getBean(TestReflexResolver.class);
+    private ReflexRuleIndex reflexRuleIndex = SpringContext.getBean(ReflexRuleIndex.class);
 
     static {
         Analyte analyte = new Analyte();
@@ -267,13 +268,17 @@ public class TestReflexUtil {
          */
         Map<String, List<String>> sampleIdToHandledTestReflexIds = new HashMap<>();
 
+        // everything the reflexes read and produce, written once all the results
+        // have been evaluated
+        ReflexBatch batch = new ReflexBatch();
+
         // keep track of analysis which have triggered reflexes
         List<Analysis> parentAnalysisList = new ArrayList<>();
         List<Analysis> reflexAnalysises = new ArrayList<>();
 
         Map<Integer, Set<Integer>> analyteTestMap = new HashMap<>();
         for (TestReflexBean reflexBean : newResults) {
-            List<TestReflex> reflexesForResult = getReflexTests(reflexBean);
+            List<TestReflex> reflexesForResult = batch.getReflexTests(reflexBean);
             if (!reflexesForResult.isEmpty()) {
                 TestAnalyte testAnalyte = reflexesForResult.get(0).getTestAnalyte();
                 Set<Integer> testAnalyteIds = new HashSet<>();
@@ -298,53 +303,49 @@ public class TestReflexUtil {
                 Analyte analyte = reflexBean.getResult().getAnalyte();
                 if (analyte != null) {
                     Integer analyteId = Integer.valueOf(analyte.getId());
-                    ReflexRule rule = testReflexService.getReflexRuleByAnalyteId(analyte.getId());
-                    if (rule != null) {
-                        if (rule.getOverall().equals(ReflexRuleOptions.OverallOptions.ALL)) {
-                            Set<Integer> testAnalyteIds = new HashSet<>();
-                            rule.getConditions().forEach(c -> testAnalyteIds.add(c.getTestAnalyteId()));
-                            if (analyteTestMap.get(analyteId) != null) {
-                                if (testAnalyteIds.size() == analyteTestMap.get(analyteId).size()) {
-                                    newReflexAnalyses = handleAutomaticReflexes(parentAnalysisList, reflexBean,
-                                            handledReflexIdList, sysUserId);
-                                }
-                            }
-                        } else {
-                            newReflexAnalyses = handleAutomaticReflexes(parentAnalysisList, reflexBean,
-                                    handledReflexIdList, sysUserId);
-                        }
-                    } else {
+                    // only set when the rule for the analyte needs all of its conditions met
+                    Set<Integer> testAnalyteIds = reflexRuleIndex.getAllConditionsTestAnalyteIds(analyte.getId());
+                    if (testAnalyteIds == null) {
+                        newReflexAnalyses = handleAutomaticReflexes(parentAnalysisList, reflexBean, handledReflexIdList,
+                                batch, sysUserId);
+                    } else if (analyteTestMap.get(analyteId) != null
+                            && testAnalyteIds.size() == analyteTestMap.get(analyteId).size()) {
                         newReflexAnalyses = handleAutomaticReflexes(parentAnalysisList, reflexBean, handledReflexIdList,
-                                sysUserId);
+                                batch, sysUserId);
                     }
                 }
                 reflexAnalysises.addAll(newReflexAnalyses);
             } else { // use cases 7,8,9
-                reflexAnalysises.addAll(handleUserSelectedReflexes(parentAnalysisList, reflexBean, sysUserId));
+                reflexAnalysises.addAll(handleUserSelectedReflexes(parentAnalysisList, reflexBean, batch, sysUserId));
             }
         }
+
+        batch.write();
         return reflexAnalysises;
     }
 
     private List<TestReflex> getReflexTests(TestReflexBean reflexBean) {
-        if (reflexBean.getResult().getTestResult() == null) {
+        Result result = reflexBean.getResult();
+        if (result.getTestResult() == null) {
             return new ArrayList<>();
         }
-        String resultType = testService.getResultType(reflexBean.getResult().getTestResult().getTest());
-        List<TestReflex> reflexesForResult;
+        String resultType = testService.getResultType(result.getTestResult().getTest());
+        List<TestReflex> reflexesForResult = getCandidateReflexes(result, resultType);
+        return reflexesForResult.stream()
+                .filter(e -> isTestTriggeredByResult(e.getAddedTest(), result, resultType, reflexesForResult))
+                .collect(Collectors.toList());
+    }
+
+    private List<TestReflex> getCandidateReflexes(Result result, String resultType) {
         if (resultType.equals("D")) {
-            reflexesForResult = reflexResolver.getTestReflexsByAnalyteAndTest(reflexBean.getResult());
+            return reflexResolver.getTestReflexsByAnalyteAndTest(result);
         } else {
-            reflexesForResult = reflexResolver.getTestReflexesForResult(reflexBean.getResult());
+            return reflexResolver.getTestReflexesForResult(result);
         }
-        reflexesForResult = reflexesForResult.stream()
-                .filter(e -> isTestTriggeredByResult(e.getAddedTest(), reflexBean.getResult()))
-                .collect(Collectors.toList());
-        return reflexesForResult;
     }
 
     private List<Analysis> handleUserSelectedReflexes(List<Analysis> parentAnalysisList, TestReflexBean reflexBean,
-            String sysUserId) {
+            ReflexBatch batch, String sysUserId) {
         // The reflexes and the triggering tests have already been identified by
         // TestReflexUserChoiceProvider, if all of the parents are not being
         // picked up fix it there
@@ -368,7 +369,7 @@ public class TestReflexUtil {
 
                 Optional<Analysis> newAnalysis = addReflexTest(reflex, reflexBean.getResult(),
                         reflexBean.getPatient().getId(), reflexBean.getSample(), true, true, addedActionId, false,
-                        sysUserId);
+                        batch, sysUserId);
                 if (newAnalysis.isPresent()) {
                     reflexAnalysises.add(newAnalysis.get());
                 }
@@ -384,11 +385,11 @@ public class TestReflexUtil {
     }
 
     private List<Analysis> handleAutomaticReflexes(List<Analysis> parentAnalysisList, TestReflexBean reflexBean,
-            List<String> handledReflexIdList, String sysUserId) {
+            List<String> handledReflexIdList, ReflexBatch batch, String sysUserId) {
         // More than one reflex may be returned if more than one action
         // should be taken by the result
 
-        List<TestReflex> reflexesForResult = getReflexTests(reflexBean);
+        List<TestReflex> reflexesForResult = batch.getReflexTests(reflexBean);
 
         List<Analysis> reflexAnalysises = new ArrayList<>();
         for (TestReflex reflexForResult : reflexesForResult) {
@@ -400,7 +401,7 @@ public class TestReflexUtil {
 
             handledReflexIdList.add(reflexForResult.getId());
 
-            List<TestReflex> siblingsOfResultReflex = getSiblings(reflexForResult);
+            List<TestReflex> siblingsOfResultReflex = batch.getSiblings(reflexForResult);
 
             // no reflexes triggered so no parents
             parentAnalysisList.clear();
@@ -408,7 +409,7 @@ public class TestReflexUtil {
             // side effect of populating parent list and
             // handledRefleIdList
             boolean siblingsSatisfied = checkIfSiblingsSatisfiedAndPopulateParentList(parentAnalysisList, reflexBean,
-                    handledReflexIdList, siblingsOfResultReflex);
+                    handledReflexIdList, siblingsOfResultReflex, batch);
 
             // All the conditions are satisfied so we can handle the
             // reflexes
@@ -417,7 +418,7 @@ public class TestReflexUtil {
 
                 Optional<Analysis> newAnalysis = addReflexTest(reflexForResult, reflexBean.getResult(),
                         reflexBean.getPatient().getId(), reflexBean.getSample(), true, true, null,
-                        allSibAnalysisCausedReflex, sysUserId);
+                        allSibAnalysisCausedReflex, batch, sysUserId);
                 if (newAnalysis.isPresent()) {
                     reflexAnalysises.add(newAnalysis.get());
                 }
@@ -431,7 +432,8 @@ public class TestReflexUtil {
                             && !siblingReflex.getActionScriptletId().equals(reflexForResult.getActionScriptletId());
 
                     newAnalysis = addReflexTest(siblingReflex, reflexBean.getResult(), reflexBean.getPatient().getId(),
-                            reflexBean.getSample(), addTest, handleAction, null, allSibAnalysisCausedReflex, sysUserId);
+                            reflexBean.getSample(), addTest, handleAction, null, allSibAnalysisCausedReflex, batch,
+                            sysUserId);
                     if (newAnalysis.isPresent()) {
                         reflexAnalysises.add(newAnalysis.get());
                     }
@@ -508,8 +510,9 @@ public class TestReflexUtil {
         return true;
     }
 
-    protected boolean checkIfSiblingsSatisfiedAndPopulateParentList(List<Analysis> parentAnalysisList,
-            TestReflexBean resultSet, List<String> handledReflexIdList, List<TestReflex> siblingsOfResultReflex) {
+    private boolean checkIfSiblingsSatisfiedAndPopulateParentList(List<Analysis> parentAnalysisList,
+            TestReflexBean resultSet, List<String> handledReflexIdList, List<TestReflex> siblingsOfResultReflex,
+            ReflexBatch batch) {
         boolean siblingsSatisfied = true;
 
         for (TestReflex siblingReflex : siblingsOfResultReflex) {
@@ -518,7 +521,9 @@ public class TestReflexUtil {
             handledReflexIdList.add(siblingReflex.getId());
 
             if (siblingsSatisfied) {
-                if (!reflexResolver.isSatisfied(siblingReflex, resultSet.getSample())) {
+                Sample sample = resultSet.getSample();
+                if (!reflexResolver.isSatisfied(siblingReflex, batch.getAnalyses(sample),
+                        analysis -> batch.getResults(sample, analysis))) {
                     siblingsSatisfied = false;
                     parentAnalysisList.clear();
                     // we're not breaking out of the loop to let the rest of the
@@ -544,7 +549,7 @@ public class TestReflexUtil {
 
     private Optional<Analysis> addReflexTest(TestReflex reflex, Result result, String patientId, Sample sample,
             boolean addTest, boolean handleAction, String actionSelectionId, boolean failOnDuplicateTest,
-            String sysUserId) {
+            ReflexBatch batch, String sysUserId) {
 
         if (addTest || handleAction) {
 
@@ -557,7 +562,7 @@ public class TestReflexUtil {
                 observation.setPatientId(patientId);
                 observation.setSampleId(sample.getId());
                 observation.setSysUserId(sysUserId);
-                observationService.insert(observation);
+                batch.observations.add(observation);
             }
 
             Analysis newAnalysis = reflexAction.getNewAnalysis();
@@ -568,18 +573,14 @@ public class TestReflexUtil {
              * previous CD4 absolute was attached to a different analysis from the CD4 %
              * then this fails. This also precludes updates
              */
-            if (failOnDuplicateTest && testDoneForSample(newAnalysis)) {
+            if (failOnDuplicateTest && batch.testDoneForSample(newAnalysis)) {
                 return Optional.empty();
             }
 
             if (finalResult != null) {
                 finalResult.setAnalysis(result.getAnalysis());
                 finalResult.setSysUserId(sysUserId);
-                if (finalResult.getId() == null) {
-                    resultService.insert(finalResult);
-                } else {
-                    resultService.update(finalResult);
-                }
+                batch.finalResults.add(finalResult);
             }
 
             if (newAnalysis != null && addTest) {
@@ -589,69 +590,46 @@ public class TestReflexUtil {
                 currentAnalysis.setSysUserId(sysUserId);
                 currentAnalysis.setTriggeredReflex(Boolean.TRUE);
 
-                try {
-                    analysisService.insert(newAnalysis);
-                    analysisService.update(currentAnalysis);
-                } catch (Exception e) {
-                    return Optional.empty();
-                }
-
-                List<Note> notes = new ArrayList<>();
-                notes.add(noteService.createSavableNote(newAnalysis, NoteType.INTERNAL,
-                        "Triggered by " + currentAnalysis.getTest().getLocalizedReportingName().getLocalizedValue(),
-                        "Reflex Test Note", "1"));
-                notes.add(noteService.createSavableNote(newAnalysis, NoteType.INTERNAL,
-                        "This is part of a set of tests, please ensure all tests are resulted before" + " validation",
-                        "Reflex Test Note", "1"));
-                if (result.getParentResult() == null) {
-                    Note note = noteService.createSavableNote(currentAnalysis, NoteType.INTERNAL,
-                            "This is part of a set of tests, please ensure all tests are resulted before"
-                                    + " validation",
-                            "Reflex Test Note", "1");
-                    if (!noteService.duplicateNoteExists(note)) {
-                        notes.add(note);
-                    }
-                }
-                if (StringUtils.isNotBlank(reflex.getInternalNote())) {
-                    Note note = noteService.createSavableNote(newAnalysis, NoteType.INTERNAL, reflex.getInternalNote(),
-                            "Reflex Rule Internal Note", "1");
-                    if (!noteService.duplicateNoteExists(note)) {
-                        notes.add(note);
-                    }
-                }
-
-                if (StringUtils.isNotBlank(reflex.getExternalNote())) {
-                    Note note = noteService.createSavableNote(newAnalysis, NoteType.EXTERNAL, reflex.getExternalNote(),
-                            "Reflex Rule External Note", "1");
-                    if (!noteService.duplicateNoteExists(note)) {
-                        notes.add(note);
-                    }
-                }
-                noteService.saveAll(notes);
+                batch.newAnalyses.add(new ReflexedAnalysis(newAnalysis, reflex, result));
+                batch.triggeringAnalyses.add(currentAnalysis);
                 return Optional.of(newAnalysis);
             }
         }
         return Optional.empty();
     }
 
-    private boolean testDoneForSample(Analysis newAnalysis) {
-        if (newAnalysis == null) {
-            return false;
-        }
-
-        String newTestId = newAnalysis.getTest().getId();
-
-        Sample sample = newAnalysis.getSampleItem().getSample();
-
-        List<Analysis> analysisList = analysisService.getAnalysesBySampleId(sample.getId());
-
-        for (Analysis analysis : analysisList) {
-            if (duplicateTest(newTestId, analysis, newAnalysis)) {
-                return true;
+    private List<Note> createReflexNotes(ReflexedAnalysis reflexed, Set<String> notedTriggeringAnalysisIds) {
+        Analysis newAnalysis = reflexed.analysis;
+        Analysis currentAnalysis = reflexed.result.getAnalysis();
+        TestReflex reflex = reflexed.reflex;
+
+        List<Note> notes = new ArrayList<>();
+        notes.add(noteService.createSavableNote(newAnalysis, NoteType.INTERNAL,
+                "Triggered by " + currentAnalysis.getTest().getLocalizedReportingName().getLocalizedValue(),
+                "Reflex Test Note", "1"));
+        notes.add(noteService.createSavableNote(newAnalysis, NoteType.INTERNAL,
+                "This is part of a set of tests, please ensure all tests are resulted before" + " validation",
+                "Reflex Test Note", "1"));
+        // the triggering analysis gets the note once however many reflexes it triggered
+        if (reflexed.result.getParentResult() == null && notedTriggeringAnalysisIds.add(currentAnalysis.getId())) {
+            Note note = noteService.createSavableNote(currentAnalysis, NoteType.INTERNAL,
+                    "This is part of a set of tests, please ensure all tests are resulted before" + " validation",
+                    "Reflex Test Note", "1");
+            if (!noteService.duplicateNoteExists(note)) {
+                notes.add(note);
             }
         }
+        // the new analysis has no notes yet, so these can't be duplicates
+        if (StringUtils.isNotBlank(reflex.getInternalNote())) {
+            notes.add(noteService.createSavableNote(newAnalysis, NoteType.INTERNAL, reflex.getInternalNote(),
+                    "Reflex Rule Internal Note", "1"));
+        }
 
-        return false;
+        if (StringUtils.isNotBlank(reflex.getExternalNote())) {
+            notes.add(noteService.createSavableNote(newAnalysis, NoteType.EXTERNAL, reflex.getExternalNote(),
+                    "Reflex Rule External Note", "1"));
+        }
+        return notes;
     }
 
     private boolean duplicateTest(String newTestId, Analysis existingAnalysis, Analysis newAnalysis) {
@@ -700,10 +678,9 @@ public class TestReflexUtil {
 
             if (scriptletReflex != null) {
                 if (noConclusionInModifiedResult(reflexList)) {
-                    List<Result> resultList = resultService.getResultsForSample(reflexList.get(0).getSample());
-
                     // We're Unfortunately hard coding some business rules here
                     if (CD4_SCRIPTLET_ID.equals(scriptletReflex.getActionScriptlet().getId())) {
+                        List<Result> resultList = resultService.getResultsForSample(reflexList.get(0).getSample());
                         RetroCIReflexActions reflexAction = new RetroCIReflexActions();
                         Result calculatedResults = reflexAction.getCD4CalculationResult(reflexList.get(0).getSample());
 
@@ -789,20 +766,35 @@ public class TestReflexUtil {
 
     public boolean isTestTriggeredByResult(Test potentialReflexTest, Result potentialTriggerResult) {
         String resultType = testService.getResultType(potentialTriggerResult.getTestResult().getTest());
+        return isTestTriggeredByResult(potentialReflexTest, potentialTriggerResult, resultType,
+                getCandidateReflexes(potentialTriggerResult, resultType));
+    }
+
+    // reflexesForResult are the reflexes of the result as getCandidateReflexes
+    // finds them, passed in so checking each of them reads them only once
+    private boolean isTestTriggeredByResult(Test potentialReflexTest, Result potentialTriggerResult,
+            String resultType, List<TestReflex> reflexesForResult) {
         if (resultType.equals("D")) {
-            return doesDictionaryRelationRulesForReflexApply(potentialReflexTest, potentialTriggerResult);
+            return doesDictionaryRelationRulesForReflexApply(potentialReflexTest, potentialTriggerResult,
+                    reflexesForResult);
         } else if (!resultType.equals("D")) {
             if (resultType.equals("N")) {
-                return doesNumericRulesForReflexApply(potentialReflexTest, potentialTriggerResult);
+                return doesNumericRulesForReflexApply(potentialReflexTest, potentialTriggerResult, reflexesForResult);
             } else {
-                return doesGenericRulesForReflexApply(potentialReflexTest, potentialTriggerResult);
+                return doesGenericRulesForReflexApply(potentialReflexTest, potentialTriggerResult, reflexesForResult);
             }
         }
         return false;
     }
 
     public boolean doesDictionaryRelationRulesForReflexApply(Test potentialReflexTest, Result potentialTriggerResult) {
-        return reflexResolver.getTestReflexsByAnalyteAndTest(potentialTriggerResult).stream().anyMatch(reflexTest -> {
+        return doesDictionaryRelationRulesForReflexApply(potentialReflexTest, potentialTriggerResult,
+                reflexResolver.getTestReflexsByAnalyteAndTest(potentialTriggerResult));
+    }
+
+    private boolean doesDictionaryRelationRulesForReflexApply(Test potentialReflexTest, Result potentialTriggerResult,
+            List<TestReflex> reflexesForResult) {
+        return reflexesForResult.stream().anyMatch(reflexTest -> {
             if (reflexTest.getAddedTest().getId().equals(potentialReflexTest.getId())) {
                 if (reflexTest.getRelation() != null) {
                     switch (reflexTest.getRelation()) {
@@ -846,17 +838,125 @@ public class TestReflexUtil {
         });
     }
 
-    private boolean doesNumericRulesForReflexApply(Test potentialReflexTest, Result potentialTriggerResult) {
-        List<TestReflex> reflexesForResult = reflexResolver.getTestReflexesForResult(potentialTriggerResult);
+    private boolean doesNumericRulesForReflexApply(Test potentialReflexTest, Result potentialTriggerResult,
+            List<TestReflex> reflexesForResult) {
         return reflexesForResult.stream()
                 .anyMatch(test -> test.getAddedTest().getId().equals(potentialReflexTest.getId())
                         && applyNumericRelationRulesForReflex(test, potentialTriggerResult));
     }
 
-    private boolean doesGenericRulesForReflexApply(Test potentialReflexTest, Result potentialTriggerResult) {
-        List<TestReflex> reflexesForResult = reflexResolver.getTestReflexesForResult(potentialTriggerResult);
+    private boolean doesGenericRulesForReflexApply(Test potentialReflexTest, Result potentialTriggerResult,
+            List<TestReflex> reflexesForResult) {
         return reflexesForResult.stream()
                 .anyMatch(test -> test.getAddedTest().getId().equals(potentialReflexTest.getId())
                         && applyTextRelationRulesForReflex(test, potentialTriggerResult));
     }
+
+    /*
+     * What one call of addNewTestsToDBForReflexTests reads and writes. The analyses
+     * and results of a sample are read once however many of its results are
+     * checked, and what the reflexes produce is only written once every result has
+     * been evaluated. Writing it as we went put queries between the inserts, each
+     * of which flushed the session, so the inserts could not go out in JDBC batches
+     */
+    private class ReflexBatch {
+        private final Map<TestReflexBean, List<TestReflex>> reflexTestsByBean = new IdentityHashMap<>();
+        private final Map<String, List<TestReflex>> siblingsByReflexId = new HashMap<>();
+        private final Map<String, List<Analysis>> analysesBySampleId = new HashMap<>();
+        private final Map<String, Map<String, List<Result>>> resultsBySampleId = new HashMap<>();
+
+        private final List<ObservationHistory> observations = new ArrayList<>();
+        private final List<Result> finalResults = new ArrayList<>();
+        private final List<ReflexedAnalysis> newAnalyses = new ArrayList<>();
+        private final Set<Analysis> triggeringAnalyses = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private List<TestReflex> getReflexTests(TestReflexBean reflexBean) {
+            return reflexTestsByBean.computeIfAbsent(reflexBean, TestReflexUtil.this::getReflexTests);
+        }
+
+        private List<TestReflex> getSiblings(TestReflex reflex) {
+            return siblingsByReflexId.computeIfAbsent(reflex.getId(), id -> TestReflexUtil.this.getSiblings(reflex));
+        }
+
+        private List<Analysis> getAnalyses(Sample sample) {
+            return analysesBySampleId.computeIfAbsent(sample.getId(), analysisService::getAnalysesBySampleId);
+        }
+
+        private List<Result> getResults(Sample sample, Analysis analysis) {
+            Map<String, List<Result>> resultsByAnalysisId = resultsBySampleId.computeIfAbsent(sample.getId(),
+                    id -> resultService.getResultsForSample(sample).stream()
+                            .collect(Collectors.groupingBy(result -> result.getAnalysis().getId())));
+            return resultsByAnalysisId.getOrDefault(analysis.getId(), new ArrayList<>());
+        }
+
+        private boolean testDoneForSample(Analysis newAnalysis) {
+            if (newAnalysis == null) {
+                return false;
+            }
+
+            String newTestId = newAnalysis.getTest().getId();
+
+            Sample sample = newAnalysis.getSampleItem().getSample();
+
+            for (Analysis analysis : getAnalyses(sample)) {
+                if (duplicateTest(newTestId, analysis, newAnalysis)) {
+                    return true;
+                }
+            }
+            // nor one this batch is about to add
+            for (ReflexedAnalysis reflexed : newAnalyses) {
+                Analysis analysis = reflexed.analysis;
+                if (sample.getId().equals(analysis.getSampleItem().getSample().getId())
+                        && duplicateTest(newTestId, analysis, newAnalysis)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void write() {
+            for (ObservationHistory observation : observations) {
+                observationService.insert(observation);
+            }
+
+            for (Result finalResult : finalResults) {
+                if (finalResult.getId() == null) {
+                    resultService.insert(finalResult);
+                } else {
+                    resultService.update(finalResult);
+                }
+            }
+
+            if (newAnalyses.isEmpty()) {
+                return;
+            }
+
+            List<Analysis> analyses = new ArrayList<>();
+            newAnalyses.forEach(reflexed -> analyses.add(reflexed.analysis));
+            analysisService.insertAll(analyses);
+            for (Analysis analysis : triggeringAnalyses) {
+                analysisService.update(analysis);
+            }
+
+            List<Note> notes = new ArrayList<>();
+            Set<String> notedTriggeringAnalysisIds = new HashSet<>();
+            for (ReflexedAnalysis reflexed : newAnalyses) {
+                notes.addAll(createReflexNotes(reflexed, notedTriggeringAnalysisIds));
+            }
+            noteService.saveAll(notes);
+        }
+    }
+
+    private static class ReflexedAnalysis {
+        private final Analysis analysis;
+        private final TestReflex reflex;
+        private final Result result;
+
+        private ReflexedAnalysis(Analysis analysis, TestReflex reflex, Result result) {
+            this.analysis = analysis;
+            this.reflex = reflex;
+            this.result = result;
+        }
+    }
 }
@@ -50,6 +50,13 @@ public interface TestReflexDAO extends BaseDAO<TestReflex, String> {
      */
     List<TestReflex> getAllTestReflexs() throws LIMSRuntimeException;
 
+    /**
+     * @return all test reflexes, ordered by id, with their test, test result and
+     *         test analyte with its analyte already loaded
+     * @throws LIMSRuntimeException
+     */
+    List<TestReflex> getAllTestReflexsWithTriggers() throws LIMSRuntimeException;
+
     /**
      * @param startingRecNo
      * @return
@@ -80,6 +80,20 @@ public class TestReflexDAOImpl extends BaseDAOImpl<TestReflex, String> implement
         return list;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TestReflex> getAllTestReflexsWithTriggers() throws LIMSRuntimeException {
+        try {
+            String sql = "select distinct t from TestReflex t join fetch t.testAnalyte ta join fetch ta.analyte"
+                    + " left join fetch t.test left join fetch t.testResult order by t.id";
+            Query<TestReflex> query = entityManager.unwrap(Session.class).createQuery(sql, TestReflex.class);
+            return query.list();
+        } catch (RuntimeException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in TestReflex getAllTestReflexsWithTriggers()", e);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<TestReflex> getPageOfTestReflexs(int startingRecNo) throws LIMSRuntimeException {
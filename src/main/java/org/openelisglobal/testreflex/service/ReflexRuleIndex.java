@@ -0,0 +1,149 @@
+package org.openelisglobal.testreflex.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.testreflex.action.bean.ReflexRule;
+import org.openelisglobal.testreflex.action.bean.ReflexRuleCondition;
+import org.openelisglobal.testreflex.action.bean.ReflexRuleOptions;
+import org.openelisglobal.testreflex.dao.ReflexRuleDAO;
+import org.openelisglobal.testreflex.dao.TestReflexDAO;
+import org.openelisglobal.testreflex.valueholder.TestReflex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The reflex configuration indexed by triggering test, so that finding the
+ * reflexes a result may trigger takes no query. Only ids are held; callers load
+ * the matching TestReflex rows in their own session. The index is built on
+ * first use and dropped whenever the reflex configuration is saved.
+ */
+@Component
+public class ReflexRuleIndex {
+
+    @Autowired
+    private TestReflexDAO testReflexDAO;
+    @Autowired
+    private ReflexRuleDAO reflexRuleDAO;
+
+    private volatile Index index;
+    private long generation;
+
+    public boolean hasReflexes(String testId) {
+        return testId != null && getIndex().testIds.contains(testId);
+    }
+
+    /** @return the ids of the reflexes triggered by the analyte of the test */
+    public List<String> getReflexIds(String testId, String analyteId) {
+        return getIndex().byTestAndAnalyte.getOrDefault(key(testId, analyteId), Collections.emptyList());
+    }
+
+    /**
+     * @return the ids of the reflexes triggered by the test result of the analyte
+     *         of the test
+     */
+    public List<String> getReflexIds(String testId, String analyteId, String testResultId) {
+        return getIndex().byTestResult.getOrDefault(key(testId, analyteId, testResultId), Collections.emptyList());
+    }
+
+    /**
+     * @return the test analyte ids of the conditions of the reflex rule for the
+     *         analyte when all of them must be met, null when there is no such rule
+     */
+    public Set<Integer> getAllConditionsTestAnalyteIds(String analyteId) {
+        return getIndex().allConditionsTestAnalyteIds.get(analyteId);
+    }
+
+    /**
+     * Drops the index once the current transaction is over, so the next lookup
+     * reads the configuration as it was saved
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private synchronized void clear() {
+        generation++;
+        index = null;
+    }
+
+    private Index getIndex() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+        long loadedGeneration;
+        synchronized (this) {
+            if (index != null) {
+                return index;
+            }
+            loadedGeneration = generation;
+        }
+        current = load();
+        synchronized (this) {
+            // a save during the load may not be in what was read
+            if (generation == loadedGeneration) {
+                index = current;
+            }
+        }
+        return current;
+    }
+
+    private Index load() {
+        Index loaded = new Index();
+        for (TestReflex reflex : testReflexDAO.getAllTestReflexsWithTriggers()) {
+            if (reflex.getTest() == null) {
+                continue;
+            }
+            String testId = reflex.getTest().getId();
+            String analyteId = reflex.getTestAnalyte().getAnalyte().getId();
+            loaded.testIds.add(testId);
+            loaded.byTestAndAnalyte.computeIfAbsent(key(testId, analyteId), k -> new ArrayList<>()).add(reflex.getId());
+            if (reflex.getTestResult() != null) {
+                loaded.byTestResult
+                        .computeIfAbsent(key(testId, analyteId, reflex.getTestResult().getId()), k -> new ArrayList<>())
+                        .add(reflex.getId());
+            }
+        }
+        for (ReflexRule rule : reflexRuleDAO.getAll()) {
+            if (rule.getAnalyteId() == null || !ReflexRuleOptions.OverallOptions.ALL.equals(rule.getOverall())) {
+                continue;
+            }
+            Set<Integer> testAnalyteIds = new HashSet<>();
+            for (ReflexRuleCondition condition : rule.getConditions()) {
+                testAnalyteIds.add(condition.getTestAnalyteId());
+            }
+            loaded.allConditionsTestAnalyteIds.putIfAbsent(rule.getAnalyteId().toString(), testAnalyteIds);
+        }
+        LogEvent.logDebug(this.getClass().getSimpleName(), "load",
+                "indexed reflexes for " + loaded.testIds.size() + " triggering tests");
+        return loaded;
+    }
+
+    private static String key(String... ids) {
+        return String.join(":", ids);
+    }
+
+    private static final class Index {
+        private final Set<String> testIds = new HashSet<>();
+        private final Map<String, List<String>> byTestAndAnalyte = new HashMap<>();
+        private final Map<String, List<String>> byTestResult = new HashMap<>();
+        private final Map<String, Set<Integer>> allConditionsTestAnalyteIds = new HashMap<>();
+    }
+}
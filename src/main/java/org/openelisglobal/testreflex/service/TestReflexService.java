@@ -40,4 +40,6 @@ public interface TestReflexService extends BaseObjectService<TestReflex, String>
     ReflexRule getReflexRuleByAnalyteId(String analyteId);
 
     List<TestReflex> getTestReflexsByTestAnalyteId(String testAnalyteId);
+
+    List<TestReflex> getTestReflexsByIds(List<String> ids);
 }
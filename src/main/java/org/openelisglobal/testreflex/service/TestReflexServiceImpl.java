@@ -50,6 +50,8 @@ public class TestReflexServiceImpl extends AuditableBaseObjectServiceImpl<TestRe
     AnalyteService analyteService;
     @Autowired
     TestAnalyteService testAnalyteService;
+    @Autowired
+    private ReflexRuleIndex reflexRuleIndex;
 
     static final String REFLEX_RESULT_GROUP = "30";
     static final String REFLEX_RESULT_TYPE = "R";
@@ -132,6 +134,7 @@ public class TestReflexServiceImpl extends AuditableBaseObjectServiceImpl<TestRe
                             + IActionConstants.BLANK + testReflex.getTestResult().getValue() + IActionConstants.BLANK
                             + TestServiceImpl.getUserLocalizedTestName(testReflex.getAddedTest()));
         }
+        reflexRuleIndex.invalidate();
         return super.insert(testReflex);
     }
 
@@ -144,6 +147,7 @@ public class TestReflexServiceImpl extends AuditableBaseObjectServiceImpl<TestRe
                             + IActionConstants.BLANK + testReflex.getTestResult().getValue() + IActionConstants.BLANK
                             + TestServiceImpl.getUserLocalizedTestName(testReflex.getAddedTest()));
         }
+        reflexRuleIndex.invalidate();
         return super.save(testReflex);
     }
 
@@ -156,6 +160,7 @@ public class TestReflexServiceImpl extends AuditableBaseObjectServiceImpl<TestRe
                             + IActionConstants.BLANK + testReflex.getTestResult().getValue() + IActionConstants.BLANK
                             + TestServiceImpl.getUserLocalizedTestName(testReflex.getAddedTest()));
         }
+        reflexRuleIndex.invalidate();
         return super.update(testReflex);
     }
 
@@ -168,9 +173,19 @@ public class TestReflexServiceImpl extends AuditableBaseObjectServiceImpl<TestRe
         return baseObjectDAO.getTestReflexsByTestAnalyteId(testAnalyteId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TestReflex> getTestReflexsByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getBaseObjectDAO().get(ids);
+    }
+
     @Override
     @Transactional()
     public void saveOrUpdateReflexRule(ReflexRule reflexRule) {
+        reflexRuleIndex.invalidate();
         if (reflexRule.getId() == null) {
             processReflexRule(reflexRule);
             reflexRuleDAO.insert(reflexRule);
@@ -189,6 +204,7 @@ public class TestReflexServiceImpl extends AuditableBaseObjectServiceImpl<TestRe
     @Override
     @Transactional()
     public void deactivateReflexRule(String id) {
+        reflexRuleIndex.invalidate();
         Optional<ReflexRule> rule = reflexRuleDAO.get(Integer.valueOf(id));
         if (rule.isPresent()) {
             // clear all the existing reflex tests
@@ -6,6 +6,7 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.services.DisplayListService;
 import org.openelisglobal.configuration.service.DomainConfigurationHandler;
@@ -56,6 +57,11 @@ public class TestSampleTypeConfigurationHandler implements DomainConfigurationHa
         return 210; // Depends on tests and sample types
     }
 
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of("tests", "sample-types");
+    }
+
     @Override
     public void processConfiguration(InputStream inputStream, String fileName) throws Exception {
         BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
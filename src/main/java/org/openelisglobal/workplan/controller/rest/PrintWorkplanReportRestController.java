@@ -4,33 +4,62 @@ import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import net.sf.jasperreports.engine.JRDataSource;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JasperRunManager;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import org.apache.commons.validator.GenericValidator;
 import org.openelisglobal.common.exception.LIMSRuntimeException;
 import org.openelisglobal.common.log.LogEvent;
 import org.openelisglobal.common.rest.BaseRestController;
+import org.openelisglobal.panel.service.PanelService;
+import org.openelisglobal.panel.valueholder.Panel;
+import org.openelisglobal.panelitem.service.PanelItemService;
+import org.openelisglobal.panelitem.valueholder.PanelItem;
+import org.openelisglobal.test.service.TestSectionService;
 import org.openelisglobal.test.service.TestServiceImpl;
+import org.openelisglobal.test.valueholder.TestSection;
 import org.openelisglobal.workplan.form.WorkplanForm;
 import org.openelisglobal.workplan.form.WorkplanForm.PrintWorkplan;
 import org.openelisglobal.workplan.reports.IWorkplanReport;
 import org.openelisglobal.workplan.reports.TestSectionWorkplanReport;
 import org.openelisglobal.workplan.reports.TestWorkplanReport;
+import org.openelisglobal.workplan.service.WorkplanReportService;
+import org.openelisglobal.workplan.valueholder.WorkplanSelection;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController("PrintWorkplanReportRestController")
 public class PrintWorkplanReportRestController extends BaseRestController {
 
+    @Autowired
+    private WorkplanReportService workplanReportService;
+
+    @Autowired
+    private TestSectionService testSectionService;
+
+    @Autowired
+    private PanelService panelService;
+
+    @Autowired
+    private PanelItemService panelItemService;
+
     private String reportPath = null;
 
     @PostMapping(value = "/rest/PrintWorkplanReport")
@@ -63,19 +92,13 @@ public class PrintWorkplanReportRestController extends BaseRestController {
         String reportFileName = workplanReport.getFileName();
         try {
 
-            byte[] bytes = null;
-
             JRDataSource dataSource = createReportDataSource(workplanRows);
-            bytes = JasperRunManager.runReportToPdf(getReportPath() + reportFileName + ".jasper", parameterMap,
-                    dataSource);
 
             ServletOutputStream servletOutputStream = response.getOutputStream();
-            response.setContentType("application/pdf");
-            response.setContentLength(bytes.length);
-            String downloadFilename = "WorkplanReport";
-            response.setHeader("Content-Disposition", "filename=\"" + downloadFilename + ".pdf\"");
-
-            servletOutputStream.write(bytes, 0, bytes.length);
+            setPdfHeaders(response);
+            try (InputStream reportStream = new FileInputStream(getReportPath() + reportFileName + ".jasper")) {
+                JasperRunManager.runReportToPdfStream(reportStream, servletOutputStream, parameterMap, dataSource);
+            }
             servletOutputStream.flush();
             servletOutputStream.close();
 
@@ -85,6 +108,90 @@ public class PrintWorkplanReportRestController extends BaseRestController {
         }
     }
 
+    @GetMapping(value = "/rest/PrintWorkplanReport/testSection/{testSectionId}")
+    public void printTestSectionWorkplan(HttpServletRequest request, HttpServletResponse response,
+            @PathVariable String testSectionId,
+            @RequestParam(name = "usePregenerated", defaultValue = "false") boolean usePregenerated)
+            throws IOException {
+        if (!GenericValidator.isInt(testSectionId)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        TestSection testSection = testSectionService.getTestSectionById(testSectionId);
+        if (testSection == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (usePregenerated) {
+            File pregenerated = workplanReportService.getPregeneratedTestSectionWorkplan(testSectionId,
+                    getSysUserId(request));
+            if (pregenerated != null) {
+                setPdfHeaders(response);
+                response.setContentLengthLong(pregenerated.length());
+                Files.copy(pregenerated.toPath(), response.getOutputStream());
+                return;
+            }
+        }
+        writeWorkplan(request, response, WorkplanSelection.forTestSection(testSectionId),
+                new TestSectionWorkplanReport(testSection.getLocalizedName()));
+    }
+
+    @GetMapping(value = "/rest/PrintWorkplanReport/test/{testId}")
+    public void printTestWorkplan(HttpServletRequest request, HttpServletResponse response,
+            @PathVariable String testId) throws IOException {
+        if (!GenericValidator.isInt(testId)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        writeWorkplan(request, response, WorkplanSelection.forTests(List.of(testId)),
+                new TestWorkplanReport(getTestTypeName(testId)));
+    }
+
+    @GetMapping(value = "/rest/PrintWorkplanReport/panel/{panelId}")
+    public void printPanelWorkplan(HttpServletRequest request, HttpServletResponse response,
+            @PathVariable String panelId) throws IOException {
+        if (!GenericValidator.isInt(panelId)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Panel panel = panelService.getPanelById(panelId);
+        if (panel == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        List<String> testIds = new ArrayList<>();
+        for (PanelItem panelItem : panelItemService.getPanelItemsForPanel(panelId)) {
+            testIds.add(panelItem.getTest().getId());
+        }
+        writeWorkplan(request, response, WorkplanSelection.forTests(testIds),
+                new TestSectionWorkplanReport(panel.getLocalizedName()));
+    }
+
+    private void writeWorkplan(HttpServletRequest request, HttpServletResponse response, WorkplanSelection selection,
+            IWorkplanReport workplanReport) throws IOException {
+        if (selection.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        setPdfHeaders(response);
+        try {
+            workplanReportService.writeWorkplanPdf(selection, workplanReport, getSysUserId(request),
+                    response.getOutputStream());
+        } catch (JRException | LIMSRuntimeException e) {
+            LogEvent.logError(e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "error.jasper");
+            }
+        }
+    }
+
+    private void setPdfHeaders(HttpServletResponse response) {
+        response.setContentType("application/pdf");
+        String downloadFilename = "WorkplanReport";
+        response.setHeader("Content-Disposition", "filename=\"" + downloadFilename + ".pdf\"");
+    }
+
     private JRDataSource createReportDataSource(List<?> includedTests) {
         JRBeanCollectionDataSource dataSource;
         dataSource = new JRBeanCollectionDataSource(includedTests);
@@ -23,6 +23,7 @@ import org.openelisglobal.samplehuman.service.SampleHumanService;
 import org.openelisglobal.spring.util.SpringContext;
 import org.openelisglobal.test.service.TestService;
 import org.openelisglobal.test.valueholder.Test;
+import org.openelisglobal.workplan.service.WorkplanReportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 
@@ -52,19 +53,9 @@ public class WorkplanRestController extends BaseRestController {
 
         if (nfsTestIdList == null) {
             nfsTestIdList = new ArrayList<>();
-            nfsTestIdList.add(getTestId("GB"));
-            nfsTestIdList.add(getTestId("Neut %"));
-            nfsTestIdList.add(getTestId("Lymph %"));
-            nfsTestIdList.add(getTestId("Mono %"));
-            nfsTestIdList.add(getTestId("Eo %"));
-            nfsTestIdList.add(getTestId("Baso %"));
-            nfsTestIdList.add(getTestId("GR"));
-            nfsTestIdList.add(getTestId("Hb"));
-            nfsTestIdList.add(getTestId("HCT"));
-            nfsTestIdList.add(getTestId("VGM"));
-            nfsTestIdList.add(getTestId("TCMH"));
-            nfsTestIdList.add(getTestId("CCMH"));
-            nfsTestIdList.add(getTestId("PLQ"));
+            for (String nfsTestName : WorkplanReportService.NFS_TEST_NAMES) {
+                nfsTestIdList.add(getTestId(nfsTestName));
+            }
         }
     }
 
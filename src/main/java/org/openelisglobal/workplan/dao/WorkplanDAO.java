@@ -0,0 +1,18 @@
+package org.openelisglobal.workplan.dao;
+
+import java.util.List;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.workplan.valueholder.WorkplanRow;
+import org.openelisglobal.workplan.valueholder.WorkplanSelection;
+
+public interface WorkplanDAO {
+
+    /**
+     * @param after the last row of the previous page, null for the first page
+     * @return the next page of rows for the analyses of the selection in one of
+     *         the statuses, ordered by accession number and analysis id. Only the
+     *         key columns of the rows are set
+     */
+    List<WorkplanRow> getRows(WorkplanSelection selection, List<Integer> statusIds, WorkplanRow after,
+            int pageSize) throws LIMSRuntimeException;
+}
@@ -0,0 +1,87 @@
+package org.openelisglobal.workplan.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.workplan.valueholder.WorkplanRow;
+import org.openelisglobal.workplan.valueholder.WorkplanSelection;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional(readOnly = true)
+public class WorkplanDAOImpl implements WorkplanDAO {
+
+    private static final String SELECT_ROWS = "select a.id, s.id, s.accessionNumber, s.receivedTimestamp, t.id,"
+            + " tos.id, a.sampleTypeName, pr.resultType, pr.value from Analysis a join a.sampleItem si"
+            + " join si.sample s join a.test t join si.typeOfSample tos left join a.parentResult pr"
+            + " where a.statusId in (:statusIds)";
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Override
+    public List<WorkplanRow> getRows(WorkplanSelection selection, List<Integer> statusIds, WorkplanRow after,
+            int pageSize) throws LIMSRuntimeException {
+        StringBuilder hql = new StringBuilder(SELECT_ROWS);
+        if (selection.getTestSectionId() != null) {
+            hql.append(" and a.testSection.id = :testSectionId");
+        } else {
+            hql.append(" and t.id in (:testIds)");
+        }
+        if (after != null) {
+            hql.append(" and (s.accessionNumber > :accessionNumber"
+                    + " or (s.accessionNumber = :accessionNumber and a.id > :analysisId))");
+        }
+        hql.append(" order by s.accessionNumber, a.id");
+        try {
+            Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(hql.toString(), Object[].class);
+            query.setParameterList("statusIds", statusIds);
+            if (selection.getTestSectionId() != null) {
+                query.setParameter("testSectionId", Integer.parseInt(selection.getTestSectionId()));
+            } else {
+                query.setParameterList("testIds",
+                        selection.getTestIds().stream().map(Integer::parseInt).collect(Collectors.toList()));
+            }
+            if (after != null) {
+                query.setParameter("accessionNumber", after.getAccessionNumber());
+                query.setParameter("analysisId", Integer.parseInt(after.getAnalysisId()));
+            }
+            query.setMaxResults(pageSize);
+            List<WorkplanRow> rows = new ArrayList<>();
+            for (Object[] columns : query.list()) {
+                rows.add(toRow(columns));
+            }
+            return rows;
+        } catch (HibernateException e) {
+            LogEvent.logError(e);
+            throw new LIMSRuntimeException("Error in " + this.getClass().getSimpleName() + " getRows", e);
+        }
+    }
+
+    private WorkplanRow toRow(Object[] columns) {
+        WorkplanRow row = new WorkplanRow();
+        row.setAnalysisId(toString(columns[0]));
+        row.setSampleId(toString(columns[1]));
+        row.setAccessionNumber((String) columns[2]);
+        row.setReceivedTimestamp((Timestamp) columns[3]);
+        row.setTestId(toString(columns[4]));
+        row.setTypeOfSampleId(toString(columns[5]));
+        row.setSampleTypeName((String) columns[6]);
+        row.setParentResultType((String) columns[7]);
+        row.setParentResultValue((String) columns[8]);
+        return row;
+    }
+
+    private static String toString(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
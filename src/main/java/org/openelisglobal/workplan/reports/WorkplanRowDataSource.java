@@ -0,0 +1,201 @@
+package org.openelisglobal.workplan.reports;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import org.openelisglobal.workplan.valueholder.WorkplanRow;
+
+/**
+ * Feeds workplan rows to Jasper as they are read from the database, a page at
+ * a time, so only the current page and the rows of the current sample are held
+ * in memory however large the workplan is.
+ *
+ * <p>
+ * Rows arrive ordered by accession number, so the rows of a sample are read
+ * together and their display values are filled in with one lookup per sample.
+ */
+public class WorkplanRowDataSource implements JRDataSource {
+
+    public static final String NFS_TEST_NAME = "NFS";
+
+    public interface PageReader {
+        /** @return the page of rows after the given row, or from the start if null */
+        List<WorkplanRow> read(WorkplanRow after, int pageSize);
+    }
+
+    public interface SampleDecorator {
+        /** Fills in the display values of the rows of one sample */
+        void decorate(List<WorkplanRow> sampleRows);
+    }
+
+    private final PageReader pageReader;
+    private final int pageSize;
+    private final SampleDecorator decorator;
+    private Predicate<WorkplanRow> rowFilter = row -> true;
+    private Set<String> nfsTestIds = Collections.emptySet();
+    private boolean patientNameRows;
+
+    private Iterator<WorkplanRow> page = Collections.emptyIterator();
+    private WorkplanRow lastRead;
+    private boolean lastPageRead;
+    private WorkplanRow lookahead;
+    private final Deque<WorkplanRow> sampleRows = new ArrayDeque<>();
+    private WorkplanRow current;
+    private int rowCount;
+
+    public WorkplanRowDataSource(PageReader pageReader, int pageSize, SampleDecorator decorator) {
+        this.pageReader = pageReader;
+        this.pageSize = pageSize;
+        this.decorator = decorator;
+    }
+
+    /** Only rows accepted by the filter are printed, e.g. those the user may see */
+    public void setRowFilter(Predicate<WorkplanRow> rowFilter) {
+        this.rowFilter = rowFilter;
+    }
+
+    /**
+     * When a sample has all of these tests they are printed as a single NFS line
+     */
+    public void setNfsTestIds(Collection<String> nfsTestIds) {
+        this.nfsTestIds = new HashSet<>(nfsTestIds);
+    }
+
+    /** Prints the patient name on a line of its own above the tests of each sample */
+    public void setPatientNameRows(boolean patientNameRows) {
+        this.patientNameRows = patientNameRows;
+    }
+
+    @Override
+    public boolean next() throws JRException {
+        while (sampleRows.isEmpty()) {
+            if (!readNextSample()) {
+                current = null;
+                return false;
+            }
+        }
+        current = sampleRows.poll();
+        rowCount++;
+        return true;
+    }
+
+    @Override
+    public Object getFieldValue(JRField field) throws JRException {
+        switch (field.getName()) {
+        case "accessionNumber":
+            return current.getAccessionNumber();
+        case "testName":
+            return current.getTestName();
+        case "receivedDate":
+            return current.getReceivedDate();
+        case "patientInfo":
+            return current.getPatientInfo();
+        case "patientName":
+            return current.getPatientName();
+        case "nextVisitDate":
+            return current.getNextVisitDate();
+        default:
+            return null;
+        }
+    }
+
+    /** @return the number of rows handed to Jasper so far */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    private boolean readNextSample() {
+        WorkplanRow first = nextRow();
+        if (first == null) {
+            return false;
+        }
+        List<WorkplanRow> rows = new ArrayList<>();
+        rows.add(first);
+        while (peekRow() != null && peekRow().getAccessionNumber().equals(first.getAccessionNumber())) {
+            rows.add(nextRow());
+        }
+        decorator.decorate(rows);
+        if (patientNameRows) {
+            sampleRows.add(createPatientNameRow(first));
+        }
+        sampleRows.addAll(collapseNfsTests(rows));
+        return true;
+    }
+
+    private List<WorkplanRow> collapseNfsTests(List<WorkplanRow> rows) {
+        if (nfsTestIds.isEmpty()) {
+            return rows;
+        }
+        Set<String> testIds = new HashSet<>();
+        for (WorkplanRow row : rows) {
+            testIds.add(row.getTestId());
+        }
+        if (!testIds.containsAll(nfsTestIds)) {
+            return rows;
+        }
+        List<WorkplanRow> collapsed = new ArrayList<>();
+        WorkplanRow nfsRow = null;
+        for (WorkplanRow row : rows) {
+            if (!nfsTestIds.contains(row.getTestId())) {
+                collapsed.add(row);
+            } else if (nfsRow == null) {
+                nfsRow = row;
+                nfsRow.setTestName(NFS_TEST_NAME);
+                collapsed.add(nfsRow);
+            }
+        }
+        return collapsed;
+    }
+
+    private WorkplanRow createPatientNameRow(WorkplanRow firstRow) {
+        WorkplanRow row = new WorkplanRow();
+        row.setAccessionNumber(firstRow.getAccessionNumber());
+        row.setPatientInfo(firstRow.getPatientInfo());
+        row.setReceivedDate(firstRow.getReceivedDate());
+        row.setTestName(firstRow.getPatientName());
+        return row;
+    }
+
+    private WorkplanRow peekRow() {
+        if (lookahead == null) {
+            lookahead = readFilteredRow();
+        }
+        return lookahead;
+    }
+
+    private WorkplanRow nextRow() {
+        WorkplanRow row = peekRow();
+        lookahead = null;
+        return row;
+    }
+
+    private WorkplanRow readFilteredRow() {
+        while (true) {
+            if (!page.hasNext()) {
+                if (lastPageRead) {
+                    return null;
+                }
+                List<WorkplanRow> rows = pageReader.read(lastRead, pageSize);
+                lastPageRead = rows.size() < pageSize;
+                page = rows.iterator();
+                if (!page.hasNext()) {
+                    return null;
+                }
+            }
+            lastRead = page.next();
+            if (rowFilter.test(lastRead)) {
+                return lastRead;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.openelisglobal.workplan.service;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.List;
+import net.sf.jasperreports.engine.JRException;
+import org.openelisglobal.workplan.reports.IWorkplanReport;
+import org.openelisglobal.workplan.valueholder.WorkplanSelection;
+
+public interface WorkplanReportService {
+
+    /** The tests of a complete blood count, printed as one NFS line */
+    List<String> NFS_TEST_NAMES = List.of("GB", "Neut %", "Lymph %", "Mono %", "Eo %", "Baso %", "GR", "Hb", "HCT",
+            "VGM", "TCMH", "CCMH", "PLQ");
+
+    /**
+     * Fills the workplan for the selection and writes it to the stream as a PDF.
+     * The analyses are read a page at a time while the report is filled, so the
+     * whole workplan is never held in memory
+     *
+     * @param sysUserId if not null only the tests the user may enter results
+     *                  for are printed
+     */
+    void writeWorkplanPdf(WorkplanSelection selection, IWorkplanReport workplanReport, String sysUserId,
+            OutputStream out) throws JRException;
+
+    /**
+     * @return the workplan pre-generated for the test section, or null if there is
+     *         none, it is older than the configured maximum age or the user may
+     *         not enter results for the section
+     */
+    File getPregeneratedTestSectionWorkplan(String testSectionId, String sysUserId);
+
+    /** Generates the workplan of every active test section ahead of the shift */
+    void pregenerateTestSectionWorkplans();
+}
@@ -0,0 +1,318 @@
+package org.openelisglobal.workplan.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import org.apache.commons.validator.GenericValidator;
+import org.openelisglobal.common.constants.Constants;
+import org.openelisglobal.common.exception.LIMSRuntimeException;
+import org.openelisglobal.common.formfields.FormFields;
+import org.openelisglobal.common.formfields.FormFields.Field;
+import org.openelisglobal.common.log.LogEvent;
+import org.openelisglobal.common.services.IStatusService;
+import org.openelisglobal.common.services.StatusService.AnalysisStatus;
+import org.openelisglobal.common.util.ConfigurationProperties;
+import org.openelisglobal.common.util.ConfigurationProperties.Property;
+import org.openelisglobal.common.util.DateUtil;
+import org.openelisglobal.common.util.IdValuePair;
+import org.openelisglobal.common.util.StringUtil;
+import org.openelisglobal.dictionary.service.DictionaryService;
+import org.openelisglobal.dictionary.valueholder.Dictionary;
+import org.openelisglobal.observationhistory.service.ObservationHistoryService;
+import org.openelisglobal.observationhistory.service.ObservationHistoryServiceImpl.ObservationType;
+import org.openelisglobal.patient.service.PatientService;
+import org.openelisglobal.patient.valueholder.Patient;
+import org.openelisglobal.role.service.RoleService;
+import org.openelisglobal.sample.valueholder.Sample;
+import org.openelisglobal.samplehuman.service.SampleHumanService;
+import org.openelisglobal.systemuser.service.UserService;
+import org.openelisglobal.test.service.TestSectionService;
+import org.openelisglobal.test.service.TestService;
+import org.openelisglobal.test.service.TestServiceImpl;
+import org.openelisglobal.test.valueholder.Test;
+import org.openelisglobal.test.valueholder.TestSection;
+import org.openelisglobal.typeofsample.service.TypeOfSampleService;
+import org.openelisglobal.typeoftestresult.service.TypeOfTestResultServiceImpl.ResultType;
+import org.openelisglobal.workplan.dao.WorkplanDAO;
+import org.openelisglobal.workplan.reports.IWorkplanReport;
+import org.openelisglobal.workplan.reports.TestSectionWorkplanReport;
+import org.openelisglobal.workplan.reports.WorkplanRowDataSource;
+import org.openelisglobal.workplan.valueholder.WorkplanRow;
+import org.openelisglobal.workplan.valueholder.WorkplanSelection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class WorkplanReportServiceImpl implements WorkplanReportService {
+
+    private static final String PATIENT_NAME_CONFIGURATION = "Haiti LNSP";
+
+    @Autowired
+    private WorkplanDAO workplanDAO;
+    @Autowired
+    private IStatusService statusService;
+    @Autowired
+    private TestService testService;
+    @Autowired
+    private TestSectionService testSectionService;
+    @Autowired
+    private TypeOfSampleService typeOfSampleService;
+    @Autowired
+    private DictionaryService dictionaryService;
+    @Autowired
+    private SampleHumanService sampleHumanService;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private ObservationHistoryService observationHistoryService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RoleService roleService;
+
+    @Value("${org.openelisglobal.workplan.pageSize:500}")
+    private int pageSize;
+
+    @Value("${org.openelisglobal.workplan.virtualizer.maxPages:50}")
+    private int virtualizerMaxPages;
+
+    @Value("${org.openelisglobal.workplan.pregenerate.dir:/var/lib/openelis-global/workplans}")
+    private String pregenerateDir;
+
+    @Value("${org.openelisglobal.workplan.pregenerate.maxAge:43200000}")
+    private long pregenerateMaxAge;
+
+    private volatile List<Integer> statusIds;
+    private volatile List<String> nfsTestIds;
+    private String reportPath;
+
+    @Override
+    public void writeWorkplanPdf(WorkplanSelection selection, IWorkplanReport workplanReport, String sysUserId,
+            OutputStream out) throws JRException {
+        boolean testSectionReport = workplanReport instanceof TestSectionWorkplanReport;
+        boolean patientNameRows = testSectionReport && isPatientNameAdded();
+
+        WorkplanRowDataSource dataSource = new WorkplanRowDataSource(
+                (after, size) -> workplanDAO.getRows(selection, getStatusIds(), after, size), pageSize,
+                rows -> decorateSampleRows(rows, patientNameRows));
+        if (sysUserId != null) {
+            Set<String> allowedTestIds = getResultsTestIds(sysUserId);
+            dataSource.setRowFilter(row -> allowedTestIds.contains(row.getTestId()));
+        }
+        if (selection.getTestSectionId() != null) {
+            dataSource.setNfsTestIds(getNfsTestIds());
+        }
+        dataSource.setPatientNameRows(patientNameRows);
+
+        workplanReport.setReportPath(getReportPath());
+        HashMap<String, Object> parameterMap = workplanReport.getParameters();
+        JRSwapFileVirtualizer virtualizer = new JRSwapFileVirtualizer(virtualizerMaxPages,
+                new JRSwapFile(System.getProperty("java.io.tmpdir"), 4096, 100), true);
+        parameterMap.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+        try {
+            JasperPrint print = JasperFillManager
+                    .fillReport(getReportPath() + workplanReport.getFileName() + ".jasper", parameterMap, dataSource);
+            JasperExportManager.exportReportToPdfStream(print, out);
+        } finally {
+            virtualizer.cleanup();
+        }
+    }
+
+    @Override
+    public File getPregeneratedTestSectionWorkplan(String testSectionId, String sysUserId) {
+        if (!getResultsTestSectionIds(sysUserId).contains(Integer.valueOf(testSectionId))) {
+            return null;
+        }
+        File workplan = getPregeneratedPath(testSectionId).toFile();
+        if (!workplan.isFile() || System.currentTimeMillis() - workplan.lastModified() > pregenerateMaxAge) {
+            return null;
+        }
+        return workplan;
+    }
+
+    @Override
+    @Scheduled(cron = "${org.openelisglobal.workplan.pregenerate.cron:-}")
+    public void pregenerateTestSectionWorkplans() {
+        for (TestSection testSection : testSectionService.getAllActiveTestSections()) {
+            Path tempFile = null;
+            try {
+                Files.createDirectories(Paths.get(pregenerateDir));
+                tempFile = Files.createTempFile(Paths.get(pregenerateDir), "section-" + testSection.getId(), ".tmp");
+                try (OutputStream out = Files.newOutputStream(tempFile)) {
+                    writeWorkplanPdf(WorkplanSelection.forTestSection(testSection.getId()),
+                            new TestSectionWorkplanReport(testSection.getLocalizedName()), null, out);
+                }
+                Files.move(tempFile, getPregeneratedPath(testSection.getId()), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | JRException | LIMSRuntimeException e) {
+                LogEvent.logError(this.getClass().getSimpleName(), "pregenerateTestSectionWorkplans",
+                        "could not pre-generate the workplan of test section " + testSection.getId() + ": "
+                                + e.getMessage());
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    private Path getPregeneratedPath(String testSectionId) {
+        return Paths.get(pregenerateDir, "section-" + testSectionId + ".pdf");
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LogEvent.logError(e);
+            }
+        }
+    }
+
+    private void decorateSampleRows(List<WorkplanRow> rows, boolean patientNameRows) {
+        WorkplanRow firstRow = rows.get(0);
+        String sampleId = firstRow.getSampleId();
+        Patient patient = null;
+        boolean printSubjectNumber = ConfigurationProperties.getInstance()
+                .isPropertyValueEqual(Property.SUBJECT_ON_WORKPLAN, "true");
+        if (printSubjectNumber || patientNameRows) {
+            Sample sample = new Sample();
+            sample.setId(sampleId);
+            patient = sampleHumanService.getPatientForSample(sample);
+        }
+        String subjectNumber = printSubjectNumber ? patientService.getSubjectNumber(patient) : "";
+        String patientName = patientNameRows ? getPatientName(patient, sampleId) : "";
+        String nextVisit = observationHistoryService.getValueForSample(ObservationType.NEXT_VISIT_DATE, sampleId);
+        String receivedDate = getReceivedDateDisplay(firstRow.getReceivedTimestamp());
+
+        String variableSampleTypeId = typeOfSampleService.getTypeOfSampleIdForLocalAbbreviation("Variable");
+        for (WorkplanRow row : rows) {
+            row.setTestName(getTestDisplayName(row, variableSampleTypeId));
+            row.setReceivedDate(receivedDate);
+            row.setPatientInfo(subjectNumber);
+            row.setPatientName(patientName);
+            row.setNextVisitDate(nextVisit);
+        }
+    }
+
+    // the name AnalysisService.getTestDisplayName gives, from the row's columns
+    private String getTestDisplayName(WorkplanRow row, String variableSampleTypeId) {
+        String name = TestServiceImpl.getLocalizedTestNameWithType(row.getTestId());
+        if (row.getTypeOfSampleId().equals(variableSampleTypeId)) {
+            name += "(" + row.getSampleTypeName() + ")";
+        }
+        if (ResultType.isMultiSelectVariant(row.getParentResultType())) {
+            Dictionary dictionary = dictionaryService.getDictionaryById(row.getParentResultValue());
+            if (dictionary != null) {
+                String parentResult = dictionary.getLocalAbbreviation();
+                if (GenericValidator.isBlankOrNull(parentResult)) {
+                    parentResult = dictionary.getDictEntry();
+                }
+                name = parentResult + " &rarr; " + name;
+            }
+        }
+        return name;
+    }
+
+    private String getPatientName(Patient patient, String sampleId) {
+        List<String> values = new ArrayList<>();
+        String lastName = patientService.getLastName(patient);
+        values.add(lastName == null ? "" : lastName.toUpperCase());
+        values.add(patientService.getNationalId(patient));
+        String referringPatientId = observationHistoryService.getValueForSample(ObservationType.REFERRERS_PATIENT_ID,
+                sampleId);
+        values.add(referringPatientId == null ? "" : referringPatientId);
+        return StringUtil.buildDelimitedStringFromList(values, " / ", true);
+    }
+
+    private String getReceivedDateDisplay(Timestamp receivedTimestamp) {
+        if (receivedTimestamp == null) {
+            return null;
+        }
+        String receivedDate = DateUtil.convertTimestampToStringDate(receivedTimestamp);
+        if (FormFields.getInstance().useField(Field.SampleEntryUseReceptionHour)) {
+            receivedDate += " " + DateUtil.convertTimestampToStringConfiguredHourTime(receivedTimestamp);
+        }
+        return receivedDate;
+    }
+
+    private boolean isPatientNameAdded() {
+        return ConfigurationProperties.getInstance().isPropertyValueEqual(Property.configurationName,
+                PATIENT_NAME_CONFIGURATION);
+    }
+
+    private List<Integer> getResultsTestSectionIds(String sysUserId) {
+        String resultsRoleId = roleService.getRoleByName(Constants.ROLE_RESULTS).getId();
+        List<IdValuePair> testSections = userService.getUserTestSections(sysUserId, resultsRoleId);
+        List<Integer> testSectionIds = new ArrayList<>();
+        if (testSections != null) {
+            testSections.forEach(testSection -> testSectionIds.add(Integer.valueOf(testSection.getId())));
+        }
+        return testSectionIds;
+    }
+
+    private Set<String> getResultsTestIds(String sysUserId) {
+        Set<String> testIds = new HashSet<>();
+        for (Test test : testService.getTestsByTestSectionIds(getResultsTestSectionIds(sysUserId))) {
+            testIds.add(test.getId());
+        }
+        return testIds;
+    }
+
+    private List<Integer> getStatusIds() {
+        if (statusIds == null) {
+            List<Integer> ids = new ArrayList<>();
+            ids.add(Integer.parseInt(statusService.getStatusID(AnalysisStatus.NotStarted)));
+            ids.add(Integer.parseInt(statusService.getStatusID(AnalysisStatus.BiologistRejected)));
+            ids.add(Integer.parseInt(statusService.getStatusID(AnalysisStatus.TechnicalRejected)));
+            ids.add(Integer.parseInt(statusService.getStatusID(AnalysisStatus.NonConforming_depricated)));
+            statusIds = ids;
+        }
+        return statusIds;
+    }
+
+    private List<String> getNfsTestIds() {
+        if (nfsTestIds == null) {
+            List<String> ids = new ArrayList<>();
+            for (String nfsTestName : NFS_TEST_NAMES) {
+                Test test = testService.getTestByLocalizedName(nfsTestName);
+                ids.add(test == null ? null : test.getId());
+            }
+            nfsTestIds = ids;
+        }
+        return nfsTestIds;
+    }
+
+    private synchronized String getReportPath() {
+        if (reportPath == null) {
+            String path = getClass().getClassLoader().getResource("reports").getPath();
+            try {
+                path = URLDecoder.decode(path, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                LogEvent.logError(e);
+                throw new LIMSRuntimeException(e);
+            }
+            reportPath = path.endsWith(File.separator) ? path : path + File.separator;
+        }
+        return reportPath;
+    }
+}
@@ -0,0 +1,139 @@
+package org.openelisglobal.workplan.valueholder;
+
+import java.sql.Timestamp;
+
+/**
+ * One line of a printed workplan. The key columns are read by the paged
+ * workplan query; the display values are filled in once the rows of a sample
+ * have been read.
+ */
+public class WorkplanRow {
+
+    private String analysisId;
+    private String sampleId;
+    private String accessionNumber;
+    private Timestamp receivedTimestamp;
+    private String testId;
+    private String typeOfSampleId;
+    private String sampleTypeName;
+    private String parentResultType;
+    private String parentResultValue;
+
+    private String testName;
+    private String receivedDate;
+    private String patientInfo;
+    private String patientName;
+    private String nextVisitDate;
+
+    public String getAnalysisId() {
+        return analysisId;
+    }
+
+    public void setAnalysisId(String analysisId) {
+        this.analysisId = analysisId;
+    }
+
+    public String getSampleId() {
+        return sampleId;
+    }
+
+    public void setSampleId(String sampleId) {
+        this.sampleId = sampleId;
+    }
+
+    public String getAccessionNumber() {
+        return accessionNumber;
+    }
+
+    public void setAccessionNumber(String accessionNumber) {
+        this.accessionNumber = accessionNumber;
+    }
+
+    public Timestamp getReceivedTimestamp() {
+        return receivedTimestamp;
+    }
+
+    public void setReceivedTimestamp(Timestamp receivedTimestamp) {
+        this.receivedTimestamp = receivedTimestamp;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public void setTestId(String testId) {
+        this.testId = testId;
+    }
+
+    public String getTypeOfSampleId() {
+        return typeOfSampleId;
+    }
+
+    public void setTypeOfSampleId(String typeOfSampleId) {
+        this.typeOfSampleId = typeOfSampleId;
+    }
+
+    public String getSampleTypeName() {
+        return sampleTypeName;
+    }
+
+    public void setSampleTypeName(String sampleTypeName) {
+        this.sampleTypeName = sampleTypeName;
+    }
+
+    public String getParentResultType() {
+        return parentResultType;
+    }
+
+    public void setParentResultType(String parentResultType) {
+        this.parentResultType = parentResultType;
+    }
+
+    public String getParentResultValue() {
+        return parentResultValue;
+    }
+
+    public void setParentResultValue(String parentResultValue) {
+        this.parentResultValue = parentResultValue;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public void setTestName(String testName) {
+        this.testName = testName;
+    }
+
+    public String getReceivedDate() {
+        return receivedDate;
+    }
+
+    public void setReceivedDate(String receivedDate) {
+        this.receivedDate = receivedDate;
+    }
+
+    public String getPatientInfo() {
+        return patientInfo;
+    }
+
+    public void setPatientInfo(String patientInfo) {
+        this.patientInfo = patientInfo;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public void setPatientName(String patientName) {
+        this.patientName = patientName;
+    }
+
+    public String getNextVisitDate() {
+        return nextVisitDate;
+    }
+
+    public void setNextVisitDate(String nextVisitDate) {
+        this.nextVisitDate = nextVisitDate;
+    }
+}
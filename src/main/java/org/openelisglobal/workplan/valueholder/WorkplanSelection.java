@@ -0,0 +1,38 @@
+package org.openelisglobal.workplan.valueholder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The analyses a workplan is for: those of a test section or of a set of tests */
+public class WorkplanSelection {
+
+    private final String testSectionId;
+    private final List<String> testIds;
+
+    private WorkplanSelection(String testSectionId, List<String> testIds) {
+        this.testSectionId = testSectionId;
+        this.testIds = testIds;
+    }
+
+    public static WorkplanSelection forTestSection(String testSectionId) {
+        return new WorkplanSelection(testSectionId, null);
+    }
+
+    public static WorkplanSelection forTests(List<String> testIds) {
+        return new WorkplanSelection(null, new ArrayList<>(testIds));
+    }
+
+    /** @return the test section id, or null if the workplan is for a set of tests */
+    public String getTestSectionId() {
+        return testSectionId;
+    }
+
+    /** @return the test ids, or null if the workplan is for a test section */
+    public List<String> getTestIds() {
+        return testIds;
+    }
+
+    public boolean isEmpty() {
+        return testSectionId == null && (testIds == null || testIds.isEmpty());
+    }
+}
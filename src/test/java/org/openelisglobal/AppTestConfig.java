@@ -19,6 +19,7 @@ import org.openelisglobal.common.services.SampleOrderService;
 import org.openelisglobal.common.util.Versioning;
 import org.openelisglobal.dataexchange.fhir.FhirConfig;
 import org.openelisglobal.dataexchange.fhir.FhirUtil;
+import org.openelisglobal.dataexchange.fhir.service.FhirOutboxService;
 import org.openelisglobal.dataexchange.fhir.service.FhirPersistanceService;
 import org.openelisglobal.dataexchange.fhir.service.FhirTransformService;
 import org.openelisglobal.externalconnections.service.BasicAuthenticationDataService;
@@ -93,7 +94,9 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
         "org.openelisglobal.testcalculated", "org.openelisglobal.odoo", "org.openelisglobal.ocl",
         "org.openelisglobal.storage", "org.openelisglobal.notebook", "org.openelisglobal.storage",
         "org.openelisglobal.coldstorage", "org.openelisglobal.alert", "org.openelisglobal.notification",
-        "org.openelisglobal.scheduler" }, excludeFilters = {
+        "org.openelisglobal.scheduler", "org.openelisglobal.blobstore",
+        "org.openelisglobal.metricservice", "org.openelisglobal.resultvalidation.service",
+        "org.openelisglobal.resultvalidation.dao", "org.openelisglobal.common.paging" }, excludeFilters = {
                 @ComponentScan.Filter(type = FilterType.REGEX, pattern = "org.openelisglobal.patient.controller.*"),
                 @ComponentScan.Filter(type = FilterType.REGEX, pattern = "org.openelisglobal.organization.controller.*"),
                 @ComponentScan.Filter(type = FilterType.REGEX, pattern = "org.openelisglobal.sample.controller.*"),
@@ -166,6 +169,12 @@ public class AppTestConfig implements WebMvcConfigurer {
         return mock(FhirTransformService.class);
     }
 
+    @Bean()
+    @Profile("test")
+    public FhirOutboxService fhirOutboxService() {
+        return mock(FhirOutboxService.class);
+    }
+
     @Bean()
     @Profile("test")
     public ExternalConnectionService externalConnectService() {
@@ -2,6 +2,7 @@ package org.openelisglobal.analysis;
 
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashSet;
@@ -89,6 +90,17 @@ public class AnalysisServiceTest extends BaseWebContextSensitiveTest {
         Assert.assertEquals("ROUTINE", analyses.get(0).getAnalysisType());
     }
 
+    @Test
+    public void forEachAnalysisStartedOrCompletedInDateRange_shouldPassAnalysisStartedOrCompletedInDateRange()
+            throws Exception {
+        Date sqlDayOne = Date.valueOf("2023-11-15");
+        Date sqlDayTwo = Date.valueOf("2023-11-16");
+        List<String> analysisTypes = new ArrayList<>();
+        aService.forEachAnalysisStartedOrCompletedInDateRange(sqlDayOne, sqlDayTwo,
+                analysis -> analysisTypes.add(analysis.getAnalysisType()));
+        Assert.assertEquals(List.of("ROUTINE"), analysisTypes);
+    }
+
     @Test
     public void getAnalysesBySampleIdExcludedByStatusId_shouldReturnAnalysis() throws Exception {
         Set<Integer> statusIds = new HashSet<>();
@@ -0,0 +1,86 @@
+package org.openelisglobal.barcode.printerlanguage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import org.junit.Test;
+import org.openelisglobal.barcode.BarcodeLabelMaker.BarcodeType;
+import org.openelisglobal.barcode.LabelField;
+import org.openelisglobal.barcode.labeltype.Label;
+
+public class PrinterLanguageLabelWriterTest {
+
+    private static class TestLabel extends Label {
+
+        TestLabel(String code, String site) {
+            setWidth(50.8f);
+            setHeight(25.4f);
+            ArrayList<LabelField> fields = new ArrayList<>();
+            LabelField siteField = new LabelField("Site", site, 10);
+            siteField.setDisplayFieldName(true);
+            fields.add(siteField);
+            fields.add(new LabelField("Name", "", 10));
+            setAboveFields(fields);
+            setBelowFields(new ArrayList<>());
+            setCode(code);
+        }
+
+        @Override
+        public int getNumTextRowsBefore() {
+            return 1;
+        }
+
+        @Override
+        public int getNumTextRowsAfter() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxNumLabels() {
+            return 10;
+        }
+    }
+
+    @Test
+    public void write_shouldSubstituteLabelValuesIntoZplTemplate() throws IOException {
+        PrinterLanguageLabelWriter writer = new PrinterLanguageLabelWriter(PrinterLanguage.ZPL,
+                BarcodeType.BARCODE, 203);
+        StringWriter out = new StringWriter();
+
+        writer.write(out, new TestLabel("25-000123", "Central ^Lab"), 3);
+
+        String zpl = out.toString();
+        assertTrue(zpl.startsWith("^XA^CI28^LH0,0^PW406^LL203\n"));
+        assertTrue(zpl.contains("^FH^FDSite: Central _5ELab^FS"));
+        assertTrue(zpl.contains("^BCN,"));
+        assertTrue(zpl.contains("^FH^FD25-000123^FS"));
+        assertTrue(zpl.endsWith("^PQ3^XZ\n"));
+    }
+
+    @Test
+    public void getTemplate_shouldReuseTemplateForLabelsWithSameLayout() {
+        PrinterLanguageLabelWriter writer = new PrinterLanguageLabelWriter(PrinterLanguage.EPL, BarcodeType.BARCODE,
+                203);
+
+        assertSame(writer.getTemplate(new TestLabel("25-000001", "North")),
+                writer.getTemplate(new TestLabel("25-000002", "South")));
+    }
+
+    @Test
+    public void write_shouldEscapeQuotesInEpl() throws IOException {
+        PrinterLanguageLabelWriter writer = new PrinterLanguageLabelWriter(PrinterLanguage.EPL, BarcodeType.QR, 203);
+        StringWriter out = new StringWriter();
+
+        writer.write(out, new TestLabel("25-000123", "\"Main\" site"), 1);
+
+        String epl = out.toString();
+        assertTrue(epl.contains(",N,\"Site: \\\"Main\\\" site\"\n"));
+        // EPL has no QR code so a Code 128 bar code is printed
+        assertTrue(epl.contains(",N,\"25-000123\"\n"));
+        assertEquals("P1\n", epl.substring(epl.length() - 3));
+    }
+}
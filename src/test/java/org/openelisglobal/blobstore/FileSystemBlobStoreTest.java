@@ -0,0 +1,70 @@
+package org.openelisglobal.blobstore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.Resource;
+
+public class FileSystemBlobStoreTest {
+
+    // sha-256 of "slide image"
+    private static final String CONTENT_HASH = "2d1e617791cd4d0091865fcdfe1bce387fe69825cbda5c2ed6c2cb8e0d3c7465";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileSystemBlobStore blobStore;
+
+    @Before
+    public void setUp() {
+        blobStore = new FileSystemBlobStore(folder.getRoot().getAbsolutePath());
+    }
+
+    @Test
+    public void put_shouldStoreContentUnderItsHash() throws IOException {
+        byte[] content = "slide image".getBytes(StandardCharsets.UTF_8);
+
+        String hash = blobStore.put(content);
+
+        assertEquals(CONTENT_HASH, hash);
+        assertTrue(blobStore.exists(hash));
+        Resource resource = blobStore.get(hash);
+        assertEquals(content.length, resource.contentLength());
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertTrue(Files.isRegularFile(
+                folder.getRoot().toPath().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash)));
+    }
+
+    @Test
+    public void put_shouldKeepOneCopy_WhenSameContentIsStoredTwice() throws IOException {
+        String first = blobStore.put("slide image".getBytes(StandardCharsets.UTF_8));
+        String second = blobStore.put("slide image".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.walk(folder.getRoot().toPath())) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void get_shouldReturnNull_WhenHashIsUnknownOrInvalid() {
+        assertNull(blobStore.get(CONTENT_HASH));
+        assertNull(blobStore.get("../../etc/passwd"));
+        assertFalse(blobStore.exists(null));
+    }
+}
@@ -0,0 +1,77 @@
+package org.openelisglobal.common.daoimpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class BaseDAOImplStreamTest {
+
+    private BaseDAOImpl<Analysis, String> dao;
+    private Session session;
+    private ScrollableResults results;
+    private Query<Analysis> query;
+    private List<Analysis> analyses;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        dao = new BaseDAOImpl<>(Analysis.class) {
+        };
+        EntityManager entityManager = mock(EntityManager.class);
+        session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        ReflectionTestUtils.setField(dao, "entityManager", entityManager);
+        ReflectionTestUtils.setField(dao, "streamFetchSize", 500);
+        ReflectionTestUtils.setField(dao, "streamClearInterval", 2);
+
+        analyses = List.of(new Analysis(), new Analysis(), new Analysis());
+        results = mock(ScrollableResults.class);
+        when(results.next()).thenReturn(true, true, true, false);
+        when(results.get(0)).thenReturn(analyses.get(0), analyses.get(1), analyses.get(2));
+        query = mock(Query.class);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(results);
+    }
+
+    @Test
+    public void stream_shouldClearTheSessionEveryClearIntervalRowsInAReadOnlyTransaction() {
+        when(session.isDefaultReadOnly()).thenReturn(true);
+
+        List<Analysis> streamed;
+        try (Stream<Analysis> stream = dao.stream(query)) {
+            streamed = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(analyses, streamed);
+        verify(query).setFetchSize(500);
+        verify(session, times(1)).clear();
+        verify(results).close();
+    }
+
+    @Test
+    public void stream_shouldLeaveTheSessionAloneOutsideAReadOnlyTransaction() {
+        when(session.isDefaultReadOnly()).thenReturn(false);
+
+        try (Stream<Analysis> stream = dao.stream(query)) {
+            assertEquals(3, stream.count());
+        }
+
+        verify(session, never()).clear();
+        verify(results).close();
+    }
+}
@@ -0,0 +1,48 @@
+package org.openelisglobal.common.provider.query;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class PatientSearchRelevanceComparatorTest {
+
+    @Test
+    public void matchRank_shouldRankExactPrefixContainsAndMissing() {
+        assertEquals(PatientSearchRelevanceComparator.EXACT_MATCH,
+                PatientSearchRelevanceComparator.matchRank("Doe", "doe"));
+        assertEquals(PatientSearchRelevanceComparator.PREFIX_MATCH,
+                PatientSearchRelevanceComparator.matchRank("Doeson", "doe"));
+        assertEquals(PatientSearchRelevanceComparator.CONTAINS_MATCH,
+                PatientSearchRelevanceComparator.matchRank("Mcdoe", "doe"));
+        assertEquals(PatientSearchRelevanceComparator.NO_MATCH,
+                PatientSearchRelevanceComparator.matchRank("Smith", "doe"));
+        assertEquals(PatientSearchRelevanceComparator.NO_MATCH,
+                PatientSearchRelevanceComparator.matchRank(null, "doe"));
+        assertEquals(PatientSearchRelevanceComparator.EXACT_MATCH,
+                PatientSearchRelevanceComparator.matchRank("Smith", null));
+    }
+
+    @Test
+    public void compare_shouldOrderByRankThenNameThenId() {
+        PatientSearchResults contains = createResult(1, "John", "Mcdoe");
+        PatientSearchResults prefix = createResult(2, "John", "Doeson");
+        PatientSearchResults exactLaterId = createResult(4, "John", "Doe");
+        PatientSearchResults exact = createResult(3, "John", "Doe");
+        PatientSearchResults exactOtherFirstName = createResult(5, "Adam", "DOE");
+
+        List<PatientSearchResults> results = new ArrayList<>(
+                Arrays.asList(contains, prefix, exactLaterId, exact, exactOtherFirstName));
+        results.sort(new PatientSearchRelevanceComparator("doe", null, null));
+
+        assertEquals(Arrays.asList(exactOtherFirstName, exact, exactLaterId, prefix, contains), results);
+    }
+
+    private PatientSearchResults createResult(long id, String firstName, String lastName) {
+        return new PatientSearchResults(BigDecimal.valueOf(id), firstName, lastName, "M", null, null, null, null,
+                null, null, null);
+    }
+}
@@ -0,0 +1,69 @@
+package org.openelisglobal.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.function.LongSupplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.common.provider.validation.AccessionNumberValidatorFactory.AccessionFormat;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AccessionNumberBlockAllocatorTest {
+
+    private static final LongSupplier NO_NUMBERS_IN_USE = () -> 0L;
+
+    private AccessionService accessionService;
+    private AccessionNumberBlockAllocator allocator;
+
+    @Before
+    public void setup() {
+        accessionService = mock(AccessionService.class);
+        allocator = new AccessionNumberBlockAllocator();
+        ReflectionTestUtils.setField(allocator, "accessionService", accessionService);
+        ReflectionTestUtils.setField(allocator, "blockSize", 3);
+    }
+
+    @Test
+    public void nextNumber_shouldReserveOneBlockPerBlockSizeNumbers() {
+        when(accessionService.reserveNumberBlock(eq("26"), eq(AccessionFormat.YEARNUM_SIX), eq(3), any()))
+                .thenReturn(3L, 6L);
+
+        for (long expected = 1; expected <= 6; expected++) {
+            assertEquals(expected, allocator.nextNumber("26", AccessionFormat.YEARNUM_SIX, NO_NUMBERS_IN_USE));
+        }
+        verify(accessionService, times(2)).reserveNumberBlock(eq("26"), eq(AccessionFormat.YEARNUM_SIX), eq(3),
+                any());
+    }
+
+    @Test
+    public void nextNumber_shouldKeepSeparateBlocksPerPrefix() {
+        when(accessionService.reserveNumberBlock(eq("25"), eq(AccessionFormat.YEARNUM_SIX), anyInt(), any()))
+                .thenReturn(42L);
+        when(accessionService.reserveNumberBlock(eq("26"), eq(AccessionFormat.YEARNUM_SIX), anyInt(), any()))
+                .thenReturn(3L);
+
+        assertEquals(40L, allocator.nextNumber("25", AccessionFormat.YEARNUM_SIX, NO_NUMBERS_IN_USE));
+        assertEquals(1L, allocator.nextNumber("26", AccessionFormat.YEARNUM_SIX, NO_NUMBERS_IN_USE));
+        assertEquals(41L, allocator.nextNumber("25", AccessionFormat.YEARNUM_SIX, NO_NUMBERS_IN_USE));
+    }
+
+    @Test
+    public void peekNextNumber_shouldNotConsumeTheReservedBlock() {
+        when(accessionService.reserveNumberBlock(eq("26"), eq(AccessionFormat.YEARNUM_SIX), anyInt(), any()))
+                .thenReturn(3L);
+
+        assertEquals(1L, allocator.nextNumber("26", AccessionFormat.YEARNUM_SIX, NO_NUMBERS_IN_USE));
+        assertEquals(2L, allocator.peekNextNumber("26", AccessionFormat.YEARNUM_SIX, NO_NUMBERS_IN_USE));
+        assertEquals(2L, allocator.nextNumber("26", AccessionFormat.YEARNUM_SIX, NO_NUMBERS_IN_USE));
+        verify(accessionService, never()).getNextNumberNoIncrement(eq("26"), eq(AccessionFormat.YEARNUM_SIX),
+                any(LongSupplier.class));
+    }
+}
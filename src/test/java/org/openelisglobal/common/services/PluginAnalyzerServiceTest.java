@@ -0,0 +1,154 @@
+package org.openelisglobal.common.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.plugin.AnalyzerImporterPlugin;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PluginAnalyzerServiceTest {
+
+    private static final List<String> ASTM_MESSAGE = Arrays.asList("H|\\^&|||GeneXpert^4.7|||||LIS||P|1394-97",
+            "P|1", "O|1|SPEC-1", "R|1|^^^HIV|40|cp/mL", "L|1|N");
+
+    private PluginAnalyzerService service;
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        service = new PluginAnalyzerService();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(service, "registerInstance");
+    }
+
+    @Test
+    public void findTargetPlugin_shouldRouteBySignatureWithoutProbing() {
+        AnalyzerImporterPlugin unsigned = plugin();
+        AnalyzerImporterPlugin genexpert = plugin("GeneXpert");
+        service.registerAnalyzerPlugin(unsigned);
+        service.registerAnalyzerPlugin(genexpert);
+
+        assertSame(genexpert, service.findTargetPlugin(ASTM_MESSAGE));
+        verify(unsigned, never()).isTargetAnalyzer(any());
+        verify(genexpert, never()).isTargetAnalyzer(any());
+        assertEquals(1, dispatchCount("signature"));
+    }
+
+    @Test
+    public void findTargetPlugin_shouldProbeAllPluginsOnSignatureMiss() {
+        AnalyzerImporterPlugin failing = plugin();
+        AnalyzerImporterPlugin other = plugin("Cobas");
+        AnalyzerImporterPlugin target = plugin();
+        when(failing.isTargetAnalyzer(ASTM_MESSAGE)).thenThrow(new IllegalStateException("bad plugin"));
+        when(target.isTargetAnalyzer(ASTM_MESSAGE)).thenReturn(true);
+        service.registerAnalyzerPlugin(failing);
+        service.registerAnalyzerPlugin(other);
+        service.registerAnalyzerPlugin(target);
+
+        assertSame(target, service.findTargetPlugin(ASTM_MESSAGE));
+        assertEquals(1, dispatchCount("probe"));
+    }
+
+    @Test
+    public void findTargetPlugin_shouldProbeOnlyCandidatesWhenSignatureIsShared() {
+        AnalyzerImporterPlugin unsigned = plugin();
+        AnalyzerImporterPlugin first = plugin("GeneXpert");
+        AnalyzerImporterPlugin second = plugin("GeneXpert");
+        when(second.isTargetAnalyzer(ASTM_MESSAGE)).thenReturn(true);
+        service.registerAnalyzerPlugin(unsigned);
+        service.registerAnalyzerPlugin(first);
+        service.registerAnalyzerPlugin(second);
+
+        assertSame(second, service.findTargetPlugin(ASTM_MESSAGE));
+        verify(first).isTargetAnalyzer(ASTM_MESSAGE);
+        verify(unsigned, never()).isTargetAnalyzer(any());
+    }
+
+    @Test
+    public void findTargetPlugin_shouldAskCandidatesThatRejectedTheSignatureLast() {
+        AnalyzerImporterPlugin first = plugin("GeneXpert");
+        AnalyzerImporterPlugin second = plugin("GeneXpert");
+        when(second.isTargetAnalyzer(ASTM_MESSAGE)).thenReturn(true);
+        service.registerAnalyzerPlugin(first);
+        service.registerAnalyzerPlugin(second);
+
+        service.findTargetPlugin(ASTM_MESSAGE);
+        assertSame(second, service.findTargetPlugin(ASTM_MESSAGE));
+        verify(first).isTargetAnalyzer(ASTM_MESSAGE);
+        verify(second, times(2)).isTargetAnalyzer(ASTM_MESSAGE);
+    }
+
+    @Test
+    public void findTargetPlugin_shouldAskCandidatesThatRejectedTheSignatureWhenNoOtherMatches() {
+        AnalyzerImporterPlugin first = plugin("GeneXpert");
+        AnalyzerImporterPlugin second = plugin("GeneXpert");
+        when(first.isTargetAnalyzer(ASTM_MESSAGE)).thenReturn(false, true);
+        when(second.isTargetAnalyzer(ASTM_MESSAGE)).thenReturn(true, false);
+        service.registerAnalyzerPlugin(first);
+        service.registerAnalyzerPlugin(second);
+
+        assertSame(second, service.findTargetPlugin(ASTM_MESSAGE));
+        assertSame(first, service.findTargetPlugin(ASTM_MESSAGE));
+    }
+
+    @Test
+    public void findTargetPlugin_shouldSkipExcludedPlugins() {
+        AnalyzerImporterPlugin first = plugin("GeneXpert");
+        AnalyzerImporterPlugin second = plugin("GeneXpert");
+        when(first.isTargetAnalyzer(ASTM_MESSAGE)).thenReturn(true);
+        when(second.isTargetAnalyzer(ASTM_MESSAGE)).thenReturn(true);
+        service.registerAnalyzerPlugin(first);
+        service.registerAnalyzerPlugin(second);
+
+        assertSame(second, service.findTargetPlugin(ASTM_MESSAGE, Collections.singleton(first)));
+        assertNull(service.findTargetPlugin(ASTM_MESSAGE, new HashSet<>(Arrays.asList(first, second))));
+    }
+
+    @Test
+    public void findTargetPlugin_shouldReturnNullWhenNoPluginRecognizesMessage() {
+        service.registerAnalyzerPlugin(plugin());
+
+        assertNull(service.findTargetPlugin(ASTM_MESSAGE));
+        assertEquals(1, meterRegistry.get("openelis.analyzer.dispatch.duration").tag("analyzer", "none")
+                .tag("route", "miss").timer().count());
+    }
+
+    @Test
+    public void getHeaderSignature_shouldReadAstmSenderOrFirstLine() {
+        assertEquals("GeneXpert", PluginAnalyzerService.getHeaderSignature(ASTM_MESSAGE));
+        assertEquals("cobas", PluginAnalyzerService
+                .getHeaderSignature(Arrays.asList("\u00021H|\\^&|||cobas^1.0|", "2P|1")));
+        assertEquals("Sample ID,Test,Result",
+                PluginAnalyzerService.getHeaderSignature(Arrays.asList("", " Sample ID,Test,Result ", "1,HIV,40")));
+        assertNull(PluginAnalyzerService.getHeaderSignature(Arrays.asList("H|\\^&|||", "L|1")));
+        assertNull(PluginAnalyzerService.getHeaderSignature(Collections.emptyList()));
+    }
+
+    private AnalyzerImporterPlugin plugin(String... signatures) {
+        AnalyzerImporterPlugin plugin = mock(AnalyzerImporterPlugin.class);
+        when(plugin.getHeaderSignatures()).thenReturn(Arrays.asList(signatures));
+        return plugin;
+    }
+
+    private long dispatchCount(String route) {
+        Timer dispatches = meterRegistry.find("openelis.analyzer.dispatch.duration").tag("route", route).timer();
+        return dispatches == null ? 0 : dispatches.count();
+    }
+}
@@ -0,0 +1,25 @@
+package org.openelisglobal.common.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class RetryBackoffTest {
+
+    @Test
+    public void getDelayMillis_shouldUseTheBaseDelayForTheFirstAttempt() {
+        assertEquals(30000L, RetryBackoff.getDelayMillis(1, 30000L, 3600000L));
+    }
+
+    @Test
+    public void getDelayMillis_shouldDoubleTheDelayForEveryFurtherAttempt() {
+        assertEquals(60000L, RetryBackoff.getDelayMillis(2, 30000L, 3600000L));
+        assertEquals(240000L, RetryBackoff.getDelayMillis(4, 30000L, 3600000L));
+    }
+
+    @Test
+    public void getDelayMillis_shouldNotExceedTheMaximumDelay() {
+        assertEquals(3600000L, RetryBackoff.getDelayMillis(10, 30000L, 3600000L));
+        assertEquals(3600000L, RetryBackoff.getDelayMillis(Integer.MAX_VALUE, 30000L, 3600000L));
+    }
+}
@@ -0,0 +1,134 @@
+package org.openelisglobal.configuration.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ConfigurationInitializationServiceTest {
+
+    @Rule
+    public TemporaryFolder configurationDir = new TemporaryFolder();
+
+    private ConfigurationInitializationService service;
+    private List<String> loaded;
+
+    @Before
+    public void setup() {
+        service = new ConfigurationInitializationService();
+        loaded = Collections.synchronizedList(new ArrayList<>());
+        ReflectionTestUtils.setField(service, "configurationBaseDir", configurationDir.getRoot().getPath());
+        ReflectionTestUtils.setField(service, "autocreateOn", true);
+        ReflectionTestUtils.setField(service, "loadThreads", 4);
+    }
+
+    @Test
+    public void onApplicationEvent_shouldLoadIndependentHandlersTogether() throws Exception {
+        // each handler only finishes once the other has started
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        StubHandler first = new StubHandler("config-test-first", 100, Set.of(), bothStarted);
+        StubHandler second = new StubHandler("config-test-second", 200, Set.of(), bothStarted);
+        setHandlers(first, second);
+
+        service.onApplicationEvent(null);
+
+        assertTrue(first.completed);
+        assertTrue(second.completed);
+    }
+
+    @Test
+    public void onApplicationEvent_shouldLoadDependenciesFirst() throws Exception {
+        StubHandler tests = new StubHandler("config-test-tests", 200, Set.of("config-test-sections"), null);
+        StubHandler sections = new StubHandler("config-test-sections", 300, Set.of(), null);
+        StubHandler undeclared = new StubHandler("config-test-undeclared", 250, null, null);
+        setHandlers(tests, sections, undeclared);
+
+        service.onApplicationEvent(null);
+
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.indexOf("config-test-sections") < loaded.indexOf("config-test-tests"));
+        // without declared dependencies it waits for the lower load orders
+        assertEquals("config-test-undeclared", loaded.get(2));
+    }
+
+    @Test
+    public void onApplicationEvent_shouldStillLoadHandlersWithCircularDependencies() throws Exception {
+        StubHandler a = new StubHandler("config-test-a", 100, Set.of("config-test-b"), null);
+        StubHandler b = new StubHandler("config-test-b", 100, Set.of("config-test-a"), null);
+        setHandlers(a, b);
+
+        service.onApplicationEvent(null);
+
+        assertEquals(Arrays.asList("config-test-a", "config-test-b"), loaded);
+    }
+
+    private void setHandlers(StubHandler... handlers) throws IOException {
+        for (StubHandler handler : handlers) {
+            File domainDir = configurationDir.newFolder(handler.getDomainName());
+            Files.write(new File(domainDir, "config.csv").toPath(),
+                    handler.getDomainName().getBytes(StandardCharsets.UTF_8));
+        }
+        ReflectionTestUtils.setField(service, "domainHandlers", Arrays.asList(handlers));
+    }
+
+    private class StubHandler implements DomainConfigurationHandler {
+        private final String domainName;
+        private final int loadOrder;
+        private final Set<String> dependencies;
+        private final CountDownLatch bothStarted;
+        private volatile boolean completed;
+
+        private StubHandler(String domainName, int loadOrder, Set<String> dependencies, CountDownLatch bothStarted) {
+            this.domainName = domainName;
+            this.loadOrder = loadOrder;
+            this.dependencies = dependencies;
+            this.bothStarted = bothStarted;
+        }
+
+        @Override
+        public String getDomainName() {
+            return domainName;
+        }
+
+        @Override
+        public String getFileExtension() {
+            return "csv";
+        }
+
+        @Override
+        public int getLoadOrder() {
+            return loadOrder;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public void processConfiguration(InputStream inputStream, String fileName) throws Exception {
+            if (bothStarted != null) {
+                bothStarted.countDown();
+                completed = bothStarted.await(5, TimeUnit.SECONDS);
+            }
+            Thread.sleep(20);
+            loaded.add(domainName);
+        }
+    }
+}
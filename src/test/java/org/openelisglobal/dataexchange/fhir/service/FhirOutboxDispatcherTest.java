@@ -0,0 +1,119 @@
+package org.openelisglobal.dataexchange.fhir.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.openelisglobal.dataexchange.fhir.FhirOutboxMetrics;
+import org.openelisglobal.dataexchange.fhir.exception.FhirLocalPersistingException;
+import org.openelisglobal.dataexchange.fhir.valueholder.FhirOutboxEntry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class FhirOutboxDispatcherTest {
+
+    private FhirOutboxService outboxService;
+    private FhirTransformService fhirTransformService;
+    private MeterRegistry meterRegistry;
+    private FhirOutboxDispatcher dispatcher;
+    private List<List<String>> sentBundles;
+
+    @Before
+    public void setup() throws FhirLocalPersistingException {
+        outboxService = mock(FhirOutboxService.class);
+        fhirTransformService = mock(FhirTransformService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        sentBundles = new ArrayList<>();
+        when(outboxService.isOutboxEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            List<FhirOutboxEntry> entries = invocation.getArgument(0);
+            List<String> sampleIds = new ArrayList<>();
+            for (FhirOutboxEntry entry : entries) {
+                sampleIds.add(entry.getSampleId());
+            }
+            sentBundles.add(sampleIds);
+            if (entries.size() > 1 && sampleIds.contains("bad")) {
+                throw new FhirLocalPersistingException("bundle rejected");
+            } else if (sampleIds.equals(List.of("bad"))) {
+                throw new IllegalStateException("bad entry");
+            }
+            return null;
+        }).when(fhirTransformService).transformPersistResultChanges(any());
+
+        dispatcher = new FhirOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "outboxService", outboxService);
+        ReflectionTestUtils.setField(dispatcher, "fhirTransformService", fhirTransformService);
+        ReflectionTestUtils.setField(dispatcher, "outboxMetrics", new FhirOutboxMetrics(meterRegistry, outboxService));
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 3);
+        ReflectionTestUtils.setField(dispatcher, "bundleSize", 2);
+    }
+
+    @Test
+    public void dispatchPendingEntries_shouldSendClaimedEntriesInBundles() {
+        FhirOutboxEntry first = entry("1");
+        FhirOutboxEntry second = entry("2");
+        FhirOutboxEntry third = entry("3");
+        FhirOutboxEntry fourth = entry("4");
+        when(outboxService.claimDue(3)).thenReturn(List.of(first, second, third), List.of(fourth));
+
+        dispatcher.dispatchPendingEntries();
+
+        assertEquals(List.of(List.of("1", "2"), List.of("3"), List.of("4")), sentBundles);
+        verify(outboxService).markSent(List.of(first, second));
+        verify(outboxService).markSent(List.of(third));
+        verify(outboxService).markSent(List.of(fourth));
+        assertEquals(4.0, sendCount("sent"), 0);
+    }
+
+    @Test
+    public void dispatchPendingEntries_shouldRequeueExpiredClaimsBeforeClaiming() {
+        when(outboxService.claimDue(3)).thenReturn(List.of());
+
+        dispatcher.dispatchPendingEntries();
+
+        InOrder inOrder = inOrder(outboxService);
+        inOrder.verify(outboxService).requeueExpiredClaims();
+        inOrder.verify(outboxService).claimDue(3);
+    }
+
+    @Test
+    public void sendBundle_shouldSendEntriesOfARejectedBundleOneByOne() {
+        FhirOutboxEntry good = entry("good");
+        FhirOutboxEntry bad = entry("bad");
+
+        dispatcher.sendBundle(List.of(good, bad));
+
+        assertEquals(List.of(List.of("good", "bad"), List.of("good"), List.of("bad")), sentBundles);
+        verify(outboxService).markSent(List.of(good));
+        verify(outboxService).recordFailure(eq(bad), anyString());
+        verify(outboxService, never()).recordFailure(eq(good), anyString());
+        assertEquals(1.0, sendCount("failed"), 0);
+    }
+
+    private FhirOutboxEntry entry(String sampleId) {
+        FhirOutboxEntry entry = new FhirOutboxEntry();
+        entry.setSampleId(sampleId);
+        entry.setStatus(FhirOutboxEntry.Status.SENDING);
+        entry.setAttempts(1);
+        entry.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+        return entry;
+    }
+
+    private double sendCount(String outcome) {
+        return meterRegistry.get("openelis.fhir.outbox.sends").tag("outcome", outcome).counter().count();
+    }
+}
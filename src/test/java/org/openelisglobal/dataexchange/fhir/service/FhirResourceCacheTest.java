@@ -0,0 +1,101 @@
+package org.openelisglobal.dataexchange.fhir.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.Test;
+
+public class FhirResourceCacheTest {
+
+    private static final String SYSTEM = "http://openelis-global.org/pat_uuid";
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @Test
+    public void get_shouldSearchOnceAndReturnCopies() {
+        FhirResourceCache cache = new FhirResourceCache(10, 60000);
+
+        Patient first = cache.get(Patient.class, SYSTEM, "uuid-1", this::search).get();
+        first.getNameFirstRep().setFamily("Changed");
+        Patient second = cache.get(Patient.class, SYSTEM, "uuid-1", this::search).get();
+
+        assertEquals(1, searches.get());
+        assertNotSame(first, second);
+        assertEquals("Original", second.getNameFirstRep().getFamily());
+    }
+
+    @Test
+    public void get_shouldNotKeepResourcesThatWereNotFound() {
+        FhirResourceCache cache = new FhirResourceCache(10, 60000);
+
+        assertFalse(cache.get(Patient.class, SYSTEM, "uuid-1", () -> {
+            searches.incrementAndGet();
+            return Optional.empty();
+        }).isPresent());
+        cache.get(Patient.class, SYSTEM, "uuid-1", this::search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    public void evict_shouldDropResourcesWrittenByTransaction() {
+        FhirResourceCache cache = new FhirResourceCache(10, 60000);
+        cache.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        cache.get(Patient.class, SYSTEM, "uuid-2", this::search);
+
+        Bundle transactionBundle = new Bundle().setType(BundleType.TRANSACTION);
+        transactionBundle.addEntry().setResource(patient("uuid-1"));
+        cache.evict(transactionBundle);
+        cache.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        cache.get(Patient.class, SYSTEM, "uuid-2", this::search);
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    public void evictResource_shouldDropTheResourceWrittenDirectly() {
+        FhirResourceCache cache = new FhirResourceCache(10, 60000);
+        cache.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        cache.get(Patient.class, SYSTEM, "uuid-2", this::search);
+
+        cache.evictResource(patient("uuid-1"));
+        cache.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        cache.get(Patient.class, SYSTEM, "uuid-2", this::search);
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    public void get_shouldSearchAgainOnceExpiredOrEvictedForSize() throws InterruptedException {
+        FhirResourceCache expiring = new FhirResourceCache(10, 20);
+        expiring.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        Thread.sleep(40);
+        expiring.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        assertEquals(2, searches.get());
+
+        FhirResourceCache small = new FhirResourceCache(1, 60000);
+        small.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        small.get(Patient.class, SYSTEM, "uuid-2", this::search);
+        small.get(Patient.class, SYSTEM, "uuid-1", this::search);
+        assertEquals(5, searches.get());
+        assertEquals(1, small.size());
+    }
+
+    private Optional<Patient> search() {
+        searches.incrementAndGet();
+        return Optional.of(patient("uuid-" + searches.get()));
+    }
+
+    private Patient patient(String uuid) {
+        Patient patient = new Patient();
+        patient.addIdentifier().setSystem(SYSTEM).setValue(uuid);
+        patient.addName().setFamily("Original");
+        return patient;
+    }
+}
@@ -0,0 +1,51 @@
+package org.openelisglobal.dataexchange.order.action;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.dataexchange.order.action.IOrderExistanceChecker.CheckResult;
+
+public class PreloadedOrderExistanceCheckerTest {
+
+    private IOrderExistanceChecker delegate;
+    private PreloadedOrderExistanceChecker checker;
+
+    @Before
+    public void setup() {
+        delegate = mock(IOrderExistanceChecker.class);
+        Map<String, CheckResult> preloaded = new HashMap<>();
+        preloaded.put("ORDER-1", CheckResult.NOT_FOUND);
+        preloaded.put("ORDER-2", CheckResult.ORDER_FOUND_INPROGRESS);
+        checker = new PreloadedOrderExistanceChecker(preloaded, delegate);
+    }
+
+    @Test
+    public void check_shouldReturnPreloadedResultWithoutQueryingDelegate() {
+        assertEquals(CheckResult.ORDER_FOUND_INPROGRESS, checker.check("ORDER-2"));
+        verify(delegate, never()).check("ORDER-2");
+    }
+
+    @Test
+    public void check_shouldUseDelegateOncePreloadedResultIsConsumed() {
+        when(delegate.check("ORDER-1")).thenReturn(CheckResult.ORDER_FOUND_QUEUED);
+
+        assertEquals(CheckResult.NOT_FOUND, checker.check("ORDER-1"));
+        assertEquals(CheckResult.ORDER_FOUND_QUEUED, checker.check("ORDER-1"));
+    }
+
+    @Test
+    public void check_shouldUseDelegateForOrdersNotPreloaded() {
+        when(delegate.check("ORDER-3")).thenReturn(CheckResult.ORDER_FOUND_CANCELED);
+        when(delegate.check(null)).thenReturn(CheckResult.NOT_FOUND);
+
+        assertEquals(CheckResult.ORDER_FOUND_CANCELED, checker.check("ORDER-3"));
+        assertEquals(CheckResult.NOT_FOUND, checker.check(null));
+    }
+}
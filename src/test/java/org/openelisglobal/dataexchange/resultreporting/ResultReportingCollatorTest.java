@@ -0,0 +1,52 @@
+package org.openelisglobal.dataexchange.resultreporting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import org.junit.Test;
+import org.openelisglobal.dataexchange.resultreporting.beans.TestResultsXmit;
+
+public class ResultReportingCollatorTest {
+
+    @Test
+    public void groupByReferringOrder_shouldKeepEachMessageToOneReferringOrder() {
+        TestResultsXmit first = wrapper("order-1");
+        TestResultsXmit second = wrapper("order-2");
+        TestResultsXmit third = wrapper("order-1");
+
+        List<List<TestResultsXmit>> groups = ResultReportingCollator
+                .groupByReferringOrder(List.of(first, second, third), 50);
+
+        assertEquals(2, groups.size());
+        assertEquals(List.of(first, third), groups.get(0));
+        assertEquals(List.of(second), groups.get(1));
+    }
+
+    @Test
+    public void groupByReferringOrder_shouldSplitLargeOrders() {
+        List<TestResultsXmit> wrappers = List.of(wrapper("order-1"), wrapper("order-1"), wrapper("order-1"));
+
+        List<List<TestResultsXmit>> groups = ResultReportingCollator.groupByReferringOrder(wrappers, 2);
+
+        assertEquals(2, groups.size());
+        assertEquals(2, groups.get(0).size());
+        assertSame(wrappers.get(2), groups.get(1).get(0));
+    }
+
+    @Test
+    public void groupByReferringOrder_shouldLeaveOutResultsWithoutAReferringOrder() {
+        TestResultsXmit referred = wrapper("order-1");
+
+        List<List<TestResultsXmit>> groups = ResultReportingCollator
+                .groupByReferringOrder(List.of(wrapper(null), referred, wrapper("")), 50);
+
+        assertEquals(List.of(List.of(referred)), groups);
+    }
+
+    private TestResultsXmit wrapper(String referringOrderNumber) {
+        TestResultsXmit wrapper = new TestResultsXmit();
+        wrapper.setReferringOrderNumber(referringOrderNumber);
+        return wrapper;
+    }
+}
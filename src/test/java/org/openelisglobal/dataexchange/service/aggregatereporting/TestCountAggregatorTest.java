@@ -0,0 +1,124 @@
+package org.openelisglobal.dataexchange.service.aggregatereporting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.SummarizedAnalysis;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary.Status;
+
+public class TestCountAggregatorTest {
+
+    private static final Date DAY = Date.valueOf("2024-03-10");
+    private static final Timestamp COMPUTED_TIME = Timestamp.valueOf("2024-03-11 01:00:00");
+    private static final Map<String, Status> STATUSES = Map.of("1", Status.NOT_STARTED, "2", Status.IN_PROGRESS, "3",
+            Status.FINALIZED, "4", Status.CANCELED);
+
+    private final TestCountAggregator aggregator = new TestCountAggregator(STATUSES::get);
+
+    @Test
+    public void aggregate_shouldCountAnalysesOfTheSameKindTogether() {
+        List<TestCountSummary> rows = aggregator.aggregate(DAY,
+                List.of(analysis("10", "100", null, "3", true), analysis("11", "100", null, "3", true),
+                        analysis("12", "100", null, "1", false), analysis("13", "101", null, "3", true)),
+                COMPUTED_TIME);
+
+        assertEquals(3, rows.size());
+        TestCountSummary finished = rows.get(0);
+        assertEquals("100", finished.getTestId());
+        assertEquals(Status.FINALIZED, finished.getStatus());
+        assertEquals(2, finished.getAnalysisCount());
+        assertEquals(DAY, finished.getSummaryDate());
+        assertEquals(COMPUTED_TIME, finished.getComputedTime());
+        assertEquals("25-49", finished.getAgeBand());
+        assertTrue(finished.isCompleted());
+        assertEquals(Status.NOT_STARTED, rows.get(1).getStatus());
+        assertFalse(rows.get(1).isCompleted());
+    }
+
+    @Test
+    public void aggregate_shouldCountAPanelOnceWithItsOverallStatus() {
+        List<TestCountSummary> rows = aggregator.aggregate(DAY,
+                List.of(analysis("10", "100", "7", "3", true), analysis("10", "101", "7", "1", false)), COMPUTED_TIME);
+
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).isCountedInPanel());
+        assertTrue(rows.get(1).isCountedInPanel());
+        TestCountSummary panel = rows.get(2);
+        assertNull(panel.getTestId());
+        assertEquals("7", panel.getPanelId());
+        assertEquals(Status.IN_PROGRESS, panel.getStatus());
+        assertEquals(1, panel.getAnalysisCount());
+        assertFalse(panel.isCountedInPanel());
+        assertFalse(panel.isCompleted());
+    }
+
+    @Test
+    public void aggregate_shouldCountAnalysesOfACanceledPanelOnTheirOwn() {
+        List<TestCountSummary> rows = aggregator.aggregate(DAY,
+                List.of(analysis("10", "100", "7", "3", true), analysis("10", "101", "7", "4", false),
+                        analysis("11", "100", "7", "3", true), analysis("11", "101", "7", "3", true)),
+                COMPUTED_TIME);
+
+        assertEquals(5, rows.size());
+        assertFalse(rows.get(0).isCountedInPanel());
+        assertEquals(Status.CANCELED, rows.get(1).getStatus());
+        assertFalse(rows.get(1).isCountedInPanel());
+        assertTrue(rows.get(2).isCountedInPanel());
+        assertTrue(rows.get(3).isCountedInPanel());
+        TestCountSummary panel = rows.get(4);
+        assertNull(panel.getTestId());
+        assertEquals(Status.FINALIZED, panel.getStatus());
+        assertEquals(1, panel.getAnalysisCount());
+        assertTrue(panel.isCompleted());
+    }
+
+    @Test
+    public void getCountedOn_shouldCountAPanelOnTheLatestDayOfItsAnalyses() {
+        SummarizedAnalysis startedEarlier = analysis("10", "100", "7", "3", true);
+        startedEarlier.setAnalysisDay(Date.valueOf("2024-03-09"));
+        SummarizedAnalysis completedToday = analysis("10", "101", "7", "3", true);
+        completedToday.setAnalysisDay(DAY);
+        SummarizedAnalysis single = analysis("11", "102", null, "3", true);
+        single.setAnalysisDay(DAY);
+        List<SummarizedAnalysis> analyses = List.of(startedEarlier, completedToday, single);
+
+        assertEquals(List.of(single, startedEarlier, completedToday), TestCountAggregator.getCountedOn(DAY, analyses));
+        assertTrue(TestCountAggregator.getCountedOn(Date.valueOf("2024-03-09"), analyses).isEmpty());
+    }
+
+    @Test
+    public void getAgeBand_shouldUseTheAgeAtCollection() {
+        Date collected = Date.valueOf("2024-03-10");
+
+        assertEquals("<1", TestCountAggregator.getAgeBand(Date.valueOf("2023-03-11"), collected));
+        assertEquals("1-4", TestCountAggregator.getAgeBand(Date.valueOf("2023-03-10"), collected));
+        assertEquals("15-24", TestCountAggregator.getAgeBand(Date.valueOf("2009-03-10"), collected));
+        assertEquals("50+", TestCountAggregator.getAgeBand(Date.valueOf("1950-01-01"), collected));
+        assertEquals(TestCountAggregator.UNKNOWN_AGE_BAND, TestCountAggregator.getAgeBand(null, collected));
+        assertEquals(TestCountAggregator.UNKNOWN_AGE_BAND,
+                TestCountAggregator.getAgeBand(Date.valueOf("2024-03-11"), collected));
+    }
+
+    private SummarizedAnalysis analysis(String sampleItemId, String testId, String panelId, String statusId,
+            boolean completed) {
+        SummarizedAnalysis analysis = new SummarizedAnalysis();
+        analysis.setSampleItemId(sampleItemId);
+        analysis.setTestId(testId);
+        analysis.setPanelId(panelId);
+        analysis.setTestSectionId("36");
+        analysis.setStatusId(statusId);
+        analysis.setSiteId("5");
+        analysis.setBirthDate(Date.valueOf("1990-05-01"));
+        analysis.setCollectionDate(DAY);
+        analysis.setCompleted(completed);
+        return analysis;
+    }
+}
@@ -0,0 +1,76 @@
+package org.openelisglobal.dataexchange.service.aggregatereporting;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openelisglobal.common.services.IStatusService;
+import org.openelisglobal.common.services.StatusService.AnalysisStatus;
+import org.openelisglobal.dataexchange.aggregatereporting.dao.TestCountSummaryDAO;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.SummarizedAnalysis;
+import org.openelisglobal.dataexchange.aggregatereporting.valueholder.TestCountSummary;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TestCountSummaryServiceImplTest {
+
+    private static final Date STARTED_DAY = Date.valueOf("2024-03-09");
+    private static final Date COMPLETED_DAY = Date.valueOf("2024-03-10");
+    private static final Timestamp COMPUTED_TIME = Timestamp.valueOf("2024-03-11 01:00:00");
+
+    private TestCountSummaryDAO dao;
+    private TestCountSummaryServiceImpl service;
+
+    @Before
+    public void setup() {
+        dao = mock(TestCountSummaryDAO.class);
+        IStatusService statusService = mock(IStatusService.class);
+        when(statusService.matches("3", AnalysisStatus.Finalized)).thenReturn(true);
+        when(statusService.matches("2", AnalysisStatus.TechnicalAcceptance)).thenReturn(true);
+
+        service = new TestCountSummaryServiceImpl();
+        ReflectionTestUtils.setField(service, "baseObjectDAO", dao);
+        ReflectionTestUtils.setField(service, "statusService", statusService);
+    }
+
+    @Test
+    public void refreshDay_shouldCountAPanelAnalysisMovedToTheDayItWasCompletedOnlyOnThatDay() {
+        // both analyses of the panel were started on the first day, one is now
+        // completed on the second
+        SummarizedAnalysis completed = analysis("1", "100", "3", COMPLETED_DAY);
+        SummarizedAnalysis inProgress = analysis("2", "101", "2", STARTED_DAY);
+        when(dao.getAnalysesOfDay(STARTED_DAY)).thenReturn(List.of(completed, inProgress));
+        when(dao.getAnalysesOfDay(COMPLETED_DAY)).thenReturn(List.of(completed, inProgress));
+
+        service.refreshDay(STARTED_DAY, COMPUTED_TIME);
+        service.refreshDay(COMPLETED_DAY, COMPUTED_TIME);
+
+        verify(dao).deleteDay(STARTED_DAY);
+        verify(dao).recordCountedDay(STARTED_DAY, List.of());
+        verify(dao).recordCountedDay(COMPLETED_DAY, List.of("1", "2"));
+        ArgumentCaptor<TestCountSummary> inserted = ArgumentCaptor.forClass(TestCountSummary.class);
+        verify(dao, times(3)).insert(inserted.capture());
+        for (TestCountSummary summary : inserted.getAllValues()) {
+            assertEquals(COMPLETED_DAY, summary.getSummaryDate());
+        }
+    }
+
+    private SummarizedAnalysis analysis(String analysisId, String testId, String statusId, Date day) {
+        SummarizedAnalysis analysis = new SummarizedAnalysis();
+        analysis.setAnalysisId(analysisId);
+        analysis.setAnalysisDay(day);
+        analysis.setSampleItemId("10");
+        analysis.setTestId(testId);
+        analysis.setPanelId("7");
+        analysis.setStatusId(statusId);
+        analysis.setCompleted(day.equals(COMPLETED_DAY));
+        return analysis;
+    }
+}
@@ -8,19 +8,24 @@ import java.sql.Timestamp;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.openelisglobal.BaseWebContextSensitiveTest;
 import org.openelisglobal.common.services.StatusService;
+import org.openelisglobal.dataexchange.order.form.ElectronicOrderSearchPage;
 import org.openelisglobal.dataexchange.order.form.ElectronicOrderViewForm;
 import org.openelisglobal.dataexchange.order.valueholder.ElectronicOrder;
+import org.openelisglobal.patient.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Autowired
     private ElectronicOrderService electronicOrderService;
+    @Autowired
+    private PatientService patientService;
 
     private List<ElectronicOrder> electronicOrders;
     private static int NUMBER_OF_ELECTRONIC_ORDERS = 0;
@@ -74,9 +79,19 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
         assertEquals("3", electronicOrders.get(0).getId());
     }
 
+    @Test
+    public void getElectronicOrdersByExternalIds_ShouldReturnElectronicOrdersOrderedById_UsingExternalIDs() {
+        electronicOrders = electronicOrderService
+                .getElectronicOrdersByExternalIds(Arrays.asList("EXT789012", "EXT123456", "UNKNOWN"));
+        assertNotNull(electronicOrders);
+        assertEquals(2, electronicOrders.size());
+        assertEquals("1", electronicOrders.get(0).getId());
+        assertEquals("3", electronicOrders.get(1).getId());
+    }
+
     @Test
     public void getAllElectronicOrdersContainingValueOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsSTATUS_ID() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("details",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("nat",
                 ElectronicOrder.SortOrder.STATUS_ID);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -85,7 +100,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Test
     public void getAllElectronicOrdersContainingValueOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsLAST_UPDATED_ASC() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("details",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("nat",
                 ElectronicOrder.SortOrder.LAST_UPDATED_ASC);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -94,7 +109,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Test
     public void getAllElectronicOrdersContainingValueOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsLAST_UPDATED_DESC() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("details",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("nat",
                 ElectronicOrder.SortOrder.LAST_UPDATED_DESC);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -103,7 +118,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Test
     public void getAllElectronicOrdersContainingValueOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsLAST_EXTERNAL_ID() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("details",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("nat",
                 ElectronicOrder.SortOrder.EXTERNAL_ID);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -112,7 +127,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Test
     public void getAllElectronicOrdersContainingValuesOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsSTATUS_ID() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("Order", "Kukki",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("LAB", "Kukki",
                 "Faith", "M", ElectronicOrder.SortOrder.STATUS_ID);
         assertNotNull(electronicOrders);
         assertEquals(1, electronicOrders.size());
@@ -121,7 +136,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Test
     public void getAllElectronicOrdersContainingValuesOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsLAST_UPDATED_ASC() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("Order", "Kukki",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("LAB", "Kukki",
                 "Faith", "M", ElectronicOrder.SortOrder.LAST_UPDATED_ASC);
         assertNotNull(electronicOrders);
         assertEquals(1, electronicOrders.size());
@@ -130,7 +145,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Test
     public void getAllElectronicOrdersContainingValuesOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsLAST_UPDATED_DESC() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("Order", "Kukki",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("LAB", "Kukki",
                 "Faith", "M", ElectronicOrder.SortOrder.LAST_UPDATED_DESC);
         assertNotNull(electronicOrders);
         assertEquals(1, electronicOrders.size());
@@ -139,17 +154,25 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     @Test
     public void getAllElectronicOrdersContainingValuesOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsEXTERNAL_ID() {
-        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("Order", "Kukki",
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("LAB", "Kukki",
                 "Faith", "M", ElectronicOrder.SortOrder.EXTERNAL_ID);
         assertNotNull(electronicOrders);
         assertEquals(1, electronicOrders.size());
         assertEquals("1003", electronicOrders.get(0).getPatient().getId());
     }
 
+    @Test
+    public void getAllElectronicOrdersContainingValuesOrderedBy_ShouldMatchTheAccessionNumberAgainstTheExternalId() {
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValuesOrderedBy("ext789", null, null,
+                null, ElectronicOrder.SortOrder.EXTERNAL_ID);
+        assertEquals(1, electronicOrders.size());
+        assertEquals("EXT789012", electronicOrders.get(0).getExternalId());
+    }
+
     @Test
     public void getElectronicOrdersContainingValueExludedByOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIs_STATUS_ID() {
         List<StatusService.ExternalOrderStatus> excludedStatuses = new ArrayList<>();
-        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("details",
+        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("nat",
                 excludedStatuses, ElectronicOrder.SortOrder.STATUS_ID);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -159,7 +182,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
     @Test
     public void getElectronicOrdersContainingValueExludedByOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsLAST_UPDATED_ASC() {
         List<StatusService.ExternalOrderStatus> excludedStatuses = new ArrayList<>();
-        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("details",
+        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("nat",
                 excludedStatuses, ElectronicOrder.SortOrder.LAST_UPDATED_ASC);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -169,7 +192,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
     @Test
     public void getElectronicOrdersContainingValueExludedByOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsLAST_UPDATED_DESC() {
         List<StatusService.ExternalOrderStatus> excludedStatuses = new ArrayList<>();
-        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("details",
+        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("nat",
                 excludedStatuses, ElectronicOrder.SortOrder.LAST_UPDATED_DESC);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -179,7 +202,7 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
     @Test
     public void getElectronicOrdersContainingValueExludedByOrderedBy_ShouldReturnElectronicOrders_WhenSortOrderIsEXTERNAL_ID() {
         List<StatusService.ExternalOrderStatus> excludedStatuses = new ArrayList<>();
-        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("details",
+        electronicOrders = electronicOrderService.getElectronicOrdersContainingValueExludedByOrderedBy("nat",
                 excludedStatuses, ElectronicOrder.SortOrder.EXTERNAL_ID);
         assertNotNull(electronicOrders);
         assertEquals(3, electronicOrders.size());
@@ -368,6 +391,37 @@ public class ElectronicOrderServiceTest extends BaseWebContextSensitiveTest {
 
     }
 
+    @Test
+    public void searchForElectronicOrders_ShouldReturnRequestedPage_WhenPageSizeIsGiven() {
+        ElectronicOrderViewForm orderViewForm = new ElectronicOrderViewForm();
+        orderViewForm.setSearchType(ElectronicOrderViewForm.SearchType.DATE_STATUS);
+        ElectronicOrderSearchPage page = electronicOrderService.searchForElectronicOrders(orderViewForm, 2, 2);
+        assertEquals(3, page.getOrderCount());
+        assertEquals(2, page.getCurrentPage());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(1, page.getOrders().size());
+        assertEquals("3", page.getOrders().get(0).getId());
+    }
+
+    @Test
+    public void insert_ShouldMakeOrderSearchableByPatientValues() {
+        ElectronicOrder eOrder = new ElectronicOrder();
+        eOrder.setExternalId("EXT000111");
+        eOrder.setPatient(patientService.get("1002"));
+        eOrder.setStatusId("1");
+        eOrder.setOrderTimestamp(new Timestamp(System.currentTimeMillis()));
+        eOrder.setData("Order details for EXT000111");
+        eOrder.setSysUserId("1");
+        electronicOrderService.insert(eOrder);
+
+        assertEquals(" ext000111 james mulizi nat654321 ", eOrder.getSearchText());
+        assertEquals("Mulizi", eOrder.getPatientLastName());
+        electronicOrders = electronicOrderService.getAllElectronicOrdersContainingValueOrderedBy("James Mulizi",
+                ElectronicOrder.SortOrder.EXTERNAL_ID);
+        assertEquals(2, electronicOrders.size());
+        assertEquals("EXT000111", electronicOrders.get(0).getExternalId());
+    }
+
     private Date convertDateFromUtilToSqlDate(String dateString) throws ParseException {
         SimpleDateFormat dateFormater = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         java.util.Date utilDate = dateFormater.parse(dateString);
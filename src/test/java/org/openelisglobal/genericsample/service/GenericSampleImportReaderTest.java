@@ -0,0 +1,69 @@
+package org.openelisglobal.genericsample.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Test;
+
+public class GenericSampleImportReaderTest {
+
+    @Test
+    public void open_csvShouldReadRowsKeyedByNormalizedHeaders() throws Exception {
+        String csv = "Sample Type,Qty,Collection Date\n" + "Serum, 2 ,2026-01-05\n" + "Plasma,1,2026-01-06\n";
+
+        try (GenericSampleImportReader reader = GenericSampleImportReader.open(toStream(csv), "samples.csv",
+                null)) {
+            assertEquals(Arrays.asList("sampletype", "qty", "collectiondate"), reader.getHeaders());
+
+            Map<String, String> row = reader.nextRow();
+            assertEquals("Serum", row.get("sampletype"));
+            assertEquals("2", row.get("qty"));
+            assertEquals("2026-01-05", row.get("collectiondate"));
+
+            assertEquals("Plasma", reader.nextRow().get("sampletype"));
+            assertNull(reader.nextRow());
+        }
+    }
+
+    @Test
+    public void open_csvWithShortRowShouldOnlyMapPresentColumns() throws Exception {
+        try (GenericSampleImportReader reader = GenericSampleImportReader.open(toStream("a,b,c\n1,2\n"),
+                "samples.csv", "text/csv")) {
+            Map<String, String> row = reader.nextRow();
+            assertEquals(2, row.size());
+            assertEquals("2", row.get("b"));
+        }
+    }
+
+    @Test
+    public void open_emptyCsvShouldHaveNoHeadersOrRows() throws Exception {
+        try (GenericSampleImportReader reader = GenericSampleImportReader.open(toStream(""), "samples.csv", null)) {
+            assertTrue(reader.getHeaders().isEmpty());
+            assertNull(reader.nextRow());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void open_shouldRejectUnsupportedFileType() throws Exception {
+        GenericSampleImportReader.open(toStream("a,b\n"), "samples.txt", "text/plain");
+    }
+
+    @Test
+    public void normalizeHeaders_shouldNameBlankAndNumberColumns() {
+        String[] headers = { "#", " ", null, "No.", "Lab-No (2)" };
+        GenericSampleImportReader.normalizeHeaders(headers);
+        assertArrayEquals(new String[] { "number", "column2", "column3", "number", "labno2" }, headers);
+    }
+
+    private InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package org.openelisglobal.hibernate.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.SequenceGenerator;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Hibernate refuses to start when a pooled mapping and its database sequence
+ * have different increments, so the sequences altered by the pooled sequences
+ * changeset have to be exactly the ones mapped with an increment above 1.
+ */
+public class PooledSequencesTest {
+
+    private static final String CHANGELOG = "classpath:liquibase/3.3.x.x/035-pooled-sequences.xml";
+
+    @Test
+    public void pooledSequencesChangeSet_shouldAlterExactlyTheSequencesMappedWithPooledIncrements()
+            throws Exception {
+        Map<String, Integer> mappedIncrements = new TreeMap<>();
+        collectHbmIncrements(mappedIncrements);
+        collectAnnotatedIncrements(mappedIncrements);
+
+        assertFalse(mappedIncrements.isEmpty());
+        assertEquals(mappedIncrements, readAlteredIncrements());
+    }
+
+    private void collectHbmIncrements(Map<String, Integer> increments) throws Exception {
+        for (Resource mapping : new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:hibernate/hbm/*.hbm.xml")) {
+            NodeList generators = parse(mapping).getElementsByTagName("generator");
+            for (int i = 0; i < generators.getLength(); i++) {
+                String sequenceName = null;
+                int increment = 1;
+                NodeList params = ((Element) generators.item(i)).getElementsByTagName("param");
+                for (int j = 0; j < params.getLength(); j++) {
+                    Element param = (Element) params.item(j);
+                    if ("sequence_name".equals(param.getAttribute("name"))) {
+                        sequenceName = param.getTextContent().trim();
+                    } else if ("increment_size".equals(param.getAttribute("name"))) {
+                        increment = Integer.parseInt(param.getTextContent().trim());
+                    }
+                }
+                if (sequenceName != null && increment > 1) {
+                    increments.put(sequenceName, increment);
+                }
+            }
+        }
+    }
+
+    private void collectAnnotatedIncrements(Map<String, Integer> increments) throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition entity : scanner.findCandidateComponents("org.openelisglobal")) {
+            Class<?> entityClass = Class.forName(entity.getBeanClassName(), false, getClass().getClassLoader());
+            for (Class<?> type = entityClass; type != null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+                    if (generator != null && generator.allocationSize() > 1) {
+                        increments.put(generator.sequenceName(), generator.allocationSize());
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, Integer> readAlteredIncrements() throws Exception {
+        Map<String, Integer> increments = new TreeMap<>();
+        Document changelog = parse(new PathMatchingResourcePatternResolver().getResource(CHANGELOG));
+        NodeList changeSets = changelog.getElementsByTagName("changeSet");
+        for (int i = 0; i < changeSets.getLength(); i++) {
+            // only the changes themselves, not the alterations back to 1 in the rollback
+            for (Node child = changeSets.item(i).getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child instanceof Element && "alterSequence".equals(child.getNodeName())) {
+                    Element alterSequence = (Element) child;
+                    increments.put(alterSequence.getAttribute("sequenceName"),
+                            Integer.parseInt(alterSequence.getAttribute("incrementBy")));
+                }
+            }
+        }
+        return increments;
+    }
+
+    private static Document parse(Resource resource) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        // the hbm files declare the Hibernate DTD, which is not needed to read them
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        try (InputStream in = resource.getInputStream()) {
+            return builder.parse(in);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.openelisglobal.hibernate.search.massindexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.openelisglobal.hibernate.search.massindexer.ReindexStatus.Mode;
+import org.openelisglobal.hibernate.search.massindexer.ReindexStatus.State;
+
+public class ReindexProgressMonitorTest {
+
+    @Test
+    public void monitor_shouldAccumulateProgressIntoStatus() {
+        ReindexStatus status = new ReindexStatus(Mode.INCREMENTAL, 1000L, System.currentTimeMillis());
+        ReindexProgressMonitor monitor = new ReindexProgressMonitor(status, 0);
+
+        monitor.addToTotalCount(200);
+        monitor.entitiesLoaded(100);
+        monitor.documentsBuilt(100);
+        monitor.documentsAdded(50);
+
+        assertTrue(status.isRunning());
+        assertEquals(200, status.getTotalCount());
+        assertEquals(100, status.getEntitiesLoaded());
+        assertEquals(100, status.getDocumentsBuilt());
+        assertEquals(50, status.getDocumentsAdded());
+        assertEquals(25.0, status.getPercentComplete(), 0.001);
+        assertEquals(Long.valueOf(1000L), status.getSince());
+    }
+
+    @Test
+    public void status_shouldReportCompletionAndFailure() {
+        ReindexStatus completed = new ReindexStatus(Mode.FULL, null, 1000L);
+        completed.addDocumentsAdded(10);
+        completed.completed(3000L);
+
+        assertFalse(completed.isRunning());
+        assertEquals(State.COMPLETED, completed.getState());
+        assertEquals(2000L, completed.getElapsedMillis());
+        assertEquals(5.0, completed.getDocumentsPerSecond(), 0.001);
+        assertEquals(100.0, completed.getPercentComplete(), 0.001);
+
+        ReindexStatus failed = new ReindexStatus(Mode.FULL, null, 1000L);
+        failed.failed(1500L, "boom");
+        assertEquals(State.FAILED, failed.getState());
+        assertEquals("boom", failed.getErrorMessage());
+        assertEquals(State.IDLE, ReindexStatus.idle().getState());
+    }
+}
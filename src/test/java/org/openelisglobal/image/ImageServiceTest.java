@@ -1,7 +1,9 @@
 package org.openelisglobal.image;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -16,6 +18,7 @@ import org.openelisglobal.BaseWebContextSensitiveTest;
 import org.openelisglobal.common.util.ConfigurationProperties;
 import org.openelisglobal.image.service.ImageService;
 import org.openelisglobal.image.valueholder.Image;
+import org.openelisglobal.image.valueholder.SiteImage;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class ImageServiceTest extends BaseWebContextSensitiveTest {
@@ -32,6 +35,8 @@ public class ImageServiceTest extends BaseWebContextSensitiveTest {
     @Before
     public void setUp() throws Exception {
         executeDataSetWithStateManagement("testdata/image.xml");
+        // the data set is loaded around the service, so its cache does not know
+        imageService.invalidateSiteImages();
     }
 
     @Test
@@ -71,6 +76,17 @@ public class ImageServiceTest extends BaseWebContextSensitiveTest {
         assertEquals("headerRightImage", image2.getDescription());
     }
 
+    @Test
+    public void getSiteImage_shouldUseCachedImageUntilImagesChange() {
+        SiteImage siteImage = imageService.getSiteImage("testUsageSendStatus").get();
+        assertTrue(Arrays.equals(image1, siteImage.getContent()));
+        assertSame(siteImage, imageService.getSiteImage("testUsageSendStatus").get());
+
+        imageService.delete(imageService.get("1"));
+
+        assertFalse(imageService.getSiteImage("testUsageSendStatus").isPresent());
+    }
+
     @Test
     public void getDeleteImage() {
         Image image = imageService.get("1");
@@ -0,0 +1,120 @@
+package org.openelisglobal.inventory.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openelisglobal.inventory.service.InventoryManagementService.ConsumptionRecord;
+import org.openelisglobal.inventory.valueholder.InventoryEnums.LotStatus;
+import org.openelisglobal.inventory.valueholder.InventoryEnums.ReferenceType;
+import org.openelisglobal.inventory.valueholder.InventoryItem;
+import org.openelisglobal.inventory.valueholder.InventoryLot;
+import org.openelisglobal.inventory.valueholder.InventoryTransaction;
+import org.openelisglobal.inventory.valueholder.InventoryUsage;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InventoryManagementServiceImplTest {
+
+    @Mock
+    private InventoryItemService inventoryItemService;
+    @Mock
+    private InventoryLotService inventoryLotService;
+    @Mock
+    private InventoryTransactionService transactionService;
+    @Mock
+    private InventoryUsageService usageService;
+
+    @InjectMocks
+    private InventoryManagementServiceImpl inventoryManagementService;
+
+    @Test
+    public void consumeInventoryFEFO_shouldConsumeLockedLotsInOrderAndWriteRowsTogether() {
+        InventoryLot first = createLot(1L, 30.0);
+        InventoryLot second = createLot(2L, 50.0);
+        when(inventoryItemService.reserveAvailableQuantity(10L, 45.0)).thenReturn(true);
+        when(inventoryLotService.getAvailableLotsByItemFEFOForUpdate(10L)).thenReturn(Arrays.asList(first, second));
+
+        List<ConsumptionRecord> records = inventoryManagementService.consumeInventoryFEFO(10L, 45.0, 7L, 8L, "1");
+
+        assertEquals(2, records.size());
+        assertEquals(Double.valueOf(30.0), records.get(0).getQuantityConsumed());
+        assertEquals(Double.valueOf(15.0), records.get(1).getQuantityConsumed());
+        assertEquals(Double.valueOf(0.0), first.getCurrentQuantity());
+        assertEquals(LotStatus.CONSUMED, first.getStatus());
+        assertEquals(Double.valueOf(35.0), second.getCurrentQuantity());
+        assertEquals(LotStatus.ACTIVE, second.getStatus());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryTransaction>> transactions = ArgumentCaptor.forClass(List.class);
+        verify(transactionService).insertAll(transactions.capture());
+        assertEquals(2, transactions.getValue().size());
+        assertEquals(Double.valueOf(-15.0), transactions.getValue().get(1).getQuantityChange());
+        assertEquals(ReferenceType.TEST_RESULT, transactions.getValue().get(1).getReferenceType());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryUsage>> usages = ArgumentCaptor.forClass(List.class);
+        verify(usageService).insertAll(usages.capture());
+        assertEquals(2, usages.getValue().size());
+        assertEquals(Long.valueOf(8L), usages.getValue().get(0).getAnalysisId());
+        verify(inventoryLotService, never()).update(any());
+    }
+
+    @Test
+    public void consumeInventoryFEFO_shouldNotTouchLotsWhenReservationFails() {
+        when(inventoryItemService.reserveAvailableQuantity(10L, 200.0)).thenReturn(false);
+        when(inventoryItemService.getAvailableQuantity(10L)).thenReturn(150.0);
+
+        try {
+            inventoryManagementService.consumeInventoryFEFO(10L, 200.0, null, null, "1");
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().startsWith("Insufficient inventory"));
+        }
+        verify(inventoryLotService, never()).getAvailableLotsByItemFEFOForUpdate(anyLong());
+        verify(transactionService, never()).insertAll(any());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void consumeInventoryFEFO_shouldFailWhenLotsHoldLessThanReserved() {
+        when(inventoryItemService.reserveAvailableQuantity(10L, 45.0)).thenReturn(true);
+        when(inventoryLotService.getAvailableLotsByItemFEFOForUpdate(10L))
+                .thenReturn(Arrays.asList(createLot(1L, 30.0)));
+
+        inventoryManagementService.consumeInventoryFEFO(10L, 45.0, null, null, "1");
+    }
+
+    @Test
+    public void isSufficientInventoryAvailable_shouldReadStockCounter() {
+        when(inventoryItemService.getAvailableQuantity(10L)).thenReturn(150.0);
+
+        assertTrue(inventoryManagementService.isSufficientInventoryAvailable(10L, 100.0));
+        assertFalse(inventoryManagementService.isSufficientInventoryAvailable(10L, 200.0));
+        verify(inventoryLotService, never()).getTotalCurrentQuantity(anyLong());
+    }
+
+    private InventoryLot createLot(Long id, Double quantity) {
+        InventoryItem item = new InventoryItem();
+        item.setId(10L);
+        InventoryLot lot = new InventoryLot();
+        lot.setId(id);
+        lot.setLotNumber("LOT-" + id);
+        lot.setInventoryItem(item);
+        lot.setCurrentQuantity(quantity);
+        lot.setStatus(LotStatus.ACTIVE);
+        return lot;
+    }
+}
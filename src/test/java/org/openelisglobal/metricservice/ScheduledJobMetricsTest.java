@@ -0,0 +1,55 @@
+package org.openelisglobal.metricservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+public class ScheduledJobMetricsTest {
+
+    private static final String JOB = "OdooInvoiceDispatcher.dispatch";
+
+    private static Runnable scheduledMethod(Runnable body) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                body.run();
+            }
+
+            @Override
+            public String toString() {
+                return "DelegatingErrorHandlingRunnable for "
+                        + "org.openelisglobal.odoo.service.OdooInvoiceDispatcher.dispatch";
+            }
+        };
+    }
+
+    @Test
+    public void getJobName_shouldUseClassAndMethodOfScheduledMethod() {
+        assertEquals(JOB, ScheduledJobMetrics.getJobName(scheduledMethod(() -> {
+        })));
+    }
+
+    @Test
+    public void decorate_shouldTimeRunsAndCountFailuresByJob() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ScheduledJobMetrics metrics = new ScheduledJobMetrics(registry);
+        Runnable failing = metrics.decorate(scheduledMethod(() -> {
+            throw new IllegalStateException("job failed");
+        }));
+
+        metrics.decorate(scheduledMethod(() -> {
+        })).run();
+        try {
+            failing.run();
+            fail("the exception of the job should be rethrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals(2, registry.get("openelis.scheduled.job.duration").tag("job", JOB).timer().count());
+        assertEquals(1.0, registry.get("openelis.scheduled.job.failures").tag("job", JOB).counter().count(), 0);
+    }
+}
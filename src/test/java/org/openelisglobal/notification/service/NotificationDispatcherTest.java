@@ -0,0 +1,134 @@
+package org.openelisglobal.notification.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.notification.service.sender.ClientNotificationSender;
+import org.openelisglobal.notification.valueholder.EmailNotification;
+import org.openelisglobal.notification.valueholder.NotificationConfigOption.NotificationMethod;
+import org.openelisglobal.notification.valueholder.NotificationQueueEntry;
+import org.openelisglobal.notification.valueholder.SMSNotification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class NotificationDispatcherTest {
+
+    private NotificationQueueService queueService;
+    private StubEmailSender emailSender;
+    private StubSMSSender smsSender;
+    private NotificationDispatcher dispatcher;
+
+    @Before
+    public void setup() {
+        queueService = mock(NotificationQueueService.class);
+        emailSender = new StubEmailSender();
+        smsSender = new StubSMSSender();
+
+        dispatcher = new NotificationDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "queueService", queueService);
+        ReflectionTestUtils.setField(dispatcher, "notificationSenders", List.of(emailSender, smsSender));
+        ReflectionTestUtils.setField(dispatcher, "emailMaxPerSecond", 1000.0);
+        ReflectionTestUtils.setField(dispatcher, "smsMaxPerSecond", 1000.0);
+        dispatcher.init();
+    }
+
+    @After
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void sendBatch_shouldSendEachEntryThroughTheSenderForItsMethod() {
+        NotificationQueueEntry email = entry(1L, NotificationMethod.EMAIL, "patient@example.org");
+        email.setBccList(List.of("lab@example.org"));
+        NotificationQueueEntry sms = entry(2L, NotificationMethod.SMS, "23057000000");
+
+        dispatcher.sendBatch(List.of(email, sms));
+
+        assertEquals(1, emailSender.sent.size());
+        assertEquals("patient@example.org", emailSender.sent.get(0).getRecipientEmailAddress());
+        assertEquals(List.of("lab@example.org"), emailSender.sent.get(0).getBccs());
+        assertEquals("message 1", emailSender.sent.get(0).getMessage());
+        assertEquals(1, smsSender.sent.size());
+        assertEquals("23057000000", smsSender.sent.get(0).getReceiverPhoneNumber());
+        verify(queueService).markSent(email);
+        verify(queueService).markSent(sms);
+    }
+
+    @Test
+    public void sendBatch_shouldRecordFailureWithoutStoppingTheOtherSends() {
+        emailSender.failFor = "down@example.org";
+        NotificationQueueEntry failing = entry(1L, NotificationMethod.EMAIL, "down@example.org");
+        NotificationQueueEntry next = entry(2L, NotificationMethod.EMAIL, "patient@example.org");
+
+        dispatcher.sendBatch(List.of(failing, next));
+
+        verify(queueService).recordFailure(eq(failing), anyString());
+        verify(queueService, never()).markSent(failing);
+        verify(queueService).markSent(next);
+    }
+
+    @Test
+    public void append_shouldCoalesceMessagesForTheSameRecipient() {
+        NotificationQueueEntry entry = entry(1L, NotificationMethod.EMAIL, "patient@example.org");
+
+        entry.append("message 2");
+
+        assertEquals("message 1\n\nmessage 2", entry.getMessage());
+        assertEquals(2, entry.getMessageCount());
+    }
+
+    private NotificationQueueEntry entry(Long id, NotificationMethod method, String recipient) {
+        NotificationQueueEntry entry = new NotificationQueueEntry();
+        entry.setId(id);
+        entry.setNotificationMethod(method);
+        entry.setRecipient(recipient);
+        entry.setSubject("subject " + id);
+        entry.setMessage("message " + id);
+        entry.setMessageCount(1);
+        entry.setAttempts(1);
+        return entry;
+    }
+
+    private static class StubEmailSender implements ClientNotificationSender<EmailNotification> {
+
+        private final List<EmailNotification> sent = new ArrayList<>();
+        private String failFor;
+
+        @Override
+        public Class<EmailNotification> forClass() {
+            return EmailNotification.class;
+        }
+
+        @Override
+        public void send(EmailNotification notification) {
+            if (notification.getRecipientEmailAddress().equals(failFor)) {
+                throw new IllegalStateException("SMTP server unavailable");
+            }
+            sent.add(notification);
+        }
+    }
+
+    private static class StubSMSSender implements ClientNotificationSender<SMSNotification> {
+
+        private final List<SMSNotification> sent = new ArrayList<>();
+
+        @Override
+        public Class<SMSNotification> forClass() {
+            return SMSNotification.class;
+        }
+
+        @Override
+        public void send(SMSNotification notification) {
+            sent.add(notification);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.openelisglobal.ocl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.openelisglobal.ocl.OclZipImporter.OclConceptBatchHandler;
+
+public class OclZipImporterStreamingTest {
+
+    private final OclZipImporter oclZipImporter = new OclZipImporter();
+
+    private String getTestPackagePath() {
+        return getClass().getClassLoader().getResource("ocl/oclLabCollection.zip").getFile();
+    }
+
+    @Test
+    public void streamOclPackage_shouldMatchInMemoryImport() throws IOException {
+        List<JsonNode> nodes = new ArrayList<>();
+        oclZipImporter.importOclPackage(getTestPackagePath(), nodes);
+        JsonNode rootNode = nodes.get(0);
+        OclPackageIndex expectedIndex = OclPackageIndex.fromRootNode(rootNode);
+
+        RecordingHandler handler = new RecordingHandler();
+        int conceptCount = oclZipImporter.streamOclPackage(getTestPackagePath(), 3, handler);
+
+        assertEquals(rootNode.get("concepts").size(), conceptCount);
+        assertEquals(1, handler.collections.size());
+        assertEquals(1, handler.collectionsEnded);
+        OclPackageIndex index = handler.collections.get(0);
+        assertEquals("Collection Version", index.getType());
+        assertEquals(expectedIndex.getConceptCount(), index.getConceptCount());
+
+        List<JsonNode> streamedConcepts = new ArrayList<>();
+        for (List<JsonNode> batch : handler.batches) {
+            assertTrue(batch.size() <= 3);
+            streamedConcepts.addAll(batch);
+        }
+        for (int i = 0; i < conceptCount; i++) {
+            JsonNode concept = rootNode.get("concepts").get(i);
+            assertEquals(concept, streamedConcepts.get(i));
+            String id = concept.get("id").asText();
+            assertEquals(expectedIndex.getMappingsFrom(id), index.getMappingsFrom(id));
+            assertNotNull(index.getConcept(id));
+        }
+    }
+
+    @Test
+    public void fromRootNode_shouldIndexMappingsByFromConcept() throws IOException {
+        List<JsonNode> nodes = new ArrayList<>();
+        oclZipImporter.importOclPackage(getTestPackagePath(), nodes);
+        JsonNode rootNode = nodes.get(0);
+        OclPackageIndex index = OclPackageIndex.fromRootNode(rootNode);
+
+        int indexedMappings = 0;
+        for (JsonNode concept : rootNode.get("concepts")) {
+            for (JsonNode mapping : index.getMappingsFrom(concept.get("id").asText())) {
+                assertEquals(concept.get("id").asText(), mapping.get("from_concept_code").asText());
+                indexedMappings++;
+            }
+        }
+        int mappingsFromConcepts = 0;
+        for (JsonNode mapping : rootNode.get("mappings")) {
+            if (index.getConcept(mapping.get("from_concept_code").asText()) != null) {
+                mappingsFromConcepts++;
+            }
+        }
+        assertEquals(mappingsFromConcepts, indexedMappings);
+    }
+
+    private static class RecordingHandler implements OclConceptBatchHandler {
+        private final List<OclPackageIndex> collections = new ArrayList<>();
+        private final List<List<JsonNode>> batches = new ArrayList<>();
+        private int collectionsEnded;
+
+        @Override
+        public boolean startCollection(OclPackageIndex index) {
+            collections.add(index);
+            return true;
+        }
+
+        @Override
+        public void handleBatch(List<JsonNode> concepts) {
+            batches.add(concepts);
+        }
+
+        @Override
+        public void endCollection() {
+            collectionsEnded++;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.openelisglobal.odoo.service;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.Locale;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.analysis.service.AnalysisService;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.services.IStatusService;
+import org.openelisglobal.common.services.StatusService.AnalysisStatus;
+import org.openelisglobal.localization.valueholder.Localization;
+import org.openelisglobal.odoo.config.TestProductMapping;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
+import org.openelisglobal.sample.service.SampleService;
+import org.openelisglobal.sample.valueholder.Sample;
+import org.openelisglobal.samplehuman.service.SampleHumanService;
+import org.openelisglobal.test.service.TestService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class OdooIntegrationServiceTest {
+
+    private static final String CANCELED_STATUS_ID = "15";
+
+    private AnalysisService analysisService;
+    private TestService testService;
+    private TestProductMapping testProductMapping;
+    private OdooIntegrationService integrationService;
+
+    @Before
+    public void setup() {
+        SampleService sampleService = mock(SampleService.class);
+        Sample sample = new Sample();
+        sample.setId("S-1");
+        when(sampleService.get("S-1")).thenReturn(sample);
+        IStatusService statusService = mock(IStatusService.class);
+        when(statusService.matches(CANCELED_STATUS_ID, AnalysisStatus.Canceled)).thenReturn(true);
+        analysisService = mock(AnalysisService.class);
+        testService = mock(TestService.class);
+        testProductMapping = mock(TestProductMapping.class);
+
+        integrationService = new OdooIntegrationService();
+        ReflectionTestUtils.setField(integrationService, "testMapLocale", "en");
+        ReflectionTestUtils.setField(integrationService, "sampleService", sampleService);
+        ReflectionTestUtils.setField(integrationService, "statusService", statusService);
+        ReflectionTestUtils.setField(integrationService, "analysisService", analysisService);
+        ReflectionTestUtils.setField(integrationService, "testService", testService);
+        ReflectionTestUtils.setField(integrationService, "testProductMapping", testProductMapping);
+        ReflectionTestUtils.setField(integrationService, "sampleHumanService", mock(SampleHumanService.class));
+    }
+
+    @Test
+    public void captureInvoiceData_shouldNotBillACanceledAnalysis() {
+        analysis("A-1", "T-1", "Glucose", "1");
+        analysis("A-2", "T-2", "Malaria Smear", CANCELED_STATUS_ID);
+        OdooInvoiceOutbox invoice = new OdooInvoiceOutbox();
+        invoice.setAccessionNumber("LAB-1");
+        invoice.setSampleId("S-1");
+        invoice.setAnalysisIds("A-1,A-2");
+        invoice.setCreatedTime(Timestamp.valueOf("2026-10-19 08:00:00"));
+
+        integrationService.captureInvoiceData(invoice);
+
+        assertTrue(invoice.getInvoiceData().contains("Glucose product"));
+        assertFalse(invoice.getInvoiceData().contains("Malaria Smear product"));
+    }
+
+    private void analysis(String analysisId, String testId, String testName, String statusId) {
+        Localization name = new Localization();
+        name.setLocalizedValue(Locale.ENGLISH, testName);
+        org.openelisglobal.test.valueholder.Test test = new org.openelisglobal.test.valueholder.Test();
+        test.setId(testId);
+        test.setLocalizedTestName(name);
+        when(testService.get(testId)).thenReturn(test);
+        when(testProductMapping.hasValidMapping(testName)).thenReturn(true);
+        when(testProductMapping.getProductName(testName))
+                .thenReturn(new TestProductMapping.TestProductInfo(testName + " product", 1, 10));
+
+        Analysis analysis = new Analysis();
+        analysis.setId(analysisId);
+        analysis.setTest(test);
+        analysis.setStatusId(statusId);
+        when(analysisService.get(analysisId)).thenReturn(analysis);
+    }
+}
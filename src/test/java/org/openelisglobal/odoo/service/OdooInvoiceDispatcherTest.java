@@ -0,0 +1,184 @@
+package org.openelisglobal.odoo.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.ObjectNotFoundException;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.odoo.client.OdooConnection;
+import org.openelisglobal.odoo.valueholder.OdooInvoiceOutbox;
+import org.openelisglobal.sample.service.SampleService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class OdooInvoiceDispatcherTest {
+
+    private StubOdooConnection odooConnection;
+    private OdooInvoiceOutboxService outboxService;
+    private SampleService sampleService;
+    private OdooInvoiceDispatcher dispatcher;
+
+    @Before
+    public void setup() {
+        odooConnection = new StubOdooConnection();
+        OdooIntegrationService integrationService = new OdooIntegrationService();
+        ReflectionTestUtils.setField(integrationService, "odooConnection", odooConnection);
+        ReflectionTestUtils.setField(integrationService, "partnerCacheSize", 100);
+        sampleService = mock(SampleService.class);
+        ReflectionTestUtils.setField(integrationService, "sampleService", sampleService);
+        outboxService = mock(OdooInvoiceOutboxService.class);
+
+        dispatcher = new OdooInvoiceDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "outboxService", outboxService);
+        ReflectionTestUtils.setField(dispatcher, "odooIntegrationService", integrationService);
+    }
+
+    @Test
+    public void sendBatch_shouldCreateInvoicesOfAPartnerInOneCall() {
+        odooConnection.partners.put("NID-1", 41);
+        OdooInvoiceOutbox first = invoice("LAB-1", "NID-1", 1);
+        OdooInvoiceOutbox second = invoice("LAB-2", "NID-2", 1);
+        OdooInvoiceOutbox third = invoice("LAB-3", "NID-1", 1);
+
+        dispatcher.sendBatch(List.of(first, second, third));
+
+        assertEquals(List.of(List.of("OE-LAB-1", "OE-LAB-3"), List.of("OE-LAB-2")), odooConnection.createdRefs);
+        assertEquals(41, odooConnection.createdPartnerIds.get(0).intValue());
+        assertEquals(1, odooConnection.partnerCreates);
+        verify(outboxService).markSent(first, 1000);
+        verify(outboxService).markSent(third, 1001);
+        verify(outboxService).markSent(second, 1002);
+    }
+
+    @Test
+    public void sendBatch_shouldLookUpPartnersOncePerNationalId() {
+        odooConnection.partners.put("NID-1", 41);
+
+        dispatcher.sendBatch(List.of(invoice("LAB-1", "NID-1", 1)));
+        dispatcher.sendBatch(List.of(invoice("LAB-2", "NID-1", 1)));
+
+        assertEquals(1, odooConnection.partnerSearches);
+        assertEquals(0, odooConnection.partnerCreates);
+    }
+
+    @Test
+    public void sendBatch_shouldRecordFailureForEveryInvoiceOfAFailedCall() {
+        odooConnection.failCreate = true;
+        OdooInvoiceOutbox first = invoice("LAB-1", "NID-1", 1);
+        OdooInvoiceOutbox second = invoice("LAB-2", "NID-1", 1);
+
+        dispatcher.sendBatch(List.of(first, second));
+
+        verify(outboxService).recordFailure(eq(first), anyString());
+        verify(outboxService).recordFailure(eq(second), anyString());
+        verify(outboxService, never()).markSent(eq(first), anyInt());
+    }
+
+    @Test
+    public void sendBatch_shouldNotCreateARetriedInvoiceThatOdooAlreadyHas() {
+        odooConnection.invoices.put("OE-LAB-1", 77);
+        OdooInvoiceOutbox retried = invoice("LAB-1", "NID-1", 2);
+
+        dispatcher.sendBatch(List.of(retried));
+
+        verify(outboxService).markSent(retried, 77);
+        assertEquals(0, odooConnection.createdRefs.size());
+    }
+
+    @Test
+    public void sendBatch_shouldRecordFailureOfAnInvoiceThatCannotBeBuiltAndSendTheOthers() {
+        OdooInvoiceOutbox unbuildable = new OdooInvoiceOutbox();
+        unbuildable.setAccessionNumber("LAB-1");
+        unbuildable.setSampleId("S-1");
+        unbuildable.setAttempts(1);
+        when(sampleService.get("S-1")).thenThrow(new ObjectNotFoundException("S-1", "Sample"));
+        OdooInvoiceOutbox other = invoice("LAB-2", "NID-2", 1);
+
+        dispatcher.sendBatch(List.of(unbuildable, other));
+
+        verify(outboxService).recordFailure(eq(unbuildable), anyString());
+        verify(outboxService).markSent(other, 1000);
+        assertEquals(List.of(List.of("OE-LAB-2")), odooConnection.createdRefs);
+    }
+
+    private OdooInvoiceOutbox invoice(String accessionNumber, String nationalId, int attempts) {
+        OdooInvoiceOutbox invoice = new OdooInvoiceOutbox();
+        invoice.setAccessionNumber(accessionNumber);
+        invoice.setNationalId(nationalId);
+        invoice.setPatientId("P-" + nationalId);
+        invoice.setAttempts(attempts);
+        invoice.setPartnerData("{\"name\":\"Patient " + nationalId + "\",\"ref\":\"" + nationalId + "\"}");
+        invoice.setInvoiceData("{\"move_type\":\"out_invoice\",\"ref\":\"OE-" + accessionNumber + "\"}");
+        return invoice;
+    }
+
+    private static class StubOdooConnection implements OdooConnection {
+
+        private final Map<String, Integer> partners = new HashMap<>();
+        private final Map<String, Integer> invoices = new HashMap<>();
+        private final List<List<String>> createdRefs = new ArrayList<>();
+        private final List<Integer> createdPartnerIds = new ArrayList<>();
+        private int partnerSearches;
+        private int partnerCreates;
+        private int nextInvoiceId = 1000;
+        private boolean failCreate;
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public Integer create(String model, List<Map<String, Object>> dataParams) {
+            partnerCreates++;
+            return 500 + partnerCreates;
+        }
+
+        @Override
+        public List<Integer> createMultiple(String model, List<Map<String, Object>> records) {
+            if (failCreate) {
+                throw new IllegalStateException("Odoo is not available");
+            }
+            List<String> refs = new ArrayList<>();
+            List<Integer> ids = new ArrayList<>();
+            for (Map<String, Object> record : records) {
+                refs.add((String) record.get("ref"));
+                ids.add(nextInvoiceId++);
+            }
+            createdRefs.add(refs);
+            createdPartnerIds.add((Integer) records.get(0).get("partner_id"));
+            return ids;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object[] searchAndRead(String model, List<Object> criteria, List<String> fields) {
+            Map<String, Integer> records = "res.partner".equals(model) ? partners : invoices;
+            if ("res.partner".equals(model)) {
+                partnerSearches++;
+            }
+            List<Object> values = criteria.get(2) instanceof List ? (List<Object>) criteria.get(2)
+                    : List.of(criteria.get(2));
+            List<Object> result = new ArrayList<>();
+            for (Object value : values) {
+                if (records.containsKey(value)) {
+                    Map<String, Object> record = new HashMap<>();
+                    record.put("id", records.get(value));
+                    record.put(fields.contains("ref") ? "ref" : "name", value);
+                    result.add(record);
+                }
+            }
+            return result.toArray();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.openelisglobal.program.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+public class ProgramImageServiceImplTest {
+
+    @Test
+    public void createThumbnail_shouldScaleTheImageToFitTheThumbnailSize() throws IOException {
+        byte[] thumbnail = ProgramImageServiceImpl.createThumbnail(png(2000, 1000), 100, 10_000_000);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertEquals(100, image.getWidth());
+        assertEquals(50, image.getHeight());
+    }
+
+    @Test
+    public void createThumbnail_shouldNotDecodeAnImageWithMoreThanTheMaxPixels() throws IOException {
+        assertNull(ProgramImageServiceImpl.createThumbnail(png(2000, 1000), 100, 1_000_000));
+    }
+
+    @Test
+    public void createThumbnail_shouldReturnNullForContentThatIsNotAnImage() {
+        assertNull(ProgramImageServiceImpl.createThumbnail("%PDF-1.4".getBytes(), 100, 10_000_000));
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,176 @@
+package org.openelisglobal.resultvalidation.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openelisglobal.analysis.dao.AnalysisDAO;
+import org.openelisglobal.analysis.valueholder.Analysis;
+import org.openelisglobal.common.paging.PagingProperties;
+import org.openelisglobal.common.services.IStatusService;
+import org.openelisglobal.common.services.StatusService.AnalysisStatus;
+import org.openelisglobal.resultvalidation.dao.ValidationQueueDAO;
+import org.openelisglobal.resultvalidation.valueholder.ValidationQueueEntry;
+import org.openelisglobal.sample.valueholder.Sample;
+import org.openelisglobal.sampleitem.valueholder.SampleItem;
+import org.openelisglobal.test.valueholder.TestSection;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ValidationQueueServiceImplTest {
+
+    private static final List<Integer> STATUS_IDS = Arrays.asList(6);
+
+    @Mock
+    private ValidationQueueDAO validationQueueDAO;
+    @Mock
+    private AnalysisDAO analysisDAO;
+    @Mock
+    private IStatusService statusService;
+    @Mock
+    private PagingProperties pagingProperties;
+
+    @InjectMocks
+    private ValidationQueueServiceImpl validationQueueService;
+
+    @Before
+    public void setUp() {
+        lenient().when(statusService.getStatusID(AnalysisStatus.TechnicalAcceptance)).thenReturn("6");
+        lenient().when(statusService.getStatusID(AnalysisStatus.TechnicalRejected)).thenReturn("7");
+        lenient().when(pagingProperties.getValidationMaxAnalyses()).thenReturn(3);
+    }
+
+    @Test
+    public void refresh_shouldUpsertAnalysisWaitingForValidationWithoutReadingItsRow() {
+        validationQueueService.refresh(createAnalysis("10", "6", "2024000001"));
+
+        ValidationQueueEntry entry = captureUpsertedEntries().get(0);
+        assertEquals(Integer.valueOf(10), entry.getId());
+        assertEquals(Integer.valueOf(4), entry.getTestSectionId());
+        assertEquals(Integer.valueOf(6), entry.getStatusId());
+        verify(validationQueueDAO, never()).get(any());
+    }
+
+    @Test
+    public void refresh_shouldDeleteAnalysisNoLongerWaitingForValidation() {
+        validationQueueService.refresh(createAnalysis("10", "16", "2024000001"));
+
+        verify(validationQueueDAO).deleteByIds(Arrays.asList(10));
+        verify(validationQueueDAO, never()).upsert(any());
+    }
+
+    @Test
+    public void refresh_shouldWriteLatestStateOnceWhenTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Analysis analysis = createAnalysis("10", "4", "2024000001");
+            validationQueueService.refresh(analysis);
+            analysis.setStatusId("6");
+            validationQueueService.refresh(analysis);
+            validationQueueService.refresh(createAnalysis("11", "6", "2024000001"));
+
+            verify(validationQueueDAO, never()).upsert(any());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        List<ValidationQueueEntry> entries = captureUpsertedEntries();
+        assertEquals(2, entries.size());
+        assertEquals(Integer.valueOf(10), entries.get(0).getId());
+        assertEquals(Integer.valueOf(6), entries.get(0).getStatusId());
+        assertEquals(Integer.valueOf(11), entries.get(1).getId());
+    }
+
+    @Test
+    public void remove_shouldDropAnalysisRefreshedEarlierInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            validationQueueService.refresh(createAnalysis("10", "6", "2024000001"));
+            validationQueueService.remove("10");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(validationQueueDAO).deleteByIds(Arrays.asList(10));
+        verify(validationQueueDAO, never()).upsert(any());
+    }
+
+    @Test
+    public void getQueuedAnalysesInTestSection_shouldCompleteLastSampleAndKeepQueueOrder() {
+        when(validationQueueDAO.getAnalysisIdsInTestSection("4", STATUS_IDS, 3))
+                .thenReturn(new ArrayList<>(Arrays.asList("3", "1", "2")));
+        when(validationQueueDAO.getAnalysisIdsAtAccessionNumber("2024000002", "4", STATUS_IDS))
+                .thenReturn(Arrays.asList("2", "5"));
+        when(analysisDAO.getAnalysesWithSampleAndTest(Arrays.asList("3", "1", "2")))
+                .thenReturn(Arrays.asList(createAnalysis("1", "6", "2024000001"),
+                        createAnalysis("2", "6", "2024000002"), createAnalysis("3", "6", "2024000001")));
+        when(analysisDAO.getAnalysesWithSampleAndTest(Arrays.asList("5")))
+                .thenReturn(Arrays.asList(createAnalysis("5", "6", "2024000002")));
+
+        List<Analysis> analyses = validationQueueService.getQueuedAnalysesInTestSection("4", STATUS_IDS);
+
+        assertEquals(4, analyses.size());
+        assertEquals("3", analyses.get(0).getId());
+        assertEquals("1", analyses.get(1).getId());
+        assertEquals("2", analyses.get(2).getId());
+        assertEquals("5", analyses.get(3).getId());
+    }
+
+    @Test
+    public void getQueuedAnalysesInTestSection_shouldNotLookFurtherOnShortPage() {
+        when(validationQueueDAO.getAnalysisIdsInTestSection("4", STATUS_IDS, 3))
+                .thenReturn(new ArrayList<>(Arrays.asList("1")));
+        when(analysisDAO.getAnalysesWithSampleAndTest(anyList()))
+                .thenReturn(Arrays.asList(createAnalysis("1", "6", "2024000001")));
+
+        assertEquals(1, validationQueueService.getQueuedAnalysesInTestSection("4", STATUS_IDS).size());
+        verify(validationQueueDAO, never()).getAnalysisIdsAtAccessionNumber(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ValidationQueueEntry> captureUpsertedEntries() {
+        ArgumentCaptor<Collection<ValidationQueueEntry>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(validationQueueDAO).upsert(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private Analysis createAnalysis(String id, String statusId, String accessionNumber) {
+        Sample sample = new Sample();
+        sample.setId("30");
+        sample.setAccessionNumber(accessionNumber);
+        SampleItem sampleItem = new SampleItem();
+        sampleItem.setSample(sample);
+        TestSection testSection = new TestSection();
+        testSection.setId("4");
+        org.openelisglobal.test.valueholder.Test test = new org.openelisglobal.test.valueholder.Test();
+        test.setId("8");
+        test.setSortOrder("2");
+
+        Analysis analysis = new Analysis();
+        analysis.setId(id);
+        analysis.setStatusId(statusId);
+        analysis.setSampleItem(sampleItem);
+        analysis.setTestSection(testSection);
+        analysis.setTest(test);
+        return analysis;
+    }
+}
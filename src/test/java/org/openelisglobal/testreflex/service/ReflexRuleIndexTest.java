@@ -0,0 +1,125 @@
+package org.openelisglobal.testreflex.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openelisglobal.analyte.valueholder.Analyte;
+import org.openelisglobal.testanalyte.valueholder.TestAnalyte;
+import org.openelisglobal.testreflex.action.bean.ReflexRule;
+import org.openelisglobal.testreflex.action.bean.ReflexRuleCondition;
+import org.openelisglobal.testreflex.action.bean.ReflexRuleOptions;
+import org.openelisglobal.testreflex.dao.ReflexRuleDAO;
+import org.openelisglobal.testreflex.dao.TestReflexDAO;
+import org.openelisglobal.testreflex.valueholder.TestReflex;
+import org.openelisglobal.testresult.valueholder.TestResult;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReflexRuleIndexTest {
+
+    @Mock
+    private TestReflexDAO testReflexDAO;
+    @Mock
+    private ReflexRuleDAO reflexRuleDAO;
+
+    @InjectMocks
+    private ReflexRuleIndex reflexRuleIndex;
+
+    @Before
+    public void setUp() {
+        when(testReflexDAO.getAllTestReflexsWithTriggers()).thenReturn(Arrays.asList(
+                createReflex("1", "10", "100", "1000"), createReflex("2", "10", "100", "1001"),
+                createReflex("3", "10", "101", null), createReflex("4", "11", "100", "1000")));
+        when(reflexRuleDAO.getAll())
+                .thenReturn(Arrays.asList(createRule(100, ReflexRuleOptions.OverallOptions.ALL, 5, 6),
+                        createRule(101, ReflexRuleOptions.OverallOptions.ANY, 7)));
+    }
+
+    @Test
+    public void hasReflexes_shouldOnlyBeTrueForTriggeringTests() {
+        assertTrue(reflexRuleIndex.hasReflexes("10"));
+        assertTrue(reflexRuleIndex.hasReflexes("11"));
+        assertFalse(reflexRuleIndex.hasReflexes("12"));
+        assertFalse(reflexRuleIndex.hasReflexes(null));
+    }
+
+    @Test
+    public void getReflexIds_shouldMatchOnTestAndAnalyte() {
+        assertEquals(Arrays.asList("1", "2"), reflexRuleIndex.getReflexIds("10", "100"));
+        assertEquals(Arrays.asList("3"), reflexRuleIndex.getReflexIds("10", "101"));
+        assertTrue(reflexRuleIndex.getReflexIds("12", "100").isEmpty());
+    }
+
+    @Test
+    public void getReflexIds_shouldMatchOnTestAnalyteAndTestResult() {
+        assertEquals(Arrays.asList("1"), reflexRuleIndex.getReflexIds("10", "100", "1000"));
+        assertEquals(Arrays.asList("4"), reflexRuleIndex.getReflexIds("11", "100", "1000"));
+        assertTrue(reflexRuleIndex.getReflexIds("10", "101", null).isEmpty());
+    }
+
+    @Test
+    public void getAllConditionsTestAnalyteIds_shouldOnlyBeSetForAllConditionRules() {
+        assertEquals(new HashSet<>(Arrays.asList(5, 6)), reflexRuleIndex.getAllConditionsTestAnalyteIds("100"));
+        assertNull(reflexRuleIndex.getAllConditionsTestAnalyteIds("101"));
+        assertNull(reflexRuleIndex.getAllConditionsTestAnalyteIds("102"));
+    }
+
+    @Test
+    public void index_shouldBeLoadedOnceUntilInvalidated() {
+        reflexRuleIndex.hasReflexes("10");
+        reflexRuleIndex.getReflexIds("10", "100");
+        verify(testReflexDAO, times(1)).getAllTestReflexsWithTriggers();
+
+        reflexRuleIndex.invalidate();
+        reflexRuleIndex.hasReflexes("10");
+        verify(testReflexDAO, times(2)).getAllTestReflexsWithTriggers();
+    }
+
+    private TestReflex createReflex(String id, String testId, String analyteId, String testResultId) {
+        org.openelisglobal.test.valueholder.Test test = new org.openelisglobal.test.valueholder.Test();
+        test.setId(testId);
+        Analyte analyte = new Analyte();
+        analyte.setId(analyteId);
+        TestAnalyte testAnalyte = new TestAnalyte();
+        testAnalyte.setAnalyte(analyte);
+
+        TestReflex reflex = new TestReflex();
+        reflex.setId(id);
+        reflex.setTest(test);
+        reflex.setTestAnalyte(testAnalyte);
+        if (testResultId != null) {
+            TestResult testResult = new TestResult();
+            testResult.setId(testResultId);
+            reflex.setTestResult(testResult);
+        }
+        return reflex;
+    }
+
+    private ReflexRule createRule(Integer analyteId, ReflexRuleOptions.OverallOptions overall,
+            Integer... testAnalyteIds) {
+        Set<ReflexRuleCondition> conditions = new HashSet<>();
+        for (Integer testAnalyteId : testAnalyteIds) {
+            ReflexRuleCondition condition = new ReflexRuleCondition();
+            condition.setTestAnalyteId(testAnalyteId);
+            conditions.add(condition);
+        }
+        ReflexRule rule = new ReflexRule();
+        rule.setAnalyteId(analyteId);
+        rule.setOverall(overall);
+        rule.setConditions(conditions);
+        return rule;
+    }
+}
@@ -0,0 +1,125 @@
+package org.openelisglobal.workplan.reports;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import org.junit.Before;
+import org.junit.Test;
+import org.openelisglobal.workplan.valueholder.WorkplanRow;
+
+public class WorkplanRowDataSourceTest {
+
+    private List<WorkplanRow> rows;
+    private List<WorkplanRow> pageStarts;
+    private List<List<WorkplanRow>> decoratedSamples;
+
+    @Before
+    public void setup() {
+        rows = new ArrayList<>();
+        pageStarts = new ArrayList<>();
+        decoratedSamples = new ArrayList<>();
+    }
+
+    @Test
+    public void next_shouldGroupTheRowsOfASampleAcrossPages() throws JRException {
+        rows.add(row("1", "A-001", "10"));
+        rows.add(row("2", "A-001", "11"));
+        rows.add(row("3", "A-001", "12"));
+        rows.add(row("4", "A-002", "10"));
+        rows.add(row("5", "A-003", "11"));
+        WorkplanRowDataSource dataSource = dataSource(2);
+
+        List<String> printed = readTestNames(dataSource);
+
+        assertEquals(List.of("test 10", "test 11", "test 12", "test 10", "test 11"), printed);
+        assertEquals(3, decoratedSamples.size());
+        assertEquals(3, decoratedSamples.get(0).size());
+        // a short page is the last one, so no empty page is read after analysis 5
+        assertEquals(3, pageStarts.size());
+        assertEquals(null, pageStarts.get(0));
+        assertEquals("2", pageStarts.get(1).getAnalysisId());
+        assertEquals("4", pageStarts.get(2).getAnalysisId());
+    }
+
+    @Test
+    public void next_shouldSkipRowsRejectedByTheFilter() throws JRException {
+        rows.add(row("1", "A-001", "10"));
+        rows.add(row("2", "A-001", "11"));
+        rows.add(row("3", "A-002", "11"));
+        rows.add(row("4", "A-003", "10"));
+        WorkplanRowDataSource dataSource = dataSource(3);
+        dataSource.setRowFilter(row -> "10".equals(row.getTestId()));
+
+        List<String> printed = readTestNames(dataSource);
+
+        assertEquals(List.of("test 10", "test 10"), printed);
+        assertEquals(2, decoratedSamples.size());
+    }
+
+    @Test
+    public void next_shouldPrintASampleWithAllNfsTestsAsOneLine() throws JRException {
+        rows.add(row("1", "A-001", "20"));
+        rows.add(row("2", "A-001", "10"));
+        rows.add(row("3", "A-001", "21"));
+        rows.add(row("4", "A-002", "20"));
+        WorkplanRowDataSource dataSource = dataSource(10);
+        dataSource.setNfsTestIds(List.of("20", "21"));
+
+        List<String> printed = readTestNames(dataSource);
+
+        assertEquals(List.of(WorkplanRowDataSource.NFS_TEST_NAME, "test 10", "test 20"), printed);
+    }
+
+    @Test
+    public void next_shouldPrintThePatientNameAboveTheTestsOfEachSample() throws JRException {
+        rows.add(row("1", "A-001", "10"));
+        rows.add(row("2", "A-001", "11"));
+        rows.add(row("3", "A-002", "10"));
+        WorkplanRowDataSource dataSource = dataSource(10);
+        dataSource.setPatientNameRows(true);
+
+        List<String> printed = readTestNames(dataSource);
+
+        assertEquals(List.of("patient A-001", "test 10", "test 11", "patient A-002", "test 10"), printed);
+        assertEquals(5, dataSource.getRowCount());
+    }
+
+    private WorkplanRowDataSource dataSource(int pageSize) {
+        return new WorkplanRowDataSource(this::readPage, pageSize, sampleRows -> {
+            decoratedSamples.add(new ArrayList<>(sampleRows));
+            for (WorkplanRow row : sampleRows) {
+                row.setTestName("test " + row.getTestId());
+                row.setPatientName("patient " + row.getAccessionNumber());
+            }
+        });
+    }
+
+    private List<WorkplanRow> readPage(WorkplanRow after, int pageSize) {
+        pageStarts.add(after);
+        int start = after == null ? 0 : rows.indexOf(after) + 1;
+        return new ArrayList<>(rows.subList(start, Math.min(rows.size(), start + pageSize)));
+    }
+
+    private List<String> readTestNames(WorkplanRowDataSource dataSource) throws JRException {
+        JRField testName = mock(JRField.class);
+        when(testName.getName()).thenReturn("testName");
+        List<String> printed = new ArrayList<>();
+        while (dataSource.next()) {
+            printed.add((String) dataSource.getFieldValue(testName));
+        }
+        return printed;
+    }
+
+    private WorkplanRow row(String analysisId, String accessionNumber, String testId) {
+        WorkplanRow row = new WorkplanRow();
+        row.setAnalysisId(analysisId);
+        row.setAccessionNumber(accessionNumber);
+        row.setTestId(testId);
+        return row;
+    }
+}